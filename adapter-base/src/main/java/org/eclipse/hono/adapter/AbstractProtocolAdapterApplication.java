@@ -13,14 +13,19 @@
 package org.eclipse.hono.adapter;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.Executors;
+import java.util.function.Function;
 
 import javax.inject.Inject;
 
+import org.eclipse.hono.adapter.auth.device.usernamepassword.PasswordVerifier;
+import org.eclipse.hono.adapter.limiting.InFlightMessageLimiter;
 import org.eclipse.hono.adapter.monitoring.ConnectionEventProducer;
 import org.eclipse.hono.adapter.monitoring.ConnectionEventProducerConfig;
 import org.eclipse.hono.adapter.monitoring.ConnectionEventProducerOptions;
@@ -34,11 +39,14 @@ import org.eclipse.hono.adapter.resourcelimits.PrometheusBasedResourceLimitCheck
 import org.eclipse.hono.adapter.resourcelimits.PrometheusBasedResourceLimitChecks;
 import org.eclipse.hono.adapter.resourcelimits.PrometheusBasedResourceLimitChecksConfig;
 import org.eclipse.hono.adapter.resourcelimits.ResourceLimitChecks;
+import org.eclipse.hono.client.amqp.AbstractPooledServiceClient;
+import org.eclipse.hono.client.amqp.AbstractServiceClient;
 import org.eclipse.hono.client.amqp.config.ClientConfigProperties;
 import org.eclipse.hono.client.amqp.config.ClientOptions;
 import org.eclipse.hono.client.amqp.config.RequestResponseClientConfigProperties;
 import org.eclipse.hono.client.amqp.config.RequestResponseClientOptions;
 import org.eclipse.hono.client.amqp.connection.HonoConnection;
+import org.eclipse.hono.client.amqp.connection.HonoConnectionPool;
 import org.eclipse.hono.client.amqp.connection.SendMessageSampler;
 import org.eclipse.hono.client.command.CommandResponseSender;
 import org.eclipse.hono.client.command.CommandRouterClient;
@@ -70,21 +78,28 @@ import org.eclipse.hono.client.pubsub.subscriber.CachingPubSubSubscriberFactory;
 import org.eclipse.hono.client.registry.CredentialsClient;
 import org.eclipse.hono.client.registry.DeviceRegistrationClient;
 import org.eclipse.hono.client.registry.TenantClient;
+import org.eclipse.hono.client.registry.amqp.PooledCredentialsClient;
+import org.eclipse.hono.client.registry.amqp.PooledDeviceRegistrationClient;
+import org.eclipse.hono.client.registry.amqp.PooledTenantClient;
 import org.eclipse.hono.client.registry.amqp.ProtonBasedCredentialsClient;
 import org.eclipse.hono.client.registry.amqp.ProtonBasedDeviceRegistrationClient;
 import org.eclipse.hono.client.registry.amqp.ProtonBasedTenantClient;
 import org.eclipse.hono.client.telemetry.EventSender;
 import org.eclipse.hono.client.telemetry.TelemetrySender;
+import org.eclipse.hono.client.telemetry.amqp.PooledDownstreamSender;
 import org.eclipse.hono.client.telemetry.amqp.ProtonBasedDownstreamSender;
 import org.eclipse.hono.client.telemetry.kafka.KafkaBasedEventSender;
 import org.eclipse.hono.client.telemetry.kafka.KafkaBasedTelemetrySender;
 import org.eclipse.hono.client.telemetry.pubsub.PubSubBasedDownstreamSender;
 import org.eclipse.hono.client.util.MessagingClientProvider;
+import org.eclipse.hono.client.util.ResponseCacheIndex;
 import org.eclipse.hono.service.NotificationSupportingServiceApplication;
+import org.eclipse.hono.service.auth.SpringBasedHonoPasswordEncoder;
 import org.eclipse.hono.service.cache.Caches;
 import org.eclipse.hono.util.CredentialsObject;
 import org.eclipse.hono.util.CredentialsResult;
 import org.eclipse.hono.util.EventConstants;
+import org.eclipse.hono.util.Lifecycle;
 import org.eclipse.hono.util.MessagingType;
 import org.eclipse.hono.util.RegistrationResult;
 import org.eclipse.hono.util.TelemetryConstants;
@@ -155,8 +170,18 @@ public abstract class AbstractProtocolAdapterApplication<C extends ProtocolAdapt
     private Cache<Object, TenantResult<TenantObject>> tenantResponseCache;
     private Cache<Object, RegistrationResult> registrationResponseCache;
     private Cache<Object, CredentialsResult<CredentialsObject>> credentialsResponseCache;
+    private final ResponseCacheIndex tenantResponseCacheIndex = new ResponseCacheIndex();
+    private final ResponseCacheIndex registrationResponseCacheIndex = new ResponseCacheIndex();
+    private final ResponseCacheIndex credentialsResponseCacheIndex = new ResponseCacheIndex();
 
     private PubSubConfigProperties pubSubConfigProperties;
+    private PasswordVerifier passwordVerifier;
+    private InFlightMessageLimiter inFlightMessageLimiter;
+
+    private final List<HonoConnectionPool> sharedRegistryConnectionPools = new ArrayList<>();
+    private TenantClient sharedTenantClient;
+    private DeviceRegistrationClient sharedRegistrationClient;
+    private CredentialsClient sharedCredentialsClient;
 
     /**
      * Creates an instance of the protocol adapter.
@@ -300,6 +325,10 @@ public abstract class AbstractProtocolAdapterApplication<C extends ProtocolAdapt
         LOG.info("deploying {} {} instances ...", appConfig.getMaxInstances(), getComponentName());
         final Map<String, String> deploymentResult = new HashMap<>();
 
+        if (protocolAdapterProperties.isSharedRegistryClients()) {
+            createSharedRegistryClients();
+        }
+
         final Future<String> adapterTracker = vertx.deployVerticle(
                 this::adapter,
                 new DeploymentOptions().setInstances(appConfig.getMaxInstances()))
@@ -309,6 +338,19 @@ public abstract class AbstractProtocolAdapterApplication<C extends ProtocolAdapt
             })
             .onFailure(t -> LOG.error("failed to deploy adapter verticle(s)", t));
 
+        final Future<String> sharedRegistryClientsTracker;
+        if (sharedRegistryConnectionPools.isEmpty()) {
+            sharedRegistryClientsTracker = Future.succeededFuture();
+        } else {
+            sharedRegistryClientsTracker = vertx.deployVerticle(
+                    new WrappedLifecycleComponentVerticle(sharedRegistryConnectionsLifecycle()))
+                .onSuccess(ok -> {
+                    LOG.info("successfully deployed shared registry clients verticle");
+                    deploymentResult.put("shared registry clients verticle", "successfully deployed");
+                })
+                .onFailure(t -> LOG.error("failed to deploy shared registry clients verticle", t));
+        }
+
         final var notificationReceiver = notificationReceiver(kafkaNotificationConfig, downstreamSenderConfig, pubSubConfigProperties);
         final Future<String> notificationReceiverTracker = vertx.deployVerticle(
                 new WrappedLifecycleComponentVerticle(notificationReceiver))
@@ -318,7 +360,7 @@ public abstract class AbstractProtocolAdapterApplication<C extends ProtocolAdapt
             })
             .onFailure(t -> LOG.error("failed to deploy notification receiver verticle(s)", t));
 
-        CompositeFuture.all(adapterTracker, notificationReceiverTracker)
+        CompositeFuture.all(adapterTracker, notificationReceiverTracker, sharedRegistryClientsTracker)
             .map(deploymentResult)
             .onComplete(deploymentCheck);
     }
@@ -334,12 +376,14 @@ public abstract class AbstractProtocolAdapterApplication<C extends ProtocolAdapt
 
         Objects.requireNonNull(adapter);
 
-        final DeviceRegistrationClient registrationClient = registrationClient();
+        final DeviceRegistrationClient registrationClient = Optional.ofNullable(sharedRegistrationClient)
+                .orElseGet(this::registrationClient);
 
         final var telemetrySenderProvider = new MessagingClientProvider<TelemetrySender>();
         final var eventSenderProvider = new MessagingClientProvider<EventSender>();
         final var commandResponseSenderProvider = new MessagingClientProvider<CommandResponseSender>();
-        final var tenantClient = tenantClient();
+        final TenantClient tenantClient = Optional.ofNullable(sharedTenantClient)
+                .orElseGet(this::tenantClient);
 
         if (!appConfig.isKafkaMessagingDisabled() && kafkaEventConfig.isConfigured()) {
             LOG.info("Kafka client configuration present, adding Kafka messaging clients");
@@ -367,8 +411,13 @@ public abstract class AbstractProtocolAdapterApplication<C extends ProtocolAdapt
         }
         if (!appConfig.isAmqpMessagingDisabled() && downstreamSenderConfig.isHostConfigured()) {
             LOG.info("AMQP 1.0 client configuration present, adding AMQP 1.0 based messaging clients");
-            telemetrySenderProvider.setClient(downstreamSender());
-            eventSenderProvider.setClient(downstreamSender());
+            if (downstreamSenderConfig.getConnectionPoolSize() > 1) {
+                telemetrySenderProvider.setClient(pooledDownstreamSender());
+                eventSenderProvider.setClient(pooledDownstreamSender());
+            } else {
+                telemetrySenderProvider.setClient(downstreamSender());
+                eventSenderProvider.setClient(downstreamSender());
+            }
             commandResponseSenderProvider.setClient(
                     new ProtonBasedCommandResponseSender(
                             HonoConnection.newConnection(vertx, commandResponseSenderConfig(), tracer),
@@ -465,9 +514,13 @@ public abstract class AbstractProtocolAdapterApplication<C extends ProtocolAdapt
         }
 
         adapter.setMessagingClientProviders(messagingClientProviders);
+        adapter.setPasswordVerifier(passwordVerifier());
+        Optional.ofNullable(inFlightMessageLimiter())
+            .ifPresent(adapter::setInFlightMessageLimiter);
         Optional.ofNullable(connectionEventProducer())
             .ifPresent(adapter::setConnectionEventProducer);
-        adapter.setCredentialsClient(credentialsClient());
+        adapter.setCredentialsClient(Optional.ofNullable(sharedCredentialsClient)
+                .orElseGet(this::credentialsClient));
         adapter.setHealthCheckServer(healthCheckServer);
         adapter.setRegistrationClient(registrationClient);
         adapter.setResourceLimitChecks(prometheusResourceLimitChecks(resourceLimitChecksConfig, tenantClient));
@@ -492,9 +545,46 @@ public abstract class AbstractProtocolAdapterApplication<C extends ProtocolAdapt
         }
     }
 
+    /**
+     * Gets the component that the adapter instances should use for verifying passwords provided by devices.
+     * <p>
+     * The verifier is shared by all adapter instances.
+     *
+     * @return The verifier.
+     */
+    protected PasswordVerifier passwordVerifier() {
+        if (passwordVerifier == null) {
+            passwordVerifier = new PasswordVerifier(
+                    new SpringBasedHonoPasswordEncoder(),
+                    protocolAdapterProperties.getPasswordVerificationThreads(),
+                    protocolAdapterProperties.getPasswordVerificationQueueSize(),
+                    protocolAdapterProperties.getPasswordVerificationCacheTimeout(),
+                    meterRegistry);
+        }
+        return passwordVerifier;
+    }
+
+    /**
+     * Gets the component that the adapter instances should use for limiting the number of
+     * telemetry and event messages being processed concurrently.
+     * <p>
+     * The limiter is shared by all adapter instances.
+     *
+     * @return The limiter or {@code null} if the number of messages is not limited.
+     */
+    protected InFlightMessageLimiter inFlightMessageLimiter() {
+        if (inFlightMessageLimiter == null && protocolAdapterProperties.getMaxInFlightMessages() > 0) {
+            inFlightMessageLimiter = new InFlightMessageLimiter(
+                    protocolAdapterProperties.getMaxInFlightMessages(),
+                    protocolAdapterProperties.getMaxInFlightMessagesPerTenant(),
+                    meterRegistry);
+        }
+        return inFlightMessageLimiter;
+    }
+
     private Cache<Object, TenantResult<TenantObject>> tenantResponseCache() {
         if (tenantResponseCache == null) {
-            tenantResponseCache = Caches.newCaffeineCache(tenantClientConfig);
+            tenantResponseCache = Caches.newCaffeineCache(tenantClientConfig, tenantResponseCacheIndex);
         }
         return tenantResponseCache;
     }
@@ -505,15 +595,23 @@ public abstract class AbstractProtocolAdapterApplication<C extends ProtocolAdapt
      * @return The client.
      */
     protected TenantClient tenantClient() {
+        if (tenantClientConfig.getConnectionPoolSize() > 1) {
+            return new PooledTenantClient(registryConnectionPool(tenantClientConfig), this::tenantClient);
+        }
+        return tenantClient(HonoConnection.newConnection(vertx, tenantClientConfig, tracer));
+    }
+
+    private ProtonBasedTenantClient tenantClient(final HonoConnection connection) {
         return new ProtonBasedTenantClient(
-                HonoConnection.newConnection(vertx, tenantClientConfig, tracer),
+                connection,
                 messageSamplerFactory,
-                tenantResponseCache());
+                tenantResponseCache(),
+                tenantResponseCacheIndex);
     }
 
     private Cache<Object, RegistrationResult> registrationResponseCache() {
         if (registrationResponseCache == null) {
-            registrationResponseCache = Caches.newCaffeineCache(deviceRegistrationClientConfig);
+            registrationResponseCache = Caches.newCaffeineCache(deviceRegistrationClientConfig, registrationResponseCacheIndex);
         }
         return registrationResponseCache;
     }
@@ -524,15 +622,25 @@ public abstract class AbstractProtocolAdapterApplication<C extends ProtocolAdapt
      * @return The client.
      */
     protected DeviceRegistrationClient registrationClient() {
+        if (deviceRegistrationClientConfig.getConnectionPoolSize() > 1) {
+            return new PooledDeviceRegistrationClient(
+                    registryConnectionPool(deviceRegistrationClientConfig),
+                    this::registrationClient);
+        }
+        return registrationClient(HonoConnection.newConnection(vertx, deviceRegistrationClientConfig, tracer));
+    }
+
+    private ProtonBasedDeviceRegistrationClient registrationClient(final HonoConnection connection) {
         return new ProtonBasedDeviceRegistrationClient(
-                HonoConnection.newConnection(vertx, deviceRegistrationClientConfig, tracer),
+                connection,
                 messageSamplerFactory,
-                registrationResponseCache());
+                registrationResponseCache(),
+                registrationResponseCacheIndex);
     }
 
     private Cache<Object, CredentialsResult<CredentialsObject>> credentialsResponseCache() {
         if (credentialsResponseCache == null) {
-            credentialsResponseCache = Caches.newCaffeineCache(credentialsClientConfig);
+            credentialsResponseCache = Caches.newCaffeineCache(credentialsClientConfig, credentialsResponseCacheIndex);
         }
         return credentialsResponseCache;
     }
@@ -543,10 +651,119 @@ public abstract class AbstractProtocolAdapterApplication<C extends ProtocolAdapt
      * @return The client.
      */
     protected CredentialsClient credentialsClient() {
+        if (credentialsClientConfig.getConnectionPoolSize() > 1) {
+            return new PooledCredentialsClient(registryConnectionPool(credentialsClientConfig), this::credentialsClient);
+        }
+        return credentialsClient(HonoConnection.newConnection(vertx, credentialsClientConfig, tracer));
+    }
+
+    private ProtonBasedCredentialsClient credentialsClient(final HonoConnection connection) {
         return new ProtonBasedCredentialsClient(
-                HonoConnection.newConnection(vertx, credentialsClientConfig, tracer),
+                connection,
                 messageSamplerFactory,
-                credentialsResponseCache());
+                credentialsResponseCache(),
+                credentialsResponseCacheIndex);
+    }
+
+    /**
+     * Creates a pool of connections to a device registry service.
+     * <p>
+     * Requests of a tenant are always sent via the same connection of the pool.
+     *
+     * @param config The client configuration to use for the connections.
+     * @return The pool.
+     */
+    private HonoConnectionPool registryConnectionPool(final ClientConfigProperties config) {
+        return HonoConnectionPool.newPool(vertx, config, tracer, HonoConnectionPool.Placement.TENANT_HASH);
+    }
+
+    /**
+     * Creates the Tenant, Device Registration and Credentials service clients that are shared by
+     * all adapter verticle instances.
+     * <p>
+     * The adapter instances do not establish or close the shared clients' connections when they are
+     * started or stopped. Instead, the connections are managed by a separate verticle so that all
+     * AMQP links of the shared clients are bound to that verticle's event loop. If a connection pool
+     * size greater than 1 has been configured for a client, the pool's connections are bound to
+     * different event loops instead.
+     */
+    private void createSharedRegistryClients() {
+
+        LOG.info("using Tenant, Device Registration and Credentials clients shared by all adapter instances");
+        if (tenantClientConfig.getConnectionPoolSize() > 1) {
+            sharedTenantClient = sharedPooledRegistryClient(
+                    tenantClientConfig,
+                    pool -> new PooledTenantClient(pool, this::tenantClient));
+        } else {
+            sharedTenantClient = sharedRegistryClient(tenantClientConfig, this::tenantClient);
+        }
+        if (deviceRegistrationClientConfig.getConnectionPoolSize() > 1) {
+            sharedRegistrationClient = sharedPooledRegistryClient(
+                    deviceRegistrationClientConfig,
+                    pool -> new PooledDeviceRegistrationClient(pool, this::registrationClient));
+        } else {
+            sharedRegistrationClient = sharedRegistryClient(deviceRegistrationClientConfig, this::registrationClient);
+        }
+        if (credentialsClientConfig.getConnectionPoolSize() > 1) {
+            sharedCredentialsClient = sharedPooledRegistryClient(
+                    credentialsClientConfig,
+                    pool -> new PooledCredentialsClient(pool, this::credentialsClient));
+        } else {
+            sharedCredentialsClient = sharedRegistryClient(credentialsClientConfig, this::credentialsClient);
+        }
+    }
+
+    private <T extends AbstractServiceClient> T sharedRegistryClient(
+            final ClientConfigProperties config,
+            final Function<HonoConnection, T> clientFactory) {
+
+        final HonoConnection connection = HonoConnection.newConnection(vertx, config, tracer);
+        final T client = clientFactory.apply(connection);
+        client.setSkipConnectDisconnectOnStartStop(true);
+        sharedRegistryConnectionPools.add(new HonoConnectionPool(
+                vertx,
+                List.of(connection),
+                HonoConnectionPool.Placement.TENANT_HASH));
+        return client;
+    }
+
+    private <T extends AbstractPooledServiceClient<?>> T sharedPooledRegistryClient(
+            final ClientConfigProperties config,
+            final Function<HonoConnectionPool, T> clientFactory) {
+
+        final HonoConnectionPool connectionPool = registryConnectionPool(config);
+        final T client = clientFactory.apply(connectionPool);
+        client.setSkipConnectDisconnectOnStartStop(true);
+        sharedRegistryConnectionPools.add(connectionPool);
+        return client;
+    }
+
+    private Lifecycle sharedRegistryConnectionsLifecycle() {
+
+        return new Lifecycle() {
+
+            @Override
+            public Future<Void> start() {
+                // like the adapter instances, do not wait for the connections to be established
+                sharedRegistryConnectionPools.forEach(connectionPool -> {
+                    final String serverRole = connectionPool.getConnections().get(0).getConfig().getServerRole();
+                    connectionPool.connect()
+                        .onSuccess(ok -> LOG.info("{} shared connection(s) to {} endpoint have been established",
+                                connectionPool.size(), serverRole))
+                        .onFailure(t -> LOG.warn("failed to establish shared connection(s) to {} endpoint",
+                                serverRole, t));
+                });
+                return Future.succeededFuture();
+            }
+
+            @Override
+            public Future<Void> stop() {
+                @SuppressWarnings("rawtypes")
+                final List<Future> shutdownTrackers = new ArrayList<>();
+                sharedRegistryConnectionPools.forEach(connectionPool -> shutdownTrackers.add(connectionPool.shutdown()));
+                return CompositeFuture.all(shutdownTrackers).mapEmpty();
+            }
+        };
     }
 
     /**
@@ -573,6 +790,24 @@ public abstract class AbstractProtocolAdapterApplication<C extends ProtocolAdapt
                 protocolAdapterProperties.isJmsVendorPropsEnabled());
     }
 
+    /**
+     * Creates a new downstream sender for telemetry and event messages that spreads the
+     * sender links across a pool of connections.
+     *
+     * @return The sender.
+     */
+    private PooledDownstreamSender pooledDownstreamSender() {
+        return new PooledDownstreamSender(
+                HonoConnectionPool.newPool(
+                        vertx,
+                        downstreamSenderConfig,
+                        tracer,
+                        HonoConnectionPool.Placement.LEAST_LOADED),
+                messageSamplerFactory,
+                protocolAdapterProperties.isDefaultsEnabled(),
+                protocolAdapterProperties.isJmsVendorPropsEnabled());
+    }
+
     /**
      * Creates a new Pub/Sub downstream sender for telemetry and event messages.
      *
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2016, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -20,12 +20,16 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 
+import org.eclipse.hono.adapter.auth.device.usernamepassword.PasswordVerifier;
+import org.eclipse.hono.adapter.auth.device.usernamepassword.UsernamePasswordAuthProvider;
 import org.eclipse.hono.adapter.limiting.ConnectionLimitManager;
+import org.eclipse.hono.adapter.limiting.InFlightMessageLimiter;
 import org.eclipse.hono.adapter.monitoring.ConnectionEventProducer;
 import org.eclipse.hono.adapter.resourcelimits.NoopResourceLimitChecks;
 import org.eclipse.hono.adapter.resourcelimits.ResourceLimitChecks;
 import org.eclipse.hono.auth.Device;
 import org.eclipse.hono.client.ClientErrorException;
+import org.eclipse.hono.client.ServerErrorException;
 import org.eclipse.hono.client.ServiceInvocationException;
 import org.eclipse.hono.client.command.CommandContext;
 import org.eclipse.hono.client.command.CommandResponse;
@@ -43,6 +47,7 @@ import org.eclipse.hono.client.telemetry.TelemetrySender;
 import org.eclipse.hono.client.util.ServiceClient;
 import org.eclipse.hono.service.AbstractServiceBase;
 import org.eclipse.hono.service.auth.ValidityBasedTrustOptions;
+import org.eclipse.hono.service.metric.MetricsTags;
 import org.eclipse.hono.service.metric.MetricsTags.ConnectionAttemptOutcome;
 import org.eclipse.hono.service.util.ServiceBaseUtils;
 import org.eclipse.hono.util.CommandConstants;
@@ -96,6 +101,8 @@ public abstract class AbstractProtocolAdapterBase<T extends ProtocolAdapterPrope
     private ResourceLimitChecks resourceLimitChecks = new NoopResourceLimitChecks();
     private TenantClient tenantClient;
     private MessagingClientProviders messagingClientProviders;
+    private PasswordVerifier passwordVerifier;
+    private InFlightMessageLimiter inFlightMessageLimiter;
 
     /**
      * Adds a Micrometer sample to a command context.
@@ -213,6 +220,32 @@ public abstract class AbstractProtocolAdapterBase<T extends ProtocolAdapterPrope
         return credentialsClient;
     }
 
+    /**
+     * Sets the verifier to use for validating passwords provided by devices.
+     * <p>
+     * If not set, the providers created by {@link #newUsernamePasswordAuthProvider()} validate passwords
+     * on the Vert.x worker pool.
+     *
+     * @param verifier The verifier.
+     * @throws NullPointerException if verifier is {@code null}.
+     */
+    public final void setPasswordVerifier(final PasswordVerifier verifier) {
+        this.passwordVerifier = Objects.requireNonNull(verifier);
+    }
+
+    /**
+     * Creates a new provider for authenticating devices using username/password credentials.
+     * <p>
+     * The provider uses the verifier set using {@link #setPasswordVerifier(PasswordVerifier)}, if any.
+     *
+     * @return The provider.
+     */
+    protected final UsernamePasswordAuthProvider newUsernamePasswordAuthProvider() {
+        return Optional.ofNullable(passwordVerifier)
+                .map(verifier -> new UsernamePasswordAuthProvider(getCredentialsClient(), verifier, tracer))
+                .orElseGet(() -> new UsernamePasswordAuthProvider(getCredentialsClient(), tracer));
+    }
+
     /**
      * Sets the producer for connections events.
      * <p>
@@ -290,6 +323,41 @@ public abstract class AbstractProtocolAdapterBase<T extends ProtocolAdapterPrope
         return connectionLimitManager;
     }
 
+    /**
+     * Sets the limiter to use for limiting the number of telemetry and event messages
+     * being processed concurrently.
+     * <p>
+     * If not set, the number of messages being processed is not limited.
+     *
+     * @param limiter The limiter.
+     * @throws NullPointerException if limiter is {@code null}.
+     */
+    public final void setInFlightMessageLimiter(final InFlightMessageLimiter limiter) {
+        this.inFlightMessageLimiter = Objects.requireNonNull(limiter);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Uses the limiter set using {@link #setInFlightMessageLimiter(InFlightMessageLimiter)}, if any.
+     */
+    @Override
+    public final Future<InFlightMessageLimiter.Permit> admitMessage(final String tenantId, final MetricsTags.QoS qos) {
+
+        Objects.requireNonNull(tenantId);
+        Objects.requireNonNull(qos);
+
+        if (inFlightMessageLimiter == null) {
+            return Future.succeededFuture(InFlightMessageLimiter.NOOP_PERMIT);
+        }
+        return Optional.ofNullable(inFlightMessageLimiter.tryAcquire(tenantId, qos))
+                .map(Future::succeededFuture)
+                .orElseGet(() -> Future.failedFuture(new ServerErrorException(
+                        tenantId,
+                        HttpURLConnection.HTTP_UNAVAILABLE,
+                        "adapter is overloaded, try again later")));
+    }
+
     /**
      * Establishes the connections to the services this adapter depends on.
      * <p>
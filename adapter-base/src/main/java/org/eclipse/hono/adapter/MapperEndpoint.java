@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2020, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -26,6 +26,11 @@ public final class MapperEndpoint {
     private String host;
     private Integer port;
     private String uri;
+    private String function;
+    private long batchWindow = 0;
+    private int batchMaxSize = 100;
+    private int maxConcurrentRequests = 0;
+    private int maxQueuedRequests = 1000;
 
     /**
      * Creates properties using default values.
@@ -45,6 +50,11 @@ public final class MapperEndpoint {
         this.port = options.port().orElse(null);
         this.tlsEnabled = options.tlsEnabled();
         options.uri().ifPresent(this::setUri);
+        this.function = options.function().orElse(null);
+        setBatchWindow(options.batchWindow());
+        setBatchMaxSize(options.batchMaxSize());
+        setMaxConcurrentRequests(options.maxConcurrentRequests());
+        setMaxQueuedRequests(options.maxQueuedRequests());
     }
 
     /**
@@ -109,6 +119,31 @@ public final class MapperEndpoint {
         this.uri = uri;
     }
 
+    /**
+     * Gets the name of the in-process mapping function to use instead of invoking
+     * a mapping service via HTTP.
+     *
+     * @return The name of the function or {@code null} if the mapping service at
+     *         this endpoint's host, port and URI should be invoked.
+     */
+    public String getFunction() {
+        return function;
+    }
+
+    /**
+     * Sets the name of the in-process mapping function to use instead of invoking
+     * a mapping service via HTTP.
+     * <p>
+     * The function is looked up among the mapping function factories that are available
+     * on the class path of the protocol adapter.
+     *
+     * @param function The name of the function.
+     * @throws NullPointerException if function is {@code null}.
+     */
+    public void setFunction(final String function) {
+        this.function = Objects.requireNonNull(function);
+    }
+
     /**
      * Checks whether the connection to the message mapping service is secured
      * using TLS.
@@ -134,6 +169,135 @@ public final class MapperEndpoint {
         this.tlsEnabled = Objects.requireNonNull(flag);
     }
 
+    /**
+     * Gets the period of time during which messages of a tenant are collected for being
+     * mapped by means of a single request to the mapping service.
+     * <p>
+     * The default value of this property is 0, i.e. each message is mapped by means of
+     * an individual request.
+     *
+     * @return The period of time in milliseconds or 0 if messages should not be batched.
+     */
+    public long getBatchWindow() {
+        return batchWindow;
+    }
+
+    /**
+     * Sets the period of time during which messages of a tenant are collected for being
+     * mapped by means of a single request to the mapping service.
+     * <p>
+     * The mapping service needs to support the batch format in order to use this option.
+     * <p>
+     * The default value of this property is 0, i.e. each message is mapped by means of
+     * an individual request.
+     *
+     * @param batchWindow The period of time in milliseconds or 0 if messages should not be batched.
+     * @throws IllegalArgumentException if batch window is negative.
+     */
+    public void setBatchWindow(final long batchWindow) {
+        if (batchWindow < 0) {
+            throw new IllegalArgumentException("batch window must not be negative");
+        }
+        this.batchWindow = batchWindow;
+    }
+
+    /**
+     * Gets the maximum number of messages to include in a single batch.
+     * <p>
+     * The default value of this property is 100.
+     *
+     * @return The maximum number of messages.
+     */
+    public int getBatchMaxSize() {
+        return batchMaxSize;
+    }
+
+    /**
+     * Sets the maximum number of messages to include in a single batch.
+     * <p>
+     * The default value of this property is 100.
+     *
+     * @param batchMaxSize The maximum number of messages.
+     * @throws IllegalArgumentException if the size is &lt; 1.
+     */
+    public void setBatchMaxSize(final int batchMaxSize) {
+        if (batchMaxSize < 1) {
+            throw new IllegalArgumentException("batch size must be > 0");
+        }
+        this.batchMaxSize = batchMaxSize;
+    }
+
+    /**
+     * Checks whether messages are mapped in batches.
+     *
+     * @return {@code true} if the batch window is &gt; 0 and the maximum batch size is &gt; 1.
+     */
+    public boolean isBatchingEnabled() {
+        return batchWindow > 0 && batchMaxSize > 1;
+    }
+
+    /**
+     * Gets the maximum number of concurrent requests to the mapping service.
+     * <p>
+     * The default value of this property is 0, i.e. the number of requests is not limited.
+     *
+     * @return The maximum number of requests or 0 if the number of requests is not limited.
+     */
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    /**
+     * Sets the maximum number of concurrent requests to the mapping service.
+     * <p>
+     * Requests exceeding the limit are queued until one of the outstanding requests has completed
+     * (see {@link #setMaxQueuedRequests(int)}).
+     * <p>
+     * The default value of this property is 0, i.e. the number of requests is not limited.
+     *
+     * @param maxConcurrentRequests The maximum number of requests or 0 if the number of requests
+     *                              should not be limited.
+     * @throws IllegalArgumentException if the number is negative.
+     */
+    public void setMaxConcurrentRequests(final int maxConcurrentRequests) {
+        if (maxConcurrentRequests < 0) {
+            throw new IllegalArgumentException("max concurrent requests must not be negative");
+        }
+        this.maxConcurrentRequests = maxConcurrentRequests;
+    }
+
+    /**
+     * Gets the maximum number of requests that are queued while the maximum number of concurrent requests
+     * to the mapping service has been reached.
+     * <p>
+     * The default value of this property is 1000.
+     *
+     * @return The maximum number of queued requests.
+     */
+    public int getMaxQueuedRequests() {
+        return maxQueuedRequests;
+    }
+
+    /**
+     * Sets the maximum number of requests that are queued while the maximum number of concurrent requests
+     * to the mapping service has been reached.
+     * <p>
+     * Requests exceeding this limit are failed immediately with a status code of 503.
+     * This property is only used if the number of concurrent requests is limited.
+     * <p>
+     * The default value of this property is 1000.
+     *
+     * @param maxQueuedRequests The maximum number of queued requests or 0 if requests should be failed
+     *                          immediately once the maximum number of concurrent requests has been reached.
+     * @throws IllegalArgumentException if the number is negative.
+     */
+    public void setMaxQueuedRequests(final int maxQueuedRequests) {
+        if (maxQueuedRequests < 0) {
+            throw new IllegalArgumentException("max queued requests must not be negative");
+        }
+        this.maxQueuedRequests = maxQueuedRequests;
+    }
+
     /**
      * Generate a mapperEndpoint from the given parameters.
      *
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2021, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2021, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -44,6 +44,14 @@ public interface MapperEndpointOptions {
      */
     Optional<String> uri();
 
+    /**
+     * Gets the name of the in-process mapping function to use instead of invoking
+     * a mapping service via HTTP.
+     *
+     * @return The name of the function.
+     */
+    Optional<String> function();
+
     /**
      * Checks whether the connection to the message mapping service is secured
      * using TLS.
@@ -52,4 +60,38 @@ public interface MapperEndpointOptions {
      */
     @WithDefault("true")
     boolean tlsEnabled();
+
+    /**
+     * Gets the period of time during which messages of a tenant are collected for being
+     * mapped by means of a single request to the mapping service.
+     *
+     * @return The period of time in milliseconds or 0 if messages should not be batched.
+     */
+    @WithDefault("0")
+    long batchWindow();
+
+    /**
+     * Gets the maximum number of messages to include in a single batch.
+     *
+     * @return The maximum number of messages.
+     */
+    @WithDefault("100")
+    int batchMaxSize();
+
+    /**
+     * Gets the maximum number of concurrent requests to the mapping service.
+     *
+     * @return The maximum number of requests or 0 if the number of requests is not limited.
+     */
+    @WithDefault("0")
+    int maxConcurrentRequests();
+
+    /**
+     * Gets the maximum number of requests that are queued while the maximum number of concurrent requests
+     * to the mapping service has been reached.
+     *
+     * @return The maximum number of queued requests.
+     */
+    @WithDefault("1000")
+    int maxQueuedRequests();
 }
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2021, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2021, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -16,6 +16,7 @@ package org.eclipse.hono.adapter;
 import java.util.Map;
 import java.util.Objects;
 
+import org.eclipse.hono.adapter.limiting.InFlightMessageLimiter;
 import org.eclipse.hono.auth.Device;
 import org.eclipse.hono.client.command.CommandResponseSender;
 import org.eclipse.hono.client.command.ProtocolAdapterCommandConsumerFactory;
@@ -23,6 +24,7 @@ import org.eclipse.hono.client.registry.CredentialsClient;
 import org.eclipse.hono.client.registry.TenantClient;
 import org.eclipse.hono.client.telemetry.EventSender;
 import org.eclipse.hono.client.telemetry.TelemetrySender;
+import org.eclipse.hono.service.metric.MetricsTags;
 import org.eclipse.hono.util.MessagingType;
 import org.eclipse.hono.util.RegistrationAssertion;
 import org.eclipse.hono.util.TenantObject;
@@ -187,6 +189,27 @@ public interface ProtocolAdapter {
             long payloadSize,
             SpanContext spanContext);
 
+    /**
+     * Admits a telemetry or event message for being processed by this adapter.
+     * <p>
+     * The permit contained in the returned future needs to be released once processing of the message has
+     * completed, regardless of the outcome.
+     * <p>
+     * This default implementation always admits the message.
+     *
+     * @param tenantId The tenant that the device that has sent the message belongs to.
+     * @param qos The quality of service that the message has been sent with.
+     * @return A succeeded future containing the permit if the message has been admitted.
+     *         Otherwise the future will be failed with a {@link org.eclipse.hono.client.ServerErrorException}
+     *         containing the 503 Service unavailable status code.
+     * @throws NullPointerException if any of the parameters are {@code null}.
+     */
+    default Future<InFlightMessageLimiter.Permit> admitMessage(final String tenantId, final MetricsTags.QoS qos) {
+        Objects.requireNonNull(tenantId);
+        Objects.requireNonNull(qos);
+        return Future.succeededFuture(InFlightMessageLimiter.NOOP_PERMIT);
+    }
+
     /**
      * Gets the number of seconds after which this protocol adapter should give up waiting for an upstream command for a
      * device of a given tenant.
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2021, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2021, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -113,6 +113,75 @@ public interface ProtocolAdapterOptions {
     @WithDefault("25")
     int gcHeapPercentage();
 
+    /**
+     * Gets the number of threads used for verifying passwords provided by devices against the
+     * password hashes on record.
+     * <p>
+     * The default value of this property is 0 which lets the protocol adapter use half of the
+     * available processors.
+     *
+     * @return The number of threads.
+     */
+    @WithDefault("0")
+    int passwordVerificationThreads();
+
+    /**
+     * Gets the maximum number of password verifications that may be waiting for a thread to
+     * become available.
+     * <p>
+     * Authentication attempts that exceed this limit fail immediately.
+     *
+     * @return The maximum number of waiting verifications.
+     */
+    @WithDefault("500")
+    int passwordVerificationQueueSize();
+
+    /**
+     * Gets the duration for which the successful verification of a device's password against
+     * a password hash on record is cached.
+     * <p>
+     * A value of {@link Duration#ZERO} disables caching.
+     *
+     * @return The duration.
+     */
+    @WithDefault("PT1M")
+    Duration passwordVerificationCacheTimeout();
+
+    /**
+     * Gets the maximum number of telemetry and event messages that the protocol adapter processes concurrently.
+     * <p>
+     * Messages exceeding this limit are rejected. A value of 0 indicates that the number of messages is not limited.
+     *
+     * @return The maximum number of messages.
+     */
+    @WithDefault("0")
+    int maxInFlightMessages();
+
+    /**
+     * Gets the maximum number of telemetry and event messages of a single tenant that the protocol adapter
+     * processes concurrently.
+     * <p>
+     * This property is only used if the overall number of messages is limited.
+     * A value of 0 indicates that the number of messages is not limited per tenant.
+     *
+     * @return The maximum number of messages.
+     */
+    @WithDefault("0")
+    int maxInFlightMessagesPerTenant();
+
+    /**
+     * Checks if the clients for the Tenant, Device Registration and Credentials services are shared
+     * by all verticle instances of the protocol adapter.
+     * <p>
+     * Sharing the clients reduces the number of AMQP connections and links to the registry and increases
+     * the hit rate of the clients' response caches. However, all request and response messages are then
+     * processed on a single event loop thread.
+     *
+     * @return {@code true} if the clients are shared.
+     */
+    @WithDefault("false")
+    boolean sharedRegistryClients();
+
     /**
      * Gets the configured mapper endpoints.
      *
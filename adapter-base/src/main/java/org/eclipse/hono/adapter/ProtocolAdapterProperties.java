@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2016, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -35,6 +35,14 @@ public class ProtocolAdapterProperties extends ServiceConfigProperties {
      * The default share of heap memory that should not be used by the live-data set.
      */
     public static final int DEFAULT_GC_HEAP_PERCENTAGE = 25;
+    /**
+     * The default maximum number of password verifications waiting for a thread to become available.
+     */
+    public static final int DEFAULT_PASSWORD_VERIFICATION_QUEUE_SIZE = 500;
+    /**
+     * The default duration for which successful password verifications are cached.
+     */
+    public static final Duration DEFAULT_PASSWORD_VERIFICATION_CACHE_TIMEOUT = Duration.ofMinutes(1);
 
     private boolean authenticationRequired = true;
     private boolean jmsVendorPropsEnabled = false;
@@ -43,6 +51,12 @@ public class ProtocolAdapterProperties extends ServiceConfigProperties {
     private Duration tenantIdleTimeout = DEFAULT_TENANT_IDLE_TIMEOUT;
     private int gcHeapPercentage = DEFAULT_GC_HEAP_PERCENTAGE;
     private Map<String, MapperEndpoint> mapperEndpoints = new HashMap<>();
+    private int passwordVerificationThreads = 0;
+    private int passwordVerificationQueueSize = DEFAULT_PASSWORD_VERIFICATION_QUEUE_SIZE;
+    private Duration passwordVerificationCacheTimeout = DEFAULT_PASSWORD_VERIFICATION_CACHE_TIMEOUT;
+    private boolean sharedRegistryClients = false;
+    private int maxInFlightMessages = 0;
+    private int maxInFlightMessagesPerTenant = 0;
 
     /**
      * Creates properties using default values.
@@ -65,6 +79,12 @@ public class ProtocolAdapterProperties extends ServiceConfigProperties {
         options.mapperEndpoints().entrySet()
             .forEach(entry -> mapperEndpoints.put(entry.getKey(), new MapperEndpoint(entry.getValue())));
         this.maxConnections = options.maxConnections();
+        this.maxInFlightMessages = options.maxInFlightMessages();
+        this.maxInFlightMessagesPerTenant = options.maxInFlightMessagesPerTenant();
+        this.passwordVerificationCacheTimeout = options.passwordVerificationCacheTimeout();
+        this.passwordVerificationQueueSize = options.passwordVerificationQueueSize();
+        this.passwordVerificationThreads = options.passwordVerificationThreads();
+        this.sharedRegistryClients = options.sharedRegistryClients();
         this.tenantIdleTimeout = options.tenantIdleTimeout();
     }
 
@@ -272,6 +292,178 @@ public class ProtocolAdapterProperties extends ServiceConfigProperties {
         this.tenantIdleTimeout = Objects.requireNonNull(tenantIdleTimeout);
     }
 
+    /**
+     * Gets the number of threads used for verifying passwords provided by devices against the
+     * password hashes on record.
+     * <p>
+     * The default value of this property is 0 which lets the protocol adapter use half of the
+     * available processors.
+     *
+     * @return The number of threads.
+     */
+    public final int getPasswordVerificationThreads() {
+        return passwordVerificationThreads;
+    }
+
+    /**
+     * Sets the number of threads used for verifying passwords provided by devices against the
+     * password hashes on record.
+     * <p>
+     * The default value of this property is 0 which lets the protocol adapter use half of the
+     * available processors.
+     *
+     * @param threads The number of threads.
+     * @throws IllegalArgumentException if the number is &lt; 0.
+     */
+    public final void setPasswordVerificationThreads(final int threads) {
+        if (threads < 0) {
+            throw new IllegalArgumentException("number of threads must be >= 0");
+        }
+        this.passwordVerificationThreads = threads;
+    }
+
+    /**
+     * Gets the maximum number of password verifications that may be waiting for a thread to
+     * become available.
+     * <p>
+     * The default value of this property is {@value #DEFAULT_PASSWORD_VERIFICATION_QUEUE_SIZE}.
+     *
+     * @return The maximum number of waiting verifications.
+     */
+    public final int getPasswordVerificationQueueSize() {
+        return passwordVerificationQueueSize;
+    }
+
+    /**
+     * Sets the maximum number of password verifications that may be waiting for a thread to
+     * become available.
+     * <p>
+     * Authentication attempts that exceed this limit fail immediately.
+     * <p>
+     * The default value of this property is {@value #DEFAULT_PASSWORD_VERIFICATION_QUEUE_SIZE}.
+     *
+     * @param queueSize The maximum number of waiting verifications.
+     * @throws IllegalArgumentException if the size is &lt; 1.
+     */
+    public final void setPasswordVerificationQueueSize(final int queueSize) {
+        if (queueSize < 1) {
+            throw new IllegalArgumentException("queue size must be > 0");
+        }
+        this.passwordVerificationQueueSize = queueSize;
+    }
+
+    /**
+     * Gets the duration for which the successful verification of a device's password against
+     * a password hash on record is cached.
+     * <p>
+     * The default value of this property is {@link #DEFAULT_PASSWORD_VERIFICATION_CACHE_TIMEOUT}.
+     *
+     * @return The duration. {@link Duration#ZERO} indicates that verification results are not cached.
+     */
+    public final Duration getPasswordVerificationCacheTimeout() {
+        return passwordVerificationCacheTimeout;
+    }
+
+    /**
+     * Sets the duration for which the successful verification of a device's password against
+     * a password hash on record is cached.
+     * <p>
+     * The default value of this property is {@link #DEFAULT_PASSWORD_VERIFICATION_CACHE_TIMEOUT}.
+     *
+     * @param timeout The duration. {@link Duration#ZERO} disables caching.
+     * @throws NullPointerException if timeout is {@code null}.
+     * @throws IllegalArgumentException if timeout is negative.
+     */
+    public final void setPasswordVerificationCacheTimeout(final Duration timeout) {
+        Objects.requireNonNull(timeout);
+        if (timeout.isNegative()) {
+            throw new IllegalArgumentException("timeout must not be negative");
+        }
+        this.passwordVerificationCacheTimeout = timeout;
+    }
+
+    /**
+     * Gets the maximum number of telemetry and event messages that the protocol adapter processes concurrently.
+     * <p>
+     * The default value of this property is 0 which indicates that the number of messages is not limited.
+     *
+     * @return The maximum number of messages.
+     */
+    public final int getMaxInFlightMessages() {
+        return maxInFlightMessages;
+    }
+
+    /**
+     * Sets the maximum number of telemetry and event messages that the protocol adapter processes concurrently.
+     * <p>
+     * Messages exceeding this limit are rejected.
+     * <p>
+     * The default value of this property is 0 which indicates that the number of messages is not limited.
+     *
+     * @param maxMessages The maximum number of messages.
+     * @throws IllegalArgumentException if the number is &lt; 0.
+     */
+    public final void setMaxInFlightMessages(final int maxMessages) {
+        if (maxMessages < 0) {
+            throw new IllegalArgumentException("max in-flight messages must be >= 0");
+        }
+        this.maxInFlightMessages = maxMessages;
+    }
+
+    /**
+     * Gets the maximum number of telemetry and event messages of a single tenant that the protocol adapter
+     * processes concurrently.
+     * <p>
+     * The default value of this property is 0 which indicates that the number of messages is not limited per tenant.
+     *
+     * @return The maximum number of messages.
+     */
+    public final int getMaxInFlightMessagesPerTenant() {
+        return maxInFlightMessagesPerTenant;
+    }
+
+    /**
+     * Sets the maximum number of telemetry and event messages of a single tenant that the protocol adapter
+     * processes concurrently.
+     * <p>
+     * This property is only used if the overall number of messages is limited.
+     * <p>
+     * The default value of this property is 0 which indicates that the number of messages is not limited per tenant.
+     *
+     * @param maxMessages The maximum number of messages.
+     * @throws IllegalArgumentException if the number is &lt; 0.
+     */
+    public final void setMaxInFlightMessagesPerTenant(final int maxMessages) {
+        if (maxMessages < 0) {
+            throw new IllegalArgumentException("max in-flight messages per tenant must be >= 0");
+        }
+        this.maxInFlightMessagesPerTenant = maxMessages;
+    }
+
+    /**
+     * Checks if the clients for the Tenant, Device Registration and Credentials services are shared
+     * by all verticle instances of the protocol adapter.
+     * <p>
+     * The default value of this property is {@code false}.
+     *
+     * @return {@code true} if the clients are shared.
+     */
+    public final boolean isSharedRegistryClients() {
+        return sharedRegistryClients;
+    }
+
+    /**
+     * Sets whether the clients for the Tenant, Device Registration and Credentials services are shared
+     * by all verticle instances of the protocol adapter.
+     * <p>
+     * The default value of this property is {@code false}.
+     *
+     * @param shared {@code true} if the clients should be shared.
+     */
+    public final void setSharedRegistryClients(final boolean shared) {
+        this.sharedRegistryClients = shared;
+    }
+
     /**
      * Sets the configured mappers for this adapter
      * <p>
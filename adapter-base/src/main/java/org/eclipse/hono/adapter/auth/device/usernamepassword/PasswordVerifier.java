@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.hono.adapter.auth.device.usernamepassword;
+
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.hono.client.ServerErrorException;
+import org.eclipse.hono.service.auth.HonoPasswordEncoder;
+import org.eclipse.hono.util.CredentialsObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * A component for verifying passwords provided by devices against the password hashes on record.
+ * <p>
+ * Computing a password hash (e.g. using BCrypt) is CPU intensive and therefore needs to be done on a
+ * thread other than the Vert.x event loop. This class uses a dedicated, fixed size thread pool with a
+ * bounded queue for this purpose, so that a large number of devices (re-)connecting at the same time
+ * does not starve other code using the Vert.x worker pool. Verifications that cannot be queued fail
+ * immediately with a {@link ServerErrorException} having status code 503.
+ * <p>
+ * The successful verification of a password against a secret is cached for a configurable amount of time
+ * so that devices which reconnect frequently do not need to be verified again. The cache does not contain the
+ * passwords themselves but only a digest of the tenant, auth-id, password and secret. Changing any of them,
+ * e.g. by means of updating the secret's password hash, results in a cache miss.
+ * <p>
+ * A single instance is supposed to be shared by all adapter instances of a protocol adapter.
+ */
+public final class PasswordVerifier {
+
+    /**
+     * The name of the timer tracking the duration of password verifications.
+     */
+    public static final String METER_VERIFICATION_DURATION = "hono.password.verification.duration";
+    /**
+     * The name of the gauge tracking the number of password verifications waiting for a thread to become
+     * available.
+     */
+    public static final String METER_VERIFICATION_QUEUE = "hono.password.verification.queue";
+    /**
+     * The name of the counter tracking the number of password verifications that have been rejected
+     * because the queue was full.
+     */
+    public static final String METER_VERIFICATION_REJECTED = "hono.password.verification.rejected";
+    /**
+     * The maximum number of successful verifications being cached.
+     */
+    public static final int MAX_CACHE_SIZE = 10_000;
+
+    private static final Logger LOG = LoggerFactory.getLogger(PasswordVerifier.class);
+    private static final String TAG_CACHED = "cached";
+
+    private final HonoPasswordEncoder pwdEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Cache<String, Boolean> verifiedSecrets;
+    private final Timer cachedVerificationTimer;
+    private final Timer verificationTimer;
+    private final Counter rejectedVerifications;
+
+    /**
+     * Creates a new verifier.
+     *
+     * @param pwdEncoder The object to use for validating hashed passwords.
+     * @param threads The number of threads to use for verifying passwords. If 0, half of the available
+     *                processors (but at least one) are used.
+     * @param maxQueueSize The maximum number of verifications that may be waiting for a thread to become
+     *                     available.
+     * @param cacheTimeout The duration for which successful verifications are cached.
+     *                     {@link Duration#ZERO} disables caching.
+     * @param meterRegistry The registry to register the verifier's meters with.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     * @throws IllegalArgumentException if threads is &lt; 0 or max queue size is &lt; 1.
+     */
+    public PasswordVerifier(
+            final HonoPasswordEncoder pwdEncoder,
+            final int threads,
+            final int maxQueueSize,
+            final Duration cacheTimeout,
+            final MeterRegistry meterRegistry) {
+
+        Objects.requireNonNull(pwdEncoder);
+        Objects.requireNonNull(cacheTimeout);
+        Objects.requireNonNull(meterRegistry);
+        if (threads < 0) {
+            throw new IllegalArgumentException("number of threads must be >= 0");
+        }
+        if (maxQueueSize < 1) {
+            throw new IllegalArgumentException("queue size must be > 0");
+        }
+
+        this.pwdEncoder = pwdEncoder;
+        final int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueueSize),
+                newThreadFactory());
+        if (cacheTimeout.isZero() || cacheTimeout.isNegative()) {
+            this.verifiedSecrets = null;
+        } else {
+            this.verifiedSecrets = Caffeine.newBuilder()
+                    .expireAfterWrite(cacheTimeout)
+                    .maximumSize(MAX_CACHE_SIZE)
+                    .build();
+        }
+
+        this.cachedVerificationTimer = Timer.builder(METER_VERIFICATION_DURATION)
+                .tag(TAG_CACHED, Boolean.TRUE.toString())
+                .register(meterRegistry);
+        this.verificationTimer = Timer.builder(METER_VERIFICATION_DURATION)
+                .tag(TAG_CACHED, Boolean.FALSE.toString())
+                .register(meterRegistry);
+        this.rejectedVerifications = Counter.builder(METER_VERIFICATION_REJECTED)
+                .register(meterRegistry);
+        Gauge.builder(METER_VERIFICATION_QUEUE, executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        LOG.info("using {} thread(s) for verifying device passwords [max queue size: {}, cache timeout: {}]",
+                poolSize, maxQueueSize, cacheTimeout);
+    }
+
+    private static ThreadFactory newThreadFactory() {
+        final AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, "hono-password-verification-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Verifies a password against the currently valid secrets of a device's credentials.
+     * <p>
+     * This method needs to be invoked on a Vert.x context. The returned future will be completed
+     * on that context.
+     *
+     * @param tenantId The tenant that the device belongs to.
+     * @param password The password provided by the device.
+     * @param credentialsOnRecord The device's credentials on record.
+     * @return A future indicating the outcome of the verification.
+     *         The future will be succeeded with {@code true} if the password matches any of the candidate secrets.
+     *         Otherwise the future will be succeeded with {@code false}.
+     *         The future will be failed with a {@link ServerErrorException} having status 503 if too many
+     *         verifications are already waiting to be executed or with an {@link IllegalStateException} if this
+     *         method is not invoked on a Vert.x context.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     */
+    public Future<Boolean> verify(
+            final String tenantId,
+            final String password,
+            final CredentialsObject credentialsOnRecord) {
+
+        Objects.requireNonNull(tenantId);
+        Objects.requireNonNull(password);
+        Objects.requireNonNull(credentialsOnRecord);
+
+        final Context currentContext = Vertx.currentContext();
+        if (currentContext == null) {
+            return Future.failedFuture(new IllegalStateException("not running on vert.x Context"));
+        }
+
+        final long start = System.nanoTime();
+        final List<JsonObject> candidateSecrets = credentialsOnRecord.getCandidateSecrets();
+        final List<String> cacheKeys = getCacheKeys(tenantId, credentialsOnRecord.getAuthId(), password, candidateSecrets);
+        if (cacheKeys.stream().anyMatch(key -> verifiedSecrets.getIfPresent(key) != null)) {
+            cachedVerificationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Future.succeededFuture(Boolean.TRUE);
+        }
+
+        final Promise<Boolean> result = Promise.promise();
+        try {
+            executor.execute(() -> {
+                LOG.trace("validating password hash on thread [{}]", Thread.currentThread().getName());
+                try {
+                    final boolean isValid = matchesAny(password, candidateSecrets, cacheKeys);
+                    verificationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    currentContext.runOnContext(go -> result.complete(isValid));
+                } catch (final RuntimeException e) {
+                    currentContext.runOnContext(go -> result.fail(e));
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            rejectedVerifications.increment();
+            LOG.debug("rejecting password verification for [tenant: {}, auth-id: {}], too many pending verifications",
+                    tenantId, credentialsOnRecord.getAuthId());
+            return Future.failedFuture(new ServerErrorException(
+                    HttpURLConnection.HTTP_UNAVAILABLE,
+                    "too many concurrent authentication attempts"));
+        }
+        return result.future();
+    }
+
+    private boolean matchesAny(
+            final String password,
+            final List<JsonObject> candidateSecrets,
+            final List<String> cacheKeys) {
+
+        for (int i = 0; i < candidateSecrets.size(); i++) {
+            if (pwdEncoder.matches(password, candidateSecrets.get(i))) {
+                if (verifiedSecrets != null) {
+                    verifiedSecrets.put(cacheKeys.get(i), Boolean.TRUE);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<String> getCacheKeys(
+            final String tenantId,
+            final String authId,
+            final String password,
+            final List<JsonObject> candidateSecrets) {
+
+        if (verifiedSecrets == null) {
+            return List.of();
+        }
+        final List<String> keys = new ArrayList<>(candidateSecrets.size());
+        for (final JsonObject secret : candidateSecrets) {
+            final MessageDigest digest = newDigest();
+            update(digest, tenantId);
+            update(digest, authId);
+            update(digest, password);
+            update(digest, secret.encode());
+            keys.add(Base64.getEncoder().encodeToString(digest.digest()));
+        }
+        return keys;
+    }
+
+    private static void update(final MessageDigest digest, final String value) {
+        if (value != null) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        // separate values so that e.g. ("ab", "c") and ("a", "bc") result in different digests
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Gets the number of verifications waiting for a thread to become available.
+     *
+     * @return The number of verifications.
+     */
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+}
@@ -43,6 +43,7 @@ import io.vertx.core.json.JsonObject;
 public final class UsernamePasswordAuthProvider extends CredentialsApiAuthProvider<UsernamePasswordCredentials> {
 
     private final HonoPasswordEncoder pwdEncoder;
+    private final PasswordVerifier passwordVerifier;
 
     /**
      * Creates a new provider for a given configuration.
@@ -70,6 +71,28 @@ public final class UsernamePasswordAuthProvider extends CredentialsApiAuthProvid
 
         super(credentialsClient, tracer);
         this.pwdEncoder = Objects.requireNonNull(pwdEncoder);
+        this.passwordVerifier = null;
+    }
+
+    /**
+     * Creates a new provider that uses a (shared) verifier for validating passwords.
+     * <p>
+     * Password hashes are then verified on the verifier's dedicated threads instead of the
+     * Vert.x worker pool.
+     *
+     * @param credentialsClient The client to use for accessing the Credentials service.
+     * @param passwordVerifier The verifier to use for validating hashed passwords.
+     * @param tracer The tracer instance.
+     * @throws NullPointerException if any of the parameters are {@code null}.
+     */
+    public UsernamePasswordAuthProvider(
+            final CredentialsClient credentialsClient,
+            final PasswordVerifier passwordVerifier,
+            final Tracer tracer) {
+
+        super(credentialsClient, tracer);
+        this.pwdEncoder = null;
+        this.passwordVerifier = Objects.requireNonNull(passwordVerifier);
     }
 
     /**
@@ -129,6 +152,20 @@ public final class UsernamePasswordAuthProvider extends CredentialsApiAuthProvid
             final UsernamePasswordCredentials deviceCredentials,
             final CredentialsObject credentialsOnRecord) {
 
+        if (passwordVerifier != null) {
+            return passwordVerifier.verify(
+                    deviceCredentials.getTenantId(),
+                    deviceCredentials.getPassword(),
+                    credentialsOnRecord)
+                .compose(isValid -> {
+                    if (isValid) {
+                        return Future.succeededFuture(new DeviceUser(deviceCredentials.getTenantId(), credentialsOnRecord.getDeviceId()));
+                    } else {
+                        return Future.failedFuture(new ClientErrorException(HttpURLConnection.HTTP_UNAUTHORIZED, "bad credentials"));
+                    }
+                });
+        }
+
         final Context currentContext = Vertx.currentContext();
         if (currentContext == null) {
             return Future.failedFuture(new IllegalStateException("not running on vert.x Context"));
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.hono.adapter.limiting;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.hono.service.metric.MetricsTags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * A component for limiting the number of telemetry and event messages that a protocol adapter
+ * processes concurrently.
+ * <p>
+ * A message is <em>in flight</em> from the moment the adapter has received it from a device until
+ * the adapter has either forwarded it downstream or has given up on doing so. Limiting the number of messages
+ * in flight prevents the adapter from running out of memory if the downstream messaging infrastructure
+ * cannot keep up with the rate at which devices send messages. Messages that exceed the limit are rejected
+ * immediately so that devices can back off and retry later.
+ * <p>
+ * Messages that are sent with QoS 0 (<em>at most once</em>) may only use {@value #AT_MOST_ONCE_SHARE_PERCENT}
+ * percent of the overall budget, so that these messages get shed first and the remaining budget is reserved
+ * for messages that devices expect to be acknowledged. In addition, the number of messages in flight may be
+ * limited per tenant so that a single tenant cannot use up all of the budget.
+ * <p>
+ * A single instance is supposed to be shared by all adapter instances of a protocol adapter,
+ * so this class is thread safe.
+ */
+public final class InFlightMessageLimiter {
+
+    /**
+     * The name of the gauge tracking the number of messages in flight.
+     */
+    public static final String METER_IN_FLIGHT_MESSAGES = "hono.adapter.inflight.messages";
+    /**
+     * The name of the gauge tracking the maximum number of messages in flight.
+     */
+    public static final String METER_IN_FLIGHT_MESSAGES_LIMIT = "hono.adapter.inflight.messages.limit";
+    /**
+     * The name of the counter tracking the number of messages that have been rejected because
+     * the budget was exhausted.
+     */
+    public static final String METER_IN_FLIGHT_MESSAGES_REJECTED = "hono.adapter.inflight.messages.rejected";
+    /**
+     * The share (percent) of the overall budget that may be used by messages sent with QoS 0.
+     */
+    public static final int AT_MOST_ONCE_SHARE_PERCENT = 80;
+    /**
+     * A permit that does not need to be released.
+     * <p>
+     * This permit can be used by protocol adapters that do not limit the number of messages in flight.
+     */
+    public static final Permit NOOP_PERMIT = new Permit(null, null, null);
+
+    private static final Logger LOG = LoggerFactory.getLogger(InFlightMessageLimiter.class);
+
+    private final int maxInFlightMessages;
+    private final int maxInFlightAtMostOnceMessages;
+    private final int maxInFlightMessagesPerTenant;
+    private final AtomicInteger inFlightMessages = new AtomicInteger();
+    private final AtomicInteger inFlightAtMostOnceMessages = new AtomicInteger();
+    private final ConcurrentMap<String, Integer> inFlightMessagesPerTenant = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * A permit for processing a message.
+     * <p>
+     * The permit needs to be released once processing of the message has completed.
+     */
+    public static final class Permit {
+
+        private final InFlightMessageLimiter limiter;
+        private final String tenantId;
+        private final MetricsTags.QoS qos;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(final InFlightMessageLimiter limiter, final String tenantId, final MetricsTags.QoS qos) {
+            this.limiter = limiter;
+            this.tenantId = tenantId;
+            this.qos = qos;
+        }
+
+        /**
+         * Releases this permit.
+         * <p>
+         * Releasing a permit more than once has no effect.
+         */
+        public void release() {
+            if (limiter != null && released.compareAndSet(false, true)) {
+                limiter.release(tenantId, qos);
+            }
+        }
+    }
+
+    /**
+     * Creates a new limiter.
+     *
+     * @param maxInFlightMessages The maximum number of messages in flight.
+     * @param maxInFlightMessagesPerTenant The maximum number of messages in flight per tenant.
+     *                                     A value of 0 indicates that the number of messages is not limited per tenant.
+     * @param meterRegistry The registry to register the limiter's meters with.
+     * @throws NullPointerException if meter registry is {@code null}.
+     * @throws IllegalArgumentException if max in-flight messages is &lt; 1 or max in-flight messages per tenant is &lt; 0.
+     */
+    public InFlightMessageLimiter(
+            final int maxInFlightMessages,
+            final int maxInFlightMessagesPerTenant,
+            final MeterRegistry meterRegistry) {
+
+        Objects.requireNonNull(meterRegistry);
+        if (maxInFlightMessages < 1) {
+            throw new IllegalArgumentException("max in-flight messages must be > 0");
+        }
+        if (maxInFlightMessagesPerTenant < 0) {
+            throw new IllegalArgumentException("max in-flight messages per tenant must be >= 0");
+        }
+        this.maxInFlightMessages = maxInFlightMessages;
+        this.maxInFlightAtMostOnceMessages = Math.max(1, maxInFlightMessages * AT_MOST_ONCE_SHARE_PERCENT / 100);
+        this.maxInFlightMessagesPerTenant = maxInFlightMessagesPerTenant;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder(METER_IN_FLIGHT_MESSAGES, inFlightAtMostOnceMessages, AtomicInteger::get)
+            .tags(Tags.of(MetricsTags.QoS.AT_MOST_ONCE.asTag()))
+            .register(meterRegistry);
+        Gauge.builder(METER_IN_FLIGHT_MESSAGES, this, limiter -> limiter.getInFlightMessages()
+                    - limiter.inFlightAtMostOnceMessages.get())
+            .tags(Tags.of(MetricsTags.QoS.AT_LEAST_ONCE.asTag()))
+            .register(meterRegistry);
+        Gauge.builder(METER_IN_FLIGHT_MESSAGES_LIMIT, this, limiter -> limiter.maxInFlightMessages)
+            .register(meterRegistry);
+        LOG.info("limiting number of messages in flight [max: {}, max QoS 0: {}, max per tenant: {}]",
+                maxInFlightMessages, maxInFlightAtMostOnceMessages,
+                maxInFlightMessagesPerTenant > 0 ? maxInFlightMessagesPerTenant : "unlimited");
+    }
+
+    /**
+     * Tries to acquire a permit for processing a message.
+     *
+     * @param tenantId The tenant that the device that has sent the message belongs to.
+     * @param qos The quality of service that the message has been sent with. Events are
+     *            supposed to be sent with {@link MetricsTags.QoS#AT_LEAST_ONCE}.
+     * @return The permit or {@code null} if processing the message would exceed the budget.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     */
+    public Permit tryAcquire(final String tenantId, final MetricsTags.QoS qos) {
+
+        Objects.requireNonNull(tenantId);
+        Objects.requireNonNull(qos);
+
+        final boolean isAtMostOnce = qos == MetricsTags.QoS.AT_MOST_ONCE;
+        final int limit = isAtMostOnce ? maxInFlightAtMostOnceMessages : maxInFlightMessages;
+        while (true) {
+            final int current = inFlightMessages.get();
+            if (current >= limit) {
+                reportRejected(tenantId, qos);
+                return null;
+            }
+            if (inFlightMessages.compareAndSet(current, current + 1)) {
+                break;
+            }
+        }
+        if (maxInFlightMessagesPerTenant > 0 && !tryAcquireForTenant(tenantId)) {
+            inFlightMessages.decrementAndGet();
+            reportRejected(tenantId, qos);
+            return null;
+        }
+        if (isAtMostOnce) {
+            inFlightAtMostOnceMessages.incrementAndGet();
+        }
+        return new Permit(this, tenantId, qos);
+    }
+
+    private boolean tryAcquireForTenant(final String tenantId) {
+        final AtomicBoolean acquired = new AtomicBoolean();
+        inFlightMessagesPerTenant.compute(tenantId, (id, count) -> {
+            final int current = count == null ? 0 : count;
+            if (current >= maxInFlightMessagesPerTenant) {
+                return count;
+            }
+            acquired.set(true);
+            return current + 1;
+        });
+        return acquired.get();
+    }
+
+    private void release(final String tenantId, final MetricsTags.QoS qos) {
+        if (maxInFlightMessagesPerTenant > 0) {
+            inFlightMessagesPerTenant.computeIfPresent(tenantId, (id, count) -> count > 1 ? count - 1 : null);
+        }
+        if (qos == MetricsTags.QoS.AT_MOST_ONCE) {
+            inFlightAtMostOnceMessages.decrementAndGet();
+        }
+        inFlightMessages.decrementAndGet();
+    }
+
+    private void reportRejected(final String tenantId, final MetricsTags.QoS qos) {
+        LOG.debug("rejecting message [tenant: {}, QoS: {}], too many messages in flight", tenantId, qos);
+        final Tags tags = Optional.ofNullable(qos.asTag())
+                .map(qosTag -> Tags.of(MetricsTags.getTenantTag(tenantId), qosTag))
+                .orElseGet(() -> Tags.of(MetricsTags.getTenantTag(tenantId)));
+        meterRegistry.counter(METER_IN_FLIGHT_MESSAGES_REJECTED, tags).increment();
+    }
+
+    /**
+     * Gets the overall number of messages in flight.
+     *
+     * @return The number of messages.
+     */
+    public int getInFlightMessages() {
+        return inFlightMessages.get();
+    }
+
+    /**
+     * Gets the number of messages in flight for a tenant.
+     * <p>
+     * The number is only tracked if the number of messages is limited per tenant.
+     *
+     * @param tenantId The tenant identifier.
+     * @return The number of messages.
+     */
+    public int getInFlightMessages(final String tenantId) {
+        return inFlightMessagesPerTenant.getOrDefault(tenantId, 0);
+    }
+}
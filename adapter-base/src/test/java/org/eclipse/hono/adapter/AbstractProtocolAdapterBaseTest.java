@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2016, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -33,6 +33,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import org.eclipse.hono.adapter.limiting.InFlightMessageLimiter;
 import org.eclipse.hono.adapter.monitoring.ConnectionEventProducer;
 import org.eclipse.hono.adapter.monitoring.HonoEventConnectionEventProducer;
 import org.eclipse.hono.adapter.resourcelimits.ResourceLimitChecks;
@@ -51,6 +52,7 @@ import org.eclipse.hono.client.telemetry.EventSender;
 import org.eclipse.hono.client.telemetry.TelemetrySender;
 import org.eclipse.hono.client.util.MessagingClientProvider;
 import org.eclipse.hono.service.http.HttpUtils;
+import org.eclipse.hono.service.metric.MetricsTags;
 import org.eclipse.hono.test.VertxMockSupport;
 import org.eclipse.hono.util.Constants;
 import org.eclipse.hono.util.EventConstants;
@@ -69,6 +71,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.ArgumentCaptor;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.opentracing.SpanContext;
 import io.vertx.core.Context;
 import io.vertx.core.Future;
@@ -253,6 +256,30 @@ public class AbstractProtocolAdapterBaseTest {
         assertThat(props.get(MessageHelper.APP_PROPERTY_ORIG_ADAPTER)).isEqualTo(ADAPTER_NAME);
     }
 
+    /**
+     * Verifies that the adapter rejects a message with a 503 error if the number of
+     * messages in flight would exceed the configured budget.
+     */
+    @Test
+    public void testAdmitMessageFailsIfBudgetIsExhausted() {
+
+        adapter.setInFlightMessageLimiter(new InFlightMessageLimiter(1, 0, new SimpleMeterRegistry()));
+
+        final Future<InFlightMessageLimiter.Permit> admission = adapter.admitMessage(
+                Constants.DEFAULT_TENANT, MetricsTags.QoS.AT_LEAST_ONCE);
+        assertThat(admission.succeeded()).isTrue();
+        final Future<InFlightMessageLimiter.Permit> rejection = adapter.admitMessage(
+                Constants.DEFAULT_TENANT, MetricsTags.QoS.AT_LEAST_ONCE);
+        assertThat(rejection.failed()).isTrue();
+        assertThat(ServiceInvocationException.extractStatusCode(rejection.cause()))
+            .isEqualTo(HttpURLConnection.HTTP_UNAVAILABLE);
+
+        // the budget becomes available again once the message has been processed
+        admission.result().release();
+        assertThat(adapter.admitMessage(Constants.DEFAULT_TENANT, MetricsTags.QoS.AT_LEAST_ONCE).succeeded())
+            .isTrue();
+    }
+
     /**
      * Verifies that the adapter successfully retrieves a registration assertion
      * for an existing device.
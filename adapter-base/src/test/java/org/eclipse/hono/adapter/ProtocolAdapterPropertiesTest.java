@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2022, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -41,5 +41,10 @@ class ProtocolAdapterPropertiesTest {
         assertThat(telemetryMapper).isNotNull();
         assertThat(telemetryMapper.getUri()).isEqualTo("https://mapper.eclipseprojects.io/telemetry");
         assertThat(telemetryMapper.isTlsEnabled()).isTrue();
+        assertThat(telemetryMapper.getFunction()).isNull();
+
+        final MapperEndpoint legacyMapper = props.getMapperEndpoint("legacy");
+        assertThat(legacyMapper).isNotNull();
+        assertThat(legacyMapper.getFunction()).isEqualTo("legacy-payload");
     }
 }
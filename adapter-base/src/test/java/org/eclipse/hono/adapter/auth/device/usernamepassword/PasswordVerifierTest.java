@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.hono.adapter.auth.device.usernamepassword;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.net.HttpURLConnection;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.hono.client.ServerErrorException;
+import org.eclipse.hono.client.ServiceInvocationException;
+import org.eclipse.hono.service.auth.HonoPasswordEncoder;
+import org.eclipse.hono.util.CredentialsObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.Timeout;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+
+/**
+ * Tests verifying behavior of {@link PasswordVerifier}.
+ *
+ */
+@ExtendWith(VertxExtension.class)
+@Timeout(value = 5, timeUnit = TimeUnit.SECONDS)
+public class PasswordVerifierTest {
+
+    private static final String TENANT_ID = "tenant";
+    private static final String PWD = "the-secret";
+
+    private HonoPasswordEncoder pwdEncoder;
+    private MeterRegistry meterRegistry;
+    private CredentialsObject credentialsOnRecord;
+
+    /**
+     * Sets up the fixture.
+     */
+    @BeforeEach
+    public void setUp() {
+        pwdEncoder = mock(HonoPasswordEncoder.class);
+        when(pwdEncoder.matches(eq(PWD), any(JsonObject.class))).thenReturn(true);
+        meterRegistry = new SimpleMeterRegistry();
+        credentialsOnRecord = CredentialsObject.fromClearTextPassword("4711", "device", PWD, null, null);
+    }
+
+    /**
+     * Verifies that a successful verification is cached and that subsequent verifications
+     * of the same password do not invoke the password encoder again.
+     *
+     * @param ctx The vert.x test context.
+     * @param vertx The vert.x instance.
+     */
+    @Test
+    public void testVerifyUsesCachedResult(final VertxTestContext ctx, final Vertx vertx) {
+
+        final PasswordVerifier verifier = new PasswordVerifier(pwdEncoder, 1, 10, Duration.ofMinutes(1), meterRegistry);
+        vertx.runOnContext(go -> {
+            verifier.verify(TENANT_ID, PWD, credentialsOnRecord)
+                .compose(firstResult -> {
+                    ctx.verify(() -> assertThat(firstResult).isTrue());
+                    return verifier.verify(TENANT_ID, PWD, credentialsOnRecord);
+                })
+                .onComplete(ctx.succeeding(secondResult -> {
+                    ctx.verify(() -> {
+                        assertThat(secondResult).isTrue();
+                        verify(pwdEncoder, times(1)).matches(eq(PWD), any(JsonObject.class));
+                        assertThat(meterRegistry.find(PasswordVerifier.METER_VERIFICATION_DURATION)
+                                .tag("cached", "true").timer().count()).isEqualTo(1);
+                    });
+                    ctx.completeNow();
+                }));
+        });
+    }
+
+    /**
+     * Verifies that a failed verification is not cached.
+     *
+     * @param ctx The vert.x test context.
+     * @param vertx The vert.x instance.
+     */
+    @Test
+    public void testVerifyDoesNotCacheMismatch(final VertxTestContext ctx, final Vertx vertx) {
+
+        final PasswordVerifier verifier = new PasswordVerifier(pwdEncoder, 1, 10, Duration.ofMinutes(1), meterRegistry);
+        vertx.runOnContext(go -> {
+            verifier.verify(TENANT_ID, "wrong", credentialsOnRecord)
+                .compose(firstResult -> {
+                    ctx.verify(() -> assertThat(firstResult).isFalse());
+                    return verifier.verify(TENANT_ID, "wrong", credentialsOnRecord);
+                })
+                .onComplete(ctx.succeeding(secondResult -> {
+                    ctx.verify(() -> {
+                        assertThat(secondResult).isFalse();
+                        verify(pwdEncoder, times(2)).matches(eq("wrong"), any(JsonObject.class));
+                    });
+                    ctx.completeNow();
+                }));
+        });
+    }
+
+    /**
+     * Verifies that verifications are rejected with a 503 error if the verifier's queue is full.
+     *
+     * @param ctx The vert.x test context.
+     * @param vertx The vert.x instance.
+     */
+    @Test
+    public void testVerifyFailsIfQueueIsFull(final VertxTestContext ctx, final Vertx vertx) {
+
+        final CountDownLatch release = new CountDownLatch(1);
+        when(pwdEncoder.matches(eq(PWD), any(JsonObject.class))).thenAnswer(invocation -> {
+            release.await();
+            return true;
+        });
+        final PasswordVerifier verifier = new PasswordVerifier(pwdEncoder, 1, 1, Duration.ZERO, meterRegistry);
+        vertx.runOnContext(go -> {
+            // the first verification is being executed, the second one waits in the queue
+            final Future<Boolean> first = verifier.verify(TENANT_ID, PWD, credentialsOnRecord);
+            final Future<Boolean> second = verifier.verify(TENANT_ID, PWD, credentialsOnRecord);
+            // so that the third one needs to be rejected
+            verifier.verify(TENANT_ID, PWD, credentialsOnRecord)
+                .onComplete(ctx.failing(t -> {
+                    ctx.verify(() -> {
+                        assertThat(t).isInstanceOf(ServerErrorException.class);
+                        assertThat(((ServiceInvocationException) t).getErrorCode())
+                            .isEqualTo(HttpURLConnection.HTTP_UNAVAILABLE);
+                        assertThat(meterRegistry.find(PasswordVerifier.METER_VERIFICATION_REJECTED)
+                                .counter().count()).isEqualTo(1.0);
+                    });
+                    release.countDown();
+                    CompositeFuture.all(first, second).onComplete(ctx.succeedingThenComplete());
+                }));
+        });
+    }
+}
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2018, 2020 Contributors to the Eclipse Foundation
+ * Copyright (c) 2018, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -24,6 +24,7 @@ import static com.google.common.truth.Truth.assertThat;
 
 import java.net.HttpURLConnection;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Base64;
 import java.util.Map;
@@ -41,6 +42,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.opentracing.noop.NoopTracerFactory;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
@@ -127,6 +129,39 @@ public class UsernamePasswordAuthProviderTest {
         }));
     }
 
+    /**
+     * Verifies that the provider uses a password verifier for validating credentials, if set.
+     *
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testAuthenticateUsesPasswordVerifier(final VertxTestContext ctx) {
+
+        final PasswordVerifier verifier = new PasswordVerifier(pwdEncoder, 1, 10, Duration.ZERO, new SimpleMeterRegistry());
+        provider = new UsernamePasswordAuthProvider(credentialsClient, verifier, NoopTracerFactory.create());
+        when(pwdEncoder.matches(eq("wrong_pwd"), any(JsonObject.class))).thenReturn(false);
+        final Promise<DeviceUser> validResult = Promise.promise();
+        final Promise<DeviceUser> invalidResult = Promise.promise();
+
+        vertx.runOnContext(go -> {
+            provider.authenticate(deviceCredentials, null, validResult);
+            provider.authenticate(
+                    UsernamePasswordCredentials.create("device@DEFAULT_TENANT", "wrong_pwd"),
+                    null,
+                    invalidResult);
+        });
+        validResult.future().onComplete(ctx.succeeding(device -> {
+            ctx.verify(() -> {
+                assertThat(device.getDeviceId()).isEqualTo("4711");
+                assertThat(device.getTenantId()).isEqualTo("DEFAULT_TENANT");
+            });
+            invalidResult.future().onComplete(ctx.failing(e -> {
+                ctx.verify(() -> assertThat(((ClientErrorException) e).getErrorCode()).isEqualTo(HttpURLConnection.HTTP_UNAUTHORIZED));
+                ctx.completeNow();
+            }));
+        }));
+    }
+
     /**
      * Verifies that the provider fails to validate wrong credentials.
      *
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.hono.adapter.limiting;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.hono.service.metric.MetricsTags;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Tests verifying behavior of {@link InFlightMessageLimiter}.
+ *
+ */
+public class InFlightMessageLimiterTest {
+
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Sets up the fixture.
+     */
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    /**
+     * Verifies that messages sent with QoS 0 are rejected before the overall budget is exhausted
+     * while messages sent with QoS 1 may use up the remaining budget.
+     */
+    @Test
+    public void testTryAcquireShedsAtMostOnceMessagesFirst() {
+
+        final InFlightMessageLimiter limiter = new InFlightMessageLimiter(10, 0, meterRegistry);
+        for (int i = 0; i < 8; i++) {
+            assertThat(limiter.tryAcquire("tenant", MetricsTags.QoS.AT_MOST_ONCE)).isNotNull();
+        }
+        assertThat(limiter.tryAcquire("tenant", MetricsTags.QoS.AT_MOST_ONCE)).isNull();
+
+        assertThat(limiter.tryAcquire("tenant", MetricsTags.QoS.AT_LEAST_ONCE)).isNotNull();
+        assertThat(limiter.tryAcquire("tenant", MetricsTags.QoS.AT_LEAST_ONCE)).isNotNull();
+        assertThat(limiter.tryAcquire("tenant", MetricsTags.QoS.AT_LEAST_ONCE)).isNull();
+
+        assertThat(limiter.getInFlightMessages()).isEqualTo(10);
+        assertThat(meterRegistry.find(InFlightMessageLimiter.METER_IN_FLIGHT_MESSAGES)
+                .tags(MetricsTags.QoS.AT_MOST_ONCE.asTag().getKey(), MetricsTags.QoS.AT_MOST_ONCE.asTag().getValue())
+                .gauge().value()).isEqualTo(8.0);
+        assertThat(meterRegistry.find(InFlightMessageLimiter.METER_IN_FLIGHT_MESSAGES_REJECTED)
+                .tag(MetricsTags.TAG_TENANT, "tenant")
+                .counters()
+                .stream()
+                .mapToDouble(counter -> counter.count())
+                .sum()).isEqualTo(2.0);
+    }
+
+    /**
+     * Verifies that the number of messages in flight is limited per tenant and that
+     * releasing a permit more than once has no effect.
+     */
+    @Test
+    public void testTryAcquireLimitsMessagesPerTenant() {
+
+        final InFlightMessageLimiter limiter = new InFlightMessageLimiter(10, 2, meterRegistry);
+        final List<InFlightMessageLimiter.Permit> permits = new ArrayList<>();
+        permits.add(limiter.tryAcquire("tenant", MetricsTags.QoS.AT_LEAST_ONCE));
+        permits.add(limiter.tryAcquire("tenant", MetricsTags.QoS.AT_LEAST_ONCE));
+        assertThat(permits).doesNotContain(null);
+        assertThat(limiter.tryAcquire("tenant", MetricsTags.QoS.AT_LEAST_ONCE)).isNull();
+        // messages of other tenants are not affected
+        assertThat(limiter.tryAcquire("other-tenant", MetricsTags.QoS.AT_LEAST_ONCE)).isNotNull();
+
+        permits.get(0).release();
+        permits.get(0).release();
+        assertThat(limiter.getInFlightMessages("tenant")).isEqualTo(1);
+        assertThat(limiter.getInFlightMessages()).isEqualTo(2);
+        assertThat(limiter.tryAcquire("tenant", MetricsTags.QoS.AT_LEAST_ONCE)).isNotNull();
+        assertThat(limiter.tryAcquire("tenant", MetricsTags.QoS.AT_LEAST_ONCE)).isNull();
+    }
+}
@@ -0,0 +1,258 @@
+/**
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.hono.adapter.amqp;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.Vertx;
+import io.vertx.proton.ProtonReceiver;
+
+/**
+ * Manages the credit of a link that a device uses for uploading messages.
+ * <p>
+ * The credit is adapted to the rate at which the device sends messages and to the time it takes
+ * to forward the messages downstream:
+ * <ul>
+ * <li>If the device has used up all of its credit and messages are forwarded faster than the target latency,
+ * the link's credit is increased (up to the maximum credit).</li>
+ * <li>If forwarding a message takes longer than the target latency, the link's credit is halved (down to
+ * the minimum credit).</li>
+ * <li>If the device has not sent any messages during a check interval, the link's credit is reduced to the
+ * minimum credit by means of draining the link.</li>
+ * </ul>
+ * Credit is only issued to the device for messages that have been processed, i.e. the number of messages
+ * that have been received but not yet processed plus the link's outstanding credit never exceeds the link's
+ * current target credit. All credit is acquired from an adapter wide {@link LinkCreditBudget}.
+ * <p>
+ * Instances are not thread safe. All methods need to be invoked on the link's Vert.x context.
+ */
+final class AdaptiveLinkCreditController {
+
+    /**
+     * The interval (milliseconds) at which links are checked for inactivity.
+     */
+    static final long IDLE_CHECK_INTERVAL_MILLIS = 10_000;
+    /**
+     * The amount of time (milliseconds) to wait before trying to acquire credit again from an exhausted budget.
+     */
+    static final long BUDGET_RETRY_INTERVAL_MILLIS = 100;
+
+    private static final Logger LOG = LoggerFactory.getLogger(AdaptiveLinkCreditController.class);
+    private static final long DRAIN_TIMEOUT_MILLIS = 5_000;
+
+    private final Vertx vertx;
+    private final ProtonReceiver receiver;
+    private final LinkCreditBudget budget;
+    private final int minCredit;
+    private final int maxCredit;
+    private final long targetLatencyNanos;
+
+    private int targetCredit;
+    private int credit;
+    private int inFlight;
+    private int creditedInFlight;
+    private boolean saturated;
+    private boolean activeSinceLastCheck;
+    private boolean draining;
+    private boolean retryScheduled;
+    private boolean closed;
+    private long lastDecrease;
+
+    /**
+     * Creates a new controller for a link.
+     *
+     * @param vertx The Vert.x instance to use for scheduling timers.
+     * @param receiver The link to manage the credit of. The link's prefetch needs to be 0.
+     * @param budget The budget to acquire credit from.
+     * @param config The configuration properties to use.
+     * @throws NullPointerException if any of the parameters are {@code null}.
+     */
+    AdaptiveLinkCreditController(
+            final Vertx vertx,
+            final ProtonReceiver receiver,
+            final LinkCreditBudget budget,
+            final AmqpAdapterProperties config) {
+
+        this.vertx = Objects.requireNonNull(vertx);
+        this.receiver = Objects.requireNonNull(receiver);
+        this.budget = Objects.requireNonNull(budget);
+        Objects.requireNonNull(config);
+        this.minCredit = config.getMinLinkCredit();
+        this.maxCredit = Math.max(config.getMinLinkCredit(), config.getMaxLinkCredit());
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(config.getLinkCreditTargetLatency());
+        this.targetCredit = minCredit;
+        this.lastDecrease = System.nanoTime();
+    }
+
+    /**
+     * Issues the initial credit to the device.
+     */
+    void open() {
+        replenish();
+    }
+
+    /**
+     * Gets the credit that the device may currently use for sending messages.
+     *
+     * @return The credit.
+     */
+    int getCredit() {
+        return credit;
+    }
+
+    /**
+     * Gets the number of messages that have been received but not yet processed.
+     *
+     * @return The number of messages.
+     */
+    int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Gets the credit that the link currently aims at.
+     *
+     * @return The credit.
+     */
+    int getTargetCredit() {
+        return targetCredit;
+    }
+
+    /**
+     * Checks whether the link has been closed.
+     *
+     * @return {@code true} if the link has been closed.
+     */
+    boolean isClosed() {
+        return closed || receiver.getSession().getConnection().isDisconnected();
+    }
+
+    /**
+     * Records the reception of a message from the device.
+     */
+    void onMessageReceived() {
+        activeSinceLastCheck = true;
+        inFlight++;
+        if (credit > 0) {
+            credit--;
+            // only messages sent with credit acquired from the budget hold a share of the budget,
+            // a device may send messages without credit, e.g. if it ignores a drain request
+            creditedInFlight++;
+        }
+        if (credit == 0) {
+            // the device has used up all of its credit
+            saturated = true;
+        }
+    }
+
+    /**
+     * Records the completion of processing a message received from the device
+     * and issues new credit to the device.
+     *
+     * @param processingTimeNanos The time it took to process the message.
+     */
+    void onMessageProcessed(final long processingTimeNanos) {
+
+        if (inFlight > 0) {
+            inFlight--;
+        }
+        if (creditedInFlight > 0) {
+            creditedInFlight--;
+            budget.release(1);
+        }
+        if (closed) {
+            return;
+        }
+        if (processingTimeNanos > targetLatencyNanos) {
+            final long now = System.nanoTime();
+            // halve the credit at most once per target latency period
+            if (now - lastDecrease > targetLatencyNanos && targetCredit > minCredit) {
+                targetCredit = Math.max(minCredit, targetCredit / 2);
+                lastDecrease = now;
+                LOG.trace("decreased target credit of link [{}] to {}", receiver.getName(), targetCredit);
+            }
+            saturated = false;
+        } else if (saturated && targetCredit < maxCredit) {
+            targetCredit = Math.min(maxCredit, targetCredit * 2);
+            saturated = false;
+            LOG.trace("increased target credit of link [{}] to {}", receiver.getName(), targetCredit);
+        }
+        replenish();
+    }
+
+    /**
+     * Reduces the link's credit to the minimum credit if the device has not sent any
+     * messages since the last invocation of this method.
+     */
+    void shrinkIfIdle() {
+
+        if (!activeSinceLastCheck && !closed && !draining && credit > minCredit) {
+            LOG.trace("draining credit of idle link [{}]", receiver.getName());
+            targetCredit = minCredit;
+            saturated = false;
+            draining = true;
+            receiver.drain(DRAIN_TIMEOUT_MILLIS, drained -> {
+                draining = false;
+                if (drained.succeeded()) {
+                    // the device has either used up or dropped its remaining credit
+                    budget.release(credit);
+                    credit = 0;
+                }
+                replenish();
+            });
+        }
+        activeSinceLastCheck = false;
+    }
+
+    /**
+     * Returns the link's outstanding credit to the budget.
+     * <p>
+     * Credit for messages that are still being processed is returned
+     * once the processing of the messages has completed.
+     */
+    void close() {
+        if (!closed) {
+            closed = true;
+            budget.release(credit);
+            credit = 0;
+        }
+    }
+
+    private void replenish() {
+
+        if (closed || draining || !receiver.isOpen()) {
+            return;
+        }
+        final int missingCredit = targetCredit - credit - inFlight;
+        if (missingCredit <= 0) {
+            return;
+        }
+        final int acquiredCredit = budget.acquire(missingCredit);
+        if (acquiredCredit > 0) {
+            credit += acquiredCredit;
+            receiver.flow(acquiredCredit);
+        } else if (credit + inFlight == 0 && !retryScheduled) {
+            // make sure that the device will eventually get credit again
+            retryScheduled = true;
+            vertx.setTimer(BUDGET_RETRY_INTERVAL_MILLIS, tid -> {
+                retryScheduled = false;
+                replenish();
+            });
+        }
+    }
+}
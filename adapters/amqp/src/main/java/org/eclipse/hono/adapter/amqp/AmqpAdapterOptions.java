@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2021, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2021, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -71,4 +71,47 @@ public interface AmqpAdapterOptions {
      */
     @WithDefault("1000")
     long sendMessageToDeviceTimeout();
+
+    /**
+     * Checks whether the credit of the links that devices use for uploading messages
+     * is adapted to the devices' message rate and the downstream latency.
+     *
+     * @return {@code true} if link credit is adaptive.
+     */
+    @WithDefault("false")
+    boolean adaptiveLinkCredit();
+
+    /**
+     * Gets the minimum credit of a device's link if adaptive link credit is used.
+     *
+     * @return The credit.
+     */
+    @WithDefault("10")
+    int minLinkCredit();
+
+    /**
+     * Gets the maximum credit of a device's link if adaptive link credit is used.
+     *
+     * @return The credit.
+     */
+    @WithDefault("500")
+    int maxLinkCredit();
+
+    /**
+     * Gets the time it may take to forward a message downstream before the credit of
+     * the device's link gets reduced if adaptive link credit is used.
+     *
+     * @return The time in milliseconds.
+     */
+    @WithDefault("200")
+    long linkCreditTargetLatency();
+
+    /**
+     * Gets the maximum overall credit of all device links and messages being processed
+     * if adaptive link credit is used.
+     *
+     * @return The credit or 0 if the overall credit is not limited.
+     */
+    @WithDefault("0")
+    int linkCreditBudget();
 }
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2018, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2018, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -41,11 +41,29 @@ public class AmqpAdapterProperties extends ProtocolAdapterProperties {
      * The amount of time (in milliseconds) to wait for a device to acknowledge receiving a command message.
      */
     public static final long DEFAULT_SEND_MESSAGE_TO_DEVICE_TIMEOUT = 1000L; // ms
+    /**
+     * The default minimum credit of a device's link if adaptive link credit is used.
+     */
+    public static final int DEFAULT_MIN_LINK_CREDIT = 10;
+    /**
+     * The default maximum credit of a device's link if adaptive link credit is used.
+     */
+    public static final int DEFAULT_MAX_LINK_CREDIT = 500;
+    /**
+     * The default time (in milliseconds) that forwarding a message downstream may take before the credit
+     * of the device's link gets reduced.
+     */
+    public static final long DEFAULT_LINK_CREDIT_TARGET_LATENCY = 200L;
 
     private int maxFrameSize = DEFAULT_MAX_FRAME_SIZE_BYTES;
     private int maxSessionFrames = DEFAULT_MAX_SESSION_FRAMES;
     private int idleTimeout = DEFAULT_IDLE_TIMEOUT_MILLIS;
     private long sendMessageToDeviceTimeout = DEFAULT_SEND_MESSAGE_TO_DEVICE_TIMEOUT;
+    private boolean adaptiveLinkCredit = false;
+    private int minLinkCredit = DEFAULT_MIN_LINK_CREDIT;
+    private int maxLinkCredit = DEFAULT_MAX_LINK_CREDIT;
+    private long linkCreditTargetLatency = DEFAULT_LINK_CREDIT_TARGET_LATENCY;
+    private int linkCreditBudget = 0;
 
     /**
      * Creates properties using default values.
@@ -65,6 +83,11 @@ public class AmqpAdapterProperties extends ProtocolAdapterProperties {
         setMaxFrameSize(options.maxFrameSize());
         setMaxSessionFrames(options.maxSessionFrames());
         setSendMessageToDeviceTimeout(options.sendMessageToDeviceTimeout());
+        setAdaptiveLinkCredit(options.adaptiveLinkCredit());
+        setMinLinkCredit(options.minLinkCredit());
+        setMaxLinkCredit(options.maxLinkCredit());
+        setLinkCreditTargetLatency(options.linkCreditTargetLatency());
+        setLinkCreditBudget(options.linkCreditBudget());
     }
 
     /**
@@ -189,4 +212,143 @@ public class AmqpAdapterProperties extends ProtocolAdapterProperties {
         }
         this.sendMessageToDeviceTimeout = sendMessageToDeviceTimeout;
     }
+
+    /**
+     * Checks whether the credit of the links that devices use for uploading messages
+     * is adapted to the devices' message rate and the downstream latency.
+     * <p>
+     * Otherwise, each link is issued a fixed credit of 30 which is replenished as soon as a message
+     * has been received.
+     * <p>
+     * The default value of this property is {@code false}.
+     *
+     * @return {@code true} if link credit is adaptive.
+     */
+    public final boolean isAdaptiveLinkCredit() {
+        return adaptiveLinkCredit;
+    }
+
+    /**
+     * Sets whether the credit of the links that devices use for uploading messages
+     * should be adapted to the devices' message rate and the downstream latency.
+     * <p>
+     * The default value of this property is {@code false}.
+     *
+     * @param flag {@code true} if link credit should be adaptive.
+     */
+    public final void setAdaptiveLinkCredit(final boolean flag) {
+        this.adaptiveLinkCredit = flag;
+    }
+
+    /**
+     * Gets the minimum credit of a device's link if adaptive link credit is used.
+     * <p>
+     * Links are opened with this credit.
+     * <p>
+     * The default value of this property is {@link #DEFAULT_MIN_LINK_CREDIT}.
+     *
+     * @return The credit.
+     */
+    public final int getMinLinkCredit() {
+        return minLinkCredit;
+    }
+
+    /**
+     * Sets the minimum credit of a device's link if adaptive link credit is used.
+     * <p>
+     * The default value of this property is {@link #DEFAULT_MIN_LINK_CREDIT}.
+     *
+     * @param credit The credit.
+     * @throws IllegalArgumentException if the credit is less than 1.
+     */
+    public final void setMinLinkCredit(final int credit) {
+        if (credit < 1) {
+            throw new IllegalArgumentException("minimum link credit must be > 0");
+        }
+        this.minLinkCredit = credit;
+    }
+
+    /**
+     * Gets the maximum credit of a device's link if adaptive link credit is used.
+     * <p>
+     * The default value of this property is {@link #DEFAULT_MAX_LINK_CREDIT}.
+     *
+     * @return The credit.
+     */
+    public final int getMaxLinkCredit() {
+        return maxLinkCredit;
+    }
+
+    /**
+     * Sets the maximum credit of a device's link if adaptive link credit is used.
+     * <p>
+     * The default value of this property is {@link #DEFAULT_MAX_LINK_CREDIT}.
+     *
+     * @param credit The credit.
+     * @throws IllegalArgumentException if the credit is less than 1.
+     */
+    public final void setMaxLinkCredit(final int credit) {
+        if (credit < 1) {
+            throw new IllegalArgumentException("maximum link credit must be > 0");
+        }
+        this.maxLinkCredit = credit;
+    }
+
+    /**
+     * Gets the time that forwarding a message downstream may take before the credit of
+     * the device's link gets reduced if adaptive link credit is used.
+     * <p>
+     * The default value of this property is {@link #DEFAULT_LINK_CREDIT_TARGET_LATENCY}.
+     *
+     * @return The time in milliseconds.
+     */
+    public final long getLinkCreditTargetLatency() {
+        return linkCreditTargetLatency;
+    }
+
+    /**
+     * Sets the time that forwarding a message downstream may take before the credit of
+     * the device's link gets reduced if adaptive link credit is used.
+     * <p>
+     * The default value of this property is {@link #DEFAULT_LINK_CREDIT_TARGET_LATENCY}.
+     *
+     * @param latency The time in milliseconds.
+     * @throws IllegalArgumentException if the latency is less than 1.
+     */
+    public final void setLinkCreditTargetLatency(final long latency) {
+        if (latency < 1) {
+            throw new IllegalArgumentException("target latency must be > 0");
+        }
+        this.linkCreditTargetLatency = latency;
+    }
+
+    /**
+     * Gets the maximum overall credit of all device links and messages being processed
+     * if adaptive link credit is used.
+     * <p>
+     * The default value of this property is 0.
+     *
+     * @return The credit or 0 if the overall credit is not limited.
+     */
+    public final int getLinkCreditBudget() {
+        return linkCreditBudget;
+    }
+
+    /**
+     * Sets the maximum overall credit of all device links and messages being processed
+     * if adaptive link credit is used.
+     * <p>
+     * The budget is shared by all adapter verticle instances.
+     * <p>
+     * The default value of this property is 0.
+     *
+     * @param budget The credit or 0 if the overall credit should not be limited.
+     * @throws IllegalArgumentException if the budget is negative.
+     */
+    public final void setLinkCreditBudget(final int budget) {
+        if (budget < 0) {
+            throw new IllegalArgumentException("link credit budget must not be negative");
+        }
+        this.linkCreditBudget = budget;
+    }
 }
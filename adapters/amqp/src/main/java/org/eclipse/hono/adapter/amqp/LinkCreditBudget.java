@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.hono.adapter.amqp;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An upper limit for the number of messages that devices may send to the AMQP adapter
+ * without the adapter having finished processing them.
+ * <p>
+ * The budget accounts for the credit that has been issued on the links that devices use for uploading
+ * messages as well as for the messages that have been received but not yet been forwarded downstream.
+ * A single instance is supposed to be shared by all adapter verticle instances, so this class is thread safe.
+ */
+public final class LinkCreditBudget {
+
+    private final int maxCredit;
+    private final AtomicInteger usedCredit = new AtomicInteger();
+
+    /**
+     * Creates a new budget.
+     *
+     * @param maxCredit The maximum overall credit. A value of 0 or less indicates an unlimited budget.
+     */
+    public LinkCreditBudget(final int maxCredit) {
+        this.maxCredit = maxCredit;
+    }
+
+    /**
+     * Tries to acquire credit from this budget.
+     *
+     * @param requestedCredit The credit to acquire.
+     * @return The credit that has been acquired. This may be less than the requested credit
+     *         (or even 0) if the budget is (nearly) exhausted.
+     * @throws IllegalArgumentException if the requested credit is negative.
+     */
+    public int acquire(final int requestedCredit) {
+
+        if (requestedCredit < 0) {
+            throw new IllegalArgumentException("requested credit must not be negative");
+        }
+        if (maxCredit <= 0) {
+            usedCredit.addAndGet(requestedCredit);
+            return requestedCredit;
+        }
+        while (true) {
+            final int used = usedCredit.get();
+            final int granted = Math.min(requestedCredit, maxCredit - used);
+            if (granted <= 0) {
+                return 0;
+            }
+            if (usedCredit.compareAndSet(used, used + granted)) {
+                return granted;
+            }
+        }
+    }
+
+    /**
+     * Returns credit to this budget.
+     *
+     * @param credit The credit to return.
+     * @throws IllegalArgumentException if the credit is negative.
+     */
+    public void release(final int credit) {
+        if (credit < 0) {
+            throw new IllegalArgumentException("credit must not be negative");
+        }
+        usedCredit.addAndGet(-credit);
+    }
+
+    /**
+     * Gets the overall credit that has currently been acquired from this budget.
+     *
+     * @return The credit.
+     */
+    public int getUsedCredit() {
+        return usedCredit.get();
+    }
+
+    /**
+     * Gets the maximum overall credit.
+     *
+     * @return The credit or a value of 0 or less if the budget is not limited.
+     */
+    public int getMaxCredit() {
+        return maxCredit;
+    }
+}
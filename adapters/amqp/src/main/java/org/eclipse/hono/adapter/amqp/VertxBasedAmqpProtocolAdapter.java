@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2018, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -16,11 +16,14 @@ import java.net.HttpURLConnection;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
@@ -45,11 +48,11 @@ import org.eclipse.hono.adapter.AdapterDisabledException;
 import org.eclipse.hono.adapter.AuthorizationException;
 import org.eclipse.hono.adapter.auth.device.CredentialsApiAuthProvider;
 import org.eclipse.hono.adapter.auth.device.DeviceCredentials;
-import org.eclipse.hono.adapter.auth.device.usernamepassword.UsernamePasswordAuthProvider;
 import org.eclipse.hono.adapter.auth.device.x509.TenantServiceBasedX509Authentication;
 import org.eclipse.hono.adapter.auth.device.x509.X509AuthProvider;
 import org.eclipse.hono.adapter.limiting.ConnectionLimitManager;
 import org.eclipse.hono.adapter.limiting.DefaultConnectionLimitManager;
+import org.eclipse.hono.adapter.limiting.InFlightMessageLimiter;
 import org.eclipse.hono.adapter.limiting.MemoryBasedConnectionLimitStrategy;
 import org.eclipse.hono.auth.Device;
 import org.eclipse.hono.client.ClientErrorException;
@@ -151,6 +154,13 @@ public final class VertxBasedAmqpProtocolAdapter extends AbstractProtocolAdapter
     private ProtonSaslAuthenticatorFactory authenticatorFactory;
     private AmqpAdapterMetrics metrics = AmqpAdapterMetrics.NOOP;
 
+    /**
+     * The controllers managing the credit of the device links if adaptive link credit is used.
+     */
+    private final Set<AdaptiveLinkCreditController> linkCreditControllers = new HashSet<>();
+    private LinkCreditBudget linkCreditBudget;
+    private long linkCreditIdleCheckTimerId = -1;
+
     // -----------------------------------------< AbstractProtocolAdapterBase >---
     /**
      * {@inheritDoc}
@@ -171,11 +181,33 @@ public final class VertxBasedAmqpProtocolAdapter extends AbstractProtocolAdapter
         this.metrics = metrics;
     }
 
+    /**
+     * Sets the budget to acquire the credit for device links from if adaptive link credit is used.
+     * <p>
+     * The budget is supposed to be shared by all adapter instances. If not set, a budget
+     * is created from the configuration properties when the adapter is started.
+     *
+     * @param budget The budget.
+     * @throws NullPointerException if budget is {@code null}.
+     */
+    public void setLinkCreditBudget(final LinkCreditBudget budget) {
+        this.linkCreditBudget = Objects.requireNonNull(budget);
+    }
+
     @Override
     protected void doStart(final Promise<Void> startPromise) {
 
         registerDeviceAndTenantChangeNotificationConsumers();
 
+        if (getConfig().isAdaptiveLinkCredit()) {
+            if (linkCreditBudget == null) {
+                linkCreditBudget = new LinkCreditBudget(getConfig().getLinkCreditBudget());
+            }
+            linkCreditIdleCheckTimerId = vertx.setPeriodic(
+                    AdaptiveLinkCreditController.IDLE_CHECK_INTERVAL_MILLIS,
+                    tid -> checkLinkCredit());
+        }
+
         if (getConnectionLimitManager() == null) {
             setConnectionLimitManager(createConnectionLimitManager());
         }
@@ -191,7 +223,7 @@ public final class VertxBasedAmqpProtocolAdapter extends AbstractProtocolAdapter
                                 .withTag(Tags.COMPONENT.getKey(), getTypeName())
                                 .start(),
                         new SaslPlainAuthHandler(
-                                new UsernamePasswordAuthProvider(getCredentialsClient(), tracer),
+                                newUsernamePasswordAuthProvider(),
                                 this::handleBeforeCredentialsValidation),
                         new SaslExternalAuthHandler(
                                 new TenantServiceBasedX509Authentication(getTenantClient(), tracer),
@@ -291,12 +323,29 @@ public final class VertxBasedAmqpProtocolAdapter extends AbstractProtocolAdapter
             log.trace("stop already called");
             return;
         }
+        if (linkCreditIdleCheckTimerId != -1) {
+            vertx.cancelTimer(linkCreditIdleCheckTimerId);
+        }
         CompositeFuture.all(stopSecureServer(), stopInsecureServer())
         .map(ok -> (Void) null)
         .onComplete(ar -> log.info("AMQP server(s) closed"))
         .onComplete(stopPromise);
     }
 
+    private void checkLinkCredit() {
+        final Iterator<AdaptiveLinkCreditController> controllers = linkCreditControllers.iterator();
+        while (controllers.hasNext()) {
+            final AdaptiveLinkCreditController controller = controllers.next();
+            if (controller.isClosed()) {
+                // the connection has been lost without the link having been closed
+                controller.close();
+                controllers.remove();
+            } else {
+                controller.shrinkIfIdle();
+            }
+        }
+    }
+
     private boolean stopCalled() {
         return stopResultPromiseRef.get() != null;
     }
@@ -710,7 +759,16 @@ public final class VertxBasedAmqpProtocolAdapter extends AbstractProtocolAdapter
             receiver.setTarget(receiver.getRemoteTarget());
             receiver.setSource(receiver.getRemoteSource());
             receiver.setQoS(receiver.getRemoteQoS());
-            receiver.setPrefetch(30);
+            final AdaptiveLinkCreditController creditController;
+            if (getConfig().isAdaptiveLinkCredit()) {
+                // manage flow control manually
+                receiver.setPrefetch(0);
+                creditController = new AdaptiveLinkCreditController(vertx, receiver, linkCreditBudget, getConfig());
+                linkCreditControllers.add(creditController);
+            } else {
+                receiver.setPrefetch(30);
+                creditController = null;
+            }
             // manage disposition handling manually
             receiver.setAutoAccept(false);
             receiver.maxMessageSizeExceededHandler(recv -> {
@@ -723,9 +781,19 @@ public final class VertxBasedAmqpProtocolAdapter extends AbstractProtocolAdapter
                 errorSpan.log("device sender link will be detached");
                 errorSpan.finish();
             });
-            HonoProtonHelper.setCloseHandler(receiver, remoteDetach -> onLinkDetach(receiver));
-            HonoProtonHelper.setDetachHandler(receiver, remoteDetach -> onLinkDetach(receiver));
+            HonoProtonHelper.setCloseHandler(receiver, remoteDetach -> {
+                onLinkDetach(receiver);
+                closeLinkCreditController(creditController);
+            });
+            HonoProtonHelper.setDetachHandler(receiver, remoteDetach -> {
+                onLinkDetach(receiver);
+                closeLinkCreditController(creditController);
+            });
             receiver.handler((delivery, message) -> {
+                final long receivedAt = System.nanoTime();
+                if (creditController != null) {
+                    creditController.onMessageReceived();
+                }
                 try {
                     final SpanContext spanContext = AmqpUtils.extractSpanContext(tracer, message);
                     final Span msgSpan = newSpan("upload message", authenticatedDevice, traceSamplingPriority, spanContext);
@@ -748,16 +816,27 @@ public final class VertxBasedAmqpProtocolAdapter extends AbstractProtocolAdapter
                     spanPreparationFuture
                             .compose(ar -> onMessageReceived(ctx)
                                     .onSuccess(ok -> msgSpan.finish())
-                                    .onFailure(error -> closeConnectionOnTerminalError(error, conn, ctx, msgSpan)));
+                                    .onFailure(error -> closeConnectionOnTerminalError(error, conn, ctx, msgSpan)))
+                            .onComplete(ar -> {
+                                if (creditController != null) {
+                                    creditController.onMessageProcessed(System.nanoTime() - receivedAt);
+                                }
+                            });
                 } catch (final Exception ex) {
                     log.warn("error handling message [container: {}, {}]", conn.getRemoteContainer(),
                             authenticatedDevice, ex);
                     if (!conn.isDisconnected()) {
                         ProtonHelper.released(delivery, true);
                     }
+                    if (creditController != null) {
+                        creditController.onMessageProcessed(System.nanoTime() - receivedAt);
+                    }
                 }
             });
             receiver.open();
+            if (creditController != null) {
+                creditController.open();
+            }
             log.debug("established link for receiving messages from device [container: {}, {}]",
                     conn.getRemoteContainer(), authenticatedDevice);
             span.log("link established");
@@ -1276,13 +1355,17 @@ public final class VertxBasedAmqpProtocolAdapter extends AbstractProtocolAdapter
 
         log.trace("forwarding {} message", context.getEndpoint().getCanonicalName());
 
-        final Future<RegistrationAssertion> tokenFuture = getRegistrationAssertion(
-                resource.getTenantId(),
-                resource.getResourceId(),
-                context.getAuthenticatedDevice(),
-                currentSpan.context());
-        final Future<TenantObject> tenantTracker = getTenantConfiguration(resource.getTenantId(),
-                currentSpan.context());
+        final QoS qos = context.isRemotelySettled() ? QoS.AT_MOST_ONCE : QoS.AT_LEAST_ONCE;
+        // reject the message right away if the adapter is overloaded
+        final Future<InFlightMessageLimiter.Permit> admissionTracker = admitMessage(resource.getTenantId(), qos);
+        final Future<RegistrationAssertion> tokenFuture = admissionTracker
+                .compose(permit -> getRegistrationAssertion(
+                        resource.getTenantId(),
+                        resource.getResourceId(),
+                        context.getAuthenticatedDevice(),
+                        currentSpan.context()));
+        final Future<TenantObject> tenantTracker = admissionTracker
+                .compose(permit -> getTenantConfiguration(resource.getTenantId(), currentSpan.context()));
         final Future<TenantObject> tenantValidationTracker = tenantTracker
                 .compose(tenantObject -> CompositeFuture
                         .all(isAdapterEnabled(tenantObject),
@@ -1323,7 +1406,7 @@ public final class VertxBasedAmqpProtocolAdapter extends AbstractProtocolAdapter
                             resource.getTenantId(),
                             tenantTracker.result(),
                             ProcessingOutcome.from(t),
-                            context.isRemotelySettled() ? QoS.AT_MOST_ONCE : QoS.AT_LEAST_ONCE,
+                            qos,
                             context.getPayloadSize(),
                             context.getTimer());
                     return Future.failedFuture(t);
@@ -1335,11 +1418,12 @@ public final class VertxBasedAmqpProtocolAdapter extends AbstractProtocolAdapter
                             resource.getTenantId(),
                             tenantTracker.result(),
                             ProcessingOutcome.FORWARDED,
-                            context.isRemotelySettled() ? QoS.AT_MOST_ONCE : QoS.AT_LEAST_ONCE,
+                            qos,
                             context.getPayloadSize(),
                             context.getTimer());
                     return ok;
-                });
+                })
+                .onComplete(done -> admissionTracker.onSuccess(InFlightMessageLimiter.Permit::release));
     }
 
     private CommandResponse getCommandResponse(final Message message) {
@@ -1429,6 +1513,13 @@ public final class VertxBasedAmqpProtocolAdapter extends AbstractProtocolAdapter
                 });
     }
 
+    private void closeLinkCreditController(final AdaptiveLinkCreditController controller) {
+        if (controller != null) {
+            controller.close();
+            linkCreditControllers.remove(controller);
+        }
+    }
+
     /**
      * Closes the specified receiver link.
      *
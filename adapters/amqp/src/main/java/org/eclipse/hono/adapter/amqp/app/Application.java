@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2021, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2021, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -18,6 +18,7 @@ import javax.inject.Inject;
 import org.eclipse.hono.adapter.AbstractProtocolAdapterApplication;
 import org.eclipse.hono.adapter.amqp.AmqpAdapterMetrics;
 import org.eclipse.hono.adapter.amqp.AmqpAdapterProperties;
+import org.eclipse.hono.adapter.amqp.LinkCreditBudget;
 import org.eclipse.hono.adapter.amqp.VertxBasedAmqpProtocolAdapter;
 
 /**
@@ -31,6 +32,8 @@ public class Application extends AbstractProtocolAdapterApplication<AmqpAdapterP
     @Inject
     AmqpAdapterMetrics metrics;
 
+    private LinkCreditBudget linkCreditBudget;
+
     /**
      * {@inheritDoc}
      */
@@ -48,7 +51,22 @@ public class Application extends AbstractProtocolAdapterApplication<AmqpAdapterP
         final VertxBasedAmqpProtocolAdapter adapter = new VertxBasedAmqpProtocolAdapter();
         adapter.setConfig(protocolAdapterProperties);
         adapter.setMetrics(metrics);
+        if (protocolAdapterProperties.isAdaptiveLinkCredit()) {
+            adapter.setLinkCreditBudget(linkCreditBudget());
+        }
         setCollaborators(adapter);
         return adapter;
     }
+
+    /**
+     * Gets the budget for the credit of device links that is shared by all adapter instances.
+     *
+     * @return The budget.
+     */
+    private synchronized LinkCreditBudget linkCreditBudget() {
+        if (linkCreditBudget == null) {
+            linkCreditBudget = new LinkCreditBudget(protocolAdapterProperties.getLinkCreditBudget());
+        }
+        return linkCreditBudget;
+    }
 }
@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.hono.adapter.amqp;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.vertx.core.Vertx;
+import io.vertx.proton.ProtonReceiver;
+
+/**
+ * Tests verifying behavior of {@link AdaptiveLinkCreditController}.
+ *
+ */
+public class AdaptiveLinkCreditControllerTest {
+
+    private Vertx vertx;
+    private ProtonReceiver receiver;
+    private AmqpAdapterProperties config;
+
+    /**
+     * Sets up the fixture.
+     */
+    @BeforeEach
+    public void setUp() {
+        vertx = mock(Vertx.class);
+        receiver = mock(ProtonReceiver.class);
+        when(receiver.isOpen()).thenReturn(Boolean.TRUE);
+        when(receiver.getName()).thenReturn("telemetry");
+        config = new AmqpAdapterProperties();
+        config.setAdaptiveLinkCredit(true);
+        config.setMinLinkCredit(2);
+        config.setMaxLinkCredit(8);
+        config.setLinkCreditTargetLatency(1000);
+    }
+
+    /**
+     * Verifies that the minimum credit is issued when the link is opened.
+     */
+    @Test
+    public void testOpenIssuesMinimumCredit() {
+
+        final LinkCreditBudget budget = new LinkCreditBudget(0);
+        final AdaptiveLinkCreditController controller = new AdaptiveLinkCreditController(vertx, receiver, budget, config);
+        controller.open();
+
+        verify(receiver).flow(2);
+        assertThat(controller.getCredit()).isEqualTo(2);
+        assertThat(budget.getUsedCredit()).isEqualTo(2);
+    }
+
+    /**
+     * Verifies that the credit is increased if the device has used up all of its credit
+     * and the messages have been processed within the target latency.
+     */
+    @Test
+    public void testCreditIncreasesWhenLinkIsSaturated() {
+
+        final LinkCreditBudget budget = new LinkCreditBudget(0);
+        final AdaptiveLinkCreditController controller = new AdaptiveLinkCreditController(vertx, receiver, budget, config);
+        controller.open();
+
+        controller.onMessageReceived();
+        controller.onMessageReceived();
+        assertThat(controller.getCredit()).isEqualTo(0);
+        assertThat(controller.getInFlight()).isEqualTo(2);
+
+        controller.onMessageProcessed(1_000);
+        controller.onMessageProcessed(1_000);
+
+        assertThat(controller.getTargetCredit()).isEqualTo(4);
+        assertThat(controller.getCredit()).isEqualTo(4);
+        assertThat(controller.getInFlight()).isEqualTo(0);
+        // credit is issued only for processed messages
+        assertThat(budget.getUsedCredit()).isEqualTo(4);
+    }
+
+    /**
+     * Verifies that processing a message that the device has sent without having credit
+     * does not return credit to the budget that has never been acquired.
+     */
+    @Test
+    public void testMessageSentWithoutCreditDoesNotReleaseBudget() {
+
+        final LinkCreditBudget budget = new LinkCreditBudget(2);
+        final AdaptiveLinkCreditController controller = new AdaptiveLinkCreditController(vertx, receiver, budget, config);
+        controller.open();
+        assertThat(budget.getUsedCredit()).isEqualTo(2);
+
+        controller.onMessageReceived();
+        controller.onMessageReceived();
+        // the device sends a message although it has no credit left
+        controller.onMessageReceived();
+        assertThat(controller.getInFlight()).isEqualTo(3);
+
+        controller.close();
+        controller.onMessageProcessed(1_000);
+        controller.onMessageProcessed(1_000);
+        controller.onMessageProcessed(1_000);
+
+        assertThat(controller.getInFlight()).isEqualTo(0);
+        assertThat(budget.getUsedCredit()).isEqualTo(0);
+    }
+
+    /**
+     * Verifies that the credit issued to a link is limited by the budget and that
+     * the credit is returned to the budget when the link is closed.
+     */
+    @Test
+    public void testCreditIsLimitedByBudget() {
+
+        final LinkCreditBudget budget = new LinkCreditBudget(3);
+        final AdaptiveLinkCreditController first = new AdaptiveLinkCreditController(vertx, receiver, budget, config);
+        final ProtonReceiver otherReceiver = mock(ProtonReceiver.class);
+        when(otherReceiver.isOpen()).thenReturn(Boolean.TRUE);
+        final AdaptiveLinkCreditController second = new AdaptiveLinkCreditController(vertx, otherReceiver, budget, config);
+
+        first.open();
+        second.open();
+
+        verify(receiver).flow(2);
+        verify(otherReceiver).flow(1);
+        assertThat(budget.getUsedCredit()).isEqualTo(3);
+
+        first.close();
+        assertThat(budget.getUsedCredit()).isEqualTo(1);
+        assertThat(first.isClosed()).isTrue();
+
+        // no more credit is issued on a closed link
+        first.onMessageProcessed(1_000);
+        verify(receiver).flow(anyInt());
+        assertThat(budget.getUsedCredit()).isEqualTo(1);
+    }
+}
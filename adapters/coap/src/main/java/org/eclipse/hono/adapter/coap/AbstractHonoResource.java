@@ -29,6 +29,7 @@ import org.eclipse.californium.core.coap.OptionSet;
 import org.eclipse.californium.core.coap.Response;
 import org.eclipse.californium.core.server.resources.CoapExchange;
 import org.eclipse.hono.adapter.AbstractProtocolAdapterBase;
+import org.eclipse.hono.adapter.limiting.InFlightMessageLimiter;
 import org.eclipse.hono.client.ClientErrorException;
 import org.eclipse.hono.client.ServerErrorException;
 import org.eclipse.hono.client.command.Command;
@@ -285,12 +286,16 @@ public abstract class AbstractHonoResource extends TracingSupportingHonoResource
 
             final Promise<Void> responseReady = Promise.promise();
 
-            final Future<RegistrationAssertion> tokenTracker = getAdapter().getRegistrationAssertion(
-                    tenantId,
-                    deviceId,
-                    context.getAuthenticatedDevice(),
-                    currentSpan.context());
-            final Future<TenantObject> tenantTracker = getAdapter().getTenantClient().get(tenantId, currentSpan.context());
+            // reject the message right away if the adapter is overloaded
+            final Future<InFlightMessageLimiter.Permit> admissionTracker = getAdapter().admitMessage(tenantId, qos);
+            final Future<RegistrationAssertion> tokenTracker = admissionTracker
+                    .compose(permit -> getAdapter().getRegistrationAssertion(
+                            tenantId,
+                            deviceId,
+                            context.getAuthenticatedDevice(),
+                            currentSpan.context()));
+            final Future<TenantObject> tenantTracker = admissionTracker
+                    .compose(permit -> getAdapter().getTenantClient().get(tenantId, currentSpan.context()));
             final Future<TenantObject> tenantValidationTracker = tenantTracker
                     .compose(tenantObject -> CompositeFuture.all(
                             getAdapter().isAdapterEnabled(tenantObject),
@@ -346,6 +351,7 @@ public abstract class AbstractHonoResource extends TracingSupportingHonoResource
                                 props,
                                 currentSpan.context());
                     }
+                    sendResult.onComplete(sent -> admissionTracker.result().release());
                     return CompositeFuture.all(sendResult, responseReady.future()).mapEmpty();
                 }).compose(proceed -> {
 
@@ -417,7 +423,8 @@ public abstract class AbstractHonoResource extends TracingSupportingHonoResource
                     TracingHelper.logError(currentSpan, t);
                     commandConsumerClosedTracker.onComplete(res -> currentSpan.finish());
                     return Future.failedFuture(t);
-                });
+                })
+                .onComplete(done -> admissionTracker.onSuccess(InFlightMessageLimiter.Permit::release));
         }
     }
 
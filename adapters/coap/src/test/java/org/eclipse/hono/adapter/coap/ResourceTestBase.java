@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2018, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2018, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -33,6 +33,7 @@ import org.eclipse.californium.core.network.Exchange;
 import org.eclipse.californium.core.network.Exchange.Origin;
 import org.eclipse.californium.core.server.resources.CoapExchange;
 import org.eclipse.hono.adapter.TelemetryExecutionContext;
+import org.eclipse.hono.service.metric.MetricsTags;
 import org.eclipse.hono.test.VertxMockSupport;
 import org.eclipse.hono.util.Constants;
 import org.eclipse.hono.util.MessagingType;
@@ -90,6 +91,7 @@ abstract class ResourceTestBase extends CoapProtocolAdapterMockSupport<CoapProto
     CoapProtocolAdapter givenAnAdapter(final CoapAdapterProperties configuration) {
 
         adapter = mock(CoapProtocolAdapter.class);
+        when(adapter.admitMessage(anyString(), any(MetricsTags.QoS.class))).thenCallRealMethod();
         when(adapter.checkMessageLimit(any(TenantObject.class), anyLong(), any())).thenReturn(Future.succeededFuture());
         when(adapter.getCommandConsumerFactory()).thenReturn(commandConsumerFactory);
         when(adapter.getCommandResponseSender(any(MessagingType.class), any(TenantObject.class))).thenReturn(commandResponseSender);
@@ -26,6 +26,7 @@ import org.eclipse.hono.adapter.AbstractProtocolAdapterBase;
 import org.eclipse.hono.adapter.HttpContext;
 import org.eclipse.hono.adapter.auth.device.CredentialsApiAuthProvider;
 import org.eclipse.hono.adapter.auth.device.DeviceCredentials;
+import org.eclipse.hono.adapter.limiting.InFlightMessageLimiter;
 import org.eclipse.hono.client.ClientErrorException;
 import org.eclipse.hono.client.ServerErrorException;
 import org.eclipse.hono.client.command.Command;
@@ -607,15 +608,19 @@ public abstract class AbstractVertxBasedHttpProtocolAdapter<T extends HttpProtoc
                 .withTag(TracingHelper.TAG_QOS, qos.name())
                 .start();
 
-        final Future<RegistrationAssertion> tokenTracker = getRegistrationAssertion(
-                tenant,
-                deviceId,
-                authenticatedDevice,
-                currentSpan.context());
+        // reject the message right away if the adapter is overloaded
+        final Future<InFlightMessageLimiter.Permit> admissionTracker = admitMessage(tenant, qos);
+        final Future<RegistrationAssertion> tokenTracker = admissionTracker
+                .compose(permit -> getRegistrationAssertion(
+                        tenant,
+                        deviceId,
+                        authenticatedDevice,
+                        currentSpan.context()));
         final int payloadSize = Optional.ofNullable(payload)
                 .map(ok -> payload.length())
                 .orElse(0);
-        final Future<TenantObject> tenantTracker = getTenantConfiguration(tenant, currentSpan.context());
+        final Future<TenantObject> tenantTracker = admissionTracker
+                .compose(permit -> getTenantConfiguration(tenant, currentSpan.context()));
         final Future<TenantObject> tenantValidationTracker = tenantTracker
                 .compose(tenantObject -> CompositeFuture
                         .all(isAdapterEnabled(tenantObject),
@@ -663,7 +668,9 @@ public abstract class AbstractVertxBasedHttpProtocolAdapter<T extends HttpProtoc
                                 contentType,
                                 payload,
                                 props,
-                                currentSpan.context()).onFailure(thr -> responseReadyTracker.cancel("send event failed", null)),
+                                currentSpan.context())
+                            .onComplete(sent -> admissionTracker.result().release())
+                            .onFailure(thr -> responseReadyTracker.cancel("send event failed", null)),
                         responseReadyTracker.future())
                         .map(s -> (Void) null);
             } else {
@@ -676,7 +683,9 @@ public abstract class AbstractVertxBasedHttpProtocolAdapter<T extends HttpProtoc
                                 contentType,
                                 payload,
                                 props,
-                                currentSpan.context()).onFailure(thr -> responseReadyTracker.cancel("send telemetry failed", null)),
+                                currentSpan.context())
+                            .onComplete(sent -> admissionTracker.result().release())
+                            .onFailure(thr -> responseReadyTracker.cancel("send telemetry failed", null)),
                         responseReadyTracker.future())
                         .map(s -> (Void) null);
             }
@@ -782,7 +791,8 @@ public abstract class AbstractVertxBasedHttpProtocolAdapter<T extends HttpProtoc
             TracingHelper.logError(currentSpan, t);
             currentSpan.finish();
             return Future.failedFuture(t);
-        });
+        })
+        .onComplete(done -> admissionTracker.onSuccess(InFlightMessageLimiter.Permit::release));
     }
 
     private void logResponseGettingClosedPrematurely(final RoutingContext ctx) {
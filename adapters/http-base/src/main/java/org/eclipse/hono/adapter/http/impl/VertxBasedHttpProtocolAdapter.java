@@ -19,7 +19,6 @@ import java.util.Optional;
 
 import org.eclipse.hono.adapter.HttpContext;
 import org.eclipse.hono.adapter.auth.device.DeviceCredentialsAuthProvider;
-import org.eclipse.hono.adapter.auth.device.usernamepassword.UsernamePasswordAuthProvider;
 import org.eclipse.hono.adapter.auth.device.usernamepassword.UsernamePasswordCredentials;
 import org.eclipse.hono.adapter.auth.device.x509.SubjectDnCredentials;
 import org.eclipse.hono.adapter.auth.device.x509.TenantServiceBasedX509Authentication;
@@ -109,7 +108,7 @@ public final class VertxBasedHttpProtocolAdapter extends AbstractVertxBasedHttpP
                     this::handleBeforeCredentialsValidation));
             authHandler.add(new HonoBasicAuthHandler(
                     Optional.ofNullable(usernamePasswordAuthProvider)
-                        .orElseGet(() -> new UsernamePasswordAuthProvider(getCredentialsClient(), tracer)),
+                        .orElseGet(this::newUsernamePasswordAuthProvider),
                     getConfig().getRealm(),
                     this::handleBeforeCredentialsValidation));
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2016, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -47,11 +47,11 @@ import org.eclipse.hono.adapter.auth.device.CredentialsApiAuthProvider;
 import org.eclipse.hono.adapter.auth.device.DeviceCredentials;
 import org.eclipse.hono.adapter.auth.device.jwt.DefaultJwsValidator;
 import org.eclipse.hono.adapter.auth.device.jwt.JwtAuthProvider;
-import org.eclipse.hono.adapter.auth.device.usernamepassword.UsernamePasswordAuthProvider;
 import org.eclipse.hono.adapter.auth.device.x509.TenantServiceBasedX509Authentication;
 import org.eclipse.hono.adapter.auth.device.x509.X509AuthProvider;
 import org.eclipse.hono.adapter.limiting.ConnectionLimitManager;
 import org.eclipse.hono.adapter.limiting.DefaultConnectionLimitManager;
+import org.eclipse.hono.adapter.limiting.InFlightMessageLimiter;
 import org.eclipse.hono.adapter.limiting.MemoryBasedConnectionLimitStrategy;
 import org.eclipse.hono.adapter.mqtt.MqttContext.ErrorHandlingMode;
 import org.eclipse.hono.auth.Device;
@@ -228,10 +228,7 @@ public abstract class AbstractVertxBasedMqttProtocolAdapter<T extends MqttProtoc
                                 getCredentialsClient(),
                                 new DefaultJwsValidator(),
                                 tracer)))
-                .append(new ConnectPacketAuthHandler(
-                        new UsernamePasswordAuthProvider(
-                                getCredentialsClient(),
-                                tracer)));
+                .append(new ConnectPacketAuthHandler(newUsernamePasswordAuthProvider()));
     }
 
     /**
@@ -709,7 +706,9 @@ public abstract class AbstractVertxBasedMqttProtocolAdapter<T extends MqttProtoc
 
         final Buffer payload = ctx.payload();
         final MetricsTags.QoS qos = MetricsTags.QoS.from(ctx.qosLevel().value());
-        final Future<TenantObject> tenantTracker = getTenantConfiguration(ctx.tenant(), ctx.getTracingContext());
+        final Future<InFlightMessageLimiter.Permit> admissionTracker = admitMessage(ctx.tenant(), qos);
+        final Future<TenantObject> tenantTracker = admissionTracker
+                .compose(permit -> getTenantConfiguration(ctx.tenant(), ctx.getTracingContext()));
 
         return tenantTracker
                 .compose(tenantObject -> uploadMessage(ctx, tenantObject, ctx.deviceId(), payload, ctx.endpoint()))
@@ -733,7 +732,8 @@ public abstract class AbstractVertxBasedMqttProtocolAdapter<T extends MqttProtoc
                             payload.length(),
                             ctx.getTimer());
                     return Future.failedFuture(t);
-                });
+                })
+                .onComplete(done -> admissionTracker.onSuccess(InFlightMessageLimiter.Permit::release));
     }
 
     /**
@@ -759,7 +759,9 @@ public abstract class AbstractVertxBasedMqttProtocolAdapter<T extends MqttProtoc
 
         final Buffer payload = ctx.payload();
         final MetricsTags.QoS qos = MetricsTags.QoS.from(ctx.qosLevel().value());
-        final Future<TenantObject> tenantTracker = getTenantConfiguration(ctx.tenant(), ctx.getTracingContext());
+        final Future<InFlightMessageLimiter.Permit> admissionTracker = admitMessage(ctx.tenant(), qos);
+        final Future<TenantObject> tenantTracker = admissionTracker
+                .compose(permit -> getTenantConfiguration(ctx.tenant(), ctx.getTracingContext()));
 
         return tenantTracker
                 .compose(tenantObject -> uploadMessage(ctx, tenantObject, ctx.deviceId(), payload, ctx.endpoint()))
@@ -783,7 +785,8 @@ public abstract class AbstractVertxBasedMqttProtocolAdapter<T extends MqttProtoc
                             payload.length(),
                             ctx.getTimer());
                     return Future.failedFuture(t);
-                });
+                })
+                .onComplete(done -> admissionTracker.onSuccess(InFlightMessageLimiter.Permit::release));
     }
 
     /**
@@ -1376,6 +1379,7 @@ public abstract class AbstractVertxBasedMqttProtocolAdapter<T extends MqttProtoc
             }
             final Map<Subscription.Key, Future<Subscription>> uniqueSubscriptions = new HashMap<>();
             final Deque<Future<Subscription>> subscriptionOutcomes = new ArrayDeque<>(subscribeMsg.topicSubscriptions().size());
+            final List<Pair<CommandSubscription, Promise<Subscription>>> gatewaySubscriptionsForSpecificDevices = new ArrayList<>();
 
             final Span span = newSpan("SUBSCRIBE");
 
@@ -1404,12 +1408,20 @@ public abstract class AbstractVertxBasedMqttProtocolAdapter<T extends MqttProtoc
                         span.log(items);
                         result = uniqueSubscriptions.get(sub.getKey());
                     } else {
-                        result = registerSubscription(sub, span);
+                        if (isGatewayCommandSubscriptionForSpecificDevice(sub)) {
+                            // register together with the gateway's other subscriptions for specific devices
+                            final Promise<Subscription> registration = Promise.promise();
+                            gatewaySubscriptionsForSpecificDevices.add(Pair.of((CommandSubscription) sub, registration));
+                            result = registration.future();
+                        } else {
+                            result = registerSubscription(sub, span);
+                        }
                         uniqueSubscriptions.put(sub.getKey(), result);
                     }
                 }
                 subscriptionOutcomes.addFirst(result); // add first to get the same order as in the SUBSCRIBE packet
             });
+            registerGatewayCommandSubscriptions(gatewaySubscriptionsForSpecificDevices, span);
 
             // wait for all futures to complete before sending SUBACK
             CompositeFuture.join(new ArrayList<>(subscriptionOutcomes)).onComplete(v -> {
@@ -1436,6 +1448,12 @@ public abstract class AbstractVertxBasedMqttProtocolAdapter<T extends MqttProtoc
                     : registerErrorSubscription((ErrorSubscription) sub, span);
         }
 
+        private boolean isGatewayCommandSubscriptionForSpecificDevice(final Subscription sub) {
+            return sub instanceof CommandSubscription
+                    && sub.isGatewaySubscriptionForSpecificDevice()
+                    && !MqttQoS.EXACTLY_ONCE.equals(sub.getQos());
+        }
+
         private Future<Subscription> registerCommandSubscription(final CommandSubscription cmdSub, final Span span) {
 
             if (MqttQoS.EXACTLY_ONCE.equals(cmdSub.getQos())) {
@@ -1443,28 +1461,100 @@ public abstract class AbstractVertxBasedMqttProtocolAdapter<T extends MqttProtoc
                 return Future.failedFuture(new IllegalArgumentException("QoS 2 not supported for command subscription"));
             }
             return createCommandConsumer(cmdSub, span)
-                    .map(consumer -> {
-                        cmdSub.logSubscribeSuccess(span);
-                        log.debug("created subscription [tenant: {}, device: {}, filter: {}, QoS: {}]",
-                                cmdSub.getTenant(), cmdSub.getDeviceId(), cmdSub.getTopic(), cmdSub.getQos());
-                        final Pair<CommandSubscription, ProtocolAdapterCommandConsumer> existingCmdSub = commandSubscriptions
-                                .get(cmdSub.getKey());
-                        if (existingCmdSub != null) {
-                            span.log(String.format("subscription replaces previous subscription [QoS %s, filter %s]",
-                                    existingCmdSub.one().getQos(), existingCmdSub.one().getTopic()));
-                            log.debug("previous subscription [QoS {}, filter {}] is getting replaced",
-                                    existingCmdSub.one().getQos(), existingCmdSub.one().getTopic());
-                        }
-                        commandSubscriptions.put(cmdSub.getKey(), Pair.of(cmdSub, consumer));
-                        return (Subscription) cmdSub;
-                    }).recover(t -> {
-                        cmdSub.logSubscribeFailure(span, t);
-                        log.debug("cannot create subscription [tenant: {}, device: {}, filter: {}, requested QoS: {}]",
-                                cmdSub.getTenant(), cmdSub.getDeviceId(), cmdSub.getTopic(), cmdSub.getQos(), t);
+                    .map(consumer -> onCommandSubscriptionCreated(cmdSub, consumer, span))
+                    .recover(t -> {
+                        onCommandSubscriptionFailed(cmdSub, t, span);
                         return Future.failedFuture(t);
                     });
         }
 
+        /**
+         * Registers the command subscriptions of a gateway for specific devices.
+         * <p>
+         * The command consumers for all devices that the gateway is authorized to act on behalf of are
+         * created by means of a single invocation of the command consumer factory, so that a gateway
+         * (re-)subscribing for many devices does not result in one request to the Command Router per device.
+         *
+         * @param subscriptions The subscriptions along with the promises to complete with the outcome
+         *                      of their registration.
+         * @param span The span to track the registration.
+         */
+        private void registerGatewayCommandSubscriptions(
+                final List<Pair<CommandSubscription, Promise<Subscription>>> subscriptions,
+                final Span span) {
+
+            if (subscriptions.size() <= 1) {
+                subscriptions.forEach(sub -> registerCommandSubscription(sub.one(), span).onComplete(sub.two()));
+                return;
+            }
+
+            // check the via-gateways, ensuring that the gateway may act on behalf of the devices at this point in time
+            final Map<String, Function<CommandContext, Future<Void>>> commandHandlers = new HashMap<>();
+            @SuppressWarnings("rawtypes")
+            final List<Future> assertionChecks = new ArrayList<>(subscriptions.size());
+            subscriptions.forEach(sub -> {
+                final CommandSubscription cmdSub = sub.one();
+                assertionChecks.add(getRegistrationAssertion(
+                            authenticatedDevice.getTenantId(),
+                            cmdSub.getDeviceId(),
+                            authenticatedDevice,
+                            span.context())
+                        .onSuccess(assertion -> commandHandlers.put(cmdSub.getDeviceId(), createCommandHandler(cmdSub)))
+                        .onFailure(t -> {
+                            onCommandSubscriptionFailed(cmdSub, t, span);
+                            sub.two().fail(t);
+                        }));
+            });
+
+            CompositeFuture.join(assertionChecks).onComplete(ar -> {
+                final List<Pair<CommandSubscription, Promise<Subscription>>> authorizedSubscriptions = subscriptions.stream()
+                        .filter(sub -> commandHandlers.containsKey(sub.one().getDeviceId()))
+                        .collect(Collectors.toList());
+                if (authorizedSubscriptions.isEmpty()) {
+                    return;
+                }
+                getCommandConsumerFactory().createCommandConsumers(
+                        authenticatedDevice.getTenantId(),
+                        commandHandlers,
+                        authenticatedDevice.getDeviceId(),
+                        true,
+                        null,
+                        span.context())
+                    .onSuccess(consumers -> authorizedSubscriptions.forEach(sub -> sub.two().complete(
+                            onCommandSubscriptionCreated(sub.one(), consumers.get(sub.one().getDeviceId()), span))))
+                    .onFailure(t -> authorizedSubscriptions.forEach(sub -> {
+                        onCommandSubscriptionFailed(sub.one(), t, span);
+                        sub.two().fail(t);
+                    }));
+            });
+        }
+
+        private Subscription onCommandSubscriptionCreated(
+                final CommandSubscription cmdSub,
+                final ProtocolAdapterCommandConsumer consumer,
+                final Span span) {
+
+            cmdSub.logSubscribeSuccess(span);
+            log.debug("created subscription [tenant: {}, device: {}, filter: {}, QoS: {}]",
+                    cmdSub.getTenant(), cmdSub.getDeviceId(), cmdSub.getTopic(), cmdSub.getQos());
+            final Pair<CommandSubscription, ProtocolAdapterCommandConsumer> existingCmdSub = commandSubscriptions
+                    .get(cmdSub.getKey());
+            if (existingCmdSub != null) {
+                span.log(String.format("subscription replaces previous subscription [QoS %s, filter %s]",
+                        existingCmdSub.one().getQos(), existingCmdSub.one().getTopic()));
+                log.debug("previous subscription [QoS {}, filter {}] is getting replaced",
+                        existingCmdSub.one().getQos(), existingCmdSub.one().getTopic());
+            }
+            commandSubscriptions.put(cmdSub.getKey(), Pair.of(cmdSub, consumer));
+            return cmdSub;
+        }
+
+        private void onCommandSubscriptionFailed(final CommandSubscription cmdSub, final Throwable t, final Span span) {
+            cmdSub.logSubscribeFailure(span, t);
+            log.debug("cannot create subscription [tenant: {}, device: {}, filter: {}, requested QoS: {}]",
+                    cmdSub.getTenant(), cmdSub.getDeviceId(), cmdSub.getTopic(), cmdSub.getQos(), t);
+        }
+
         private Future<Subscription> registerErrorSubscription(final ErrorSubscription errorSub, final Span span) {
 
             if (!MqttQoS.AT_MOST_ONCE.equals(errorSub.getQos())) {
@@ -1555,9 +1645,9 @@ public abstract class AbstractVertxBasedMqttProtocolAdapter<T extends MqttProtoc
                     .onComplete(ar -> span.finish());
         }
 
-        private Future<ProtocolAdapterCommandConsumer> createCommandConsumer(final CommandSubscription subscription, final Span span) {
+        private Function<CommandContext, Future<Void>> createCommandHandler(final CommandSubscription subscription) {
 
-            final Function<CommandContext, Future<Void>> commandHandler = commandContext -> {
+            return commandContext -> {
 
                 Tags.COMPONENT.set(commandContext.getTracingSpan(), getTypeName());
                 TracingHelper.TAG_CLIENT_ID.set(commandContext.getTracingSpan(), endpoint.clientIdentifier());
@@ -1609,7 +1699,11 @@ public abstract class AbstractVertxBasedMqttProtocolAdapter<T extends MqttProtoc
                             timer);
                 }).compose(success -> onCommandReceived(tenantTracker.result(), subscription, commandContext));
             };
+        }
+
+        private Future<ProtocolAdapterCommandConsumer> createCommandConsumer(final CommandSubscription subscription, final Span span) {
 
+            final Function<CommandContext, Future<Void>> commandHandler = createCommandHandler(subscription);
             final Future<RegistrationAssertion> tokenTracker = Optional.ofNullable(authenticatedDevice)
                     .map(v -> getRegistrationAssertion(
                             authenticatedDevice.getTenantId(),
@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.hono.adapter.mqtt;
+
+import org.eclipse.hono.client.command.Command;
+import org.eclipse.hono.util.RegistrationAssertion;
+
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * A function for mapping messages of a particular tenant within the protocol adapter's process.
+ * <p>
+ * Functions are invoked on the Vert.x event loop thread that the message or command
+ * is being processed on. Implementations therefore must not perform any blocking I/O.
+ * Instances are shared by all messages of a tenant and therefore need to be thread safe.
+ *
+ * @see MessageMappingFunctionFactory
+ */
+public interface MessageMappingFunction {
+
+    /**
+     * Maps a message uploaded by a device.
+     * <p>
+     * This default implementation returns {@code null}.
+     *
+     * @param ctx The context in which the message has been uploaded.
+     * @param registrationInfo The information included in the registration assertion for
+     *                         the device that has uploaded the message.
+     * @return The mapped message or {@code null} if the message should be forwarded unaltered.
+     * @throws RuntimeException if the message cannot be mapped.
+     */
+    default MappedMessage mapDownstreamMessage(
+            final MqttContext ctx,
+            final RegistrationAssertion registrationInfo) {
+        return null;
+    }
+
+    /**
+     * Maps the payload of a command to be sent to a device.
+     * <p>
+     * This default implementation returns the command's original payload.
+     *
+     * @param registrationInfo The information included in the registration assertion for
+     *                         the gateway/device to which the command needs to be sent.
+     * @param command The original command to be mapped.
+     * @return The mapped payload.
+     * @throws RuntimeException if the command cannot be mapped.
+     */
+    default Buffer mapUpstreamMessage(
+            final RegistrationAssertion registrationInfo,
+            final Command command) {
+        return command.getPayload();
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.hono.adapter.mqtt;
+
+/**
+ * A factory for in-process message mapping functions.
+ * <p>
+ * Factories are discovered using the {@link java.util.ServiceLoader} mechanism, i.e. a JAR file
+ * containing an implementation of this interface needs to also contain a
+ * {@code META-INF/services/org.eclipse.hono.adapter.mqtt.MessageMappingFunctionFactory} file
+ * listing the implementation class. A mapper endpoint uses the functions created by a factory,
+ * if the endpoint's <em>function</em> property is set to the factory's {@linkplain #getName() name}.
+ * <p>
+ * The protocol adapter invokes {@link #create(String, String)} at most once per mapper and tenant
+ * and caches the created function. This allows implementations to perform expensive preparation
+ * steps, e.g. compiling a tenant specific mapping script, only once.
+ */
+public interface MessageMappingFunctionFactory {
+
+    /**
+     * Gets the name that mapper endpoints use to refer to this factory's functions.
+     *
+     * @return The name.
+     */
+    String getName();
+
+    /**
+     * Creates a mapping function.
+     *
+     * @param mapperName The name of the mapper as set in the device's registration information.
+     * @param tenantId The tenant that the function is used for.
+     * @return The function.
+     * @throws RuntimeException if the function cannot be created, e.g. because the tenant's mapping
+     *                          definition contains errors.
+     */
+    MessageMappingFunction create(String mapperName, String tenantId);
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2018, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -13,10 +13,16 @@
 
 package org.eclipse.hono.adapter.mqtt;
 
+import java.util.Objects;
+
 import org.eclipse.hono.adapter.MicrometerBasedProtocolAdapterMetrics;
 import org.eclipse.hono.adapter.ProtocolAdapterProperties;
 
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer.Sample;
 import io.vertx.core.Vertx;
 
 /**
@@ -24,6 +30,21 @@ import io.vertx.core.Vertx;
  */
 public class MicrometerBasedMqttAdapterMetrics extends MicrometerBasedProtocolAdapterMetrics implements MqttAdapterMetrics {
 
+    /**
+     * The name of the meter for tracking the duration of requests to external message mapping services.
+     * The outcome is signaled by the accordingly named tag.
+     */
+    public static final String METER_MAPPER_REQUEST_DURATION = "hono.mqtt.mapper.request.duration";
+    /**
+     * The name of the meter for recording the number of messages included in requests to
+     * external message mapping services.
+     */
+    public static final String METER_MAPPER_BATCH_SIZE = "hono.mqtt.mapper.batch.size";
+    /**
+     * The name of the tag that contains the name of the invoked mapper.
+     */
+    public static final String TAG_MAPPER = "mapper";
+
     /**
      * Create a new metrics instance for MQTT adapters.
      *
@@ -38,4 +59,25 @@ public class MicrometerBasedMqttAdapterMetrics extends MicrometerBasedProtocolAd
             final ProtocolAdapterProperties config) {
         super(registry, vertx, config);
     }
+
+    @Override
+    public void reportMapperRequest(
+            final String mapperName,
+            final int batchSize,
+            final boolean succeeded,
+            final Sample timer) {
+
+        Objects.requireNonNull(mapperName);
+        Objects.requireNonNull(timer);
+
+        final Tag mapperTag = Tag.of(TAG_MAPPER, mapperName);
+        timer.stop(registry.timer(
+                METER_MAPPER_REQUEST_DURATION,
+                Tags.of(mapperTag, Tag.of("outcome", succeeded ? "success" : "failure"))));
+        DistributionSummary.builder(METER_MAPPER_BATCH_SIZE)
+            .minimumExpectedValue(1.0)
+            .tags(Tags.of(mapperTag))
+            .register(registry)
+            .record(batchSize);
+    }
 }
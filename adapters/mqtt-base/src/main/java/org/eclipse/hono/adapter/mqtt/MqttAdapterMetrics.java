@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2021 Contributors to the Eclipse Foundation
+ * Copyright (c) 2016, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -16,6 +16,8 @@ package org.eclipse.hono.adapter.mqtt;
 import org.eclipse.hono.service.metric.Metrics;
 import org.eclipse.hono.service.metric.NoopBasedMetrics;
 
+import io.micrometer.core.instrument.Timer.Sample;
+
 /**
  * Metrics for the MQTT adapter.
  */
@@ -28,6 +30,15 @@ public interface MqttAdapterMetrics extends Metrics {
 
         private Noop() {
         }
+
+        @Override
+        public void reportMapperRequest(
+                final String mapperName,
+                final int batchSize,
+                final boolean succeeded,
+                final Sample timer) {
+            // do nothing
+        }
     }
 
     /**
@@ -35,5 +46,19 @@ public interface MqttAdapterMetrics extends Metrics {
      */
     MqttAdapterMetrics NOOP = new Noop();
 
-    // empty for now
+    /**
+     * Reports a request that has been sent to an external message mapping service.
+     *
+     * @param mapperName The name of the mapper that has been invoked.
+     * @param batchSize The number of messages that have been included in the request.
+     * @param succeeded {@code true} if the mapping service has returned a 200 status code.
+     * @param timer The timer that has been started when the request has been submitted, i.e. before it
+     *              has been waiting for an outstanding request to complete.
+     * @throws NullPointerException if mapper name or timer are {@code null}.
+     */
+    void reportMapperRequest(
+            String mapperName,
+            int batchSize,
+            boolean succeeded,
+            Sample timer);
 }
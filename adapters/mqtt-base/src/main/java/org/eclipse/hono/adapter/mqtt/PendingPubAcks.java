@@ -18,6 +18,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 
+import org.eclipse.hono.util.TimingWheel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,7 +27,9 @@ import io.vertx.core.Vertx;
 
 /**
  * A class that handles PUBACKs for a particular MQTT endpoint.
- *
+ * <p>
+ * The timeouts for waiting for the acknowledgements are scheduled on the {@link TimingWheel}
+ * of the event loop that the endpoint is running on.
  */
 public final class PendingPubAcks {
     private static final Logger LOG = LoggerFactory.getLogger(PendingPubAcks.class);
@@ -40,7 +43,7 @@ public final class PendingPubAcks {
     /**
      * Creates a new PendingPubAcks instance.
      *
-     * @param vertx The Vert.x instance to execute timers with.
+     * @param vertx The Vert.x instance to schedule timeouts with.
      * @throws NullPointerException if vertx is {@code null}.
      */
     public PendingPubAcks(final Vertx vertx) {
@@ -85,11 +88,11 @@ public final class PendingPubAcks {
         }
     }
 
-    private Long startTimerIfNeeded(final Integer msgId, final long waitingForAckTimeout) {
+    private TimingWheel.Timeout startTimerIfNeeded(final Integer msgId, final long waitingForAckTimeout) {
         if (waitingForAckTimeout < 1) {
             return null;
         }
-        return vertx.setTimer(waitingForAckTimeout, timerId -> {
+        return TimingWheel.setTimer(vertx, waitingForAckTimeout, v -> {
             Optional.ofNullable(pendingAcks.remove(msgId))
                     .ifPresent(PendingPubAck::onPubAckTimeout);
         });
@@ -103,7 +106,7 @@ public final class PendingPubAcks {
         private final int msgId;
         private final Handler<Integer> onAckHandler;
         private final Handler<Void> onAckTimeoutHandler;
-        private final Long timerId;
+        private final TimingWheel.Timeout timeout;
 
         /**
          * Creates a new PendingPubAck instance.
@@ -112,22 +115,22 @@ public final class PendingPubAcks {
          * @param onAckHandler Handler to invoke when the device has acknowledged the message.
          * @param onAckTimeoutHandler Handler to invoke when there is a timeout waiting for the acknowledgement from the
          *            device.
-         * @param timerId The unique ID of the timer to way for the request to be acknowledged (may be
+         * @param timeout The timeout for waiting for the request to be acknowledged (may be
          *            {@code null} if no timeout is configured).
-         * @throws NullPointerException if any of the parameters except timerId is {@code null}.
+         * @throws NullPointerException if any of the parameters except timeout is {@code null}.
          */
         PendingPubAck(final int msgId, final Handler<Integer> onAckHandler,
-                final Handler<Void> onAckTimeoutHandler, final Long timerId) {
+                final Handler<Void> onAckTimeoutHandler, final TimingWheel.Timeout timeout) {
             this.msgId = msgId;
             this.onAckHandler = Objects.requireNonNull(onAckHandler);
             this.onAckTimeoutHandler = Objects.requireNonNull(onAckTimeoutHandler);
-            this.timerId = timerId;
+            this.timeout = timeout;
         }
 
         public void onPubAck() {
             LOG.trace("acknowledgement received for message sent to device [packet-id: {}]", msgId);
-            if (timerId != null) {
-                vertx.cancelTimer(timerId);
+            if (timeout != null) {
+                timeout.cancel();
             }
             onAckHandler.handle(msgId);
         }
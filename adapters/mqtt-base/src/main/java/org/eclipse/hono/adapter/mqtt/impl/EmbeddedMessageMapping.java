@@ -0,0 +1,218 @@
+/**
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.hono.adapter.mqtt.impl;
+
+import java.net.HttpURLConnection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.eclipse.hono.adapter.MapperEndpoint;
+import org.eclipse.hono.adapter.mqtt.MappedMessage;
+import org.eclipse.hono.adapter.mqtt.MessageMapping;
+import org.eclipse.hono.adapter.mqtt.MessageMappingFunction;
+import org.eclipse.hono.adapter.mqtt.MessageMappingFunctionFactory;
+import org.eclipse.hono.adapter.mqtt.MqttContext;
+import org.eclipse.hono.adapter.mqtt.MqttProtocolAdapterProperties;
+import org.eclipse.hono.client.ServerErrorException;
+import org.eclipse.hono.client.command.Command;
+import org.eclipse.hono.util.RegistrationAssertion;
+import org.eclipse.hono.util.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * A message mapper that invokes mapping functions within the protocol adapter's process.
+ * <p>
+ * Mapper endpoints that have their <em>function</em> property set are served by the
+ * {@link MessageMappingFunction} that the {@link MessageMappingFunctionFactory} of the same name
+ * creates for the device's tenant. The functions are created once per mapper and tenant and are
+ * then cached, so that mapping a message does not involve any I/O.
+ * <p>
+ * All other messages and commands are mapped using a fallback mapping, e.g. the {@link HttpBasedMessageMapping}.
+ */
+public final class EmbeddedMessageMapping implements MessageMapping<MqttContext> {
+
+    /**
+     * The maximum number of mapping functions being cached.
+     */
+    public static final int MAX_CACHED_FUNCTIONS = 10_000;
+
+    private static final Logger LOG = LoggerFactory.getLogger(EmbeddedMessageMapping.class);
+
+    private final Map<String, MessageMappingFunctionFactory> factories = new HashMap<>();
+    private final MqttProtocolAdapterProperties mqttProtocolAdapterProperties;
+    private final MessageMapping<MqttContext> fallback;
+    private final Cache<List<String>, MessageMappingFunction> functions = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_FUNCTIONS)
+            .build();
+
+    /**
+     * Creates a new mapping for factories and configuration properties.
+     *
+     * @param factories The factories for the mapping functions to support.
+     * @param protocolAdapterConfig The configuration properties of the MQTT protocol
+     *                              adapter used to look up mapper configurations.
+     * @param fallback The mapping to use for mappers that do not refer to a function.
+     * @throws NullPointerException if any of the parameters are {@code null}.
+     * @throws IllegalArgumentException if multiple factories have the same name.
+     */
+    public EmbeddedMessageMapping(
+            final Iterable<MessageMappingFunctionFactory> factories,
+            final MqttProtocolAdapterProperties protocolAdapterConfig,
+            final MessageMapping<MqttContext> fallback) {
+
+        Objects.requireNonNull(factories);
+        this.mqttProtocolAdapterProperties = Objects.requireNonNull(protocolAdapterConfig);
+        this.fallback = Objects.requireNonNull(fallback);
+
+        for (final MessageMappingFunctionFactory factory : factories) {
+            if (this.factories.putIfAbsent(factory.getName(), factory) != null) {
+                throw new IllegalArgumentException(
+                        "multiple message mapping function factories with name [%s]".formatted(factory.getName()));
+            }
+            LOG.info("using message mapping function factory [name: {}, type: {}]",
+                    factory.getName(), factory.getClass().getName());
+        }
+    }
+
+    private MessageMappingFunctionFactory getFactory(final String mapper) {
+
+        final MapperEndpoint mapperEndpoint = mqttProtocolAdapterProperties.getMapperEndpoint(mapper);
+        if (mapperEndpoint == null || mapperEndpoint.getFunction() == null) {
+            return null;
+        }
+        final MessageMappingFunctionFactory factory = factories.get(mapperEndpoint.getFunction());
+        if (factory == null) {
+            throw new ServerErrorException(
+                    HttpURLConnection.HTTP_UNAVAILABLE,
+                    "message mapping function [%s] is not available".formatted(mapperEndpoint.getFunction()));
+        }
+        return factory;
+    }
+
+    private MessageMappingFunction getFunction(
+            final MessageMappingFunctionFactory factory,
+            final String mapper,
+            final String tenantId) {
+
+        return functions.get(List.of(mapper, tenantId), key -> {
+            LOG.debug("creating message mapping function [mapper: {}, tenant: {}]", mapper, tenantId);
+            return factory.create(mapper, tenantId);
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation uses the mapping function that the mapper endpoint referred to by the
+     * registration assertion's <em>mapper</em> property has been configured with. The fallback mapping
+     * is used if the mapper endpoint does not refer to a mapping function.
+     *
+     * @return A future indicating the mapping result.
+     *         The future will be succeeded with the original unaltered message if the function
+     *         returns {@code null}.
+     *         The future will be failed with a {@link ServerErrorException} if the mapping function
+     *         is not available or fails to map the message.
+     * @throws IllegalArgumentException if the given MQTT context is associated with tenant/device identifiers different
+     *         to the ones given via the <em>tenantId</em> and <em>registrationAssertion</em> parameters.
+     */
+    @Override
+    public Future<MappedMessage> mapDownstreamMessage(
+            final MqttContext ctx,
+            final String tenantId,
+            final RegistrationAssertion registrationInfo) {
+
+        Objects.requireNonNull(ctx);
+        Objects.requireNonNull(tenantId);
+        Objects.requireNonNull(registrationInfo);
+
+        if (!registrationInfo.getDeviceId().equals(ctx.deviceId())) {
+            throw new IllegalArgumentException("registration assertion and MQTT context refer to different device identifiers");
+        } else if (!tenantId.equals(ctx.tenant())) {
+            throw new IllegalArgumentException("given tenant identifier does not match the one associated with given MQTT context");
+        }
+
+        final String mapper = registrationInfo.getDownstreamMessageMapper();
+        if (Strings.isNullOrEmpty(mapper)) {
+            return fallback.mapDownstreamMessage(ctx, tenantId, registrationInfo);
+        }
+
+        try {
+            final MessageMappingFunctionFactory factory = getFactory(mapper);
+            if (factory == null) {
+                return fallback.mapDownstreamMessage(ctx, tenantId, registrationInfo);
+            }
+            final MappedMessage mappedMessage = getFunction(factory, mapper, tenantId)
+                    .mapDownstreamMessage(ctx, registrationInfo);
+            if (mappedMessage == null) {
+                return Future.succeededFuture(new MappedMessage(ctx.deviceId(), ctx.payload()));
+            }
+            return Future.succeededFuture(mappedMessage);
+        } catch (final ServerErrorException e) {
+            return Future.failedFuture(e);
+        } catch (final RuntimeException e) {
+            LOG.debug("failed to map message [tenant: {}, original device: {}] using mapper [{}]",
+                    tenantId, ctx.deviceId(), mapper, e);
+            return Future.failedFuture(new ServerErrorException(
+                    HttpURLConnection.HTTP_INTERNAL_ERROR,
+                    "could not map message",
+                    e));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation uses the mapping function that the mapper endpoint referred to by the
+     * registration assertion's <em>upstream mapper</em> property has been configured with. The fallback mapping
+     * is used if the mapper endpoint does not refer to a mapping function.
+     */
+    @Override
+    public Future<Buffer> mapUpstreamMessage(final RegistrationAssertion registrationInfo, final Command command) {
+
+        Objects.requireNonNull(registrationInfo);
+        Objects.requireNonNull(command);
+
+        final String mapper = registrationInfo.getUpstreamMessageMapper();
+        if (Strings.isNullOrEmpty(mapper)) {
+            return fallback.mapUpstreamMessage(registrationInfo, command);
+        }
+
+        try {
+            final MessageMappingFunctionFactory factory = getFactory(mapper);
+            if (factory == null) {
+                return fallback.mapUpstreamMessage(registrationInfo, command);
+            }
+            return Future.succeededFuture(getFunction(factory, mapper, command.getTenant())
+                    .mapUpstreamMessage(registrationInfo, command));
+        } catch (final ServerErrorException e) {
+            return Future.failedFuture(e);
+        } catch (final RuntimeException e) {
+            LOG.debug("failed to map command [tenant: {}, device: {}] using mapper [{}]",
+                    command.getTenant(), command.getDeviceId(), mapper, e);
+            return Future.failedFuture(new ServerErrorException(
+                    HttpURLConnection.HTTP_INTERNAL_ERROR,
+                    "could not map command",
+                    e));
+        }
+    }
+}
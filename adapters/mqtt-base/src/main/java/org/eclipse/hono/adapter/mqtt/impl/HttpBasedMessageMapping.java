@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2020, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -14,14 +14,21 @@
 package org.eclipse.hono.adapter.mqtt.impl;
 
 import java.net.HttpURLConnection;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import org.eclipse.hono.adapter.MapperEndpoint;
 import org.eclipse.hono.adapter.mqtt.MappedMessage;
 import org.eclipse.hono.adapter.mqtt.MessageMapping;
+import org.eclipse.hono.adapter.mqtt.MqttAdapterMetrics;
 import org.eclipse.hono.adapter.mqtt.MqttContext;
 import org.eclipse.hono.adapter.mqtt.MqttProtocolAdapterProperties;
 import org.eclipse.hono.client.ServerErrorException;
@@ -32,14 +39,16 @@ import org.eclipse.hono.util.Strings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import io.vertx.core.AsyncResult;
+import io.micrometer.core.instrument.Timer.Sample;
 import io.vertx.core.Future;
-import io.vertx.core.Handler;
 import io.vertx.core.MultiMap;
 import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.json.DecodeException;
 import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.client.HttpResponse;
 import io.vertx.ext.web.client.WebClient;
@@ -50,13 +59,52 @@ import io.vertx.ext.web.client.WebClient;
  * The headers are overwritten with the result of the mapper (which includes the resourceId).
  * E.g.: when the deviceId is in the payload of the message, the deviceId can be deducted in the custom mapper and
  * the payload can be changed accordingly to the payload originally received by the gateway.
+ * <p>
+ * Mapper endpoints can be configured to map the messages uploaded by the devices of a tenant in batches.
+ * The messages are then collected for the configured batch window (or until the maximum batch size is reached)
+ * and are sent to the mapping service in a single request having content type {@value #CONTENT_TYPE_BATCH}.
+ * The number of concurrent requests to a mapping service can be limited as well.
+ * <p>
+ * Instances of this class are not thread safe and are supposed to be used by a single protocol adapter
+ * verticle only.
  */
 public final class HttpBasedMessageMapping implements MessageMapping<MqttContext> {
 
+    /**
+     * The content type of requests containing a batch of messages to be mapped.
+     * <p>
+     * The body of such a request is a JSON array containing an object for each message.
+     * Each object contains the headers that would be included in an individual request as a JSON
+     * object in its {@value #FIELD_HEADERS} property and the Base64 encoded message payload in its
+     * {@value #FIELD_PAYLOAD} property.
+     * <p>
+     * The mapping service is expected to respond with a 200 status code and a JSON array containing an
+     * object for each of the messages, in the same order. Each object may contain the status code for the
+     * message in its {@value #FIELD_STATUS} property (200 if not set), the headers to add to the mapped message
+     * in its {@value #FIELD_HEADERS} property and the Base64 encoded mapped payload in its {@value #FIELD_PAYLOAD}
+     * property.
+     */
+    public static final String CONTENT_TYPE_BATCH = "application/vnd.eclipse-hono-mapping-batch+json";
+    /**
+     * The name of the field containing the headers of a message in a batch.
+     */
+    public static final String FIELD_HEADERS = "headers";
+    /**
+     * The name of the field containing the Base64 encoded payload of a message in a batch.
+     */
+    public static final String FIELD_PAYLOAD = "payload";
+    /**
+     * The name of the field containing the status code for a message in a batch response.
+     */
+    public static final String FIELD_STATUS = "status";
+
     private static final Logger LOG = LoggerFactory.getLogger(HttpBasedMessageMapping.class);
 
     private final WebClient webClient;
     private final MqttProtocolAdapterProperties mqttProtocolAdapterProperties;
+    private final MqttAdapterMetrics metrics;
+    private final Map<List<String>, Batch> pendingBatches = new HashMap<>();
+    private final Map<String, RequestLimit> requestLimits = new HashMap<>();
 
     /**
      * Creates a new service for a web client and configuration properties.
@@ -69,9 +117,26 @@ public final class HttpBasedMessageMapping implements MessageMapping<MqttContext
     public HttpBasedMessageMapping(
             final WebClient webClient,
             final MqttProtocolAdapterProperties protocolAdapterConfig) {
+        this(webClient, protocolAdapterConfig, MqttAdapterMetrics.NOOP);
+    }
+
+    /**
+     * Creates a new service for a web client and configuration properties.
+     *
+     * @param webClient The web client to use for invoking the mapper endpoint.
+     * @param protocolAdapterConfig The configuration properties of the MQTT protocol
+     *                              adapter used to look up mapper configurations.
+     * @param metrics The metrics to report the requests to the mapping services to.
+     * @throws NullPointerException if any of the parameters are {@code null}.
+     */
+    public HttpBasedMessageMapping(
+            final WebClient webClient,
+            final MqttProtocolAdapterProperties protocolAdapterConfig,
+            final MqttAdapterMetrics metrics) {
 
         this.webClient = Objects.requireNonNull(webClient);
         this.mqttProtocolAdapterProperties = Objects.requireNonNull(protocolAdapterConfig);
+        this.metrics = Objects.requireNonNull(metrics);
     }
 
     private static MappedMessage unmodifiedMappedMessage(final MqttContext ctx) {
@@ -92,6 +157,8 @@ public final class HttpBasedMessageMapping implements MessageMapping<MqttContext
      * <li>topic name in the {@value MessageHelper#APP_PROPERTY_ORIG_ADDRESS} header and</li>
      * <li>all properties from the registration assertion as headers.</li>
      * </ul>
+     * If the mapping endpoint is configured to use batches, the message is included in the next
+     * batch request for the tenant instead.
      *
      * @return A future indicating the mapping result.
      *         The future will be succeeded with the original unaltered message if no mapping
@@ -128,8 +195,11 @@ public final class HttpBasedMessageMapping implements MessageMapping<MqttContext
             if (mapperEndpoint == null) {
                 LOG.debug("no mapping endpoint [name: {}] found for device [{}]", mapper, ctx.deviceId());
                 result.complete(unmodifiedMappedMessage(ctx));
+            } else if (mapperEndpoint.isBatchingEnabled() && Vertx.currentContext() != null) {
+                addToBatch(new BatchEntry(ctx, tenantId, registrationInfo, result), mapper, mapperEndpoint);
             } else {
-                mapDownstreamMessageRequest(ctx, tenantId, registrationInfo, mapperEndpoint, result);
+                mapDownstreamMessageRequest(ctx, tenantId, registrationInfo, mapper, mapperEndpoint)
+                    .onComplete(result);
             }
         }
 
@@ -153,18 +223,15 @@ public final class HttpBasedMessageMapping implements MessageMapping<MqttContext
                 LOG.debug("no mapping endpoint [name: {}] found for {}", mapper, registrationInfo.getDeviceId());
                 result.complete(command.getPayload());
             } else {
-                mapUpstreamMessageRequest(command, registrationInfo, mapperEndpoint, result);
+                mapUpstreamMessageRequest(command, registrationInfo, mapper, mapperEndpoint)
+                    .onComplete(result);
             }
         }
 
         return result.future();
     }
 
-    private void mapUpstreamMessageRequest(
-        final Command command,
-        final RegistrationAssertion registrationInfo,
-        final MapperEndpoint mapperEndpoint,
-        final Handler<AsyncResult<Buffer>> resultHandler) {
+    private static MultiMap getRegistrationInfoHeaders(final RegistrationAssertion registrationInfo) {
 
         final MultiMap headers = MultiMap.caseInsensitiveMultiMap();
         JsonObject.mapFrom(registrationInfo).forEach(property -> {
@@ -176,6 +243,93 @@ public final class HttpBasedMessageMapping implements MessageMapping<MqttContext
                 headers.add(property.getKey(), Json.encode(value));
             }
         });
+        return headers;
+    }
+
+    private static MultiMap getDownstreamMessageHeaders(
+            final MqttContext ctx,
+            final String tenantId,
+            final RegistrationAssertion registrationInfo) {
+
+        final MultiMap headers = getRegistrationInfoHeaders(registrationInfo);
+        headers.add(MessageHelper.APP_PROPERTY_TENANT_ID, tenantId);
+        headers.add(MessageHelper.APP_PROPERTY_ORIG_ADDRESS, ctx.getOrigAddress());
+        if (ctx.contentType() != null) {
+            headers.add(HttpHeaders.CONTENT_TYPE.toString(), ctx.contentType());
+        }
+        return headers;
+    }
+
+    private static MappedMessage getMappedMessage(
+            final MqttContext ctx,
+            final RegistrationAssertion registrationInfo,
+            final Map<String, String> additionalProperties,
+            final Buffer payload) {
+
+        final String mappedDeviceId = Optional.ofNullable(additionalProperties.remove(MessageHelper.APP_PROPERTY_DEVICE_ID))
+                .map(id -> {
+                    LOG.debug("original device [{}] has been mapped to [{}]", ctx.deviceId(), id);
+                    return id;
+                })
+                .orElseGet(registrationInfo::getDeviceId);
+
+        return new MappedMessage(mappedDeviceId, payload, additionalProperties);
+    }
+
+    private static ServerErrorException unexpectedStatusCode(
+            final MapperEndpoint mapperEndpoint,
+            final int statusCode) {
+
+        LOG.debug("mapping service [host: {}, port: {}, URI: {}] returned unexpected status code: {}",
+                mapperEndpoint.getHost(), mapperEndpoint.getPort(), mapperEndpoint.getUri(),
+                statusCode);
+        return new ServerErrorException(HttpURLConnection.HTTP_UNAVAILABLE,
+                "could not invoke configured mapping service");
+    }
+
+    private Future<HttpResponse<Buffer>> post(
+            final String mapper,
+            final MapperEndpoint mapperEndpoint,
+            final MultiMap headers,
+            final Buffer body,
+            final int batchSize) {
+
+        final Supplier<Future<HttpResponse<Buffer>>> request = () -> {
+            final Promise<HttpResponse<Buffer>> response = Promise.promise();
+            webClient.post(mapperEndpoint.getPort(), mapperEndpoint.getHost(), mapperEndpoint.getUri())
+                .putHeaders(headers)
+                .ssl(mapperEndpoint.isTlsEnabled())
+                .sendBuffer(body, response);
+            return response.future();
+        };
+
+        // start the timer before the request is submitted so that the time spent
+        // waiting for an outstanding request to complete is included
+        final Sample timer = metrics.startTimer();
+        final Future<HttpResponse<Buffer>> response;
+        if (mapperEndpoint.getMaxConcurrentRequests() > 0) {
+            response = requestLimits
+                    .computeIfAbsent(mapper, k -> new RequestLimit(
+                            mapperEndpoint.getMaxConcurrentRequests(),
+                            mapperEndpoint.getMaxQueuedRequests()))
+                    .submit(request);
+        } else {
+            response = request.get();
+        }
+        return response.onComplete(ar -> metrics.reportMapperRequest(
+                mapper,
+                batchSize,
+                ar.succeeded() && ar.result().statusCode() == HttpURLConnection.HTTP_OK,
+                timer));
+    }
+
+    private Future<Buffer> mapUpstreamMessageRequest(
+        final Command command,
+        final RegistrationAssertion registrationInfo,
+        final String mapper,
+        final MapperEndpoint mapperEndpoint) {
+
+        final MultiMap headers = getRegistrationInfoHeaders(registrationInfo);
         if (command.getGatewayId() != null) {
             headers.add(MessageHelper.APP_PROPERTY_GATEWAY_ID, command.getGatewayId());
         }
@@ -188,95 +342,237 @@ public final class HttpBasedMessageMapping implements MessageMapping<MqttContext
             headers.add(HttpHeaders.CONTENT_TYPE.toString(), command.getContentType());
         }
 
-        final Promise<Buffer> result = Promise.promise();
-
-        webClient.post(mapperEndpoint.getPort(), mapperEndpoint.getHost(), mapperEndpoint.getUri())
-            .putHeaders(headers)
-            .ssl(mapperEndpoint.isTlsEnabled())
-            .sendBuffer(command.getPayload(), httpResponseAsyncResult -> {
-                if (httpResponseAsyncResult.failed()) {
-                    LOG.debug("failed to map message [origin: {}] using mapping service [host: {}, port: {}, URI: {}]",
-                        command.getDeviceId(),
-                        mapperEndpoint.getHost(), mapperEndpoint.getPort(), mapperEndpoint.getUri(),
-                        httpResponseAsyncResult.cause());
-                    result.fail(new ServerErrorException(HttpURLConnection.HTTP_UNAVAILABLE, httpResponseAsyncResult.cause()));
+        return post(mapper, mapperEndpoint, headers, command.getPayload(), 1)
+            .recover(t -> {
+                LOG.debug("failed to map message [origin: {}] using mapping service [host: {}, port: {}, URI: {}]",
+                    command.getDeviceId(),
+                    mapperEndpoint.getHost(), mapperEndpoint.getPort(), mapperEndpoint.getUri(),
+                    t);
+                return Future.failedFuture(new ServerErrorException(HttpURLConnection.HTTP_UNAVAILABLE, t));
+            })
+            .compose(httpResponse -> {
+                if (httpResponse.statusCode() == HttpURLConnection.HTTP_OK) {
+                    return Future.succeededFuture(httpResponse.bodyAsBuffer());
                 } else {
-                    final HttpResponse<Buffer> httpResponse = httpResponseAsyncResult.result();
-                    if (httpResponse.statusCode() == HttpURLConnection.HTTP_OK) {
-                        result.complete(httpResponse.bodyAsBuffer());
-                    } else {
-                        LOG.debug("mapping service [host: {}, port: {}, URI: {}] returned unexpected status code: {}",
-                            mapperEndpoint.getHost(), mapperEndpoint.getPort(), mapperEndpoint.getUri(),
-                            httpResponse.statusCode());
-                        result.fail(new ServerErrorException(HttpURLConnection.HTTP_UNAVAILABLE,
-                            "could not invoke configured mapping service"));
-                    }
+                    return Future.failedFuture(unexpectedStatusCode(mapperEndpoint, httpResponse.statusCode()));
                 }
-                resultHandler.handle(result.future());
             });
     }
 
-    private void mapDownstreamMessageRequest(
+    private Future<MappedMessage> mapDownstreamMessageRequest(
             final MqttContext ctx,
             final String tenantId,
             final RegistrationAssertion registrationInfo,
-            final MapperEndpoint mapperEndpoint,
-            final Handler<AsyncResult<MappedMessage>> resultHandler) {
+            final String mapper,
+            final MapperEndpoint mapperEndpoint) {
 
-        final MultiMap headers = MultiMap.caseInsensitiveMultiMap();
-        JsonObject.mapFrom(registrationInfo).forEach(property -> {
-            final Object value = property.getValue();
-            if (value instanceof String) {
-                // prevent strings from being enclosed in quotes
-                headers.add(property.getKey(), (String) value);
+        final MultiMap headers = getDownstreamMessageHeaders(ctx, tenantId, registrationInfo);
+
+        return post(mapper, mapperEndpoint, headers, ctx.payload(), 1)
+            .recover(t -> {
+                LOG.debug("failed to map message [original device: {}] using mapping service [host: {}, port: {}, URI: {}]",
+                        ctx.deviceId(),
+                        mapperEndpoint.getHost(), mapperEndpoint.getPort(), mapperEndpoint.getUri(),
+                        t);
+                return Future.failedFuture(new ServerErrorException(HttpURLConnection.HTTP_UNAVAILABLE, t));
+            })
+            .compose(httpResponse -> {
+                if (httpResponse.statusCode() == HttpURLConnection.HTTP_OK) {
+                    final Map<String, String> additionalProperties = new HashMap<>();
+                    httpResponse.headers().forEach(entry -> additionalProperties.put(entry.getKey(), entry.getValue()));
+                    return Future.succeededFuture(getMappedMessage(
+                            ctx,
+                            registrationInfo,
+                            additionalProperties,
+                            httpResponse.bodyAsBuffer()));
+                } else {
+                    return Future.failedFuture(unexpectedStatusCode(mapperEndpoint, httpResponse.statusCode()));
+                }
+            });
+    }
+
+    private void addToBatch(
+            final BatchEntry entry,
+            final String mapper,
+            final MapperEndpoint mapperEndpoint) {
+
+        final Vertx vertx = Vertx.currentContext().owner();
+        final List<String> key = List.of(mapper, entry.tenantId);
+        final Batch batch = pendingBatches.computeIfAbsent(key, k -> {
+            final Batch newBatch = new Batch();
+            newBatch.timerId = vertx.setTimer(mapperEndpoint.getBatchWindow(), tid -> {
+                if (pendingBatches.remove(key, newBatch)) {
+                    sendBatch(newBatch, mapper, mapperEndpoint);
+                }
+            });
+            return newBatch;
+        });
+        batch.entries.add(entry);
+        if (batch.entries.size() >= mapperEndpoint.getBatchMaxSize()) {
+            pendingBatches.remove(key);
+            vertx.cancelTimer(batch.timerId);
+            sendBatch(batch, mapper, mapperEndpoint);
+        }
+    }
+
+    private void sendBatch(
+            final Batch batch,
+            final String mapper,
+            final MapperEndpoint mapperEndpoint) {
+
+        final List<BatchEntry> entries = batch.entries;
+        final JsonArray requestBody = new JsonArray();
+        for (final BatchEntry entry : entries) {
+            final JsonObject headers = new JsonObject();
+            getDownstreamMessageHeaders(entry.ctx, entry.tenantId, entry.registrationInfo)
+                .forEach(header -> headers.put(header.getKey(), header.getValue()));
+            requestBody.add(new JsonObject()
+                    .put(FIELD_HEADERS, headers)
+                    .put(FIELD_PAYLOAD, Base64.getEncoder().encodeToString(entry.ctx.payload().getBytes())));
+        }
+        final MultiMap requestHeaders = MultiMap.caseInsensitiveMultiMap()
+                .add(HttpHeaders.CONTENT_TYPE.toString(), CONTENT_TYPE_BATCH)
+                .add(MessageHelper.APP_PROPERTY_TENANT_ID, entries.get(0).tenantId);
+
+        LOG.trace("sending batch of {} messages to mapping service [name: {}]", entries.size(), mapper);
+        post(mapper, mapperEndpoint, requestHeaders, requestBody.toBuffer(), entries.size())
+            .onFailure(t -> {
+                LOG.debug("failed to map batch of {} messages using mapping service [host: {}, port: {}, URI: {}]",
+                        entries.size(), mapperEndpoint.getHost(), mapperEndpoint.getPort(), mapperEndpoint.getUri(), t);
+                final ServerErrorException error = new ServerErrorException(HttpURLConnection.HTTP_UNAVAILABLE, t);
+                entries.forEach(entry -> entry.result.fail(error));
+            })
+            .onSuccess(httpResponse -> {
+                if (httpResponse.statusCode() != HttpURLConnection.HTTP_OK) {
+                    final ServerErrorException error = unexpectedStatusCode(mapperEndpoint, httpResponse.statusCode());
+                    entries.forEach(entry -> entry.result.fail(error));
+                    return;
+                }
+                try {
+                    completeBatchEntries(entries, httpResponse.bodyAsJsonArray(), mapperEndpoint);
+                } catch (final DecodeException | ClassCastException | IllegalArgumentException e) {
+                    LOG.debug("mapping service [host: {}, port: {}, URI: {}] returned malformed batch response",
+                            mapperEndpoint.getHost(), mapperEndpoint.getPort(), mapperEndpoint.getUri(), e);
+                    final ServerErrorException error = new ServerErrorException(
+                            HttpURLConnection.HTTP_UNAVAILABLE,
+                            "mapping service returned malformed response");
+                    entries.forEach(entry -> entry.result.tryFail(error));
+                }
+            });
+    }
+
+    private static void completeBatchEntries(
+            final List<BatchEntry> entries,
+            final JsonArray responseBody,
+            final MapperEndpoint mapperEndpoint) {
+
+        if (responseBody == null || responseBody.size() != entries.size()) {
+            throw new IllegalArgumentException("number of mapped messages does not match batch size");
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            final BatchEntry entry = entries.get(i);
+            final JsonObject mappedMessage = responseBody.getJsonObject(i);
+            final int status = mappedMessage.getInteger(FIELD_STATUS, HttpURLConnection.HTTP_OK);
+            if (status == HttpURLConnection.HTTP_OK) {
+                final Map<String, String> additionalProperties = new HashMap<>();
+                mappedMessage.getJsonObject(FIELD_HEADERS, new JsonObject())
+                    .forEach(header -> additionalProperties.put(header.getKey(), String.valueOf(header.getValue())));
+                final String payload = mappedMessage.getString(FIELD_PAYLOAD);
+                entry.result.tryComplete(getMappedMessage(
+                        entry.ctx,
+                        entry.registrationInfo,
+                        additionalProperties,
+                        payload == null ? null : Buffer.buffer(Base64.getDecoder().decode(payload))));
             } else {
-                headers.add(property.getKey(), Json.encode(value));
+                entry.result.tryFail(unexpectedStatusCode(mapperEndpoint, status));
             }
-        });
-        headers.add(MessageHelper.APP_PROPERTY_TENANT_ID, tenantId);
-        headers.add(MessageHelper.APP_PROPERTY_ORIG_ADDRESS, ctx.getOrigAddress());
-        if (ctx.contentType() != null) {
-            headers.add(HttpHeaders.CONTENT_TYPE.toString(), ctx.contentType());
         }
+    }
 
-        final Promise<MappedMessage> result = Promise.promise();
+    /**
+     * A message waiting to be included in a batch request.
+     */
+    private static final class BatchEntry {
+
+        private final MqttContext ctx;
+        private final String tenantId;
+        private final RegistrationAssertion registrationInfo;
+        private final Promise<MappedMessage> result;
+
+        BatchEntry(
+                final MqttContext ctx,
+                final String tenantId,
+                final RegistrationAssertion registrationInfo,
+                final Promise<MappedMessage> result) {
+            this.ctx = ctx;
+            this.tenantId = tenantId;
+            this.registrationInfo = registrationInfo;
+            this.result = result;
+        }
+    }
 
-        webClient.post(mapperEndpoint.getPort(), mapperEndpoint.getHost(), mapperEndpoint.getUri())
-            .putHeaders(headers)
-            .ssl(mapperEndpoint.isTlsEnabled())
-            .sendBuffer(ctx.payload(), httpResponseAsyncResult -> {
-                if (httpResponseAsyncResult.failed()) {
-                    LOG.debug("failed to map message [original device: {}] using mapping service [host: {}, port: {}, URI: {}]",
-                            ctx.deviceId(),
-                            mapperEndpoint.getHost(), mapperEndpoint.getPort(), mapperEndpoint.getUri(),
-                            httpResponseAsyncResult.cause());
-                    result.fail(new ServerErrorException(HttpURLConnection.HTTP_UNAVAILABLE, httpResponseAsyncResult.cause()));
-                } else {
-                    final HttpResponse<Buffer> httpResponse = httpResponseAsyncResult.result();
-                    if (httpResponse.statusCode() == HttpURLConnection.HTTP_OK) {
-                        final Map<String, String> additionalProperties = new HashMap<>();
-                        httpResponse.headers().forEach(entry -> additionalProperties.put(entry.getKey(), entry.getValue()));
-
-                        final String mappedDeviceId = Optional.ofNullable(additionalProperties.remove(MessageHelper.APP_PROPERTY_DEVICE_ID))
-                                .map(id -> {
-                                    LOG.debug("original device [{}] has been mapped to [{}]", ctx.deviceId(), id);
-                                    return id;
-                                })
-                                .orElseGet(registrationInfo::getDeviceId);
-
-                        result.complete(new MappedMessage(
-                                mappedDeviceId,
-                                httpResponse.bodyAsBuffer(),
-                                additionalProperties));
-                    } else {
-                        LOG.debug("mapping service [host: {}, port: {}, URI: {}] returned unexpected status code: {}",
-                                mapperEndpoint.getHost(), mapperEndpoint.getPort(), mapperEndpoint.getUri(),
-                                httpResponse.statusCode());
-                        result.fail(new ServerErrorException(HttpURLConnection.HTTP_UNAVAILABLE,
-                                "could not invoke configured mapping service"));
+    /**
+     * The messages of a tenant that are collected for the next batch request.
+     */
+    private static final class Batch {
+
+        private final List<BatchEntry> entries = new ArrayList<>();
+        private long timerId;
+    }
+
+    /**
+     * Limits the number of concurrent requests to a mapping service.
+     * <p>
+     * Requests exceeding the limit are queued up to a maximum number of requests. Further requests
+     * are failed immediately.
+     */
+    private static final class RequestLimit {
+
+        private final int maxConcurrentRequests;
+        private final int maxQueuedRequests;
+        private final Deque<Runnable> waitingRequests = new ArrayDeque<>();
+        private int outstandingRequests;
+
+        RequestLimit(final int maxConcurrentRequests, final int maxQueuedRequests) {
+            this.maxConcurrentRequests = maxConcurrentRequests;
+            this.maxQueuedRequests = maxQueuedRequests;
+        }
+
+        <T> Future<T> submit(final Supplier<Future<T>> request) {
+
+            if (outstandingRequests >= maxConcurrentRequests && waitingRequests.size() >= maxQueuedRequests) {
+                return Future.failedFuture(new ServerErrorException(
+                        HttpURLConnection.HTTP_UNAVAILABLE,
+                        "too many outstanding requests to mapping service"));
+            }
+
+            final Promise<T> result = Promise.promise();
+            final Runnable task = () -> {
+                outstandingRequests++;
+                invoke(request).onComplete(ar -> {
+                    outstandingRequests--;
+                    final Runnable next = waitingRequests.pollFirst();
+                    if (next != null) {
+                        next.run();
                     }
-                }
-                resultHandler.handle(result.future());
-            });
+                    result.handle(ar);
+                });
+            };
+            if (outstandingRequests < maxConcurrentRequests) {
+                task.run();
+            } else {
+                waitingRequests.addLast(task);
+            }
+            return result.future();
+        }
+
+        private static <T> Future<T> invoke(final Supplier<Future<T>> request) {
+            try {
+                // make sure that the request's slot gets released if sending the request fails right away
+                return request.get();
+            } catch (final RuntimeException e) {
+                return Future.failedFuture(e);
+            }
+        }
     }
 }
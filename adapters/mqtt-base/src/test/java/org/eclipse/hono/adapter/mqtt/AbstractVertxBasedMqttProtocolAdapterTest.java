@@ -14,6 +14,7 @@
 package org.eclipse.hono.adapter.mqtt;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -33,9 +34,11 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.OptionalInt;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 import javax.net.ssl.SSLSession;
 
@@ -44,6 +47,7 @@ import org.eclipse.hono.adapter.resourcelimits.ResourceLimitChecks;
 import org.eclipse.hono.adapter.test.ProtocolAdapterTestSupport;
 import org.eclipse.hono.client.ClientErrorException;
 import org.eclipse.hono.client.ServerErrorException;
+import org.eclipse.hono.client.command.CommandContext;
 import org.eclipse.hono.client.command.CommandResponse;
 import org.eclipse.hono.client.command.CommandResponseSender;
 import org.eclipse.hono.client.command.Commands;
@@ -1160,6 +1164,49 @@ public class AbstractVertxBasedMqttProtocolAdapterTest extends
         assertThat(codeCaptor.getValue().get(6)).isEqualTo(MqttQoS.AT_MOST_ONCE);
     }
 
+    /**
+     * Verifies that the adapter registers the command subscriptions of a gateway for specific devices
+     * contained in a single SUBSCRIBE packet by means of a single invocation of the command consumer factory.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testOnSubscribeRegistersGatewaySubscriptionsForSpecificDevicesAtOnce() {
+
+        // GIVEN a gateway connected to an adapter
+        givenAnAdapter(properties);
+        givenAnEventSenderForAnyTenant();
+        final MqttEndpoint endpoint = mockEndpoint();
+        when(endpoint.isConnected()).thenReturn(true);
+        final ProtocolAdapterCommandConsumer commandConsumer = mock(ProtocolAdapterCommandConsumer.class);
+        when(commandConsumerFactory.createCommandConsumers(eq("tenant"), any(), eq("gw"), eq(true), any(), any()))
+                .thenReturn(Future.succeededFuture(Map.of("device-A", commandConsumer, "device-B", commandConsumer)));
+
+        // WHEN the gateway subscribes to commands for two of its devices in a single SUBSCRIBE packet
+        final List<MqttTopicSubscription> subscriptions = List.of(
+                newMockTopicSubscription(getCommandSubscriptionTopic("tenant", "device-A"), MqttQoS.AT_LEAST_ONCE),
+                newMockTopicSubscription(getCommandSubscriptionTopic("tenant", "device-B"), MqttQoS.AT_MOST_ONCE));
+        final MqttSubscribeMessage msg = mock(MqttSubscribeMessage.class);
+        when(msg.messageId()).thenReturn(15);
+        when(msg.topicSubscriptions()).thenReturn(subscriptions);
+
+        final var mqttDeviceEndpoint = adapter.createMqttDeviceEndpoint(endpoint, new DeviceUser("tenant", "gw"),
+                OptionalInt.empty());
+        mqttDeviceEndpoint.onSubscribe(msg);
+
+        // THEN the command consumers for both devices are created at once
+        final ArgumentCaptor<Map<String, Function<CommandContext, Future<Void>>>> commandHandlers = ArgumentCaptor
+                .forClass(Map.class);
+        verify(commandConsumerFactory).createCommandConsumers(eq("tenant"), commandHandlers.capture(), eq("gw"),
+                eq(true), any(), any());
+        assertThat(commandHandlers.getValue().keySet()).containsExactly("device-A", "device-B");
+        verify(commandConsumerFactory, never()).createCommandConsumer(anyString(), anyString(), anyString(),
+                anyBoolean(), any(), any(), any());
+        // and the adapter sends a SUBACK packet to the gateway containing the granted QoS for each filter
+        final ArgumentCaptor<List<MqttQoS>> codeCaptor = ArgumentCaptor.forClass(List.class);
+        verify(endpoint).subscribeAcknowledge(eq(15), codeCaptor.capture());
+        assertThat(codeCaptor.getValue()).containsExactly(MqttQoS.AT_LEAST_ONCE, MqttQoS.AT_MOST_ONCE).inOrder();
+    }
+
     private static MqttTopicSubscription newMockTopicSubscription(final String filter, final MqttQoS qos) {
         final MqttTopicSubscription result = mock(MqttTopicSubscription.class);
         when(result.qualityOfService()).thenReturn(qos);
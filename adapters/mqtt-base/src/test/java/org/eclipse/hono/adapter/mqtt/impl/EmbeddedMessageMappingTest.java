@@ -0,0 +1,236 @@
+/**
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.hono.adapter.mqtt.impl;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.net.HttpURLConnection;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.hono.adapter.MapperEndpoint;
+import org.eclipse.hono.adapter.mqtt.MappedMessage;
+import org.eclipse.hono.adapter.mqtt.MessageMapping;
+import org.eclipse.hono.adapter.mqtt.MessageMappingFunction;
+import org.eclipse.hono.adapter.mqtt.MessageMappingFunctionFactory;
+import org.eclipse.hono.adapter.mqtt.MqttContext;
+import org.eclipse.hono.adapter.mqtt.MqttProtocolAdapterProperties;
+import org.eclipse.hono.client.ServerErrorException;
+import org.eclipse.hono.client.ServiceInvocationException;
+import org.eclipse.hono.client.command.Command;
+import org.eclipse.hono.service.auth.DeviceUser;
+import org.eclipse.hono.test.TracingMockSupport;
+import org.eclipse.hono.util.Constants;
+import org.eclipse.hono.util.RegistrationAssertion;
+import org.eclipse.hono.util.TelemetryConstants;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import io.netty.handler.codec.mqtt.MqttQoS;
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import io.vertx.mqtt.MqttEndpoint;
+import io.vertx.mqtt.messages.MqttPublishMessage;
+
+/**
+ * Verifies behavior of {@link EmbeddedMessageMapping}.
+ */
+@ExtendWith(VertxExtension.class)
+public class EmbeddedMessageMappingTest {
+
+    private static final String TEST_TENANT_ID = Constants.DEFAULT_TENANT;
+    private static final String FUNCTION_NAME = "legacy-payload";
+
+    private MqttProtocolAdapterProperties config;
+    private MessageMappingFunctionFactory factory;
+    private MessageMapping<MqttContext> fallback;
+    private EmbeddedMessageMapping messageMapping;
+
+    /**
+     * Sets up the fixture.
+     */
+    @SuppressWarnings("unchecked")
+    @BeforeEach
+    public void setUp() {
+        config = new MqttProtocolAdapterProperties();
+        final MapperEndpoint functionEndpoint = new MapperEndpoint();
+        functionEndpoint.setFunction(FUNCTION_NAME);
+        config.setMapperEndpoints(Map.of(
+                "embedded", functionEndpoint,
+                "http", MapperEndpoint.from("host", 1234, "/uri", false)));
+
+        factory = mock(MessageMappingFunctionFactory.class);
+        when(factory.getName()).thenReturn(FUNCTION_NAME);
+        fallback = mock(MessageMapping.class);
+        messageMapping = new EmbeddedMessageMapping(List.of(factory), config, fallback);
+    }
+
+    /**
+     * Verifies that messages are mapped using the configured function and that the function
+     * is created only once for a tenant.
+     *
+     * @param ctx The helper to use for running tests on vert.x.
+     */
+    @Test
+    public void testMapMessageUsesCachedFunction(final VertxTestContext ctx) {
+
+        final MessageMappingFunction function = mock(MessageMappingFunction.class);
+        when(function.mapDownstreamMessage(any(MqttContext.class), any(RegistrationAssertion.class)))
+            .thenReturn(new MappedMessage("mapped-device", Buffer.buffer("mapped")));
+        when(factory.create(anyString(), anyString())).thenReturn(function);
+
+        final MqttContext context = newContext("gateway");
+        final RegistrationAssertion assertion = new RegistrationAssertion("gateway").setDownstreamMessageMapper("embedded");
+
+        messageMapping.mapDownstreamMessage(context, TEST_TENANT_ID, assertion)
+            .compose(firstResult -> messageMapping.mapDownstreamMessage(context, TEST_TENANT_ID, assertion))
+            .onComplete(ctx.succeeding(mappedMessage -> {
+                ctx.verify(() -> {
+                    assertThat(mappedMessage.getTargetDeviceId()).isEqualTo("mapped-device");
+                    assertThat(mappedMessage.getPayload().toString()).isEqualTo("mapped");
+                    verify(factory, times(1)).create("embedded", TEST_TENANT_ID);
+                    verify(function, times(2)).mapDownstreamMessage(context, assertion);
+                    verify(fallback, never()).mapDownstreamMessage(any(), anyString(), any());
+                });
+                ctx.completeNow();
+            }));
+    }
+
+    /**
+     * Verifies that the original message is forwarded if the function does not return a mapped message.
+     *
+     * @param ctx The helper to use for running tests on vert.x.
+     */
+    @Test
+    public void testMapMessageReturnsOriginalMessageIfFunctionReturnsNull(final VertxTestContext ctx) {
+
+        when(factory.create(anyString(), anyString())).thenReturn(new MessageMappingFunction() { });
+
+        final MqttContext context = newContext("gateway");
+        final RegistrationAssertion assertion = new RegistrationAssertion("gateway").setDownstreamMessageMapper("embedded");
+
+        messageMapping.mapDownstreamMessage(context, TEST_TENANT_ID, assertion)
+            .onComplete(ctx.succeeding(mappedMessage -> {
+                ctx.verify(() -> {
+                    assertThat(mappedMessage.getTargetDeviceId()).isEqualTo("gateway");
+                    assertThat(mappedMessage.getPayload()).isEqualTo(context.payload());
+                    assertThat(mappedMessage.getAdditionalProperties()).isEmpty();
+                });
+                ctx.completeNow();
+            }));
+    }
+
+    /**
+     * Verifies that the fallback mapping is used for mappers that do not refer to a function.
+     *
+     * @param ctx The helper to use for running tests on vert.x.
+     */
+    @Test
+    public void testMapMessageUsesFallbackForHttpMapper(final VertxTestContext ctx) {
+
+        final MqttContext context = newContext("gateway");
+        final RegistrationAssertion assertion = new RegistrationAssertion("gateway").setDownstreamMessageMapper("http");
+        final MappedMessage fallbackResult = new MappedMessage("gateway", Buffer.buffer("http"));
+        when(fallback.mapDownstreamMessage(context, TEST_TENANT_ID, assertion))
+            .thenReturn(Future.succeededFuture(fallbackResult));
+
+        messageMapping.mapDownstreamMessage(context, TEST_TENANT_ID, assertion)
+            .onComplete(ctx.succeeding(mappedMessage -> {
+                ctx.verify(() -> {
+                    assertThat(mappedMessage).isSameInstanceAs(fallbackResult);
+                    verify(factory, never()).create(anyString(), anyString());
+                });
+                ctx.completeNow();
+            }));
+    }
+
+    /**
+     * Verifies that mapping fails with a 503 error if a mapper refers to an unknown function.
+     *
+     * @param ctx The helper to use for running tests on vert.x.
+     */
+    @Test
+    public void testMapMessageFailsForUnknownFunction(final VertxTestContext ctx) {
+
+        final MapperEndpoint unknownFunction = new MapperEndpoint();
+        unknownFunction.setFunction("unknown");
+        config.setMapperEndpoints(Map.of("embedded", unknownFunction));
+
+        final MqttContext context = newContext("gateway");
+        final RegistrationAssertion assertion = new RegistrationAssertion("gateway").setDownstreamMessageMapper("embedded");
+
+        messageMapping.mapDownstreamMessage(context, TEST_TENANT_ID, assertion)
+            .onComplete(ctx.failing(t -> {
+                ctx.verify(() -> {
+                    assertThat(t).isInstanceOf(ServerErrorException.class);
+                    assertThat(((ServiceInvocationException) t).getErrorCode())
+                        .isEqualTo(HttpURLConnection.HTTP_UNAVAILABLE);
+                });
+                ctx.completeNow();
+            }));
+    }
+
+    /**
+     * Verifies that commands are mapped using the configured function.
+     *
+     * @param ctx The helper to use for running tests on vert.x.
+     */
+    @Test
+    public void testMapCommandUsesFunction(final VertxTestContext ctx) {
+
+        final MessageMappingFunction function = mock(MessageMappingFunction.class);
+        when(function.mapUpstreamMessage(any(RegistrationAssertion.class), any(Command.class)))
+            .thenReturn(Buffer.buffer("mapped"));
+        when(factory.create(anyString(), anyString())).thenReturn(function);
+
+        final Command command = mock(Command.class);
+        when(command.getTenant()).thenReturn(TEST_TENANT_ID);
+        when(command.getPayload()).thenReturn(Buffer.buffer("original"));
+        final RegistrationAssertion assertion = new RegistrationAssertion("gateway").setUpstreamMessageMapper("embedded");
+
+        messageMapping.mapUpstreamMessage(assertion, command)
+            .onComplete(ctx.succeeding(payload -> {
+                ctx.verify(() -> {
+                    assertThat(payload.toString()).isEqualTo("mapped");
+                    verify(factory).create(eq("embedded"), eq(TEST_TENANT_ID));
+                    verify(fallback, never()).mapUpstreamMessage(any(), any());
+                });
+                ctx.completeNow();
+            }));
+    }
+
+    private static MqttContext newContext(final String deviceId) {
+        final MqttPublishMessage message = mock(MqttPublishMessage.class);
+        when(message.qosLevel()).thenReturn(MqttQoS.AT_LEAST_ONCE);
+        when(message.payload()).thenReturn(Buffer.buffer("test"));
+        when(message.topicName()).thenReturn(TelemetryConstants.TELEMETRY_ENDPOINT);
+        return MqttContext.fromPublishPacket(
+                message,
+                mock(MqttEndpoint.class),
+                TracingMockSupport.mockSpan(),
+                new DeviceUser(TEST_TENANT_ID, deviceId));
+    }
+}
@@ -17,6 +17,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -29,9 +30,11 @@ import static com.google.common.truth.Truth.assertThat;
 import java.net.HttpURLConnection;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.Map;
 
 import org.eclipse.hono.adapter.MapperEndpoint;
+import org.eclipse.hono.adapter.mqtt.MqttAdapterMetrics;
 import org.eclipse.hono.adapter.mqtt.MqttContext;
 import org.eclipse.hono.adapter.mqtt.MqttProtocolAdapterProperties;
 import org.eclipse.hono.client.ServerErrorException;
@@ -54,11 +57,15 @@ import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.client.HttpRequest;
 import io.vertx.ext.web.client.HttpResponse;
 import io.vertx.ext.web.client.WebClient;
+import io.vertx.junit5.Checkpoint;
 import io.vertx.junit5.VertxExtension;
 import io.vertx.junit5.VertxTestContext;
 import io.vertx.mqtt.MqttEndpoint;
@@ -389,4 +396,239 @@ public class HttpBasedMessageMappingTest {
         verify(httpRequest).sendBuffer(any(Buffer.class), handleCaptor.capture());
         handleCaptor.getValue().handle(Future.succeededFuture(httpResponse));
     }
+
+    /**
+     * Verifies that messages of a tenant are mapped by means of a single batch request
+     * if the mapper endpoint is configured to use batches.
+     *
+     * @param ctx The Vert.x test context.
+     * @param vertx The Vert.x instance.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMapMessageSendsBatchRequest(final VertxTestContext ctx, final Vertx vertx) {
+
+        final MapperEndpoint mapperEndpoint = MapperEndpoint.from("host", 1234, "/uri", false);
+        mapperEndpoint.setBatchWindow(10_000);
+        mapperEndpoint.setBatchMaxSize(2);
+        config.setMapperEndpoints(Map.of("mapper", mapperEndpoint));
+
+        final HttpRequest<Buffer> httpRequest = mock(HttpRequest.class, withSettings().defaultAnswer(RETURNS_SELF));
+        when(mapperWebClient.post(anyInt(), anyString(), anyString())).thenReturn(httpRequest);
+
+        final JsonArray responseBody = new JsonArray()
+                .add(new JsonObject()
+                        .put(HttpBasedMessageMapping.FIELD_HEADERS, new JsonObject()
+                                .put(MessageHelper.APP_PROPERTY_DEVICE_ID, "mapped-device")
+                                .put("foo", "bar"))
+                        .put(HttpBasedMessageMapping.FIELD_PAYLOAD, Base64.getEncoder().encodeToString("changed".getBytes())))
+                .add(new JsonObject().put(HttpBasedMessageMapping.FIELD_STATUS, HttpURLConnection.HTTP_BAD_REQUEST));
+        final HttpResponse<Buffer> httpResponse = mock(HttpResponse.class);
+        when(httpResponse.statusCode()).thenReturn(HttpURLConnection.HTTP_OK);
+        when(httpResponse.bodyAsJsonArray()).thenReturn(responseBody);
+
+        final Checkpoint mapped = ctx.checkpoint(2);
+        vertx.runOnContext(go -> {
+            final MqttContext firstContext = newContext(
+                    newMessage(MqttQoS.AT_LEAST_ONCE, "mqtt-topic", Buffer.buffer("one")),
+                    span,
+                    new DeviceUser(TEST_TENANT_ID, "device-1"));
+            final MqttContext secondContext = newContext(
+                    newMessage(MqttQoS.AT_LEAST_ONCE, "mqtt-topic", Buffer.buffer("two")),
+                    span,
+                    new DeviceUser(TEST_TENANT_ID, "device-2"));
+
+            messageMapping.mapDownstreamMessage(
+                    firstContext,
+                    TEST_TENANT_ID,
+                    new RegistrationAssertion("device-1").setDownstreamMessageMapper("mapper"))
+                .onComplete(ctx.succeeding(mappedMessage -> {
+                    ctx.verify(() -> {
+                        assertThat(mappedMessage.getTargetDeviceId()).isEqualTo("mapped-device");
+                        assertThat(mappedMessage.getPayload().toString()).isEqualTo("changed");
+                        assertThat(mappedMessage.getAdditionalProperties()).containsEntry("foo", "bar");
+                    });
+                    mapped.flag();
+                }));
+            messageMapping.mapDownstreamMessage(
+                    secondContext,
+                    TEST_TENANT_ID,
+                    new RegistrationAssertion("device-2").setDownstreamMessageMapper("mapper"))
+                .onComplete(ctx.failing(t -> {
+                    ctx.verify(() -> {
+                        assertThat(t).isInstanceOf(ServerErrorException.class);
+                        assertThat(((ServerErrorException) t).getErrorCode()).isEqualTo(HttpURLConnection.HTTP_UNAVAILABLE);
+                    });
+                    mapped.flag();
+                }));
+
+            ctx.verify(() -> {
+                // the maximum batch size has been reached, so that the request is sent immediately
+                final ArgumentCaptor<Buffer> bodyCaptor = ArgumentCaptor.forClass(Buffer.class);
+                final ArgumentCaptor<Handler<AsyncResult<HttpResponse<Buffer>>>> handlerCaptor = VertxMockSupport.argumentCaptorHandler();
+                verify(httpRequest, times(1)).sendBuffer(bodyCaptor.capture(), handlerCaptor.capture());
+                final JsonArray requestBody = bodyCaptor.getValue().toJsonArray();
+                assertThat(requestBody.size()).isEqualTo(2);
+                assertThat(requestBody.getJsonObject(1).getString(HttpBasedMessageMapping.FIELD_PAYLOAD))
+                    .isEqualTo(Base64.getEncoder().encodeToString("two".getBytes()));
+                final ArgumentCaptor<MultiMap> headersCaptor = ArgumentCaptor.forClass(MultiMap.class);
+                verify(httpRequest).putHeaders(headersCaptor.capture());
+                assertThat(headersCaptor.getValue().get(HttpHeaders.CONTENT_TYPE))
+                    .isEqualTo(HttpBasedMessageMapping.CONTENT_TYPE_BATCH);
+                handlerCaptor.getValue().handle(Future.succeededFuture(httpResponse));
+            });
+        });
+    }
+
+    /**
+     * Verifies that requests exceeding the configured maximum number of concurrent requests
+     * are sent only once an outstanding request has completed.
+     *
+     * @param ctx The Vert.x test context.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMapMessageLimitsConcurrentRequests(final VertxTestContext ctx) {
+
+        final MapperEndpoint mapperEndpoint = MapperEndpoint.from("host", 1234, "/uri", false);
+        mapperEndpoint.setMaxConcurrentRequests(1);
+        config.setMapperEndpoints(Map.of("mapper", mapperEndpoint));
+
+        final HttpRequest<Buffer> httpRequest = mock(HttpRequest.class, withSettings().defaultAnswer(RETURNS_SELF));
+        when(mapperWebClient.post(anyInt(), anyString(), anyString())).thenReturn(httpRequest);
+        final HttpResponse<Buffer> httpResponse = mock(HttpResponse.class);
+        when(httpResponse.statusCode()).thenReturn(HttpURLConnection.HTTP_OK);
+        when(httpResponse.headers()).thenReturn(MultiMap.caseInsensitiveMultiMap());
+        when(httpResponse.bodyAsBuffer()).thenReturn(Buffer.buffer("changed"));
+
+        final MqttContext context = newContext(newMessage(MqttQoS.AT_LEAST_ONCE, "mqtt-topic"), span,
+                new DeviceUser(TEST_TENANT_ID, "gateway"));
+        final RegistrationAssertion assertion = new RegistrationAssertion("gateway").setDownstreamMessageMapper("mapper");
+
+        final Future<?> first = messageMapping.mapDownstreamMessage(context, TEST_TENANT_ID, assertion);
+        final Future<?> second = messageMapping.mapDownstreamMessage(context, TEST_TENANT_ID, assertion);
+
+        final ArgumentCaptor<Handler<AsyncResult<HttpResponse<Buffer>>>> handlerCaptor = VertxMockSupport.argumentCaptorHandler();
+        verify(httpRequest, times(1)).sendBuffer(any(Buffer.class), handlerCaptor.capture());
+        handlerCaptor.getValue().handle(Future.succeededFuture(httpResponse));
+
+        verify(httpRequest, times(2)).sendBuffer(any(Buffer.class), handlerCaptor.capture());
+        handlerCaptor.getValue().handle(Future.succeededFuture(httpResponse));
+
+        ctx.verify(() -> {
+            assertThat(first.succeeded()).isTrue();
+            assertThat(second.succeeded()).isTrue();
+        });
+        ctx.completeNow();
+    }
+
+    /**
+     * Verifies that the time a request to the mapping service has been waiting for an outstanding
+     * request to complete is included in the reported request duration.
+     *
+     * @param ctx The Vert.x test context.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMapMessageReportsDurationIncludingWaitingTime(final VertxTestContext ctx) {
+
+        final MqttAdapterMetrics metrics = mock(MqttAdapterMetrics.class);
+        messageMapping = new HttpBasedMessageMapping(mapperWebClient, config, metrics);
+        final MapperEndpoint mapperEndpoint = MapperEndpoint.from("host", 1234, "/uri", false);
+        mapperEndpoint.setMaxConcurrentRequests(1);
+        config.setMapperEndpoints(Map.of("mapper", mapperEndpoint));
+
+        final HttpRequest<Buffer> httpRequest = mock(HttpRequest.class, withSettings().defaultAnswer(RETURNS_SELF));
+        when(mapperWebClient.post(anyInt(), anyString(), anyString())).thenReturn(httpRequest);
+
+        final MqttContext context = newContext(newMessage(MqttQoS.AT_LEAST_ONCE, "mqtt-topic"), span,
+                new DeviceUser(TEST_TENANT_ID, "gateway"));
+        final RegistrationAssertion assertion = new RegistrationAssertion("gateway").setDownstreamMessageMapper("mapper");
+
+        messageMapping.mapDownstreamMessage(context, TEST_TENANT_ID, assertion);
+        messageMapping.mapDownstreamMessage(context, TEST_TENANT_ID, assertion);
+
+        ctx.verify(() -> {
+            // the second request is waiting for the first one to complete
+            verify(httpRequest, times(1)).sendBuffer(any(Buffer.class), VertxMockSupport.anyHandler());
+            // but the timers for both requests have already been started
+            verify(metrics, times(2)).startTimer();
+        });
+        ctx.completeNow();
+    }
+
+    /**
+     * Verifies that a request to the mapping service is failed immediately with a 503 status code
+     * if the maximum number of concurrent requests has been reached and the queue of waiting
+     * requests is full.
+     *
+     * @param ctx The Vert.x test context.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMapMessageFailsIfQueueOfWaitingRequestsIsFull(final VertxTestContext ctx) {
+
+        final MapperEndpoint mapperEndpoint = MapperEndpoint.from("host", 1234, "/uri", false);
+        mapperEndpoint.setMaxConcurrentRequests(1);
+        mapperEndpoint.setMaxQueuedRequests(1);
+        config.setMapperEndpoints(Map.of("mapper", mapperEndpoint));
+
+        final HttpRequest<Buffer> httpRequest = mock(HttpRequest.class, withSettings().defaultAnswer(RETURNS_SELF));
+        when(mapperWebClient.post(anyInt(), anyString(), anyString())).thenReturn(httpRequest);
+
+        final MqttContext context = newContext(newMessage(MqttQoS.AT_LEAST_ONCE, "mqtt-topic"), span,
+                new DeviceUser(TEST_TENANT_ID, "gateway"));
+        final RegistrationAssertion assertion = new RegistrationAssertion("gateway").setDownstreamMessageMapper("mapper");
+
+        final Future<?> first = messageMapping.mapDownstreamMessage(context, TEST_TENANT_ID, assertion);
+        final Future<?> second = messageMapping.mapDownstreamMessage(context, TEST_TENANT_ID, assertion);
+        final Future<?> third = messageMapping.mapDownstreamMessage(context, TEST_TENANT_ID, assertion);
+
+        verify(httpRequest, times(1)).sendBuffer(any(Buffer.class), VertxMockSupport.anyHandler());
+        ctx.verify(() -> {
+            assertThat(first.isComplete()).isFalse();
+            assertThat(second.isComplete()).isFalse();
+            assertThat(third.failed()).isTrue();
+            assertThat(third.cause()).isInstanceOf(ServerErrorException.class);
+            assertThat(((ServerErrorException) third.cause()).getErrorCode())
+                .isEqualTo(HttpURLConnection.HTTP_UNAVAILABLE);
+        });
+        ctx.completeNow();
+    }
+
+    /**
+     * Verifies that a waiting request to the mapping service is sent if sending the
+     * previous request has failed with an exception.
+     *
+     * @param ctx The Vert.x test context.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMapMessageReleasesLimitIfSendingRequestFails(final VertxTestContext ctx) {
+
+        final MapperEndpoint mapperEndpoint = MapperEndpoint.from("host", 1234, "/uri", false);
+        mapperEndpoint.setMaxConcurrentRequests(1);
+        config.setMapperEndpoints(Map.of("mapper", mapperEndpoint));
+
+        final HttpRequest<Buffer> httpRequest = mock(HttpRequest.class, withSettings().defaultAnswer(RETURNS_SELF));
+        when(mapperWebClient.post(anyInt(), anyString(), anyString())).thenReturn(httpRequest);
+        doThrow(new IllegalStateException("client closed"))
+            .doNothing()
+            .when(httpRequest).sendBuffer(any(Buffer.class), VertxMockSupport.anyHandler());
+
+        final MqttContext context = newContext(newMessage(MqttQoS.AT_LEAST_ONCE, "mqtt-topic"), span,
+                new DeviceUser(TEST_TENANT_ID, "gateway"));
+        final RegistrationAssertion assertion = new RegistrationAssertion("gateway").setDownstreamMessageMapper("mapper");
+
+        final Future<?> first = messageMapping.mapDownstreamMessage(context, TEST_TENANT_ID, assertion);
+        final Future<?> second = messageMapping.mapDownstreamMessage(context, TEST_TENANT_ID, assertion);
+
+        verify(httpRequest, times(2)).sendBuffer(any(Buffer.class), VertxMockSupport.anyHandler());
+        ctx.verify(() -> {
+            assertThat(first.failed()).isTrue();
+            assertThat(first.cause()).isInstanceOf(ServerErrorException.class);
+            assertThat(second.isComplete()).isFalse();
+        });
+        ctx.completeNow();
+    }
 }
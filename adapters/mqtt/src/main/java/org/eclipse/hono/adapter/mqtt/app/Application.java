@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2020, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -12,14 +12,18 @@
  */
 package org.eclipse.hono.adapter.mqtt.app;
 
+import java.util.ServiceLoader;
+
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
 import org.eclipse.hono.adapter.AbstractProtocolAdapterApplication;
 import org.eclipse.hono.adapter.mqtt.MessageMapping;
+import org.eclipse.hono.adapter.mqtt.MessageMappingFunctionFactory;
 import org.eclipse.hono.adapter.mqtt.MqttAdapterMetrics;
 import org.eclipse.hono.adapter.mqtt.MqttContext;
 import org.eclipse.hono.adapter.mqtt.MqttProtocolAdapterProperties;
+import org.eclipse.hono.adapter.mqtt.impl.EmbeddedMessageMapping;
 import org.eclipse.hono.adapter.mqtt.impl.HttpBasedMessageMapping;
 import org.eclipse.hono.adapter.mqtt.impl.VertxBasedMqttProtocolAdapter;
 
@@ -60,6 +64,9 @@ public class Application extends AbstractProtocolAdapterApplication<MqttProtocol
 
     private MessageMapping<MqttContext> messageMapping() {
         final WebClient webClient = WebClient.create(vertx);
-        return new HttpBasedMessageMapping(webClient, protocolAdapterProperties);
+        return new EmbeddedMessageMapping(
+                ServiceLoader.load(MessageMappingFunctionFactory.class),
+                protocolAdapterProperties,
+                new HttpBasedMessageMapping(webClient, protocolAdapterProperties, metrics));
     }
 }
@@ -20,7 +20,6 @@ import java.util.Optional;
 
 import org.eclipse.hono.adapter.HttpContext;
 import org.eclipse.hono.adapter.auth.device.DeviceCredentialsAuthProvider;
-import org.eclipse.hono.adapter.auth.device.usernamepassword.UsernamePasswordAuthProvider;
 import org.eclipse.hono.adapter.auth.device.usernamepassword.UsernamePasswordCredentials;
 import org.eclipse.hono.adapter.http.AbstractVertxBasedHttpProtocolAdapter;
 import org.eclipse.hono.adapter.http.HonoBasicAuthHandler;
@@ -104,7 +103,7 @@ public final class SigfoxProtocolAdapter
 
         authHandler.add(new HonoBasicAuthHandler(
                 Optional.ofNullable(this.usernamePasswordAuthProvider).orElseGet(
-                        () -> new UsernamePasswordAuthProvider(getCredentialsClient(), this.tracer)),
+                        this::newUsernamePasswordAuthProvider),
                 getConfig().getRealm(),
                 this::handleBeforeCredentialsValidation));
 
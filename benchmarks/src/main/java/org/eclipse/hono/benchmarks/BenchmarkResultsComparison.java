@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.hono.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Compares two result files written by {@link BenchmarksRunner}.
+ * <p>
+ * For each benchmark (and parameter combination) contained in both files, the average time per
+ * operation and the number of bytes allocated per operation ({@code gc.alloc.rate.norm}) are printed
+ * along with the relative change. The program exits with status 1 if any of the values has increased
+ * by more than the given threshold (default 10 percent). If none of the current results has a counterpart
+ * in the baseline, nothing can be compared and the program exits with status 2.
+ * <p>
+ * Usage: {@code BenchmarkResultsComparison <baseline.json> <current.json> [threshold-percent]}
+ */
+public final class BenchmarkResultsComparison {
+
+    static final String METRIC_ALLOC_RATE_NORM = "gc.alloc.rate.norm";
+
+    private BenchmarkResultsComparison() {
+        // prevent instantiation
+    }
+
+    /**
+     * Compares the result files.
+     *
+     * @param args The baseline file, the file to compare to the baseline and an optional threshold.
+     * @throws IOException if any of the files cannot be read.
+     */
+    public static void main(final String[] args) throws IOException {
+
+        if (args.length < 2) {
+            System.err.println("usage: BenchmarkResultsComparison <baseline.json> <current.json> [threshold-percent]");
+            System.exit(2);
+        }
+        final Map<String, JsonObject> baseline = readResults(Path.of(args[0]));
+        final Map<String, JsonObject> current = readResults(Path.of(args[1]));
+        final double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+        boolean regression = false;
+        int compared = 0;
+        System.out.printf("%-90s %14s %14s %9s %14s %14s %9s%n",
+                "benchmark", "base [ns/op]", "curr [ns/op]", "delta", "base [B/op]", "curr [B/op]", "delta");
+        for (final Map.Entry<String, JsonObject> entry : current.entrySet()) {
+            final JsonObject base = baseline.get(entry.getKey());
+            if (base == null) {
+                System.out.printf("%-90s (no baseline)%n", entry.getKey());
+                continue;
+            }
+            final double baseScore = getPrimaryScore(base);
+            final double currScore = getPrimaryScore(entry.getValue());
+            final double baseAlloc = getAllocationScore(base).orElse(Double.NaN);
+            final double currAlloc = getAllocationScore(entry.getValue()).orElse(Double.NaN);
+            final double scoreDelta = relativeChange(baseScore, currScore);
+            final double allocDelta = relativeChange(baseAlloc, currAlloc);
+            System.out.printf("%-90s %14.2f %14.2f %8.1f%% %14.1f %14.1f %8.1f%%%n",
+                    entry.getKey(), baseScore, currScore, scoreDelta, baseAlloc, currAlloc, allocDelta);
+            regression |= scoreDelta > threshold || allocDelta > threshold;
+            compared++;
+        }
+        if (compared == 0) {
+            System.err.printf("baseline %s does not contain results for any of the current benchmarks%n", args[0]);
+            System.exit(2);
+        }
+        if (regression) {
+            System.out.printf("at least one benchmark regressed by more than %.1f%%%n", threshold);
+            System.exit(1);
+        }
+    }
+
+    static Map<String, JsonObject> readResults(final Path file) throws IOException {
+
+        final JsonArray results = new JsonArray(Files.readString(file));
+        final Map<String, JsonObject> resultsByName = new TreeMap<>();
+        for (int i = 0; i < results.size(); i++) {
+            final JsonObject result = results.getJsonObject(i);
+            final StringBuilder name = new StringBuilder(result.getString("benchmark"));
+            Optional.ofNullable(result.getJsonObject("params"))
+                .map(params -> new TreeMap<>(params.getMap()))
+                .ifPresent(params -> params.forEach((k, v) -> name.append(':').append(k).append('=').append(v)));
+            resultsByName.put(name.toString(), result);
+        }
+        return resultsByName;
+    }
+
+    static double getPrimaryScore(final JsonObject result) {
+        return result.getJsonObject("primaryMetric").getDouble("score");
+    }
+
+    static Optional<Double> getAllocationScore(final JsonObject result) {
+        return Optional.ofNullable(result.getJsonObject("secondaryMetrics"))
+                .map(metrics -> metrics.getJsonObject(METRIC_ALLOC_RATE_NORM))
+                .map(metric -> metric.getDouble("score"));
+    }
+
+    static double relativeChange(final double baseline, final double current) {
+        if (baseline == 0.0) {
+            return current == 0.0 ? 0.0 : Double.POSITIVE_INFINITY;
+        }
+        return (current - baseline) / baseline * 100.0;
+    }
+}
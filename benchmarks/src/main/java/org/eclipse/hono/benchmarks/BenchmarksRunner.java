@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.hono.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs Hono's benchmarks with allocation profiling enabled.
+ * <p>
+ * The results are written in JMH's JSON format to the file given as the first argument
+ * (default {@code hono-benchmarks.json}). The optional second argument is a regular expression
+ * selecting the benchmarks to run.
+ * <p>
+ * The resulting file contains the {@code gc.alloc.rate.norm} secondary metric, i.e. the
+ * number of bytes allocated per operation, and can be compared to a previously recorded
+ * baseline using {@link BenchmarkResultsComparison}.
+ */
+public final class BenchmarksRunner {
+
+    private BenchmarksRunner() {
+        // prevent instantiation
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args The (optional) name of the result file and include pattern.
+     * @throws RunnerException if running the benchmarks fails.
+     */
+    public static void main(final String[] args) throws RunnerException {
+
+        final String resultFile = args.length > 0 ? args[0] : "hono-benchmarks.json";
+        final String includes = args.length > 1 ? args[1] : BenchmarksRunner.class.getPackageName() + ".*Benchmark";
+
+        final Options options = new OptionsBuilder()
+                .include(includes)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile)
+                .build();
+        new Runner(options).run();
+    }
+}
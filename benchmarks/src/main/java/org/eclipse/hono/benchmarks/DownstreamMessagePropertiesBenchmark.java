@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.hono.benchmarks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.hono.adapter.AbstractProtocolAdapterBase;
+import org.eclipse.hono.adapter.MapBasedTelemetryExecutionContext;
+import org.eclipse.hono.adapter.ProtocolAdapterProperties;
+import org.eclipse.hono.util.Constants;
+import org.eclipse.hono.util.QoS;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.opentracing.noop.NoopSpan;
+import io.vertx.core.Promise;
+
+/**
+ * Benchmarks for determining the properties of a downstream message in
+ * {@link AbstractProtocolAdapterBase#getDownstreamMessageProperties(org.eclipse.hono.adapter.TelemetryExecutionContext)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DownstreamMessagePropertiesBenchmark {
+
+    private AbstractProtocolAdapterBase<ProtocolAdapterProperties> adapter;
+    private MapBasedTelemetryExecutionContext telemetryContext;
+    private MapBasedTelemetryExecutionContext eventContext;
+
+    /**
+     * Creates the adapter and the execution contexts.
+     */
+    @Setup
+    public void createAdapter() {
+        adapter = new AbstractProtocolAdapterBase<>() {
+
+            @Override
+            public String getTypeName() {
+                return Constants.PROTOCOL_ADAPTER_TYPE_MQTT;
+            }
+
+            @Override
+            public int getPortDefaultValue() {
+                return 0;
+            }
+
+            @Override
+            public int getInsecurePortDefaultValue() {
+                return 0;
+            }
+
+            @Override
+            protected int getActualPort() {
+                return 0;
+            }
+
+            @Override
+            protected int getActualInsecurePort() {
+                return 0;
+            }
+
+            @Override
+            protected void doStart(final Promise<Void> startPromise) {
+                startPromise.complete();
+            }
+        };
+        adapter.setConfig(new ProtocolAdapterProperties());
+        telemetryContext = newContext(QoS.AT_MOST_ONCE, "telemetry/DEFAULT_TENANT/4711", null);
+        eventContext = newContext(QoS.AT_LEAST_ONCE, "event/DEFAULT_TENANT/4711", Duration.ofSeconds(60));
+    }
+
+    private static MapBasedTelemetryExecutionContext newContext(
+            final QoS qos,
+            final String address,
+            final Duration ttl) {
+
+        return new MapBasedTelemetryExecutionContext(NoopSpan.INSTANCE, null) {
+
+            @Override
+            public QoS getRequestedQos() {
+                return qos;
+            }
+
+            @Override
+            public Optional<Duration> getTimeToLive() {
+                return Optional.ofNullable(ttl);
+            }
+
+            @Override
+            public String getOrigAddress() {
+                return address;
+            }
+        };
+    }
+
+    /**
+     * Gets the properties for a telemetry message.
+     *
+     * @return The properties.
+     */
+    @Benchmark
+    public Map<String, Object> telemetry() {
+        return adapter.getDownstreamMessageProperties(telemetryContext);
+    }
+
+    /**
+     * Gets the properties for an event that has a time-to-live.
+     *
+     * @return The properties.
+     */
+    @Benchmark
+    public Map<String, Object> eventWithTtl() {
+        return adapter.getDownstreamMessageProperties(eventContext);
+    }
+}
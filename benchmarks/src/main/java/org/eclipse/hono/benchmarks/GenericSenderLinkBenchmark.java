@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.hono.benchmarks;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.qpid.proton.message.Message;
+import org.eclipse.hono.client.amqp.GenericSenderLink;
+import org.eclipse.hono.client.amqp.config.ClientConfigProperties;
+import org.eclipse.hono.client.amqp.connection.HonoConnection;
+import org.eclipse.hono.client.amqp.connection.SendMessageSampler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.opentracing.noop.NoopSpan;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.proton.ProtonDelivery;
+import io.vertx.proton.ProtonHelper;
+import io.vertx.proton.ProtonServer;
+
+/**
+ * Benchmarks for sending events using
+ * {@link GenericSenderLink#sendAndWaitForOutcome(Message, io.opentracing.Span)} and
+ * {@link GenericSenderLink#sendAndWaitForOutcomeBatched(Message, io.opentracing.Span)}.
+ * <p>
+ * Each operation sends a burst of {@link #burstSize} events from a vert.x context other than the
+ * connection's context, as a protocol adapter verticle does, and waits for all of them to be accepted
+ * by a local AMQP 1.0 peer that is connected via the loopback interface.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GenericSenderLinkBenchmark {
+
+    /**
+     * The number of events sent per operation.
+     */
+    @Param({ "1", "50" })
+    public int burstSize;
+
+    private Vertx vertx;
+    private ProtonServer server;
+    private HonoConnection connection;
+    private GenericSenderLink link;
+    private Context senderContext;
+
+    /**
+     * Starts the AMQP peer and opens the link to it.
+     *
+     * @throws Exception if the link cannot be opened.
+     */
+    @Setup
+    public void openLink() throws Exception {
+
+        vertx = Vertx.vertx();
+        server = ProtonServer.create(vertx).connectHandler(con -> {
+            con.openHandler(remoteOpen -> con.open());
+            con.sessionOpenHandler(session -> session.open());
+            con.receiverOpenHandler(receiver -> {
+                receiver.setTarget(receiver.getRemoteTarget());
+                receiver.setQoS(receiver.getRemoteQoS());
+                receiver.handler((delivery, message) -> {
+                    // messages are accepted and settled automatically
+                });
+                receiver.open();
+            });
+            con.closeHandler(remoteClose -> con.close());
+        });
+        await(Future.<ProtonServer> future(promise -> server.listen(0, "localhost", promise)));
+
+        final ClientConfigProperties config = new ClientConfigProperties();
+        config.setName("benchmark");
+        config.setHost("localhost");
+        config.setPort(server.actualPort());
+        connection = HonoConnection.newConnection(vertx, config);
+        await(connection.connect());
+        link = await(GenericSenderLink.create(connection, "event", "DEFAULT_TENANT", SendMessageSampler.noop(), null));
+        senderContext = vertx.getOrCreateContext();
+    }
+
+    /**
+     * Closes the connection and stops the AMQP peer.
+     *
+     * @throws Exception if vert.x cannot be closed.
+     */
+    @TearDown
+    public void closeLink() throws Exception {
+        connection.disconnect();
+        await(Future.<Void> future(promise -> server.close(promise)).compose(ok -> vertx.close()));
+    }
+
+    private static <T> T await(final Future<T> result) throws Exception {
+        return result.toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    private void sendBurst(final boolean batched) throws InterruptedException {
+
+        final CountDownLatch outcomes = new CountDownLatch(burstSize);
+        senderContext.runOnContext(go -> {
+            for (int i = 0; i < burstSize; i++) {
+                final Message message = ProtonHelper.message("event/DEFAULT_TENANT", "{\"temp\": 5}");
+                message.setDurable(true);
+                final Future<ProtonDelivery> outcome = batched
+                        ? link.sendAndWaitForOutcomeBatched(message, NoopSpan.INSTANCE)
+                        : link.sendAndWaitForOutcome(message, NoopSpan.INSTANCE);
+                outcome.onComplete(r -> outcomes.countDown());
+            }
+        });
+        outcomes.await();
+    }
+
+    /**
+     * Sends a burst of events, each one by means of a separate transfer.
+     *
+     * @throws InterruptedException if the benchmark thread is interrupted while waiting for the outcomes.
+     */
+    @Benchmark
+    public void sendAndWaitForOutcome() throws InterruptedException {
+        sendBurst(false);
+    }
+
+    /**
+     * Sends a burst of events as a batch.
+     *
+     * @throws InterruptedException if the benchmark thread is interrupted while waiting for the outcomes.
+     */
+    @Benchmark
+    public void sendAndWaitForOutcomeBatched() throws InterruptedException {
+        sendBurst(true);
+    }
+}
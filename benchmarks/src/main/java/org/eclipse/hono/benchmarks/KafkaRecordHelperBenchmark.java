@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.hono.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.hono.client.kafka.KafkaRecordHeaders;
+import org.eclipse.hono.client.kafka.KafkaRecordHelper;
+import org.eclipse.hono.util.MessageHelper;
+import org.eclipse.hono.util.QoS;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.vertx.kafka.client.producer.KafkaHeader;
+
+/**
+ * Benchmarks for encoding and decoding the headers of Kafka records containing telemetry data or events.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KafkaRecordHelperBenchmark {
+
+    /**
+     * Whether header values of a primitive type are encoded compactly instead of using JSON.
+     */
+    @Param({ "false", "true" })
+    public boolean compactHeaderEncoding;
+
+    private List<KafkaHeader> headers;
+    private long creationTime;
+
+    /**
+     * Creates the headers of a typical telemetry record as produced by a protocol adapter.
+     */
+    @Setup
+    public void createHeaders() {
+        creationTime = System.currentTimeMillis();
+        headers = new ArrayList<>();
+        if (compactHeaderEncoding) {
+            headers.add(KafkaRecordHelper.createHeaderVersionHeader());
+        }
+        headers.add(KafkaRecordHelper.createDeviceIdHeader("4711"));
+        headers.add(KafkaRecordHelper.createTenantIdHeader("DEFAULT_TENANT"));
+        headers.add(KafkaRecordHelper.createKafkaHeader(MessageHelper.SYS_PROPERTY_CONTENT_TYPE, "application/json"));
+        headers.add(KafkaRecordHelper.createKafkaHeader(MessageHelper.APP_PROPERTY_ORIG_ADAPTER, "hono-mqtt"));
+        headers.add(KafkaRecordHelper.createKafkaHeader(MessageHelper.APP_PROPERTY_ORIG_ADDRESS, "telemetry"));
+        headers.add(createHeader(MessageHelper.SYS_PROPERTY_CREATION_TIME, creationTime));
+        headers.add(createHeader(MessageHelper.APP_PROPERTY_QOS, QoS.AT_LEAST_ONCE.ordinal()));
+        headers.add(createHeader(MessageHelper.SYS_HEADER_PROPERTY_TTL, 60_000L));
+    }
+
+    private KafkaHeader createHeader(final String key, final Object value) {
+        return compactHeaderEncoding
+                ? KafkaRecordHelper.createCompactKafkaHeader(key, value)
+                : KafkaRecordHelper.createKafkaHeader(key, value);
+    }
+
+    /**
+     * Encodes the headers that are set on a typical telemetry record.
+     *
+     * @param blackhole The sink for the created headers.
+     */
+    @Benchmark
+    public void createTelemetryHeaders(final Blackhole blackhole) {
+        blackhole.consume(KafkaRecordHelper.createDeviceIdHeader("4711"));
+        blackhole.consume(KafkaRecordHelper.createTenantIdHeader("DEFAULT_TENANT"));
+        blackhole.consume(KafkaRecordHelper.createKafkaHeader(MessageHelper.SYS_PROPERTY_CONTENT_TYPE, "application/json"));
+        blackhole.consume(createHeader(MessageHelper.SYS_PROPERTY_CREATION_TIME, creationTime));
+        blackhole.consume(createHeader(MessageHelper.APP_PROPERTY_QOS, QoS.AT_LEAST_ONCE.ordinal()));
+        blackhole.consume(createHeader(MessageHelper.SYS_HEADER_PROPERTY_TTL, 60_000L));
+    }
+
+    /**
+     * Encodes a single non-String header value.
+     *
+     * @return The header.
+     */
+    @Benchmark
+    public KafkaHeader createLongHeader() {
+        return createHeader(MessageHelper.SYS_PROPERTY_CREATION_TIME, creationTime);
+    }
+
+    /**
+     * Reads the properties that a typical downstream consumer is interested in.
+     *
+     * @param blackhole The sink for the decoded values.
+     */
+    @Benchmark
+    public void readTelemetryHeaders(final Blackhole blackhole) {
+        blackhole.consume(KafkaRecordHelper.getTenantId(headers));
+        blackhole.consume(KafkaRecordHelper.getDeviceId(headers));
+        blackhole.consume(KafkaRecordHelper.getContentType(headers));
+        blackhole.consume(KafkaRecordHelper.getQoS(headers));
+        blackhole.consume(KafkaRecordHelper.getCreationTime(headers));
+    }
+
+    /**
+     * Reads the properties that a typical downstream consumer is interested in by means of a
+     * {@link KafkaRecordHeaders} view created for the record.
+     *
+     * @param blackhole The sink for the decoded values.
+     */
+    @Benchmark
+    public void readTelemetryHeadersUsingView(final Blackhole blackhole) {
+        final KafkaRecordHeaders view = new KafkaRecordHeaders(headers);
+        blackhole.consume(view.getTenantId());
+        blackhole.consume(view.getDeviceId());
+        blackhole.consume(view.getContentType());
+        blackhole.consume(view.getQoS());
+        blackhole.consume(view.getCreationTime());
+    }
+
+    /**
+     * Reads the properties that a typical downstream consumer is interested in twice, as is the case
+     * if both the client library and the application code access the properties.
+     *
+     * @param blackhole The sink for the decoded values.
+     */
+    @Benchmark
+    public void readTelemetryHeadersTwice(final Blackhole blackhole) {
+        readTelemetryHeaders(blackhole);
+        readTelemetryHeaders(blackhole);
+    }
+
+    /**
+     * Reads the properties that a typical downstream consumer is interested in twice by means of a
+     * {@link KafkaRecordHeaders} view created for the record.
+     *
+     * @param blackhole The sink for the decoded values.
+     */
+    @Benchmark
+    public void readTelemetryHeadersTwiceUsingView(final Blackhole blackhole) {
+        final KafkaRecordHeaders view = new KafkaRecordHeaders(headers);
+        for (int i = 0; i < 2; i++) {
+            blackhole.consume(view.getTenantId());
+            blackhole.consume(view.getDeviceId());
+            blackhole.consume(view.getContentType());
+            blackhole.consume(view.getQoS());
+            blackhole.consume(view.getCreationTime());
+        }
+    }
+
+    /**
+     * Decodes the value of the last header in the list.
+     *
+     * @return The decoded value.
+     */
+    @Benchmark
+    public Object getLongHeaderValue() {
+        return KafkaRecordHelper.getHeaderValue(headers, MessageHelper.SYS_HEADER_PROPERTY_TTL, Long.class);
+    }
+
+    /**
+     * Checks if the time-to-live of the record has elapsed.
+     *
+     * @return {@code true} if the ttl has elapsed.
+     */
+    @Benchmark
+    public boolean isTtlElapsed() {
+        return KafkaRecordHelper.isTtlElapsed(headers);
+    }
+}
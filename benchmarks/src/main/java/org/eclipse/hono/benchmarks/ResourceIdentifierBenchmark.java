@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.hono.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.hono.util.ResourceIdentifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for parsing the addresses of messages received from devices into {@link ResourceIdentifier}s.
+ * <p>
+ * Every message uploaded to one of the protocol adapters is subject to this parsing step.
+ * <p>
+ * The {@link #splitAndCopySegments(Blackhole)} benchmark performs the work that the former,
+ * {@link String#split(String)} based implementation did eagerly for every address. It serves as a
+ * reference for the number of bytes allocated per operation by the other benchmarks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceIdentifierBenchmark {
+
+    /**
+     * The address to parse.
+     */
+    @Param({
+        "telemetry/DEFAULT_TENANT/4711",
+        "event//4711",
+        "command///res/4711/setBrightness",
+        "command_response/DEFAULT_TENANT/4711/req-id-0815/200"
+    })
+    public String address;
+
+    /**
+     * Parses the address and reads the properties that the protocol adapters use
+     * for every message.
+     *
+     * @param blackhole The sink for the parsed values.
+     */
+    @Benchmark
+    public void fromStringAndAccessProperties(final Blackhole blackhole) {
+        final ResourceIdentifier resource = ResourceIdentifier.fromString(address);
+        blackhole.consume(resource.getEndpoint());
+        blackhole.consume(resource.getTenantId());
+        blackhole.consume(resource.getResourceId());
+    }
+
+    /**
+     * Parses the address.
+     *
+     * @return The parsed identifier.
+     */
+    @Benchmark
+    public ResourceIdentifier fromString() {
+        return ResourceIdentifier.fromString(address);
+    }
+
+    /**
+     * Parses the address and gets its base path.
+     *
+     * @return The base path.
+     */
+    @Benchmark
+    public String fromStringAndGetBasePath() {
+        return ResourceIdentifier.fromString(address).getBasePath();
+    }
+
+    /**
+     * Splits the address into segments and creates the string representation and base path
+     * eagerly, like {@code ResourceIdentifier.fromString} did before parsing has been made lazy.
+     *
+     * @param blackhole The sink for the created values.
+     */
+    @Benchmark
+    public void splitAndCopySegments(final Blackhole blackhole) {
+        final String[] path = address.split("/");
+        final StringBuilder b = new StringBuilder();
+        for (int i = 0; i < path.length; i++) {
+            b.append(path[i]);
+            if (i < path.length - 1) {
+                b.append('/');
+            }
+        }
+        blackhole.consume(path);
+        blackhole.consume(b.toString());
+        blackhole.consume(path.length > 1 && !path[1].isEmpty() ? path[0] + "/" + path[1] : path[0]);
+    }
+}
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.hono.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.hono.util.Adapter;
+import org.eclipse.hono.util.Constants;
+import org.eclipse.hono.util.TenantConstants;
+import org.eclipse.hono.util.TenantObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Benchmarks for the accessors of {@link TenantObject} that the protocol adapters
+ * invoke for every message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TenantObjectBenchmark {
+
+    private TenantObject tenant;
+    private JsonObject tenantJson;
+
+    /**
+     * Creates a tenant that has explicitly configured adapters, defaults and a minimum message size.
+     */
+    @Setup
+    public void createTenant() {
+        tenant = TenantObject.from(Constants.DEFAULT_TENANT)
+                .addAdapter(new Adapter(Constants.PROTOCOL_ADAPTER_TYPE_HTTP).setEnabled(true))
+                .addAdapter(new Adapter(Constants.PROTOCOL_ADAPTER_TYPE_MQTT)
+                        .setEnabled(true)
+                        .putExtension(TenantConstants.FIELD_MAX_TTD, 30))
+                .setMinimumMessageSize(4096)
+                .setDefaults(new JsonObject().put("content-type", "application/json"));
+        tenantJson = JsonObject.mapFrom(tenant);
+    }
+
+    /**
+     * Invokes the accessors used when processing a telemetry message.
+     *
+     * @param blackhole The sink for the property values.
+     */
+    @Benchmark
+    public void readPerMessageProperties(final Blackhole blackhole) {
+        blackhole.consume(tenant.isAdapterEnabled(Constants.PROTOCOL_ADAPTER_TYPE_MQTT));
+        blackhole.consume(tenant.getMinimumMessageSize());
+        blackhole.consume(tenant.getResourceLimits());
+        blackhole.consume(tenant.getDefaults());
+    }
+
+    /**
+     * Gets the maximum TTD configured for an adapter.
+     *
+     * @return The TTD.
+     */
+    @Benchmark
+    public int getMaxTimeUntilDisconnect() {
+        return tenant.getMaxTimeUntilDisconnect(Constants.PROTOCOL_ADAPTER_TYPE_MQTT);
+    }
+
+    /**
+     * Decodes the tenant from its JSON representation as done by the Tenant client
+     * for every response that is not served from the cache.
+     *
+     * @return The tenant.
+     */
+    @Benchmark
+    public TenantObject decodeFromJson() {
+        return tenantJson.mapTo(TenantObject.class);
+    }
+}
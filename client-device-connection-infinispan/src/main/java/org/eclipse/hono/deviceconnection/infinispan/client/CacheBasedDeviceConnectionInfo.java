@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2020, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -43,6 +43,7 @@ import io.opentracing.Tracer;
 import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.healthchecks.HealthCheckHandler;
@@ -84,6 +85,7 @@ public final class CacheBasedDeviceConnectionInfo implements DeviceConnectionInf
     final AdapterInstanceStatusProvider adapterInstanceStatusProvider;
 
     private DeviceToAdapterMappingErrorListener deviceToAdapterMappingErrorListener;
+    private LastKnownGatewayUpdateCoalescer lastKnownGatewayUpdateCoalescer;
 
     /**
      * Creates a client for accessing device connection information.
@@ -112,6 +114,37 @@ public final class CacheBasedDeviceConnectionInfo implements DeviceConnectionInf
                 .orElseGet(UnknownStatusProvider::new);
     }
 
+    /**
+     * Enables coalescing of updates of the last known gateway of devices.
+     * <p>
+     * Updates are delayed for up to the given amount of time and are then written to the cache in a batch.
+     * Multiple updates for the same device within that time frame result in a single cache entry being written.
+     * Updates that would set the last known gateway to the value that has already been written by this client
+     * within the given refresh interval are skipped. Such a value may therefore have been overwritten by another
+     * client of the cache in the meantime.
+     * <p>
+     * This method is expected to be invoked before this client is started.
+     *
+     * @param vertx The vert.x instance to use for scheduling the writes.
+     * @param maxDelay The maximum amount of time to delay an update. If zero, updates are written right away.
+     * @param refreshInterval The amount of time during which an update that does not change the value
+     *                        is skipped. If zero, updates are never skipped.
+     * @throws NullPointerException if any of the parameters are {@code null}.
+     * @throws IllegalArgumentException if max delay or refresh interval are negative or if the refresh interval
+     *                                  is not shorter than the lifespan of the last known gateway entries.
+     */
+    public void setLastKnownGatewayUpdateCoalescing(
+            final Vertx vertx,
+            final Duration maxDelay,
+            final Duration refreshInterval) {
+        this.lastKnownGatewayUpdateCoalescer = new LastKnownGatewayUpdateCoalescer(
+                vertx,
+                cache,
+                LAST_KNOWN_GATEWAY_CACHE_ENTRY_LIFESPAN,
+                maxDelay,
+                refreshInterval);
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -129,8 +162,12 @@ public final class CacheBasedDeviceConnectionInfo implements DeviceConnectionInf
         Objects.requireNonNull(gatewayId);
         Objects.requireNonNull(span);
 
+        final String key = getGatewayEntryKey(tenantId, deviceId);
         final long lifespanMillis = LAST_KNOWN_GATEWAY_CACHE_ENTRY_LIFESPAN.toMillis();
-        return cache.put(getGatewayEntryKey(tenantId, deviceId), gatewayId, lifespanMillis, TimeUnit.MILLISECONDS)
+        final Future<Void> putResult = lastKnownGatewayUpdateCoalescer != null
+                ? lastKnownGatewayUpdateCoalescer.putAll(Map.of(key, gatewayId))
+                : cache.put(key, gatewayId, lifespanMillis, TimeUnit.MILLISECONDS);
+        return putResult
             .onSuccess(ok -> LOG.debug("set last known gateway [tenant: {}, device-id: {}, gateway: {}]",
                     tenantId, deviceId, gatewayId))
             .otherwise(t -> {
@@ -155,10 +192,13 @@ public final class CacheBasedDeviceConnectionInfo implements DeviceConnectionInf
             return Future.succeededFuture();
         }
 
-        final long lifespanMillis = LAST_KNOWN_GATEWAY_CACHE_ENTRY_LIFESPAN.toMillis();
         final Map<String, String> mapToBePut = deviceIdToGatewayIdMap.entrySet().stream()
                 .collect(Collectors.toMap(entry -> getGatewayEntryKey(tenantId, entry.getKey()), Map.Entry::getValue));
-        return cache.putAll(mapToBePut, lifespanMillis, TimeUnit.MILLISECONDS)
+        final long lifespanMillis = LAST_KNOWN_GATEWAY_CACHE_ENTRY_LIFESPAN.toMillis();
+        final Future<Void> putResult = lastKnownGatewayUpdateCoalescer != null
+                ? lastKnownGatewayUpdateCoalescer.putAll(mapToBePut)
+                : cache.putAll(mapToBePut, lifespanMillis, TimeUnit.MILLISECONDS);
+        return putResult
                 .onSuccess(ok -> LOG.debug("set {} last known gateway entries [tenant: {}]",
                         deviceIdToGatewayIdMap.size(), tenantId))
                 .otherwise(t -> {
@@ -212,9 +252,7 @@ public final class CacheBasedDeviceConnectionInfo implements DeviceConnectionInf
         Objects.requireNonNull(adapterInstanceId);
         Objects.requireNonNull(span);
 
-        // sanity check, preventing an ArithmeticException in lifespan.toMillis()
-        final long lifespanMillis = lifespan == null || lifespan.isNegative()
-                || lifespan.getSeconds() > (Long.MAX_VALUE / 1000L) ? -1 : lifespan.toMillis();
+        final long lifespanMillis = getLifespanMillis(lifespan);
         return cache.put(getAdapterInstanceEntryKey(tenantId, deviceId), adapterInstanceId, lifespanMillis, TimeUnit.MILLISECONDS)
                 .onSuccess(ok -> LOG.debug(
                         "set command handling adapter instance [tenant: {}, device-id: {}, adapter-instance: {}, lifespan: {}ms]",
@@ -227,6 +265,45 @@ public final class CacheBasedDeviceConnectionInfo implements DeviceConnectionInf
                 });
     }
 
+    @Override
+    public Future<Void> setCommandHandlingAdapterInstances(
+            final String tenantId,
+            final Set<String> deviceIds,
+            final String adapterInstanceId,
+            final Duration lifespan,
+            final Span span) {
+
+        Objects.requireNonNull(tenantId);
+        Objects.requireNonNull(deviceIds);
+        Objects.requireNonNull(adapterInstanceId);
+        Objects.requireNonNull(span);
+
+        if (deviceIds.isEmpty()) {
+            return Future.succeededFuture();
+        }
+
+        final long lifespanMillis = getLifespanMillis(lifespan);
+        final Map<String, String> mapToBePut = deviceIds.stream()
+                .collect(Collectors.toMap(deviceId -> getAdapterInstanceEntryKey(tenantId, deviceId),
+                        deviceId -> adapterInstanceId));
+        return cache.putAll(mapToBePut, lifespanMillis, TimeUnit.MILLISECONDS)
+                .onSuccess(ok -> LOG.debug(
+                        "set command handling adapter instance for {} devices [tenant: {}, adapter-instance: {}, lifespan: {}ms]",
+                        deviceIds.size(), tenantId, adapterInstanceId, lifespanMillis))
+                .otherwise(t -> {
+                    LOG.debug("failed to set command handling adapter instance for {} devices [tenant: {}, adapter-instance: {}, lifespan: {}ms]",
+                            deviceIds.size(), tenantId, adapterInstanceId, lifespanMillis, t);
+                    TracingHelper.logError(span, "failed to set command handling adapter instance cache entries", t);
+                    throw new ServerErrorException(tenantId, HttpURLConnection.HTTP_INTERNAL_ERROR, t);
+                });
+    }
+
+    private static long getLifespanMillis(final Duration lifespan) {
+        // sanity check, preventing an ArithmeticException in lifespan.toMillis()
+        return lifespan == null || lifespan.isNegative()
+                || lifespan.getSeconds() > (Long.MAX_VALUE / 1000L) ? -1 : lifespan.toMillis();
+    }
+
     @Override
     public Future<Void> removeCommandHandlingAdapterInstance(
             final String tenantId,
@@ -493,6 +570,22 @@ public final class CacheBasedDeviceConnectionInfo implements DeviceConnectionInf
         return Future.failedFuture(new ServerErrorException(HttpURLConnection.HTTP_INTERNAL_ERROR, t));
     }
 
+    /**
+     * Checks if a key is used for an entry containing device connection information.
+     * <p>
+     * This may be used for ignoring notifications about changes of other entries of the cache,
+     * e.g. the entry used for checking the connection to the cache.
+     *
+     * @param key The key to check.
+     * @return {@code true} if the key is used for a last known gateway or command handling adapter instance entry.
+     * @throws NullPointerException if key is {@code null}.
+     */
+    public static boolean isDeviceConnectionInfoKey(final String key) {
+        Objects.requireNonNull(key);
+        return key.startsWith(KEY_PREFIX_GATEWAY_ENTRIES_VALUE + KEY_SEPARATOR)
+                || key.startsWith(KEY_PREFIX_ADAPTER_INSTANCE_VALUES + KEY_SEPARATOR);
+    }
+
     static String getGatewayEntryKey(final String tenantId, final String deviceId) {
         return KEY_PREFIX_GATEWAY_ENTRIES_VALUE + KEY_SEPARATOR + tenantId + KEY_SEPARATOR + deviceId;
     }
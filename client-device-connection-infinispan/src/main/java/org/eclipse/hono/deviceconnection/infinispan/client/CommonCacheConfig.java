@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2020, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -13,6 +13,9 @@
 
 package org.eclipse.hono.deviceconnection.infinispan.client;
 
+import java.time.Duration;
+import java.util.Objects;
+
 import com.google.common.base.MoreObjects;
 
 /**
@@ -25,11 +28,17 @@ public class CommonCacheConfig {
      * storing device connection information.
      */
     public static final String DEFAULT_CACHE_NAME = "device-connection";
+    /**
+     * The default maximum amount of time that entries are kept in the local near cache.
+     */
+    public static final Duration DEFAULT_NEAR_CACHE_MAX_STALENESS = Duration.ofSeconds(5);
 
     private String cacheName = DEFAULT_CACHE_NAME;
 
     private String checkKey = "KEY_CONNECTION_CHECK";
     private String checkValue = "VALUE_CONNECTION_CHECK";
+    private long nearCacheMaxSize = 0;
+    private Duration nearCacheMaxStaleness = DEFAULT_NEAR_CACHE_MAX_STALENESS;
 
     /**
      * Creates properties for default values.
@@ -48,6 +57,8 @@ public class CommonCacheConfig {
         this.cacheName = options.cacheName();
         this.checkKey = options.checkKey();
         this.checkValue = options.checkValue();
+        setNearCacheMaxSize(options.nearCacheMaxSize());
+        setNearCacheMaxStaleness(options.nearCacheMaxStaleness());
     }
 
     public void setCacheName(final String cacheName) {
@@ -74,6 +85,52 @@ public class CommonCacheConfig {
         return checkValue;
     }
 
+    /**
+     * Sets the maximum number of entries to keep in a local near cache in front of the cache.
+     *
+     * @param nearCacheMaxSize The maximum number of entries. A value of 0 disables the near cache.
+     * @throws IllegalArgumentException if the size is negative.
+     */
+    public void setNearCacheMaxSize(final long nearCacheMaxSize) {
+        if (nearCacheMaxSize < 0) {
+            throw new IllegalArgumentException("near cache max size must be >= 0");
+        }
+        this.nearCacheMaxSize = nearCacheMaxSize;
+    }
+
+    /**
+     * Gets the maximum number of entries to keep in a local near cache in front of the cache.
+     *
+     * @return The maximum number of entries. A value of 0 indicates that the near cache is disabled.
+     */
+    public long getNearCacheMaxSize() {
+        return nearCacheMaxSize;
+    }
+
+    /**
+     * Sets the maximum amount of time that entries are kept in the local near cache.
+     *
+     * @param nearCacheMaxStaleness The maximum staleness of entries.
+     * @throws NullPointerException if the duration is {@code null}.
+     * @throws IllegalArgumentException if the duration is not positive.
+     */
+    public void setNearCacheMaxStaleness(final Duration nearCacheMaxStaleness) {
+        Objects.requireNonNull(nearCacheMaxStaleness);
+        if (nearCacheMaxStaleness.isNegative() || nearCacheMaxStaleness.isZero()) {
+            throw new IllegalArgumentException("near cache max staleness must be > 0");
+        }
+        this.nearCacheMaxStaleness = nearCacheMaxStaleness;
+    }
+
+    /**
+     * Gets the maximum amount of time that entries are kept in the local near cache.
+     *
+     * @return The maximum staleness of entries.
+     */
+    public Duration getNearCacheMaxStaleness() {
+        return nearCacheMaxStaleness;
+    }
+
     @Override
     public String toString() {
         return MoreObjects
@@ -81,6 +138,8 @@ public class CommonCacheConfig {
                 .add("cacheName", this.cacheName)
                 .add("checkKey", this.checkKey)
                 .add("checkValue", this.checkValue)
+                .add("nearCacheMaxSize", this.nearCacheMaxSize)
+                .add("nearCacheMaxStaleness", this.nearCacheMaxStaleness)
                 .toString();
     }
 }
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2021 Contributors to the Eclipse Foundation
+ * Copyright (c) 2021, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -13,6 +13,8 @@
 
 package org.eclipse.hono.deviceconnection.infinispan.client;
 
+import java.time.Duration;
+
 import org.eclipse.hono.util.CommandRouterConstants;
 
 import io.smallrye.config.ConfigMapping;
@@ -49,4 +51,20 @@ public interface CommonCacheOptions {
      */
     @WithDefault("VALUE_CONNECTION_CHECK")
     String checkValue();
+
+    /**
+     * Gets the maximum number of entries to keep in a local near cache in front of the cache.
+     *
+     * @return The maximum number of entries. A value of 0 disables the near cache.
+     */
+    @WithDefault("0")
+    long nearCacheMaxSize();
+
+    /**
+     * Gets the maximum amount of time that entries are kept in the local near cache.
+     *
+     * @return The maximum staleness of entries.
+     */
+    @WithDefault("PT5S")
+    Duration nearCacheMaxStaleness();
 }
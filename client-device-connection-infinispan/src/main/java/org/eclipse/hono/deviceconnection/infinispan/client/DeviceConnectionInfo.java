@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2020, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -113,6 +113,28 @@ public interface DeviceConnectionInfo {
     Future<Void> setCommandHandlingAdapterInstance(String tenantId, String deviceId, String adapterInstanceId,
             Duration lifespan, Span span);
 
+    /**
+     * Sets the protocol adapter instance that handles commands for the given devices or gateways.
+     * <p>
+     * The mapping entries of all devices are written by means of a single operation.
+     *
+     * @param tenantId The tenant id.
+     * @param deviceIds The device ids.
+     * @param adapterInstanceId The protocol adapter instance id.
+     * @param lifespan The lifespan of the mapping entries. Using a negative duration or {@code null} here is
+     *                 interpreted as an unlimited lifespan.
+     * @param span The active OpenTracing span for this operation. It is not to be closed in this method!
+     *            An implementation should log (error) events on this span and it may set tags and use this span as the
+     *            parent for any spans created in this method.
+     * @return A future indicating the outcome of the operation.
+     *         <p>
+     *         The future will be succeeded if the device connection information has been updated.
+     *         Otherwise the future will be failed with a {@link org.eclipse.hono.client.ServiceInvocationException}.
+     * @throws NullPointerException if any of the parameters except lifespan is {@code null}.
+     */
+    Future<Void> setCommandHandlingAdapterInstances(String tenantId, Set<String> deviceIds, String adapterInstanceId,
+            Duration lifespan, Span span);
+
     /**
      * Removes the mapping information that associates the given device with the given protocol adapter instance
      * that handles commands for the given device. The mapping entry is only deleted if its value
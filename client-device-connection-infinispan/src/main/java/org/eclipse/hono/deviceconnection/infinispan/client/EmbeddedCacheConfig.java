@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.hono.deviceconnection.infinispan.client;
+
+import java.util.Objects;
+
+import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.configuration.parsing.ConfigurationBuilderHolder;
+
+/**
+ * Embedded cache configuration options.
+ */
+public class EmbeddedCacheConfig {
+
+    /**
+     * The default path to the Infinispan configuration file.
+     */
+    public static final String DEFAULT_CONFIGURATION_FILE = "/etc/hono/cache-config.xml";
+
+    private String configurationFile = DEFAULT_CONFIGURATION_FILE;
+    private boolean offHeapStorageEnabled = false;
+    private String persistenceLocation;
+
+    /**
+     * Creates properties for default values.
+     */
+    public EmbeddedCacheConfig() {
+        super();
+    }
+
+    /**
+     * Creates properties for existing options.
+     *
+     * @param options The options to copy.
+     */
+    public EmbeddedCacheConfig(final EmbeddedCacheOptions options) {
+        super();
+        setConfigurationFile(options.configurationFile());
+        setOffHeapStorageEnabled(options.offHeapStorageEnabled());
+        options.persistenceLocation().ifPresent(this::setPersistenceLocation);
+    }
+
+    /**
+     * Sets the path to the Infinispan configuration file to configure the cache with.
+     *
+     * @param configurationFile The path.
+     * @throws NullPointerException if path is {@code null}.
+     */
+    public void setConfigurationFile(final String configurationFile) {
+        this.configurationFile = Objects.requireNonNull(configurationFile);
+    }
+
+    /**
+     * Gets the path to the Infinispan configuration file to configure the cache with.
+     *
+     * @return The path.
+     */
+    public String getConfigurationFile() {
+        return configurationFile;
+    }
+
+    /**
+     * Sets whether the entries of the cache should be stored outside of the Java heap.
+     * <p>
+     * Storing the entries off-heap reduces the pressure on the garbage collector for caches
+     * containing a large number of entries. The default value of this property is {@code false}.
+     *
+     * @param enabled {@code true} if entries should be stored off-heap.
+     */
+    public void setOffHeapStorageEnabled(final boolean enabled) {
+        this.offHeapStorageEnabled = enabled;
+    }
+
+    /**
+     * Checks whether the entries of the cache should be stored outside of the Java heap.
+     *
+     * @return {@code true} if entries should be stored off-heap.
+     */
+    public boolean isOffHeapStorageEnabled() {
+        return offHeapStorageEnabled;
+    }
+
+    /**
+     * Sets the path to the folder to persist the entries of the cache in.
+     * <p>
+     * Persisted entries are loaded into the cache on startup, which allows a restarted
+     * component to continue using the entries that have been written before the restart.
+     * The default value of this property is {@code null}, meaning that entries are not persisted.
+     *
+     * @param persistenceLocation The path or {@code null} if the entries should not be persisted.
+     */
+    public void setPersistenceLocation(final String persistenceLocation) {
+        this.persistenceLocation = persistenceLocation;
+    }
+
+    /**
+     * Gets the path to the folder to persist the entries of the cache in.
+     *
+     * @return The path or {@code null} if the entries should not be persisted.
+     */
+    public String getPersistenceLocation() {
+        return persistenceLocation;
+    }
+
+    /**
+     * Creates the configuration to use for the cache if the configuration file does not exist.
+     *
+     * @param cacheName The name of the cache.
+     * @return The configuration.
+     * @throws NullPointerException if cache name is {@code null}.
+     */
+    public ConfigurationBuilderHolder createDefaultConfiguration(final String cacheName) {
+        Objects.requireNonNull(cacheName);
+
+        final var builderHolder = new ConfigurationBuilderHolder();
+        final var builder = builderHolder.newConfigurationBuilder(cacheName);
+        if (offHeapStorageEnabled) {
+            builder.memory().storage(StorageType.OFF_HEAP);
+        }
+        if (persistenceLocation != null) {
+            // file stores need to be located within the global state's persistent location
+            builderHolder.getGlobalConfigurationBuilder().globalState()
+                .enable()
+                .persistentLocation(persistenceLocation);
+            builder.persistence()
+                .addSoftIndexFileStore()
+                .preload(true)
+                .purgeOnStartup(false);
+        }
+        return builderHolder;
+    }
+}
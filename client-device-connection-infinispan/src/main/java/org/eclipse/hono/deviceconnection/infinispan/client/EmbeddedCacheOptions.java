@@ -0,0 +1,55 @@
+/**
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.hono.deviceconnection.infinispan.client;
+
+import java.util.Optional;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.ConfigMapping.NamingStrategy;
+import io.smallrye.config.WithDefault;
+
+/**
+ * Options for configuring an embedded cache.
+ *
+ */
+@ConfigMapping(prefix = "hono.cache.embedded", namingStrategy = NamingStrategy.VERBATIM)
+public interface EmbeddedCacheOptions {
+
+    /**
+     * Gets the path to the Infinispan configuration file to configure the cache with.
+     *
+     * @return The path.
+     */
+    @WithDefault(EmbeddedCacheConfig.DEFAULT_CONFIGURATION_FILE)
+    String configurationFile();
+
+    /**
+     * Checks whether the entries of the cache should be stored outside of the Java heap.
+     * <p>
+     * This option is only used if the configuration file does not exist.
+     *
+     * @return {@code true} if entries should be stored off-heap.
+     */
+    @WithDefault("false")
+    boolean offHeapStorageEnabled();
+
+    /**
+     * Gets the path to the folder to persist the entries of the cache in.
+     * <p>
+     * This option is only used if the configuration file does not exist.
+     *
+     * @return The path or an empty optional if the entries should not be persisted.
+     */
+    Optional<String> persistenceLocation();
+}
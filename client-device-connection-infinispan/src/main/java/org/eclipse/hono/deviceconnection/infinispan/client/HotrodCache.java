@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2020, 2021 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -15,12 +15,27 @@ package org.eclipse.hono.deviceconnection.infinispan.client;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import org.infinispan.client.hotrod.RemoteCache;
 import org.infinispan.client.hotrod.RemoteCacheContainer;
 import org.infinispan.client.hotrod.RemoteCacheManager;
+import org.infinispan.client.hotrod.annotation.ClientCacheEntryCreated;
+import org.infinispan.client.hotrod.annotation.ClientCacheEntryExpired;
+import org.infinispan.client.hotrod.annotation.ClientCacheEntryModified;
+import org.infinispan.client.hotrod.annotation.ClientCacheEntryRemoved;
+import org.infinispan.client.hotrod.annotation.ClientCacheFailover;
+import org.infinispan.client.hotrod.annotation.ClientListener;
+import org.infinispan.client.hotrod.event.ClientCacheEntryCreatedEvent;
+import org.infinispan.client.hotrod.event.ClientCacheEntryExpiredEvent;
+import org.infinispan.client.hotrod.event.ClientCacheEntryModifiedEvent;
+import org.infinispan.client.hotrod.event.ClientCacheEntryRemovedEvent;
+import org.infinispan.client.hotrod.event.ClientCacheFailoverEvent;
 import org.infinispan.commons.marshall.ProtoStreamMarshaller;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -52,6 +67,7 @@ public final class HotrodCache<K, V> extends BasicCache<K, V> {
 
     private final K connectionCheckKey;
     private final V connectionCheckValue;
+    private final List<EntryInvalidationListener<K>> invalidationListeners = new CopyOnWriteArrayList<>();
 
     private ConnectionCheckResult lastConnectionCheckResult;
 
@@ -133,6 +149,11 @@ public final class HotrodCache<K, V> extends BasicCache<K, V> {
                         r.fail(new IllegalStateException("remote cache [" + cacheName + "] does not exist"));
                     } else {
                         cache.start();
+                        invalidationListeners.forEach(listener -> {
+                            cache.addClientListener(listener);
+                            // events might have been missed while not being connected
+                            listener.invalidateAll();
+                        });
                         setCache(cache);
                         r.complete(cache);
                     }
@@ -156,6 +177,54 @@ public final class HotrodCache<K, V> extends BasicCache<K, V> {
         return result.future();
     }
 
+    /**
+     * Adds handlers to be notified about entries of the remote cache that have been
+     * created, modified, removed or expired by any client of the data grid.
+     * <p>
+     * The handlers are registered with the remote cache by means of a Hotrod client listener
+     * once the connection to the cache has been established. This method is therefore
+     * expected to be invoked before this cache is started.
+     * <p>
+     * The handlers are invoked on a thread of the Hotrod client and therefore need to be thread-safe.
+     *
+     * @param keyInvalidatedHandler The handler to invoke with the key of an entry that has been changed.
+     * @param allInvalidatedHandler The handler to invoke when all entries need to be considered changed,
+     *                              e.g. after a (re-)connect to the data grid or a fail-over to another server.
+     * @throws NullPointerException if any of the parameters are {@code null}.
+     */
+    public void addEntryInvalidationHandlers(
+            final Consumer<K> keyInvalidatedHandler,
+            final Runnable allInvalidatedHandler) {
+        addEntryInvalidationHandlers(key -> true, keyInvalidatedHandler, allInvalidatedHandler);
+    }
+
+    /**
+     * Adds handlers to be notified about entries of the remote cache that have been
+     * created, modified, removed or expired by any client of the data grid.
+     * <p>
+     * Same as {@link #addEntryInvalidationHandlers(Consumer, Runnable)} except that the key handler is
+     * only invoked for keys matching the given filter. The filter is applied to the events received from
+     * the data grid, i.e. on the client side, because a server side filter requires a filter factory
+     * to be deployed to the data grid's servers.
+     *
+     * @param keyFilter The filter that the keys of changed entries need to match for the key handler to be invoked.
+     * @param keyInvalidatedHandler The handler to invoke with the key of an entry that has been changed.
+     * @param allInvalidatedHandler The handler to invoke when all entries need to be considered changed,
+     *                              e.g. after a (re-)connect to the data grid or a fail-over to another server.
+     * @throws NullPointerException if any of the parameters are {@code null}.
+     */
+    public void addEntryInvalidationHandlers(
+            final Predicate<K> keyFilter,
+            final Consumer<K> keyInvalidatedHandler,
+            final Runnable allInvalidatedHandler) {
+
+        Objects.requireNonNull(keyFilter);
+        Objects.requireNonNull(keyInvalidatedHandler);
+        Objects.requireNonNull(allInvalidatedHandler);
+
+        invalidationListeners.add(new EntryInvalidationListener<>(keyFilter, keyInvalidatedHandler, allInvalidatedHandler));
+    }
+
     @Override
     protected boolean isStarted() {
         return cacheManager.isStarted() && getCache() != null;
@@ -199,6 +268,90 @@ public final class HotrodCache<K, V> extends BasicCache<K, V> {
         }
     }
 
+    /**
+     * A Hotrod client listener that forwards events about changed entries to invalidation handlers.
+     *
+     * @param <K> The type of keys used by the cache.
+     */
+    @ClientListener
+    public static final class EntryInvalidationListener<K> {
+
+        private final Predicate<K> keyFilter;
+        private final Consumer<K> keyInvalidatedHandler;
+        private final Runnable allInvalidatedHandler;
+
+        private EntryInvalidationListener(
+                final Predicate<K> keyFilter,
+                final Consumer<K> keyInvalidatedHandler,
+                final Runnable allInvalidatedHandler) {
+            this.keyFilter = keyFilter;
+            this.keyInvalidatedHandler = keyInvalidatedHandler;
+            this.allInvalidatedHandler = allInvalidatedHandler;
+        }
+
+        /**
+         * Handles the creation of an entry.
+         *
+         * @param event The event.
+         */
+        @ClientCacheEntryCreated
+        public void onEntryCreated(final ClientCacheEntryCreatedEvent<K> event) {
+            invalidate(event.getKey());
+        }
+
+        /**
+         * Handles the modification of an entry.
+         *
+         * @param event The event.
+         */
+        @ClientCacheEntryModified
+        public void onEntryModified(final ClientCacheEntryModifiedEvent<K> event) {
+            invalidate(event.getKey());
+        }
+
+        /**
+         * Handles the removal of an entry.
+         *
+         * @param event The event.
+         */
+        @ClientCacheEntryRemoved
+        public void onEntryRemoved(final ClientCacheEntryRemovedEvent<K> event) {
+            invalidate(event.getKey());
+        }
+
+        /**
+         * Handles the expiration of an entry.
+         *
+         * @param event The event.
+         */
+        @ClientCacheEntryExpired
+        public void onEntryExpired(final ClientCacheEntryExpiredEvent<K> event) {
+            invalidate(event.getKey());
+        }
+
+        /**
+         * Handles the fail-over to another server of the data grid.
+         * <p>
+         * Events might have been missed during the fail-over.
+         *
+         * @param event The event.
+         */
+        @ClientCacheFailover
+        public void onFailover(final ClientCacheFailoverEvent event) {
+            invalidateAll();
+        }
+
+        private void invalidate(final K key) {
+            if (keyFilter.test(key)) {
+                keyInvalidatedHandler.accept(key);
+            }
+        }
+
+        private void invalidateAll() {
+            allInvalidatedHandler.run();
+        }
+    }
+
     /**
      * Keeps the result of a connection check.
      */
@@ -0,0 +1,173 @@
+/**
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.hono.deviceconnection.infinispan.client;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.hono.util.Futures;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+
+/**
+ * Coalesces updates of last known gateway cache entries and writes them to the cache in batches.
+ * <p>
+ * Updates are collected for a configurable amount of time and are then written to the cache by means
+ * of a single {@code putAll} operation. Multiple updates of the same entry within that time frame
+ * result in only the most recent value being written. Updates that would set an entry to the value that
+ * has already been written by this coalescer within the configurable refresh interval are skipped altogether.
+ * <p>
+ * Note that skipping updates means that a value written by another client of the cache in the
+ * meantime will not be overwritten before the refresh interval has elapsed.
+ */
+final class LastKnownGatewayUpdateCoalescer {
+
+    /**
+     * The maximum number of entries to write in a single batch.
+     */
+    static final int MAX_BATCH_SIZE = 500;
+
+    private static final Logger LOG = LoggerFactory.getLogger(LastKnownGatewayUpdateCoalescer.class);
+
+    private final Vertx vertx;
+    private final Cache<String, String> cache;
+    private final long lifespanMillis;
+    private final long maxDelayMillis;
+    private final com.github.benmanes.caffeine.cache.Cache<String, String> recentlyWrittenValues;
+
+    private Map<String, String> pendingValues = new HashMap<>();
+    private Promise<Void> pendingWrite = Promise.promise();
+
+    /**
+     * Creates a new coalescer.
+     *
+     * @param vertx The vert.x instance to use for scheduling the writes.
+     * @param cache The cache to write the entries to.
+     * @param lifespan The lifespan of the written entries.
+     * @param maxDelay The maximum amount of time to delay writing an entry. If zero, entries are written right away.
+     * @param refreshInterval The amount of time during which an update to an unchanged value is skipped.
+     *                        If zero, updates are never skipped.
+     * @throws NullPointerException if any of the parameters are {@code null}.
+     * @throws IllegalArgumentException if max delay or refresh interval are negative or if the refresh interval
+     *                                  is not shorter than the lifespan.
+     */
+    LastKnownGatewayUpdateCoalescer(
+            final Vertx vertx,
+            final Cache<String, String> cache,
+            final Duration lifespan,
+            final Duration maxDelay,
+            final Duration refreshInterval) {
+
+        this.vertx = Objects.requireNonNull(vertx);
+        this.cache = Objects.requireNonNull(cache);
+        Objects.requireNonNull(lifespan);
+        Objects.requireNonNull(maxDelay);
+        Objects.requireNonNull(refreshInterval);
+
+        if (maxDelay.isNegative()) {
+            throw new IllegalArgumentException("max delay must not be negative");
+        }
+        if (refreshInterval.isNegative() || refreshInterval.compareTo(lifespan) >= 0) {
+            throw new IllegalArgumentException("refresh interval must not be negative and must be shorter than lifespan");
+        }
+        this.lifespanMillis = lifespan.toMillis();
+        this.maxDelayMillis = maxDelay.toMillis();
+        if (refreshInterval.isZero()) {
+            this.recentlyWrittenValues = null;
+        } else {
+            this.recentlyWrittenValues = Caffeine.newBuilder()
+                    .expireAfterWrite(refreshInterval)
+                    .maximumSize(100_000)
+                    .build();
+        }
+    }
+
+    /**
+     * Updates cache entries.
+     *
+     * @param entries The keys and values of the entries to update.
+     * @return A future indicating the outcome of writing the entries to the cache.
+     *         If this method is invoked from a vert.x Context, then the returned future will be completed on
+     *         that context.
+     * @throws NullPointerException if entries is {@code null}.
+     */
+    Future<Void> putAll(final Map<String, String> entries) {
+        Objects.requireNonNull(entries);
+
+        final Future<Void> result;
+        boolean flushNow = false;
+        synchronized (this) {
+            final boolean wasEmpty = pendingValues.isEmpty();
+            entries.forEach((key, value) -> {
+                if (pendingValues.containsKey(key) || !isRecentlyWritten(key, value)) {
+                    pendingValues.put(key, value);
+                }
+            });
+            if (pendingValues.isEmpty()) {
+                LOG.trace("skipping update of {} unchanged entries", entries.size());
+                return Future.succeededFuture();
+            }
+            result = pendingWrite.future();
+            if (maxDelayMillis == 0 || pendingValues.size() >= MAX_BATCH_SIZE) {
+                flushNow = true;
+            } else if (wasEmpty) {
+                vertx.setTimer(maxDelayMillis, tid -> flush());
+            }
+        }
+        if (flushNow) {
+            flush();
+        }
+        return Futures.completeOnContext(Vertx.currentContext(), result);
+    }
+
+    private boolean isRecentlyWritten(final String key, final String value) {
+        return recentlyWrittenValues != null && value.equals(recentlyWrittenValues.getIfPresent(key));
+    }
+
+    private void flush() {
+        final Map<String, String> valuesToWrite;
+        final Promise<Void> write;
+        synchronized (this) {
+            if (pendingValues.isEmpty()) {
+                // already flushed because the max batch size had been reached
+                return;
+            }
+            valuesToWrite = pendingValues;
+            write = pendingWrite;
+            pendingValues = new HashMap<>();
+            pendingWrite = Promise.promise();
+        }
+        LOG.trace("writing {} last known gateway entries", valuesToWrite.size());
+        if (recentlyWrittenValues != null) {
+            // prevent concurrent updates from being skipped based on outdated values
+            recentlyWrittenValues.invalidateAll(valuesToWrite.keySet());
+        }
+        cache.putAll(valuesToWrite, lifespanMillis, TimeUnit.MILLISECONDS)
+            .onSuccess(ok -> {
+                if (recentlyWrittenValues != null) {
+                    recentlyWrittenValues.putAll(valuesToWrite);
+                }
+            })
+            .onComplete(write);
+    }
+}
@@ -0,0 +1,345 @@
+/**
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.hono.deviceconnection.infinispan.client;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.eclipse.hono.util.Lifecycle;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * A cache that keeps the values read from another (remote) cache in local memory.
+ * <p>
+ * Values are served from local memory until they are invalidated by means of
+ * {@link #invalidate(Object)} or {@link #invalidateAll()}, e.g. when being notified
+ * about changes made to the remote cache by other clients, or until they have
+ * reached the configured maximum staleness. Values written or removed by means of this
+ * cache are invalidated locally right away. The absence of a value is also kept in
+ * local memory.
+ * <p>
+ * Values that have been read from the remote cache are only put to local memory if
+ * no invalidation of the value's key has happened while the read has been in progress.
+ * This is tracked by means of an array of version counters. The counter for a key is selected
+ * by the key's hash code and gets incremented with every invalidation of a key mapped to it.
+ * An invalidation of one key therefore only prevents caching of the values of the (few) other keys
+ * sharing the same counter.
+ *
+ * @param <K> The type of keys used for looking up data.
+ * @param <V> The type of values stored in the cache.
+ */
+public final class NearCache<K, V> implements Cache<K, V>, Lifecycle {
+
+    /**
+     * The name of the meter counting requests for values served from local memory (hits)
+     * and from the remote cache (misses).
+     */
+    public static final String METER_NEAR_CACHE_REQUESTS = "hono.cache.near.requests";
+    /**
+     * The name of the meter tracking the age of the values served from local memory.
+     */
+    public static final String METER_NEAR_CACHE_STALENESS = "hono.cache.near.staleness";
+    /**
+     * The name of the meter counting the invalidations of values kept in local memory.
+     */
+    public static final String METER_NEAR_CACHE_INVALIDATIONS = "hono.cache.near.invalidations";
+    /**
+     * The name of the tag indicating whether a request has been served from local memory.
+     */
+    public static final String TAG_RESULT = "result";
+
+    private static final int VERSION_STRIPES = 4096;
+
+    private final Cache<K, V> delegate;
+    private final com.github.benmanes.caffeine.cache.Cache<K, CachedValue<V>> entries;
+    private final Ticker ticker;
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter invalidations;
+    private final Timer staleness;
+
+    /**
+     * Creates a new near cache.
+     *
+     * @param delegate The (remote) cache to read values from and write values to.
+     * @param maxSize The maximum number of values to keep in local memory.
+     * @param maxStaleness The maximum amount of time that a value is kept in local memory.
+     * @param meterRegistry The registry to register the cache's meters with.
+     * @throws NullPointerException if any of the parameters are {@code null}.
+     * @throws IllegalArgumentException if max size or max staleness are not positive.
+     */
+    public NearCache(
+            final Cache<K, V> delegate,
+            final long maxSize,
+            final Duration maxStaleness,
+            final MeterRegistry meterRegistry) {
+        this(delegate, maxSize, maxStaleness, meterRegistry, Ticker.systemTicker());
+    }
+
+    NearCache(
+            final Cache<K, V> delegate,
+            final long maxSize,
+            final Duration maxStaleness,
+            final MeterRegistry meterRegistry,
+            final Ticker ticker) {
+
+        this.delegate = Objects.requireNonNull(delegate);
+        Objects.requireNonNull(maxStaleness);
+        Objects.requireNonNull(meterRegistry);
+        this.ticker = Objects.requireNonNull(ticker);
+
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("max size must be > 0");
+        }
+        if (maxStaleness.isNegative() || maxStaleness.isZero()) {
+            throw new IllegalArgumentException("max staleness must be > 0");
+        }
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(maxStaleness)
+                .ticker(ticker)
+                .build();
+        this.hits = Counter.builder(METER_NEAR_CACHE_REQUESTS)
+                .tag(TAG_RESULT, "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder(METER_NEAR_CACHE_REQUESTS)
+                .tag(TAG_RESULT, "miss")
+                .register(meterRegistry);
+        this.invalidations = Counter.builder(METER_NEAR_CACHE_INVALIDATIONS)
+                .register(meterRegistry);
+        this.staleness = Timer.builder(METER_NEAR_CACHE_STALENESS)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Removes a value from local memory.
+     * <p>
+     * This method is thread-safe.
+     *
+     * @param key The key of the value to remove.
+     * @throws NullPointerException if key is {@code null}.
+     */
+    public void invalidate(final K key) {
+        Objects.requireNonNull(key);
+        versions.incrementAndGet(stripe(key));
+        entries.invalidate(key);
+        invalidations.increment();
+    }
+
+    /**
+     * Removes all values from local memory.
+     * <p>
+     * This method is thread-safe.
+     */
+    public void invalidateAll() {
+        for (int i = 0; i < VERSION_STRIPES; i++) {
+            versions.incrementAndGet(i);
+        }
+        entries.invalidateAll();
+        invalidations.increment();
+    }
+
+    private void invalidateAll(final Collection<? extends K> keys) {
+        keys.forEach(this::invalidate);
+    }
+
+    private static int stripe(final Object key) {
+        final int hash = key.hashCode();
+        // spread the higher bits of the hash code to the lower ones
+        return (hash ^ (hash >>> 16)) & (VERSION_STRIPES - 1);
+    }
+
+    private long getVersion(final K key) {
+        return versions.get(stripe(key));
+    }
+
+    private CachedValue<V> getCachedValue(final K key) {
+        final CachedValue<V> cachedValue = entries.getIfPresent(key);
+        if (cachedValue == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+            staleness.record(ticker.read() - cachedValue.creationTime, TimeUnit.NANOSECONDS);
+        }
+        return cachedValue;
+    }
+
+    private void putCachedValue(final K key, final V value, final long versionBeforeRead) {
+        if (getVersion(key) != versionBeforeRead) {
+            return;
+        }
+        final CachedValue<V> cachedValue = new CachedValue<>(value, ticker.read());
+        entries.put(key, cachedValue);
+        if (getVersion(key) != versionBeforeRead) {
+            // an invalidation has happened concurrently
+            entries.asMap().remove(key, cachedValue);
+        }
+    }
+
+    @Override
+    public Future<JsonObject> checkForCacheAvailability() {
+        return delegate.checkForCacheAvailability();
+    }
+
+    @Override
+    public Future<Void> put(final K key, final V value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+
+        invalidate(key);
+        return delegate.put(key, value)
+                .onComplete(ar -> invalidate(key));
+    }
+
+    @Override
+    public Future<Void> put(final K key, final V value, final long lifespan, final TimeUnit lifespanUnit) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        Objects.requireNonNull(lifespanUnit);
+
+        invalidate(key);
+        return delegate.put(key, value, lifespan, lifespanUnit)
+                .onComplete(ar -> invalidate(key));
+    }
+
+    @Override
+    public Future<Void> putAll(final Map<? extends K, ? extends V> data) {
+        Objects.requireNonNull(data);
+
+        invalidateAll(data.keySet());
+        return delegate.putAll(data)
+                .onComplete(ar -> invalidateAll(data.keySet()));
+    }
+
+    @Override
+    public Future<Void> putAll(final Map<? extends K, ? extends V> data, final long lifespan, final TimeUnit lifespanUnit) {
+        Objects.requireNonNull(data);
+        Objects.requireNonNull(lifespanUnit);
+
+        invalidateAll(data.keySet());
+        return delegate.putAll(data, lifespan, lifespanUnit)
+                .onComplete(ar -> invalidateAll(data.keySet()));
+    }
+
+    @Override
+    public Future<Boolean> remove(final K key, final V value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+
+        invalidate(key);
+        return delegate.remove(key, value)
+                .onComplete(ar -> invalidate(key));
+    }
+
+    @Override
+    public Future<V> get(final K key) {
+        Objects.requireNonNull(key);
+
+        final CachedValue<V> cachedValue = getCachedValue(key);
+        if (cachedValue != null) {
+            return Future.succeededFuture(cachedValue.value);
+        }
+        final long versionBeforeRead = getVersion(key);
+        return delegate.get(key)
+                .onSuccess(value -> putCachedValue(key, value, versionBeforeRead));
+    }
+
+    @Override
+    public Future<Map<K, V>> getAll(final Set<? extends K> keys) {
+        Objects.requireNonNull(keys);
+
+        final Map<K, V> result = new HashMap<>(keys.size());
+        final Map<K, Long> keysToRead = new HashMap<>();
+        for (final K key : keys) {
+            final CachedValue<V> cachedValue = getCachedValue(key);
+            if (cachedValue == null) {
+                keysToRead.put(key, getVersion(key));
+            } else if (cachedValue.value != null) {
+                result.put(key, cachedValue.value);
+            }
+        }
+        if (keysToRead.isEmpty()) {
+            return Future.succeededFuture(result);
+        }
+        return delegate.getAll(keysToRead.keySet())
+                .map(values -> {
+                    keysToRead.forEach((key, versionBeforeRead) -> {
+                        final V value = values.get(key);
+                        putCachedValue(key, value, versionBeforeRead);
+                        if (value != null) {
+                            result.put(key, value);
+                        }
+                    });
+                    return result;
+                });
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Starts the underlying cache if it implements {@link Lifecycle}.
+     */
+    @Override
+    public Future<Void> start() {
+        if (delegate instanceof Lifecycle) {
+            return ((Lifecycle) delegate).start();
+        }
+        return Future.succeededFuture();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Stops the underlying cache if it implements {@link Lifecycle}.
+     */
+    @Override
+    public Future<Void> stop() {
+        invalidateAll();
+        if (delegate instanceof Lifecycle) {
+            return ((Lifecycle) delegate).stop();
+        }
+        return Future.succeededFuture();
+    }
+
+    /**
+     * A value kept in local memory.
+     *
+     * @param <V> The type of value.
+     */
+    private static final class CachedValue<V> {
+
+        private final V value;
+        private final long creationTime;
+
+        CachedValue(final V value, final long creationTime) {
+            this.value = value;
+            this.creationTime = creationTime;
+        }
+    }
+}
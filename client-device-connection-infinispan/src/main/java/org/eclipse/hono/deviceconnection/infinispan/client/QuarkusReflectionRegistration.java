@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2022, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -22,6 +22,7 @@ import io.quarkus.runtime.annotations.RegisterForReflection;
  */
 @RegisterForReflection(
         targets = {
+            HotrodCache.EntryInvalidationListener.class,
             io.netty.channel.socket.nio.NioSocketChannel.class,
             org.infinispan.CoreModuleImpl.class,
             org.infinispan.client.hotrod.impl.async.DefaultAsyncExecutorFactory.class,
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2020, 2021 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -24,6 +24,7 @@ import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -53,8 +54,10 @@ import org.junit.jupiter.params.provider.MethodSource;
 
 import io.opentracing.Span;
 import io.opentracing.Tracer;
+import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.junit5.Timeout;
@@ -181,6 +184,64 @@ public class CacheBasedDeviceConnectionInfoTest {
             }));
     }
 
+    /**
+     * Verifies that updates of the last known gateway are written to the cache in a single batch
+     * containing only the most recent value per device if coalescing is enabled.
+     *
+     * @param vertx The vert.x instance.
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testSetLastKnownGatewayCoalescesUpdates(final Vertx vertx, final VertxTestContext ctx) {
+
+        when(cache.putAll(anyMap(), anyLong(), any(TimeUnit.class))).thenReturn(Future.succeededFuture());
+        final var coalescingInfo = new CacheBasedDeviceConnectionInfo(cache, tracer);
+        coalescingInfo.setLastKnownGatewayUpdateCoalescing(vertx, Duration.ofMillis(50), Duration.ZERO);
+
+        CompositeFuture.all(
+                coalescingInfo.setLastKnownGatewayForDevice(Constants.DEFAULT_TENANT, "device-id", "gw-id", span),
+                coalescingInfo.setLastKnownGatewayForDevice(Constants.DEFAULT_TENANT, "device-id2", "gw-id", span),
+                coalescingInfo.setLastKnownGatewayForDevice(Constants.DEFAULT_TENANT, "device-id", "gw-id2", span))
+            .onComplete(ctx.succeeding(ok -> {
+                ctx.verify(() -> {
+                    verify(cache).putAll(
+                            eq(Map.of(
+                                    CacheBasedDeviceConnectionInfo.getGatewayEntryKey(Constants.DEFAULT_TENANT, "device-id"),
+                                    "gw-id2",
+                                    CacheBasedDeviceConnectionInfo.getGatewayEntryKey(Constants.DEFAULT_TENANT, "device-id2"),
+                                    "gw-id")),
+                            anyLong(),
+                            any(TimeUnit.class));
+                    verify(cache, never()).put(anyString(), anyString(), anyLong(), any(TimeUnit.class));
+                });
+                ctx.completeNow();
+            }));
+    }
+
+    /**
+     * Verifies that an update of the last known gateway is skipped if the value has already been written
+     * within the refresh interval.
+     *
+     * @param vertx The vert.x instance.
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testSetLastKnownGatewaySkipsUnchangedValue(final Vertx vertx, final VertxTestContext ctx) {
+
+        when(cache.putAll(anyMap(), anyLong(), any(TimeUnit.class))).thenReturn(Future.succeededFuture());
+        final var coalescingInfo = new CacheBasedDeviceConnectionInfo(cache, tracer);
+        coalescingInfo.setLastKnownGatewayUpdateCoalescing(vertx, Duration.ZERO, Duration.ofMinutes(1));
+
+        coalescingInfo.setLastKnownGatewayForDevice(Constants.DEFAULT_TENANT, "device-id", "gw-id", span)
+            .compose(ok -> coalescingInfo.setLastKnownGatewayForDevice(Constants.DEFAULT_TENANT, "device-id", "gw-id", span))
+            .onSuccess(ok -> ctx.verify(() -> verify(cache, times(1)).putAll(anyMap(), anyLong(), any(TimeUnit.class))))
+            .compose(ok -> coalescingInfo.setLastKnownGatewayForDevice(Constants.DEFAULT_TENANT, "device-id", "gw-id2", span))
+            .onComplete(ctx.succeeding(ok -> {
+                ctx.verify(() -> verify(cache, times(2)).putAll(anyMap(), anyLong(), any(TimeUnit.class)));
+                ctx.completeNow();
+            }));
+    }
+
     /**
      * Verifies that a last known gateway can be successfully retrieved.
      *
@@ -294,6 +355,35 @@ public class CacheBasedDeviceConnectionInfoTest {
                 }));
     }
 
+    /**
+     * Verifies that the <em>setCommandHandlingAdapterInstances</em> operation writes the entries of all
+     * devices by means of a single operation.
+     *
+     * @param ctx The vert.x context.
+     */
+    @Test
+    public void testSetCommandHandlingAdapterInstancesUsesSinglePutAll(final VertxTestContext ctx) {
+
+        when(cache.putAll(anyMap(), anyLong(), any(TimeUnit.class))).thenReturn(Future.succeededFuture());
+
+        info.setCommandHandlingAdapterInstances(Constants.DEFAULT_TENANT, Set.of("device1", "device2"),
+                "adapterInstance", Duration.ofSeconds(10), span)
+                .onComplete(ctx.succeeding(ok -> {
+                    ctx.verify(() -> {
+                        verify(cache).putAll(
+                                eq(Map.of(
+                                        CacheBasedDeviceConnectionInfo.getAdapterInstanceEntryKey(Constants.DEFAULT_TENANT, "device1"),
+                                        "adapterInstance",
+                                        CacheBasedDeviceConnectionInfo.getAdapterInstanceEntryKey(Constants.DEFAULT_TENANT, "device2"),
+                                        "adapterInstance")),
+                                eq(10_000L),
+                                eq(TimeUnit.MILLISECONDS));
+                        verify(cache, never()).put(anyString(), anyString(), anyLong(), any(TimeUnit.class));
+                    });
+                    ctx.completeNow();
+                }));
+    }
+
     /**
      * Verifies that the <em>removeCommandHandlingAdapterInstance</em> operation succeeds if there was an entry to be deleted.
      *
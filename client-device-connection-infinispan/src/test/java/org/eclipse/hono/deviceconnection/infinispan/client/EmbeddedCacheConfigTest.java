@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.hono.deviceconnection.infinispan.client;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.manager.DefaultCacheManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests verifying behavior of {@link EmbeddedCacheConfig}.
+ *
+ */
+public class EmbeddedCacheConfigTest {
+
+    private static final String CACHE_NAME = "the-cache";
+
+    /**
+     * Verifies that the default configuration stores entries on the heap and does not persist them.
+     */
+    @Test
+    public void testDefaultConfigurationUsesHeapStorage() {
+
+        final Configuration configuration = new EmbeddedCacheConfig()
+                .createDefaultConfiguration(CACHE_NAME)
+                .getNamedConfigurationBuilders().get(CACHE_NAME)
+                .build();
+
+        assertThat(configuration.memory().storage()).isEqualTo(StorageType.HEAP);
+        assertThat(configuration.persistence().usingStores()).isFalse();
+    }
+
+    /**
+     * Verifies that entries written to an off-heap cache with persistence enabled are still available
+     * after the cache has been restarted.
+     *
+     * @param persistenceLocation The folder to persist the entries in.
+     */
+    @Test
+    public void testPersistedEntriesSurviveRestart(@TempDir final Path persistenceLocation) {
+
+        final var config = new EmbeddedCacheConfig();
+        config.setOffHeapStorageEnabled(true);
+        config.setPersistenceLocation(persistenceLocation.toString());
+
+        final var cacheManager = new DefaultCacheManager(config.createDefaultConfiguration(CACHE_NAME), true);
+        try {
+            final var cache = cacheManager.<String, String>getCache(CACHE_NAME);
+            assertThat(cache.getCacheConfiguration().memory().storage()).isEqualTo(StorageType.OFF_HEAP);
+            cache.put("device", "adapter-instance", 1, TimeUnit.HOURS);
+        } finally {
+            cacheManager.stop();
+        }
+
+        final var restartedCacheManager = new DefaultCacheManager(config.createDefaultConfiguration(CACHE_NAME), true);
+        try {
+            assertThat(restartedCacheManager.<String, String>getCache(CACHE_NAME).get("device"))
+                    .isEqualTo("adapter-instance");
+        } finally {
+            restartedCacheManager.stop();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.hono.deviceconnection.infinispan.client;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+
+/**
+ * Tests verifying behavior of {@link NearCache}.
+ *
+ */
+public class NearCacheTest {
+
+    private Cache<String, String> remoteCache;
+    private MeterRegistry meterRegistry;
+    private AtomicLong nanoTime;
+    private NearCache<String, String> cache;
+
+    /**
+     * Sets up the fixture.
+     */
+    @SuppressWarnings("unchecked")
+    @BeforeEach
+    public void setUp() {
+        remoteCache = mock(Cache.class);
+        meterRegistry = new SimpleMeterRegistry();
+        nanoTime = new AtomicLong();
+        cache = new NearCache<>(remoteCache, 100, Duration.ofSeconds(5), meterRegistry, nanoTime::get);
+    }
+
+    private double getRequestCount(final String result) {
+        return meterRegistry.find(NearCache.METER_NEAR_CACHE_REQUESTS)
+                .tag(NearCache.TAG_RESULT, result)
+                .counter()
+                .count();
+    }
+
+    /**
+     * Verifies that a value is served from local memory once it has been read from the remote cache
+     * until it exceeds the maximum staleness.
+     */
+    @Test
+    public void testGetServesValueFromLocalMemory() {
+
+        when(remoteCache.get(anyString())).thenReturn(Future.succeededFuture("value"));
+
+        assertThat(cache.get("key").result()).isEqualTo("value");
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertThat(cache.get("key").result()).isEqualTo("value");
+        verify(remoteCache, times(1)).get("key");
+        assertThat(getRequestCount("hit")).isEqualTo(1.0);
+        assertThat(getRequestCount("miss")).isEqualTo(1.0);
+        assertThat(meterRegistry.find(NearCache.METER_NEAR_CACHE_STALENESS).timer().max(TimeUnit.SECONDS))
+                .isEqualTo(2.0);
+
+        // the value has exceeded the max staleness
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(4));
+        assertThat(cache.get("key").result()).isEqualTo("value");
+        verify(remoteCache, times(2)).get("key");
+    }
+
+    /**
+     * Verifies that writing or invalidating a value results in the value being read from the remote cache again.
+     */
+    @Test
+    public void testPutAndInvalidateRemoveValueFromLocalMemory() {
+
+        when(remoteCache.get(anyString())).thenReturn(Future.succeededFuture("value"));
+        when(remoteCache.put(anyString(), anyString(), anyLong(), any(TimeUnit.class)))
+                .thenReturn(Future.succeededFuture());
+
+        cache.get("key");
+        cache.put("key", "other-value", 10, TimeUnit.SECONDS);
+        cache.get("key");
+        verify(remoteCache, times(2)).get("key");
+
+        cache.invalidate("key");
+        cache.get("key");
+        verify(remoteCache, times(3)).get("key");
+        cache.get("key");
+        verify(remoteCache, times(3)).get("key");
+    }
+
+    /**
+     * Verifies that a value read from the remote cache is not kept in local memory if
+     * an invalidation happened while the read has been in progress.
+     */
+    @Test
+    public void testGetDoesNotKeepValueInvalidatedDuringRead() {
+
+        final Promise<String> remoteRead = Promise.promise();
+        when(remoteCache.get(anyString())).thenReturn(remoteRead.future(), Future.succeededFuture("new-value"));
+
+        final Future<String> result = cache.get("key");
+        cache.invalidate("key");
+        remoteRead.complete("old-value");
+        assertThat(result.result()).isEqualTo("old-value");
+
+        assertThat(cache.get("key").result()).isEqualTo("new-value");
+        verify(remoteCache, times(2)).get("key");
+    }
+
+    /**
+     * Verifies that a value read from the remote cache is kept in local memory if
+     * only the value of another key has been invalidated while the read has been in progress.
+     */
+    @Test
+    public void testGetKeepsValueIfOtherKeyIsInvalidatedDuringRead() {
+
+        final Promise<String> remoteRead = Promise.promise();
+        when(remoteCache.get(anyString())).thenReturn(remoteRead.future());
+
+        final Future<String> result = cache.get("key");
+        cache.invalidate("other-key");
+        remoteRead.complete("value");
+        assertThat(result.result()).isEqualTo("value");
+
+        assertThat(cache.get("key").result()).isEqualTo("value");
+        verify(remoteCache, times(1)).get("key");
+    }
+
+    /**
+     * Verifies that only the values that are not kept in local memory are read from the remote cache
+     * and that the absence of values is kept in local memory as well.
+     */
+    @Test
+    public void testGetAllReadsMissingValuesOnly() {
+
+        when(remoteCache.get(anyString())).thenReturn(Future.succeededFuture("value1"));
+        when(remoteCache.getAll(any())).thenReturn(Future.succeededFuture(Map.of("key2", "value2")));
+
+        cache.get("key1");
+        final Map<String, String> values = cache.getAll(Set.of("key1", "key2", "key3")).result();
+        assertThat(values).containsExactly("key1", "value1", "key2", "value2");
+        verify(remoteCache).getAll(eq(Set.of("key2", "key3")));
+
+        assertThat(cache.getAll(Set.of("key1", "key2", "key3")).result()).isEqualTo(values);
+        verify(remoteCache, times(1)).getAll(any());
+        assertThat(getRequestCount("hit")).isEqualTo(4.0);
+        assertThat(getRequestCount("miss")).isEqualTo(3.0);
+    }
+}
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2021, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2021, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -15,6 +15,7 @@ package org.eclipse.hono.deviceconnection.infinispan.client;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import java.time.Duration;
 import java.util.List;
 
 import javax.security.sasl.Sasl;
@@ -25,8 +26,8 @@ import org.infinispan.client.hotrod.configuration.Configuration;
 import org.junit.jupiter.api.Test;
 
 /**
- * Tests verifying binding of configuration properties to {@link CommonCacheConfig} and
- * {@link InfinispanRemoteConfigurationProperties}.
+ * Tests verifying binding of configuration properties to {@link CommonCacheConfig},
+ * {@link EmbeddedCacheConfig} and {@link InfinispanRemoteConfigurationProperties}.
  *
  */
 public class QuarkusPropertyBindingTest {
@@ -42,6 +43,21 @@ public class QuarkusPropertyBindingTest {
         assertThat(commonCacheConfig.getCacheName()).isEqualTo("the-cache");
         assertThat(commonCacheConfig.getCheckKey()).isEqualTo("the-key");
         assertThat(commonCacheConfig.getCheckValue()).isEqualTo("the-value");
+        assertThat(commonCacheConfig.getNearCacheMaxSize()).isEqualTo(1000);
+        assertThat(commonCacheConfig.getNearCacheMaxStaleness()).isEqualTo(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void testEmbeddedCacheConfigurationPropertiesArePickedUp() {
+
+        final var embeddedCacheConfig = new EmbeddedCacheConfig(
+                ConfigMappingSupport.getConfigMapping(
+                        EmbeddedCacheOptions.class,
+                        this.getClass().getResource("/embedded-cache-options.yaml")));
+
+        assertThat(embeddedCacheConfig.getConfigurationFile()).isEqualTo("/etc/cache-config.xml");
+        assertThat(embeddedCacheConfig.isOffHeapStorageEnabled()).isTrue();
+        assertThat(embeddedCacheConfig.getPersistenceLocation()).isEqualTo("/var/lib/hono");
     }
 
     @SuppressWarnings("deprecation")
@@ -0,0 +1,186 @@
+/**
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+
+package org.eclipse.hono.client.amqp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+import org.eclipse.hono.client.amqp.connection.HonoConnection;
+import org.eclipse.hono.client.amqp.connection.HonoConnectionPool;
+import org.eclipse.hono.client.util.ServiceClient;
+import org.eclipse.hono.util.Lifecycle;
+import org.eclipse.hono.util.MessagingClient;
+import org.eclipse.hono.util.MessagingType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.ext.healthchecks.HealthCheckHandler;
+
+/**
+ * A base class for implementing Hono service clients that spread their links across the
+ * connections of a {@link HonoConnectionPool}.
+ * <p>
+ * The client creates a delegate client for each of the pool's connections and forwards each
+ * invocation to the delegate that is bound to the connection selected by the pool for the
+ * invocation's key, usually the tenant identifier.
+ *
+ * @param <T> The type of delegate client.
+ */
+public abstract class AbstractPooledServiceClient<T extends AbstractServiceClient>
+        implements MessagingClient, ServiceClient, Lifecycle {
+
+    /**
+     * A logger to be shared with subclasses.
+     */
+    protected final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final HonoConnectionPool connectionPool;
+    private final List<T> clients;
+    private boolean skipConnectDisconnectOnStartStop = false;
+
+    /**
+     * Creates a new client.
+     *
+     * @param connectionPool The pool of connections to the Hono service.
+     * @param clientFactory The factory for creating a delegate client for a connection.
+     * @throws NullPointerException if any of the parameters are {@code null}.
+     */
+    protected AbstractPooledServiceClient(
+            final HonoConnectionPool connectionPool,
+            final Function<HonoConnection, T> clientFactory) {
+
+        this.connectionPool = Objects.requireNonNull(connectionPool);
+        Objects.requireNonNull(clientFactory);
+
+        final List<T> delegates = new ArrayList<>(connectionPool.size());
+        connectionPool.getConnections().forEach(connection -> {
+            final T client = clientFactory.apply(connection);
+            // the connections are managed by this client
+            client.setSkipConnectDisconnectOnStartStop(true);
+            delegates.add(client);
+        });
+        this.clients = List.copyOf(delegates);
+    }
+
+    @Override
+    public final MessagingType getMessagingType() {
+        return MessagingType.amqp;
+    }
+
+    /**
+     * Gets the delegate client to use for a key.
+     *
+     * @param key The key, usually a tenant identifier.
+     * @return The client.
+     * @throws NullPointerException if key is {@code null}.
+     */
+    protected final T getClient(final String key) {
+        return clients.get(connectionPool.getConnectionIndex(key));
+    }
+
+    /**
+     * Gets all delegate clients.
+     *
+     * @return An unmodifiable list of the clients, one for each connection of the pool.
+     */
+    public final List<T> getClients() {
+        return clients;
+    }
+
+    /**
+     * Sets whether connection establishment on {@link #start()} and shutdown on {@link #stop()} shall be skipped.
+     * <p>
+     * This setting is {@code false} by default and should be enabled if the client is shared and connection
+     * establishment/shutdown is done elsewhere by means of the connection pool.
+     *
+     * @param skipConnectDisconnectOnStartStop {@code true} if connection establishment/shutdown shall be skipped.
+     */
+    public final void setSkipConnectDisconnectOnStartStop(final boolean skipConnectDisconnectOnStartStop) {
+        this.skipConnectDisconnectOnStartStop = skipConnectDisconnectOnStartStop;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Registers the readiness checks of all delegate clients.
+     */
+    @Override
+    public void registerReadinessChecks(final HealthCheckHandler readinessHandler) {
+        clients.forEach(client -> client.registerReadinessChecks(readinessHandler));
+    }
+
+    @Override
+    public void registerLivenessChecks(final HealthCheckHandler livenessHandler) {
+        // no liveness checks to be added
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Establishes the connections of the pool, if {@code skipConnectDisconnectOnStartStop} wasn't set,
+     * and starts the delegate clients.
+     */
+    @Override
+    public Future<Void> start() {
+
+        final Future<Void> connectTracker;
+        if (skipConnectDisconnectOnStartStop) {
+            connectTracker = Future.succeededFuture();
+        } else {
+            connectTracker = connectionPool.connect()
+                    .onSuccess(ok -> log.info("{} connections to {} endpoint have been established",
+                            connectionPool.size(), getServerRole()))
+                    .onFailure(t -> log.warn("failed to establish connections to {} endpoint",
+                            getServerRole(), t));
+        }
+        return connectTracker.compose(ok -> {
+            @SuppressWarnings("rawtypes")
+            final List<Future> startTrackers = new ArrayList<>(clients.size());
+            clients.forEach(client -> startTrackers.add(client.start()));
+            return CompositeFuture.all(startTrackers).mapEmpty();
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Stops the delegate clients and shuts down the connections of the pool, if
+     * {@code skipConnectDisconnectOnStartStop} wasn't set.
+     */
+    @Override
+    public Future<Void> stop() {
+
+        @SuppressWarnings("rawtypes")
+        final List<Future> stopTrackers = new ArrayList<>(clients.size());
+        clients.forEach(client -> stopTrackers.add(client.stop()));
+        return CompositeFuture.join(stopTrackers)
+                .eventually(v -> {
+                    if (skipConnectDisconnectOnStartStop) {
+                        return Future.succeededFuture();
+                    }
+                    return connectionPool.shutdown()
+                            .onSuccess(ok -> log.info("connections to {} endpoint have been closed", getServerRole()));
+                })
+                .mapEmpty();
+    }
+
+    private String getServerRole() {
+        return connectionPool.getConnections().get(0).getConfig().getServerRole();
+    }
+}
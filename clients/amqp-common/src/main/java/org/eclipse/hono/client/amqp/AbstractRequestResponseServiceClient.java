@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2016, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -18,6 +18,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -30,9 +31,11 @@ import org.eclipse.hono.client.amqp.connection.AmqpUtils;
 import org.eclipse.hono.client.amqp.connection.HonoConnection;
 import org.eclipse.hono.client.amqp.connection.SendMessageSampler;
 import org.eclipse.hono.client.util.CachingClientFactory;
+import org.eclipse.hono.client.util.ResponseCacheIndex;
 import org.eclipse.hono.client.util.StatusCodeMapper;
 import org.eclipse.hono.tracing.TracingHelper;
 import org.eclipse.hono.util.CacheDirective;
+import org.eclipse.hono.util.Futures;
 import org.eclipse.hono.util.MessageHelper;
 import org.eclipse.hono.util.RequestResponseResult;
 
@@ -40,14 +43,19 @@ import com.github.benmanes.caffeine.cache.Cache;
 
 import io.opentracing.Span;
 import io.opentracing.tag.Tags;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 
 /**
  * A vertx-proton based parent class for the implementation of API clients that follow the request response pattern.
  * <p>
  * Provides support for caching response messages from a service in a Caffeine Cache.
+ * If a {@link ResponseCacheIndex} is provided along with the cache, the keys of cached responses
+ * are indexed by tenant and device so that all responses of a tenant or device can be removed
+ * from the cache without scanning all of its entries.
  *
  * @param <R> The type of response this client expects the peer to return.
  * @param <T> The type of object contained in the peer's response.
@@ -72,6 +80,10 @@ public abstract class AbstractRequestResponseServiceClient<T, R extends RequestR
      * A cache to use for responses received from the service.
      */
     private final Cache<Object, R> responseCache;
+    /**
+     * The secondary index of the response cache's keys.
+     */
+    private final ResponseCacheIndex responseCacheIndex;
 
     /**
      * Creates a request-response client.
@@ -87,10 +99,35 @@ public abstract class AbstractRequestResponseServiceClient<T, R extends RequestR
             final SendMessageSampler.Factory samplerFactory,
             final CachingClientFactory<RequestResponseClient<R>> clientFactory,
             final Cache<Object, R> responseCache) {
+        this(connection, samplerFactory, clientFactory, responseCache, null);
+    }
+
+    /**
+     * Creates a request-response client.
+     * <p>
+     * The given index needs to be shared by all clients using the same response cache and
+     * the cache needs to remove the keys of evicted entries from the index.
+     *
+     * @param connection The connection to the service.
+     * @param samplerFactory The factory for creating samplers for tracing AMQP messages being sent.
+     * @param clientFactory The factory to use for creating links to the service.
+     * @param responseCache The cache to use for service responses.
+     * @param responseCacheIndex The secondary index of the cache's keys or {@code null} if the
+     *                           keys are not indexed.
+     * @throws NullPointerException if any of the parameters other than responseCache and
+     *                              responseCacheIndex are {@code null}.
+     */
+    protected AbstractRequestResponseServiceClient(
+            final HonoConnection connection,
+            final SendMessageSampler.Factory samplerFactory,
+            final CachingClientFactory<RequestResponseClient<R>> clientFactory,
+            final Cache<Object, R> responseCache,
+            final ResponseCacheIndex responseCacheIndex) {
 
         super(connection, samplerFactory);
         this.clientFactory = Objects.requireNonNull(clientFactory);
         this.responseCache = responseCache;
+        this.responseCacheIndex = responseCache == null ? null : responseCacheIndex;
     }
 
     /**
@@ -286,11 +323,34 @@ public abstract class AbstractRequestResponseServiceClient<T, R extends RequestR
      * @throws NullPointerException if any of the parameters is {@code null}.
      */
     protected final void addToCache(final Object key, final R response) {
+        addToCache(key, response, null);
+    }
+
+    /**
+     * Adds a response to the cache and indexes its key by tenant and device(s).
+     * <p>
+     * The response is put to the cache under the same conditions as described for
+     * {@link #addToCache(Object, RequestResponseResult)}. If the response is put to the cache
+     * and a {@link ResponseCacheIndex} is configured, the key is added to the index atomically
+     * with putting the response to the cache.
+     *
+     * @param key The key to use for the response.
+     * @param response The response to put to the cache.
+     * @param tenantId The tenant that the response belongs to or {@code null} if the key should not be indexed.
+     * @param deviceIds The devices that the response belongs to.
+     * @throws NullPointerException if key, response or device IDs are {@code null}.
+     */
+    protected final void addToCache(
+            final Object key,
+            final R response,
+            final String tenantId,
+            final String... deviceIds) {
 
         if (isCachingEnabled()) {
 
             Objects.requireNonNull(key);
             Objects.requireNonNull(response);
+            Objects.requireNonNull(deviceIds);
 
             final boolean resultCanBeCached = Optional.ofNullable(response.getCacheDirective())
                     .map(CacheDirective::isCachingAllowed)
@@ -302,7 +362,16 @@ public abstract class AbstractRequestResponseServiceClient<T, R extends RequestR
                             response.getClass().getSimpleName(),
                             key.toString());
                 }
-                responseCache.put(key, response);
+                if (responseCacheIndex != null && tenantId != null) {
+                    // update the index atomically with the cache entry so that the eviction of a
+                    // previous value cannot remove the key added for the new value
+                    responseCache.asMap().compute(key, (k, oldValue) -> {
+                        responseCacheIndex.add(k, response, tenantId, deviceIds);
+                        return response;
+                    });
+                } else {
+                    responseCache.put(key, response);
+                }
             } else {
                 if (log.isTraceEnabled()) {
                     log.trace("caching of {} response [cache directive: {}] is not allowed",
@@ -324,10 +393,83 @@ public abstract class AbstractRequestResponseServiceClient<T, R extends RequestR
     protected final void removeFromCache(final Object key) {
         if (isCachingEnabled()) {
             Objects.requireNonNull(key);
+            if (responseCacheIndex != null) {
+                responseCacheIndex.remove(key);
+            }
             responseCache.invalidate(key);
         }
     }
 
+    /**
+     * Checks if the keys of the response cache are indexed by tenant and device.
+     *
+     * @return {@code true} if a {@link ResponseCacheIndex} is configured.
+     */
+    protected final boolean isCacheIndexEnabled() {
+        return responseCacheIndex != null;
+    }
+
+    /**
+     * Removes all responses of a tenant from the cache.
+     * <p>
+     * If a {@link ResponseCacheIndex} is configured, the keys of the affected responses are
+     * looked up in the index. Otherwise, {@link #removeFromCacheByPattern(Predicate)} is
+     * invoked with the given predicate.
+     * <p>
+     * If no cache is configured then this method does nothing.
+     *
+     * @param tenantId The tenant to remove the responses for.
+     * @param keyPredicate The predicate to filter the affected keys if no index is configured.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     */
+    protected final void removeTenantFromCache(final String tenantId, final Predicate<Object> keyPredicate) {
+        Objects.requireNonNull(tenantId);
+        Objects.requireNonNull(keyPredicate);
+
+        if (responseCacheIndex == null) {
+            removeFromCacheByPattern(keyPredicate);
+        } else {
+            invalidateAll(responseCacheIndex.removeTenant(tenantId));
+        }
+    }
+
+    /**
+     * Removes all responses of a device from the cache.
+     * <p>
+     * If a {@link ResponseCacheIndex} is configured, the keys of the affected responses are
+     * looked up in the index. Otherwise, {@link #removeFromCacheByPattern(Predicate)} is
+     * invoked with the given predicate.
+     * <p>
+     * If no cache is configured then this method does nothing.
+     *
+     * @param tenantId The tenant that the device belongs to.
+     * @param deviceId The device to remove the responses for.
+     * @param keyPredicate The predicate to filter the affected keys if no index is configured.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     */
+    protected final void removeDeviceFromCache(
+            final String tenantId,
+            final String deviceId,
+            final Predicate<Object> keyPredicate) {
+
+        Objects.requireNonNull(tenantId);
+        Objects.requireNonNull(deviceId);
+        Objects.requireNonNull(keyPredicate);
+
+        if (responseCacheIndex == null) {
+            removeFromCacheByPattern(keyPredicate);
+        } else {
+            invalidateAll(responseCacheIndex.removeDevice(tenantId, deviceId));
+        }
+    }
+
+    private void invalidateAll(final Set<Object> keys) {
+        if (!keys.isEmpty()) {
+            log.debug("removing {} responses from the cache", keys.size());
+            responseCache.invalidateAll(keys);
+        }
+    }
+
     /**
      * Removes responses from the cache where the keys match the given predicate.
      * <p>
@@ -362,6 +504,9 @@ public abstract class AbstractRequestResponseServiceClient<T, R extends RequestR
      * <p>
      * Makes sure that the given Span is finished when the given Future is completed.
      * Also sets the {@code Tags.HTTP_STATUS} tag on the span and logs error information if there was an error.
+     * <p>
+     * The returned Future is completed on the vert.x context that this method is invoked on, so that
+     * a client instance can be shared by components running on different event loop threads.
      *
      * @param result The Future supplying the <em>RequestResponseResult</em> that the mapper will be applied on.
      * @param resultMapper The mapper function.
@@ -374,14 +519,15 @@ public abstract class AbstractRequestResponseServiceClient<T, R extends RequestR
             final Function<R, T> resultMapper,
             final Span currentSpan) {
 
-        return result.recover(t -> {
+        final Context callerContext = Vertx.currentContext();
+        return Futures.completeOnContext(callerContext, result.recover(t -> {
             Tags.HTTP_STATUS.set(currentSpan, ServiceInvocationException.extractStatusCode(t));
             TracingHelper.logError(currentSpan, t);
             return Future.failedFuture(t);
         }).map(resultValue -> {
             setTagsForResult(currentSpan, resultValue);
             return resultMapper.apply(resultValue);
-        }).onComplete(o -> currentSpan.finish());
+        }).onComplete(o -> currentSpan.finish()));
     }
 
     /**
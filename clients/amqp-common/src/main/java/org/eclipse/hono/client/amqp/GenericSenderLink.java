@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2016, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -14,6 +14,7 @@
 package org.eclipse.hono.client.amqp;
 
 import java.net.HttpURLConnection;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -21,6 +22,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
@@ -52,9 +54,11 @@ import org.slf4j.LoggerFactory;
 import io.opentracing.Span;
 import io.opentracing.log.Fields;
 import io.opentracing.tag.Tags;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
 import io.vertx.proton.ProtonDelivery;
 import io.vertx.proton.ProtonHelper;
 import io.vertx.proton.ProtonQoS;
@@ -65,6 +69,8 @@ import io.vertx.proton.ProtonSender;
  * <p>
  * Exposes methods for sending messages using {@linkplain #send(Message, Span) AT_MOST_ONCE}
  * and {@linkplain #sendAndWaitForOutcome(Message, Span) AT_LEAST_ONCE} delivery semantics.
+ * Messages may also be sent {@linkplain #sendAndWaitForOutcome(List, List) in batches} using
+ * AT_LEAST_ONCE delivery semantics.
  */
 public class GenericSenderLink extends AbstractHonoClient {
 
@@ -77,6 +83,11 @@ public class GenericSenderLink extends AbstractHonoClient {
     private final String tenantId;
     private final String targetAddress;
     private final SendMessageSampler sampler;
+    /**
+     * The messages that are waiting to be sent as part of the next batch.
+     * Only accessed on the connection's vert.x context.
+     */
+    private final List<PendingMessage> pendingBatch = new ArrayList<>();
 
     private boolean errorInfoLoggingEnabled;
 
@@ -318,6 +329,120 @@ public class GenericSenderLink extends AbstractHonoClient {
                 () -> sendMessageAndWaitForOutcome(message, currentSpan, false));
     }
 
+    /**
+     * Sends a batch of AMQP 1.0 messages to the endpoint configured for this link and waits for the
+     * dispositions indicating the outcomes of the transfers.
+     * <p>
+     * The messages are written to the link in the given order. In contrast to sending each message using
+     * {@link #sendAndWaitForOutcome(Message, Span)}, a single timer is used for tracking the
+     * dispositions of all messages of the batch. The future returned for a message is completed as soon
+     * as the disposition of the message has been received, regardless of the outcome of the other
+     * messages.
+     * <p>
+     * A not-accepted outcome will cause the future returned for the message to be failed.
+     *
+     * @param messages The messages to send.
+     * @param spans The <em>OpenTracing</em> spans used to trace the sending of the messages, one for
+     *              each message. Each span will be finished by this method and will contain an error log
+     *              if the corresponding message has not been accepted by the peer.
+     * @return The futures indicating the outcome of sending each message, in the order of the given messages.
+     *         <p>
+     *         A future will be succeeded if the message has been accepted (and settled) by the peer.
+     *         <p>
+     *         A future will be failed with a {@link ServerErrorException} if the message
+     *         could not be sent due to a lack of credit.
+     *         If a message is sent which cannot be processed by the peer, the future will
+     *         be failed with either a {@link ServerErrorException} or a {@link ClientErrorException}
+     *         depending on the reason for the failure to process the message.
+     *         If no delivery update was received from the peer within the configured timeout period
+     *         (see {@link ClientConfigProperties#getSendMessageTimeout()}), the future will
+     *         be failed with a {@link ServerErrorException}.
+     * @throws NullPointerException if any of the parameters or any of the lists' elements are {@code null}.
+     * @throws IllegalArgumentException if the number of spans does not match the number of messages.
+     */
+    public List<Future<ProtonDelivery>> sendAndWaitForOutcome(final List<Message> messages, final List<Span> spans) {
+
+        Objects.requireNonNull(messages);
+        Objects.requireNonNull(spans);
+        if (messages.size() != spans.size()) {
+            throw new IllegalArgumentException("number of spans must match number of messages");
+        }
+
+        final List<Promise<ProtonDelivery>> results = new ArrayList<>(messages.size());
+        final List<Future<ProtonDelivery>> outcomes = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            final Message message = Objects.requireNonNull(messages.get(i));
+            final Span currentSpan = Objects.requireNonNull(spans.get(i));
+            addTracingInfo(message, currentSpan);
+            final Promise<ProtonDelivery> result = Promise.promise();
+            results.add(result);
+            outcomes.add(traceOutcome(result.future(), currentSpan));
+        }
+
+        if (!messages.isEmpty()) {
+            connection.<Void> executeOnContext(go -> {
+                sendBatchAndWaitForOutcome(messages, spans, results);
+                go.complete();
+            })
+            .onFailure(t -> results.forEach(result -> result.tryFail(t)));
+        }
+        return outcomes;
+    }
+
+    /**
+     * Sends an AMQP 1.0 message to the endpoint configured for this link, batching it with other messages,
+     * and waits for the disposition indicating the outcome of the transfer.
+     * <p>
+     * If the link has credit, the message is added to a pending batch. All messages that are passed in to this
+     * method until the current run of the link's vert.x event loop has finished are sent together by means of
+     * {@link #sendAndWaitForOutcome(List, List)}, i.e. the outcomes of all messages of the batch are tracked
+     * using a single timer. This reduces the overhead of sending messages that are passed in at a high rate,
+     * e.g. by multiple devices connected to the same protocol adapter verticle.
+     * <p>
+     * If the link has no credit, the returned future is failed right away, in the same way as by
+     * {@link #sendAndWaitForOutcome(Message, Span)}.
+     * <p>
+     * A not-accepted outcome will cause the returned future to be failed.
+     *
+     * @param message The message to send.
+     * @param currentSpan The <em>OpenTracing</em> span used to trace the sending of the message.
+     *              The span will be finished by this method and will contain an error log if
+     *              the message has not been accepted by the peer.
+     * @return A future indicating the outcome of the operation.
+     *         The future will be completed in the same way as the future returned by
+     *         {@link #sendAndWaitForOutcome(Message, Span)}.
+     * @throws NullPointerException if any of the parameters are {@code null}.
+     */
+    public Future<ProtonDelivery> sendAndWaitForOutcomeBatched(final Message message, final Span currentSpan) {
+
+        Objects.requireNonNull(message);
+        Objects.requireNonNull(currentSpan);
+
+        return connection.executeOnContext(result -> {
+            if (sender.sendQueueFull()) {
+                addTracingInfo(message, currentSpan);
+                logMessageSendingError("error sending message [ID: {}, address: {}], no credit available (drain={})",
+                        message.getMessageId(), getMessageAddress(message), sender.getDrain());
+                TracingHelper.TAG_CREDIT.set(currentSpan, 0);
+                sampler.noCredit(tenantId);
+                traceOutcome(Future.failedFuture(new NoConsumerException("no credit available")), currentSpan)
+                    .onComplete(result);
+                return;
+            }
+            pendingBatch.add(new PendingMessage(message, currentSpan, result));
+            if (pendingBatch.size() == 1) {
+                // this is the first message of a new batch, all messages added
+                // before the event loop runs the task below will be sent along with it
+                final Context context = Vertx.currentContext();
+                if (context == null) {
+                    sendPendingBatch();
+                } else {
+                    context.runOnContext(go -> sendPendingBatch());
+                }
+            }
+        });
+    }
+
     /**
      * Sets whether message sending errors should be logged on INFO level.
      *
@@ -336,11 +461,7 @@ public class GenericSenderLink extends AbstractHonoClient {
         Objects.requireNonNull(currentSpan);
         Objects.requireNonNull(sendOperation);
 
-        Tags.MESSAGE_BUS_DESTINATION.set(currentSpan, getMessageAddress(message));
-        TracingHelper.TAG_QOS.set(currentSpan, sender.getQoS().toString());
-        Tags.SPAN_KIND.set(currentSpan, Tags.SPAN_KIND_PRODUCER);
-        TracingHelper.setDeviceTags(currentSpan, tenantId, AmqpUtils.getDeviceId(message));
-        AmqpUtils.injectSpanContext(connection.getTracer(), currentSpan.context(), message);
+        addTracingInfo(message, currentSpan);
 
         return connection.executeOnContext(result -> {
             if (sender.sendQueueFull()) {
@@ -358,6 +479,96 @@ public class GenericSenderLink extends AbstractHonoClient {
         });
     }
 
+    private void addTracingInfo(final Message message, final Span currentSpan) {
+        Tags.MESSAGE_BUS_DESTINATION.set(currentSpan, getMessageAddress(message));
+        TracingHelper.TAG_QOS.set(currentSpan, sender.getQoS().toString());
+        Tags.SPAN_KIND.set(currentSpan, Tags.SPAN_KIND_PRODUCER);
+        TracingHelper.setDeviceTags(currentSpan, tenantId, AmqpUtils.getDeviceId(message));
+        AmqpUtils.injectSpanContext(connection.getTracer(), currentSpan.context(), message);
+    }
+
+    private String nextMessageId() {
+        return String.format("%s-%d", getClass().getSimpleName(), MESSAGE_COUNTER.getAndIncrement());
+    }
+
+    private void sendPendingBatch() {
+
+        final List<Message> messages = new ArrayList<>(pendingBatch.size());
+        final List<Span> spans = new ArrayList<>(pendingBatch.size());
+        final List<Promise<ProtonDelivery>> results = new ArrayList<>(pendingBatch.size());
+        pendingBatch.forEach(pendingMessage -> {
+            messages.add(pendingMessage.message);
+            spans.add(pendingMessage.span);
+            results.add(pendingMessage.result);
+        });
+        pendingBatch.clear();
+
+        final List<Future<ProtonDelivery>> outcomes = sendAndWaitForOutcome(messages, spans);
+        for (int i = 0; i < outcomes.size(); i++) {
+            outcomes.get(i).onComplete(results.get(i));
+        }
+    }
+
+    /**
+     * Sends a batch of messages and tracks their dispositions using a single timer.
+     * <p>
+     * Must be invoked on the connection's vert.x context.
+     */
+    private void sendBatchAndWaitForOutcome(
+            final List<Message> messages,
+            final List<Span> spans,
+            final List<Promise<ProtonDelivery>> results) {
+
+        final int batchSize = messages.size();
+        final ProtonDelivery[] deliveries = new ProtonDelivery[batchSize];
+        final SendMessageSampler.Sample[] samples = new SendMessageSampler.Sample[batchSize];
+
+        final ClientConfigProperties config = connection.getConfig();
+        final Long timerId = config.getSendMessageTimeout() > 0
+                ? connection.getVertx().setTimer(config.getSendMessageTimeout(), id -> {
+                    for (int i = 0; i < batchSize; i++) {
+                        if (!results.get(i).future().isComplete()) {
+                            handleSendMessageTimeout(messages.get(i), config.getSendMessageTimeout(), deliveries[i],
+                                    samples[i], results.get(i), null);
+                        }
+                    }
+                })
+                : null;
+
+        // the timer is no longer needed once the outcomes of all messages are known
+        final AtomicInteger outstandingOutcomes = new AtomicInteger(batchSize);
+        results.forEach(result -> result.future().onComplete(r -> {
+            if (outstandingOutcomes.decrementAndGet() == 0 && timerId != null) {
+                connection.getVertx().cancelTimer(timerId);
+            }
+        }));
+
+        for (int i = 0; i < batchSize; i++) {
+            final Message message = messages.get(i);
+            final Span currentSpan = spans.get(i);
+            final Promise<ProtonDelivery> result = results.get(i);
+
+            if (sender.sendQueueFull()) {
+                logMessageSendingError("error sending message [ID: {}, address: {}], no credit available (drain={})",
+                        message.getMessageId(), getMessageAddress(message), sender.getDrain());
+                TracingHelper.TAG_CREDIT.set(currentSpan, 0);
+                sampler.noCredit(tenantId);
+                result.fail(new NoConsumerException("no credit available"));
+            } else {
+                final String messageId = nextMessageId();
+                message.setMessageId(messageId);
+                logMessageIdAndSenderInfo(currentSpan, messageId);
+
+                final SendMessageSampler.Sample sample = sampler.start(tenantId);
+                samples[i] = sample;
+                deliveries[i] = sender.send(message, deliveryUpdated -> handleDeliveryUpdate(
+                        message, currentSpan, sample, result, deliveryUpdated, true));
+            }
+        }
+        log.trace("sent batch of {} AT_LEAST_ONCE messages [address: {}], remaining credit: {}, queued messages: {}",
+                batchSize, targetAddress, sender.getCredit(), sender.getQueued());
+    }
+
     /**
      * Sends an AMQP 1.0 message to the peer this client is configured for.
      *
@@ -381,7 +592,7 @@ public class GenericSenderLink extends AbstractHonoClient {
         Objects.requireNonNull(message);
         Objects.requireNonNull(currentSpan);
 
-        final String messageId = String.format("%s-%d", getClass().getSimpleName(), MESSAGE_COUNTER.getAndIncrement());
+        final String messageId = nextMessageId();
         message.setMessageId(messageId);
         logMessageIdAndSenderInfo(currentSpan, messageId);
 
@@ -434,7 +645,7 @@ public class GenericSenderLink extends AbstractHonoClient {
 
         final AtomicReference<ProtonDelivery> deliveryRef = new AtomicReference<>();
         final Promise<ProtonDelivery> result = Promise.promise();
-        final String messageId = String.format("%s-%d", getClass().getSimpleName(), MESSAGE_COUNTER.getAndIncrement());
+        final String messageId = nextMessageId();
         message.setMessageId(messageId);
         logMessageIdAndSenderInfo(currentSpan, messageId);
 
@@ -454,35 +665,51 @@ public class GenericSenderLink extends AbstractHonoClient {
             if (timerId != null) {
                 connection.getVertx().cancelTimer(timerId);
             }
-            final DeliveryState remoteState = deliveryUpdated.getRemoteState();
-            if (result.future().isComplete()) {
-                log.debug("ignoring received delivery update for message [ID: {}, address: {}]: waiting for the update has already timed out",
-                        messageId, getMessageAddress(message));
-            } else if (deliveryUpdated.remotelySettled()) {
-                logUpdatedDeliveryState(currentSpan, message, deliveryUpdated);
-                sample.completed(remoteState);
-                if (Accepted.class.isInstance(remoteState)) {
-                    result.complete(deliveryUpdated);
-                } else {
-                    if (mapUnacceptedOutcomeToErrorResult) {
-                        result.handle(mapUnacceptedOutcomeToErrorResult(deliveryUpdated));
-                    } else {
-                        result.complete(deliveryUpdated);
-                    }
-                }
-            } else {
-                logMessageSendingError("peer did not settle message [ID: {}, address: {}, remote state: {}], failing delivery",
-                        messageId, getMessageAddress(message), remoteState.getClass().getSimpleName());
-                final ServiceInvocationException e = new ServerErrorException(
-                        HttpURLConnection.HTTP_INTERNAL_ERROR,
-                        "peer did not settle message, failing delivery");
-                result.fail(e);
-            }
+            handleDeliveryUpdate(message, currentSpan, sample, result, deliveryUpdated,
+                    mapUnacceptedOutcomeToErrorResult);
         }));
         log.trace("sent AT_LEAST_ONCE message [ID: {}, address: {}], remaining credit: {}, queued messages: {}",
                 messageId, getMessageAddress(message), sender.getCredit(), sender.getQueued());
 
-        return result.future()
+        return traceOutcome(result.future(), currentSpan);
+    }
+
+    private void handleDeliveryUpdate(
+            final Message message,
+            final Span currentSpan,
+            final SendMessageSampler.Sample sample,
+            final Promise<ProtonDelivery> result,
+            final ProtonDelivery deliveryUpdated,
+            final boolean mapUnacceptedOutcomeToErrorResult) {
+
+        final DeliveryState remoteState = deliveryUpdated.getRemoteState();
+        if (result.future().isComplete()) {
+            log.debug("ignoring received delivery update for message [ID: {}, address: {}]: waiting for the update has already timed out",
+                    message.getMessageId(), getMessageAddress(message));
+        } else if (deliveryUpdated.remotelySettled()) {
+            logUpdatedDeliveryState(currentSpan, message, deliveryUpdated);
+            sample.completed(remoteState);
+            if (Accepted.class.isInstance(remoteState)) {
+                result.complete(deliveryUpdated);
+            } else {
+                if (mapUnacceptedOutcomeToErrorResult) {
+                    result.handle(mapUnacceptedOutcomeToErrorResult(deliveryUpdated));
+                } else {
+                    result.complete(deliveryUpdated);
+                }
+            }
+        } else {
+            logMessageSendingError("peer did not settle message [ID: {}, address: {}, remote state: {}], failing delivery",
+                    message.getMessageId(), getMessageAddress(message), remoteState.getClass().getSimpleName());
+            final ServiceInvocationException e = new ServerErrorException(
+                    HttpURLConnection.HTTP_INTERNAL_ERROR,
+                    "peer did not settle message, failing delivery");
+            result.fail(e);
+        }
+    }
+
+    private static Future<ProtonDelivery> traceOutcome(final Future<ProtonDelivery> outcome, final Span currentSpan) {
+        return outcome
                 .onSuccess(delivery -> Tags.HTTP_STATUS.set(currentSpan, HttpURLConnection.HTTP_ACCEPTED))
                 .onFailure(t -> {
                     TracingHelper.logError(currentSpan, t);
@@ -644,4 +871,20 @@ public class GenericSenderLink extends AbstractHonoClient {
             log.debug(format, arguments);
         }
     }
+
+    /**
+     * A message that is waiting to be sent as part of a batch.
+     */
+    private static final class PendingMessage {
+
+        private final Message message;
+        private final Span span;
+        private final Promise<ProtonDelivery> result;
+
+        PendingMessage(final Message message, final Span span, final Promise<ProtonDelivery> result) {
+            this.message = message;
+            this.span = span;
+            this.result = result;
+        }
+    }
 }
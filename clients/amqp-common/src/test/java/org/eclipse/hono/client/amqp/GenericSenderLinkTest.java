@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2021 Contributors to the Eclipse Foundation
+ * Copyright (c) 2016, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -13,14 +13,17 @@
 package org.eclipse.hono.client.amqp;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import static com.google.common.truth.Truth.assertThat;
 
 import java.net.HttpURLConnection;
+import java.util.List;
 import java.util.function.Consumer;
 
 import org.apache.qpid.proton.amqp.Symbol;
@@ -31,6 +34,7 @@ import org.apache.qpid.proton.amqp.transport.ErrorCondition;
 import org.apache.qpid.proton.message.Message;
 import org.eclipse.hono.client.ClientErrorException;
 import org.eclipse.hono.client.ResourceLimitExceededException;
+import org.eclipse.hono.client.ServerErrorException;
 import org.eclipse.hono.client.amqp.config.ClientConfigProperties;
 import org.eclipse.hono.client.amqp.connection.AmqpUtils;
 import org.eclipse.hono.client.amqp.connection.HonoConnection;
@@ -39,12 +43,15 @@ import org.eclipse.hono.client.amqp.test.AmqpClientUnitTestHelper;
 import org.eclipse.hono.test.VertxMockSupport;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 
 import io.opentracing.Span;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
 import io.vertx.proton.ProtonDelivery;
 import io.vertx.proton.ProtonHelper;
 import io.vertx.proton.ProtonSender;
@@ -53,6 +60,7 @@ import io.vertx.proton.ProtonSender;
  * Tests verifying behavior of {@link GenericSenderLink}.
  *
  */
+@ExtendWith(VertxExtension.class)
 public class GenericSenderLinkTest {
 
     private Vertx vertx;
@@ -298,4 +306,154 @@ public class GenericSenderLinkTest {
         // THEN the given Span will nonetheless be finished.
         verify(span).finish();
     }
+
+    /**
+     * Verifies that the outcomes of a batch of messages are tracked using a single timer and
+     * that the futures for the messages are completed as soon as the individual dispositions arrive.
+     */
+    @Test
+    public void testSendBatchCompletesMessagesIndividually() {
+
+        // GIVEN a sender that has credit
+        when(sender.sendQueueFull()).thenReturn(Boolean.FALSE);
+
+        // WHEN sending a batch of two messages
+        final List<Span> spans = List.of(mock(Span.class), mock(Span.class));
+        final List<Message> messages = List.of(
+                ProtonHelper.message("telemetry/tenant", "hello"),
+                ProtonHelper.message("telemetry/tenant", "world"));
+        final List<Future<ProtonDelivery>> results = messageSender.sendAndWaitForOutcome(messages, spans);
+
+        // THEN both messages have been sent
+        final ArgumentCaptor<Handler<ProtonDelivery>> deliveryUpdateHandler = VertxMockSupport.argumentCaptorHandler();
+        verify(sender, times(2)).send(any(Message.class), deliveryUpdateHandler.capture());
+        // using a single timer for tracking the outcomes
+        verify(vertx).setTimer(anyLong(), VertxMockSupport.anyHandler());
+        assertThat(results.get(0).isComplete()).isFalse();
+        assertThat(results.get(1).isComplete()).isFalse();
+
+        // and when the peer accepts the first message
+        final ProtonDelivery accepted = mock(ProtonDelivery.class);
+        when(accepted.remotelySettled()).thenReturn(Boolean.TRUE);
+        when(accepted.getRemoteState()).thenReturn(new Accepted());
+        deliveryUpdateHandler.getAllValues().get(0).handle(accepted);
+
+        // only the result for the first message is succeeded
+        assertThat(results.get(0).succeeded()).isTrue();
+        verify(spans.get(0)).finish();
+        assertThat(results.get(1).isComplete()).isFalse();
+        verify(vertx, never()).cancelTimer(anyLong());
+
+        // and when the peer rejects the second message
+        final ProtonDelivery rejected = mock(ProtonDelivery.class);
+        when(rejected.remotelySettled()).thenReturn(Boolean.TRUE);
+        when(rejected.getRemoteState()).thenReturn(new Rejected());
+        deliveryUpdateHandler.getAllValues().get(1).handle(rejected);
+
+        // the result for the second message is failed
+        assertThat(results.get(1).failed()).isTrue();
+        verify(spans.get(1)).finish();
+        // and the timer has been canceled
+        verify(vertx).cancelTimer(anyLong());
+    }
+
+    /**
+     * Verifies that the messages of a batch that cannot be sent due to a lack of credit
+     * are failed immediately.
+     */
+    @Test
+    public void testSendBatchFailsMessagesOnLackOfCredit() {
+
+        // GIVEN a sender that has credit for a single message only
+        when(sender.sendQueueFull()).thenReturn(Boolean.FALSE, Boolean.TRUE);
+
+        // WHEN sending a batch of two messages
+        final List<Span> spans = List.of(mock(Span.class), mock(Span.class));
+        final List<Message> messages = List.of(
+                ProtonHelper.message("telemetry/tenant", "hello"),
+                ProtonHelper.message("telemetry/tenant", "world"));
+        final List<Future<ProtonDelivery>> results = messageSender.sendAndWaitForOutcome(messages, spans);
+
+        // THEN only the first message has been sent
+        verify(sender).send(any(Message.class), VertxMockSupport.anyHandler());
+        assertThat(results.get(0).isComplete()).isFalse();
+        // and the result for the second message is failed
+        assertThat(results.get(1).failed()).isTrue();
+        assertThat(results.get(1).cause()).isInstanceOf(ServerErrorException.class);
+        verify(spans.get(1)).finish();
+    }
+
+    /**
+     * Verifies that a message is not sent if the link has no credit.
+     */
+    @Test
+    public void testSendBatchedFailsOnLackOfCredit() {
+
+        // GIVEN a sender that has no credit
+        when(sender.sendQueueFull()).thenReturn(Boolean.TRUE);
+
+        // WHEN sending a message to be batched
+        final Span span = mock(Span.class);
+        final Future<ProtonDelivery> result = messageSender.sendAndWaitForOutcomeBatched(
+                ProtonHelper.message("telemetry/tenant", "hello"), span);
+
+        // THEN the message is not sent
+        verify(sender, never()).send(any(Message.class), VertxMockSupport.anyHandler());
+        // and the result is failed right away
+        assertThat(result.failed()).isTrue();
+        assertThat(result.cause()).isInstanceOf(ServerErrorException.class);
+        verify(span).finish();
+    }
+
+    /**
+     * Verifies that the messages that are passed in during the same run of the event loop are sent
+     * in a single batch, tracking the outcomes using a single timer.
+     *
+     * @param platform The vert.x instance to run the test on.
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testSendBatchedSendsMessagesOfEventLoopRunInSingleBatch(
+            final Vertx platform,
+            final VertxTestContext ctx) {
+
+        // GIVEN a sender that has credit
+        when(sender.sendQueueFull()).thenReturn(Boolean.FALSE);
+        when(vertx.setTimer(anyLong(), VertxMockSupport.anyHandler())).thenReturn(10L);
+
+        platform.runOnContext(go -> {
+            // WHEN sending two messages to be batched
+            final Future<ProtonDelivery> first = messageSender.sendAndWaitForOutcomeBatched(
+                    ProtonHelper.message("telemetry/tenant", "hello"), mock(Span.class));
+            final Future<ProtonDelivery> second = messageSender.sendAndWaitForOutcomeBatched(
+                    ProtonHelper.message("telemetry/tenant", "world"), mock(Span.class));
+            // THEN none of the messages is sent during the same run of the event loop
+            ctx.verify(() -> verify(sender, never()).send(any(Message.class), VertxMockSupport.anyHandler()));
+
+            Vertx.currentContext().runOnContext(check -> {
+                final ArgumentCaptor<Handler<ProtonDelivery>> deliveryUpdateHandler = VertxMockSupport.argumentCaptorHandler();
+                ctx.verify(() -> {
+                    // but both messages are sent afterwards
+                    verify(sender, times(2)).send(any(Message.class), deliveryUpdateHandler.capture());
+                    // using a single timer for tracking the outcomes
+                    verify(vertx).setTimer(anyLong(), VertxMockSupport.anyHandler());
+                });
+
+                // and when the peer accepts both messages
+                final ProtonDelivery accepted = mock(ProtonDelivery.class);
+                when(accepted.remotelySettled()).thenReturn(Boolean.TRUE);
+                when(accepted.getRemoteState()).thenReturn(new Accepted());
+                deliveryUpdateHandler.getAllValues().forEach(handler -> handler.handle(accepted));
+
+                ctx.verify(() -> {
+                    // both results are succeeded
+                    assertThat(first.succeeded()).isTrue();
+                    assertThat(second.succeeded()).isTrue();
+                    // and the timer is canceled
+                    verify(vertx).cancelTimer(10L);
+                });
+                ctx.completeNow();
+            });
+        });
+    }
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2016, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -30,6 +30,10 @@ public class ClientConfigProperties extends AuthenticatingClientConfigProperties
      * be opened.
      */
     public static final int DEFAULT_CONNECT_TIMEOUT = 5000; // ms
+    /**
+     * The default number of AMQP connections that a client establishes with the peer.
+     */
+    public static final int DEFAULT_CONNECTION_POOL_SIZE = 1;
     /**
      * The default amount of time (milliseconds) to wait for credits after link creation.
      */
@@ -96,6 +100,7 @@ public class ClientConfigProperties extends AuthenticatingClientConfigProperties
     private String addressRewriteRule = null;
     private String amqpHostname = null;
     private int connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+    private int connectionPoolSize = DEFAULT_CONNECTION_POOL_SIZE;
     private long flowLatency = DEFAULT_FLOW_LATENCY;
     private int idleTimeout = DEFAULT_IDLE_TIMEOUT;
     private int initialCredits = DEFAULT_INITIAL_CREDITS;
@@ -132,6 +137,7 @@ public class ClientConfigProperties extends AuthenticatingClientConfigProperties
         this.addressRewriteRule = otherProperties.addressRewriteRule;
         this.amqpHostname = otherProperties.amqpHostname;
         this.connectTimeout = otherProperties.connectTimeout;
+        this.connectionPoolSize = otherProperties.connectionPoolSize;
         this.flowLatency = otherProperties.flowLatency;
         this.idleTimeout = otherProperties.idleTimeout;
         this.initialCredits = otherProperties.initialCredits;
@@ -159,6 +165,7 @@ public class ClientConfigProperties extends AuthenticatingClientConfigProperties
         setAddressRewriteRule(options.addressRewriteRule().orElse(null));
         setAmqpHostname(options.amqpHostname().orElse(null));
         setConnectTimeout(options.connectTimeout());
+        setConnectionPoolSize(options.connectionPoolSize());
         setFlowLatency(options.flowLatency());
         setIdleTimeout(options.idleTimeout());
         setInitialCredits(options.initialCredits());
@@ -225,6 +232,38 @@ public class ClientConfigProperties extends AuthenticatingClientConfigProperties
         this.amqpHostname = amqpHostname;
     }
 
+    /**
+     * Gets the number of AMQP connections that a client should establish with the peer.
+     * <p>
+     * A client that supports connection pooling spreads its links across the connections
+     * of the pool. Each connection is bound to its own vert.x event loop thread.
+     * <p>
+     * The default value of this property is {@link #DEFAULT_CONNECTION_POOL_SIZE}.
+     *
+     * @return The number of connections.
+     */
+    public final int getConnectionPoolSize() {
+        return connectionPoolSize;
+    }
+
+    /**
+     * Sets the number of AMQP connections that a client should establish with the peer.
+     * <p>
+     * A client that supports connection pooling spreads its links across the connections
+     * of the pool. Each connection is bound to its own vert.x event loop thread.
+     * <p>
+     * The default value of this property is {@link #DEFAULT_CONNECTION_POOL_SIZE}.
+     *
+     * @param size The number of connections.
+     * @throws IllegalArgumentException if size is &lt; 1.
+     */
+    public final void setConnectionPoolSize(final int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("connection pool size must be > 0");
+        }
+        this.connectionPoolSize = size;
+    }
+
     /**
      * Gets the maximum amount of time that a client should wait for credits after <em>sender link</em>
      * creation.
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2021, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2021, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -160,6 +160,17 @@ public interface ClientOptions {
     @WithDefault("5000")
     int connectTimeout();
 
+    /**
+     * Gets the number of AMQP connections that a client should establish with the peer.
+     * <p>
+     * A client that supports connection pooling spreads its links across the connections
+     * of the pool.
+     *
+     * @return The number of connections.
+     */
+    @WithDefault("1")
+    int connectionPoolSize();
+
     /**
      * Gets the amount of time in milliseconds after which a connection will be closed
      * when no frames have been received from the remote peer.
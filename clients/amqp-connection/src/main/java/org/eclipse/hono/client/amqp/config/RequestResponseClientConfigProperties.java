@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2016, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -35,10 +35,20 @@ public class RequestResponseClientConfigProperties extends ClientConfigPropertie
      * The maximum period of time in seconds after which cached responses are considered invalid.
      */
     public static final long MAX_RESPONSE_CACHE_TIMEOUT = 24 * 60 * 60L; // 24h
+    /**
+     * The default maximum number of requests to include in a batch.
+     */
+    public static final int DEFAULT_REQUEST_BATCH_MAX_SIZE = 100;
+    /**
+     * The maximum number of requests that can be included in a batch.
+     */
+    public static final int MAX_REQUEST_BATCH_MAX_SIZE = 1000;
 
     private int responseCacheMinSize = DEFAULT_RESPONSE_CACHE_MIN_SIZE;
     private long responseCacheMaxSize = DEFAULT_RESPONSE_CACHE_MAX_SIZE;
     private long responseCacheDefaultTimeout = DEFAULT_RESPONSE_CACHE_TIMEOUT;
+    private long requestBatchWindow = 0;
+    private int requestBatchMaxSize = DEFAULT_REQUEST_BATCH_MAX_SIZE;
 
     /**
      * Creates new properties using default values.
@@ -57,6 +67,8 @@ public class RequestResponseClientConfigProperties extends ClientConfigPropertie
         setResponseCacheDefaultTimeout(options.responseCacheDefaultTimeout());
         setResponseCacheMaxSize(options.responseCacheMaxSize());
         setResponseCacheMinSize(options.responseCacheMinSize());
+        setRequestBatchWindow(options.requestBatchWindow());
+        setRequestBatchMaxSize(options.requestBatchMaxSize());
     }
 
     /**
@@ -152,6 +164,73 @@ public class RequestResponseClientConfigProperties extends ClientConfigPropertie
         this.responseCacheDefaultTimeout = Math.min(timeout, MAX_RESPONSE_CACHE_TIMEOUT);
     }
 
+    /**
+     * Gets the period of time during which requests are collected for being sent to the
+     * service in a single batch.
+     * <p>
+     * This property is only supported by clients of service operations which support batching,
+     * e.g. the <em>assert Device Registration</em> operation.
+     * <p>
+     * The default value of this property is 0, which means that requests are not batched.
+     *
+     * @return The period of time in milliseconds.
+     */
+    public final long getRequestBatchWindow() {
+        return requestBatchWindow;
+    }
+
+    /**
+     * Sets the period of time during which requests are collected for being sent to the
+     * service in a single batch.
+     * <p>
+     * This property is only supported by clients of service operations which support batching,
+     * e.g. the <em>assert Device Registration</em> operation.
+     * <p>
+     * The default value of this property is 0, which means that requests are not batched.
+     *
+     * @param window The period of time in milliseconds.
+     * @throws IllegalArgumentException if window is &lt; 0.
+     */
+    public final void setRequestBatchWindow(final long window) {
+        if (window < 0) {
+            throw new IllegalArgumentException("batch window must not be negative");
+        }
+        this.requestBatchWindow = window;
+    }
+
+    /**
+     * Gets the maximum number of requests to include in a single batch.
+     * <p>
+     * A batch is sent as soon as it contains this number of requests, regardless of
+     * the batch window.
+     * <p>
+     * The default value of this property is {@value #DEFAULT_REQUEST_BATCH_MAX_SIZE}.
+     *
+     * @return The maximum number of requests.
+     */
+    public final int getRequestBatchMaxSize() {
+        return requestBatchMaxSize;
+    }
+
+    /**
+     * Sets the maximum number of requests to include in a single batch.
+     * <p>
+     * A batch is sent as soon as it contains this number of requests, regardless of
+     * the batch window.
+     * <p>
+     * The default value of this property is {@value #DEFAULT_REQUEST_BATCH_MAX_SIZE}.
+     *
+     * @param size The maximum number of requests.
+     * @throws IllegalArgumentException if size is &lt; 1 or &gt; {@value #MAX_REQUEST_BATCH_MAX_SIZE}.
+     */
+    public final void setRequestBatchMaxSize(final int size) {
+        if (size < 1 || size > MAX_REQUEST_BATCH_MAX_SIZE) {
+            throw new IllegalArgumentException("maximum batch size must be in range [1, %d]"
+                    .formatted(MAX_REQUEST_BATCH_MAX_SIZE));
+        }
+        this.requestBatchMaxSize = size;
+    }
+
     /**
      * {@inheritDoc}
      */
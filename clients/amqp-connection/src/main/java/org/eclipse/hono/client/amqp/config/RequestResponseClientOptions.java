@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2021 Contributors to the Eclipse Foundation
+ * Copyright (c) 2021, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -61,4 +61,23 @@ public interface RequestResponseClientOptions {
      */
     @WithDefault("600")
     long responseCacheDefaultTimeout();
+
+    /**
+     * Gets the period of time during which requests are collected for being sent to the
+     * service in a single batch.
+     * <p>
+     * Only supported by clients of service operations which support batching.
+     *
+     * @return The period of time in milliseconds or 0 if requests should not be batched.
+     */
+    @WithDefault("0")
+    long requestBatchWindow();
+
+    /**
+     * Gets the maximum number of requests to include in a single batch.
+     *
+     * @return The maximum number of requests.
+     */
+    @WithDefault("100")
+    int requestBatchMaxSize();
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2022, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -71,6 +71,11 @@ public final class AmqpUtils {
      * Anonymous Terminus for Message Routing</a>.
      */
     public static final Symbol CAP_ANONYMOUS_RELAY = Symbol.valueOf("ANONYMOUS-RELAY");
+    /**
+     * The AMQP capability offered by a Device Registration service on the link for receiving requests
+     * if it supports the <em>assert device registrations</em> operation.
+     */
+    public static final Symbol CAP_ASSERT_BATCH = Symbol.valueOf("hono:assert-batch");
 
     /**
      * The key that an authenticated client's principal is stored under in a {@code ProtonConnection}'s
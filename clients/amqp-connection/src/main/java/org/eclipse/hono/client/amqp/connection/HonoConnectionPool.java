@@ -0,0 +1,228 @@
+/**
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.hono.client.amqp.connection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.eclipse.hono.client.amqp.config.ClientConfigProperties;
+import org.eclipse.hono.util.VertxContexts;
+
+import io.opentracing.Tracer;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+
+/**
+ * A fixed size pool of connections to the same Hono service endpoint.
+ * <p>
+ * A single {@link HonoConnection} is bound to the vert.x event loop thread that it has been established on.
+ * All links created on the connection are therefore served by the same thread. A pool can be used to
+ * spread the links of a client across multiple connections, each of them being established on (and thus
+ * bound to) its own vert.x event loop context.
+ * <p>
+ * The connection to use for the links of a particular tenant is determined by means of the pool's
+ * {@link Placement} strategy. The strategies make sure that a given key is always mapped to the same
+ * connection so that the links of a tenant can be cached and re-used.
+ */
+public final class HonoConnectionPool {
+
+    /**
+     * The strategies for selecting the connection to use for a key.
+     */
+    public enum Placement {
+        /**
+         * The connection is determined by the hash code of the key.
+         */
+        TENANT_HASH,
+        /**
+         * A key is assigned to the connection that the smallest number of keys has been
+         * assigned to so far.
+         */
+        LEAST_LOADED
+    }
+
+    private final List<HonoConnection> connections;
+    private final List<Context> contexts;
+    private final Placement placement;
+    private final Map<String, Integer> assignedConnections = new ConcurrentHashMap<>();
+    private final AtomicIntegerArray noOfAssignedKeys;
+
+    /**
+     * Creates a new pool for existing connections.
+     *
+     * @param vertx The vert.x instance to create the contexts for establishing the connections with.
+     * @param connections The connections to include in the pool.
+     * @param placement The strategy for selecting the connection to use for a key.
+     * @throws NullPointerException if any of the parameters are {@code null}.
+     * @throws IllegalArgumentException if the list of connections is empty.
+     */
+    public HonoConnectionPool(
+            final Vertx vertx,
+            final List<HonoConnection> connections,
+            final Placement placement) {
+
+        Objects.requireNonNull(vertx);
+        Objects.requireNonNull(connections);
+        Objects.requireNonNull(placement);
+        if (connections.isEmpty()) {
+            throw new IllegalArgumentException("pool must contain at least one connection");
+        }
+        this.connections = List.copyOf(connections);
+        this.placement = placement;
+        this.noOfAssignedKeys = new AtomicIntegerArray(connections.size());
+        this.contexts = new ArrayList<>(connections.size());
+        if (connections.size() > 1) {
+            for (int i = 0; i < connections.size(); i++) {
+                contexts.add(VertxContexts.newEventLoopContext(vertx));
+            }
+        }
+    }
+
+    /**
+     * Creates a new pool of connections.
+     * <p>
+     * The number of connections is determined by the {@link ClientConfigProperties#getConnectionPoolSize()}
+     * property of the given configuration.
+     *
+     * @param vertx The vert.x instance to use.
+     * @param clientConfigProperties The client properties to use for the connections.
+     * @param tracer The OpenTracing tracer or {@code null} if no tracer should be associated with the connections.
+     * @param placement The strategy for selecting the connection to use for a key.
+     * @return The pool. Note that the underlying AMQP connections will not be established
+     *         until the pool's {@link #connect()} method is invoked.
+     * @throws NullPointerException if any of the parameters other than tracer are {@code null}.
+     */
+    public static HonoConnectionPool newPool(
+            final Vertx vertx,
+            final ClientConfigProperties clientConfigProperties,
+            final Tracer tracer,
+            final Placement placement) {
+
+        Objects.requireNonNull(clientConfigProperties);
+
+        final List<HonoConnection> connections = new ArrayList<>(clientConfigProperties.getConnectionPoolSize());
+        for (int i = 0; i < clientConfigProperties.getConnectionPoolSize(); i++) {
+            connections.add(HonoConnection.newConnection(vertx, clientConfigProperties, tracer));
+        }
+        return new HonoConnectionPool(vertx, connections, placement);
+    }
+
+    /**
+     * Gets the number of connections in this pool.
+     *
+     * @return The number of connections.
+     */
+    public int size() {
+        return connections.size();
+    }
+
+    /**
+     * Gets the connections of this pool.
+     *
+     * @return An unmodifiable list of the connections.
+     */
+    public List<HonoConnection> getConnections() {
+        return connections;
+    }
+
+    /**
+     * Gets the index of the connection to use for a key.
+     *
+     * @param key The key, usually a tenant identifier.
+     * @return The index of the connection in the list returned by {@link #getConnections()}.
+     * @throws NullPointerException if key is {@code null}.
+     */
+    public int getConnectionIndex(final String key) {
+        Objects.requireNonNull(key);
+
+        if (connections.size() == 1) {
+            return 0;
+        }
+        switch (placement) {
+        case LEAST_LOADED:
+            return assignedConnections.computeIfAbsent(key, k -> {
+                int index = 0;
+                for (int i = 1; i < noOfAssignedKeys.length(); i++) {
+                    if (noOfAssignedKeys.get(i) < noOfAssignedKeys.get(index)) {
+                        index = i;
+                    }
+                }
+                noOfAssignedKeys.incrementAndGet(index);
+                return index;
+            });
+        default:
+            return Math.floorMod(key.hashCode(), connections.size());
+        }
+    }
+
+    /**
+     * Gets the connection to use for a key.
+     *
+     * @param key The key, usually a tenant identifier.
+     * @return The connection.
+     * @throws NullPointerException if key is {@code null}.
+     */
+    public HonoConnection getConnection(final String key) {
+        return connections.get(getConnectionIndex(key));
+    }
+
+    /**
+     * Establishes the connections of this pool.
+     * <p>
+     * If the pool contains more than one connection, each connection is established on its own
+     * vert.x event loop context. Otherwise, the connection is established on the current context.
+     *
+     * @return A future indicating the outcome of the operation. The future will be succeeded
+     *         once all connections have been established.
+     */
+    public Future<Void> connect() {
+
+        if (connections.size() == 1) {
+            return connections.get(0).connect().mapEmpty();
+        }
+        @SuppressWarnings("rawtypes")
+        final List<Future> connectTrackers = new ArrayList<>(connections.size());
+        for (int i = 0; i < connections.size(); i++) {
+            final HonoConnection connection = connections.get(i);
+            final Promise<HonoConnection> connectTracker = Promise.promise();
+            contexts.get(i).runOnContext(go -> connection.connect().onComplete(connectTracker));
+            connectTrackers.add(connectTracker.future());
+        }
+        return CompositeFuture.all(connectTrackers).mapEmpty();
+    }
+
+    /**
+     * Shuts down the connections of this pool.
+     *
+     * @return A future indicating the outcome of the operation.
+     */
+    public Future<Void> shutdown() {
+
+        @SuppressWarnings("rawtypes")
+        final List<Future> shutdownTrackers = new ArrayList<>(connections.size());
+        connections.forEach(connection -> {
+            final Promise<Void> shutdownTracker = Promise.promise();
+            connection.shutdown(shutdownTracker);
+            shutdownTrackers.add(shutdownTracker.future());
+        });
+        return CompositeFuture.all(shutdownTrackers).mapEmpty();
+    }
+}
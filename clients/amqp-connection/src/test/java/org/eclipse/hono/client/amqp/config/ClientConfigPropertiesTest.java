@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2016, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -37,6 +37,7 @@ public class ClientConfigPropertiesTest {
         other.setAddressRewriteRule("([a-z_]+)/([\\w-]+) test-vhost/$1/$2");
         other.setAmqpHostname("virtual-host");
         other.setConnectTimeout(1000);
+        other.setConnectionPoolSize(4);
         other.setFlowLatency(500);
         other.setIdleTimeout(5000);
         other.setInitialCredits(200);
@@ -65,6 +66,7 @@ public class ClientConfigPropertiesTest {
         assertThat(newProps.getAddressRewriteReplacement()).isEqualTo("test-vhost/$1/$2");
         assertThat(newProps.getAmqpHostname()).isEqualTo("virtual-host");
         assertThat(newProps.getConnectTimeout()).isEqualTo(1000);
+        assertThat(newProps.getConnectionPoolSize()).isEqualTo(4);
         assertThat(newProps.getFlowLatency()).isEqualTo(500);
         assertThat(newProps.getIdleTimeout()).isEqualTo(5000);
         assertThat(newProps.getInitialCredits()).isEqualTo(200);
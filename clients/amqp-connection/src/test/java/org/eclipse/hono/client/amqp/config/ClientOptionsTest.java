@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2022, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -44,6 +44,7 @@ class ClientOptionsTest {
         assertThat(props.getAmqpHostname()).isEqualTo("command.hono.eclipseprojects.io");
         assertThat(props.getCertPath()).isEqualTo("/etc/cert.pem");
         assertThat(props.getConnectTimeout()).isEqualTo(1234);
+        assertThat(props.getConnectionPoolSize()).isEqualTo(3);
         assertThat(props.getCredentialsPath()).isEqualTo("/etc/creds");
         assertThat(props.getFlowLatency()).isEqualTo(321);
         assertThat(props.getHeartbeatInterval()).isEqualTo(22222);
@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.hono.client.amqp.connection;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.Timeout;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+
+/**
+ * Verifies behavior of {@link HonoConnectionPool}.
+ */
+@ExtendWith(VertxExtension.class)
+@Timeout(value = 5, timeUnit = TimeUnit.SECONDS)
+public class HonoConnectionPoolTest {
+
+    private static List<HonoConnection> connections(final int count) {
+        final List<HonoConnection> connections = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            connections.add(mock(HonoConnection.class));
+        }
+        return connections;
+    }
+
+    /**
+     * Verifies that the tenant hash placement always selects the same connection for a key.
+     *
+     * @param vertx The vert.x instance to use.
+     */
+    @Test
+    public void testTenantHashPlacementSelectsSameConnectionForKey(final Vertx vertx) {
+
+        final var pool = new HonoConnectionPool(vertx, connections(3), HonoConnectionPool.Placement.TENANT_HASH);
+        for (final String tenant : List.of("tenant-a", "tenant-b", "tenant-c", "DEFAULT_TENANT")) {
+            final int index = Math.floorMod(tenant.hashCode(), 3);
+            assertThat(pool.getConnectionIndex(tenant)).isEqualTo(index);
+            assertThat(pool.getConnection(tenant)).isSameInstanceAs(pool.getConnections().get(index));
+        }
+    }
+
+    /**
+     * Verifies that the least loaded placement spreads keys evenly across the connections
+     * and keeps a key's connection once it has been assigned.
+     *
+     * @param vertx The vert.x instance to use.
+     */
+    @Test
+    public void testLeastLoadedPlacementSpreadsKeysEvenly(final Vertx vertx) {
+
+        final var pool = new HonoConnectionPool(vertx, connections(3), HonoConnectionPool.Placement.LEAST_LOADED);
+        final int[] noOfKeys = new int[3];
+        for (int i = 0; i < 9; i++) {
+            noOfKeys[pool.getConnectionIndex("tenant-" + i)]++;
+        }
+        assertThat(noOfKeys).asList().containsExactly(3, 3, 3);
+        for (int i = 0; i < 9; i++) {
+            assertThat(pool.getConnectionIndex("tenant-" + i)).isEqualTo(i % 3);
+        }
+    }
+
+    /**
+     * Verifies that the connections of a pool are established on different vert.x contexts.
+     *
+     * @param vertx The vert.x instance to use.
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testConnectEstablishesConnectionsOnDifferentContexts(final Vertx vertx, final VertxTestContext ctx) {
+
+        final Map<HonoConnection, Object> contexts = new ConcurrentHashMap<>();
+        final List<HonoConnection> connections = connections(3);
+        connections.forEach(connection -> when(connection.connect()).thenAnswer(invocation -> {
+            contexts.put(connection, Vertx.currentContext());
+            return Future.succeededFuture(connection);
+        }));
+
+        final var pool = new HonoConnectionPool(vertx, connections, HonoConnectionPool.Placement.TENANT_HASH);
+        pool.connect().onComplete(ctx.succeeding(ok -> {
+            ctx.verify(() -> {
+                assertThat(contexts.keySet()).containsExactlyElementsIn(connections);
+                assertThat(Set.copyOf(contexts.values())).hasSize(3);
+            });
+            ctx.completeNow();
+        }));
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021 Contributors to the Eclipse Foundation
+ * Copyright (c) 2021, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -17,9 +17,9 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 
 import org.eclipse.hono.application.client.MessageProperties;
+import org.eclipse.hono.client.kafka.KafkaRecordHeaders;
 import org.eclipse.hono.client.kafka.KafkaRecordHelper;
 
 import io.vertx.core.buffer.Buffer;
@@ -27,10 +27,13 @@ import io.vertx.kafka.client.consumer.KafkaConsumerRecord;
 
 /**
  * The metadata of a Kafka Message created from a {@link KafkaConsumerRecord}.
+ * <p>
+ * The record's headers are indexed on first access only and each property value is decoded at most once.
  */
 public class KafkaMessageProperties implements MessageProperties {
 
-    private final Map<String, Object> properties = new HashMap<>();
+    private final KafkaRecordHeaders headers;
+    private Map<String, Object> properties;
 
     /**
      * Creates message properties from a Kafka consumer record.
@@ -39,9 +42,17 @@ public class KafkaMessageProperties implements MessageProperties {
      * @throws NullPointerException if record is {@code null}.
      */
     public KafkaMessageProperties(final KafkaConsumerRecord<String, Buffer> record) {
-        Objects.requireNonNull(record);
+        this(new KafkaRecordHeaders(Objects.requireNonNull(record).headers()));
+    }
 
-        record.headers().forEach(header -> properties.put(header.key(), header.value()));
+    /**
+     * Creates message properties from the headers of a Kafka consumer record.
+     *
+     * @param headers The view on the record's headers.
+     * @throws NullPointerException if headers is {@code null}.
+     */
+    public KafkaMessageProperties(final KafkaRecordHeaders headers) {
+        this.headers = Objects.requireNonNull(headers);
     }
 
     /**
@@ -52,22 +63,24 @@ public class KafkaMessageProperties implements MessageProperties {
      * @return An unmodifiable map containing the headers of the {@link KafkaConsumerRecord}.
      */
     @Override
-    public final Map<String, Object> getPropertiesMap() {
-        return Collections.unmodifiableMap(properties);
+    public final synchronized Map<String, Object> getPropertiesMap() {
+        if (properties == null) {
+            final Map<String, Object> map = new HashMap<>();
+            headers.getHeaders().forEach(header -> map.put(header.key(), header.value()));
+            properties = Collections.unmodifiableMap(map);
+        }
+        return properties;
     }
 
     /**
      * {@inheritDoc}
      * <p>
-     * The values in the map are of type {@link Buffer}.
+     * Compactly encoded values are decoded if the record contains the {@value KafkaRecordHelper#HEADER_VERSION}
+     * header. If the record contains multiple headers with the given name, the value of the first one is returned.
      */
     @Override
     public final <T> T getProperty(final String name, final Class<T> type) {
-        return Optional.ofNullable(properties.get(name))
-                .filter(Buffer.class::isInstance)
-                .map(Buffer.class::cast)
-                .map(value -> KafkaRecordHelper.decode(value, type))
-                .orElse(null);
+        return headers.getValue(name, type).orElse(null);
     }
 
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2021, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -16,9 +16,11 @@ package org.eclipse.hono.application.client.kafka.impl;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -47,13 +49,21 @@ import io.vertx.kafka.client.consumer.KafkaConsumerRecord;
 /**
  * A Kafka based client that supports Hono's north bound operations to send commands and receive telemetry,
  * event and command response messages.
+ * <p>
+ * By default, a separate Kafka consumer is created for each downstream message consumer. If shared consumers
+ * are enabled, a single Kafka consumer per message type is used for all tenants instead.
+ *
+ * @see #setSharedConsumersEnabled(boolean)
  */
 public class KafkaApplicationClientImpl extends KafkaBasedCommandSender implements KafkaApplicationClient {
 
     private final Vertx vertx;
     private final MessagingKafkaConsumerConfigProperties consumerConfig;
     private final List<MessageConsumer> consumersToCloseOnStop = new ArrayList<>();
+    private final Map<HonoTopic.Type, SharedDownstreamMessageConsumer> sharedConsumers = new ConcurrentHashMap<>();
     private Supplier<Consumer<String, Buffer>> kafkaConsumerSupplier;
+    private boolean sharedConsumersEnabled;
+    private int maxQueuedRecordsPerSharedConsumer = SharedDownstreamMessageConsumer.DEFAULT_MAX_QUEUED_RECORDS;
 
     /**
      * Creates a new Kafka based application client.
@@ -103,6 +113,48 @@ public class KafkaApplicationClientImpl extends KafkaBasedCommandSender implemen
         this.consumerConfig = consumerConfig;
     }
 
+    /**
+     * Sets whether the consumers for telemetry, event and command response messages should share
+     * a single Kafka consumer per message type.
+     * <p>
+     * A shared Kafka consumer subscribes to the topics of all tenants by means of a topic pattern and
+     * dispatches the received records to the message handlers of the tenants in a round-robin fashion,
+     * so that a tenant with a high message rate does not delay the messages of the other tenants.
+     * Records of tenants for which no consumer has been created are skipped. Note that if a {@code group.id}
+     * is configured, the offsets of the skipped records get committed as well. Applications sharing the
+     * consumer group with other consumers should therefore only enable this mode if they consume the
+     * messages of all tenants. The offsets of records that have been received but not yet been dispatched
+     * to a tenant's handler are not committed, so that queued events are not lost if the application crashes.
+     * <p>
+     * The default value of this property is {@code false}.
+     *
+     * @param enabled {@code true} if shared consumers should be used.
+     */
+    public final void setSharedConsumersEnabled(final boolean enabled) {
+        this.sharedConsumersEnabled = enabled;
+    }
+
+    /**
+     * Sets the maximum number of records that a shared consumer queues for dispatching before it pauses
+     * fetching records from the Kafka broker.
+     * <p>
+     * The default value of this property is 1000.
+     * <p>
+     * The limit does not apply to shared consumers that commit offsets for a consumer group. These
+     * consumers throttle record fetching based on the <em>max.poll.records</em> config value instead,
+     * also taking the queued records into account.
+     *
+     * @param maxQueuedRecords The maximum number of records.
+     * @throws IllegalArgumentException if the number is not positive.
+     * @see #setSharedConsumersEnabled(boolean)
+     */
+    public final void setMaxQueuedRecordsPerSharedConsumer(final int maxQueuedRecords) {
+        if (maxQueuedRecords <= 0) {
+            throw new IllegalArgumentException("max queued records must be > 0");
+        }
+        this.maxQueuedRecordsPerSharedConsumer = maxQueuedRecords;
+    }
+
     @Override
     public void addOnClientReadyHandler(final Handler<AsyncResult<Void>> handler) {
         addOnKafkaProducerReadyHandler(handler);
@@ -115,6 +167,7 @@ public class KafkaApplicationClientImpl extends KafkaBasedCommandSender implemen
         final List<Future> closeKafkaClientsTracker = consumersToCloseOnStop.stream()
                 .map(MessageConsumer::close)
                 .collect(Collectors.toList());
+        sharedConsumers.values().forEach(consumer -> closeKafkaClientsTracker.add(consumer.stop()));
         // add command sender related clients
         closeKafkaClientsTracker.add(super.stop());
         return CompositeFuture.join(closeKafkaClientsTracker)
@@ -169,6 +222,11 @@ public class KafkaApplicationClientImpl extends KafkaBasedCommandSender implemen
         Objects.requireNonNull(type);
         Objects.requireNonNull(messageHandler);
 
+        if (sharedConsumersEnabled) {
+            return sharedConsumers.computeIfAbsent(type, this::createSharedConsumer)
+                    .createConsumer(tenantId, messageHandler);
+        }
+
         final String topic = new HonoTopic(type, tenantId).toString();
         final Handler<KafkaConsumerRecord<String, Buffer>> recordHandler = record -> {
             messageHandler.handle(new KafkaDownstreamMessage(record));
@@ -190,4 +248,14 @@ public class KafkaApplicationClientImpl extends KafkaBasedCommandSender implemen
                 })
                 .onSuccess(consumersToCloseOnStop::add);
     }
+
+    private SharedDownstreamMessageConsumer createSharedConsumer(final HonoTopic.Type type) {
+        return new SharedDownstreamMessageConsumer(
+                vertx,
+                type,
+                consumerConfig.getConsumerConfig(type.toString()),
+                Duration.ofMillis(consumerConfig.getPollTimeout()),
+                kafkaConsumerSupplier,
+                maxQueuedRecordsPerSharedConsumer);
+    }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2021, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -15,7 +15,6 @@ package org.eclipse.hono.application.client.kafka.impl;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -24,30 +23,27 @@ import org.eclipse.hono.application.client.MessageProperties;
 import org.eclipse.hono.application.client.kafka.KafkaMessageContext;
 import org.eclipse.hono.application.client.kafka.KafkaMessageProperties;
 import org.eclipse.hono.client.kafka.HonoTopic;
-import org.eclipse.hono.client.kafka.KafkaRecordHelper;
+import org.eclipse.hono.client.kafka.KafkaRecordHeaders;
 import org.eclipse.hono.util.CommandConstants;
 import org.eclipse.hono.util.MessageHelper;
 import org.eclipse.hono.util.QoS;
 
 import io.vertx.core.buffer.Buffer;
 import io.vertx.kafka.client.consumer.KafkaConsumerRecord;
-import io.vertx.kafka.client.producer.KafkaHeader;
 
 /**
  * A downstream message of Hono's Kafka-based north bound APIs.
+ * <p>
+ * The values of the message's properties are read from the record's headers on first access.
  */
 public class KafkaDownstreamMessage implements DownstreamMessage<KafkaMessageContext> {
 
     private final String tenantId;
     private final String deviceId;
+    private final KafkaRecordHeaders headers;
     private final MessageProperties properties;
-    private final String contentType;
     private final KafkaMessageContext messageContext;
-    private final QoS qos;
     private final Buffer payload;
-    private final Instant creationTime;
-    private final Duration timeToLive;
-    private final Integer timeTillDisconnect;
 
     /**
      * Creates a downstream message from the given Kafka consumer record.
@@ -61,14 +57,10 @@ public class KafkaDownstreamMessage implements DownstreamMessage<KafkaMessageCon
 
         tenantId = getTenantIdFromTopic(record);
         deviceId = record.key();
-        properties = new KafkaMessageProperties(record);
-        contentType = getContentTypeHeaderValue(record.headers());
+        headers = new KafkaRecordHeaders(record.headers());
+        properties = new KafkaMessageProperties(headers);
         messageContext = new KafkaMessageContext(record);
-        qos = getQosHeaderValue(record.headers());
         payload = record.value();
-        creationTime = getCreationTimeHeaderValue(record.headers());
-        timeToLive = getTimeToLiveHeaderValue(record.headers());
-        timeTillDisconnect = getTimeTillDisconnectHeaderValue(record.headers());
     }
 
     private String getTenantIdFromTopic(final KafkaConsumerRecord<String, Buffer> record) {
@@ -77,32 +69,6 @@ public class KafkaDownstreamMessage implements DownstreamMessage<KafkaMessageCon
                 .orElseThrow(() -> new IllegalArgumentException("Invalid topic name"));
     }
 
-    private String getContentTypeHeaderValue(final List<KafkaHeader> headers) {
-        return KafkaRecordHelper.getContentType(headers)
-                .orElse(MessageHelper.CONTENT_TYPE_OCTET_STREAM);
-    }
-
-    private QoS getQosHeaderValue(final List<KafkaHeader> headers) {
-        return KafkaRecordHelper.getQoS(headers)
-                .orElse(QoS.AT_LEAST_ONCE);
-    }
-
-    private Instant getCreationTimeHeaderValue(final List<KafkaHeader> headers) {
-        return KafkaRecordHelper.getCreationTime(headers)
-                .orElse(null);
-    }
-
-    private Duration getTimeToLiveHeaderValue(final List<KafkaHeader> headers) {
-        return KafkaRecordHelper.getHeaderValue(headers, MessageHelper.SYS_HEADER_PROPERTY_TTL, Long.class)
-                .map(Duration::ofMillis)
-                .orElse(null);
-    }
-
-    private Integer getTimeTillDisconnectHeaderValue(final List<KafkaHeader> headers) {
-        return KafkaRecordHelper.getHeaderValue(headers, CommandConstants.MSG_PROPERTY_DEVICE_TTD, Integer.class)
-                .orElse(null);
-    }
-
     @Override
     public final String getTenantId() {
         return tenantId;
@@ -120,7 +86,8 @@ public class KafkaDownstreamMessage implements DownstreamMessage<KafkaMessageCon
 
     @Override
     public final String getContentType() {
-        return contentType;
+        return headers.getContentType()
+                .orElse(MessageHelper.CONTENT_TYPE_OCTET_STREAM);
     }
 
     @Override
@@ -130,7 +97,8 @@ public class KafkaDownstreamMessage implements DownstreamMessage<KafkaMessageCon
 
     @Override
     public final QoS getQos() {
-        return qos;
+        return headers.getQoS()
+                .orElse(QoS.AT_LEAST_ONCE);
     }
 
     @Override
@@ -140,7 +108,8 @@ public class KafkaDownstreamMessage implements DownstreamMessage<KafkaMessageCon
 
     @Override
     public Instant getCreationTime() {
-        return creationTime;
+        return headers.getCreationTime()
+                .orElse(null);
     }
 
     /**
@@ -148,12 +117,15 @@ public class KafkaDownstreamMessage implements DownstreamMessage<KafkaMessageCon
      */
     @Override
     public Duration getTimeToLive() {
-        return timeToLive;
+        return headers.getValue(MessageHelper.SYS_HEADER_PROPERTY_TTL, Long.class)
+                .map(Duration::ofMillis)
+                .orElse(null);
     }
 
     @Override
     public Integer getTimeTillDisconnect() {
-        return timeTillDisconnect;
+        return headers.getValue(CommandConstants.MSG_PROPERTY_DEVICE_TTD, Integer.class)
+                .orElse(null);
     }
 
     @Override
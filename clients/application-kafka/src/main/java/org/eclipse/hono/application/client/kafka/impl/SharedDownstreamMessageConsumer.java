@@ -0,0 +1,304 @@
+/**
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.hono.application.client.kafka.impl;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.eclipse.hono.application.client.DownstreamMessage;
+import org.eclipse.hono.application.client.MessageConsumer;
+import org.eclipse.hono.application.client.kafka.KafkaMessageContext;
+import org.eclipse.hono.client.kafka.HonoTopic;
+import org.eclipse.hono.client.kafka.consumer.AsyncHandlingAutoCommitKafkaConsumer;
+import org.eclipse.hono.client.kafka.consumer.HonoKafkaConsumer;
+import org.eclipse.hono.util.Lifecycle;
+import org.eclipse.hono.util.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.kafka.client.consumer.KafkaConsumerRecord;
+
+/**
+ * A consumer of downstream messages of a given type that uses a single Kafka consumer for all tenants.
+ * <p>
+ * The Kafka consumer subscribes to all topics of the message type by means of a topic pattern. The received
+ * records are dispatched to the message handlers registered for the tenants. Records of tenants for which no
+ * handler is registered are skipped.
+ * <p>
+ * In order to prevent a tenant with a high message rate from delaying the messages of the other tenants, records
+ * are put into per-tenant queues and are then dispatched in a round-robin fashion, one record per tenant at a time.
+ * <p>
+ * If a consumer group is configured and auto-commit has not been disabled explicitly, the offsets of queued
+ * records are not committed before the records have been dispatched to the tenant's handler. Offsets are committed
+ * periodically by means of an {@link AsyncHandlingAutoCommitKafkaConsumer} instead of the Kafka consumer's
+ * auto-commit, so that records which are still queued when the application crashes or the consumer is stopped
+ * are received again, e.g. by another member of the consumer group. In this case, queued records count as records
+ * in processing for the {@code AsyncHandlingAutoCommitKafkaConsumer}, which then throttles record fetching based on
+ * the <em>max.poll.records</em> config value.
+ * <p>
+ * Otherwise, record fetching is paused if the number of queued records reaches a configurable maximum and is
+ * resumed once half of the queued records have been dispatched.
+ */
+final class SharedDownstreamMessageConsumer implements Lifecycle {
+
+    /**
+     * The default maximum number of records to queue before pausing record fetching.
+     */
+    static final int DEFAULT_MAX_QUEUED_RECORDS = 1000;
+    /**
+     * The maximum number of records to dispatch in one go before yielding to other tasks on the event loop.
+     */
+    static final int MAX_RECORDS_PER_DISPATCH_RUN = 100;
+
+    private static final Logger LOG = LoggerFactory.getLogger(SharedDownstreamMessageConsumer.class);
+
+    private final Vertx vertx;
+    private final HonoTopic.Type type;
+    private final HonoKafkaConsumer<Buffer> consumer;
+    private final int maxQueuedRecords;
+    private final boolean throttlingByQueuedRecords;
+    private final Map<String, Handler<DownstreamMessage<KafkaMessageContext>>> messageHandlers = new ConcurrentHashMap<>();
+    // the following fields are only accessed on the Kafka consumer's vert.x context
+    private final Map<String, Deque<QueuedRecord>> queuedRecords = new HashMap<>();
+    private final Deque<String> tenantsWithQueuedRecords = new ArrayDeque<>();
+    private int noOfQueuedRecords;
+    private boolean dispatchScheduled;
+
+    private Future<Void> startResult;
+
+    /**
+     * Creates a new consumer.
+     *
+     * @param vertx The vert.x instance to use.
+     * @param type The type of messages to consume.
+     * @param consumerConfig The Kafka consumer configuration.
+     * @param pollTimeout The timeout to use when polling for records.
+     * @param kafkaConsumerSupplier The supplier of the underlying Kafka consumer or {@code null} if the
+     *                              Kafka consumer should be created from the configuration.
+     * @param maxQueuedRecords The maximum number of records to queue before pausing record fetching.
+     *                         Not used if offsets are committed for a consumer group, in which case
+     *                         record fetching is throttled by the {@link AsyncHandlingAutoCommitKafkaConsumer}.
+     * @throws NullPointerException if any of the parameters other than the supplier are {@code null}.
+     * @throws IllegalArgumentException if max queued records is not positive.
+     */
+    SharedDownstreamMessageConsumer(
+            final Vertx vertx,
+            final HonoTopic.Type type,
+            final Map<String, String> consumerConfig,
+            final Duration pollTimeout,
+            final Supplier<Consumer<String, Buffer>> kafkaConsumerSupplier,
+            final int maxQueuedRecords) {
+
+        this.vertx = Objects.requireNonNull(vertx);
+        this.type = Objects.requireNonNull(type);
+        Objects.requireNonNull(consumerConfig);
+        Objects.requireNonNull(pollTimeout);
+        if (maxQueuedRecords <= 0) {
+            throw new IllegalArgumentException("max queued records must be > 0");
+        }
+        this.maxQueuedRecords = maxQueuedRecords;
+
+        final Pattern topicPattern = Pattern.compile(Pattern.quote(type.prefix) + ".*");
+        if (isOffsetCommitRequired(consumerConfig)) {
+            // the consumer throttles record fetching based on the records in processing, including the queued ones,
+            // pausing and resuming record fetching here as well would interfere with that
+            consumer = new AsyncHandlingAutoCommitKafkaConsumer<>(vertx, topicPattern, this::handleRecord, consumerConfig);
+            throttlingByQueuedRecords = false;
+        } else {
+            consumer = new HonoKafkaConsumer<>(vertx, topicPattern, record -> handleRecord(record), consumerConfig);
+            throttlingByQueuedRecords = true;
+        }
+        consumer.setPollTimeout(pollTimeout);
+        if (kafkaConsumerSupplier != null) {
+            consumer.setKafkaConsumerSupplier(kafkaConsumerSupplier);
+        }
+    }
+
+    private static boolean isOffsetCommitRequired(final Map<String, String> consumerConfig) {
+        return !Strings.isNullOrEmpty(consumerConfig.get(ConsumerConfig.GROUP_ID_CONFIG))
+                && !"false".equals(consumerConfig.get(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Starts the underlying Kafka consumer.
+     *
+     * @return A future that will be completed once the Kafka consumer is ready to receive records.
+     */
+    @Override
+    public synchronized Future<Void> start() {
+        if (startResult == null) {
+            final Promise<Void> readyTracker = Promise.promise();
+            consumer.addOnKafkaConsumerReadyHandler(readyTracker);
+            startResult = consumer.start()
+                    .compose(ok -> readyTracker.future());
+        }
+        return startResult;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Removes all message handlers and stops the underlying Kafka consumer.
+     */
+    @Override
+    public Future<Void> stop() {
+        messageHandlers.clear();
+        return consumer.stop();
+    }
+
+    /**
+     * Checks if fetching of records is currently paused.
+     *
+     * @return {@code true} if record fetching is paused.
+     */
+    boolean isRecordFetchingPaused() {
+        return consumer.isRecordFetchingPaused();
+    }
+
+    /**
+     * Registers a handler for the messages of a tenant.
+     * <p>
+     * Starts the underlying Kafka consumer if it has not been started yet.
+     *
+     * @param tenantId The tenant to consume messages for.
+     * @param messageHandler The handler to invoke with every message received.
+     * @return A future indicating the outcome of the operation.
+     *         The future will be failed with an {@link IllegalStateException} if a handler is already registered
+     *         for the tenant.
+     * @throws NullPointerException if any of the parameters are {@code null}.
+     */
+    Future<MessageConsumer> createConsumer(
+            final String tenantId,
+            final Handler<DownstreamMessage<KafkaMessageContext>> messageHandler) {
+
+        Objects.requireNonNull(tenantId);
+        Objects.requireNonNull(messageHandler);
+
+        if (messageHandlers.putIfAbsent(tenantId, messageHandler) != null) {
+            return Future.failedFuture(new IllegalStateException(
+                    "%s consumer for tenant [%s] already exists".formatted(type, tenantId)));
+        }
+        final String topic = new HonoTopic(type, tenantId).toString();
+        return start()
+                .compose(ok -> consumer.ensureTopicIsAmongSubscribedTopicPatternTopics(topic)
+                        .recover(t -> {
+                            // records will be received once the topic has been created
+                            LOG.debug("topic is not among subscribed topics (yet) [{}]: {}", topic, t.getMessage());
+                            return Future.succeededFuture();
+                        }))
+                .onFailure(t -> messageHandlers.remove(tenantId, messageHandler))
+                .map(ok -> (MessageConsumer) new MessageConsumer() {
+                    @Override
+                    public Future<Void> close() {
+                        messageHandlers.remove(tenantId, messageHandler);
+                        return Future.succeededFuture();
+                    }
+                });
+    }
+
+    /**
+     * Queues a record for dispatching.
+     *
+     * @param record The record.
+     * @return A future that will be completed once the record has been dispatched or skipped, i.e. once
+     *         the record's offset may be committed.
+     */
+    private Future<Void> handleRecord(final KafkaConsumerRecord<String, Buffer> record) {
+        final String tenantId = record.topic().substring(type.prefix.length());
+        if (!messageHandlers.containsKey(tenantId)) {
+            LOG.trace("skipping record of tenant without consumer [topic: {}, partition: {}, offset: {}]",
+                    record.topic(), record.partition(), record.offset());
+            return Future.succeededFuture();
+        }
+        final QueuedRecord queuedRecord = new QueuedRecord(record);
+        queuedRecords.computeIfAbsent(tenantId, k -> {
+            tenantsWithQueuedRecords.add(k);
+            return new ArrayDeque<>();
+        }).add(queuedRecord);
+        noOfQueuedRecords++;
+        if (throttlingByQueuedRecords && noOfQueuedRecords >= maxQueuedRecords && consumer.pauseRecordFetching()) {
+            LOG.debug("paused record fetching, {} records are queued", noOfQueuedRecords);
+        }
+        scheduleDispatch();
+        return queuedRecord.dispatched.future();
+    }
+
+    private void scheduleDispatch() {
+        if (!dispatchScheduled) {
+            dispatchScheduled = true;
+            vertx.runOnContext(v -> dispatchQueuedRecords());
+        }
+    }
+
+    private void dispatchQueuedRecords() {
+        dispatchScheduled = false;
+        int dispatchedRecords = 0;
+        while (dispatchedRecords < MAX_RECORDS_PER_DISPATCH_RUN && !tenantsWithQueuedRecords.isEmpty()) {
+            final String tenantId = tenantsWithQueuedRecords.poll();
+            final Deque<QueuedRecord> records = queuedRecords.get(tenantId);
+            final QueuedRecord queuedRecord = records.poll();
+            final KafkaConsumerRecord<String, Buffer> record = queuedRecord.record;
+            noOfQueuedRecords--;
+            if (records.isEmpty()) {
+                queuedRecords.remove(tenantId);
+            } else {
+                // move tenant to the end of the line
+                tenantsWithQueuedRecords.add(tenantId);
+            }
+            final Handler<DownstreamMessage<KafkaMessageContext>> messageHandler = messageHandlers.get(tenantId);
+            if (messageHandler != null) {
+                dispatchedRecords++;
+                try {
+                    messageHandler.handle(new KafkaDownstreamMessage(record));
+                } catch (final Exception e) {
+                    LOG.warn("error handling record [topic: {}, partition: {}, offset: {}]",
+                            record.topic(), record.partition(), record.offset(), e);
+                }
+            }
+            queuedRecord.dispatched.complete();
+        }
+        if (throttlingByQueuedRecords && noOfQueuedRecords <= maxQueuedRecords / 2 && consumer.resumeRecordFetching()) {
+            LOG.debug("resumed record fetching, {} records are queued", noOfQueuedRecords);
+        }
+        if (!tenantsWithQueuedRecords.isEmpty()) {
+            scheduleDispatch();
+        }
+    }
+
+    private static final class QueuedRecord {
+
+        final KafkaConsumerRecord<String, Buffer> record;
+        final Promise<Void> dispatched = Promise.promise();
+
+        QueuedRecord(final KafkaConsumerRecord<String, Buffer> record) {
+            this.record = record;
+        }
+    }
+}
@@ -0,0 +1,267 @@
+/**
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.hono.application.client.kafka.impl;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.eclipse.hono.application.client.DownstreamMessage;
+import org.eclipse.hono.application.client.MessageConsumer;
+import org.eclipse.hono.application.client.kafka.KafkaMessageContext;
+import org.eclipse.hono.client.kafka.HonoTopic;
+import org.eclipse.hono.kafka.test.KafkaMockConsumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.junit5.Timeout;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+
+/**
+ * Verifies behavior of {@link SharedDownstreamMessageConsumer}.
+ */
+@ExtendWith(VertxExtension.class)
+@Timeout(value = 5, timeUnit = TimeUnit.SECONDS)
+public class SharedDownstreamMessageConsumerTest {
+
+    private static final List<String> TENANTS = List.of("noisy-tenant", "quiet-tenant", "other-tenant");
+
+    private KafkaMockConsumer<String, Buffer> mockConsumer;
+    private SharedDownstreamMessageConsumer consumer;
+
+    /**
+     * Sets up fixture.
+     *
+     * @param vertx The vert.x instance to use.
+     */
+    @BeforeEach
+    void setUp(final Vertx vertx) {
+        mockConsumer = new KafkaMockConsumer<>(OffsetResetStrategy.LATEST);
+        final List<TopicPartition> partitions = new ArrayList<>();
+        for (final String tenant : TENANTS) {
+            final TopicPartition partition = new TopicPartition(topic(tenant), 0);
+            mockConsumer.updatePartitions(partition, KafkaMockConsumer.DEFAULT_NODE);
+            mockConsumer.updateBeginningOffsets(Map.of(partition, 0L));
+            mockConsumer.updateEndOffsets(Map.of(partition, 0L));
+            partitions.add(partition);
+        }
+        mockConsumer.setRebalancePartitionAssignmentAfterSubscribe(partitions);
+
+        final Map<String, String> consumerConfig = new HashMap<>();
+        consumerConfig.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "kafka");
+        consumer = new SharedDownstreamMessageConsumer(
+                vertx,
+                HonoTopic.Type.TELEMETRY,
+                consumerConfig,
+                Duration.ofMillis(100),
+                () -> mockConsumer,
+                SharedDownstreamMessageConsumer.DEFAULT_MAX_QUEUED_RECORDS);
+    }
+
+    /**
+     * Cleans up fixture.
+     *
+     * @param ctx The vert.x test context.
+     */
+    @AfterEach
+    void shutDown(final VertxTestContext ctx) {
+        consumer.stop().onComplete(r -> ctx.completeNow());
+    }
+
+    private static String topic(final String tenantId) {
+        return new HonoTopic(HonoTopic.Type.TELEMETRY, tenantId).toString();
+    }
+
+    private void addRecords(final String tenantId, final int fromOffset, final int count) {
+        for (int offset = fromOffset; offset < fromOffset + count; offset++) {
+            mockConsumer.addRecord(new ConsumerRecord<>(topic(tenantId), 0, offset, "device", Buffer.buffer()));
+        }
+    }
+
+    /**
+     * Verifies that the records received for multiple tenants are dispatched to the tenants'
+     * handlers in a round-robin fashion and that records of tenants without a handler are skipped.
+     *
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testRecordsAreDispatchedFairlyToTenantHandlers(final VertxTestContext ctx) {
+
+        final List<String> receivedMessages = new ArrayList<>();
+        final List<String> expectedMessages = List.of(
+                "noisy-tenant", "quiet-tenant", "noisy-tenant", "quiet-tenant", "noisy-tenant", "noisy-tenant");
+
+        final Handler<DownstreamMessage<KafkaMessageContext>> messageHandler = msg -> {
+            receivedMessages.add(msg.getTenantId());
+            if (receivedMessages.size() == expectedMessages.size()) {
+                ctx.verify(() -> assertThat(receivedMessages).containsExactlyElementsIn(expectedMessages).inOrder());
+                ctx.completeNow();
+            }
+        };
+
+        consumer.createConsumer("noisy-tenant", messageHandler)
+            .compose(ok -> consumer.createConsumer("quiet-tenant", messageHandler))
+            .onComplete(ctx.succeeding(ok -> {
+                mockConsumer.schedulePollTask(() -> {
+                    addRecords("noisy-tenant", 0, 4);
+                    addRecords("other-tenant", 0, 1);
+                    addRecords("quiet-tenant", 0, 2);
+                });
+            }));
+    }
+
+    /**
+     * Verifies that only one handler can be registered per tenant and that another handler can be
+     * registered once the consumer of the tenant has been closed.
+     *
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testCreateConsumerFailsForTenantWithExistingConsumer(final VertxTestContext ctx) {
+
+        consumer.createConsumer("quiet-tenant", msg -> {})
+            .compose(messageConsumer -> {
+                final Future<MessageConsumer> duplicateConsumer = consumer.createConsumer("quiet-tenant", msg -> {});
+                ctx.verify(() -> {
+                    assertThat(duplicateConsumer.failed()).isTrue();
+                    assertThat(duplicateConsumer.cause()).isInstanceOf(IllegalStateException.class);
+                });
+                return messageConsumer.close();
+            })
+            .compose(ok -> consumer.createConsumer("quiet-tenant", msg -> {}))
+            .onComplete(ctx.succeeding(messageConsumer -> ctx.completeNow()));
+    }
+
+    /**
+     * Verifies that the offsets of the dispatched records are committed if a consumer group is configured.
+     *
+     * @param vertx The vert.x instance to use.
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testOffsetsOfDispatchedRecordsAreCommitted(final Vertx vertx, final VertxTestContext ctx) {
+
+        final Map<String, String> consumerConfig = new HashMap<>();
+        consumerConfig.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "kafka");
+        consumerConfig.put(ConsumerConfig.GROUP_ID_CONFIG, UUID.randomUUID().toString());
+        consumerConfig.put(ConsumerConfig.AUTO_COMMIT_INTERVAL_MS_CONFIG, "100");
+        consumer = new SharedDownstreamMessageConsumer(
+                vertx,
+                HonoTopic.Type.TELEMETRY,
+                consumerConfig,
+                Duration.ofMillis(100),
+                () -> mockConsumer,
+                SharedDownstreamMessageConsumer.DEFAULT_MAX_QUEUED_RECORDS);
+        final TopicPartition partition = new TopicPartition(topic("quiet-tenant"), 0);
+        final AtomicInteger receivedMessages = new AtomicInteger();
+
+        consumer.createConsumer("quiet-tenant", msg -> {
+            if (receivedMessages.incrementAndGet() == 3) {
+                vertx.setPeriodic(100, tid -> mockConsumer.schedulePollTask(() -> {
+                    final OffsetAndMetadata committed = mockConsumer.committed(Set.of(partition)).get(partition);
+                    if (committed != null && committed.offset() == 3L) {
+                        vertx.cancelTimer(tid);
+                        ctx.completeNow();
+                    }
+                }));
+            }
+        })
+            .onComplete(ctx.succeeding(ok -> mockConsumer.schedulePollTask(() -> addRecords("quiet-tenant", 0, 3))));
+    }
+
+    /**
+     * Verifies that record fetching is paused if the maximum number of queued records has been reached.
+     *
+     * @param vertx The vert.x instance to use.
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testRecordFetchingIsPausedIfMaxQueuedRecordsIsReached(final Vertx vertx, final VertxTestContext ctx) {
+
+        final Map<String, String> consumerConfig = new HashMap<>();
+        consumerConfig.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "kafka");
+        consumer = new SharedDownstreamMessageConsumer(
+                vertx,
+                HonoTopic.Type.TELEMETRY,
+                consumerConfig,
+                Duration.ofMillis(100),
+                () -> mockConsumer,
+                2);
+        final AtomicInteger receivedMessages = new AtomicInteger();
+
+        consumer.createConsumer("quiet-tenant", msg -> {
+            if (receivedMessages.incrementAndGet() == 1) {
+                // all records of the poll operation have been queued before the first one gets dispatched
+                ctx.verify(() -> assertThat(consumer.isRecordFetchingPaused()).isTrue());
+            } else if (receivedMessages.get() == 3) {
+                vertx.runOnContext(v -> {
+                    ctx.verify(() -> assertThat(consumer.isRecordFetchingPaused()).isFalse());
+                    ctx.completeNow();
+                });
+            }
+        })
+            .onComplete(ctx.succeeding(ok -> mockConsumer.schedulePollTask(() -> addRecords("quiet-tenant", 0, 3))));
+    }
+
+    /**
+     * Verifies that record fetching is not paused based on the maximum number of queued records if offsets
+     * are committed for a consumer group, in which case record fetching is throttled by the underlying consumer.
+     *
+     * @param vertx The vert.x instance to use.
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testMaxQueuedRecordsIsIgnoredIfOffsetsAreCommitted(final Vertx vertx, final VertxTestContext ctx) {
+
+        final Map<String, String> consumerConfig = new HashMap<>();
+        consumerConfig.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "kafka");
+        consumerConfig.put(ConsumerConfig.GROUP_ID_CONFIG, UUID.randomUUID().toString());
+        consumer = new SharedDownstreamMessageConsumer(
+                vertx,
+                HonoTopic.Type.TELEMETRY,
+                consumerConfig,
+                Duration.ofMillis(100),
+                () -> mockConsumer,
+                2);
+        final AtomicInteger receivedMessages = new AtomicInteger();
+
+        consumer.createConsumer("quiet-tenant", msg -> {
+            ctx.verify(() -> assertThat(consumer.isRecordFetchingPaused()).isFalse());
+            if (receivedMessages.incrementAndGet() == 3) {
+                ctx.completeNow();
+            }
+        })
+            .onComplete(ctx.succeeding(ok -> mockConsumer.schedulePollTask(() -> addRecords("quiet-tenant", 0, 3))));
+    }
+}
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2019, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2019, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -15,10 +15,12 @@ package org.eclipse.hono.client.util;
 
 import java.net.HttpURLConnection;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Deque;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
@@ -26,7 +28,9 @@ import org.eclipse.hono.client.ServerErrorException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.smallrye.common.vertx.VertxContext;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
@@ -36,7 +40,12 @@ import io.vertx.core.Vertx;
  * <p>
  * Created clients are being cached.
  * <p>
- * Note that this class is not thread-safe - an instance is intended to be used by the same vert.x event loop thread.
+ * This class is thread-safe, i.e. an instance may be shared by components running on different vert.x
+ * event loop threads. Looking up a cached client does not require any locking. Concurrent requests for
+ * creating a client for the same key are queued and get completed in the order in which they have been made,
+ * using the client that has been created for the first request. The handlers passed in to
+ * {@link #getOrCreateClient(String, Supplier, Handler)} are invoked on the vert.x context that the
+ * method has been invoked on.
  *
  * @param <T> The type of client to be created.
  */
@@ -52,16 +61,17 @@ public final class CachingClientFactory<T> {
     /**
      * Client instances for keys.
      */
-    private final Map<String, T> activeClients = new HashMap<>();
+    private final Map<String, T> activeClients = new ConcurrentHashMap<>();
     /**
      * List of client creation requests that are put on hold because a concurrent request (for the same key)
-     * is not yet completed.
+     * is not yet completed. The list of a key is only modified from within an atomic operation on this map
+     * and the key is removed once the list becomes empty.
      */
-    private final Map<String, Deque<CreationRequest>> waitingCreationRequests = new HashMap<>();
+    private final Map<String, Deque<CreationRequest>> waitingCreationRequests = new ConcurrentHashMap<>();
     /**
      * See {@link #setWaitingCreationRequestsCompletionBatchSize(int)}.
      */
-    private int waitingCreationRequestsCompletionBatchSize = WAITING_CREATION_REQUESTS_COMPLETION_BATCH_SIZE_DEFAULT;
+    private volatile int waitingCreationRequestsCompletionBatchSize = WAITING_CREATION_REQUESTS_COMPLETION_BATCH_SIZE_DEFAULT;
 
     /**
      * Creates a new factory.
@@ -83,7 +93,7 @@ public final class CachingClientFactory<T> {
                 HttpURLConnection.HTTP_UNAVAILABLE,
                 "no connection to service");
         activeClients.clear();
-        waitingCreationRequests.keySet().forEach(key -> {
+        List.copyOf(waitingCreationRequests.keySet()).forEach(key -> {
             failCreationRequests(key, connectionLostException);
         });
     }
@@ -170,28 +180,50 @@ public final class CachingClientFactory<T> {
 
     private void getOrCreateClient(final CreationRequest creationRequest) {
 
-        final var requestsForKey = waitingCreationRequests.computeIfAbsent(creationRequest.key, k -> new ArrayDeque<>());
-        if (requestsForKey.isEmpty()) {
-            final T sender = activeClients.get(creationRequest.key);
-            if (sender != null && livenessCheck.test(sender)) {
-                log.debug("reusing cached client [key: {}]", creationRequest.key);
-                creationRequest.complete(sender);
+        final String key = creationRequest.key;
+        if (!waitingCreationRequests.containsKey(key)) {
+            // fast path, no lock required
+            final T client = getLiveClient(key);
+            if (client != null) {
+                log.debug("reusing cached client [key: {}]", key);
+                creationRequest.complete(client);
                 return;
+            }
+        }
+
+        final List<T> cachedClient = new ArrayList<>(1);
+        final boolean[] createClient = new boolean[1];
+        waitingCreationRequests.compute(key, (k, requests) -> {
+            if (requests == null) {
+                final T client = getLiveClient(key);
+                if (client != null) {
+                    cachedClient.add(client);
+                    return null;
+                }
+                createClient[0] = true;
+                final Deque<CreationRequest> newRequests = new ArrayDeque<>();
+                newRequests.add(creationRequest);
+                return newRequests;
             } else {
-                requestsForKey.add(creationRequest);
+                // this ensures that requests for a given key are completed in the order that the requests were made
+                requests.add(creationRequest);
+                return requests;
             }
-        } else {
+        });
+
+        if (!cachedClient.isEmpty()) {
+            log.debug("reusing cached client [key: {}]", key);
+            creationRequest.complete(cachedClient.get(0));
+            return;
+        } else if (!createClient[0]) {
             log.debug("""
                     delaying client creation request, previous requests still being finished for [{}] \
                     ({} waiting creation requests for all keys)\
-                    """, creationRequest.key, waitingCreationRequests.size());
-            // this ensures that requests for a given key are completed in the order that the requests were made
-            requestsForKey.add(creationRequest);
+                    """, key, waitingCreationRequests.size());
             return;
         }
 
-
-        log.debug("creating new client for [key: {}]", creationRequest.key);
+        log.debug("creating new client for [key: {}]", key);
 
         try {
             final Future<T> creationAttempt = creationRequest.clientInstanceSupplier.get();
@@ -200,32 +232,41 @@ public final class CachingClientFactory<T> {
             } else {
                 creationAttempt.onComplete(ar -> {
                     if (creationAttempt.succeeded()) {
-                        log.debug("successfully created new client for [key: {}]", creationRequest.key);
+                        log.debug("successfully created new client for [key: {}]", key);
                         final T newClient = creationAttempt.result();
-                        completeCreationRequests(creationRequest.key, newClient);
+                        completeCreationRequests(key, newClient);
                     } else {
-                        failCreationRequests(creationRequest.key, creationAttempt.cause());
+                        failCreationRequests(key, creationAttempt.cause());
                     }
                 });
             }
         } catch (final Exception ex) {
-            log.error("exception creating new client for [key: {}]", creationRequest.key, ex);
-            activeClients.remove(creationRequest.key);
-            failCreationRequests(creationRequest.key, new ServerErrorException(
+            log.error("exception creating new client for [key: {}]", key, ex);
+            activeClients.remove(key);
+            failCreationRequests(key, new ServerErrorException(
                     HttpURLConnection.HTTP_INTERNAL_ERROR,
-                    String.format("exception creating new client for [key: %s]: %s", creationRequest.key, ex.getMessage())));
+                    String.format("exception creating new client for [key: %s]: %s", key, ex.getMessage())));
+        }
+    }
+
+    private T getLiveClient(final String key) {
+        final T client = activeClients.get(key);
+        if (client != null && livenessCheck.test(client)) {
+            return client;
         }
+        return null;
     }
 
     private void failCreationRequests(final String key, final Throwable cause) {
 
         activeClients.remove(key);
 
-        final var requestsForKey = waitingCreationRequests.computeIfAbsent(key, k -> new ArrayDeque<>());
-        final int count = requestsForKey.size();
-        while (!requestsForKey.isEmpty()) {
-            requestsForKey.removeFirst().fail(cause);
+        final Deque<CreationRequest> requestsForKey = waitingCreationRequests.remove(key);
+        if (requestsForKey == null) {
+            return;
         }
+        final int count = requestsForKey.size();
+        requestsForKey.forEach(request -> request.fail(cause));
         if (count > 0 && log.isDebugEnabled()) {
             log.debug("failed {} concurrent requests to create new client for [key: {}]: {}",
                     count, key, cause.getMessage());
@@ -235,17 +276,17 @@ public final class CachingClientFactory<T> {
     private void completeCreationRequests(final String key, final T newClient) {
 
         activeClients.put(key, newClient);
-        final var requestsForKey = waitingCreationRequests.computeIfAbsent(key, k -> new ArrayDeque<>());
 
-        for (int i = 0; i <= waitingCreationRequestsCompletionBatchSize; i++) {
-            final CreationRequest req = requestsForKey.pollFirst();
-            if (req == null) {
-                break;
-            } else {
-                req.complete(newClient);
+        final List<CreationRequest> requestsToComplete = new ArrayList<>();
+        final Deque<CreationRequest> remainingRequests = waitingCreationRequests.computeIfPresent(key, (k, requests) -> {
+            for (int i = 0; i <= waitingCreationRequestsCompletionBatchSize && !requests.isEmpty(); i++) {
+                requestsToComplete.add(requests.removeFirst());
             }
-        }
-        if (!requestsForKey.isEmpty()) {
+            return requests.isEmpty() ? null : requests;
+        });
+
+        requestsToComplete.forEach(request -> request.complete(newClient));
+        if (remainingRequests != null) {
             log.trace("decoupling completion of remaining waiting creation requests");
             vertx.runOnContext(v -> completeCreationRequests(key, newClient));
         }
@@ -258,6 +299,7 @@ public final class CachingClientFactory<T> {
         final String key;
         final Supplier<Future<T>> clientInstanceSupplier;
         final Handler<AsyncResult<T>> result;
+        final Context context = Vertx.currentContext();
 
         CreationRequest(
                 final String key,
@@ -270,12 +312,27 @@ public final class CachingClientFactory<T> {
         }
 
         void complete(final T createdInstance) {
-            result.handle(Future.succeededFuture(createdInstance));
+            handle(Future.succeededFuture(createdInstance));
         }
 
         void fail(final Throwable cause) {
             log.debug("failed to create new client for [key: {}]: {}", key, cause.getMessage());
-            result.handle(Future.failedFuture(cause));
+            handle(Future.failedFuture(cause));
+        }
+
+        private void handle(final AsyncResult<T> outcome) {
+            if (context == null || isRunningOnContext(context)) {
+                result.handle(outcome);
+            } else {
+                // the request has been made by a component running on another event loop
+                context.runOnContext(go -> result.handle(outcome));
+            }
+        }
+
+        private boolean isRunningOnContext(final Context requiredContext) {
+            final Context currentContext = Vertx.currentContext();
+            return currentContext != null
+                    && VertxContext.getRootContext(currentContext) == VertxContext.getRootContext(requiredContext);
         }
     }
 }
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.hono.client.util;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A secondary index for the keys of a response cache.
+ * <p>
+ * The index keeps track of the keys of the cache entries that belong to a tenant and to
+ * a device of a tenant. This allows for invalidating all entries of a tenant or device
+ * at a cost that is proportional to the number of affected entries instead of the
+ * overall size of the cache.
+ * <p>
+ * An index is supposed to be shared by all clients that use the same cache. The cache
+ * needs to be configured to invoke {@link #remove(Object, Object)} when it evicts an entry, see
+ * {@code org.eclipse.hono.service.cache.Caches#newCaffeineCache(RequestResponseClientConfigProperties, ResponseCacheIndex)}.
+ * <p>
+ * This class is thread safe.
+ */
+public final class ResponseCacheIndex {
+
+    private final Map<String, Set<Object>> keysPerTenant = new HashMap<>();
+    private final Map<DeviceKey, Set<Object>> keysPerDevice = new HashMap<>();
+    private final Map<Object, IndexEntry> entries = new HashMap<>();
+
+    /**
+     * Adds a cache key to the index.
+     * <p>
+     * If the key is already contained in the index, its existing entries are replaced.
+     *
+     * @param key The cache key.
+     * @param value The cache value that the key is added for.
+     * @param tenantId The tenant that the cache entry belongs to.
+     * @param deviceIds The devices that the cache entry belongs to.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     */
+    public synchronized void add(
+            final Object key,
+            final Object value,
+            final String tenantId,
+            final String... deviceIds) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        Objects.requireNonNull(tenantId);
+        Objects.requireNonNull(deviceIds);
+
+        removeEntry(key);
+        final IndexEntry entry = new IndexEntry(value, tenantId, deviceIds);
+        entries.put(key, entry);
+        keysPerTenant.computeIfAbsent(tenantId, k -> new HashSet<>()).add(key);
+        for (final DeviceKey deviceKey : entry.devices) {
+            keysPerDevice.computeIfAbsent(deviceKey, k -> new HashSet<>()).add(key);
+        }
+    }
+
+    /**
+     * Removes a cache key from the index.
+     *
+     * @param key The cache key.
+     * @throws NullPointerException if key is {@code null}.
+     */
+    public synchronized void remove(final Object key) {
+        Objects.requireNonNull(key);
+        removeEntry(key);
+    }
+
+    /**
+     * Removes a cache key from the index if it has been added for a given cache value.
+     * <p>
+     * This method is supposed to be invoked when the cache evicts an entry. The key is not removed
+     * if it has been added for another (newer) value in the meantime, e.g. because the evicted entry
+     * has been replaced by means of a put operation.
+     *
+     * @param key The cache key.
+     * @param value The cache value that has been evicted.
+     * @return {@code true} if the key has been removed.
+     * @throws NullPointerException if key is {@code null}.
+     */
+    public synchronized boolean remove(final Object key, final Object value) {
+        Objects.requireNonNull(key);
+        final IndexEntry entry = entries.get(key);
+        if (entry == null || entry.value != value) {
+            return false;
+        }
+        removeEntry(key);
+        return true;
+    }
+
+    /**
+     * Removes all keys of a tenant from the index.
+     *
+     * @param tenantId The tenant identifier.
+     * @return The removed keys.
+     * @throws NullPointerException if tenant ID is {@code null}.
+     */
+    public synchronized Set<Object> removeTenant(final String tenantId) {
+        Objects.requireNonNull(tenantId);
+
+        final Set<Object> keys = keysPerTenant.remove(tenantId);
+        if (keys == null) {
+            return Set.of();
+        }
+        for (final Object key : keys) {
+            final IndexEntry entry = entries.remove(key);
+            if (entry != null) {
+                for (final DeviceKey deviceKey : entry.devices) {
+                    removeFromSet(keysPerDevice, deviceKey, key);
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Removes all keys of a device from the index.
+     *
+     * @param tenantId The tenant that the device belongs to.
+     * @param deviceId The device identifier.
+     * @return The removed keys.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     */
+    public synchronized Set<Object> removeDevice(final String tenantId, final String deviceId) {
+        Objects.requireNonNull(tenantId);
+        Objects.requireNonNull(deviceId);
+
+        final Set<Object> keys = keysPerDevice.remove(new DeviceKey(tenantId, deviceId));
+        if (keys == null) {
+            return Set.of();
+        }
+        for (final Object key : keys) {
+            removeEntry(key);
+        }
+        return keys;
+    }
+
+    /**
+     * Gets the number of keys contained in the index.
+     *
+     * @return The number of keys.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void removeEntry(final Object key) {
+        final IndexEntry entry = entries.remove(key);
+        if (entry != null) {
+            removeFromSet(keysPerTenant, entry.tenantId, key);
+            for (final DeviceKey deviceKey : entry.devices) {
+                removeFromSet(keysPerDevice, deviceKey, key);
+            }
+        }
+    }
+
+    private static <K> void removeFromSet(final Map<K, Set<Object>> index, final K indexKey, final Object key) {
+        final Set<Object> keys = index.get(indexKey);
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            index.remove(indexKey);
+        }
+    }
+
+    private static final class IndexEntry {
+
+        final Object value;
+        final String tenantId;
+        final DeviceKey[] devices;
+
+        IndexEntry(final Object value, final String tenantId, final String[] deviceIds) {
+            this.value = value;
+            this.tenantId = tenantId;
+            this.devices = new DeviceKey[deviceIds.length];
+            for (int i = 0; i < deviceIds.length; i++) {
+                devices[i] = new DeviceKey(tenantId, Objects.requireNonNull(deviceIds[i]));
+            }
+        }
+    }
+
+    private static final class DeviceKey {
+
+        final String tenantId;
+        final String deviceId;
+
+        DeviceKey(final String tenantId, final String deviceId) {
+            this.tenantId = tenantId;
+            this.deviceId = deviceId;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final DeviceKey other = (DeviceKey) o;
+            return tenantId.equals(other.tenantId) && deviceId.equals(other.deviceId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenantId, deviceId);
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2019, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2019, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -37,6 +37,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Promise;
@@ -331,6 +332,34 @@ public class CachingClientFactoryTest {
             }));
     }
 
+    /**
+     * Verifies that the handler passed in to a request to create a client is invoked on the
+     * vert.x context that the request has been made on, even if the client creation is completed
+     * on another thread.
+     *
+     * @param ctx The helper to use for running async tests.
+     * @param vertx The (not mocked) Vertx instance.
+     */
+    @Test
+    public void testGetOrCreateClientCompletesRequestOnCallerContext(final VertxTestContext ctx, final Vertx vertx) {
+
+        final var factory = new CachingClientFactory<Object>(vertx, o -> true);
+        final Context requestingContext = vertx.getOrCreateContext();
+        final Promise<Object> creationAttempt = Promise.promise();
+
+        requestingContext.runOnContext(go -> {
+            factory.getOrCreateClient(
+                    "key",
+                    creationAttempt::future,
+                    ctx.succeeding(client -> {
+                        ctx.verify(() -> assertThat(Vertx.currentContext()).isEqualTo(requestingContext));
+                        ctx.completeNow();
+                    }));
+            // complete the creation attempt on a thread that is not associated with the requesting context
+            new Thread(() -> creationAttempt.complete(new Object())).start();
+        });
+    }
+
     /**
      * Verifies that invoking onDisconnect on the factory fails all client creation requests.
      *
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.hono.client.util;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests verifying behavior of {@link ResponseCacheIndex}.
+ *
+ */
+public class ResponseCacheIndexTest {
+
+    private static final Object VALUE = new Object();
+
+    private ResponseCacheIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ResponseCacheIndex();
+    }
+
+    /**
+     * Verifies that removing a tenant returns the keys of the tenant only and removes
+     * them from the device index as well.
+     */
+    @Test
+    public void testRemoveTenantRemovesKeysOfTenantOnly() {
+        index.add("key1", VALUE, "tenant", "device1");
+        index.add("key2", VALUE, "tenant", "device2");
+        index.add("key3", VALUE, "other-tenant", "device1");
+
+        assertThat(index.removeTenant("tenant")).containsExactly("key1", "key2");
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.removeDevice("tenant", "device1")).isEmpty();
+        assertThat(index.removeDevice("other-tenant", "device1")).containsExactly("key3");
+        assertThat(index.size()).isEqualTo(0);
+    }
+
+    /**
+     * Verifies that a key which has been indexed for multiple devices is returned when
+     * removing any of the devices.
+     */
+    @Test
+    public void testRemoveDeviceReturnsKeysOfAllIndexedDevices() {
+        index.add("key1", VALUE, "tenant", "device", "gateway");
+        index.add("key2", VALUE, "tenant", "gateway");
+
+        assertThat(index.removeDevice("tenant", "gateway")).containsExactly("key1", "key2");
+        assertThat(index.removeDevice("tenant", "device")).isEmpty();
+        assertThat(index.removeTenant("tenant")).isEmpty();
+    }
+
+    /**
+     * Verifies that a key that is removed, e.g. because its entry has been evicted from the cache,
+     * is no longer returned when removing its tenant or device.
+     */
+    @Test
+    public void testRemoveKeyRemovesAllIndexEntries() {
+        index.add("key1", VALUE, "tenant", "device");
+        index.add("key2", VALUE, "tenant", "device");
+
+        index.remove("key1");
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.removeDevice("tenant", "device")).containsExactly("key2");
+        assertThat(index.removeTenant("tenant")).isEmpty();
+    }
+
+    /**
+     * Verifies that adding a key again replaces its existing index entries.
+     */
+    @Test
+    public void testAddReplacesExistingEntries() {
+        index.add("key", VALUE, "tenant", "device1");
+        index.add("key", VALUE, "tenant", "device2");
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.removeDevice("tenant", "device1")).isEmpty();
+        assertThat(index.removeDevice("tenant", "device2")).containsExactly("key");
+    }
+
+    /**
+     * Verifies that a key is not removed when an evicted value is reported for it that is not the
+     * value that the key has been added for most recently.
+     */
+    @Test
+    public void testRemoveEvictedValueKeepsKeyOfNewerValue() {
+        final Object newValue = new Object();
+        index.add("key", VALUE, "tenant", "device");
+        index.add("key", newValue, "tenant", "device");
+
+        assertThat(index.remove("key", VALUE)).isFalse();
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.remove("key", newValue)).isTrue();
+        assertThat(index.size()).isEqualTo(0);
+    }
+}
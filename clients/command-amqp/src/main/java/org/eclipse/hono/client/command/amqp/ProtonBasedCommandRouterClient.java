@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2020, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -410,6 +410,76 @@ public class ProtonBasedCommandRouterClient extends AbstractRequestResponseServi
         }, currentSpan).mapEmpty();
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation registers the devices by means of a single request to the Command Router service.
+     * If the Command Router service rejects the request with a status code of 400, e.g. because it does not
+     * support requests without a device identifier yet, the devices are registered by means of one request
+     * per device instead.
+     */
+    @Override
+    public Future<Void> registerCommandConsumers(
+            final String tenantId,
+            final Set<String> deviceIds,
+            final boolean sendEvent,
+            final String adapterInstanceId,
+            final Duration lifespan,
+            final SpanContext context) {
+
+        Objects.requireNonNull(tenantId);
+        Objects.requireNonNull(deviceIds);
+        Objects.requireNonNull(adapterInstanceId);
+
+        if (deviceIds.isEmpty()) {
+            return Future.succeededFuture();
+        } else if (deviceIds.size() == 1) {
+            // use single entry operation so that traces with device ID are created
+            return registerCommandConsumer(tenantId, deviceIds.iterator().next(), sendEvent, adapterInstanceId,
+                    lifespan, context);
+        }
+
+        final int lifespanSeconds = lifespan != null && lifespan.getSeconds() <= Integer.MAX_VALUE ? (int) lifespan.getSeconds() : -1;
+        final Map<String, Object> properties = new HashMap<>();
+        properties.put(CommandConstants.MSG_PROPERTY_ADAPTER_INSTANCE_ID, adapterInstanceId);
+        properties.put(MessageHelper.APP_PROPERTY_LIFESPAN, lifespanSeconds);
+        properties.put(MessageHelper.APP_PROPERTY_SEND_EVENT, sendEvent);
+
+        final Span currentSpan = newChildSpan(context, "register command consumers");
+        TracingHelper.setDeviceTags(currentSpan, tenantId, null);
+        TracingHelper.TAG_ADAPTER_INSTANCE_ID.set(currentSpan, adapterInstanceId);
+        currentSpan.setTag(MessageHelper.APP_PROPERTY_LIFESPAN, lifespanSeconds);
+        currentSpan.log(Map.of("no_of_devices", deviceIds.size()));
+
+        final JsonArray payload = new JsonArray(new ArrayList<>(deviceIds));
+        final Future<RequestResponseResult<JsonObject>> resultTracker = getOrCreateClient(tenantId)
+                .compose(client -> client.createAndSendRequest(
+                        CommandRouterConstants.CommandRouterAction.REGISTER_COMMAND_CONSUMER.getSubject(),
+                        properties,
+                        payload.toBuffer(),
+                        MessageHelper.CONTENT_TYPE_APPLICATION_JSON,
+                        this::getRequestResponseResult,
+                        currentSpan));
+        return mapResultAndFinishSpan(resultTracker, result -> {
+            switch (result.getStatus()) {
+                case HttpURLConnection.HTTP_NO_CONTENT:
+                    return null;
+                default:
+                    throw StatusCodeMapper.from(result);
+            }
+        }, currentSpan)
+                .<Void>mapEmpty()
+                .recover(t -> {
+                    if (!isBulkOperationRejected(t)) {
+                        return Future.failedFuture(t);
+                    }
+                    log.debug("Command Router rejected registration of multiple devices, registering {} devices individually [tenant: {}]",
+                            deviceIds.size(), tenantId);
+                    return CommandRouterClient.super.registerCommandConsumers(tenantId, deviceIds, sendEvent,
+                            adapterInstanceId, lifespan, context);
+                });
+    }
+
     @Override
     public Future<Void> unregisterCommandConsumer(
             final String tenantId,
@@ -463,6 +533,73 @@ public class ProtonBasedCommandRouterClient extends AbstractRequestResponseServi
                 .mapEmpty();
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation unregisters the devices by means of a single request to the Command Router service.
+     * If the Command Router service rejects the request with a status code of 400, e.g. because it does not
+     * support requests without a device identifier yet, the devices are unregistered by means of one request
+     * per device instead.
+     */
+    @Override
+    public Future<Void> unregisterCommandConsumers(
+            final String tenantId,
+            final Set<String> deviceIds,
+            final boolean sendEvent,
+            final String adapterInstanceId,
+            final SpanContext context) {
+
+        Objects.requireNonNull(tenantId);
+        Objects.requireNonNull(deviceIds);
+        Objects.requireNonNull(adapterInstanceId);
+
+        if (deviceIds.isEmpty()) {
+            return Future.succeededFuture();
+        }
+
+        final Map<String, Object> properties = new HashMap<>();
+        properties.put(CommandConstants.MSG_PROPERTY_ADAPTER_INSTANCE_ID, adapterInstanceId);
+        properties.put(MessageHelper.APP_PROPERTY_SEND_EVENT, sendEvent);
+
+        final Span currentSpan = newChildSpan(context, "unregister command consumers");
+        TracingHelper.setDeviceTags(currentSpan, tenantId, null);
+        TracingHelper.TAG_ADAPTER_INSTANCE_ID.set(currentSpan, adapterInstanceId);
+        currentSpan.log(Map.of("no_of_devices", deviceIds.size()));
+
+        final JsonArray payload = new JsonArray(new ArrayList<>(deviceIds));
+        final Future<RequestResponseResult<JsonObject>> resultTracker = getOrCreateClient(tenantId)
+                .compose(client -> client.createAndSendRequest(
+                        CommandRouterConstants.CommandRouterAction.UNREGISTER_COMMAND_CONSUMER.getSubject(),
+                        properties,
+                        payload.toBuffer(),
+                        MessageHelper.CONTENT_TYPE_APPLICATION_JSON,
+                        this::getRequestResponseResult,
+                        currentSpan));
+        return mapResultAndFinishSpan(resultTracker, result -> {
+            switch (result.getStatus()) {
+                case HttpURLConnection.HTTP_NO_CONTENT:
+                    return null;
+                default:
+                    throw StatusCodeMapper.from(result);
+            }
+        }, currentSpan)
+                .<Void>mapEmpty()
+                .recover(t -> {
+                    if (!isBulkOperationRejected(t)) {
+                        return Future.failedFuture(t);
+                    }
+                    log.debug("Command Router rejected unregistration of multiple devices, unregistering {} devices individually [tenant: {}]",
+                            deviceIds.size(), tenantId);
+                    return CommandRouterClient.super.unregisterCommandConsumers(tenantId, deviceIds, sendEvent,
+                            adapterInstanceId, context);
+                });
+    }
+
+    private static boolean isBulkOperationRejected(final Throwable error) {
+        // a Command Router that does not support bulk operations rejects a request without device ID
+        return ServiceInvocationException.extractStatusCode(error) == HttpURLConnection.HTTP_BAD_REQUEST;
+    }
+
     @Override
     public Future<Void> enableCommandRouting(final List<String> tenantIds, final SpanContext context) {
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2020, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -28,11 +28,15 @@ import static com.google.common.truth.Truth.assertThat;
 import java.net.HttpURLConnection;
 import java.time.Clock;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import org.apache.qpid.proton.amqp.messaging.Rejected;
@@ -669,6 +673,97 @@ public class ProtonBasedCommandRouterClientTest {
         assertThat(AmqpUtils.getJsonPayload(sentMessage)).isNull();
     }
 
+    /**
+     * Verifies that the client includes the required information in the <em>register-command-consumer</em> batch
+     * operation request message sent to the command router service.
+     */
+    @Test
+    public void testRegisterCommandConsumersIncludesRequiredInformationInRequest() {
+
+        // WHEN registering the command consumer for multiple devices
+        client.registerCommandConsumers("tenant", Set.of("deviceId", "deviceId2"), false, "adapterInstanceId",
+                Duration.ofSeconds(20), span.context());
+
+        // THEN a single message is being sent containing the device IDs in its payload
+        final Message sentMessage = AmqpClientUnitTestHelper.assertMessageHasBeenSent(sender);
+        assertThat(AmqpUtils.getDeviceId(sentMessage)).isNull();
+        assertThat(AmqpUtils.getApplicationProperty(
+                sentMessage,
+                CommandConstants.MSG_PROPERTY_ADAPTER_INSTANCE_ID,
+                String.class))
+            .isEqualTo("adapterInstanceId");
+        assertThat(AmqpUtils.getApplicationProperty(
+                sentMessage,
+                MessageHelper.APP_PROPERTY_LIFESPAN,
+                Integer.class))
+            .isEqualTo(Integer.valueOf(20));
+        assertThat(sentMessage.getSubject()).isEqualTo(CommandRouterAction.REGISTER_COMMAND_CONSUMER.getSubject());
+        assertThat(AmqpUtils.getPayload(sentMessage).toJsonArray())
+            .containsExactly("deviceId", "deviceId2");
+    }
+
+    /**
+     * Verifies that the client includes the required information in the <em>unregister-command-consumer</em> batch
+     * operation request message sent to the command router service.
+     */
+    @Test
+    public void testUnregisterCommandConsumersIncludesRequiredInformationInRequest() {
+
+        // WHEN unregistering the command consumer for multiple devices
+        client.unregisterCommandConsumers("tenant", Set.of("deviceId", "deviceId2"), false, "adapterInstanceId",
+                span.context());
+
+        // THEN a single message is being sent containing the device IDs in its payload
+        final Message sentMessage = AmqpClientUnitTestHelper.assertMessageHasBeenSent(sender);
+        assertThat(AmqpUtils.getDeviceId(sentMessage)).isNull();
+        assertThat(AmqpUtils.getApplicationProperty(
+                sentMessage,
+                CommandConstants.MSG_PROPERTY_ADAPTER_INSTANCE_ID,
+                String.class))
+            .isEqualTo("adapterInstanceId");
+        assertThat(sentMessage.getSubject()).isEqualTo(CommandRouterAction.UNREGISTER_COMMAND_CONSUMER.getSubject());
+        assertThat(AmqpUtils.getPayload(sentMessage).toJsonArray())
+            .containsExactly("deviceId", "deviceId2");
+    }
+
+    /**
+     * Verifies that the client registers the devices by means of one request per device if the
+     * command router service rejects the <em>register-command-consumer</em> request for multiple devices.
+     *
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testRegisterCommandConsumersFallsBackToSingleDeviceRequests(final VertxTestContext ctx) {
+
+        // GIVEN a command router service that rejects requests without a device ID
+        final ProtonDelivery rejected = mock(ProtonDelivery.class);
+        when(rejected.getRemoteState()).thenReturn(new Rejected());
+        when(rejected.remotelySettled()).thenReturn(true);
+        final List<Message> sentMessages = new ArrayList<>();
+        when(sender.send(any(Message.class), VertxMockSupport.anyHandler())).thenAnswer(invocation -> {
+            final Message message = invocation.getArgument(0);
+            sentMessages.add(message);
+            if (AmqpUtils.getDeviceId(message) == null) {
+                final Handler<ProtonDelivery> dispositionHandler = invocation.getArgument(1);
+                dispositionHandler.handle(rejected);
+            } else if (sentMessages.size() == 3) {
+                // THEN the devices are registered by means of one request per device
+                ctx.verify(() -> {
+                    assertThat(sentMessages.subList(1, 3).stream().map(AmqpUtils::getDeviceId).collect(Collectors.toList()))
+                        .containsExactly("deviceId", "deviceId2");
+                    assertThat(sentMessages.subList(1, 3).stream().map(Message::getSubject).collect(Collectors.toSet()))
+                        .containsExactly(CommandRouterAction.REGISTER_COMMAND_CONSUMER.getSubject());
+                });
+                ctx.completeNow();
+            }
+            return mock(ProtonDelivery.class);
+        });
+
+        // WHEN registering the command consumer for multiple devices
+        client.registerCommandConsumers("tenant", new LinkedHashSet<>(List.of("deviceId", "deviceId2")), false,
+                "adapterInstanceId", null, span.context());
+    }
+
     /**
      * Verifies that the client includes the required information in the <em>register-command-consumer</em> operation
      * request message sent to the command router service, including the lifespan parameter.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2021, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2021, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -23,6 +23,7 @@ import java.util.stream.Collectors;
 import org.eclipse.hono.client.command.Command;
 import org.eclipse.hono.client.command.Commands;
 import org.eclipse.hono.client.kafka.HonoTopic;
+import org.eclipse.hono.client.kafka.KafkaRecordHeaders;
 import org.eclipse.hono.client.kafka.KafkaRecordHelper;
 import org.eclipse.hono.tracing.TracingHelper;
 import org.eclipse.hono.util.MessagingType;
@@ -112,7 +113,7 @@ public final class KafkaBasedCommand implements Command {
             throw new IllegalArgumentException("unsupported topic");
         }
         final String tenantId = honoTopic.getTenantId();
-        return from(record, tenantId);
+        return from(record, new KafkaRecordHeaders(record.headers()), tenantId);
     }
 
     /**
@@ -140,13 +141,34 @@ public final class KafkaBasedCommand implements Command {
      */
     public static KafkaBasedCommand fromRoutedCommandRecord(final KafkaConsumerRecord<String, Buffer> record) {
         Objects.requireNonNull(record);
+        return fromRoutedCommandRecord(record, new KafkaRecordHeaders(record.headers()));
+    }
+
+    /**
+     * Creates a command from a Kafka consumer record, forwarded by the Command Router.
+     * <p>
+     * Same as {@link #fromRoutedCommandRecord(KafkaConsumerRecord)} but using an already existing view on
+     * the record's headers.
+     *
+     * @param record The record containing the command.
+     * @param headers The view on the record's headers.
+     * @return The command.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     * @throws IllegalArgumentException if the record's headers do not contain a tenant identifier and a target
+     *                                  device identifier matching the record's key.
+     */
+    public static KafkaBasedCommand fromRoutedCommandRecord(
+            final KafkaConsumerRecord<String, Buffer> record,
+            final KafkaRecordHeaders headers) {
+        Objects.requireNonNull(record);
+        Objects.requireNonNull(headers);
 
-        final String tenantId = KafkaRecordHelper.getTenantId(record.headers())
+        final String tenantId = headers.getTenantId()
                 .filter(id -> !id.isEmpty())
                 .orElseThrow(() -> new IllegalArgumentException("tenant is not set"));
-        final KafkaBasedCommand command = from(record, tenantId);
+        final KafkaBasedCommand command = from(record, headers, tenantId);
 
-        KafkaRecordHelper.getViaHeader(record.headers())
+        headers.getVia()
                 .filter(id -> !id.isEmpty())
                 .ifPresent(command::setGatewayId);
 
@@ -155,9 +177,10 @@ public final class KafkaBasedCommand implements Command {
 
     private static KafkaBasedCommand from(
             final KafkaConsumerRecord<String, Buffer> record,
+            final KafkaRecordHeaders headers,
             final String tenantId) {
 
-        final String deviceId = KafkaRecordHelper.getDeviceId(record.headers())
+        final String deviceId = headers.getDeviceId()
                 .filter(id -> !id.isEmpty())
                 .orElseThrow(() -> new IllegalArgumentException("device identifier is not set"));
         if (!deviceId.equals(record.key())) {
@@ -165,14 +188,14 @@ public final class KafkaBasedCommand implements Command {
         }
 
         final StringJoiner validationErrorJoiner = new StringJoiner(", ");
-        final String subject = KafkaRecordHelper.getSubject(record.headers())
+        final String subject = headers.getSubject()
                 .orElseGet(() -> {
                     validationErrorJoiner.add("subject not set");
                     return null;
                 });
-        final String contentType = KafkaRecordHelper.getContentType(record.headers()).orElse(null);
-        final boolean responseRequired = KafkaRecordHelper.isResponseRequired(record.headers());
-        final String correlationId = KafkaRecordHelper.getCorrelationId(record.headers())
+        final String contentType = headers.getContentType().orElse(null);
+        final boolean responseRequired = headers.isResponseRequired();
+        final String correlationId = headers.getCorrelationId()
                 .filter(id -> !id.isEmpty())
                 .orElseGet(() -> {
                     if (responseRequired) {
@@ -194,13 +217,17 @@ public final class KafkaBasedCommand implements Command {
 
     @Override
     public Map<String, String> getDeliveryFailureNotificationProperties() {
+        final boolean compactlyEncoded = KafkaRecordHelper.isCompactlyEncoded(record.headers());
         return record.headers().stream()
                 .filter(header -> header.key()
                         .startsWith(KafkaRecordHelper.DELIVERY_FAILURE_NOTIFICATION_METADATA_PREFIX))
-                .collect(Collectors.toMap(KafkaHeader::key, header -> header.value().toString(), (v1, v2) -> {
-                    LOG.debug("ignoring duplicate delivery notification header with value [{}] for {}", v2, this);
-                    return v1;
-                }));
+                .collect(Collectors.toMap(
+                        KafkaHeader::key,
+                        header -> KafkaRecordHelper.decode(header.value(), String.class, compactlyEncoded),
+                        (v1, v2) -> {
+                            LOG.debug("ignoring duplicate delivery notification header with value [{}] for {}", v2, this);
+                            return v1;
+                        }));
     }
 
     @Override
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2021, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2021, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -41,6 +41,7 @@ import org.eclipse.hono.client.command.InternalCommandConsumer;
 import org.eclipse.hono.client.kafka.HonoTopic;
 import org.eclipse.hono.client.kafka.KafkaAdminClientConfigProperties;
 import org.eclipse.hono.client.kafka.KafkaClientFactory;
+import org.eclipse.hono.client.kafka.KafkaRecordHeaders;
 import org.eclipse.hono.client.kafka.KafkaRecordHelper;
 import org.eclipse.hono.client.kafka.consumer.AsyncHandlingAutoCommitKafkaConsumer;
 import org.eclipse.hono.client.kafka.consumer.KafkaConsumerConfigProperties;
@@ -407,10 +408,11 @@ public class KafkaBasedInternalCommandConsumer implements InternalCommandConsume
 
     Future<Void> handleCommandMessage(final KafkaConsumerRecord<String, Buffer> record) {
 
+        final KafkaRecordHeaders headers = new KafkaRecordHeaders(record.headers());
         // get partition/offset of the command record - related to the tenant-based topic the command was originally received in
-        final Integer commandPartition = KafkaRecordHelper.getOriginalPartitionHeader(record.headers())
+        final Integer commandPartition = headers.getValue(KafkaRecordHelper.HEADER_ORIGINAL_PARTITION, Integer.class)
                 .orElse(null);
-        final Long commandOffset = KafkaRecordHelper.getOriginalOffsetHeader(record.headers())
+        final Long commandOffset = headers.getValue(KafkaRecordHelper.HEADER_ORIGINAL_OFFSET, Long.class)
                 .orElse(null);
         if (commandPartition == null || commandOffset == null) {
             LOG.warn("command record is invalid - missing required original partition/offset headers");
@@ -419,11 +421,11 @@ public class KafkaBasedInternalCommandConsumer implements InternalCommandConsume
 
         final KafkaBasedCommand command;
         try {
-            command = KafkaBasedCommand.fromRoutedCommandRecord(record);
+            command = KafkaBasedCommand.fromRoutedCommandRecord(record, headers);
         } catch (final IllegalArgumentException e) {
             LOG.warn("command record is invalid [tenant-id: {}, device-id: {}]",
-                    KafkaRecordHelper.getTenantId(record.headers()).orElse(null),
-                    KafkaRecordHelper.getDeviceId(record.headers()).orElse(null),
+                    headers.getTenantId().orElse(null),
+                    headers.getDeviceId().orElse(null),
                     e);
             return Future.failedFuture("command record is invalid");
         }
@@ -100,15 +100,25 @@ public class KafkaBasedInternalCommandSender extends AbstractKafkaBasedMessageSe
         return new HonoTopic(HonoTopic.Type.COMMAND_INTERNAL, adapterInstanceId).toString();
     }
 
-    private static List<KafkaHeader> getHeaders(final KafkaBasedCommand command) {
+    private List<KafkaHeader> getHeaders(final KafkaBasedCommand command) {
         final List<KafkaHeader> headers = new ArrayList<>(command.getRecord().headers());
 
         headers.add(KafkaRecordHelper.createTenantIdHeader(command.getTenant()));
         Optional.ofNullable(command.getGatewayId())
                 .ifPresent(id -> headers.add(KafkaRecordHelper.createViaHeader(id)));
 
-        headers.add(KafkaRecordHelper.createOriginalPartitionHeader(command.getRecord().partition()));
-        headers.add(KafkaRecordHelper.createOriginalOffsetHeader(command.getRecord().offset()));
+        if (isCompactHeaderEncoding()) {
+            if (!KafkaRecordHelper.isCompactlyEncoded(headers)) {
+                headers.add(0, KafkaRecordHelper.createHeaderVersionHeader());
+            }
+            headers.add(KafkaRecordHelper.createCompactKafkaHeader(
+                    KafkaRecordHelper.HEADER_ORIGINAL_PARTITION, command.getRecord().partition()));
+            headers.add(KafkaRecordHelper.createCompactKafkaHeader(
+                    KafkaRecordHelper.HEADER_ORIGINAL_OFFSET, command.getRecord().offset()));
+        } else {
+            headers.add(KafkaRecordHelper.createOriginalPartitionHeader(command.getRecord().partition()));
+            headers.add(KafkaRecordHelper.createOriginalOffsetHeader(command.getRecord().offset()));
+        }
         return headers;
     }
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2020, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -13,12 +13,17 @@
 
 package org.eclipse.hono.client.command;
 
+import java.net.HttpURLConnection;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
+import org.eclipse.hono.client.ClientErrorException;
 import org.eclipse.hono.util.Lifecycle;
 
 import io.opentracing.SpanContext;
+import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 
 /**
@@ -74,6 +79,48 @@ public interface CommandRouterClient extends Lifecycle {
     Future<Void> registerCommandConsumer(String tenantId, String deviceId, boolean sendEvent, String adapterInstanceId,
             Duration lifespan, SpanContext context);
 
+    /**
+     * Registers a protocol adapter instance as the consumer of command &amp; control messages
+     * for multiple devices.
+     * <p>
+     * This method is mainly intended to be used when a gateway (re-)connects and subscribes to commands
+     * for the devices it acts on behalf of.
+     * <p>
+     * This default implementation invokes {@link #registerCommandConsumer(String, String, boolean, String, Duration, SpanContext)}
+     * for each of the given devices. Implementations should override this method in order to register
+     * the devices by means of a single request.
+     *
+     * @param tenantId The tenant id.
+     * @param deviceIds The device ids.
+     * @param sendEvent {@code true} if <em>connected notification</em> events should be sent.
+     * @param adapterInstanceId The protocol adapter instance id.
+     * @param lifespan The lifespan of the registration entries. Using a negative duration or {@code null} here is
+     *                 interpreted as an unlimited lifespan. Only the number of seconds in the given duration
+     *                 will be taken into account.
+     * @param context The currently active OpenTracing span context or {@code null} if no span is currently active.
+     *            An implementation should use this as the parent for any span it creates for tracing
+     *            the execution of this operation.
+     * @return A future indicating the outcome of the operation.
+     *         <p>
+     *         The future will be succeeded if the consumers were successfully registered.
+     *         Otherwise the future will be failed with a {@code org.eclipse.hono.client.ServiceInvocationException}.
+     * @throws NullPointerException if tenantId, deviceIds or adapterInstanceId is {@code null}.
+     */
+    default Future<Void> registerCommandConsumers(
+            final String tenantId,
+            final Set<String> deviceIds,
+            final boolean sendEvent,
+            final String adapterInstanceId,
+            final Duration lifespan,
+            final SpanContext context) {
+
+        @SuppressWarnings("rawtypes")
+        final List<Future> results = new ArrayList<>(deviceIds.size());
+        deviceIds.forEach(deviceId -> results.add(
+                registerCommandConsumer(tenantId, deviceId, sendEvent, adapterInstanceId, lifespan, context)));
+        return CompositeFuture.all(results).mapEmpty();
+    }
+
     /**
      * Unregisters a command consumer for a device.
      * <p>
@@ -95,6 +142,52 @@ public interface CommandRouterClient extends Lifecycle {
     Future<Void> unregisterCommandConsumer(String tenantId, String deviceId, boolean sendEvent,
             String adapterInstanceId, SpanContext context);
 
+    /**
+     * Unregisters the command consumers for multiple devices.
+     * <p>
+     * The registration entry of a device is only deleted if the device is currently mapped to the given
+     * adapter instance. Entries of devices that are not mapped to the given adapter instance (anymore) are
+     * skipped and do not cause the operation to fail.
+     * <p>
+     * This default implementation invokes {@link #unregisterCommandConsumer(String, String, boolean, String, SpanContext)}
+     * for each of the given devices. Implementations should override this method in order to unregister
+     * the devices by means of a single request.
+     *
+     * @param tenantId The tenant id.
+     * @param deviceIds The device ids.
+     * @param sendEvent {@code true} if <em>disconnected notification</em> events should be sent.
+     * @param adapterInstanceId The protocol adapter instance id that the entries to be removed have to contain.
+     * @param context The currently active OpenTracing span context or {@code null} if no span is currently active.
+     *            An implementation should use this as the parent for any span it creates for tracing
+     *            the execution of this operation.
+     * @return A future indicating the outcome of the operation.
+     *         <p>
+     *         The future will be succeeded if the consumers were successfully unregistered.
+     *         Otherwise the future will be failed with a {@code org.eclipse.hono.client.ServiceInvocationException}.
+     * @throws NullPointerException if any of the parameters except context is {@code null}.
+     */
+    default Future<Void> unregisterCommandConsumers(
+            final String tenantId,
+            final Set<String> deviceIds,
+            final boolean sendEvent,
+            final String adapterInstanceId,
+            final SpanContext context) {
+
+        @SuppressWarnings("rawtypes")
+        final List<Future> results = new ArrayList<>(deviceIds.size());
+        deviceIds.forEach(deviceId -> results.add(
+                unregisterCommandConsumer(tenantId, deviceId, sendEvent, adapterInstanceId, context)
+                    .recover(t -> {
+                        if (t instanceof ClientErrorException e
+                                && e.getErrorCode() == HttpURLConnection.HTTP_PRECON_FAILED) {
+                            // entry is not mapped to the adapter instance (anymore)
+                            return Future.succeededFuture();
+                        }
+                        return Future.failedFuture(t);
+                    })));
+        return CompositeFuture.all(results).mapEmpty();
+    }
+
     /**
      * Adds tenants for which command routing should be enabled.
      * <p>
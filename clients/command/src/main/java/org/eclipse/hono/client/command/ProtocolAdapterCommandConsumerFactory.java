@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2020, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -14,11 +14,18 @@
 package org.eclipse.hono.client.command;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.eclipse.hono.util.Lifecycle;
 
 import io.opentracing.SpanContext;
+import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 
 /**
@@ -107,4 +114,76 @@ public interface ProtocolAdapterCommandConsumerFactory extends Lifecycle {
             Function<CommandContext, Future<Void>> commandHandler,
             Duration lifespan,
             SpanContext context);
+
+    /**
+     * Creates command consumers for multiple devices that are connected via the same gateway.
+     * <p>
+     * This method is mainly intended to be used when a gateway (re-)connects and subscribes to commands
+     * for several of the devices it acts on behalf of at once.
+     * <p>
+     * For each device only one command consumer may be active at any given time. Invoking this method multiple times
+     * with the same parameters will each time overwrite the previous entries.
+     * <p>
+     * It is the responsibility of the calling code to properly close the consumers
+     * once they are no longer needed by invoking their {@link ProtocolAdapterCommandConsumer#close(boolean, SpanContext)}
+     * method.
+     * <p>
+     * This default implementation invokes {@link #createCommandConsumer(String, String, String, boolean, Function, Duration, SpanContext)}
+     * for each of the given devices and closes the consumers that have been created if the creation of any of the
+     * other consumers fails. Implementations should override this method in order to register the devices by means
+     * of a single request.
+     *
+     * @param tenantId The tenant to consume commands from.
+     * @param commandHandlers The handlers to invoke with every command received, mapped by the identifiers of the
+     *                        devices for which the consumers will be created. Each handler must invoke one of the
+     *                        terminal methods of the passed in {@link CommandContext} in order to settle the command
+     *                        message transfer and finish the trace span associated with the {@link CommandContext}.
+     *                        The future returned by the handler indicates the outcome of handling the command.
+     * @param gatewayId The gateway that wants to act on behalf of the devices.
+     * @param sendEvent {@code true} if <em>connected notification</em> events should be sent.
+     * @param lifespan The time period in which the command consumers shall be active. Using a negative duration or
+     *                 {@code null} here is interpreted as an unlimited life span. The guaranteed granularity
+     *                 taken into account here is seconds.
+     * @param context The currently active OpenTracing span context or {@code null} if no span is currently active.
+     *                An implementation should use this as the parent for any span it creates for tracing
+     *                the execution of this operation.
+     * @return A future indicating the outcome of the operation.
+     *         <p>
+     *         The future will be completed with the newly created consumers, mapped by device identifier,
+     *         once all of them have been registered.
+     *         <p>
+     *         Otherwise the future will be failed with a {@code org.eclipse.hono.client.ServiceInvocationException}
+     *         with an error code indicating the cause of the failure. In this case none of the consumers remains
+     *         registered.
+     * @throws NullPointerException if any of tenant, command handlers or gateway ID is {@code null}.
+     */
+    default Future<Map<String, ProtocolAdapterCommandConsumer>> createCommandConsumers(
+            final String tenantId,
+            final Map<String, Function<CommandContext, Future<Void>>> commandHandlers,
+            final String gatewayId,
+            final boolean sendEvent,
+            final Duration lifespan,
+            final SpanContext context) {
+
+        Objects.requireNonNull(tenantId);
+        Objects.requireNonNull(commandHandlers);
+        Objects.requireNonNull(gatewayId);
+
+        final Map<String, Future<ProtocolAdapterCommandConsumer>> consumers = new HashMap<>(commandHandlers.size());
+        commandHandlers.forEach((deviceId, commandHandler) -> consumers.put(
+                deviceId,
+                createCommandConsumer(tenantId, deviceId, gatewayId, sendEvent, commandHandler, lifespan, context)));
+
+        @SuppressWarnings("rawtypes")
+        final List<Future> results = new ArrayList<>(consumers.values());
+        return CompositeFuture.join(results)
+                .map(ok -> consumers.entrySet().stream()
+                        .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().result())))
+                .recover(t -> {
+                    consumers.values().stream()
+                        .filter(Future::succeeded)
+                        .forEach(consumer -> consumer.result().close(false, context));
+                    return Future.failedFuture(t);
+                });
+    }
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2020, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -17,7 +17,9 @@ import java.net.HttpURLConnection;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
@@ -202,21 +204,13 @@ public class ProtocolAdapterCommandConsumerFactoryImpl implements ProtocolAdapte
             final Function<CommandContext, Future<Void>> commandHandler,
             final Duration lifespan,
             final SpanContext context) {
-        // lifespan greater than what can be expressed in nanoseconds (i.e. 292 years) is considered unlimited,
-        // preventing ArithmeticExceptions down the road
-        final Duration sanitizedLifespan = lifespan == null || lifespan.isNegative()
-                || lifespan.getSeconds() > (Long.MAX_VALUE / 1000_000_000L) ? Duration.ofSeconds(-1) : lifespan;
+        final Duration sanitizedLifespan = sanitizeLifespan(lifespan);
         LOG.trace("create command consumer [tenant-id: {}, device-id: {}, gateway-id: {}]", tenantId, deviceId,
                 gatewayId);
 
         // register the command handler
-        // for short-lived command consumers, let the consumer creation span context be used as reference in the command
-        // span
-        final SpanContext consumerCreationContextToUse = !sanitizedLifespan.isNegative()
-                && sanitizedLifespan.toSeconds() <= TenantConstants.DEFAULT_MAX_TTD ? context : null;
-        final CommandHandlerWrapper commandHandlerWrapper = new CommandHandlerWrapper(tenantId, deviceId, gatewayId,
-                commandHandler, Vertx.currentContext(), consumerCreationContextToUse);
-        commandHandlers.putCommandHandler(commandHandlerWrapper);
+        final CommandHandlerWrapper commandHandlerWrapper = putCommandHandler(tenantId, deviceId, gatewayId,
+                commandHandler, sanitizedLifespan, context);
         final Instant lifespanStart = Instant.now();
 
         return commandRouterClient
@@ -228,17 +222,93 @@ public class ProtocolAdapterCommandConsumerFactoryImpl implements ProtocolAdapte
                     // handler association failed - unregister the handler
                     commandHandlers.removeCommandHandler(tenantId, deviceId);
                 })
-                .map(v -> {
-                    return new ProtocolAdapterCommandConsumer() {
-
-                        @Override
-                        public Future<Void> close(final boolean sendEvent, final SpanContext spanContext) {
-                            return removeCommandConsumer(
-                                    commandHandlerWrapper, sendEvent, sanitizedLifespan,
-                                    lifespanStart, spanContext);
-                        }
-                    };
-                });
+                .map(v -> newCommandConsumer(commandHandlerWrapper, sanitizedLifespan, lifespanStart));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation registers all devices with the Command Router service by means of a single
+     * request.
+     */
+    @Override
+    public final Future<Map<String, ProtocolAdapterCommandConsumer>> createCommandConsumers(
+            final String tenantId,
+            final Map<String, Function<CommandContext, Future<Void>>> commandHandlers,
+            final String gatewayId,
+            final boolean sendEvent,
+            final Duration lifespan,
+            final SpanContext context) {
+
+        Objects.requireNonNull(tenantId);
+        Objects.requireNonNull(commandHandlers);
+        Objects.requireNonNull(gatewayId);
+
+        final Duration sanitizedLifespan = sanitizeLifespan(lifespan);
+        LOG.trace("create command consumers [tenant-id: {}, gateway-id: {}, no. of devices: {}]", tenantId, gatewayId,
+                commandHandlers.size());
+
+        final Map<String, CommandHandlerWrapper> handlerWrappers = new HashMap<>(commandHandlers.size());
+        commandHandlers.forEach((deviceId, commandHandler) -> handlerWrappers.put(
+                deviceId,
+                putCommandHandler(tenantId, deviceId, gatewayId, commandHandler, sanitizedLifespan, context)));
+        final Instant lifespanStart = Instant.now();
+
+        return commandRouterClient
+                .registerCommandConsumers(tenantId, handlerWrappers.keySet(), sendEvent, adapterInstanceId,
+                        sanitizedLifespan, context)
+                .onFailure(thr -> {
+                    LOG.info(
+                            "error registering consumers with the command router service [tenant: {}, gateway: {}, no. of devices: {}, sendEvent: {}]",
+                            tenantId, gatewayId, handlerWrappers.size(), sendEvent, thr);
+                    // handler association failed - unregister the handlers
+                    handlerWrappers.keySet().forEach(deviceId -> this.commandHandlers.removeCommandHandler(tenantId, deviceId));
+                })
+                .map(v -> handlerWrappers.entrySet().stream()
+                        .collect(Collectors.toMap(
+                                Map.Entry::getKey,
+                                entry -> newCommandConsumer(entry.getValue(), sanitizedLifespan, lifespanStart))));
+    }
+
+    private static Duration sanitizeLifespan(final Duration lifespan) {
+        // lifespan greater than what can be expressed in nanoseconds (i.e. 292 years) is considered unlimited,
+        // preventing ArithmeticExceptions down the road
+        return lifespan == null || lifespan.isNegative()
+                || lifespan.getSeconds() > (Long.MAX_VALUE / 1000_000_000L) ? Duration.ofSeconds(-1) : lifespan;
+    }
+
+    private CommandHandlerWrapper putCommandHandler(
+            final String tenantId,
+            final String deviceId,
+            final String gatewayId,
+            final Function<CommandContext, Future<Void>> commandHandler,
+            final Duration sanitizedLifespan,
+            final SpanContext context) {
+
+        // for short-lived command consumers, let the consumer creation span context be used as reference in the command
+        // span
+        final SpanContext consumerCreationContextToUse = !sanitizedLifespan.isNegative()
+                && sanitizedLifespan.toSeconds() <= TenantConstants.DEFAULT_MAX_TTD ? context : null;
+        final CommandHandlerWrapper commandHandlerWrapper = new CommandHandlerWrapper(tenantId, deviceId, gatewayId,
+                commandHandler, Vertx.currentContext(), consumerCreationContextToUse);
+        commandHandlers.putCommandHandler(commandHandlerWrapper);
+        return commandHandlerWrapper;
+    }
+
+    private ProtocolAdapterCommandConsumer newCommandConsumer(
+            final CommandHandlerWrapper commandHandlerWrapper,
+            final Duration sanitizedLifespan,
+            final Instant lifespanStart) {
+
+        return new ProtocolAdapterCommandConsumer() {
+
+            @Override
+            public Future<Void> close(final boolean sendEvent, final SpanContext spanContext) {
+                return removeCommandConsumer(
+                        commandHandlerWrapper, sendEvent, sanitizedLifespan,
+                        lifespanStart, spanContext);
+            }
+        };
     }
 
     private Future<Void> removeCommandConsumer(
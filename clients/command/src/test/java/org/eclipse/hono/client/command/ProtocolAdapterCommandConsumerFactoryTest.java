@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2021, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2021, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -18,17 +18,24 @@ import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.withSettings;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import java.net.HttpURLConnection;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
+import org.eclipse.hono.client.ServerErrorException;
 import org.eclipse.hono.client.amqp.connection.ConnectionLifecycle;
 import org.eclipse.hono.client.amqp.connection.HonoConnection;
 import org.eclipse.hono.client.amqp.connection.ReconnectListener;
@@ -89,4 +96,64 @@ public class ProtocolAdapterCommandConsumerFactoryTest {
         }), any());
         assertThat(enabledTenants).containsExactly("tenant1", "tenant2", "tenant3");
     }
+
+    /**
+     * Verifies that the factory registers the command consumers for multiple devices of a gateway
+     * by means of a single request to the Command Router.
+     */
+    @Test
+    void testCreateCommandConsumersRegistersDevicesAtOnce() {
+
+        final AtomicReference<CommandHandlers> handlers = new AtomicReference<>();
+        factory.registerInternalCommandConsumer((adapterInstanceId, commandHandlers) -> {
+            handlers.set(commandHandlers);
+            return mock(InternalCommandConsumer.class);
+        });
+        when(commandRouterClient.registerCommandConsumers(anyString(), any(), anyBoolean(), anyString(), any(Duration.class), any()))
+            .thenReturn(Future.succeededFuture());
+
+        final Future<Map<String, ProtocolAdapterCommandConsumer>> result = factory.createCommandConsumers(
+                "tenant",
+                Map.of("device1", ctx -> Future.succeededFuture(), "device2", ctx -> Future.succeededFuture()),
+                "gw",
+                true,
+                null,
+                null);
+
+        assertThat(result.succeeded()).isTrue();
+        assertThat(result.result().keySet()).containsExactly("device1", "device2");
+        verify(commandRouterClient).registerCommandConsumers(eq("tenant"), eq(Set.of("device1", "device2")),
+                eq(true), anyString(), any(Duration.class), any());
+        verify(commandRouterClient, never()).registerCommandConsumer(anyString(), anyString(), anyBoolean(), anyString(),
+                any(Duration.class), any());
+        assertThat(handlers.get().getCommandHandler("tenant", "device1").getGatewayId()).isEqualTo("gw");
+        assertThat(handlers.get().getCommandHandler("tenant", "device2").getGatewayId()).isEqualTo("gw");
+    }
+
+    /**
+     * Verifies that the factory removes the command handlers of all devices if the registration
+     * of multiple devices fails.
+     */
+    @Test
+    void testCreateCommandConsumersRemovesHandlersOnFailure() {
+
+        final AtomicReference<CommandHandlers> handlers = new AtomicReference<>();
+        factory.registerInternalCommandConsumer((adapterInstanceId, commandHandlers) -> {
+            handlers.set(commandHandlers);
+            return mock(InternalCommandConsumer.class);
+        });
+        when(commandRouterClient.registerCommandConsumers(anyString(), any(), anyBoolean(), anyString(), any(Duration.class), any()))
+            .thenReturn(Future.failedFuture(new ServerErrorException(HttpURLConnection.HTTP_UNAVAILABLE)));
+
+        final Future<Map<String, ProtocolAdapterCommandConsumer>> result = factory.createCommandConsumers(
+                "tenant",
+                Map.of("device1", ctx -> Future.succeededFuture(), "device2", ctx -> Future.succeededFuture()),
+                "gw",
+                true,
+                null,
+                null);
+
+        assertThat(result.failed()).isTrue();
+        assertThat(handlers.get().getCommandHandlers()).isEmpty();
+    }
 }
@@ -0,0 +1,261 @@
+/**
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.hono.client.kafka;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.eclipse.hono.util.MessageHelper;
+import org.eclipse.hono.util.QoS;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.kafka.client.producer.KafkaHeader;
+
+/**
+ * A read-only view on the headers of a Kafka record.
+ * <p>
+ * In contrast to the methods of {@link KafkaRecordHelper}, which scan the list of headers and decode the
+ * requested value on each invocation, this view indexes the headers on first access and decodes each value
+ * at most once (per requested type), keeping the decoded value for the lifetime of the view.
+ * <p>
+ * If the headers contain multiple occurrences of the same key, the value of the first occurrence is used.
+ * Compactly encoded values are decoded if the headers contain the {@value KafkaRecordHelper#HEADER_VERSION}
+ * header.
+ * <p>
+ * Instances of this class are thread-safe. Concurrent first accesses may result in a value being decoded
+ * more than once, though.
+ */
+public final class KafkaRecordHeaders {
+
+    private final List<KafkaHeader> headers;
+    private volatile Index index;
+
+    /**
+     * Creates a view on a list of Kafka headers.
+     *
+     * @param headers The headers or {@code null} if the record has no headers.
+     *                The list is expected to not be modified after this view has been created.
+     */
+    public KafkaRecordHeaders(final List<KafkaHeader> headers) {
+        this.headers = Optional.ofNullable(headers).orElseGet(List::of);
+    }
+
+    private Index getIndex() {
+        Index result = index;
+        if (result == null) {
+            result = new Index(headers);
+            index = result;
+        }
+        return result;
+    }
+
+    /**
+     * Gets the headers that this view is based on.
+     *
+     * @return The headers.
+     */
+    public List<KafkaHeader> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Checks if the header values of primitive types have been encoded compactly.
+     *
+     * @return {@code true} if the headers contain the {@value KafkaRecordHelper#HEADER_VERSION} header with value
+     *         {@value KafkaRecordHelper#HEADER_VERSION_COMPACT}.
+     */
+    public boolean isCompactlyEncoded() {
+        return getIndex().compactlyEncoded;
+    }
+
+    /**
+     * Gets the raw (encoded) value of a header.
+     *
+     * @param key The header key.
+     * @return The value or {@code null} if no header with the given key exists.
+     * @throws NullPointerException if key is {@code null}.
+     */
+    public Buffer getRawValue(final String key) {
+        Objects.requireNonNull(key);
+        return Optional.ofNullable(getIndex().entries.get(key))
+                .map(entry -> entry.rawValue)
+                .orElse(null);
+    }
+
+    /**
+     * Gets the decoded value of a header.
+     *
+     * @param key The header key.
+     * @param type The expected value type.
+     * @param <T> The expected type of the header value.
+     * @return The value or an empty Optional if the headers do not contain a correctly encoded value of the expected
+     *         type for the given key.
+     * @throws NullPointerException if key or type is {@code null}.
+     * @see KafkaRecordHelper#getHeaderValue(List, String, Class)
+     */
+    public <T> Optional<T> getValue(final String key, final Class<T> type) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(type);
+
+        final Index currentIndex = getIndex();
+        final Entry entry = currentIndex.entries.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        DecodedValue decodedValue = entry.decodedValue;
+        if (decodedValue == null || decodedValue.type != type) {
+            decodedValue = new DecodedValue(type,
+                    KafkaRecordHelper.decode(entry.rawValue, type, currentIndex.compactlyEncoded));
+            entry.decodedValue = decodedValue;
+        }
+        return Optional.ofNullable(type.cast(decodedValue.value));
+    }
+
+    /**
+     * Gets the {@link MessageHelper#SYS_PROPERTY_CONTENT_TYPE content type} header value.
+     *
+     * @return The content type (may be empty).
+     */
+    public Optional<String> getContentType() {
+        return getValue(MessageHelper.SYS_PROPERTY_CONTENT_TYPE, String.class);
+    }
+
+    /**
+     * Gets the {@link MessageHelper#APP_PROPERTY_QOS quality of service} header value.
+     *
+     * @return The quality-of-service level (may be empty).
+     */
+    public Optional<QoS> getQoS() {
+        return getValue(MessageHelper.APP_PROPERTY_QOS, Integer.class)
+                .map(integer -> Integer.valueOf(0).equals(integer) ? QoS.AT_MOST_ONCE : QoS.AT_LEAST_ONCE);
+    }
+
+    /**
+     * Gets the point in time represented by the value of the {@value MessageHelper#SYS_PROPERTY_CREATION_TIME}
+     * header.
+     *
+     * @return The point in time (may be empty).
+     */
+    public Optional<Instant> getCreationTime() {
+        return getValue(MessageHelper.SYS_PROPERTY_CREATION_TIME, Long.class).map(Instant::ofEpochMilli);
+    }
+
+    /**
+     * Gets the value of the {@value MessageHelper#APP_PROPERTY_TENANT_ID} header.
+     *
+     * @return The header value (may be empty).
+     */
+    public Optional<String> getTenantId() {
+        return getValue(MessageHelper.APP_PROPERTY_TENANT_ID, String.class);
+    }
+
+    /**
+     * Gets the value of the {@value MessageHelper#APP_PROPERTY_DEVICE_ID} header.
+     *
+     * @return The header value (may be empty).
+     */
+    public Optional<String> getDeviceId() {
+        return getValue(MessageHelper.APP_PROPERTY_DEVICE_ID, String.class);
+    }
+
+    /**
+     * Gets the value of the {@value MessageHelper#SYS_PROPERTY_SUBJECT} header.
+     *
+     * @return The header value (may be empty).
+     */
+    public Optional<String> getSubject() {
+        return getValue(MessageHelper.SYS_PROPERTY_SUBJECT, String.class);
+    }
+
+    /**
+     * Gets the value of the {@value MessageHelper#SYS_PROPERTY_CORRELATION_ID} header.
+     *
+     * @return The header value (may be empty).
+     */
+    public Optional<String> getCorrelationId() {
+        return getValue(MessageHelper.SYS_PROPERTY_CORRELATION_ID, String.class);
+    }
+
+    /**
+     * Gets the value of the {@value MessageHelper#APP_PROPERTY_CMD_VIA} header.
+     *
+     * @return The header value (may be empty).
+     */
+    public Optional<String> getVia() {
+        return getValue(MessageHelper.APP_PROPERTY_CMD_VIA, String.class);
+    }
+
+    /**
+     * Checks if the {@value KafkaRecordHelper#HEADER_RESPONSE_REQUIRED} header is set to {@code true}.
+     *
+     * @return {@code true} if the header value is {@code true}.
+     */
+    public boolean isResponseRequired() {
+        return getValue(KafkaRecordHelper.HEADER_RESPONSE_REQUIRED, Boolean.class).orElse(false);
+    }
+
+    /**
+     * The immutable index of the headers.
+     */
+    private static final class Index {
+
+        private final Map<String, Entry> entries;
+        private final boolean compactlyEncoded;
+
+        Index(final List<KafkaHeader> headers) {
+            entries = new HashMap<>((int) (headers.size() / 0.75f) + 1);
+            for (final KafkaHeader header : headers) {
+                if (!entries.containsKey(header.key())) {
+                    entries.put(header.key(), new Entry(header.value()));
+                }
+            }
+            compactlyEncoded = Optional.ofNullable(entries.get(KafkaRecordHelper.HEADER_VERSION))
+                    .map(entry -> entry.rawValue)
+                    .map(value -> value.length() == 1
+                            && value.getByte(0) == KafkaRecordHelper.HEADER_VERSION_COMPACT.charAt(0))
+                    .orElse(false);
+        }
+    }
+
+    /**
+     * An indexed header.
+     */
+    private static final class Entry {
+
+        private final Buffer rawValue;
+        private volatile DecodedValue decodedValue;
+
+        Entry(final Buffer rawValue) {
+            this.rawValue = rawValue;
+        }
+    }
+
+    /**
+     * A header value decoded into a particular type.
+     */
+    private static final class DecodedValue {
+
+        private final Class<?> type;
+        private final Object value;
+
+        DecodedValue(final Class<?> type, final Object value) {
+            this.type = type;
+            this.value = value;
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2021, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -53,6 +53,29 @@ public final class KafkaRecordHelper {
      * that a command record was originally stored in.
      */
     public static final String HEADER_ORIGINAL_OFFSET = "orig-offset";
+    /**
+     * The name of the Kafka record header that indicates the version of the encoding of the record's header values.
+     * <p>
+     * Records that do not contain this header use JSON for encoding all header values that are not of type
+     * {@code String}.
+     */
+    public static final String HEADER_VERSION = "header-version";
+    /**
+     * The value of the {@value #HEADER_VERSION} header indicating that the values of the record's headers
+     * may have been encoded using {@link #createCompactKafkaHeader(String, Object)}.
+     */
+    public static final String HEADER_VERSION_COMPACT = "2";
+
+    /*
+     * The type tags of compactly encoded values. None of them is a valid first character of
+     * a JSON value, so compactly encoded and JSON encoded values can be distinguished.
+     */
+    private static final byte TAG_FALSE = 0x01;
+    private static final byte TAG_TRUE = 0x02;
+    private static final byte TAG_VARINT = 0x03;
+    private static final byte TAG_SMALL_INT = 0x10;
+    private static final int MAX_SMALL_INT = 0x0F;
+    private static final int MAX_VARINT_LENGTH = 11;
 
     private KafkaRecordHelper() {
     }
@@ -82,6 +105,70 @@ public final class KafkaRecordHelper {
         return KafkaHeader.header(key, Buffer.buffer(encodedValue));
     }
 
+    /**
+     * Creates a Kafka header for the given key and value using the compact encoding for primitive values.
+     * <p>
+     * {@code Boolean} values are encoded as a single byte. {@code Byte}, {@code Short}, {@code Integer} and
+     * {@code Long} values between 0 and 15 are encoded as a single byte, other values are encoded as a
+     * variable length integer. All other values are encoded as described for {@link #createKafkaHeader(String, Object)}.
+     * <p>
+     * Records containing headers created by means of this method need to also contain the header created by
+     * {@link #createHeaderVersionHeader()}.
+     *
+     * @param key The key of the header.
+     * @param value The value of the header.
+     * @return The encoded Kafka header.
+     * @throws NullPointerException if any of the parameters are {@code null}.
+     * @throws EncodeException if encoding a non-primitive value to JSON fails.
+     */
+    public static KafkaHeader createCompactKafkaHeader(final String key, final Object value) throws EncodeException {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+
+        if (value instanceof Boolean b) {
+            return KafkaHeader.header(key, Buffer.buffer(1).appendByte(b ? TAG_TRUE : TAG_FALSE));
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return KafkaHeader.header(key, encodeCompact(((Number) value).longValue()));
+        } else {
+            return createKafkaHeader(key, value);
+        }
+    }
+
+    /**
+     * Creates a {@value #HEADER_VERSION} header indicating that the record's header values may be
+     * encoded compactly.
+     *
+     * @return The header.
+     */
+    public static KafkaHeader createHeaderVersionHeader() {
+        return createKafkaHeader(HEADER_VERSION, HEADER_VERSION_COMPACT);
+    }
+
+    /**
+     * Checks if the given list of Kafka headers contains the header indicating that the
+     * header values may be encoded compactly.
+     *
+     * @param headers The headers to check.
+     * @return {@code true} if the {@value #HEADER_VERSION} header is contained with value
+     *         {@value #HEADER_VERSION_COMPACT}.
+     */
+    public static boolean isCompactlyEncoded(final List<KafkaHeader> headers) {
+        if (headers == null) {
+            return false;
+        }
+        for (final KafkaHeader header : headers) {
+            if (HEADER_VERSION.equals(header.key())) {
+                return isCompactVersion(header);
+            }
+        }
+        return false;
+    }
+
+    private static boolean isCompactVersion(final KafkaHeader versionHeader) {
+        final Buffer value = versionHeader.value();
+        return value != null && value.length() == 1 && value.getByte(0) == HEADER_VERSION_COMPACT.charAt(0);
+    }
+
     /**
      * Gets the {@link MessageHelper#SYS_PROPERTY_CONTENT_TYPE content type} header from the given list of Kafka
      * headers.
@@ -321,6 +408,8 @@ public final class KafkaRecordHelper {
      * <p>
      * If the headers contain multiple occurrences of the same key, the value of its first
      * occurrence is returned.
+     * <p>
+     * Compactly encoded values are decoded if the headers contain the {@value #HEADER_VERSION} header.
      *
      * @param headers The Kafka headers to retrieve the value from.
      * @param key The header key.
@@ -330,6 +419,7 @@ public final class KafkaRecordHelper {
      *         type for the given key.
      * @throws NullPointerException if key or type is {@code null}.
      * @see #createKafkaHeader(String, Object)
+     * @see #createCompactKafkaHeader(String, Object)
      */
     public static <T> Optional<T> getHeaderValue(final List<KafkaHeader> headers, final String key,
             final Class<T> type) {
@@ -341,14 +431,28 @@ public final class KafkaRecordHelper {
             return Optional.empty();
         }
 
-        return headers.stream()
-                .filter(h -> key.equals(h.key()))
-                .findFirst()
-                .map(h -> decode(h, type));
+        KafkaHeader header = null;
+        Boolean compact = null;
+        for (final KafkaHeader h : headers) {
+            if (header == null && key.equals(h.key())) {
+                header = h;
+            } else if (compact == null && HEADER_VERSION.equals(h.key())) {
+                compact = isCompactVersion(h);
+            }
+            if (header != null && compact != null) {
+                break;
+            }
+        }
+        if (header == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(decode(header.value(), type, Boolean.TRUE.equals(compact)));
     }
 
     /**
      * Returns the decoded value of the given Kafka header.
+     * <p>
+     * Compactly encoded values are not decoded by this method.
      *
      * @param header The header with the value to be decoded.
      * @param type The expected value type.
@@ -357,15 +461,38 @@ public final class KafkaRecordHelper {
      *         expected type for the given name.
      * @throws NullPointerException if type is {@code null}.
      * @see #createKafkaHeader(String, Object)
+     * @deprecated Use {@link #getHeaderValue(List, String, Class)} or {@link #decode(KafkaHeader, Class, boolean)}
+     *             instead, which also support compactly encoded values.
      */
+    @Deprecated
     public static <T> T decode(final KafkaHeader header, final Class<T> type) {
+        return decode(header, type, false);
+    }
+
+    /**
+     * Returns the decoded value of the given Kafka header.
+     * <p>
+     * Code that has access to all headers of a record should use {@link #getHeaderValue(List, String, Class)}
+     * instead, which determines the encoding from the headers.
+     *
+     * @param header The header with the value to be decoded.
+     * @param type The expected value type.
+     * @param compactEncoding {@code true} if the value may have been encoded using
+     *                        {@link #createCompactKafkaHeader(String, Object)}.
+     * @param <T> The expected type of the header value.
+     * @return The decoded value or {@code  null} if the header does not contain a correctly encoded value of the
+     *         expected type for the given name.
+     * @throws NullPointerException if type is {@code null}.
+     * @see #isCompactlyEncoded(List)
+     */
+    public static <T> T decode(final KafkaHeader header, final Class<T> type, final boolean compactEncoding) {
         Objects.requireNonNull(type);
 
         if (header == null) {
             return null;
         }
 
-        return decode(header.value(), type);
+        return decode(header.value(), type, compactEncoding);
     }
 
     /**
@@ -379,14 +506,38 @@ public final class KafkaRecordHelper {
      * @throws NullPointerException if type is {@code null}.
      * @see #createKafkaHeader(String, Object)
      */
-    @SuppressWarnings("unchecked")
     public static <T> T decode(final Buffer encodedHeaderValue, final Class<T> type) {
+        return decode(encodedHeaderValue, type, false);
+    }
+
+    /**
+     * Returns the decoded value of the given buffer.
+     *
+     * @param encodedHeaderValue The buffer with the value to be decoded.
+     * @param type The expected value type.
+     * @param compactEncoding {@code true} if the value may have been encoded using
+     *                        {@link #createCompactKafkaHeader(String, Object)}.
+     * @param <T> The expected type of the header value.
+     * @return The decoded value or {@code  null} if the buffer does not contain a correctly encoded value of the
+     *         expected type for the given name.
+     * @throws NullPointerException if type is {@code null}.
+     * @see #isCompactlyEncoded(List)
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T decode(final Buffer encodedHeaderValue, final Class<T> type, final boolean compactEncoding) {
         Objects.requireNonNull(type);
 
         if (encodedHeaderValue == null) {
             return null;
         }
 
+        if (compactEncoding) {
+            final Object compactValue = decodeCompact(encodedHeaderValue);
+            if (compactValue != null) {
+                return convertCompactValue(compactValue, type);
+            }
+        }
+
         try {
             if (String.class.equals(type)) {
                 return (T) encodedHeaderValue.toString();
@@ -397,4 +548,86 @@ public final class KafkaRecordHelper {
             return null;
         }
     }
+
+    private static Buffer encodeCompact(final long value) {
+        if (value >= 0 && value <= MAX_SMALL_INT) {
+            return Buffer.buffer(1).appendByte((byte) (TAG_SMALL_INT + value));
+        }
+        final Buffer buffer = Buffer.buffer(MAX_VARINT_LENGTH).appendByte(TAG_VARINT);
+        long zigZag = (value << 1) ^ (value >> 63);
+        while ((zigZag & ~0x7FL) != 0) {
+            buffer.appendByte((byte) ((zigZag & 0x7F) | 0x80));
+            zigZag >>>= 7;
+        }
+        return buffer.appendByte((byte) zigZag);
+    }
+
+    /**
+     * Decodes a compactly encoded value.
+     *
+     * @return The {@code Boolean} or {@code Long} value or {@code null} if the buffer does not
+     *         contain a well-formed compactly encoded value.
+     */
+    private static Object decodeCompact(final Buffer encodedValue) {
+        final int length = encodedValue.length();
+        if (length == 0) {
+            return null;
+        }
+        final byte tag = encodedValue.getByte(0);
+        if (length == 1) {
+            if (tag == TAG_FALSE) {
+                return Boolean.FALSE;
+            } else if (tag == TAG_TRUE) {
+                return Boolean.TRUE;
+            } else if (tag >= TAG_SMALL_INT && tag <= TAG_SMALL_INT + MAX_SMALL_INT) {
+                return Long.valueOf(tag - TAG_SMALL_INT);
+            }
+            return null;
+        }
+        if (tag != TAG_VARINT || length > MAX_VARINT_LENGTH) {
+            return null;
+        }
+        long zigZag = 0;
+        for (int i = 1, shift = 0; i < length; i++, shift += 7) {
+            final byte b = encodedValue.getByte(i);
+            zigZag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return i == length - 1 ? Long.valueOf((zigZag >>> 1) ^ -(zigZag & 1)) : null;
+            }
+        }
+        return null;
+    }
+
+    private static <T> T convertCompactValue(final Object value, final Class<T> type) {
+        if (String.class.equals(type)) {
+            return type.cast(value.toString());
+        } else if (value instanceof Boolean) {
+            return type.isAssignableFrom(Boolean.class) ? type.cast(value) : null;
+        }
+        final long longValue = (Long) value;
+        final boolean isInt = longValue >= Integer.MIN_VALUE && longValue <= Integer.MAX_VALUE;
+        if (Long.class.equals(type)) {
+            return type.cast(value);
+        } else if (Integer.class.equals(type)) {
+            return isInt ? type.cast(Integer.valueOf((int) longValue)) : null;
+        } else if (Short.class.equals(type)) {
+            return longValue >= Short.MIN_VALUE && longValue <= Short.MAX_VALUE
+                    ? type.cast(Short.valueOf((short) longValue))
+                    : null;
+        } else if (Byte.class.equals(type)) {
+            return longValue >= Byte.MIN_VALUE && longValue <= Byte.MAX_VALUE
+                    ? type.cast(Byte.valueOf((byte) longValue))
+                    : null;
+        } else if (Double.class.equals(type)) {
+            return type.cast(Double.valueOf(longValue));
+        } else if (Float.class.equals(type)) {
+            return type.cast(Float.valueOf(longValue));
+        } else if (type.isAssignableFrom(Integer.class) && isInt) {
+            // same as JSON decoding of a number to a generic type
+            return type.cast(Integer.valueOf((int) longValue));
+        } else if (type.isAssignableFrom(Long.class)) {
+            return type.cast(value);
+        }
+        return null;
+    }
 }
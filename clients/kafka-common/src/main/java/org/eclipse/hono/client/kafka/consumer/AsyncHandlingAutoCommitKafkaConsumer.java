@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2021, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2021, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -79,6 +79,13 @@ import io.vertx.kafka.client.consumer.KafkaConsumerRecords;
  * are committed again. This is to make sure that such offsets don't reach their retention time, provided the recommit
  * period is lower than the <em>offsets.retention.minutes</em> broker config value.
  * <p>
+ * <b>Parallel record handling</b>
+ * <p>
+ * If a record handler parallelism greater than one is set by means of {@link #setRecordHandlerParallelism(int)},
+ * the record handling function is invoked on one of multiple vert.x contexts, selected by means of the record key.
+ * The record offsets are still registered in the order of receipt, so that only the offsets up to the first record
+ * whose handling has not been completed yet get committed.
+ * <p>
  * <b>Rate limiting of record handling</b>
  * <p>
  * This consumer limits the number of records being currently in processing to prevent memory issues and reduce the
@@ -260,15 +267,29 @@ public class AsyncHandlingAutoCommitKafkaConsumer<V> extends HonoKafkaConsumer<V
             } // else: we have already paused polling for too long, so, until we've reached the last of the batch, we can only let the already fetched records be handled here
         }
         final TopicPartition topicPartition = new TopicPartition(record.topic(), record.partition());
+        // register the offset before passing on the record so that offsets are added in the order of receipt
         final OffsetsQueueEntry offsetsQueueEntry = setRecordReceived(record.offset(), topicPartition);
-        try {
-            recordHandler.apply(record)
-                    .onComplete(ar -> setRecordHandlingComplete(offsetsQueueEntry, topicPartition));
-        } catch (final Exception e) {
-            LOG.warn("error handling record [topic: {}, partition: {}, offset: {}, headers: {}] [client-id: {}]",
-                    record.topic(), record.partition(), record.offset(), record.headers(), getClientId(), e);
-            setRecordHandlingComplete(offsetsQueueEntry, topicPartition);
-        }
+        runOnRecordHandlerContext(record, v -> {
+            try {
+                recordHandler.apply(record)
+                        .onComplete(ar -> setRecordHandlingComplete(offsetsQueueEntry, topicPartition));
+            } catch (final Exception e) {
+                LOG.warn("error handling record [topic: {}, partition: {}, offset: {}, headers: {}] [client-id: {}]",
+                        record.topic(), record.partition(), record.offset(), record.headers(), getClientId(), e);
+                setRecordHandlingComplete(offsetsQueueEntry, topicPartition);
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Registers the record's offset on the vert.x context of this consumer and then invokes the
+     * record handling function by means of {@link #runOnRecordHandlerContext(KafkaConsumerRecord, io.vertx.core.Handler)}.
+     */
+    @Override
+    protected final void dispatchRecord(final KafkaConsumerRecord<String, V> record) {
+        invokeRecordHandler(record);
     }
 
     private void setRecordHandlingComplete(final OffsetsQueueEntry offsetsQueueEntry, final TopicPartition topicPartition) {
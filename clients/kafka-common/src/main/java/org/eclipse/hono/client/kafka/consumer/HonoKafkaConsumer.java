@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2021, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2021, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -17,6 +17,7 @@ import java.net.HttpURLConnection;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -29,6 +30,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -39,6 +41,7 @@ import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
 import org.apache.kafka.clients.consumer.CooperativeStickyAssignor;
+import org.apache.kafka.common.PartitionInfo;
 import org.apache.kafka.common.metrics.Metrics;
 import org.eclipse.hono.client.ServerErrorException;
 import org.eclipse.hono.client.kafka.KafkaClientFactory;
@@ -122,6 +125,11 @@ public class HonoKafkaConsumer<V> implements Lifecycle, ServiceClient {
 
     private final AtomicBoolean pollingPaused = new AtomicBoolean();
     private final AtomicBoolean recordFetchingPaused = new AtomicBoolean();
+    /**
+     * Indicates whether the explicit partition assignment (if used) currently is empty.
+     * The Kafka consumer can not poll without any assigned partitions, so polling is paused in that case.
+     */
+    private final AtomicBoolean noPartitionsExplicitlyAssigned = new AtomicBoolean();
 
     private Handler<KafkaConsumerRecord<String, V>> recordHandler;
     private KafkaConsumer<String, V> kafkaConsumer;
@@ -152,6 +160,15 @@ public class HonoKafkaConsumer<V> implements Lifecycle, ServiceClient {
     private KafkaClientMetricsSupport metricsSupport;
     private Long pollPauseTimeoutTimerId;
     private Duration consumerCreationRetriesTimeout = Duration.ZERO; // consumer creation retries disabled by default
+    private int recordHandlerParallelism = 1;
+    private KeyOrderedExecutor recordHandlerExecutor;
+    private Predicate<TopicPartition> explicitPartitionAssignmentFilter;
+    private Duration explicitPartitionAssignmentRefreshInterval;
+    private Long explicitPartitionAssignmentRefreshTimerId;
+    /**
+     * The topics matching the topic pattern that the explicit partition assignment (if used) has been based on.
+     */
+    private volatile Set<String> explicitPartitionAssignmentTopics = new HashSet<>();
 
     /**
      * Creates a consumer to receive records on the given topics.
@@ -376,6 +393,74 @@ public class HonoKafkaConsumer<V> implements Lifecycle, ServiceClient {
         }
     }
 
+    /**
+     * Sets the number of vert.x contexts that received records are distributed among for being handled.
+     * <p>
+     * By default, the record handler is invoked for all records on the vert.x context of this consumer,
+     * limiting record handling to a single thread. With a parallelism greater than one, the record handler
+     * is invoked on one of the given number of (event loop) contexts instead, selected by means of the record key.
+     * All records with the same key are therefore handled sequentially and in the order in which they have been
+     * received, while records with different keys may be handled in parallel.
+     * <p>
+     * Note that the record handler has to be thread-safe if a parallelism greater than one is used.
+     *
+     * @param parallelism The number of contexts to use.
+     * @throws IllegalArgumentException if parallelism is not positive.
+     * @throws IllegalStateException if this consumer has already been started.
+     */
+    public final void setRecordHandlerParallelism(final int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be > 0");
+        }
+        if (lifecycleStatus.isStarting() || lifecycleStatus.isStarted()) {
+            throw new IllegalStateException("consumer is already started");
+        }
+        this.recordHandlerParallelism = parallelism;
+    }
+
+    /**
+     * Sets a filter for assigning the partitions of the topics that match the topic pattern explicitly
+     * instead of subscribing to the topic pattern.
+     * <p>
+     * With a topic pattern subscription, the partitions of the matching topics are distributed among the members
+     * of the consumer group by means of a group rebalance, which is triggered each time a matching topic is created
+     * or a member joins or leaves the group. With an explicit partition assignment, this consumer periodically
+     * retrieves the topics that match the topic pattern and assigns to itself all partitions of these topics that
+     * match the given filter. Topics that are added by means of {@link #ensureTopicIsAmongSubscribedTopicPatternTopics(String)}
+     * are considered immediately. Changes of the assignment of this consumer therefore do not affect the partitions
+     * assigned to other consumers.
+     * <p>
+     * The rebalance related handlers and callback methods are invoked for the partitions that get added to or
+     * removed from the explicit assignment in the same way as during a cooperative rebalance. Offsets are still
+     * committed for the configured consumer group.
+     * <p>
+     * Note that the filters used by the consumers that share the topics are supposed to match each partition
+     * exactly once in total.
+     *
+     * @param filter The filter that the partitions to consume records from need to match.
+     * @param refreshInterval The interval at which the topics matching the topic pattern are retrieved.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     * @throws IllegalArgumentException if the refresh interval is not positive.
+     * @throws IllegalStateException if this consumer doesn't use a topic pattern or if it has already been started.
+     */
+    public final void setExplicitPartitionAssignment(
+            final Predicate<TopicPartition> filter,
+            final Duration refreshInterval) {
+        Objects.requireNonNull(filter);
+        Objects.requireNonNull(refreshInterval);
+        if (topicPattern == null) {
+            throw new IllegalStateException("consumer doesn't use topic pattern");
+        }
+        if (lifecycleStatus.isStarting() || lifecycleStatus.isStarted()) {
+            throw new IllegalStateException("consumer is already started");
+        }
+        if (refreshInterval.isNegative() || refreshInterval.isZero()) {
+            throw new IllegalArgumentException("refresh interval must be positive");
+        }
+        this.explicitPartitionAssignmentFilter = filter;
+        this.explicitPartitionAssignmentRefreshInterval = refreshInterval;
+    }
+
     /**
      * Only to be used for unit tests.
      *
@@ -469,7 +554,9 @@ public class HonoKafkaConsumer<V> implements Lifecycle, ServiceClient {
             vertx.cancelTimer(pollPauseTimeoutTimerId);
             pollPauseTimeoutTimerId = null;
         }
-        getKafkaConsumer().resume();
+        if (!noPartitionsExplicitlyAssigned.get()) {
+            getKafkaConsumer().resume();
+        }
         return true;
     }
 
@@ -587,12 +674,7 @@ public class HonoKafkaConsumer<V> implements Lifecycle, ServiceClient {
                 if (respectTtl && KafkaRecordHelper.isTtlElapsed(record.headers())) {
                     onRecordHandlerSkippedForExpiredRecord(record);
                 } else {
-                    try {
-                        recordHandler.handle(record);
-                    } catch (final Exception e) {
-                        LOG.warn("error handling record [topic: {}, partition: {}, offset: {}, headers: {}]",
-                                record.topic(), record.partition(), record.offset(), record.headers(), e);
-                    }
+                    dispatchRecord(record);
                 }
             });
         });
@@ -642,6 +724,9 @@ public class HonoKafkaConsumer<V> implements Lifecycle, ServiceClient {
         }
 
         context = vertx.getOrCreateContext();
+        if (recordHandlerParallelism > 1) {
+            recordHandlerExecutor = new KeyOrderedExecutor(vertx, recordHandlerParallelism);
+        }
         final Supplier<KafkaConsumer<String, V>> consumerSupplier = () -> Optional.ofNullable(kafkaConsumerSupplier)
                 .map(s -> KafkaConsumer.create(vertx, s.get()))
                 .orElseGet(() -> KafkaConsumer.create(vertx, consumerConfig));
@@ -677,6 +762,53 @@ public class HonoKafkaConsumer<V> implements Lifecycle, ServiceClient {
         }
     }
 
+    /**
+     * Invoked for each received record that is to be passed to the record handler.
+     * <p>
+     * This default implementation invokes the record handler by means of {@link #runOnRecordHandlerContext(KafkaConsumerRecord, Handler)}.
+     * Subclasses may override this method, e.g. in order to do some processing on the vert.x context of this
+     * consumer before passing on the record.
+     *
+     * @param record The received record.
+     */
+    protected void dispatchRecord(final KafkaConsumerRecord<String, V> record) {
+        runOnRecordHandlerContext(record, v -> invokeRecordHandler(record));
+    }
+
+    /**
+     * Invokes the record handler for a record.
+     * <p>
+     * Exceptions thrown by the record handler are logged.
+     *
+     * @param record The record to pass to the record handler.
+     */
+    protected final void invokeRecordHandler(final KafkaConsumerRecord<String, V> record) {
+        try {
+            recordHandler.handle(record);
+        } catch (final Exception e) {
+            LOG.warn("error handling record [topic: {}, partition: {}, offset: {}, headers: {}]",
+                    record.topic(), record.partition(), record.offset(), record.headers(), e);
+        }
+    }
+
+    /**
+     * Runs a task concerning the handling of a record.
+     * <p>
+     * If a record handler parallelism greater than one has been set, the task is run on the vert.x context
+     * that is determined by the record key. Otherwise, the task is run right away.
+     *
+     * @param record The record.
+     * @param task The task to run.
+     * @see #setRecordHandlerParallelism(int)
+     */
+    protected final void runOnRecordHandlerContext(final KafkaConsumerRecord<String, V> record, final Handler<Void> task) {
+        if (recordHandlerExecutor == null) {
+            task.handle(null);
+        } else {
+            recordHandlerExecutor.execute(record.key(), task);
+        }
+    }
+
     /**
      * Invoked when a new batch of records has been fetched as part of a poll() invocation.
      * <p>
@@ -839,7 +971,9 @@ public class HonoKafkaConsumer<V> implements Lifecycle, ServiceClient {
         if (topicPattern != null) {
             final Set<String> oldSubscribedTopicPatternTopics = subscribedTopicPatternTopics;
             try {
-                subscribedTopicPatternTopics = new HashSet<>(getUnderlyingConsumer().subscription());
+                subscribedTopicPatternTopics = explicitPartitionAssignmentFilter != null
+                        ? new HashSet<>(explicitPartitionAssignmentTopics)
+                        : new HashSet<>(getUnderlyingConsumer().subscription());
             } catch (final Exception e) {
                 LOG.warn("error getting subscription", e);
             }
@@ -879,6 +1013,7 @@ public class HonoKafkaConsumer<V> implements Lifecycle, ServiceClient {
         }
     }
 
+    @SuppressWarnings("FutureReturnValueIgnored")
     private Future<Void> initSubscriptionAndWaitForRebalance() {
         if (lifecycleStatus.isStopping() || lifecycleStatus.isStopped()) {
             return Future.failedFuture(new ServerErrorException(HttpURLConnection.HTTP_UNAVAILABLE, "already stopped"));
@@ -887,7 +1022,27 @@ public class HonoKafkaConsumer<V> implements Lifecycle, ServiceClient {
         initialPartitionAssignmentDonePromiseRef.set(partitionAssignmentDone);
 
         final Promise<Void> subscribeDonePromise = Promise.promise();
-        if (topicPattern != null) {
+        if (explicitPartitionAssignmentFilter != null) {
+            // the Kafka consumer can not poll without any assigned partitions, so polling is paused until
+            // the explicit partition assignment is done on the Kafka polling thread;
+            // assigning an empty set of partitions here only makes sure that the polling thread gets created
+            noPartitionsExplicitlyAssigned.set(true);
+            kafkaConsumer.pause();
+            kafkaConsumer.assign(Set.of(), subscribeDonePromise);
+            subscribeDonePromise.future().onSuccess(ok -> kafkaConsumerWorker.submit(() -> {
+                try {
+                    updateExplicitPartitionAssignment(Map.of());
+                } catch (final Exception e) {
+                    LOG.warn("error assigning partitions [client-id: {}]", getClientId(), e);
+                    runOnContext(v -> partitionAssignmentDone.tryFail(e));
+                }
+            }));
+            partitionAssignmentDone.future().onSuccess(ok -> {
+                explicitPartitionAssignmentRefreshTimerId = vertx.setPeriodic(
+                        explicitPartitionAssignmentRefreshInterval.toMillis(),
+                        tid -> runOnKafkaWorkerThread(v -> updateExplicitPartitionAssignment(Map.of())));
+            });
+        } else if (topicPattern != null) {
             kafkaConsumer.subscribe(topicPattern, subscribeDonePromise);
         } else {
             // Trigger retrieval of metadata for each of the subscription topics if not already available locally;
@@ -903,11 +1058,83 @@ public class HonoKafkaConsumer<V> implements Lifecycle, ServiceClient {
                     }));
             kafkaConsumer.subscribe(topics, subscribeDonePromise);
         }
-        // init kafkaConsumerWorker; it has to be retrieved after the first "subscribe" invocation
+        // init kafkaConsumerWorker; it has to be retrieved after the first "subscribe" or "assign" invocation
         kafkaConsumerWorker = getKafkaConsumerWorker(kafkaConsumer);
         return CompositeFuture.all(subscribeDonePromise.future(), partitionAssignmentDone.future()).mapEmpty();
     }
 
+    /**
+     * Assigns the partitions of the topics matching the topic pattern that match the explicit partition
+     * assignment filter.
+     * <p>
+     * The rebalance listener is invoked with the partitions that are no longer assigned and with the newly assigned
+     * partitions, like it is done during a cooperative rebalance.
+     * <p>
+     * To be invoked on the Kafka polling thread.
+     *
+     * @param additionalTopics The topics to consider in addition to the ones included in the topic metadata
+     *                         retrieved from the cluster. This is needed for topics that have just been created.
+     */
+    private void updateExplicitPartitionAssignment(final Map<String, List<PartitionInfo>> additionalTopics) {
+        final Consumer<String, V> consumer = getUnderlyingConsumer();
+        final Map<String, List<PartitionInfo>> topicsMetadata = new HashMap<>(consumer.listTopics());
+        topicsMetadata.putAll(additionalTopics);
+        final Set<String> matchingTopics = new HashSet<>();
+        final Set<org.apache.kafka.common.TopicPartition> partitionsToAssign = new HashSet<>();
+        topicsMetadata.forEach((topic, partitionInfos) -> {
+            // use the same matching criteria as in ensureTopicIsAmongSubscribedTopicPatternTopics()
+            if (topicPattern.matcher(topic).find()) {
+                matchingTopics.add(topic);
+                partitionInfos.forEach(info -> {
+                    final var partition = new org.apache.kafka.common.TopicPartition(topic, info.partition());
+                    if (explicitPartitionAssignmentFilter.test(Helper.from(partition))) {
+                        partitionsToAssign.add(partition);
+                    }
+                });
+            }
+        });
+        final Set<org.apache.kafka.common.TopicPartition> assignedPartitions = consumer.assignment();
+        final List<org.apache.kafka.common.TopicPartition> revokedPartitions = assignedPartitions.stream()
+                .filter(partition -> !partitionsToAssign.contains(partition))
+                .toList();
+        final List<org.apache.kafka.common.TopicPartition> newPartitions = partitionsToAssign.stream()
+                .filter(partition -> !assignedPartitions.contains(partition))
+                .toList();
+        final boolean assignmentChanged = !revokedPartitions.isEmpty() || !newPartitions.isEmpty();
+        if (!assignmentChanged && matchingTopics.equals(explicitPartitionAssignmentTopics)
+                && initialPartitionAssignmentDonePromiseRef.get() == null) {
+            return;
+        }
+        if (!revokedPartitions.isEmpty()) {
+            rebalanceListener.onPartitionsRevoked(revokedPartitions);
+        }
+        explicitPartitionAssignmentTopics = matchingTopics;
+        if (assignmentChanged) {
+            // note that assigning an empty collection is equivalent to unsubscribing
+            consumer.assign(partitionsToAssign);
+        }
+        updatePollingForExplicitPartitionAssignment(partitionsToAssign.isEmpty());
+        rebalanceListener.onPartitionsAssigned(newPartitions);
+    }
+
+    private void updatePollingForExplicitPartitionAssignment(final boolean noPartitionsAssigned) {
+        if (noPartitionsExplicitlyAssigned.getAndSet(noPartitionsAssigned) == noPartitionsAssigned) {
+            return;
+        }
+        runOnContext(v -> {
+            if (pollingPaused.get()) {
+                // polling will be resumed (if applicable) in resumeRecordHandlingAndPolling()
+                return;
+            }
+            if (noPartitionsExplicitlyAssigned.get()) {
+                LOG.debug("no partitions assigned, pausing polling [client-id: {}]", getClientId());
+                getKafkaConsumer().pause();
+            } else {
+                getKafkaConsumer().resume();
+            }
+        });
+    }
+
     /**
      * A callback method that will be invoked after the partition re-assignment completes and before the consumer
      * starts fetching data.
@@ -992,6 +1219,10 @@ public class HonoKafkaConsumer<V> implements Lifecycle, ServiceClient {
                 vertx.cancelTimer(pollPauseTimeoutTimerId);
                 pollPauseTimeoutTimerId = null;
             }
+            if (explicitPartitionAssignmentRefreshTimerId != null) {
+                vertx.cancelTimer(explicitPartitionAssignmentRefreshTimerId);
+                explicitPartitionAssignmentRefreshTimerId = null;
+            }
 
             return Optional.ofNullable(kafkaConsumer)
                 .map(consumer -> consumer.close()
@@ -1097,7 +1328,8 @@ public class HonoKafkaConsumer<V> implements Lifecycle, ServiceClient {
      * This method is needed for scenarios where the given topic either has just been created and this consumer doesn't
      * know about it yet or the topic doesn't exist yet. In the latter case, this method will try to trigger creation of
      * the topic, which may succeed if topic auto-creation is enabled, and wait for the following rebalance to check
-     * if the topic is part of the subscribed topics then.
+     * if the topic is part of the subscribed topics then. If an explicit partition assignment is used, the partitions
+     * of the topic are considered for the assignment right away, without waiting for a rebalance.
      *
      * @param topic The topic to use.
      * @return A future indicating the outcome of the operation. The Future is succeeded if the topic exists and
@@ -1146,6 +1378,7 @@ public class HonoKafkaConsumer<V> implements Lifecycle, ServiceClient {
                 return;
             }
             // check topics that we want to be in the subscribed-topics list after the rebalance
+            final Map<String, List<PartitionInfo>> checkedTopics = new HashMap<>();
             for (final var iter = subscriptionUpdateTrackersForToBeAddedTopics.entrySet().iterator(); iter.hasNext();) {
                 final var entry = iter.next();
                 final String topic = entry.getKey();
@@ -1153,10 +1386,13 @@ public class HonoKafkaConsumer<V> implements Lifecycle, ServiceClient {
                 Exception failure = null;
                 try {
                     // check whether topic exists, if not, potentially auto-creating it here implicitly (provided "auto.create.topics.enable" is true)
-                    if (getUnderlyingConsumer().partitionsFor(topic).isEmpty()) {
+                    final List<PartitionInfo> partitions = getUnderlyingConsumer().partitionsFor(topic);
+                    if (partitions.isEmpty()) {
                         LOG.warn("ensureTopicIsAmongSubscribedTopics: topic doesn't exist and didn't get auto-created: {}", topic);
                         failure = new ServerErrorException(HttpURLConnection.HTTP_UNAVAILABLE,
                                 "topic doesn't exist and didn't get auto-created");
+                    } else {
+                        checkedTopics.put(topic, partitions);
                     }
                 } catch (final Exception e) {
                     LOG.warn("ensureTopicIsAmongSubscribedTopics: error getting partitions for topic [{}]", topic, e);
@@ -1168,11 +1404,16 @@ public class HonoKafkaConsumer<V> implements Lifecycle, ServiceClient {
                 });
             }
             if (!subscriptionUpdateTrackersForToBeAddedTopics.isEmpty()) {
-                LOG.trace("ensureTopicIsAmongSubscribedTopics: subscribe");
                 try {
-                    // the topic list of a wildcard subscription only gets refreshed periodically by default (interval is defined by "metadata.max.age.ms");
-                    // therefore enforce a refresh here by again subscribing to the topic pattern
-                    getUnderlyingConsumer().subscribe(topicPattern, rebalanceListener);
+                    if (explicitPartitionAssignmentFilter != null) {
+                        LOG.trace("ensureTopicIsAmongSubscribedTopics: update explicit partition assignment");
+                        updateExplicitPartitionAssignment(checkedTopics);
+                    } else {
+                        LOG.trace("ensureTopicIsAmongSubscribedTopics: subscribe");
+                        // the topic list of a wildcard subscription only gets refreshed periodically by default (interval is defined by "metadata.max.age.ms");
+                        // therefore enforce a refresh here by again subscribing to the topic pattern
+                        getUnderlyingConsumer().subscribe(topicPattern, rebalanceListener);
+                    }
                 } catch (final Exception e) {
                     LOG.warn("ensureTopicIsAmongSubscribedTopics: error updating subscription", e);
                     failAllSubscriptionUpdateTrackers(e);
@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.hono.client.kafka.consumer;
+
+import java.util.Objects;
+
+import org.eclipse.hono.util.VertxContexts;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+
+/**
+ * An executor that runs tasks on a fixed number of vert.x contexts, selecting the context by means of a key.
+ * <p>
+ * All tasks for the same key are run on the same context and are therefore run sequentially in the order in
+ * which they have been submitted. Tasks for different keys may run in parallel.
+ */
+final class KeyOrderedExecutor {
+
+    private final Context[] contexts;
+
+    /**
+     * Creates a new executor.
+     *
+     * @param vertx The vert.x instance to create the contexts with.
+     * @param parallelism The number of contexts to use.
+     * @throws NullPointerException if vertx is {@code null}.
+     * @throws IllegalArgumentException if parallelism is not positive.
+     */
+    KeyOrderedExecutor(final Vertx vertx, final int parallelism) {
+        Objects.requireNonNull(vertx);
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be > 0");
+        }
+        this.contexts = new Context[parallelism];
+        for (int i = 0; i < parallelism; i++) {
+            contexts[i] = VertxContexts.newEventLoopContext(vertx);
+        }
+    }
+
+    /**
+     * Gets the index of the context that the tasks for a key are run on.
+     *
+     * @param key The key or {@code null}.
+     * @return The index.
+     */
+    int getContextIndex(final String key) {
+        return key == null ? 0 : Math.floorMod(key.hashCode(), contexts.length);
+    }
+
+    /**
+     * Runs a task on the context determined by the given key.
+     *
+     * @param key The key to use for selecting the context or {@code null}.
+     * @param task The task to run.
+     * @throws NullPointerException if task is {@code null}.
+     */
+    void execute(final String key, final Handler<Void> task) {
+        Objects.requireNonNull(task);
+        contexts[getContextIndex(key)].runOnContext(task);
+    }
+}
@@ -294,19 +294,38 @@ public abstract class AbstractKafkaBasedMessageSender<V> implements MessagingCli
         return producerFactory.closeProducer(producerName);
     }
 
+    /**
+     * Checks if the values of record headers that are of a primitive type are encoded compactly.
+     *
+     * @return {@code true} if header values are encoded compactly.
+     * @see KafkaProducerConfigProperties#isCompactHeaderEncoding()
+     */
+    protected final boolean isCompactHeaderEncoding() {
+        return config.isCompactHeaderEncoding();
+    }
+
     /**
      * Encodes the given properties as a list of Kafka record headers.
+     * <p>
+     * If compact header encoding is enabled, the list starts with the {@value KafkaRecordHelper#HEADER_VERSION}
+     * header and values of a primitive type are encoded compactly.
      *
      * @param properties The properties to encode.
      * @param span The span to log to if there are exceptions encoding the properties.
      * @return The created header list.
      */
     private List<KafkaHeader> encodePropertiesAsKafkaHeaders(final Map<String, Object> properties, final Span span) {
-        final List<KafkaHeader> headers = new ArrayList<>();
+        final boolean compact = config.isCompactHeaderEncoding();
+        final List<KafkaHeader> headers = new ArrayList<>(properties.size() + 2);
+        if (compact) {
+            headers.add(KafkaRecordHelper.createHeaderVersionHeader());
+        }
 
         properties.forEach((k, v) -> {
             try {
-                headers.add(KafkaRecordHelper.createKafkaHeader(k, v));
+                headers.add(compact
+                        ? KafkaRecordHelper.createCompactKafkaHeader(k, v)
+                        : KafkaRecordHelper.createKafkaHeader(k, v));
             } catch (final EncodeException e) {
                 log.info("failed to serialize property with key [{}] to Kafka header", k);
                 span.log("failed to create Kafka header from property: " + k);
@@ -316,9 +335,11 @@ public abstract class AbstractKafkaBasedMessageSender<V> implements MessagingCli
         if (!properties.containsKey(MessageHelper.SYS_PROPERTY_CREATION_TIME)) {
             // must match http://docs.oasis-open.org/amqp/core/v1.0/os/amqp-core-types-v1.0-os.html#type-timestamp
             // as defined in https://www.eclipse.org/hono/docs/api/telemetry/#forward-telemetry-data
-            headers.add(KafkaRecordHelper.createKafkaHeader(
-                    MessageHelper.SYS_PROPERTY_CREATION_TIME,
-                    Json.encode(Instant.now().toEpochMilli())));
+            final long creationTime = Instant.now().toEpochMilli();
+            headers.add(compact
+                    ? KafkaRecordHelper.createCompactKafkaHeader(MessageHelper.SYS_PROPERTY_CREATION_TIME, creationTime)
+                    : KafkaRecordHelper.createKafkaHeader(MessageHelper.SYS_PROPERTY_CREATION_TIME,
+                            Json.encode(creationTime)));
         }
 
         return headers;
@@ -35,6 +35,7 @@ public class KafkaProducerConfigProperties extends AbstractKafkaConfigProperties
 
     private final Class<? extends Serializer<?>> keySerializerClass;
     private final Class<? extends Serializer<?>> valueSerializerClass;
+    private boolean compactHeaderEncoding = false;
 
     /**
      * Creates an instance.
@@ -77,6 +78,7 @@ public class KafkaProducerConfigProperties extends AbstractKafkaConfigProperties
         final CommonKafkaClientConfigProperties commonConfig = new CommonKafkaClientConfigProperties(commonOptions);
         setCommonClientConfig(commonConfig);
         setSpecificClientConfig(ConfigOptionsHelper.toStringValueMap(options.producerConfig()));
+        this.compactHeaderEncoding = options.compactHeaderEncoding();
     }
 
     /**
@@ -89,6 +91,29 @@ public class KafkaProducerConfigProperties extends AbstractKafkaConfigProperties
         setSpecificClientConfig(producerConfig);
     }
 
+    /**
+     * Sets whether the values of record headers that are of a primitive type should be encoded compactly
+     * instead of using JSON.
+     * <p>
+     * The default value of this property is {@code false}.
+     *
+     * @param compactHeaderEncoding {@code true} if header values should be encoded compactly.
+     * @see org.eclipse.hono.client.kafka.KafkaRecordHelper#createCompactKafkaHeader(String, Object)
+     */
+    public final void setCompactHeaderEncoding(final boolean compactHeaderEncoding) {
+        this.compactHeaderEncoding = compactHeaderEncoding;
+    }
+
+    /**
+     * Checks whether the values of record headers that are of a primitive type should be encoded compactly
+     * instead of using JSON.
+     *
+     * @return {@code true} if header values should be encoded compactly.
+     */
+    public final boolean isCompactHeaderEncoding() {
+        return compactHeaderEncoding;
+    }
+
     /**
      * Gets the Kafka producer configuration. This is the result of applying the producer configuration on the common
      * configuration. It includes changes made in {@link #adaptConfiguration(Map)}.
@@ -17,6 +17,7 @@ import java.util.Map;
 
 import io.smallrye.config.ConfigMapping;
 import io.smallrye.config.ConfigValue;
+import io.smallrye.config.WithDefault;
 
 /**
  * Options for configuring Kafka producers.
@@ -38,4 +39,15 @@ public interface KafkaProducerOptions {
      */
     Map<String, ConfigValue> producerConfig();
 
+    /**
+     * Checks if the values of record headers that are of a primitive type should be encoded compactly
+     * instead of using JSON.
+     * <p>
+     * Consumers need to support the compact encoding, see
+     * {@link org.eclipse.hono.client.kafka.KafkaRecordHelper#createCompactKafkaHeader(String, Object)}.
+     *
+     * @return {@code true} if header values should be encoded compactly.
+     */
+    @WithDefault("false")
+    boolean compactHeaderEncoding();
 }
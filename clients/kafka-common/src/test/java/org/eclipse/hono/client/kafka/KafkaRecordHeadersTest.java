@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.hono.client.kafka;
+
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.hono.util.MessageHelper;
+import org.eclipse.hono.util.QoS;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.vertx.kafka.client.producer.KafkaHeader;
+
+/**
+ * Verifies the behavior of {@link KafkaRecordHeaders}.
+ */
+public class KafkaRecordHeadersTest {
+
+    private static final String KEY = "the-key";
+
+    private List<KafkaHeader> headers;
+
+    /**
+     * Sets up the fixture.
+     */
+    @BeforeEach
+    public void setUp() {
+        headers = new ArrayList<>();
+    }
+
+    /**
+     * Verifies that the view returns the same values as {@link KafkaRecordHelper} for JSON encoded headers.
+     */
+    @Test
+    public void testGetValuesOfJsonEncodedHeaders() {
+        final Instant creationTime = Instant.ofEpochMilli(System.currentTimeMillis());
+        headers.add(KafkaRecordHelper.createDeviceIdHeader("4711"));
+        headers.add(KafkaRecordHelper.createKafkaHeader(MessageHelper.SYS_PROPERTY_CONTENT_TYPE, "text/plain"));
+        headers.add(KafkaRecordHelper.createKafkaHeader(MessageHelper.SYS_PROPERTY_CREATION_TIME, creationTime.toEpochMilli()));
+        headers.add(KafkaRecordHelper.createKafkaHeader(MessageHelper.APP_PROPERTY_QOS, 0));
+        headers.add(KafkaRecordHelper.createResponseRequiredHeader(true));
+
+        final KafkaRecordHeaders view = new KafkaRecordHeaders(headers);
+        assertThat(view.isCompactlyEncoded()).isFalse();
+        assertThat(view.getDeviceId()).hasValue("4711");
+        assertThat(view.getContentType()).hasValue("text/plain");
+        assertThat(view.getCreationTime()).hasValue(creationTime);
+        assertThat(view.getQoS()).hasValue(QoS.AT_MOST_ONCE);
+        assertThat(view.isResponseRequired()).isTrue();
+        assertThat(view.getTenantId()).isEmpty();
+        assertThat(view.getRawValue(KEY)).isNull();
+    }
+
+    /**
+     * Verifies that the view decodes compactly encoded header values and supports reading a value
+     * using different types.
+     */
+    @Test
+    public void testGetValuesOfCompactlyEncodedHeaders() {
+        headers.add(KafkaRecordHelper.createCompactKafkaHeader(KEY, 60_000L));
+        headers.add(KafkaRecordHelper.createHeaderVersionHeader());
+
+        final KafkaRecordHeaders view = new KafkaRecordHeaders(headers);
+        assertThat(view.isCompactlyEncoded()).isTrue();
+        assertThat(view.getValue(KEY, Long.class)).hasValue(60_000L);
+        assertThat(view.getValue(KEY, Integer.class)).hasValue(60_000);
+        assertThat(view.getValue(KEY, Boolean.class)).isEmpty();
+        assertThat(view.getValue(KEY, Long.class)).hasValue(60_000L);
+    }
+
+    /**
+     * Verifies that the view returns the value of the first occurrence of a header.
+     */
+    @Test
+    public void testGetValueReturnsFirstOccurrence() {
+        headers.add(KafkaRecordHelper.createKafkaHeader(KEY, "first"));
+        headers.add(KafkaRecordHelper.createKafkaHeader(KEY, "second"));
+
+        assertThat(new KafkaRecordHeaders(headers).getValue(KEY, String.class)).hasValue("first");
+    }
+
+    /**
+     * Verifies that the headers are indexed on first access only and that values are decoded once.
+     */
+    @Test
+    public void testHeadersAreIndexedAndDecodedOnce() {
+        final KafkaHeader header = spy(KafkaRecordHelper.createKafkaHeader(KEY, 5));
+        headers.add(header);
+
+        final KafkaRecordHeaders view = new KafkaRecordHeaders(headers);
+        verify(header, times(0)).value();
+
+        final Integer value = view.getValue(KEY, Integer.class).get();
+        assertThat(view.getValue(KEY, Integer.class).get()).isSameInstanceAs(value);
+        verify(header, times(1)).value();
+    }
+
+    /**
+     * Verifies that a view can be created for a record without headers.
+     */
+    @Test
+    public void testViewOnMissingHeaders() {
+        final KafkaRecordHeaders view = new KafkaRecordHeaders(null);
+        assertThat(view.getHeaders()).isEmpty();
+        assertThat(view.isCompactlyEncoded()).isFalse();
+        assertThat(view.getContentType()).isEmpty();
+    }
+}
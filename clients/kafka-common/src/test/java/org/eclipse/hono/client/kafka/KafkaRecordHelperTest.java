@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021 Contributors to the Eclipse Foundation
+ * Copyright (c) 2021, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -53,12 +53,12 @@ public class KafkaRecordHelperTest {
     }
 
     /**
-     * Verifies that {@link KafkaRecordHelper#decode(KafkaHeader, Class)} returns {@code null} if the parameter is
+     * Verifies that {@link KafkaRecordHelper#decode(KafkaHeader, Class, boolean)} returns {@code null} if the parameter is
      * null.
      */
     @Test
     public void testThatDecodeReturnsNullIfNoHeaderPresent() {
-        assertThat(KafkaRecordHelper.decode((KafkaHeader) null, String.class)).isNull();
+        assertThat(KafkaRecordHelper.decode((KafkaHeader) null, String.class, true)).isNull();
     }
 
     /**
@@ -100,12 +100,12 @@ public class KafkaRecordHelperTest {
     }
 
     /**
-     * Verifies that {@link KafkaRecordHelper#decode(KafkaHeader, Class)} returns {@code null} if the value of the
+     * Verifies that {@link KafkaRecordHelper#decode(KafkaHeader, Class, boolean)} returns {@code null} if the value of the
      * header cannot be decoded as JSON and is not expected to be a String.
      */
     @Test
     public void testThatDecodeReturnsNullForWrongSerialisation() {
-        assertThat(KafkaRecordHelper.decode(KafkaHeader.header(KEY, "{invalid: json}"), Object.class)).isNull();
+        assertThat(KafkaRecordHelper.decode(KafkaHeader.header(KEY, "{invalid: json}"), Object.class, false)).isNull();
     }
 
     /**
@@ -202,4 +202,71 @@ public class KafkaRecordHelperTest {
         assertThat(KafkaRecordHelper.getHeaderValue(headers, KEY, String.class))
                 .isEqualTo(Optional.of(stringValue1));
     }
+
+    /**
+     * Verifies that compactly encoded header values are decoded to their original values
+     * if the headers contain the header version marker.
+     */
+    @Test
+    public void testGetCompactlyEncodedHeaderValues() {
+        headers.add(KafkaRecordHelper.createHeaderVersionHeader());
+        headers.add(KafkaRecordHelper.createCompactKafkaHeader("qos", 1));
+        headers.add(KafkaRecordHelper.createCompactKafkaHeader("ttl", 5000L));
+        headers.add(KafkaRecordHelper.createCompactKafkaHeader("negative", -1234567890123L));
+        headers.add(KafkaRecordHelper.createCompactKafkaHeader("max", Long.MAX_VALUE));
+        headers.add(KafkaRecordHelper.createCompactKafkaHeader("flag", true));
+        headers.add(KafkaRecordHelper.createCompactKafkaHeader("device_id", "4711"));
+
+        assertThat(KafkaRecordHelper.isCompactlyEncoded(headers)).isTrue();
+        assertThat(headers.get(1).value().length()).isEqualTo(1);
+        assertThat(headers.get(5).value().length()).isEqualTo(1);
+        assertThat(KafkaRecordHelper.getQoS(headers)).isEqualTo(Optional.of(QoS.AT_LEAST_ONCE));
+        assertThat(KafkaRecordHelper.getHeaderValue(headers, "ttl", Long.class)).isEqualTo(Optional.of(5000L));
+        assertThat(KafkaRecordHelper.getHeaderValue(headers, "ttl", Integer.class)).isEqualTo(Optional.of(5000));
+        assertThat(KafkaRecordHelper.getHeaderValue(headers, "ttl", String.class)).isEqualTo(Optional.of("5000"));
+        assertThat(KafkaRecordHelper.getHeaderValue(headers, "negative", Long.class))
+                .isEqualTo(Optional.of(-1234567890123L));
+        assertThat(KafkaRecordHelper.getHeaderValue(headers, "negative", Integer.class)).isEqualTo(Optional.empty());
+        assertThat(KafkaRecordHelper.getHeaderValue(headers, "max", Long.class)).isEqualTo(Optional.of(Long.MAX_VALUE));
+        assertThat(KafkaRecordHelper.getHeaderValue(headers, "flag", Boolean.class)).isEqualTo(Optional.of(true));
+        assertThat(KafkaRecordHelper.getHeaderValue(headers, "flag", Integer.class)).isEqualTo(Optional.empty());
+        assertThat(KafkaRecordHelper.getDeviceId(headers)).isEqualTo(Optional.of("4711"));
+    }
+
+    /**
+     * Verifies that compactly encoded header values are not decoded if the headers do not contain
+     * the header version marker.
+     */
+    @Test
+    public void testCompactlyEncodedHeaderValuesRequireHeaderVersion() {
+        headers.add(KafkaRecordHelper.createCompactKafkaHeader("ttl", 5000L));
+
+        assertThat(KafkaRecordHelper.isCompactlyEncoded(headers)).isFalse();
+        assertThat(KafkaRecordHelper.getHeaderValue(headers, "ttl", Long.class)).isEqualTo(Optional.empty());
+    }
+
+    /**
+     * Verifies that JSON encoded header values are decoded in records that use the compact encoding.
+     */
+    @Test
+    public void testGetJsonEncodedHeaderValueOfCompactlyEncodedRecord() {
+        headers.add(KafkaRecordHelper.createHeaderVersionHeader());
+        headers.add(KafkaRecordHelper.createKafkaHeader("ttl", 5000L));
+        headers.add(KafkaRecordHelper.createKafkaHeader("creation-time", Instant.now().minusSeconds(6).toEpochMilli()));
+
+        assertThat(KafkaRecordHelper.getHeaderValue(headers, "ttl", Long.class)).isEqualTo(Optional.of(5000L));
+        assertThat(KafkaRecordHelper.isTtlElapsed(headers)).isTrue();
+    }
+
+    /**
+     * Verifies that {@link KafkaRecordHelper#decode(KafkaHeader, Class, boolean)} decodes compactly
+     * encoded values only if the compact encoding is indicated.
+     */
+    @Test
+    public void testDecodeHeaderWithCompactEncoding() {
+        final KafkaHeader header = KafkaRecordHelper.createCompactKafkaHeader("ttl", 5000L);
+
+        assertThat(KafkaRecordHelper.decode(header, Long.class, true)).isEqualTo(5000L);
+        assertThat(KafkaRecordHelper.decode(header, Long.class, false)).isNull();
+    }
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2021, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2021, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -635,6 +635,74 @@ public class AsyncHandlingAutoCommitKafkaConsumerTest {
         });
     }
 
+    /**
+     * Verifies that the consumer only commits the offsets of records up to the first record whose handling has
+     * not been completed yet if the records are handled in parallel.
+     *
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testConsumerCommitsSequentiallyCompletedOffsetsWithParallelism(final VertxTestContext ctx) {
+        final int numTestRecords = 10;
+        final long incompleteRecordOffset = 5;
+        final AtomicInteger receivedRecords = new AtomicInteger();
+        final Promise<Void> testRecordsReceived = Promise.promise();
+        final Promise<Void> incompleteRecordResult = Promise.promise();
+        final Function<KafkaConsumerRecord<String, Buffer>, Future<Void>> handler = record -> {
+            if (receivedRecords.incrementAndGet() == numTestRecords) {
+                testRecordsReceived.complete();
+            }
+            return record.offset() == incompleteRecordOffset ? incompleteRecordResult.future() : Future.succeededFuture();
+        };
+        final Map<String, String> consumerConfig = consumerConfigProperties.getConsumerConfig("test");
+        consumerConfig.put(ConsumerConfig.GROUP_ID_CONFIG, UUID.randomUUID().toString());
+        consumerConfig.put(ConsumerConfig.AUTO_COMMIT_INTERVAL_MS_CONFIG, "200");
+        final Promise<Void> readyTracker = Promise.promise();
+
+        mockConsumer.updateBeginningOffsets(Map.of(TOPIC_PARTITION, 0L));
+        mockConsumer.updateEndOffsets(Map.of(TOPIC_PARTITION, 0L));
+        mockConsumer.updatePartitions(TOPIC_PARTITION, KafkaMockConsumer.DEFAULT_NODE);
+        mockConsumer.setRebalancePartitionAssignmentAfterSubscribe(List.of(TOPIC_PARTITION));
+
+        consumer = new AsyncHandlingAutoCommitKafkaConsumer<>(vertx, Set.of(TOPIC), handler, consumerConfig);
+        consumer.setKafkaConsumerSupplier(() -> mockConsumer);
+        consumer.setRecordHandlerParallelism(4);
+        consumer.addOnKafkaConsumerReadyHandler(readyTracker);
+        consumer.start()
+            .compose(ok -> readyTracker.future())
+            .onComplete(ctx.succeeding(v2 -> {
+                mockConsumer.schedulePollTask(() -> {
+                    IntStream.range(0, numTestRecords).forEach(offset -> {
+                        mockConsumer.addRecord(new ConsumerRecord<>(TOPIC, PARTITION, offset, "key_" + offset,
+                                Buffer.buffer()));
+                    });
+                });
+            }));
+        testRecordsReceived.future()
+            .compose(v -> waitForCommittedOffset(incompleteRecordOffset))
+            .compose(v -> {
+                incompleteRecordResult.complete();
+                return waitForCommittedOffset(numTestRecords);
+            })
+            .onComplete(ctx.succeedingThenComplete());
+    }
+
+    private Future<Void> waitForCommittedOffset(final long expectedOffset) {
+        final Promise<Void> result = Promise.promise();
+        final AtomicInteger checkCount = new AtomicInteger(0);
+        vertx.setPeriodic(100, tid -> {
+            final OffsetAndMetadata committed = mockConsumer.committed(Set.of(TOPIC_PARTITION)).get(TOPIC_PARTITION);
+            if (committed != null && committed.offset() == expectedOffset) {
+                vertx.cancelTimer(tid);
+                result.complete();
+            } else if (checkCount.incrementAndGet() >= 30) {
+                vertx.cancelTimer(tid);
+                result.fail(new AssertionError("offset %d should have been committed".formatted(expectedOffset)));
+            }
+        });
+        return result.future();
+    }
+
     /**
      * Verifies that the consumer commits the initial partition offset on the first offset commit after
      * the partition got assigned to the consumer.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2021, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2021, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -20,11 +20,14 @@ import static org.mockito.Mockito.when;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 import java.util.regex.Pattern;
@@ -53,6 +56,7 @@ import org.junit.jupiter.api.function.Executable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.vertx.core.Context;
 import io.vertx.core.Handler;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
@@ -322,6 +326,52 @@ public class HonoKafkaConsumerTest {
             }));
     }
 
+    /**
+     * Verifies that a consumer using an explicit partition assignment assigns the partitions matching
+     * the filter to itself, also for a topic that has been created after the consumer started.
+     *
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testConsumerWithExplicitPartitionAssignmentAssignsMatchingPartitions(final VertxTestContext ctx) {
+        final var consumerConfig = consumerConfigProperties.getConsumerConfig("test");
+        consumerConfig.put(ConsumerConfig.GROUP_ID_CONFIG, UUID.randomUUID().toString());
+        final Promise<Void> readyTracker = Promise.promise();
+
+        mockConsumer.updateBeginningOffsets(Map.of(topicPartition, 0L, topic2Partition, 0L));
+        mockConsumer.updateEndOffsets(Map.of(topicPartition, 0L, topic2Partition, 0L));
+        mockConsumer.updatePartitions(topicPartition, KafkaMockConsumer.DEFAULT_NODE);
+        mockConsumer.updatePartitions(topic2Partition, KafkaMockConsumer.DEFAULT_NODE);
+
+        consumer = new HonoKafkaConsumer<>(vertx, TOPIC_PATTERN, r -> {}, consumerConfig);
+        consumer.setKafkaConsumerSupplier(() -> mockConsumer);
+        consumer.setExplicitPartitionAssignment(
+                partition -> !TOPIC2.equals(partition.getTopic()),
+                Duration.ofMinutes(1));
+        consumer.addOnKafkaConsumerReadyHandler(readyTracker);
+        consumer.start()
+            .compose(ok -> readyTracker.future())
+            .compose(ok -> {
+                ctx.verify(() -> {
+                    assertThat(consumer.getSubscribedTopicPatternTopics()).containsExactly(TOPIC, TOPIC2);
+                    assertThat(mockConsumer.subscription()).isEmpty();
+                    assertThat(mockConsumer.assignment()).containsExactly(topicPartition);
+                });
+                // now add a partition for topic3
+                mockConsumer.updatePartitions(topic3Partition, KafkaMockConsumer.DEFAULT_NODE);
+                mockConsumer.updateBeginningOffsets(Map.of(topic3Partition, 0L));
+                mockConsumer.updateEndOffsets(Map.of(topic3Partition, 0L));
+                return consumer.ensureTopicIsAmongSubscribedTopicPatternTopics(TOPIC3);
+            })
+            .onComplete(ctx.succeeding(ok -> {
+                ctx.verify(() -> {
+                    assertThat(consumer.getSubscribedTopicPatternTopics()).containsExactly(TOPIC, TOPIC2, TOPIC3);
+                    assertThat(mockConsumer.assignment()).containsExactly(topicPartition, topic3Partition);
+                });
+                ctx.completeNow();
+            }));
+    }
+
     /**
      * Verifies that the HonoKafkaConsumer invokes the provided handler on received records.
      *
@@ -361,6 +411,60 @@ public class HonoKafkaConsumerTest {
             }));
     }
 
+    /**
+     * Verifies that the HonoKafkaConsumer distributes the handling of received records among multiple
+     * vert.x contexts based on the record key if a record handler parallelism is set, while keeping the
+     * order of the records with the same key.
+     *
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testConsumerInvokesHandlerInKeyOrderWithParallelism(final VertxTestContext ctx) {
+        final int numKeys = 10;
+        final int numRecordsPerKey = 20;
+        final Checkpoint receivedRecordsCheckpoint = ctx.checkpoint(numKeys * numRecordsPerKey);
+        final Map<String, List<Long>> receivedOffsets = new ConcurrentHashMap<>();
+        final Map<String, Context> handlerContexts = new ConcurrentHashMap<>();
+        final Handler<KafkaConsumerRecord<String, Buffer>> handler = record -> {
+            ctx.verify(() -> {
+                final Context currentContext = Vertx.currentContext();
+                assertThat(handlerContexts.computeIfAbsent(record.key(), k -> currentContext))
+                        .isSameInstanceAs(currentContext);
+                final List<Long> offsets = receivedOffsets.computeIfAbsent(record.key(), k -> new ArrayList<>());
+                if (!offsets.isEmpty()) {
+                    assertThat(record.offset()).isGreaterThan(offsets.get(offsets.size() - 1));
+                }
+                offsets.add(record.offset());
+            });
+            receivedRecordsCheckpoint.flag();
+        };
+        final var consumerConfig = consumerConfigProperties.getConsumerConfig("test");
+        consumerConfig.put(ConsumerConfig.GROUP_ID_CONFIG, UUID.randomUUID().toString());
+        final Promise<Void> readyTracker = Promise.promise();
+
+        mockConsumer.updateBeginningOffsets(Map.of(topicPartition, 0L));
+        mockConsumer.updateEndOffsets(Map.of(topicPartition, 0L));
+        mockConsumer.setRebalancePartitionAssignmentAfterSubscribe(List.of(topicPartition));
+        consumer = new HonoKafkaConsumer<>(vertx, Set.of(TOPIC), handler, consumerConfig);
+        consumer.setKafkaConsumerSupplier(() -> mockConsumer);
+        consumer.setRecordHandlerParallelism(4);
+        consumer.addOnKafkaConsumerReadyHandler(readyTracker);
+        consumer.start()
+            .compose(ok -> readyTracker.future())
+            .onComplete(ctx.succeeding(ok -> {
+                mockConsumer.schedulePollTask(() -> {
+                    IntStream.range(0, numKeys * numRecordsPerKey).forEach(offset -> {
+                        mockConsumer.addRecord(new ConsumerRecord<>(
+                                TOPIC,
+                                PARTITION,
+                                offset,
+                                "key_" + (offset % numKeys),
+                                Buffer.buffer("payload " + offset)));
+                    });
+                });
+            }));
+    }
+
     /**
      * Verifies that the HonoKafkaConsumer doesn't invoke the provided handler on received records whose ttl has expired.
      *
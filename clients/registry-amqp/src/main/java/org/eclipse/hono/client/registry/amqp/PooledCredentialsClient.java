@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+
+package org.eclipse.hono.client.registry.amqp;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+import org.eclipse.hono.client.amqp.AbstractPooledServiceClient;
+import org.eclipse.hono.client.amqp.connection.HonoConnection;
+import org.eclipse.hono.client.amqp.connection.HonoConnectionPool;
+import org.eclipse.hono.client.registry.CredentialsClient;
+import org.eclipse.hono.util.CredentialsObject;
+
+import io.opentracing.SpanContext;
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * A vertx-proton based client of Hono's Credentials service that spreads its requests
+ * across the connections of a pool.
+ * <p>
+ * Requests for a given tenant are always sent via the same connection.
+ *
+ * @see ProtonBasedCredentialsClient
+ */
+public final class PooledCredentialsClient extends AbstractPooledServiceClient<ProtonBasedCredentialsClient>
+        implements CredentialsClient {
+
+    /**
+     * Creates a new client for a pool of connections.
+     *
+     * @param connectionPool The pool of connections to the service.
+     * @param clientFactory The factory for creating a client for a connection of the pool.
+     *                      The clients created by the factory should share the same response cache.
+     * @throws NullPointerException if any of the parameters are {@code null}.
+     */
+    public PooledCredentialsClient(
+            final HonoConnectionPool connectionPool,
+            final Function<HonoConnection, ProtonBasedCredentialsClient> clientFactory) {
+        super(connectionPool, clientFactory);
+    }
+
+    @Override
+    public Future<CredentialsObject> get(
+            final String tenantId,
+            final String type,
+            final String authId,
+            final SpanContext spanContext) {
+
+        Objects.requireNonNull(tenantId);
+        return getClient(tenantId).get(tenantId, type, authId, spanContext);
+    }
+
+    @Override
+    public Future<CredentialsObject> get(
+            final String tenantId,
+            final String type,
+            final String authId,
+            final JsonObject clientContext,
+            final SpanContext spanContext) {
+
+        Objects.requireNonNull(tenantId);
+        return getClient(tenantId).get(tenantId, type, authId, clientContext, spanContext);
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+
+package org.eclipse.hono.client.registry.amqp;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import org.eclipse.hono.client.amqp.AbstractPooledServiceClient;
+import org.eclipse.hono.client.amqp.connection.HonoConnection;
+import org.eclipse.hono.client.amqp.connection.HonoConnectionPool;
+import org.eclipse.hono.client.registry.DeviceRegistrationClient;
+import org.eclipse.hono.util.RegistrationAssertion;
+
+import io.opentracing.SpanContext;
+import io.vertx.core.Future;
+
+/**
+ * A vertx-proton based client of Hono's Device Registration service that spreads its requests
+ * across the connections of a pool.
+ * <p>
+ * Requests for a given tenant are always sent via the same connection.
+ *
+ * @see ProtonBasedDeviceRegistrationClient
+ */
+public final class PooledDeviceRegistrationClient
+        extends AbstractPooledServiceClient<ProtonBasedDeviceRegistrationClient>
+        implements DeviceRegistrationClient {
+
+    /**
+     * Creates a new client for a pool of connections.
+     *
+     * @param connectionPool The pool of connections to the service.
+     * @param clientFactory The factory for creating a client for a connection of the pool.
+     *                      The clients created by the factory should share the same response cache.
+     * @throws NullPointerException if any of the parameters are {@code null}.
+     */
+    public PooledDeviceRegistrationClient(
+            final HonoConnectionPool connectionPool,
+            final Function<HonoConnection, ProtonBasedDeviceRegistrationClient> clientFactory) {
+        super(connectionPool, clientFactory);
+    }
+
+    @Override
+    public Future<RegistrationAssertion> assertRegistration(
+            final String tenantId,
+            final String deviceId,
+            final String gatewayId,
+            final SpanContext context) {
+
+        Objects.requireNonNull(tenantId);
+        return getClient(tenantId).assertRegistration(tenantId, deviceId, gatewayId, context);
+    }
+
+    @Override
+    public Map<String, Future<RegistrationAssertion>> assertRegistrations(
+            final String tenantId,
+            final Collection<String> deviceIds,
+            final String gatewayId,
+            final SpanContext context) {
+
+        Objects.requireNonNull(tenantId);
+        return getClient(tenantId).assertRegistrations(tenantId, deviceIds, gatewayId, context);
+    }
+}
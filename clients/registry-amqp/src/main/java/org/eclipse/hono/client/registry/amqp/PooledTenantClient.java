@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+
+package org.eclipse.hono.client.registry.amqp;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+import javax.security.auth.x500.X500Principal;
+
+import org.eclipse.hono.client.amqp.AbstractPooledServiceClient;
+import org.eclipse.hono.client.amqp.connection.HonoConnection;
+import org.eclipse.hono.client.amqp.connection.HonoConnectionPool;
+import org.eclipse.hono.client.registry.TenantClient;
+import org.eclipse.hono.util.TenantObject;
+
+import io.opentracing.SpanContext;
+import io.vertx.core.Future;
+
+/**
+ * A vertx-proton based client of Hono's Tenant service that spreads its requests across
+ * the connections of a pool.
+ * <p>
+ * Requests for a given tenant are always sent via the same connection. Requests for the
+ * tenant that a certificate's subject DN belongs to are sent via the connection selected
+ * for the subject DN.
+ *
+ * @see ProtonBasedTenantClient
+ */
+public final class PooledTenantClient extends AbstractPooledServiceClient<ProtonBasedTenantClient>
+        implements TenantClient {
+
+    /**
+     * Creates a new client for a pool of connections.
+     *
+     * @param connectionPool The pool of connections to the service.
+     * @param clientFactory The factory for creating a client for a connection of the pool.
+     *                      The clients created by the factory should share the same response cache.
+     * @throws NullPointerException if any of the parameters are {@code null}.
+     */
+    public PooledTenantClient(
+            final HonoConnectionPool connectionPool,
+            final Function<HonoConnection, ProtonBasedTenantClient> clientFactory) {
+        super(connectionPool, clientFactory);
+    }
+
+    @Override
+    public Future<TenantObject> get(final String tenantId, final SpanContext context) {
+        Objects.requireNonNull(tenantId);
+        return getClient(tenantId).get(tenantId, context);
+    }
+
+    @Override
+    public Future<TenantObject> get(final X500Principal subjectDn, final SpanContext context) {
+        Objects.requireNonNull(subjectDn);
+        return getClient(subjectDn.getName(X500Principal.RFC2253)).get(subjectDn, context);
+    }
+}
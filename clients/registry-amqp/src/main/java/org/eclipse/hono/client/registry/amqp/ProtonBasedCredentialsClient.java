@@ -27,6 +27,7 @@ import org.eclipse.hono.client.amqp.connection.SendMessageSampler;
 import org.eclipse.hono.client.registry.CredentialsClient;
 import org.eclipse.hono.client.util.AnnotatedCacheKey;
 import org.eclipse.hono.client.util.CachingClientFactory;
+import org.eclipse.hono.client.util.ResponseCacheIndex;
 import org.eclipse.hono.client.util.StatusCodeMapper;
 import org.eclipse.hono.notification.NotificationEventBusSupport;
 import org.eclipse.hono.notification.deviceregistry.AllDevicesOfTenantDeletedNotification;
@@ -79,11 +80,29 @@ public class ProtonBasedCredentialsClient extends AbstractRequestResponseService
             final HonoConnection connection,
             final SendMessageSampler.Factory samplerFactory,
             final Cache<Object, CredentialsResult<CredentialsObject>> responseCache) {
+        this(connection, samplerFactory, responseCache, null);
+    }
+
+    /**
+     * Creates a new client for a connection.
+     *
+     * @param connection The connection to the Credentials service.
+     * @param samplerFactory The factory for creating samplers for tracing AMQP messages being sent.
+     * @param responseCache The cache to use for service responses or {@code null} if responses should not be cached.
+     * @param responseCacheIndex The index of the response cache's keys or {@code null} if the keys should not be indexed.
+     * @throws NullPointerException if any of the parameters other than the response cache and index are {@code null}.
+     */
+    public ProtonBasedCredentialsClient(
+            final HonoConnection connection,
+            final SendMessageSampler.Factory samplerFactory,
+            final Cache<Object, CredentialsResult<CredentialsObject>> responseCache,
+            final ResponseCacheIndex responseCacheIndex) {
 
         super(connection,
                 samplerFactory,
                 new CachingClientFactory<>(connection.getVertx(), RequestResponseClient::isOpen),
-                responseCache);
+                responseCache,
+                responseCacheIndex);
         connection.getVertx().eventBus().consumer(
                 Constants.EVENT_BUS_ADDRESS_TENANT_TIMED_OUT,
                 this::handleTenantTimeout);
@@ -240,21 +259,23 @@ public class ProtonBasedCredentialsClient extends AbstractRequestResponseService
             // add device ID to cache keys so that they can be found when removing them
             if (credentialsResult.getPayload() != null) {
                 // payload will be null if credentials not found, in this case the result will not be cached
-                responseCacheKey.putAttribute(ATTRIBUTE_KEY_DEVICE_ID, credentialsResult.getPayload().getDeviceId());
+                final String deviceId = credentialsResult.getPayload().getDeviceId();
+                responseCacheKey.putAttribute(ATTRIBUTE_KEY_DEVICE_ID, deviceId);
+                addToCache(responseCacheKey, credentialsResult, responseCacheKey.getKey().tenantId, deviceId);
+            } else {
+                addToCache(responseCacheKey, credentialsResult, responseCacheKey.getKey().tenantId);
             }
-
-            addToCache(responseCacheKey, credentialsResult);
         }
     }
 
     @SuppressWarnings("unchecked")
     private void removeResultsForTenantFromCache(final String tenantId) {
-        removeFromCacheByPattern(k -> ((AnnotatedCacheKey<CacheKey>) k).getKey().tenantId.equals(tenantId));
+        removeTenantFromCache(tenantId, k -> ((AnnotatedCacheKey<CacheKey>) k).getKey().tenantId.equals(tenantId));
     }
 
     @SuppressWarnings("unchecked")
     private void removeResultsForDeviceFromCache(final String tenantId, final String deviceId) {
-        removeFromCacheByPattern(key -> {
+        removeDeviceFromCache(tenantId, deviceId, key -> {
             final AnnotatedCacheKey<CacheKey> annotatedCacheKey = (AnnotatedCacheKey<CacheKey>) key;
             final boolean tenantMatches = annotatedCacheKey.getKey().tenantId.equals(tenantId);
             final Boolean deviceMatches = annotatedCacheKey.getAttribute(ATTRIBUTE_KEY_DEVICE_ID)
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2020, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -15,9 +15,15 @@
 package org.eclipse.hono.client.registry.amqp;
 
 import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 import org.apache.qpid.proton.amqp.messaging.ApplicationProperties;
 import org.eclipse.hono.client.ClientErrorException;
@@ -25,11 +31,14 @@ import org.eclipse.hono.client.ServerErrorException;
 import org.eclipse.hono.client.ServiceInvocationException;
 import org.eclipse.hono.client.amqp.AbstractRequestResponseServiceClient;
 import org.eclipse.hono.client.amqp.RequestResponseClient;
+import org.eclipse.hono.client.amqp.config.RequestResponseClientConfigProperties;
+import org.eclipse.hono.client.amqp.connection.AmqpUtils;
 import org.eclipse.hono.client.amqp.connection.HonoConnection;
 import org.eclipse.hono.client.amqp.connection.SendMessageSampler;
 import org.eclipse.hono.client.registry.DeviceRegistrationClient;
 import org.eclipse.hono.client.util.AnnotatedCacheKey;
 import org.eclipse.hono.client.util.CachingClientFactory;
+import org.eclipse.hono.client.util.ResponseCacheIndex;
 import org.eclipse.hono.client.util.StatusCodeMapper;
 import org.eclipse.hono.notification.NotificationEventBusSupport;
 import org.eclipse.hono.notification.deviceregistry.AllDevicesOfTenantDeletedNotification;
@@ -37,6 +46,7 @@ import org.eclipse.hono.notification.deviceregistry.DeviceChangeNotification;
 import org.eclipse.hono.tracing.TracingHelper;
 import org.eclipse.hono.util.CacheDirective;
 import org.eclipse.hono.util.Constants;
+import org.eclipse.hono.util.Futures;
 import org.eclipse.hono.util.MessageHelper;
 import org.eclipse.hono.util.RegistrationAssertion;
 import org.eclipse.hono.util.RegistrationConstants;
@@ -49,9 +59,13 @@ import com.github.benmanes.caffeine.cache.Cache;
 import io.opentracing.Span;
 import io.opentracing.SpanContext;
 import io.opentracing.tag.Tags;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 
 
@@ -61,12 +75,25 @@ import io.vertx.core.json.JsonObject;
  * If a response cache has been provided, a notification receiver can be used to receive notifications about changes in
  * tenants and device registrations from Hono's Device Registry. The notifications are used to invalidate the
  * corresponding entries in the response cache.
+ * <p>
+ * If the connection's configuration properties are of type {@link RequestResponseClientConfigProperties} and
+ * define a <em>requestBatchWindow</em>, the client collects assertion requests for the devices of a tenant
+ * (and gateway) during that period of time and sends them to the Device Registration service in a single
+ * <em>assert Device Registrations</em> request. Concurrent requests for the same device are coalesced into
+ * a single assertion. If the service does not offer the {@link AmqpUtils#CAP_ASSERT_BATCH} capability on the
+ * request link, the client falls back to sending individual requests.
  */
 public class ProtonBasedDeviceRegistrationClient extends AbstractRequestResponseServiceClient<JsonObject, RegistrationResult>
         implements DeviceRegistrationClient {
 
     private static final Logger LOG = LoggerFactory.getLogger(ProtonBasedDeviceRegistrationClient.class);
 
+    private final Map<BatchKey, Batch> pendingBatches = new HashMap<>();
+    private final Map<CacheKey, Promise<RegistrationResult>> pendingAssertions = new HashMap<>();
+    private final long batchWindow;
+    private final int maxBatchSize;
+    private boolean batchOperationSupported = true;
+
     /**
      * Creates a new client for a connection.
      *
@@ -79,11 +106,36 @@ public class ProtonBasedDeviceRegistrationClient extends AbstractRequestResponse
             final HonoConnection connection,
             final SendMessageSampler.Factory samplerFactory,
             final Cache<Object, RegistrationResult> responseCache) {
+        this(connection, samplerFactory, responseCache, null);
+    }
+
+    /**
+     * Creates a new client for a connection.
+     *
+     * @param connection The connection to the Device Registration service.
+     * @param samplerFactory The factory for creating samplers for tracing AMQP messages being sent.
+     * @param responseCache The cache to use for service responses or {@code null} if responses should not be cached.
+     * @param responseCacheIndex The index of the response cache's keys or {@code null} if the keys should not be indexed.
+     * @throws NullPointerException if any of the parameters other than the response cache and index are {@code null}.
+     */
+    public ProtonBasedDeviceRegistrationClient(
+            final HonoConnection connection,
+            final SendMessageSampler.Factory samplerFactory,
+            final Cache<Object, RegistrationResult> responseCache,
+            final ResponseCacheIndex responseCacheIndex) {
 
         super(connection,
                 samplerFactory,
                 new CachingClientFactory<>(connection.getVertx(), RequestResponseClient::isOpen),
-                responseCache);
+                responseCache,
+                responseCacheIndex);
+        if (connection.getConfig() instanceof RequestResponseClientConfigProperties props) {
+            this.batchWindow = props.getRequestBatchWindow();
+            this.maxBatchSize = props.getRequestBatchMaxSize();
+        } else {
+            this.batchWindow = 0;
+            this.maxBatchSize = RequestResponseClientConfigProperties.DEFAULT_REQUEST_BATCH_MAX_SIZE;
+        }
         connection.getVertx().eventBus().consumer(
                 Constants.EVENT_BUS_ADDRESS_TENANT_TIMED_OUT,
                 this::handleTenantTimeout);
@@ -152,34 +204,64 @@ public class ProtonBasedDeviceRegistrationClient extends AbstractRequestResponse
             final String gatewayId,
             final SpanContext context) {
 
+        return assertRegistration(tenantId, deviceId, gatewayId, context, batchWindow > 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation collects the assertions of devices which are not contained in the response cache
+     * into batches of at most <em>requestBatchMaxSize</em> devices and sends each batch in a single request,
+     * regardless of the configured batch window.
+     */
+    @Override
+    public Map<String, Future<RegistrationAssertion>> assertRegistrations(
+            final String tenantId,
+            final Collection<String> deviceIds,
+            final String gatewayId,
+            final SpanContext context) {
+
+        Objects.requireNonNull(tenantId);
+        Objects.requireNonNull(deviceIds);
+
+        final Map<String, Future<RegistrationAssertion>> result = new LinkedHashMap<>(deviceIds.size());
+        deviceIds.forEach(deviceId -> result.computeIfAbsent(
+                deviceId,
+                id -> assertRegistration(tenantId, id, gatewayId, context, true)));
+        return result;
+    }
+
+    private Future<RegistrationAssertion> assertRegistration(
+            final String tenantId,
+            final String deviceId,
+            final String gatewayId,
+            final SpanContext context,
+            final boolean useBatch) {
+
         Objects.requireNonNull(tenantId);
         Objects.requireNonNull(deviceId);
 
-        final AnnotatedCacheKey<CacheKey> responseCacheKey = new AnnotatedCacheKey<>(
-                new CacheKey(tenantId, deviceId, gatewayId));
+        final Context callerContext = Vertx.currentContext();
+        final CacheKey key = new CacheKey(tenantId, deviceId, gatewayId);
+        final AnnotatedCacheKey<CacheKey> responseCacheKey = new AnnotatedCacheKey<>(key);
         final Span span = newChildSpan(context, "assert Device Registration");
         TracingHelper.setDeviceTags(span, tenantId, deviceId);
         TracingHelper.TAG_GATEWAY_ID.set(span, gatewayId);
 
-        return getResponseFromCache(responseCacheKey, span)
-                .recover(t -> getOrCreateClient(tenantId)
-                        .compose(client -> {
-                            final Map<String, Object> properties = createDeviceIdProperties(deviceId);
-                            if (gatewayId != null) {
-                                properties.put(MessageHelper.APP_PROPERTY_GATEWAY_ID, gatewayId);
-                            }
-                            return client.createAndSendRequest(
-                                    RegistrationConstants.ACTION_ASSERT,
-                                    properties,
-                                    null,
-                                    MessageHelper.CONTENT_TYPE_APPLICATION_JSON,
-                                    this::getRequestResponseResult,
-                                    span);
-                        })
-                        .map(registrationResult -> {
-                            addToCache(responseCacheKey, registrationResult);
-                            return registrationResult;
-                        }))
+        final Future<RegistrationAssertion> result = getResponseFromCache(responseCacheKey, span)
+                .recover(t -> {
+                    final Future<RegistrationResult> assertion = useBatch
+                            ? addToBatch(key, span)
+                            : sendAssertRequest(key, span);
+                    return assertion.map(registrationResult -> {
+                        if (gatewayId == null) {
+                            addToCache(responseCacheKey, registrationResult, tenantId, deviceId);
+                        } else {
+                            addToCache(responseCacheKey, registrationResult, tenantId, deviceId, gatewayId);
+                        }
+                        return registrationResult;
+                    });
+                })
                 .recover(t -> {
                     Tags.HTTP_STATUS.set(span, ServiceInvocationException.extractStatusCode(t));
                     TracingHelper.logError(span, t);
@@ -216,16 +298,199 @@ public class ProtonBasedDeviceRegistrationClient extends AbstractRequestResponse
                     }
                 })
                 .onComplete(o -> span.finish());
+        return Futures.completeOnContext(callerContext, result);
+    }
+
+    private Future<RegistrationResult> sendAssertRequest(final CacheKey key, final Span span) {
+
+        return getOrCreateClient(key.tenantId)
+                .compose(client -> {
+                    final Map<String, Object> properties = createDeviceIdProperties(key.deviceId);
+                    if (key.gatewayId != null) {
+                        properties.put(MessageHelper.APP_PROPERTY_GATEWAY_ID, key.gatewayId);
+                    }
+                    return client.createAndSendRequest(
+                            RegistrationConstants.ACTION_ASSERT,
+                            properties,
+                            null,
+                            MessageHelper.CONTENT_TYPE_APPLICATION_JSON,
+                            this::getRequestResponseResult,
+                            span);
+                });
+    }
+
+    /**
+     * Adds the assertion of a device's registration status to the batch of pending assertions
+     * for the device's tenant and gateway.
+     * <p>
+     * If an assertion for the same device and gateway is already pending, the returned future
+     * is completed with the outcome of the pending assertion.
+     */
+    private Future<RegistrationResult> addToBatch(final CacheKey key, final Span span) {
+
+        if (!batchOperationSupported) {
+            return sendAssertRequest(key, span);
+        }
+
+        return connection.<RegistrationResult>executeOnContext(result -> {
+            final Promise<RegistrationResult> pendingAssertion = pendingAssertions.get(key);
+            if (pendingAssertion != null) {
+                span.log("joining pending assertion of device registration");
+                pendingAssertion.future().onComplete(result);
+                return;
+            }
+            final Promise<RegistrationResult> assertion = Promise.promise();
+            pendingAssertions.put(key, assertion);
+            assertion.future()
+                .onComplete(r -> pendingAssertions.remove(key))
+                .onComplete(result);
+
+            final BatchKey batchKey = new BatchKey(key.tenantId, key.gatewayId);
+            final Batch batch = pendingBatches.computeIfAbsent(batchKey, k -> {
+                final Batch newBatch = new Batch();
+                newBatch.timerId = connection.getVertx().setTimer(
+                        Math.max(1, batchWindow),
+                        tid -> sendBatch(k));
+                return newBatch;
+            });
+            batch.deviceIds.add(key.deviceId);
+            span.log("added assertion of device registration to batch");
+            if (batch.deviceIds.size() >= maxBatchSize) {
+                sendBatch(batchKey);
+            }
+        });
+    }
+
+    private void sendBatch(final BatchKey batchKey) {
+
+        final Batch batch = pendingBatches.remove(batchKey);
+        if (batch == null) {
+            // batch has already been sent because it had reached its maximum size
+            return;
+        }
+        connection.getVertx().cancelTimer(batch.timerId);
+
+        if (batch.deviceIds.size() == 1 || !batchOperationSupported) {
+            sendIndividualAssertRequests(batchKey, batch.deviceIds, null);
+            return;
+        }
+
+        final Span span = newChildSpan(null, "assert Device Registrations");
+        TracingHelper.TAG_TENANT_ID.set(span, batchKey.tenantId);
+        TracingHelper.TAG_GATEWAY_ID.set(span, batchKey.gatewayId);
+        span.log(Map.of("devices", batch.deviceIds.size()));
+        LOG.debug("sending batch of {} registration assertions [tenant: {}, gateway: {}]",
+                batch.deviceIds.size(), batchKey.tenantId, batchKey.gatewayId);
+
+        getOrCreateClient(batchKey.tenantId)
+                .compose(client -> {
+                    if (!client.supportsCapability(AmqpUtils.CAP_ASSERT_BATCH)) {
+                        // the service has not offered the batch operation on the link
+                        return Future.succeededFuture(null);
+                    }
+                    final Map<String, Object> properties = new HashMap<>();
+                    if (batchKey.gatewayId != null) {
+                        properties.put(MessageHelper.APP_PROPERTY_GATEWAY_ID, batchKey.gatewayId);
+                    }
+                    final JsonObject payload = new JsonObject()
+                            .put(RegistrationConstants.FIELD_DEVICE_IDS, new JsonArray(new ArrayList<>(batch.deviceIds)));
+                    return client.createAndSendRequest(
+                            RegistrationConstants.ACTION_ASSERT_BATCH,
+                            properties,
+                            payload.toBuffer(),
+                            MessageHelper.CONTENT_TYPE_APPLICATION_JSON,
+                            this::getRequestResponseResult,
+                            span);
+                })
+                .onSuccess(response -> {
+                    if (response == null) {
+                        LOG.info("Device Registration service does not support batch assertions, sending individual requests");
+                        batchOperationSupported = false;
+                        sendIndividualAssertRequests(batchKey, batch.deviceIds, span);
+                    } else {
+                        Tags.HTTP_STATUS.set(span, response.getStatus());
+                        completeAssertions(batchKey, batch.deviceIds, response, span);
+                    }
+                })
+                .onFailure(t -> {
+                    Tags.HTTP_STATUS.set(span, ServiceInvocationException.extractStatusCode(t));
+                    TracingHelper.logError(span, t);
+                    batch.deviceIds.forEach(deviceId -> Optional
+                            .ofNullable(pendingAssertions.get(new CacheKey(batchKey.tenantId, deviceId, batchKey.gatewayId)))
+                            .ifPresent(promise -> promise.tryFail(t)));
+                })
+                .onComplete(r -> span.finish());
+    }
+
+    private void sendIndividualAssertRequests(
+            final BatchKey batchKey,
+            final Collection<String> deviceIds,
+            final Span batchSpan) {
+
+        deviceIds.forEach(deviceId -> {
+            final CacheKey key = new CacheKey(batchKey.tenantId, deviceId, batchKey.gatewayId);
+            Optional.ofNullable(pendingAssertions.get(key)).ifPresent(promise -> {
+                final Span span = newChildSpan(batchSpan == null ? null : batchSpan.context(), "assert Device Registration");
+                TracingHelper.setDeviceTags(span, key.tenantId, key.deviceId);
+                TracingHelper.TAG_GATEWAY_ID.set(span, key.gatewayId);
+                sendAssertRequest(key, span)
+                    .onComplete(promise)
+                    .onComplete(r -> span.finish());
+            });
+        });
+    }
+
+    private void completeAssertions(
+            final BatchKey batchKey,
+            final Collection<String> deviceIds,
+            final RegistrationResult response,
+            final Span span) {
+
+        final Map<String, RegistrationResult> results = new HashMap<>(deviceIds.size());
+        if (response.getStatus() == HttpURLConnection.HTTP_OK) {
+            try {
+                Optional.ofNullable(response.getPayload())
+                    .map(payload -> payload.getJsonArray(RegistrationConstants.FIELD_RESULTS))
+                    .ifPresent(array -> array.stream()
+                            .filter(JsonObject.class::isInstance)
+                            .map(JsonObject.class::cast)
+                            .forEach(entry -> results.put(
+                                    entry.getString(RegistrationConstants.FIELD_PAYLOAD_DEVICE_ID),
+                                    RegistrationResult.from(
+                                            entry.getInteger(RegistrationConstants.FIELD_RESULT_STATUS),
+                                            entry.getJsonObject(RegistrationConstants.FIELD_RESULT_PAYLOAD),
+                                            CacheDirective.from(entry.getString(
+                                                    RegistrationConstants.FIELD_RESULT_CACHE_DIRECTIVE))))));
+            } catch (final ClassCastException | NullPointerException e) {
+                LOG.warn("received malformed response to batch assertion from Device Registration service", e);
+                TracingHelper.logError(span, "received malformed response", e);
+                results.clear();
+            }
+        }
+
+        deviceIds.forEach(deviceId -> {
+            final CacheKey key = new CacheKey(batchKey.tenantId, deviceId, batchKey.gatewayId);
+            Optional.ofNullable(pendingAssertions.get(key)).ifPresent(promise -> {
+                final RegistrationResult result = results.get(deviceId);
+                if (result != null) {
+                    promise.tryComplete(result);
+                } else if (response.getStatus() == HttpURLConnection.HTTP_OK) {
+                    promise.tryComplete(RegistrationResult.from(HttpURLConnection.HTTP_INTERNAL_ERROR));
+                } else {
+                    promise.tryComplete(response);
+                }
+            });
+        });
     }
 
     @SuppressWarnings("unchecked")
     private void removeResultsForTenantFromCache(final String tenantId) {
-        removeFromCacheByPattern(k -> ((AnnotatedCacheKey<CacheKey>) k).getKey().tenantId.equals(tenantId));
+        removeTenantFromCache(tenantId, k -> ((AnnotatedCacheKey<CacheKey>) k).getKey().tenantId.equals(tenantId));
     }
 
     @SuppressWarnings("unchecked")
     private void removeResultsForDeviceFromCache(final String tenantId, final String deviceId) {
-        removeFromCacheByPattern(key -> {
+        removeDeviceFromCache(tenantId, deviceId, key -> {
             final CacheKey cacheKey = ((AnnotatedCacheKey<CacheKey>) key).getKey();
             final boolean tenantMatches = cacheKey.tenantId.equals(tenantId);
             final boolean deviceOrGatewayMatches = cacheKey.deviceId.equals(deviceId)
@@ -234,6 +499,40 @@ public class ProtonBasedDeviceRegistrationClient extends AbstractRequestResponse
         });
     }
 
+    private static final class Batch {
+
+        private final Set<String> deviceIds = new LinkedHashSet<>();
+        private long timerId;
+    }
+
+    private static final class BatchKey {
+
+        final String tenantId;
+        final String gatewayId;
+
+        BatchKey(final String tenantId, final String gatewayId) {
+            this.tenantId = Objects.requireNonNull(tenantId);
+            this.gatewayId = gatewayId;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || !getClass().isInstance(o)) {
+                return false;
+            }
+            final BatchKey other = (BatchKey) o;
+            return tenantId.equals(other.tenantId) && Objects.equals(gatewayId, other.gatewayId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenantId, gatewayId);
+        }
+    }
+
     private static class CacheKey {
 
         final String tenantId;
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2020, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -15,10 +15,10 @@
 package org.eclipse.hono.client.registry.amqp;
 
 import java.net.HttpURLConnection;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
 import javax.security.auth.x500.X500Principal;
@@ -32,6 +32,7 @@ import org.eclipse.hono.client.amqp.connection.SendMessageSampler;
 import org.eclipse.hono.client.registry.TenantClient;
 import org.eclipse.hono.client.util.AnnotatedCacheKey;
 import org.eclipse.hono.client.util.CachingClientFactory;
+import org.eclipse.hono.client.util.ResponseCacheIndex;
 import org.eclipse.hono.client.util.StatusCodeMapper;
 import org.eclipse.hono.notification.NotificationEventBusSupport;
 import org.eclipse.hono.notification.deviceregistry.LifecycleChange;
@@ -71,7 +72,7 @@ public final class ProtonBasedTenantClient extends AbstractRequestResponseServic
     private static final Logger LOG = LoggerFactory.getLogger(ProtonBasedTenantClient.class);
     private static final StringTag TAG_SUBJECT_DN = new StringTag("subject_dn");
     private static final String ATTRIBUTE_KEY_TENANT_ID = "tenant-id";
-    private final Map<Object, Future<TenantResult<TenantObject>>> pendingRequests = new HashMap<>();
+    private final Map<Object, Future<TenantResult<TenantObject>>> pendingRequests = new ConcurrentHashMap<>();
 
     /**
      * Creates a new client for a connection.
@@ -85,10 +86,28 @@ public final class ProtonBasedTenantClient extends AbstractRequestResponseServic
             final HonoConnection connection,
             final SendMessageSampler.Factory samplerFactory,
             final Cache<Object, TenantResult<TenantObject>> responseCache) {
+        this(connection, samplerFactory, responseCache, null);
+    }
+
+    /**
+     * Creates a new client for a connection.
+     *
+     * @param connection The connection to the service.
+     * @param samplerFactory The factory for creating samplers for tracing AMQP messages being sent.
+     * @param responseCache The cache to use for service responses or {@code null} if responses should not be cached.
+     * @param responseCacheIndex The index of the response cache's keys or {@code null} if the keys should not be indexed.
+     * @throws NullPointerException if any of the parameters other than the response cache and index are {@code null}.
+     */
+    public ProtonBasedTenantClient(
+            final HonoConnection connection,
+            final SendMessageSampler.Factory samplerFactory,
+            final Cache<Object, TenantResult<TenantObject>> responseCache,
+            final ResponseCacheIndex responseCacheIndex) {
         super(connection,
                 samplerFactory,
                 new CachingClientFactory<>(connection.getVertx(), RequestResponseClient::isOpen),
-                responseCache);
+                responseCache,
+                responseCacheIndex);
 
         if (isCachingEnabled()) {
             NotificationEventBusSupport.registerConsumer(connection.getVertx(), TenantChangeNotification.TYPE,
@@ -237,16 +256,18 @@ public final class ProtonBasedTenantClient extends AbstractRequestResponseServic
             // add tenant ID to all cache keys so that they can be found in a consistent way when removing them
             if (tenantResult.getPayload() != null) {
                 // payload will be null if tenant not found, in this case the result will not be cached
-                responseCacheKey.putAttribute(ATTRIBUTE_KEY_TENANT_ID, tenantResult.getPayload().getTenantId());
+                final String tenantId = tenantResult.getPayload().getTenantId();
+                responseCacheKey.putAttribute(ATTRIBUTE_KEY_TENANT_ID, tenantId);
+                addToCache(responseCacheKey, tenantResult, tenantId);
+            } else {
+                addToCache(responseCacheKey, tenantResult);
             }
-
-            addToCache(responseCacheKey, tenantResult);
         }
     }
 
     private void removeResultFromCache(final String tenantId) {
         // this matches all entries for the tenant, regardless of the cache key
-        removeFromCacheByPattern(key -> ((AnnotatedCacheKey<?>) key)
+        removeTenantFromCache(tenantId, key -> ((AnnotatedCacheKey<?>) key)
                 .getAttribute(ATTRIBUTE_KEY_TENANT_ID)
                 .map(id -> id.equals(tenantId))
                 .orElse(false));
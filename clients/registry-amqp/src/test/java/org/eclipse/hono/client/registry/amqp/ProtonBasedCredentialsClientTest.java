@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2020, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -44,6 +44,7 @@ import org.eclipse.hono.client.amqp.connection.HonoConnection;
 import org.eclipse.hono.client.amqp.connection.SendMessageSampler;
 import org.eclipse.hono.client.amqp.test.AmqpClientUnitTestHelper;
 import org.eclipse.hono.client.util.AnnotatedCacheKey;
+import org.eclipse.hono.client.util.ResponseCacheIndex;
 import org.eclipse.hono.notification.AbstractNotification;
 import org.eclipse.hono.notification.NotificationEventBusSupport;
 import org.eclipse.hono.notification.NotificationType;
@@ -543,6 +544,57 @@ class ProtonBasedCredentialsClientTest {
                 })));
     }
 
+    /**
+     * Verifies that a client using a response cache index removes the credentials of a device from the
+     * cache without scanning the cache's entries if it receives a notification about a change of the device.
+     *
+     * @param ctx The vert.x test context.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testDeviceChangeNotificationRemovesIndexedValueFromCache(final VertxTestContext ctx) {
+
+        final ResponseCacheIndex index = new ResponseCacheIndex();
+        client = new ProtonBasedCredentialsClient(connection, SendMessageSampler.Factory.noop(), cache, index);
+        final var notificationHandlerCaptor = getEventBusConsumerHandlerArgumentCaptor(DeviceChangeNotification.TYPE);
+
+        final String authId = "test-auth";
+        final String credentialsType = CredentialsConstants.SECRETS_TYPE_HASHED_PASSWORD;
+        final JsonObject credentialsObject = newCredentialsResult("device", authId);
+
+        // GIVEN a client that has put credentials of a device to the cache
+        client.get("tenant", credentialsType, authId, new JsonObject(), span.context())
+                .onComplete(ctx.succeeding(credentials -> {
+                    ctx.verify(() -> {
+                        // atomically with indexing its key
+                        assertThat(cacheBackingMap).hasSize(1);
+                        final Object responseCacheKey = cacheBackingMap.keySet().iterator().next();
+                        assertThat(index.size()).isEqualTo(1);
+
+                        // WHEN receiving a notification about a change of the device
+                        sendViaEventBusMock(
+                                new DeviceChangeNotification(LifecycleChange.UPDATE, "tenant", "device", Instant.now(), false),
+                                notificationHandlerCaptor.getValue());
+
+                        // THEN the device's credentials are removed from the cache
+                        verify(cache).invalidateAll(Set.of(responseCacheKey));
+                        // without scanning the cache
+                        verify(cache, times(1)).asMap();
+                        assertThat(index.size()).isEqualTo(0);
+                    });
+                    ctx.completeNow();
+                }));
+
+        final Message request = AmqpClientUnitTestHelper.assertMessageHasBeenSent(sender);
+        final Message response = ProtonHelper.message();
+        response.setCorrelationId(request.getMessageId());
+        AmqpUtils.addProperty(response, MessageHelper.APP_PROPERTY_STATUS, HttpURLConnection.HTTP_OK);
+        AmqpUtils.addCacheDirective(response, CacheDirective.maxAgeDirective(60));
+        AmqpUtils.setPayload(response, MessageHelper.CONTENT_TYPE_APPLICATION_JSON, credentialsObject.toBuffer());
+        final ProtonDelivery delivery = mock(ProtonDelivery.class);
+        AmqpClientUnitTestHelper.assertReceiverLinkCreated(connection).handle(delivery, response);
+    }
+
     private <T extends AbstractNotification> ArgumentCaptor<Handler<io.vertx.core.eventbus.Message<T>>> getEventBusConsumerHandlerArgumentCaptor(
             final NotificationType<T> notificationType) {
 
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2020, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -21,6 +21,7 @@ import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -35,7 +36,9 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.qpid.proton.amqp.Symbol;
 import org.apache.qpid.proton.message.Message;
+import org.eclipse.hono.client.ServiceInvocationException;
 import org.eclipse.hono.client.amqp.config.RequestResponseClientConfigProperties;
 import org.eclipse.hono.client.amqp.connection.AmqpUtils;
 import org.eclipse.hono.client.amqp.connection.HonoConnection;
@@ -53,6 +56,7 @@ import org.eclipse.hono.test.VertxMockSupport;
 import org.eclipse.hono.util.CacheDirective;
 import org.eclipse.hono.util.Constants;
 import org.eclipse.hono.util.MessageHelper;
+import org.eclipse.hono.util.RegistrationAssertion;
 import org.eclipse.hono.util.RegistrationConstants;
 import org.eclipse.hono.util.RegistrationResult;
 import org.junit.jupiter.api.BeforeEach;
@@ -68,6 +72,7 @@ import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.junit5.Timeout;
 import io.vertx.junit5.VertxExtension;
@@ -96,6 +101,7 @@ class ProtonBasedDeviceRegistrationClientTest {
     private Span span;
     private Vertx vertx;
     private EventBus eventBus;
+    private RequestResponseClientConfigProperties config;
     private final ConcurrentMap<Object, RegistrationResult> cacheBackingMap = new ConcurrentHashMap<>();
 
     /**
@@ -115,7 +121,7 @@ class ProtonBasedDeviceRegistrationClientTest {
         receiver = AmqpClientUnitTestHelper.mockProtonReceiver();
         sender = AmqpClientUnitTestHelper.mockProtonSender();
 
-        final RequestResponseClientConfigProperties config = new RequestResponseClientConfigProperties();
+        config = new RequestResponseClientConfigProperties();
         connection = AmqpClientUnitTestHelper.mockHonoConnection(vertx, config, tracer);
         when(connection.connect()).thenReturn(Future.succeededFuture());
         when(connection.isConnected(anyLong())).thenReturn(Future.succeededFuture());
@@ -192,6 +198,104 @@ class ProtonBasedDeviceRegistrationClientTest {
         AmqpClientUnitTestHelper.assertReceiverLinkCreated(connection).handle(delivery, response);
     }
 
+    /**
+     * Verifies that the client collects the assertions of multiple devices that are requested
+     * during the configured batch window and sends them to the Device Registration service
+     * in a single request.
+     *
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testAssertRegistrationSendsBatchRequest(final VertxTestContext ctx) {
+
+        // GIVEN a client with an empty cache that is configured to batch requests
+        // and a service that supports batch requests
+        config.setRequestBatchWindow(10);
+        when(sender.getRemoteOfferedCapabilities()).thenReturn(new Symbol[] { AmqpUtils.CAP_ASSERT_BATCH });
+        final ArgumentCaptor<Handler<Long>> timerHandler = VertxMockSupport.argumentCaptorHandler();
+        when(vertx.setTimer(eq(10L), timerHandler.capture())).thenReturn(1L);
+        givenAClient(cache);
+        when(cache.getIfPresent(any())).thenReturn(null);
+
+        // WHEN asserting the registration of two devices and of one of them again
+        final Future<RegistrationAssertion> first = client.assertRegistration("tenant", "device-1", null, span.context());
+        final Future<RegistrationAssertion> second = client.assertRegistration("tenant", "device-2", null, span.context());
+        final Future<RegistrationAssertion> third = client.assertRegistration("tenant", "device-1", null, span.context());
+
+        // THEN no request is sent before the batch window has elapsed
+        verify(sender, never()).send(any(Message.class), VertxMockSupport.anyHandler());
+        verify(vertx).setTimer(eq(10L), VertxMockSupport.anyHandler());
+        timerHandler.getValue().handle(1L);
+
+        // and a single request containing both device identifiers is sent afterwards
+        final Message request = AmqpClientUnitTestHelper.assertMessageHasBeenSent(sender);
+        assertThat(request.getSubject()).isEqualTo(RegistrationConstants.ACTION_ASSERT_BATCH);
+        final JsonObject requestPayload = AmqpUtils.getJsonPayload(request);
+        assertThat(requestPayload.getJsonArray(RegistrationConstants.FIELD_DEVICE_IDS))
+            .containsExactly("device-1", "device-2");
+
+        final JsonObject results = new JsonObject().put(RegistrationConstants.FIELD_RESULTS, new JsonArray()
+                .add(new JsonObject()
+                        .put(RegistrationConstants.FIELD_PAYLOAD_DEVICE_ID, "device-1")
+                        .put(RegistrationConstants.FIELD_RESULT_STATUS, HttpURLConnection.HTTP_OK)
+                        .put(RegistrationConstants.FIELD_RESULT_PAYLOAD, newRegistrationAssertionResult("device-1"))
+                        .put(RegistrationConstants.FIELD_RESULT_CACHE_DIRECTIVE,
+                                CacheDirective.maxAgeDirective(60).toString()))
+                .add(new JsonObject()
+                        .put(RegistrationConstants.FIELD_PAYLOAD_DEVICE_ID, "device-2")
+                        .put(RegistrationConstants.FIELD_RESULT_STATUS, HttpURLConnection.HTTP_NOT_FOUND)));
+        final Message response = ProtonHelper.message();
+        AmqpUtils.addProperty(response, MessageHelper.APP_PROPERTY_STATUS, HttpURLConnection.HTTP_OK);
+        response.setCorrelationId(request.getMessageId());
+        AmqpUtils.setJsonPayload(response, results);
+        final ProtonDelivery delivery = mock(ProtonDelivery.class);
+        AmqpClientUnitTestHelper.assertReceiverLinkCreated(connection).handle(delivery, response);
+
+        // and the outcome of the batch request is used for completing the individual assertions
+        ctx.verify(() -> {
+            assertThat(first.succeeded()).isTrue();
+            assertThat(first.result().getDeviceId()).isEqualTo("device-1");
+            assertThat(third.succeeded()).isTrue();
+            assertThat(third.result().getDeviceId()).isEqualTo("device-1");
+            assertThat(second.failed()).isTrue();
+            assertThat(ServiceInvocationException.extractStatusCode(second.cause()))
+                .isEqualTo(HttpURLConnection.HTTP_NOT_FOUND);
+        });
+        ctx.completeNow();
+    }
+
+    /**
+     * Verifies that the client sends individual assertion requests if the Device Registration
+     * service has not offered the capability for batch requests.
+     *
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testAssertRegistrationSendsIndividualRequestsIfBatchCapabilityIsMissing(final VertxTestContext ctx) {
+
+        // GIVEN a client with an empty cache that is configured to batch requests
+        // and a service that does not offer the batch capability
+        config.setRequestBatchWindow(10);
+        final ArgumentCaptor<Handler<Long>> timerHandler = VertxMockSupport.argumentCaptorHandler();
+        when(vertx.setTimer(eq(10L), timerHandler.capture())).thenReturn(1L);
+        givenAClient(cache);
+        when(cache.getIfPresent(any())).thenReturn(null);
+
+        // WHEN asserting the registration of two devices
+        client.assertRegistration("tenant", "device-1", null, span.context());
+        client.assertRegistration("tenant", "device-2", null, span.context());
+        timerHandler.getValue().handle(1L);
+
+        // THEN individual requests are sent for the devices
+        final ArgumentCaptor<Message> request = ArgumentCaptor.forClass(Message.class);
+        verify(sender, times(2)).send(request.capture(), VertxMockSupport.anyHandler());
+        ctx.verify(() -> {
+            assertThat(request.getAllValues().stream().map(Message::getSubject).distinct().toList())
+                .containsExactly(RegistrationConstants.ACTION_ASSERT);
+        });
+        ctx.completeNow();
+    }
+
     /**
      * Verifies that the client retrieves registration information from the
      * Device Registration service if no cache is configured.
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -14,6 +14,11 @@
 
 package org.eclipse.hono.client.registry;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
 import org.eclipse.hono.util.Lifecycle;
 import org.eclipse.hono.util.RegistrationAssertion;
 
@@ -58,4 +63,44 @@ public interface DeviceRegistrationClient extends Lifecycle {
             String deviceId,
             String gatewayId,
             SpanContext context);
+
+    /**
+     * Asserts that multiple devices are registered and <em>enabled</em>.
+     * <p>
+     * Implementations may use a single request to the Device Registration service for
+     * asserting the registration status of (some of) the devices, e.g. when a gateway with many
+     * connected devices reconnects.
+     * <p>
+     * This default implementation invokes {@link #assertRegistration(String, String, String, SpanContext)}
+     * for each device.
+     *
+     * @param tenantId The ID of the tenant that the devices belong to.
+     * @param deviceIds The IDs of the devices to get the assertions for.
+     * @param gatewayId The gateway that tries to act on behalf of the devices.
+     *                  <p>
+     *                  If not {@code null}, the service will verify that the gateway
+     *                  is enabled and authorized to <em>act on behalf of</em> each of the
+     *                  given devices before asserting the device's registration status.
+     * @param context The currently active OpenTracing span. An implementation
+     *         should use this as the parent for any span it creates for tracing
+     *         the execution of this operation.
+     * @return A map containing a future for each of the (distinct) device IDs, indicating the result of the
+     *         assertion as described for {@link #assertRegistration(String, String, String, SpanContext)}.
+     * @throws NullPointerException if tenant ID or device IDs are {@code null}.
+     */
+    default Map<String, Future<RegistrationAssertion>> assertRegistrations(
+            final String tenantId,
+            final Collection<String> deviceIds,
+            final String gatewayId,
+            final SpanContext context) {
+
+        Objects.requireNonNull(tenantId);
+        Objects.requireNonNull(deviceIds);
+
+        final Map<String, Future<RegistrationAssertion>> result = new LinkedHashMap<>(deviceIds.size());
+        deviceIds.forEach(deviceId -> result.computeIfAbsent(
+                deviceId,
+                id -> assertRegistration(tenantId, id, gatewayId, context)));
+        return result;
+    }
 }
@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+
+package org.eclipse.hono.client.telemetry.amqp;
+
+import java.util.Map;
+import java.util.Objects;
+
+import org.eclipse.hono.client.amqp.AbstractPooledServiceClient;
+import org.eclipse.hono.client.amqp.connection.HonoConnectionPool;
+import org.eclipse.hono.client.amqp.connection.SendMessageSampler;
+import org.eclipse.hono.client.telemetry.EventSender;
+import org.eclipse.hono.client.telemetry.TelemetrySender;
+import org.eclipse.hono.util.Futures;
+import org.eclipse.hono.util.QoS;
+import org.eclipse.hono.util.RegistrationAssertion;
+import org.eclipse.hono.util.TenantObject;
+
+import io.opentracing.SpanContext;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * A vertx-proton based sender for telemetry messages and events that spreads the
+ * sender links of the tenants across the connections of a pool.
+ * <p>
+ * All messages of a tenant are sent via the same connection. The futures returned by the
+ * methods of this sender are completed on the vert.x context that the methods have been invoked on.
+ *
+ * @see ProtonBasedDownstreamSender
+ */
+public class PooledDownstreamSender extends AbstractPooledServiceClient<ProtonBasedDownstreamSender>
+        implements TelemetrySender, EventSender {
+
+    /**
+     * Creates a new sender for a pool of connections.
+     *
+     * @param connectionPool The pool of connections to the Hono service.
+     * @param samplerFactory The factory for creating samplers for tracing AMQP messages being sent.
+     * @param deviceDefaultsEnabled {@code true} if the default properties registered for devices
+     *                              should be included in messages being sent.
+     * @param jmsVendorPropsEnabled {@code true} if <em>Vendor Properties</em> as defined by <a
+     *                              href="https://www.oasis-open.org/committees/download.php/60574/amqp-bindmap-jms-v1.0-wd09.pdf">
+     *                              Advanced Message Queuing Protocol (AMQP) JMS Mapping Version 1.0, Chapter 4</a> should be included
+     *                              in messages being sent.
+     * @throws NullPointerException if any of the parameters are {@code null}.
+     */
+    public PooledDownstreamSender(
+            final HonoConnectionPool connectionPool,
+            final SendMessageSampler.Factory samplerFactory,
+            final boolean deviceDefaultsEnabled,
+            final boolean jmsVendorPropsEnabled) {
+        super(connectionPool, connection -> new ProtonBasedDownstreamSender(
+                connection,
+                samplerFactory,
+                deviceDefaultsEnabled,
+                jmsVendorPropsEnabled));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Future<Void> sendTelemetry(
+            final TenantObject tenant,
+            final RegistrationAssertion device,
+            final QoS qos,
+            final String contentType,
+            final Buffer payload,
+            final Map<String, Object> properties,
+            final SpanContext context) {
+
+        Objects.requireNonNull(tenant);
+
+        return Futures.completeOnContext(
+                Vertx.currentContext(),
+                getClient(tenant.getTenantId())
+                    .sendTelemetry(tenant, device, qos, contentType, payload, properties, context));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Future<Void> sendEvent(
+            final TenantObject tenant,
+            final RegistrationAssertion device,
+            final String contentType,
+            final Buffer payload,
+            final Map<String, Object> properties,
+            final SpanContext context) {
+
+        Objects.requireNonNull(tenant);
+
+        return Futures.completeOnContext(
+                Vertx.currentContext(),
+                getClient(tenant.getTenantId())
+                    .sendEvent(tenant, device, contentType, payload, properties, context));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return new StringBuilder(PooledDownstreamSender.class.getName())
+                .append(" via AMQP 1.0 Messaging Network")
+                .toString();
+    }
+}
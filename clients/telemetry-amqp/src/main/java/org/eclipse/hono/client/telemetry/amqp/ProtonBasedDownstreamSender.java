@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2020, 2021 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -41,6 +41,9 @@ import io.vertx.core.buffer.Buffer;
 
 /**
  * A vertx-proton based sender for telemetry messages and events.
+ * <p>
+ * Events that are sent for the same tenant during the same run of the connection's event loop are transferred
+ * in batches (see {@link org.eclipse.hono.client.amqp.GenericSenderLink#sendAndWaitForOutcomeBatched(Message, io.opentracing.Span)}).
  */
 public class ProtonBasedDownstreamSender extends SenderCachingServiceClient implements TelemetrySender, EventSender {
 
@@ -124,7 +127,7 @@ public class ProtonBasedDownstreamSender extends SenderCachingServiceClient impl
                     final Message message = createMessage(tenant, device, QoS.AT_LEAST_ONCE, target, contentType, payload, properties);
                     message.setDurable(true);
                     sender.setErrorInfoLoggingEnabled(true); // log on INFO level since events are usually brokered and therefore errors here might indicate issues with the broker
-                    return sender.sendAndWaitForOutcome(message, newChildSpan(context, "forward Event"));
+                    return sender.sendAndWaitForOutcomeBatched(message, newChildSpan(context, "forward Event"));
                 })
                 .mapEmpty();
     }
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2020, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -144,6 +144,44 @@ public final class Futures {
         return result.future();
     }
 
+    /**
+     * Gets a future that is completed with the outcome of another future on a given vert.x context.
+     * <p>
+     * This is useful for components that are shared by code running on different event loop threads,
+     * e.g. a client that uses a connection bound to another event loop. The handlers registered on the
+     * returned future are run on the given context instead of on the thread that completes the given future.
+     * <p>
+     * The given future itself is returned if it is already completed. If the given future gets completed on
+     * the given context (or on a context having the same root context), the returned future is completed
+     * right away. Otherwise, completion of the returned future is scheduled on the given context.
+     *
+     * @param <T> The type of the future's result.
+     * @param context The context to complete the returned future on or {@code null} if the outcome does not
+     *                need to be transferred to a particular context.
+     * @param future The future to get the outcome from.
+     * @return The future.
+     * @throws NullPointerException if future is {@code null}.
+     */
+    public static <T> Future<T> completeOnContext(final Context context, final Future<T> future) {
+
+        Objects.requireNonNull(future);
+
+        if (context == null || future.isComplete()) {
+            return future;
+        }
+        final Promise<T> result = Promise.promise();
+        future.onComplete(ar -> {
+            final Context currentContext = Vertx.currentContext();
+            if (currentContext != null
+                    && VertxContext.getRootContext(currentContext) == VertxContext.getRootContext(context)) {
+                result.handle(ar);
+            } else {
+                context.runOnContext(go -> result.handle(ar));
+            }
+        });
+        return result.future();
+    }
+
     private static boolean isCurrentOrRootOfCurrentContext(final Context context) {
         Objects.requireNonNull(context);
         return Optional.ofNullable(Vertx.currentContext())
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2021 Contributors to the Eclipse Foundation
+ * Copyright (c) 2016, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -21,6 +21,11 @@ public final class RegistrationConstants extends RequestResponseApiConstants {
      * The AMQP 1.0 <em>subject</em> to use for the <em>assert device registration</em> operation.
      */
     public static final String ACTION_ASSERT = "assert";
+    /**
+     * The AMQP 1.0 <em>subject</em> to use for the <em>assert device registrations</em> operation,
+     * which asserts the registration status of multiple devices in a single request.
+     */
+    public static final String ACTION_ASSERT_BATCH = "assert_batch";
 
     /**
      * The name of the field containing a device's registration information.
@@ -36,6 +41,42 @@ public final class RegistrationConstants extends RequestResponseApiConstants {
      */
     public static final String FIELD_VIA = "via";
 
+    /**
+     * The name of the field in a request for the <em>assert device registrations</em> operation
+     * that contains the identifiers of the devices to assert the registration status of.
+     */
+    public static final String FIELD_DEVICE_IDS = "device-ids";
+
+    /**
+     * The name of the field in a response to the <em>assert device registrations</em> operation
+     * that contains the results of the individual assertions.
+     */
+    public static final String FIELD_RESULTS = "results";
+
+    /**
+     * The name of the field in a result contained in a response to the <em>assert device registrations</em>
+     * operation that contains the status code of the assertion.
+     */
+    public static final String FIELD_RESULT_STATUS = "status";
+
+    /**
+     * The name of the field in a result contained in a response to the <em>assert device registrations</em>
+     * operation that contains the payload of the assertion.
+     */
+    public static final String FIELD_RESULT_PAYLOAD = "payload";
+
+    /**
+     * The name of the field in a result contained in a response to the <em>assert device registrations</em>
+     * operation that contains the cache directive for the assertion.
+     */
+    public static final String FIELD_RESULT_CACHE_DIRECTIVE = "cache-directive";
+
+    /**
+     * The maximum number of devices that can be included in a request for the
+     * <em>assert device registrations</em> operation.
+     */
+    public static final int MAX_BATCH_SIZE = 1000;
+
     /**
      * The name of the downstream mapper used. This mapper should be configured for the adapter and can be referenced using
      * this field.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2019, 2021 Contributors to the Eclipse Foundation
+ * Copyright (c) 2019, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -87,6 +87,11 @@ public final class RegistryManagementConstants extends RequestResponseApiConstan
      * The name of the field that contains the value used for filtering entities.
      */
     public static final String FIELD_FILTER_VALUE = "value";
+    /**
+     * The name of the field that contains the token for retrieving the next page of the result set of a
+     * search operation.
+     */
+    public static final String FIELD_RESULT_SET_NEXT_PAGE_TOKEN = "nextPageToken";
     /**
      * The name of the field that contains the result of a search operation.
      */
@@ -108,6 +113,11 @@ public final class RegistryManagementConstants extends RequestResponseApiConstan
      * The name of the query parameter that contains the page offset for a search operation.
      */
     public static final String PARAM_PAGE_OFFSET = "pageOffset";
+    /**
+     * The name of the query parameter that contains the token for retrieving the next page of the
+     * result set of a search operation.
+     */
+    public static final String PARAM_PAGE_TOKEN = "pageToken";
     /**
      * The name of the query parameter that contains the page size for a search operation.
      */
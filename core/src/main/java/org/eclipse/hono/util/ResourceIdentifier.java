@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2021 Contributors to the Eclipse Foundation
+ * Copyright (c) 2016, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -14,7 +14,6 @@ package org.eclipse.hono.util;
 
 import java.util.Arrays;
 import java.util.Objects;
-import java.util.Optional;
 
 /**
  * A unique identifier for a resource within Hono.
@@ -36,6 +35,13 @@ import java.util.Optional;
  * <li>telemetry/DEFAULT_TENANT</li>
  * <li>telemetry/DEFAULT_TENANT/</li>
  * </ol>
+ * <p>
+ * Identifiers created by means of {@link #fromString(String)} do not copy the path segments
+ * of the given string eagerly. Instead, the string is scanned once for the positions of the
+ * segments and the segments' values as well as derived strings like the {@linkplain #getBasePath()
+ * base path} are created on first access only. The values of the endpoint and tenant segments are
+ * looked up in a small table of recently used values, so that parsing the addresses of
+ * messages for the same tenant does not create new strings for these segments over and over again.
  *
  */
 public final class ResourceIdentifier {
@@ -43,10 +49,38 @@ public final class ResourceIdentifier {
     private static final int IDX_ENDPOINT = 0;
     private static final int IDX_TENANT_ID = 1;
     private static final int IDX_RESOURCE_ID = 2;
+    private static final char SEPARATOR = '/';
+    /**
+     * The number of entries in the table of interned segment values. Must be a power of two.
+     */
+    private static final int INTERNED_SEGMENTS_TABLE_SIZE = 1024;
+    /**
+     * The maximum length of segment values that are being interned.
+     */
+    private static final int MAX_INTERNED_SEGMENT_LENGTH = 64;
+    /**
+     * A direct-mapped table of recently used endpoint and tenant segment values.
+     * <p>
+     * Concurrent access is safe without synchronization because String instances are immutable and
+     * an entry is only ever used after its value has been verified to match the segment being looked up.
+     */
+    private static final String[] INTERNED_SEGMENTS = new String[INTERNED_SEGMENTS_TABLE_SIZE];
 
+    /**
+     * The string that has been parsed or {@code null} if this identifier has been created from path segments.
+     */
+    private final String source;
+    /**
+     * The start (inclusive) and end (exclusive) positions of the path segments within the source string.
+     */
+    private final int[] segmentBounds;
+    /**
+     * The path segments. For a parsed identifier, the segments are created on first access.
+     */
     private final String[] resourcePath;
-    private final String resource;
-    private final String basePath;
+    private final int length;
+    private String resource;
+    private String basePath;
 
     private ResourceIdentifier(final String... path) {
 
@@ -73,22 +107,115 @@ public final class ResourceIdentifier {
             final String segment = pathToUse[i];
             pathToUse[i] = Strings.isNullOrEmpty(segment) ? null : segment;
         }
-        resourcePath = pathToUse;
-        resource = createStringRepresentation(0);
-        basePath = Optional.ofNullable(getTenantId())
-                .map(tenant -> getEndpoint() + "/" + tenant)
-                .orElseGet(this::getEndpoint);
+        this.source = null;
+        this.segmentBounds = null;
+        this.resourcePath = pathToUse;
+        this.length = pathToUse.length;
+    }
+
+    private ResourceIdentifier(final String source, final int[] segmentBounds, final int length) {
+        this.source = source;
+        this.segmentBounds = segmentBounds;
+        this.resourcePath = new String[length];
+        this.length = length;
+    }
+
+    /**
+     * Scans a string for path segments.
+     * <p>
+     * Empty trailing segments are ignored, like {@link String#split(String)} does.
+     */
+    private static ResourceIdentifier parse(final String resource) {
+
+        int[] bounds = new int[8];
+        int segments = 0;
+        int nonEmptySegments = 0;
+        int start = 0;
+        final int len = resource.length();
+        for (int i = 0; i <= len; i++) {
+            if (i == len || resource.charAt(i) == SEPARATOR) {
+                if (bounds.length < (segments + 1) * 2) {
+                    bounds = Arrays.copyOf(bounds, bounds.length * 2);
+                }
+                bounds[segments * 2] = start;
+                bounds[segments * 2 + 1] = i;
+                segments++;
+                if (i > start) {
+                    nonEmptySegments = segments;
+                }
+                start = i + 1;
+            }
+        }
+
+        if (nonEmptySegments == 0 && !resource.isEmpty()) {
+            // string consists of separators only
+            throw new IllegalArgumentException("path must have at least one segment");
+        } else if (bounds[0] == bounds[1]) {
+            throw new IllegalArgumentException("path must not start with an empty segment");
+        }
+        return new ResourceIdentifier(resource, bounds, nonEmptySegments);
+    }
+
+    private String segment(final int index) {
+
+        if (source == null) {
+            return resourcePath[index];
+        }
+        String value = resourcePath[index];
+        if (value == null) {
+            final int start = segmentBounds[index * 2];
+            final int end = segmentBounds[index * 2 + 1];
+            if (start == end) {
+                return null;
+            }
+            value = index <= IDX_TENANT_ID ? intern(source, start, end) : source.substring(start, end);
+            resourcePath[index] = value;
+        }
+        return value;
+    }
+
+    private static String intern(final String source, final int start, final int end) {
+
+        final int segmentLength = end - start;
+        if (segmentLength > MAX_INTERNED_SEGMENT_LENGTH) {
+            return source.substring(start, end);
+        }
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + source.charAt(i);
+        }
+        final int idx = (hash ^ (hash >>> 16)) & (INTERNED_SEGMENTS_TABLE_SIZE - 1);
+        final String candidate = INTERNED_SEGMENTS[idx];
+        if (candidate != null
+                && candidate.length() == segmentLength
+                && source.regionMatches(start, candidate, 0, segmentLength)) {
+            return candidate;
+        }
+        final String value = source.substring(start, end);
+        INTERNED_SEGMENTS[idx] = value;
+        return value;
+    }
+
+    private int endOfSegment(final int index) {
+        return segmentBounds[index * 2 + 1];
     }
 
     private String createStringRepresentation(final int startIdx) {
 
+        if (startIdx >= length) {
+            return "";
+        } else if (source != null) {
+            final int start = segmentBounds[startIdx * 2];
+            final int end = endOfSegment(length - 1);
+            return start == 0 && end == source.length() ? source : source.substring(start, end);
+        }
         final StringBuilder b = new StringBuilder();
-        for (int i = startIdx; i < resourcePath.length; i++) {
+        for (int i = startIdx; i < length; i++) {
             if (resourcePath[i] != null) {
                 b.append(resourcePath[i]);
             }
-            if (i < resourcePath.length - 1) {
-                b.append("/");
+            if (i < length - 1) {
+                b.append(SEPARATOR);
             }
         }
         return b.toString();
@@ -119,7 +246,7 @@ public final class ResourceIdentifier {
      */
     public static ResourceIdentifier fromString(final String resource) {
         Objects.requireNonNull(resource);
-        return new ResourceIdentifier(resource.split("/"));
+        return parse(resource);
     }
 
     /**
@@ -195,7 +322,7 @@ public final class ResourceIdentifier {
      * @return the segments.
      */
     public String[] toPath() {
-        return Arrays.copyOf(resourcePath, resourcePath.length);
+        return getResourcePath();
     }
 
     /**
@@ -206,7 +333,10 @@ public final class ResourceIdentifier {
      * @throws ArrayIndexOutOfBoundsException if the resource path's length is shorter than the index.
      */
     public String elementAt(final int index) {
-        return resourcePath[index];
+        if (index < 0 || index >= length) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        return segment(index);
     }
 
     /**
@@ -215,7 +345,7 @@ public final class ResourceIdentifier {
      * @return The resource path length.
      */
     public int length() {
-        return resourcePath.length;
+        return length;
     }
 
     /**
@@ -224,7 +354,7 @@ public final class ResourceIdentifier {
      * @return the endpoint (not {@code null} or empty).
      */
     public String getEndpoint() {
-        return resourcePath[IDX_ENDPOINT];
+        return segment(IDX_ENDPOINT);
     }
 
     /**
@@ -233,8 +363,8 @@ public final class ResourceIdentifier {
      * @return the tenantId or {@code null} if not set.
      */
     public String getTenantId() {
-        if (resourcePath.length > IDX_TENANT_ID) {
-            return resourcePath[IDX_TENANT_ID];
+        if (length > IDX_TENANT_ID) {
+            return segment(IDX_TENANT_ID);
         } else {
             return null;
         }
@@ -248,8 +378,8 @@ public final class ResourceIdentifier {
      * @return the resourceId or {@code null} if not set.
      */
     public String getResourceId() {
-        if (resourcePath.length > IDX_RESOURCE_ID) {
-            return resourcePath[IDX_RESOURCE_ID];
+        if (length > IDX_RESOURCE_ID) {
+            return segment(IDX_RESOURCE_ID);
         } else {
             return null;
         }
@@ -261,7 +391,11 @@ public final class ResourceIdentifier {
      * @return The full resource path.
      */
     public String[] getResourcePath() {
-        return Arrays.copyOf(resourcePath, resourcePath.length);
+        final String[] path = new String[length];
+        for (int i = 0; i < length; i++) {
+            path[i] = segment(i);
+        }
+        return path;
     }
 
     /**
@@ -275,7 +409,12 @@ public final class ResourceIdentifier {
      */
     @Override
     public String toString() {
-        return resource;
+        String result = resource;
+        if (result == null) {
+            result = createStringRepresentation(0);
+            resource = result;
+        }
+        return result;
     }
 
     /**
@@ -287,7 +426,24 @@ public final class ResourceIdentifier {
      * @return A string consisting of the properties separated by a forward slash.
      */
     public String getBasePath() {
-        return basePath;
+        String result = basePath;
+        if (result == null) {
+            result = createBasePath();
+            basePath = result;
+        }
+        return result;
+    }
+
+    private String createBasePath() {
+        final String tenantId = getTenantId();
+        if (tenantId == null) {
+            return getEndpoint();
+        } else if (source != null) {
+            // the endpoint and tenant segments are contiguous in the source string
+            return source.substring(0, endOfSegment(IDX_TENANT_ID));
+        } else {
+            return getEndpoint() + SEPARATOR + tenantId;
+        }
     }
 
     /**
@@ -337,11 +493,24 @@ public final class ResourceIdentifier {
         }
 
         final ResourceIdentifier that = (ResourceIdentifier) o;
-        return resourcePath != null ? Arrays.equals(resourcePath, that.resourcePath) : that.resourcePath == null;
+        if (length != that.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (!Objects.equals(segment(i), that.segment(i))) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
     public int hashCode() {
-        return Arrays.hashCode(resourcePath);
+        // same as Arrays.hashCode(getResourcePath()) but without copying the path
+        int result = 1;
+        for (int i = 0; i < length; i++) {
+            result = 31 * result + Objects.hashCode(segment(i));
+        }
+        return result;
     }
 }
@@ -0,0 +1,474 @@
+/*
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.hono.util;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.impl.VertxInternal;
+
+/**
+ * A hierarchical timing wheel for scheduling a large number of coarse-grained timeouts
+ * on a Vert.x event loop.
+ * <p>
+ * Each event loop thread uses its own wheel which is driven by a single Vert.x timer that fires
+ * every {@value #DEFAULT_TICK_MILLIS} milliseconds while there are pending timeouts. The timer is
+ * created on a context of the wheel's own that is not associated with any verticle deployment, so that
+ * undeploying a verticle does not stop the wheel. Scheduling and cancelling a timeout is done in constant
+ * time and does not involve the Vert.x timer queue.
+ * A timeout fires during the first tick after its deadline, i.e. it may fire up to one tick late.
+ * <p>
+ * Code not running on an event loop thread of the given Vert.x instance is transparently served
+ * by means of {@link Vertx#setTimer(long, Handler)} and {@link Vertx#setPeriodic(long, Handler)}.
+ * <p>
+ * The handler of a timeout is run on the Vert.x context that the timeout has been scheduled on.
+ */
+public final class TimingWheel {
+
+    /**
+     * The length of a tick of the wheel in milliseconds.
+     */
+    public static final long DEFAULT_TICK_MILLIS = 10;
+
+    private static final Logger LOG = LoggerFactory.getLogger(TimingWheel.class);
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+    private static final long NO_TIMER = -1;
+    private static final int STATE_PENDING = 0;
+    private static final int STATE_CANCELLED = 1;
+    private static final int STATE_EXPIRED = 2;
+
+    private static final ThreadLocal<TimingWheel> WHEELS = new ThreadLocal<>();
+    private static final LongAdder PENDING_TIMEOUTS = new LongAdder();
+    private static final LongAdder FIRED_TIMEOUTS = new LongAdder();
+    private static final LongAdder TOTAL_LATENESS_MILLIS = new LongAdder();
+
+    private final Bucket[][] levels = new Bucket[LEVELS][WHEEL_SIZE];
+    private final Bucket overflow = new Bucket();
+    private final ConcurrentLinkedQueue<Task> cancelledTasks = new ConcurrentLinkedQueue<>();
+    private final Vertx vertx;
+    private final Context timerContext;
+    private final Thread owner;
+    private final long tickMillis;
+    private final long tickNanos;
+    private final long startNanos;
+
+    private long currentTick;
+    private long timerId = NO_TIMER;
+    private int size;
+
+    /**
+     * Creates a new wheel for the current thread.
+     * <p>
+     * If invoked on an event loop thread of the given Vert.x instance, the timer driving the wheel
+     * will be bound to a new context using the same event loop thread.
+     *
+     * @param vertx The Vert.x instance to use for driving the wheel.
+     * @param tickMillis The length of a tick in milliseconds.
+     * @throws NullPointerException if vertx is {@code null}.
+     * @throws IllegalArgumentException if tick length is &lt; 1.
+     */
+    TimingWheel(final Vertx vertx, final long tickMillis) {
+        if (tickMillis < 1) {
+            throw new IllegalArgumentException("tick length must be > 0");
+        }
+        this.vertx = Objects.requireNonNull(vertx);
+        this.timerContext = createTimerContext(vertx);
+        this.owner = Thread.currentThread();
+        this.tickMillis = tickMillis;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.startNanos = System.nanoTime();
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+                levels[level][slot] = new Bucket();
+            }
+        }
+    }
+
+    /**
+     * A timeout that has been scheduled.
+     */
+    @FunctionalInterface
+    public interface Timeout {
+
+        /**
+         * Cancels this timeout.
+         * <p>
+         * This method may be invoked from any thread.
+         *
+         * @return {@code true} if the timeout has been cancelled, {@code false} if it has
+         *         already fired or has already been cancelled.
+         */
+        boolean cancel();
+    }
+
+    /**
+     * Schedules a handler to be invoked once after a delay.
+     *
+     * @param vertx The Vert.x instance to use.
+     * @param delayMillis The delay in milliseconds.
+     * @param handler The handler to invoke.
+     * @return The timeout.
+     * @throws NullPointerException if vertx or handler are {@code null}.
+     * @throws IllegalArgumentException if delay is &lt; 1.
+     */
+    public static Timeout setTimer(final Vertx vertx, final long delayMillis, final Handler<Void> handler) {
+        Objects.requireNonNull(vertx);
+        Objects.requireNonNull(handler);
+        if (delayMillis < 1) {
+            throw new IllegalArgumentException("delay must be > 0");
+        }
+
+        final TimingWheel wheel = forCurrentEventLoop(vertx);
+        if (wheel == null) {
+            final long id = vertx.setTimer(delayMillis, tid -> handler.handle(null));
+            return () -> vertx.cancelTimer(id);
+        }
+        return wheel.schedule(TimeUnit.MILLISECONDS.toNanos(delayMillis), 0, handler);
+    }
+
+    /**
+     * Schedules a handler to be invoked periodically.
+     *
+     * @param vertx The Vert.x instance to use.
+     * @param intervalMillis The interval in milliseconds.
+     * @param handler The handler to invoke.
+     * @return The timeout. Cancelling the timeout stops the periodic invocation of the handler.
+     * @throws NullPointerException if vertx or handler are {@code null}.
+     * @throws IllegalArgumentException if interval is &lt; 1.
+     */
+    public static Timeout setPeriodic(final Vertx vertx, final long intervalMillis, final Handler<Void> handler) {
+        Objects.requireNonNull(vertx);
+        Objects.requireNonNull(handler);
+        if (intervalMillis < 1) {
+            throw new IllegalArgumentException("interval must be > 0");
+        }
+
+        final TimingWheel wheel = forCurrentEventLoop(vertx);
+        if (wheel == null) {
+            final long id = vertx.setPeriodic(intervalMillis, tid -> handler.handle(null));
+            return () -> vertx.cancelTimer(id);
+        }
+        final long intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        return wheel.schedule(intervalNanos, intervalNanos, handler);
+    }
+
+    /**
+     * Gets the overall number of timeouts that are pending on the wheels of all event loops.
+     *
+     * @return The number of timeouts.
+     */
+    public static long getNumberOfPendingTimeouts() {
+        return PENDING_TIMEOUTS.sum();
+    }
+
+    /**
+     * Gets the overall number of timeouts that have fired on the wheels of all event loops.
+     *
+     * @return The number of timeouts.
+     */
+    public static long getNumberOfFiredTimeouts() {
+        return FIRED_TIMEOUTS.sum();
+    }
+
+    /**
+     * Gets the overall amount of time that the timeouts of the wheels of all event loops have
+     * fired after their deadline.
+     *
+     * @return The lateness in milliseconds.
+     */
+    public static long getTotalLatenessMillis() {
+        return TOTAL_LATENESS_MILLIS.sum();
+    }
+
+    private static Context createTimerContext(final Vertx vertx) {
+        if (vertx instanceof VertxInternal vertxInternal
+                && Vertx.currentContext() instanceof ContextInternal currentContext
+                && Context.isOnEventLoopThread()) {
+            // a context which uses the current event loop thread but which is not associated
+            // with any deployment and whose timers therefore do not get cancelled on undeployment
+            return vertxInternal.createEventLoopContext(
+                    currentContext.nettyEventLoop(),
+                    null,
+                    Thread.currentThread().getContextClassLoader());
+        }
+        return null;
+    }
+
+    private static TimingWheel forCurrentEventLoop(final Vertx vertx) {
+        final Context context = Vertx.currentContext();
+        if (context == null || !context.isEventLoopContext() || context.owner() != vertx
+                || !Context.isOnEventLoopThread()) {
+            return null;
+        }
+        TimingWheel wheel = WHEELS.get();
+        if (wheel == null || wheel.vertx != vertx) {
+            wheel = new TimingWheel(vertx, DEFAULT_TICK_MILLIS);
+            WHEELS.set(wheel);
+        }
+        return wheel;
+    }
+
+    /**
+     * Gets the number of timeouts pending on this wheel.
+     *
+     * @return The number of timeouts.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Schedules a handler on this wheel.
+     * <p>
+     * This method must be invoked on the thread that has created this wheel.
+     *
+     * @param delayNanos The delay in nanoseconds.
+     * @param periodNanos The interval of a periodic timeout in nanoseconds or 0 for a one-shot timeout.
+     * @param handler The handler to invoke.
+     * @return The timeout.
+     */
+    Timeout schedule(final long delayNanos, final long periodNanos, final Handler<Void> handler) {
+        final Task task = new Task(Vertx.currentContext(), handler, periodNanos);
+        task.deadlineNanos = System.nanoTime() + delayNanos;
+        add(task);
+        return task;
+    }
+
+    private void add(final Task task) {
+        if (timerId == NO_TIMER) {
+            // the wheel is empty, so the current tick can simply be moved forward
+            currentTick = Math.max(currentTick, elapsedTicks(System.nanoTime()));
+            startTimer();
+        }
+        final long deadlineTick = (task.deadlineNanos - startNanos + tickNanos - 1) / tickNanos;
+        task.deadlineTick = Math.max(deadlineTick, currentTick + 1);
+        insert(task);
+        size++;
+        PENDING_TIMEOUTS.increment();
+    }
+
+    private void startTimer() {
+        if (timerContext instanceof ContextInternal context) {
+            // the timer is bound to the context that is current when the timer is created
+            context.emit(null, v -> timerId = vertx.setPeriodic(tickMillis, tid -> onTick()));
+        } else {
+            timerId = vertx.setPeriodic(tickMillis, tid -> onTick());
+        }
+    }
+
+    private long elapsedTicks(final long now) {
+        return (now - startNanos) / tickNanos;
+    }
+
+    /**
+     * Puts a task into the bucket of the lowest level whose current span contains the task's deadline.
+     */
+    private void insert(final Task task) {
+        for (int level = 0; level < LEVELS; level++) {
+            final int shift = WHEEL_BITS * (level + 1);
+            if ((task.deadlineTick >>> shift) == (currentTick >>> shift)) {
+                final int slot = (int) (task.deadlineTick >>> (WHEEL_BITS * level)) & WHEEL_MASK;
+                levels[level][slot].append(task);
+                return;
+            }
+        }
+        overflow.append(task);
+    }
+
+    private void remove(final Task task) {
+        if (task.bucket != null) {
+            task.bucket.unlink(task);
+            size--;
+            PENDING_TIMEOUTS.decrement();
+        }
+    }
+
+    private void onCancelled(final Task task) {
+        if (Thread.currentThread() == owner) {
+            remove(task);
+        } else {
+            cancelledTasks.add(task);
+        }
+    }
+
+    private void onTick() {
+        final long now = System.nanoTime();
+        Task cancelledTask;
+        while ((cancelledTask = cancelledTasks.poll()) != null) {
+            remove(cancelledTask);
+        }
+        final long targetTick = elapsedTicks(now);
+        while (currentTick < targetTick && size > 0) {
+            advance(currentTick + 1);
+        }
+        if (size == 0) {
+            currentTick = Math.max(currentTick, targetTick);
+            vertx.cancelTimer(timerId);
+            timerId = NO_TIMER;
+        }
+    }
+
+    private void advance(final long tick) {
+        currentTick = tick;
+        // move the tasks of the higher level buckets whose span starts with this tick to the lower levels
+        if ((tick & ((1L << (WHEEL_BITS * LEVELS)) - 1)) == 0) {
+            cascade(overflow);
+        }
+        for (int level = LEVELS - 1; level > 0; level--) {
+            final int shift = WHEEL_BITS * level;
+            if ((tick & ((1L << shift) - 1)) == 0) {
+                cascade(levels[level][(int) (tick >>> shift) & WHEEL_MASK]);
+            }
+        }
+        final Bucket bucket = levels[0][(int) tick & WHEEL_MASK];
+        Task task;
+        while ((task = bucket.poll()) != null) {
+            size--;
+            PENDING_TIMEOUTS.decrement();
+            expire(task);
+        }
+    }
+
+    private void cascade(final Bucket bucket) {
+        // detach the tasks first because tasks from the overflow bucket may need to be put back
+        Task task = bucket.head;
+        bucket.head = null;
+        bucket.tail = null;
+        while (task != null) {
+            final Task next = task.next;
+            task.bucket = null;
+            insert(task);
+            task = next;
+        }
+    }
+
+    private void expire(final Task task) {
+        final long now = System.nanoTime();
+        final long latenessMillis = TimeUnit.NANOSECONDS.toMillis(Math.max(0, now - task.deadlineNanos));
+        if (task.periodNanos > 0) {
+            if (task.state.get() != STATE_PENDING) {
+                return;
+            }
+            task.deadlineNanos += task.periodNanos;
+            if (task.deadlineNanos < now) {
+                // skip the periods that have been missed
+                task.deadlineNanos = now + task.periodNanos;
+            }
+            add(task);
+        } else if (!task.state.compareAndSet(STATE_PENDING, STATE_EXPIRED)) {
+            return;
+        }
+        FIRED_TIMEOUTS.increment();
+        TOTAL_LATENESS_MILLIS.add(latenessMillis);
+        if (task.context == null || task.context == Vertx.currentContext()) {
+            try {
+                task.handler.handle(null);
+            } catch (final RuntimeException e) {
+                LOG.warn("error running timeout handler", e);
+            }
+        } else {
+            task.context.runOnContext(go -> task.handler.handle(null));
+        }
+    }
+
+    /**
+     * A timeout scheduled on a wheel.
+     */
+    private final class Task implements Timeout {
+
+        private final AtomicInteger state = new AtomicInteger(STATE_PENDING);
+        private final Context context;
+        private final Handler<Void> handler;
+        private final long periodNanos;
+        private long deadlineNanos;
+        private long deadlineTick;
+        private Bucket bucket;
+        private Task prev;
+        private Task next;
+
+        Task(final Context context, final Handler<Void> handler, final long periodNanos) {
+            this.context = context;
+            this.handler = handler;
+            this.periodNanos = periodNanos;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (state.compareAndSet(STATE_PENDING, STATE_CANCELLED)) {
+                onCancelled(this);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * A doubly linked list of tasks.
+     */
+    private static final class Bucket {
+
+        private Task head;
+        private Task tail;
+
+        void append(final Task task) {
+            task.bucket = this;
+            task.prev = tail;
+            task.next = null;
+            if (tail == null) {
+                head = task;
+            } else {
+                tail.next = task;
+            }
+            tail = task;
+        }
+
+        void unlink(final Task task) {
+            if (task.prev == null) {
+                head = task.next;
+            } else {
+                task.prev.next = task.next;
+            }
+            if (task.next == null) {
+                tail = task.prev;
+            } else {
+                task.next.prev = task.prev;
+            }
+            task.bucket = null;
+            task.prev = null;
+            task.next = null;
+        }
+
+        Task poll() {
+            final Task task = head;
+            if (task != null) {
+                unlink(task);
+            }
+            return task;
+        }
+    }
+}
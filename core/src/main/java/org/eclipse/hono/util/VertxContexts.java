@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.hono.util;
+
+import java.util.Objects;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.VertxInternal;
+
+/**
+ * Helper class for creating vert.x contexts.
+ */
+public final class VertxContexts {
+
+    private VertxContexts() {
+        // prevent instantiation
+    }
+
+    /**
+     * Creates a new event loop context that is not associated with any deployment.
+     * <p>
+     * Each context created by this method gets assigned one of the vert.x instance's event loop threads in
+     * a round-robin fashion. Creating multiple contexts therefore allows components to distribute their work
+     * among the event loop threads, independently of the context that the method is invoked on.
+     * <p>
+     * If the vert.x instance does not support creating contexts, e.g. because it is a mock object, the context
+     * returned by {@link Vertx#getOrCreateContext()} is used instead.
+     *
+     * @param vertx The vert.x instance to create the context for.
+     * @return The context.
+     * @throws NullPointerException if vertx is {@code null}.
+     */
+    public static Context newEventLoopContext(final Vertx vertx) {
+        Objects.requireNonNull(vertx);
+        if (vertx instanceof VertxInternal vertxInternal) {
+            return vertxInternal.createEventLoopContext();
+        }
+        return vertx.getOrCreateContext();
+    }
+}
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2020, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -33,7 +33,9 @@ import org.slf4j.LoggerFactory;
 
 import io.smallrye.common.vertx.VertxContext;
 import io.vertx.core.Context;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
 import io.vertx.junit5.Timeout;
 import io.vertx.junit5.VertxExtension;
@@ -169,4 +171,45 @@ class FuturesTest {
         });
     }
 
+    /**
+     * Verifies that the Future returned by {@link Futures#completeOnContext(Context, Future)}
+     * is completed on the given context if the original future is completed on another thread.
+     *
+     * @param ctx The vert.x test context.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    @Timeout(value = 5, timeUnit = TimeUnit.SECONDS)
+    public void testCompleteOnContextRunsOnGivenContext(final VertxTestContext ctx) {
+
+        final Context mockContext = mock(Context.class);
+        doAnswer(invocation -> {
+            final Handler<Void> codeToRun = invocation.getArgument(0);
+            codeToRun.handle(null);
+            return null;
+        }).when(mockContext).runOnContext(any(Handler.class));
+
+        final Promise<String> original = Promise.promise();
+        Futures.completeOnContext(mockContext, original.future())
+                .onComplete(ctx.succeeding(s -> {
+                    ctx.verify(() -> {
+                        verify(mockContext).runOnContext(any(Handler.class));
+                        assertThat(s).isEqualTo("done");
+                    });
+                    ctx.completeNow();
+                }));
+        original.complete("done");
+    }
+
+    /**
+     * Verifies that {@link Futures#completeOnContext(Context, Future)} returns the
+     * original future if it is already completed.
+     */
+    @Test
+    public void testCompleteOnContextReturnsCompletedFuture() {
+
+        final Context mockContext = mock(Context.class);
+        final Future<String> original = Future.succeededFuture("done");
+        assertThat(Futures.completeOnContext(mockContext, original)).isSameInstanceAs(original);
+    }
 }
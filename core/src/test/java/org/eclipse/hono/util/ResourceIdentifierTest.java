@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2021 Contributors to the Eclipse Foundation
+ * Copyright (c) 2016, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -318,4 +318,43 @@ public class ResourceIdentifierTest {
         assertThat(ResourceIdentifier.isValid("/test")).isFalse();
         assertThrows(IllegalArgumentException.class, () -> ResourceIdentifier.fromString("/test"));
     }
+
+    /**
+     * Verifies that trailing empty segments of a string are ignored.
+     */
+    @Test
+    public void testFromStringIgnoresTrailingEmptySegments() {
+        final ResourceIdentifier resourceId = ResourceIdentifier.fromString("telemetry/myTenant//");
+        assertThat(resourceId.length()).isEqualTo(2);
+        assertThat(resourceId.getResourceId()).isNull();
+        assertThat(resourceId.toString()).isEqualTo("telemetry/myTenant");
+        assertThat(resourceId.getBasePath()).isEqualTo("telemetry/myTenant");
+        assertThat(resourceId).isEqualTo(ResourceIdentifier.from("telemetry", "myTenant", null));
+    }
+
+    /**
+     * Verifies that resource identifiers parsed from strings share the instances of
+     * their endpoint and tenant segments.
+     */
+    @Test
+    public void testFromStringReusesEndpointAndTenantInstances() {
+        final ResourceIdentifier first = ResourceIdentifier.fromString(new String("telemetry/myTenant/deviceA"));
+        final ResourceIdentifier second = ResourceIdentifier.fromString(new String("telemetry/myTenant/deviceB"));
+        assertThat(second.getEndpoint()).isSameInstanceAs(first.getEndpoint());
+        assertThat(second.getTenantId()).isSameInstanceAs(first.getTenantId());
+        assertThat(second.getResourceId()).isEqualTo("deviceB");
+    }
+
+    /**
+     * Verifies that accessing the elements of a parsed identifier outside of its
+     * bounds fails.
+     */
+    @Test
+    public void testElementAtFailsForIndexOutOfBounds() {
+        final ResourceIdentifier resourceId = ResourceIdentifier.fromString("event//4711");
+        assertThat(resourceId.elementAt(1)).isNull();
+        assertThat(resourceId.elementAt(2)).isEqualTo("4711");
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> resourceId.elementAt(3));
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> resourceId.elementAt(-1));
+    }
 }
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.hono.util;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.Checkpoint;
+import io.vertx.junit5.Timeout;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+
+/**
+ * Tests verifying behavior of {@link TimingWheel}.
+ *
+ */
+@ExtendWith(VertxExtension.class)
+class TimingWheelTest {
+
+    /**
+     * Verifies that timeouts fire in the order of their deadlines, including timeouts
+     * that need to be moved from a higher level of the wheel to a lower one.
+     *
+     * @param ctx The vert.x test context.
+     * @param vertx The vert.x instance.
+     */
+    @Test
+    @Timeout(value = 5, timeUnit = TimeUnit.SECONDS)
+    public void testTimeoutsFireInOrderOfDeadline(final VertxTestContext ctx, final Vertx vertx) {
+
+        final Context context = vertx.getOrCreateContext();
+        final List<Integer> firedTimeouts = new ArrayList<>();
+        final Checkpoint fired = ctx.checkpoint(3);
+        context.runOnContext(go -> {
+            final TimingWheel wheel = new TimingWheel(vertx, 1);
+            wheel.schedule(TimeUnit.MILLISECONDS.toNanos(700), 0, v -> {
+                firedTimeouts.add(700);
+                ctx.verify(() -> {
+                    assertThat(Vertx.currentContext()).isEqualTo(context);
+                    assertThat(firedTimeouts).containsExactly(20, 100, 700).inOrder();
+                    assertThat(wheel.size()).isEqualTo(0);
+                });
+                fired.flag();
+            });
+            wheel.schedule(TimeUnit.MILLISECONDS.toNanos(100), 0, v -> {
+                firedTimeouts.add(100);
+                fired.flag();
+            });
+            wheel.schedule(TimeUnit.MILLISECONDS.toNanos(20), 0, v -> {
+                firedTimeouts.add(20);
+                fired.flag();
+            });
+            ctx.verify(() -> assertThat(wheel.size()).isEqualTo(3));
+        });
+    }
+
+    /**
+     * Verifies that a cancelled timeout does not fire.
+     *
+     * @param ctx The vert.x test context.
+     * @param vertx The vert.x instance.
+     */
+    @Test
+    @Timeout(value = 5, timeUnit = TimeUnit.SECONDS)
+    public void testCancelledTimeoutDoesNotFire(final VertxTestContext ctx, final Vertx vertx) {
+
+        vertx.runOnContext(go -> {
+            final TimingWheel wheel = new TimingWheel(vertx, 1);
+            final TimingWheel.Timeout timeout = wheel.schedule(
+                    TimeUnit.MILLISECONDS.toNanos(10), 0, v -> ctx.failNow("cancelled timeout has fired"));
+            wheel.schedule(TimeUnit.MILLISECONDS.toNanos(50), 0, v -> ctx.completeNow());
+            ctx.verify(() -> {
+                assertThat(timeout.cancel()).isTrue();
+                assertThat(timeout.cancel()).isFalse();
+                assertThat(wheel.size()).isEqualTo(1);
+            });
+        });
+    }
+
+    /**
+     * Verifies that a timeout can be cancelled from a thread other than the wheel's event loop thread.
+     *
+     * @param ctx The vert.x test context.
+     * @param vertx The vert.x instance.
+     */
+    @Test
+    @Timeout(value = 5, timeUnit = TimeUnit.SECONDS)
+    public void testTimeoutCanBeCancelledFromOtherThread(final VertxTestContext ctx, final Vertx vertx) {
+
+        vertx.runOnContext(go -> {
+            final TimingWheel wheel = new TimingWheel(vertx, 1);
+            final TimingWheel.Timeout timeout = wheel.schedule(
+                    TimeUnit.MILLISECONDS.toNanos(100), 0, v -> ctx.failNow("cancelled timeout has fired"));
+            wheel.schedule(TimeUnit.MILLISECONDS.toNanos(200), 0, v -> {
+                ctx.verify(() -> assertThat(wheel.size()).isEqualTo(0));
+                ctx.completeNow();
+            });
+            vertx.<Boolean>executeBlocking(promise -> promise.complete(timeout.cancel()), false)
+                .onComplete(ctx.succeeding(cancelled -> ctx.verify(() -> assertThat(cancelled).isTrue())));
+        });
+    }
+
+    /**
+     * Verifies that a periodic timeout fires repeatedly until it gets cancelled.
+     *
+     * @param ctx The vert.x test context.
+     * @param vertx The vert.x instance.
+     */
+    @Test
+    @Timeout(value = 5, timeUnit = TimeUnit.SECONDS)
+    public void testPeriodicTimeoutFiresUntilCancelled(final VertxTestContext ctx, final Vertx vertx) {
+
+        final Checkpoint fired = ctx.checkpoint(3);
+        vertx.runOnContext(go -> {
+            final TimingWheel wheel = new TimingWheel(vertx, 1);
+            final int[] count = new int[1];
+            final TimingWheel.Timeout[] timeout = new TimingWheel.Timeout[1];
+            timeout[0] = wheel.schedule(TimeUnit.MILLISECONDS.toNanos(10), TimeUnit.MILLISECONDS.toNanos(10), v -> {
+                count[0]++;
+                if (count[0] > 3) {
+                    ctx.failNow("cancelled periodic timeout has fired");
+                    return;
+                }
+                fired.flag();
+                if (count[0] == 3) {
+                    timeout[0].cancel();
+                    ctx.verify(() -> assertThat(wheel.size()).isEqualTo(0));
+                }
+            });
+        });
+    }
+
+    /**
+     * Verifies that pending timeouts still fire after the verticle that has scheduled them
+     * has been undeployed.
+     *
+     * @param ctx The vert.x test context.
+     * @param vertx The vert.x instance.
+     */
+    @Test
+    @Timeout(value = 5, timeUnit = TimeUnit.SECONDS)
+    public void testTimeoutsFireAfterUndeploymentOfVerticle(final VertxTestContext ctx, final Vertx vertx) {
+
+        vertx.deployVerticle(new AbstractVerticle() {
+            @Override
+            public void start(final Promise<Void> startPromise) {
+                final TimingWheel wheel = new TimingWheel(vertx, 1);
+                wheel.schedule(TimeUnit.MILLISECONDS.toNanos(300), 0, v -> ctx.completeNow());
+                startPromise.complete();
+            }
+        })
+        // the timer driving the wheel has been started while the verticle was being deployed
+        // but must not get cancelled along with the verticle's timers
+        .compose(vertx::undeploy)
+        .onFailure(ctx::failNow);
+    }
+
+    /**
+     * Verifies that the Vert.x timer is used if a timeout is not scheduled on an event loop thread.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSetTimerUsesVertxTimerIfNotOnEventLoop() {
+
+        final Vertx vertx = mock(Vertx.class);
+        final TimingWheel.Timeout timeout = TimingWheel.setTimer(vertx, 100, v -> {});
+        verify(vertx).setTimer(eq(100L), any(Handler.class));
+        timeout.cancel();
+        verify(vertx).cancelTimer(anyLong());
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.hono.util;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+
+/**
+ * Tests verifying behavior of {@link VertxContexts}.
+ *
+ */
+@ExtendWith(VertxExtension.class)
+class VertxContextsTest {
+
+    /**
+     * Verifies that each invocation creates a new event loop context.
+     *
+     * @param vertx The vert.x instance.
+     */
+    @Test
+    void testNewEventLoopContextCreatesDistinctContexts(final Vertx vertx) {
+        final Context first = VertxContexts.newEventLoopContext(vertx);
+        final Context second = VertxContexts.newEventLoopContext(vertx);
+
+        assertThat(first.isEventLoopContext()).isTrue();
+        assertThat(second.isEventLoopContext()).isTrue();
+        assertThat(first).isNotSameInstanceAs(second);
+    }
+
+    /**
+     * Verifies that the current context is used for a vert.x instance that does not
+     * support creating contexts.
+     */
+    @Test
+    void testNewEventLoopContextFallsBackToCurrentContext() {
+        final Context context = mock(Context.class);
+        final Vertx vertx = mock(Vertx.class);
+        when(vertx.getOrCreateContext()).thenReturn(context);
+
+        assertThat(VertxContexts.newEventLoopContext(vertx)).isSameInstanceAs(context);
+    }
+}
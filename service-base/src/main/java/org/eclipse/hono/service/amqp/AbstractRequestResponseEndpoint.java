@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2016, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -19,6 +19,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.apache.qpid.proton.amqp.Symbol;
 import org.apache.qpid.proton.amqp.messaging.ApplicationProperties;
 import org.apache.qpid.proton.amqp.transport.AmqpError;
 import org.apache.qpid.proton.amqp.transport.ErrorCondition;
@@ -188,6 +189,19 @@ public abstract class AbstractRequestResponseEndpoint<T extends ServiceConfigPro
             ResourceIdentifier targetAddress,
             SpanContext spanContext);
 
+    /**
+     * Gets the capabilities to offer to clients on the link for receiving request messages.
+     * <p>
+     * Clients may use the capabilities to determine the (optional) operations supported by this endpoint.
+     * <p>
+     * This default implementation returns {@code null}, i.e. no capabilities are offered.
+     *
+     * @return The capabilities or {@code null}.
+     */
+    protected Symbol[] getOfferedCapabilities() {
+        return null;
+    }
+
     /**
      * Gets the object to use for making authorization decisions.
      *
@@ -238,6 +252,7 @@ public abstract class AbstractRequestResponseEndpoint<T extends ServiceConfigPro
             receiver.setAutoAccept(true); // settle received messages if the handler succeeds
             receiver.setTarget(receiver.getRemoteTarget());
             receiver.setSource(receiver.getRemoteSource());
+            receiver.setOfferedCapabilities(getOfferedCapabilities());
             // We do manual flow control, credits are replenished after responses have been sent.
             receiver.setPrefetch(0);
 
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2021, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2021, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -18,6 +18,7 @@ import java.time.Duration;
 import java.util.Optional;
 
 import org.eclipse.hono.client.amqp.config.RequestResponseClientConfigProperties;
+import org.eclipse.hono.client.util.ResponseCacheIndex;
 import org.eclipse.hono.util.CacheDirective;
 import org.eclipse.hono.util.RequestResponseResult;
 
@@ -58,6 +59,28 @@ public final class Caches {
      */
     public static <V extends RequestResponseResult<?>> Cache<Object, V> newCaffeineCache(
             final RequestResponseClientConfigProperties config) {
+        return newCaffeineCache(config, null);
+    }
+
+    /**
+     * Creates a new Caffeine based cache that keeps a secondary index of its keys up to date.
+     * <p>
+     * The created cache will automatically expire values based on the maximum age
+     * set in the value's {@linkplain org.eclipse.hono.util.CacheDirective#getMaxAge() cache directive}.
+     * The cache size will be according to the given configuration's minimum and maximum
+     * response cache size properties.
+     * <p>
+     * Keys of entries that are evicted from the cache because of their size or age are
+     * removed from the given index, unless they have been added to the index for another value.
+     *
+     * @param <V> The type of values that the cache supports.
+     * @param config The configuration to use for the cache.
+     * @param index The index to remove the keys of evicted entries from or {@code null} if no index is used.
+     * @return A new cache or {@code null} if the configured max cache size is &lt;= 0.
+     */
+    public static <V extends RequestResponseResult<?>> Cache<Object, V> newCaffeineCache(
+            final RequestResponseClientConfigProperties config,
+            final ResponseCacheIndex index) {
 
         if (config.getResponseCacheMaxSize() <= 0) {
             return null;
@@ -65,9 +88,19 @@ public final class Caches {
 
         final long defaultTimeoutNanos = Duration.ofSeconds(config.getResponseCacheDefaultTimeout()).toNanos();
 
-        return Caffeine.newBuilder()
+        final Caffeine<Object, Object> builder = Caffeine.newBuilder()
                 .initialCapacity(config.getResponseCacheMinSize())
-                .maximumSize(Math.max(config.getResponseCacheMinSize(), config.getResponseCacheMaxSize()))
+                .maximumSize(Math.max(config.getResponseCacheMinSize(), config.getResponseCacheMaxSize()));
+        if (index != null) {
+            builder.evictionListener((key, value, cause) -> {
+                if (key != null) {
+                    // the entry may have been replaced by a newer value whose key must remain in the index
+                    index.remove(key, value);
+                }
+            });
+        }
+
+        return builder
                 .expireAfter(new Expiry<Object, V>() {
 
                     private long getMaxAge(final CacheDirective directive) {
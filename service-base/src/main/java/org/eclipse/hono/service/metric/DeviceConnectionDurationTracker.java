@@ -19,6 +19,7 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
+import org.eclipse.hono.util.TimingWheel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,8 +36,7 @@ public final class DeviceConnectionDurationTracker {
     private final Consumer<Long> recorder;
     private final AtomicReference<Instant> startInstant = new AtomicReference<>();
     private final String tenantId;
-    private final long timerId;
-    private final Vertx vertx;
+    private final TimingWheel.Timeout recordingTimeout;
 
     private DeviceConnectionDurationTracker(
             final String tenantId, final Vertx vertx,
@@ -47,8 +47,7 @@ public final class DeviceConnectionDurationTracker {
         this.noOfDeviceConnections = new AtomicLong(noOfDeviceConnections);
         this.recorder = recorder;
         this.startInstant.set(Instant.now());
-        this.vertx = vertx;
-        this.timerId = this.vertx.setPeriodic(recordingIntervalInMs, id -> report());
+        this.recordingTimeout = TimingWheel.setPeriodic(vertx, recordingIntervalInMs, v -> report());
         LOG.trace("Started a device connection duration tracker for the tenant [{}].", tenantId);
     }
 
@@ -68,7 +67,7 @@ public final class DeviceConnectionDurationTracker {
         LOG.trace("Updated number of device connections for the tenant [{}] to [{}]", tenantId,
                 noOfDeviceConnections);
         if (noOfDeviceConnections == 0) {
-            vertx.cancelTimer(timerId);
+            recordingTimeout.cancel();
             LOG.trace("Stopped the device connection duration tracker for the tenant [{}].", tenantId);
             return null;
         }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2018, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -21,6 +21,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Supplier;
 
 import org.eclipse.hono.client.amqp.connection.SendMessageSampler;
@@ -28,12 +29,16 @@ import org.eclipse.hono.service.metric.MetricsTags.Direction;
 import org.eclipse.hono.service.metric.MetricsTags.ProcessingOutcome;
 import org.eclipse.hono.service.util.ServiceBaseUtils;
 import org.eclipse.hono.util.Constants;
+import org.eclipse.hono.util.Strings;
 import org.eclipse.hono.util.TenantObject;
+import org.eclipse.hono.util.TimingWheel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tag;
 import io.micrometer.core.instrument.Tags;
@@ -50,6 +55,9 @@ import io.vertx.core.tracing.TracingPolicy;
  * in the connection, telemetry and command metrics values related to that tenant), the metrics meters for that tenant
  * will be removed and an event will be published on the Vert.x event bus. The event bus address is
  * {@value Constants#EVENT_BUS_ADDRESS_TENANT_TIMED_OUT} and the body of the message consists of the tenant identifier.
+ * <p>
+ * The meters used for reporting telemetry messages and connection attempts are looked up in the registry only once
+ * per tenant and combination of tags. The handles of these meters are kept until the meters of the tenant get removed.
  */
 public class MicrometerBasedMetrics implements Metrics, SendMessageSampler.Factory {
 
@@ -98,9 +106,24 @@ public class MicrometerBasedMetrics implements Metrics, SendMessageSampler.Facto
      * in time.
      */
     public static final String METER_AMQP_TIMEOUT = "hono.amqp.timeout";
+    /**
+     * The name of the meter for the number of timeouts pending on the timing wheels of all event loops.
+     */
+    public static final String METER_TIMING_WHEEL_PENDING = "hono.timing.wheel.pending";
+    /**
+     * The name of the meter for recording how late timeouts scheduled on a timing wheel have fired.
+     */
+    public static final String METER_TIMING_WHEEL_LATENESS = "hono.timing.wheel.lateness";
 
     private static final long DEFAULT_TENANT_IDLE_TIMEOUT = Duration.ZERO.toMillis();
     private static final long DEVICE_CONNECTION_DURATION_RECORDING_INTERVAL_IN_MS = TimeUnit.SECONDS.toMillis(10);
+    private static final String UNKNOWN_TAG_VALUE = "UNKNOWN";
+    private static final int NO_OF_PROCESSING_OUTCOMES = ProcessingOutcome.values().length;
+    private static final int NO_OF_QOS_LEVELS = MetricsTags.QoS.values().length;
+    private static final int NO_OF_TTD_STATUSES = MetricsTags.TtdStatus.values().length;
+    private static final int NO_OF_TELEMETRY_METERS = MetricsTags.EndpointType.values().length
+            * NO_OF_PROCESSING_OUTCOMES * NO_OF_QOS_LEVELS * NO_OF_TTD_STATUSES;
+    private static final int NO_OF_CONNECTION_ATTEMPT_OUTCOMES = MetricsTags.ConnectionAttemptOutcome.values().length;
 
     /**
      * A logger to be shared with subclasses.
@@ -115,6 +138,7 @@ public class MicrometerBasedMetrics implements Metrics, SendMessageSampler.Facto
     private final Map<String, AtomicLong> authenticatedConnections = new ConcurrentHashMap<>();
     private final Map<String, DeviceConnectionDurationTracker> connectionDurationTrackers = new ConcurrentHashMap<>();
     private final Map<String, Long> lastSeenTimestampPerTenant = new ConcurrentHashMap<>();
+    private final Map<String, TenantMeters> metersPerTenant = new ConcurrentHashMap<>();
     private final AtomicLong unauthenticatedConnections;
     private final AtomicInteger totalCurrentConnections = new AtomicInteger();
     private final Vertx vertx;
@@ -138,11 +162,27 @@ public class MicrometerBasedMetrics implements Metrics, SendMessageSampler.Facto
 
         this.registry.config().onMeterRemoved(meter -> {
             // execution is synchronized in MeterRegistry#remove(Meter)
-            if (METER_CONNECTIONS_AUTHENTICATED.equals(meter.getId().getName())) {
+            final String meterName = meter.getId().getName();
+            if (METER_CONNECTIONS_AUTHENTICATED.equals(meterName)) {
                 authenticatedConnections.remove(meter.getId().getTag(MetricsTags.TAG_TENANT));
+            } else if (METER_TELEMETRY_PROCESSING_DURATION.equals(meterName)
+                    || METER_TELEMETRY_PAYLOAD.equals(meterName)
+                    || METER_CONNECTIONS_ATTEMPTS.equals(meterName)) {
+                Optional.ofNullable(meter.getId().getTag(MetricsTags.TAG_TENANT))
+                    .ifPresent(metersPerTenant::remove);
             }
         });
         this.unauthenticatedConnections = registry.gauge(METER_CONNECTIONS_UNAUTHENTICATED, new AtomicLong());
+
+        Gauge.builder(METER_TIMING_WHEEL_PENDING, TimingWheel::getNumberOfPendingTimeouts)
+            .register(registry);
+        FunctionTimer.builder(
+                METER_TIMING_WHEEL_LATENESS,
+                TimingWheel.class,
+                wheel -> TimingWheel.getNumberOfFiredTimeouts(),
+                wheel -> TimingWheel.getTotalLatenessMillis(),
+                TimeUnit.MILLISECONDS)
+            .register(registry);
     }
 
     /**
@@ -227,14 +267,23 @@ public class MicrometerBasedMetrics implements Metrics, SendMessageSampler.Facto
 
         Objects.requireNonNull(outcome);
 
-        final Tags tags = Tags.of(outcome.asTag())
-                .and(MetricsTags.getTenantTag(tenantId))
-                .and(MetricsTags.getCipherSuiteTag(cipherSuite));
-
-        Counter.builder(METER_CONNECTIONS_ATTEMPTS)
-            .tags(tags)
-            .register(this.registry)
-            .increment();
+        final AtomicReferenceArray<Counter> counters = getTenantMeters(tenantId).connectionAttempts
+                .computeIfAbsent(
+                        Strings.isNullOrEmpty(cipherSuite) ? UNKNOWN_TAG_VALUE : cipherSuite,
+                        k -> new AtomicReferenceArray<>(NO_OF_CONNECTION_ATTEMPT_OUTCOMES));
+        Counter counter = counters.get(outcome.ordinal());
+        if (counter == null) {
+            final Tags tags = Tags.of(outcome.asTag())
+                    .and(MetricsTags.getTenantTag(tenantId))
+                    .and(MetricsTags.getCipherSuiteTag(cipherSuite));
+
+            // registering the same meter concurrently is fine because the registry returns the existing meter
+            counter = Counter.builder(METER_CONNECTIONS_ATTEMPTS)
+                .tags(tags)
+                .register(this.registry);
+            counters.set(outcome.ordinal(), counter);
+        }
+        counter.increment();
     }
 
     @Override
@@ -283,21 +332,30 @@ public class MicrometerBasedMetrics implements Metrics, SendMessageSampler.Facto
             throw new IllegalArgumentException("payload size must not be negative");
         }
 
-        final Tags tags = Tags.of(type.asTag())
-                .and(MetricsTags.getTenantTag(tenantId))
-                .and(outcome.asTag())
-                .and(qos.asTag())
-                .and(ttdStatus.asTag());
-
-        timer.stop(this.registry.timer(METER_TELEMETRY_PROCESSING_DURATION, tags));
+        final int index = ((type.ordinal() * NO_OF_PROCESSING_OUTCOMES + outcome.ordinal())
+                * NO_OF_QOS_LEVELS + qos.ordinal()) * NO_OF_TTD_STATUSES + ttdStatus.ordinal();
+        final AtomicReferenceArray<TelemetryMeters> telemetryMeters = getTenantMeters(tenantId).telemetry;
+        TelemetryMeters meters = telemetryMeters.get(index);
+        if (meters == null) {
+            final Tags tags = Tags.of(type.asTag())
+                    .and(MetricsTags.getTenantTag(tenantId))
+                    .and(outcome.asTag())
+                    .and(qos.asTag())
+                    .and(ttdStatus.asTag());
+
+            meters = new TelemetryMeters(
+                    this.registry.timer(METER_TELEMETRY_PROCESSING_DURATION, tags),
+                    DistributionSummary.builder(METER_TELEMETRY_PAYLOAD)
+                        .baseUnit("bytes")
+                        .minimumExpectedValue(0.0)
+                        .tags(tags)
+                        .register(this.registry));
+            telemetryMeters.set(index, meters);
+        }
 
+        timer.stop(meters.processingDuration);
         // record payload size
-        DistributionSummary.builder(METER_TELEMETRY_PAYLOAD)
-            .baseUnit("bytes")
-            .minimumExpectedValue(0.0)
-            .tags(tags)
-            .register(this.registry)
-            .record(ServiceBaseUtils.calculatePayloadSize(payloadSize, tenantObject));
+        meters.payloadSize.record(ServiceBaseUtils.calculatePayloadSize(payloadSize, tenantObject));
 
         updateLastSeenTimestamp(tenantId);
     }
@@ -386,6 +444,17 @@ public class MicrometerBasedMetrics implements Metrics, SendMessageSampler.Facto
         return lastSeenTimestampPerTenant;
     }
 
+    // visible for testing
+    boolean hasMeterHandles(final String tenantId) {
+        return metersPerTenant.containsKey(tenantId);
+    }
+
+    private TenantMeters getTenantMeters(final String tenantId) {
+        return metersPerTenant.computeIfAbsent(
+                Strings.isNullOrEmpty(tenantId) ? UNKNOWN_TAG_VALUE : tenantId,
+                k -> new TenantMeters());
+    }
+
     private void updateLastSeenTimestamp(final String tenantId) {
         if (tenantIdleTimeout == DEFAULT_TENANT_IDLE_TIMEOUT) {
             return;
@@ -446,6 +515,7 @@ public class MicrometerBasedMetrics implements Metrics, SendMessageSampler.Facto
         registry.find(METER_AMQP_NOCREDIT).tags(tenantTag).meters().forEach(registry::remove);
         registry.find(METER_AMQP_DELIVERY_DURATION).tags(tenantTag).meters().forEach(registry::remove);
         registry.find(METER_AMQP_TIMEOUT).tags(tenantTag).meters().forEach(registry::remove);
+        metersPerTenant.remove(tenantId);
 
         final DeliveryOptions options = new DeliveryOptions();
         options.setTracingPolicy(TracingPolicy.IGNORE);
@@ -534,4 +604,33 @@ public class MicrometerBasedMetrics implements Metrics, SendMessageSampler.Facto
             }
         };
     }
+
+    /**
+     * The handles of the meters used for reporting the messages and connection attempts of a tenant.
+     */
+    private static final class TenantMeters {
+
+        /**
+         * The telemetry meters indexed by endpoint type, outcome, QoS and TTD status.
+         */
+        private final AtomicReferenceArray<TelemetryMeters> telemetry = new AtomicReferenceArray<>(NO_OF_TELEMETRY_METERS);
+        /**
+         * The connection attempt counters per cipher suite, indexed by outcome.
+         */
+        private final Map<String, AtomicReferenceArray<Counter>> connectionAttempts = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * The meters for a combination of telemetry message tags.
+     */
+    private static final class TelemetryMeters {
+
+        private final Timer processingDuration;
+        private final DistributionSummary payloadSize;
+
+        TelemetryMeters(final Timer processingDuration, final DistributionSummary payloadSize) {
+            this.processingDuration = processingDuration;
+            this.payloadSize = payloadSize;
+        }
+    }
 }
@@ -15,6 +15,7 @@
 package org.eclipse.hono.service.metric;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
@@ -318,6 +319,50 @@ public class MicrometerBasedMetricsTest {
 
     }
 
+    /**
+     * Verifies that the handles of the meters used for reporting telemetry messages are reused
+     * for subsequent messages and are discarded when the tenant's metrics are removed.
+     *
+     * @param registry The registry that the tests should be run against.
+     */
+    @ParameterizedTest
+    @MethodSource("registries")
+    public void testTimeoutEvictsCachedMeterHandles(final MeterRegistry registry) {
+
+        final Tags tenantTags = Tags.of(MetricsTags.getTenantTag(tenant));
+        final Vertx vertx = mock(Vertx.class);
+        when(vertx.eventBus()).thenReturn(mock(EventBus.class));
+        final AtomicReference<Handler<Long>> timerHandler = new AtomicReference<>();
+        when(vertx.setTimer(anyLong(), any())).thenAnswer(invocation -> {
+            final Handler<Long> task = invocation.getArgument(1);
+            timerHandler.set(task);
+            return 1L;
+        });
+
+        // GIVEN a metrics instance with tenantIdleTimeout configured ...
+        final MicrometerBasedMetrics metrics = new MicrometerBasedMetrics(registry, vertx);
+        metrics.setTenantIdleTimeout(Duration.ofMillis(1L));
+
+        // ... for which two telemetry messages have been reported
+        reportTelemetry(metrics);
+        reportTelemetry(metrics);
+        assertTrue(metrics.hasMeterHandles(tenant));
+        assertEquals(2, registry.find(MicrometerBasedMetrics.METER_TELEMETRY_PAYLOAD).tags(tenantTags)
+                .summary().count());
+
+        // WHEN the tenant times out
+        metrics.getLastSeenTimestampPerTenant().put(tenant, 0L); // fake timeout duration exceeded
+        timerHandler.get().handle(null);
+
+        // THEN the cached meter handles have been discarded
+        assertFalse(metrics.hasMeterHandles(tenant));
+
+        // and reporting another message registers a new meter
+        reportTelemetry(metrics);
+        assertEquals(1, registry.find(MicrometerBasedMetrics.METER_TELEMETRY_PAYLOAD).tags(tenantTags)
+                .summary().count());
+    }
+
     /**
      * Verifies that sending messages updates the stored timestamp for the tenant.
      *
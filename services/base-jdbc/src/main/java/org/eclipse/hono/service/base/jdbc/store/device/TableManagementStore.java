@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2020, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -87,6 +87,7 @@ public class TableManagementStore extends AbstractDeviceStore {
     private final Statement countDevicesOfTenantStatement;
 
     private final Statement findDevicesStatement;
+    private final Statement findDevicesAfterStatement;
 
     /**
      * Create a new instance.
@@ -197,6 +198,13 @@ public class TableManagementStore extends AbstractDeviceStore {
                         "page_size",
                         "page_offset");
 
+        this.findDevicesAfterStatement = cfg
+                .getRequiredStatement("findDevicesOfTenantAfter")
+                .validateParameters(
+                        "tenant_id",
+                        "last_device_id",
+                        "page_size");
+
     }
 
     /**
@@ -895,13 +903,53 @@ public class TableManagementStore extends AbstractDeviceStore {
      */
     public Future<SearchResult<DeviceWithId>> findDevices(final String tenantId, final int pageSize, final int pageOffset,
             final SpanContext spanContext) {
+        return findDevices(tenantId, pageSize, pageOffset, Optional.empty(), spanContext);
+    }
 
+    /**
+     * Gets a list of devices of a specific tenant.
+     * <p>
+     * If a page token is given, the devices following the device that the token has been created for
+     * are returned (keyset pagination). Otherwise, the given number of devices is skipped.
+     * In both cases, the result contains a token for retrieving the next page if the page is full.
+     *
+     * @param tenantId the tenantId to search devices
+     * @param pageSize the page size
+     * @param pageOffset the page offset, ignored if a page token is given
+     * @param pageToken the token returned as part of the previous page
+     * @param spanContext The span to contribute to.
+     * @return A future containing devices.
+     *         The future will be failed with a {@link ClientErrorException} having status 400
+     *         if the page token is malformed.
+     */
+    public Future<SearchResult<DeviceWithId>> findDevices(
+            final String tenantId,
+            final int pageSize,
+            final int pageOffset,
+            final Optional<String> pageToken,
+            final SpanContext spanContext) {
 
-        final var expanded = this.findDevicesStatement.expand(map -> {
-            map.put("tenant_id", tenantId);
-            map.put("page_size", pageSize);
-            map.put("page_offset", pageOffset);
-        });
+        final String lastDeviceId;
+        try {
+            lastDeviceId = pageToken.map(SearchResult::getLastIdFromPageToken).orElse(null);
+        } catch (final IllegalArgumentException e) {
+            return Future.failedFuture(new ClientErrorException(
+                    tenantId,
+                    HttpURLConnection.HTTP_BAD_REQUEST,
+                    "malformed page token"));
+        }
+
+        final var expanded = lastDeviceId == null
+                ? this.findDevicesStatement.expand(map -> {
+                    map.put("tenant_id", tenantId);
+                    map.put("page_size", pageSize);
+                    map.put("page_offset", pageOffset);
+                })
+                : this.findDevicesAfterStatement.expand(map -> {
+                    map.put("tenant_id", tenantId);
+                    map.put("last_device_id", lastDeviceId);
+                    map.put("page_size", pageSize);
+                });
 
         final Span span = TracingHelper.buildChildSpan(this.tracer, spanContext, "find devices", getClass().getSimpleName())
             .withTag(TracingHelper.TAG_TENANT_ID, tenantId)
@@ -928,12 +976,13 @@ public class TableManagementStore extends AbstractDeviceStore {
                             final JdbcBasedDeviceDto deviceDto = JdbcBasedDeviceDto.forRead(tenantId, id, entry);
                             list.add(DeviceWithId.from(id, deviceDto.getDeviceWithStatus()));
                         }
-                        return new SearchResult<>(deviceCountFuture.result(), list);
+                        final String nextPageToken = list.size() < pageSize
+                                ? null
+                                : SearchResult.createPageToken(list.get(list.size() - 1).getId());
+                        return new SearchResult<>(deviceCountFuture.result(), list, nextPageToken);
                     }
 
                 })
                 .onComplete(x -> span.finish());
     }
 }
-
-
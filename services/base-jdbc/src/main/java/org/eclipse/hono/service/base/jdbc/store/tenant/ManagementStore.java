@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2020, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -68,6 +68,7 @@ public class ManagementStore extends AbstractTenantStore {
     private final Statement deleteVersionedStatement;
 
     private final Statement findTenantsStatement;
+    private final Statement findTenantsAfterStatement;
 
     /**
      * Create a new instance.
@@ -135,7 +136,13 @@ public class ManagementStore extends AbstractTenantStore {
         this.findTenantsStatement = cfg.getRequiredStatement("findTenants")
             .validateParameters(
                 "page_size",
-                "page_offset");    }
+                "page_offset");
+
+        this.findTenantsAfterStatement = cfg.getRequiredStatement("findTenantsAfter")
+            .validateParameters(
+                "last_tenant_id",
+                "page_size");
+    }
 
     /**
      * Create a device statement configuration for the tenant store.
@@ -463,11 +470,49 @@ public class ManagementStore extends AbstractTenantStore {
      * @return A future containing tenants
      */
     public Future<SearchResult<TenantWithId>> find(final int pageSize, final int pageOffset, final SpanContext spanContext) {
+        return find(pageSize, pageOffset, Optional.empty(), spanContext);
+    }
 
-        final var expanded = this.findTenantsStatement.expand(map -> {
-            map.put("page_size", pageSize);
-            map.put("page_offset", pageOffset);
-        });
+    /**
+     * Gets a list of tenants.
+     * <p>
+     * If a page token is given, the tenants following the tenant that the token has been created for
+     * are returned (keyset pagination). Otherwise, the given number of tenants is skipped.
+     * In both cases, the result contains a token for retrieving the next page if the page is full.
+     *
+     * @param pageSize the page size
+     * @param pageOffset the page offset, ignored if a page token is given
+     * @param pageToken the token returned as part of the previous page
+     * @param spanContext The span to contribute to.
+     *
+     * @return A future containing tenants.
+     *         The future will be failed with a {@link ClientErrorException} having status 400
+     *         if the page token is malformed.
+     */
+    public Future<SearchResult<TenantWithId>> find(
+            final int pageSize,
+            final int pageOffset,
+            final Optional<String> pageToken,
+            final SpanContext spanContext) {
+
+        final String lastTenantId;
+        try {
+            lastTenantId = pageToken.map(SearchResult::getLastIdFromPageToken).orElse(null);
+        } catch (final IllegalArgumentException e) {
+            return Future.failedFuture(new ClientErrorException(
+                    HttpURLConnection.HTTP_BAD_REQUEST,
+                    "malformed page token"));
+        }
+
+        final var expanded = lastTenantId == null
+                ? this.findTenantsStatement.expand(map -> {
+                    map.put("page_size", pageSize);
+                    map.put("page_offset", pageOffset);
+                })
+                : this.findTenantsAfterStatement.expand(map -> {
+                    map.put("last_tenant_id", lastTenantId);
+                    map.put("page_size", pageSize);
+                });
 
         final Span span = TracingHelper.buildChildSpan(this.tracer, spanContext, "find tenants", getClass().getSimpleName())
             .start();
@@ -493,7 +538,10 @@ public class ManagementStore extends AbstractTenantStore {
                             final var tenant = Json.decodeValue(entry.getString("data"), Tenant.class);
                             list.add(TenantWithId.from(id, tenant));
                         }
-                        return new SearchResult<>(tenantCountFuture.result(), list);
+                        final String nextPageToken = list.size() < pageSize
+                                ? null
+                                : SearchResult.createPageToken(list.get(list.size() - 1).getId());
+                        return new SearchResult<>(tenantCountFuture.result(), list, nextPageToken);
                     }
 
                 })
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2021 Contributors to the Eclipse Foundation
+ * Copyright (c) 2021, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -13,6 +13,8 @@
 
 package org.eclipse.hono.commandrouter;
 
+import java.util.concurrent.TimeUnit;
+
 import org.eclipse.hono.service.metric.Metrics;
 import org.eclipse.hono.service.metric.NoopBasedMetrics;
 
@@ -35,5 +37,43 @@ public interface CommandRouterMetrics extends Metrics {
      */
     CommandRouterMetrics NOOP = new Noop();
 
-    // empty for now
+    /**
+     * Reports a change of the command topic partitions that the Command Router consumes command messages from.
+     *
+     * @param assignedPartitions The number of partitions that have been assigned.
+     * @param revokedPartitions The number of partitions that have been revoked.
+     */
+    default void reportCommandPartitionAssignmentChange(final int assignedPartitions, final int revokedPartitions) {
+        // do nothing by default
+    }
+
+    /**
+     * Reports the number of tenants for which command routing still needs to be re-enabled.
+     *
+     * @param pendingTenants The number of tenants that are waiting to be processed or that are being processed.
+     */
+    default void reportPendingTenantActivations(final int pendingTenants) {
+        // do nothing by default
+    }
+
+    /**
+     * Reports the outcome of an attempt to re-enable command routing for a tenant.
+     *
+     * @param succeeded {@code true} if the command consumer for the tenant has been created.
+     */
+    default void reportTenantActivation(final boolean succeeded) {
+        // do nothing by default
+    }
+
+    /**
+     * Reports that command routing has been re-enabled for all tenants that had been submitted.
+     *
+     * @param duration The amount of time it took from the first tenant being submitted until
+     *                 command routing had been re-enabled for all tenants.
+     * @param unit The time unit of the duration.
+     * @throws NullPointerException if unit is {@code null}.
+     */
+    default void reportCommandRoutingReenablingCompleted(final long duration, final TimeUnit unit) {
+        // do nothing by default
+    }
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2020, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -16,6 +16,7 @@ package org.eclipse.hono.commandrouter;
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import io.opentracing.Span;
 import io.vertx.core.Future;
@@ -92,6 +93,30 @@ public interface CommandRouterService {
     Future<CommandRouterResult> registerCommandConsumer(String tenantId, String deviceId, boolean sendEvent,
             String adapterInstanceId, Duration lifespan, Span span);
 
+    /**
+     * Registers a protocol adapter instance as the consumer of command &amp; control messages
+     * for multiple devices.
+     * <p>
+     * This method is mainly intended to be used by protocol adapters when a gateway (re-)connects and
+     * subscribes to commands for the devices it acts on behalf of.
+     *
+     * @param tenantId The tenant id.
+     * @param deviceIds The device ids.
+     * @param sendEvent {@code true} if <em>connected notification</em> events should be sent.
+     * @param adapterInstanceId The protocol adapter instance id.
+     * @param lifespan The lifespan of the mapping entries. Using a negative duration or {@code null} here is
+     *                 interpreted as an unlimited lifespan. The guaranteed granularity taken into account
+     *                 here is seconds.
+     * @param span The active OpenTracing span for this operation. It is not to be closed in this method! An
+     *            implementation should log (error) events on this span and it may set tags and use this span as the
+     *            parent for any spans created in this method.
+     * @return A future indicating the outcome of the operation.
+     *         The <em>status</em> will be <em>204 No Content</em> if the operation completed successfully.
+     * @throws NullPointerException if any of the parameters except lifespan is {@code null}.
+     */
+    Future<CommandRouterResult> registerCommandConsumers(String tenantId, Set<String> deviceIds, boolean sendEvent,
+            String adapterInstanceId, Duration lifespan, Span span);
+
     /**
      * Unregisters a command consumer for a device.
      * <p>
@@ -111,6 +136,27 @@ public interface CommandRouterService {
     Future<CommandRouterResult> unregisterCommandConsumer(String tenantId, String deviceId, boolean sendEvent,
             String adapterInstanceId, Span span);
 
+    /**
+     * Unregisters the command consumers for multiple devices.
+     * <p>
+     * The registration entry of a device is only deleted if the device is currently mapped to the given
+     * adapter instance. Entries of devices that are not mapped to the given adapter instance (anymore) are
+     * skipped and do not cause the operation to fail.
+     *
+     * @param tenantId The tenant id.
+     * @param deviceIds The device ids.
+     * @param sendEvent {@code true} if <em>disconnected notification</em> events should be sent.
+     * @param adapterInstanceId The protocol adapter instance id that the entries to be removed have to contain.
+     * @param span The active OpenTracing span for this operation. It is not to be closed in this method! An
+     *            implementation should log (error) events on this span and it may set tags and use this span as the
+     *            parent for any spans created in this method.
+     * @return A future indicating the outcome of the operation.
+     *         The <em>status</em> will be <em>204 No Content</em> if the entries have been processed successfully.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     */
+    Future<CommandRouterResult> unregisterCommandConsumers(String tenantId, Set<String> deviceIds, boolean sendEvent,
+            String adapterInstanceId, Span span);
+
     /**
      * Adds tenants for which command routing should be enabled.
      * <p>
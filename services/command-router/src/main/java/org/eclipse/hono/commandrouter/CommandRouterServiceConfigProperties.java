@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2020, 2021 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -12,12 +12,25 @@
  *******************************************************************************/
 package org.eclipse.hono.commandrouter;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+import org.eclipse.hono.util.Hostnames;
+
 /**
  * Configuration properties for Hono's Command Router service.
  */
 public class CommandRouterServiceConfigProperties {
 
     private boolean kubernetesBasedAdapterInstanceStatusServiceEnabled = true;
+    private boolean kafkaExplicitPartitionAssignmentEnabled = false;
+    private String instanceId = Hostnames.getHostname();
+    private List<String> instanceIds = List.of();
+    private Duration kafkaPartitionAssignmentRefreshInterval = Duration.ofSeconds(30);
+    private Duration lastKnownGatewayUpdateMaxDelay = Duration.ZERO;
+    private Duration lastKnownGatewayRefreshInterval = Duration.ZERO;
+    private int maxConcurrentTenantActivations = 10;
 
     /**
      * Creates new properties using default values.
@@ -33,6 +46,13 @@ public class CommandRouterServiceConfigProperties {
      */
     public CommandRouterServiceConfigProperties(final CommandRouterServiceOptions options) {
         setKubernetesBasedAdapterInstanceStatusServiceEnabled(options.kubernetesBasedAdapterInstanceStatusServiceEnabled());
+        setKafkaExplicitPartitionAssignmentEnabled(options.kafkaExplicitPartitionAssignmentEnabled());
+        options.instanceId().ifPresent(this::setInstanceId);
+        options.instanceIds().ifPresent(this::setInstanceIds);
+        setKafkaPartitionAssignmentRefreshInterval(options.kafkaPartitionAssignmentRefreshInterval());
+        setLastKnownGatewayUpdateMaxDelay(options.lastKnownGatewayUpdateMaxDelay());
+        setLastKnownGatewayRefreshInterval(options.lastKnownGatewayRefreshInterval());
+        setMaxConcurrentTenantActivations(options.maxConcurrentTenantActivations());
     }
 
     /**
@@ -59,4 +79,222 @@ public class CommandRouterServiceConfigProperties {
         this.kubernetesBasedAdapterInstanceStatusServiceEnabled = kubernetesBasedAdapterInstanceStatusServiceEnabled;
         return this;
     }
+
+    /**
+     * Checks whether the partitions of the Kafka command topics are explicitly assigned to the Command Router
+     * instances instead of being distributed by means of a consumer group rebalance.
+     * <p>
+     * The default value of this property is {@code false}.
+     *
+     * @return {@code true} if the partitions are assigned explicitly.
+     */
+    public final boolean isKafkaExplicitPartitionAssignmentEnabled() {
+        return kafkaExplicitPartitionAssignmentEnabled;
+    }
+
+    /**
+     * Sets whether the partitions of the Kafka command topics should be explicitly assigned to the Command Router
+     * instances instead of being distributed by means of a consumer group rebalance.
+     * <p>
+     * The default value of this property is {@code false}.
+     *
+     * @param kafkaExplicitPartitionAssignmentEnabled {@code true} if the partitions should be assigned explicitly.
+     * @return This instance for setter chaining.
+     */
+    public final CommandRouterServiceConfigProperties setKafkaExplicitPartitionAssignmentEnabled(
+            final boolean kafkaExplicitPartitionAssignmentEnabled) {
+        this.kafkaExplicitPartitionAssignmentEnabled = kafkaExplicitPartitionAssignmentEnabled;
+        return this;
+    }
+
+    /**
+     * Gets the identifier of this Command Router instance.
+     * <p>
+     * The default value of this property is the host name.
+     *
+     * @return The identifier.
+     */
+    public final String getInstanceId() {
+        return instanceId;
+    }
+
+    /**
+     * Sets the identifier of this Command Router instance.
+     * <p>
+     * The default value of this property is the host name.
+     *
+     * @param instanceId The identifier.
+     * @return This instance for setter chaining.
+     * @throws NullPointerException if identifier is {@code null}.
+     */
+    public final CommandRouterServiceConfigProperties setInstanceId(final String instanceId) {
+        this.instanceId = Objects.requireNonNull(instanceId);
+        return this;
+    }
+
+    /**
+     * Gets the identifiers of all Command Router instances that the Kafka command topic partitions
+     * are distributed among if explicit partition assignment is enabled.
+     * <p>
+     * The default value of this property is an empty list. The list must contain the identifier of this
+     * instance if explicit partition assignment is enabled.
+     *
+     * @return The (unmodifiable) identifiers.
+     */
+    public final List<String> getInstanceIds() {
+        return instanceIds;
+    }
+
+    /**
+     * Sets the identifiers of all Command Router instances that the Kafka command topic partitions
+     * are distributed among if explicit partition assignment is enabled.
+     * <p>
+     * The default value of this property is an empty list. The list must contain the identifier of this
+     * instance if explicit partition assignment is enabled.
+     *
+     * @param instanceIds The identifiers.
+     * @return This instance for setter chaining.
+     * @throws NullPointerException if identifiers are {@code null}.
+     */
+    public final CommandRouterServiceConfigProperties setInstanceIds(final List<String> instanceIds) {
+        this.instanceIds = List.copyOf(instanceIds);
+        return this;
+    }
+
+    /**
+     * Gets the interval at which the Kafka command topics are retrieved in order to update the
+     * explicit partition assignment.
+     * <p>
+     * The default value of this property is 30 seconds.
+     *
+     * @return The interval.
+     */
+    public final Duration getKafkaPartitionAssignmentRefreshInterval() {
+        return kafkaPartitionAssignmentRefreshInterval;
+    }
+
+    /**
+     * Sets the interval at which the Kafka command topics are retrieved in order to update the
+     * explicit partition assignment.
+     * <p>
+     * The default value of this property is 30 seconds.
+     *
+     * @param interval The interval.
+     * @return This instance for setter chaining.
+     * @throws NullPointerException if interval is {@code null}.
+     * @throws IllegalArgumentException if the interval is shorter than one second.
+     */
+    public final CommandRouterServiceConfigProperties setKafkaPartitionAssignmentRefreshInterval(
+            final Duration interval) {
+        Objects.requireNonNull(interval);
+        if (interval.toMillis() < 1000) {
+            throw new IllegalArgumentException("refresh interval must be at least one second");
+        }
+        this.kafkaPartitionAssignmentRefreshInterval = interval;
+        return this;
+    }
+
+    /**
+     * Gets the maximum amount of time that updates of the last known gateway of devices are delayed
+     * in order to write them to the cache in batches.
+     * <p>
+     * The default value of this property is zero, i.e. updates are written right away.
+     *
+     * @return The maximum delay.
+     */
+    public final Duration getLastKnownGatewayUpdateMaxDelay() {
+        return lastKnownGatewayUpdateMaxDelay;
+    }
+
+    /**
+     * Sets the maximum amount of time that updates of the last known gateway of devices are delayed
+     * in order to write them to the cache in batches.
+     * <p>
+     * The default value of this property is zero, i.e. updates are written right away.
+     *
+     * @param maxDelay The maximum delay.
+     * @return This instance for setter chaining.
+     * @throws NullPointerException if max delay is {@code null}.
+     * @throws IllegalArgumentException if the max delay is negative.
+     */
+    public final CommandRouterServiceConfigProperties setLastKnownGatewayUpdateMaxDelay(final Duration maxDelay) {
+        Objects.requireNonNull(maxDelay);
+        if (maxDelay.isNegative()) {
+            throw new IllegalArgumentException("max delay must not be negative");
+        }
+        this.lastKnownGatewayUpdateMaxDelay = maxDelay;
+        return this;
+    }
+
+    /**
+     * Gets the amount of time during which an update of the last known gateway of a device is skipped
+     * if it does not change the value that has already been written.
+     * <p>
+     * The default value of this property is zero, i.e. updates are never skipped.
+     *
+     * @return The refresh interval.
+     */
+    public final Duration getLastKnownGatewayRefreshInterval() {
+        return lastKnownGatewayRefreshInterval;
+    }
+
+    /**
+     * Sets the amount of time during which an update of the last known gateway of a device is skipped
+     * if it does not change the value that has already been written.
+     * <p>
+     * The default value of this property is zero, i.e. updates are never skipped.
+     *
+     * @param interval The refresh interval.
+     * @return This instance for setter chaining.
+     * @throws NullPointerException if interval is {@code null}.
+     * @throws IllegalArgumentException if the interval is negative.
+     */
+    public final CommandRouterServiceConfigProperties setLastKnownGatewayRefreshInterval(final Duration interval) {
+        Objects.requireNonNull(interval);
+        if (interval.isNegative()) {
+            throw new IllegalArgumentException("refresh interval must not be negative");
+        }
+        this.lastKnownGatewayRefreshInterval = interval;
+        return this;
+    }
+
+    /**
+     * Checks whether updates of the last known gateway of devices are delayed or skipped.
+     *
+     * @return {@code true} if the max delay or the refresh interval are greater than zero.
+     */
+    public final boolean isLastKnownGatewayUpdateCoalescingEnabled() {
+        return !lastKnownGatewayUpdateMaxDelay.isZero() || !lastKnownGatewayRefreshInterval.isZero();
+    }
+
+    /**
+     * Gets the maximum number of tenants for which command routing is re-enabled concurrently,
+     * e.g. after a restart of Command Router instances.
+     * <p>
+     * The default value of this property is 10.
+     *
+     * @return The maximum number of tenants.
+     */
+    public final int getMaxConcurrentTenantActivations() {
+        return maxConcurrentTenantActivations;
+    }
+
+    /**
+     * Sets the maximum number of tenants for which command routing is re-enabled concurrently,
+     * e.g. after a restart of Command Router instances.
+     * <p>
+     * The default value of this property is 10.
+     *
+     * @param maxConcurrentTenantActivations The maximum number of tenants.
+     * @return This instance for setter chaining.
+     * @throws IllegalArgumentException if the number is smaller than 1.
+     */
+    public final CommandRouterServiceConfigProperties setMaxConcurrentTenantActivations(
+            final int maxConcurrentTenantActivations) {
+        if (maxConcurrentTenantActivations < 1) {
+            throw new IllegalArgumentException("max concurrent tenant activations must be > 0");
+        }
+        this.maxConcurrentTenantActivations = maxConcurrentTenantActivations;
+        return this;
+    }
 }
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2021 Contributors to the Eclipse Foundation
+ * Copyright (c) 2021, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -14,6 +14,10 @@
 
 package org.eclipse.hono.commandrouter;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
 import io.smallrye.config.ConfigMapping;
 import io.smallrye.config.ConfigMapping.NamingStrategy;
 import io.smallrye.config.WithDefault;
@@ -31,4 +35,64 @@ public interface CommandRouterServiceOptions {
      */
     @WithDefault("true")
     boolean kubernetesBasedAdapterInstanceStatusServiceEnabled();
+
+    /**
+     * Checks whether the partitions of the Kafka command topics are explicitly assigned to the Command Router
+     * instances instead of being distributed by means of a consumer group rebalance.
+     *
+     * @return {@code true} if the partitions are assigned explicitly.
+     */
+    @WithDefault("false")
+    boolean kafkaExplicitPartitionAssignmentEnabled();
+
+    /**
+     * Gets the identifier of this Command Router instance.
+     *
+     * @return The identifier.
+     */
+    Optional<String> instanceId();
+
+    /**
+     * Gets the identifiers of all Command Router instances that the Kafka command topic partitions
+     * are distributed among.
+     *
+     * @return The identifiers.
+     */
+    Optional<List<String>> instanceIds();
+
+    /**
+     * Gets the interval at which the Kafka command topics are retrieved in order to update the
+     * explicit partition assignment.
+     *
+     * @return The interval.
+     */
+    @WithDefault("PT30S")
+    Duration kafkaPartitionAssignmentRefreshInterval();
+
+    /**
+     * Gets the maximum amount of time that updates of the last known gateway of devices are delayed
+     * in order to write them to the cache in batches.
+     *
+     * @return The maximum delay. A duration of zero indicates that updates are written right away.
+     */
+    @WithDefault("PT0S")
+    Duration lastKnownGatewayUpdateMaxDelay();
+
+    /**
+     * Gets the amount of time during which an update of the last known gateway of a device is skipped
+     * if it does not change the value that has already been written.
+     *
+     * @return The refresh interval. A duration of zero indicates that updates are never skipped.
+     */
+    @WithDefault("PT0S")
+    Duration lastKnownGatewayRefreshInterval();
+
+    /**
+     * Gets the maximum number of tenants for which command routing is re-enabled concurrently,
+     * e.g. after a restart of Command Router instances.
+     *
+     * @return The maximum number of tenants.
+     */
+    @WithDefault("10")
+    int maxConcurrentTenantActivations();
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2021 Contributors to the Eclipse Foundation
+ * Copyright (c) 2021, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -13,6 +13,10 @@
 
 package org.eclipse.hono.commandrouter;
 
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.eclipse.hono.service.metric.MicrometerBasedMetrics;
 
 import io.micrometer.core.instrument.MeterRegistry;
@@ -23,6 +27,34 @@ import io.vertx.core.Vertx;
  */
 public class MicrometerBasedCommandRouterMetrics extends MicrometerBasedMetrics implements CommandRouterMetrics {
 
+    /**
+     * The name of the counter tracking the number of command topic partitions that have been
+     * assigned to or revoked from the Command Router.
+     */
+    public static final String METER_COMMAND_PARTITIONS_ASSIGNMENT_CHANGES = "hono.command.partitions.assignment.changes";
+    /**
+     * The name of the tag that indicates the kind of assignment change.
+     */
+    public static final String TAG_CHANGE = "change";
+    /**
+     * The name of the gauge tracking the number of tenants for which command routing still needs to be re-enabled.
+     */
+    public static final String METER_COMMAND_ROUTING_ACTIVATIONS_PENDING = "hono.command.routing.activations.pending";
+    /**
+     * The name of the counter tracking the attempts to re-enable command routing for a tenant.
+     */
+    public static final String METER_COMMAND_ROUTING_ACTIVATIONS = "hono.command.routing.activations";
+    /**
+     * The name of the timer tracking the time it took to re-enable command routing for all submitted tenants.
+     */
+    public static final String METER_COMMAND_ROUTING_RECOVERY_DURATION = "hono.command.routing.recovery.duration";
+    /**
+     * The name of the tag that indicates the outcome of an attempt to re-enable command routing for a tenant.
+     */
+    public static final String TAG_OUTCOME = "outcome";
+
+    private final AtomicInteger pendingTenantActivations = new AtomicInteger();
+
     /**
      * Create a new metrics instance for the Command Router service.
      *
@@ -33,5 +65,35 @@ public class MicrometerBasedCommandRouterMetrics extends MicrometerBasedMetrics
      */
     public MicrometerBasedCommandRouterMetrics(final MeterRegistry registry, final Vertx vertx) {
         super(registry, vertx);
+        registry.gauge(METER_COMMAND_ROUTING_ACTIVATIONS_PENDING, pendingTenantActivations);
+    }
+
+    @Override
+    public void reportCommandPartitionAssignmentChange(final int assignedPartitions, final int revokedPartitions) {
+        if (assignedPartitions > 0) {
+            registry.counter(METER_COMMAND_PARTITIONS_ASSIGNMENT_CHANGES, TAG_CHANGE, "assigned")
+                .increment(assignedPartitions);
+        }
+        if (revokedPartitions > 0) {
+            registry.counter(METER_COMMAND_PARTITIONS_ASSIGNMENT_CHANGES, TAG_CHANGE, "revoked")
+                .increment(revokedPartitions);
+        }
+    }
+
+    @Override
+    public void reportPendingTenantActivations(final int pendingTenants) {
+        pendingTenantActivations.set(pendingTenants);
+    }
+
+    @Override
+    public void reportTenantActivation(final boolean succeeded) {
+        registry.counter(METER_COMMAND_ROUTING_ACTIVATIONS, TAG_OUTCOME, succeeded ? "succeeded" : "failed")
+            .increment();
+    }
+
+    @Override
+    public void reportCommandRoutingReenablingCompleted(final long duration, final TimeUnit unit) {
+        Objects.requireNonNull(unit);
+        registry.timer(METER_COMMAND_ROUTING_RECOVERY_DURATION).record(duration, unit);
     }
 }
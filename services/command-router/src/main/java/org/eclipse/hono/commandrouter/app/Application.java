@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2021, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2021, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -49,21 +49,27 @@ import org.eclipse.hono.client.telemetry.amqp.ProtonBasedDownstreamSender;
 import org.eclipse.hono.client.telemetry.kafka.KafkaBasedEventSender;
 import org.eclipse.hono.client.telemetry.pubsub.PubSubBasedDownstreamSender;
 import org.eclipse.hono.client.util.MessagingClientProvider;
+import org.eclipse.hono.client.util.ResponseCacheIndex;
 import org.eclipse.hono.commandrouter.AdapterInstanceStatusService;
 import org.eclipse.hono.commandrouter.CommandConsumerFactory;
 import org.eclipse.hono.commandrouter.CommandRouterAmqpServer;
 import org.eclipse.hono.commandrouter.CommandRouterMetrics;
 import org.eclipse.hono.commandrouter.CommandRouterService;
+import org.eclipse.hono.commandrouter.CommandRouterServiceConfigProperties;
+import org.eclipse.hono.commandrouter.CommandRouterServiceOptions;
 import org.eclipse.hono.commandrouter.CommandTargetMapper;
 import org.eclipse.hono.commandrouter.impl.CommandRouterServiceImpl;
 import org.eclipse.hono.commandrouter.impl.DelegatingCommandRouterAmqpEndpoint;
 import org.eclipse.hono.commandrouter.impl.UnknownStatusProvidingService;
 import org.eclipse.hono.commandrouter.impl.amqp.ProtonBasedCommandConsumerFactoryImpl;
+import org.eclipse.hono.commandrouter.impl.kafka.CacheBasedInstanceMembership;
+import org.eclipse.hono.commandrouter.impl.kafka.ConsistentHashingPartitionFilter;
 import org.eclipse.hono.commandrouter.impl.kafka.InternalKafkaTopicCleanupService;
 import org.eclipse.hono.commandrouter.impl.kafka.KafkaBasedCommandConsumerFactoryImpl;
 import org.eclipse.hono.commandrouter.impl.pubsub.PubSubBasedCommandConsumerFactoryImpl;
 import org.eclipse.hono.config.ServiceConfigProperties;
 import org.eclipse.hono.config.ServiceOptions;
+import org.eclipse.hono.deviceconnection.infinispan.client.BasicCache;
 import org.eclipse.hono.deviceconnection.infinispan.client.DeviceConnectionInfo;
 import org.eclipse.hono.service.HealthCheckProvider;
 import org.eclipse.hono.service.NotificationSupportingServiceApplication;
@@ -103,6 +109,9 @@ public class Application extends NotificationSupportingServiceApplication {
     @Inject
     DeviceConnectionInfo deviceConnectionInfo;
 
+    @Inject
+    BasicCache<String, String> deviceConnectionCache;
+
     @Inject
     ProtonSaslAuthenticatorFactory saslAuthenticatorFactory;
 
@@ -123,6 +132,7 @@ public class Application extends NotificationSupportingServiceApplication {
     HealthRegistry readinessChecks;
 
     private ServiceConfigProperties amqpServerProperties;
+    private CommandRouterServiceConfigProperties commandRouterServiceConfig;
     private ClientConfigProperties commandConsumerConnectionConfig;
     private RequestResponseClientConfigProperties deviceRegistrationClientConfig;
     private ClientConfigProperties downstreamSenderConfig;
@@ -136,6 +146,9 @@ public class Application extends NotificationSupportingServiceApplication {
 
     private Cache<Object, RegistrationResult> registrationResponseCache;
     private Cache<Object, TenantResult<TenantObject>> tenantResponseCache;
+    private final ResponseCacheIndex registrationResponseCacheIndex = new ResponseCacheIndex();
+    private final ResponseCacheIndex tenantResponseCacheIndex = new ResponseCacheIndex();
+    private ConsistentHashingPartitionFilter partitionFilter;
 
     private PubSubConfigProperties pubSubConfigProperties;
 
@@ -144,6 +157,11 @@ public class Application extends NotificationSupportingServiceApplication {
         this.pubSubConfigProperties = new PubSubConfigProperties(options);
     }
 
+    @Inject
+    void setCommandRouterServiceOptions(final CommandRouterServiceOptions options) {
+        this.commandRouterServiceConfig = new CommandRouterServiceConfigProperties(options);
+    }
+
     @Inject
     void setAmqpServerOptions(
             @ConfigMapping(prefix = "hono.commandRouter.amqp")
@@ -267,6 +285,15 @@ public class Application extends NotificationSupportingServiceApplication {
             throw new IllegalStateException("Authentication service must be a vert.x Verticle");
         }
 
+        if (commandRouterServiceConfig.isKafkaExplicitPartitionAssignmentEnabled()) {
+            // fail early instead of silently consuming partitions that other instances consume as well
+            partitionFilter = new ConsistentHashingPartitionFilter(
+                    commandRouterServiceConfig.getInstanceId(),
+                    commandRouterServiceConfig.getInstanceIds());
+            LOG.info("distributing command topic partitions among Command Router instances {} [own instance: {}]",
+                    partitionFilter.getInstanceIds(), partitionFilter.getInstanceId());
+        }
+
         final var instancesToDeploy = appConfig.getMaxInstances();
         LOG.info("deploying {} {} instances ...", instancesToDeploy, getComponentName());
         final Map<String, String> deploymentResult = new HashMap<>();
@@ -279,10 +306,21 @@ public class Application extends NotificationSupportingServiceApplication {
                     registerHealthCheckProvider(authenticationService);
                 });
 
+        // deploy Command Router instance membership service (once only)
+        // before the AMQP server so that the Kafka command consumer starts with the live instances
+        final Future<String> instanceMembershipDeploymentTracker = createInstanceMembership()
+                .map(service -> vertx.deployVerticle(service)
+                        .onSuccess(ok -> {
+                            LOG.info("successfully deployed Command Router instance membership verticle");
+                            deploymentResult.put("Command Router instance membership verticle", "successfully deployed");
+                        }))
+                .orElse(Future.succeededFuture());
+
         // deploy AMQP 1.0 server
-        final Future<String> amqpServerDeploymentTracker = vertx.deployVerticle(
+        final Future<String> amqpServerDeploymentTracker = instanceMembershipDeploymentTracker
+            .compose(ok -> vertx.deployVerticle(
                 this::amqpServer,
-                new DeploymentOptions().setInstances(instancesToDeploy))
+                new DeploymentOptions().setInstances(instancesToDeploy)))
             .onSuccess(ok -> {
                 LOG.info("successfully deployed AMQP server verticle(s)");
                 deploymentResult.put("AMQP server verticle(s)", "successfully deployed");
@@ -311,7 +349,8 @@ public class Application extends NotificationSupportingServiceApplication {
                 authServiceDeploymentTracker,
                 amqpServerDeploymentTracker,
                 notificationReceiverTracker,
-                topicCleanUpServiceDeploymentTracker)
+                topicCleanUpServiceDeploymentTracker,
+                instanceMembershipDeploymentTracker)
             .map(deploymentResult)
             .onComplete(deploymentCheck);
     }
@@ -356,7 +395,7 @@ public class Application extends NotificationSupportingServiceApplication {
         final TenantClient tenantClient = tenantClient();
 
         final var commandTargetMapper = CommandTargetMapper.create(registrationClient, deviceConnectionInfo, tracer);
-        return new CommandRouterServiceImpl(
+        final var service = new CommandRouterServiceImpl(
                 amqpServerProperties,
                 registrationClient,
                 tenantClient,
@@ -365,6 +404,9 @@ public class Application extends NotificationSupportingServiceApplication {
                 eventSenderProvider(),
                 adapterInstanceStatusService,
                 tracer);
+        service.setMetrics(metrics);
+        service.setMaxConcurrentTenantActivations(commandRouterServiceConfig.getMaxConcurrentTenantActivations());
+        return service;
     }
 
     private Optional<InternalKafkaTopicCleanupService> createKafkaTopicCleanUpService() {
@@ -378,6 +420,17 @@ public class Application extends NotificationSupportingServiceApplication {
         }
     }
 
+    private Optional<CacheBasedInstanceMembership> createInstanceMembership() {
+        if (partitionFilter != null && !appConfig.isKafkaMessagingDisabled() && kafkaConsumerConfig.isConfigured()) {
+            return Optional.of(new CacheBasedInstanceMembership(
+                    deviceConnectionCache,
+                    partitionFilter,
+                    commandRouterServiceConfig.getKafkaPartitionAssignmentRefreshInterval()));
+        } else {
+            return Optional.empty();
+        }
+    }
+
     private MessagingClientProvider<CommandConsumerFactory> commandConsumerFactoryProvider(
             final TenantClient tenantClient,
             final CommandTargetMapper commandTargetMapper) {
@@ -390,7 +443,7 @@ public class Application extends NotificationSupportingServiceApplication {
 
             final var kafkaProducerFactory = CachingKafkaProducerFactory.<String, Buffer>sharedFactory(vertx);
             kafkaProducerFactory.setMetricsSupport(kafkaClientMetricsSupport);
-            commandConsumerFactoryProvider.setClient(new KafkaBasedCommandConsumerFactoryImpl(
+            final var kafkaBasedCommandConsumerFactory = new KafkaBasedCommandConsumerFactoryImpl(
                     vertx,
                     tenantClient,
                     commandTargetMapper,
@@ -400,7 +453,13 @@ public class Application extends NotificationSupportingServiceApplication {
                     kafkaConsumerConfig,
                     metrics,
                     kafkaClientMetricsSupport,
-                    tracer));
+                    tracer);
+            if (partitionFilter != null) {
+                kafkaBasedCommandConsumerFactory.setExplicitPartitionAssignment(
+                        partitionFilter,
+                        commandRouterServiceConfig.getKafkaPartitionAssignmentRefreshInterval());
+            }
+            commandConsumerFactoryProvider.setClient(kafkaBasedCommandConsumerFactory);
         }
         if (!appConfig.isAmqpMessagingDisabled() && commandConsumerConnectionConfig.isHostConfigured()) {
             commandConsumerFactoryProvider.setClient(new ProtonBasedCommandConsumerFactoryImpl(
@@ -481,14 +540,14 @@ public class Application extends NotificationSupportingServiceApplication {
 
     private Cache<Object, RegistrationResult> registrationResponseCache() {
         if (registrationResponseCache == null) {
-            registrationResponseCache = Caches.newCaffeineCache(deviceRegistrationClientConfig);
+            registrationResponseCache = Caches.newCaffeineCache(deviceRegistrationClientConfig, registrationResponseCacheIndex);
         }
         return registrationResponseCache;
     }
 
     private Cache<Object, TenantResult<TenantObject>> tenantResponseCache() {
         if (tenantResponseCache == null) {
-            tenantResponseCache = Caches.newCaffeineCache(tenantClientConfig);
+            tenantResponseCache = Caches.newCaffeineCache(tenantClientConfig, tenantResponseCacheIndex);
         }
         return tenantResponseCache;
     }
@@ -502,7 +561,8 @@ public class Application extends NotificationSupportingServiceApplication {
         return new ProtonBasedDeviceRegistrationClient(
                 HonoConnection.newConnection(vertx, deviceRegistrationClientConfig, tracer),
                 SendMessageSampler.Factory.noop(),
-                registrationResponseCache());
+                registrationResponseCache(),
+                registrationResponseCacheIndex);
     }
 
     /**
@@ -514,6 +574,7 @@ public class Application extends NotificationSupportingServiceApplication {
         return new ProtonBasedTenantClient(
                 HonoConnection.newConnection(vertx, tenantClientConfig, tracer),
                 SendMessageSampler.Factory.noop(),
-                tenantResponseCache());
+                tenantResponseCache(),
+                tenantResponseCacheIndex);
     }
 }
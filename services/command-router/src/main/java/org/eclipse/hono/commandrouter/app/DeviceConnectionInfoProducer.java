@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2021, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2021, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -24,20 +24,24 @@ import javax.enterprise.inject.Produces;
 import javax.inject.Singleton;
 
 import org.eclipse.hono.commandrouter.AdapterInstanceStatusService;
+import org.eclipse.hono.commandrouter.CommandRouterServiceConfigProperties;
 import org.eclipse.hono.commandrouter.CommandRouterServiceOptions;
 import org.eclipse.hono.commandrouter.impl.KubernetesBasedAdapterInstanceStatusService;
 import org.eclipse.hono.commandrouter.impl.UnknownStatusProvidingService;
 import org.eclipse.hono.deviceconnection.infinispan.client.BasicCache;
+import org.eclipse.hono.deviceconnection.infinispan.client.Cache;
 import org.eclipse.hono.deviceconnection.infinispan.client.CacheBasedDeviceConnectionInfo;
 import org.eclipse.hono.deviceconnection.infinispan.client.CommonCacheConfig;
 import org.eclipse.hono.deviceconnection.infinispan.client.CommonCacheOptions;
 import org.eclipse.hono.deviceconnection.infinispan.client.DeviceConnectionInfo;
 import org.eclipse.hono.deviceconnection.infinispan.client.EmbeddedCache;
+import org.eclipse.hono.deviceconnection.infinispan.client.EmbeddedCacheConfig;
+import org.eclipse.hono.deviceconnection.infinispan.client.EmbeddedCacheOptions;
 import org.eclipse.hono.deviceconnection.infinispan.client.HotrodCache;
 import org.eclipse.hono.deviceconnection.infinispan.client.InfinispanRemoteConfigurationOptions;
 import org.eclipse.hono.deviceconnection.infinispan.client.InfinispanRemoteConfigurationProperties;
+import org.eclipse.hono.deviceconnection.infinispan.client.NearCache;
 import org.eclipse.hono.util.Strings;
-import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.infinispan.configuration.parsing.ConfigurationBuilderHolder;
 import org.infinispan.configuration.parsing.ParserRegistry;
 import org.infinispan.manager.DefaultCacheManager;
@@ -45,6 +49,7 @@ import org.infinispan.manager.EmbeddedCacheManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.opentracing.Tracer;
 import io.smallrye.config.ConfigMapping;
 import io.vertx.core.Vertx;
@@ -54,30 +59,71 @@ import io.vertx.core.Vertx;
  * <p>
  * The underlying cache implementation will store data in-memory or in a remote cache, depending
  * on whether a remote cache config with a non-empty server list is used or not.
+ * In case of a remote cache, a local near cache may be configured in front of it.
  */
 @ApplicationScoped
 public class DeviceConnectionInfoProducer {
 
     private static final Logger LOG = LoggerFactory.getLogger(DeviceConnectionInfoProducer.class);
 
-    @ConfigProperty(name = "hono.commandRouter.cache.embedded.configurationFile", defaultValue = "/etc/hono/cache-config.xml")
-    String configFile;
-
     @Produces
     DeviceConnectionInfo deviceConnectionInfo(
             final BasicCache<String, String> cache,
+            @ConfigMapping(prefix = "hono.commandRouter.cache.common")
+            final CommonCacheOptions commonCacheOptions,
+            final CommandRouterServiceOptions commandRouterServiceOptions,
+            final MeterRegistry meterRegistry,
+            final Vertx vertx,
             final Tracer tracer,
             final AdapterInstanceStatusService adapterInstanceStatusService) {
-        return new CacheBasedDeviceConnectionInfo(cache, tracer, adapterInstanceStatusService);
+
+        final var commonCacheConfig = new CommonCacheConfig(commonCacheOptions);
+        Cache<String, String> deviceConnectionCache = cache;
+        if (commonCacheConfig.getNearCacheMaxSize() > 0) {
+            if (cache instanceof HotrodCache<String, String> remoteCache) {
+                LOG.info("configuring near cache [max size: {}, max staleness: {}]",
+                        commonCacheConfig.getNearCacheMaxSize(), commonCacheConfig.getNearCacheMaxStaleness());
+                final var nearCache = new NearCache<>(
+                        remoteCache,
+                        commonCacheConfig.getNearCacheMaxSize(),
+                        commonCacheConfig.getNearCacheMaxStaleness(),
+                        meterRegistry);
+                remoteCache.addEntryInvalidationHandlers(
+                        CacheBasedDeviceConnectionInfo::isDeviceConnectionInfoKey,
+                        nearCache::invalidate,
+                        nearCache::invalidateAll);
+                deviceConnectionCache = nearCache;
+            } else {
+                LOG.info("ignoring near cache configuration, near cache is only supported for remote cache");
+            }
+        }
+        final var deviceConnectionInfo = new CacheBasedDeviceConnectionInfo(
+                deviceConnectionCache,
+                tracer,
+                adapterInstanceStatusService);
+        final var commandRouterServiceConfig = new CommandRouterServiceConfigProperties(commandRouterServiceOptions);
+        if (commandRouterServiceConfig.isLastKnownGatewayUpdateCoalescingEnabled()) {
+            LOG.info("coalescing last known gateway updates [max delay: {}, refresh interval: {}]",
+                    commandRouterServiceConfig.getLastKnownGatewayUpdateMaxDelay(),
+                    commandRouterServiceConfig.getLastKnownGatewayRefreshInterval());
+            deviceConnectionInfo.setLastKnownGatewayUpdateCoalescing(
+                    vertx,
+                    commandRouterServiceConfig.getLastKnownGatewayUpdateMaxDelay(),
+                    commandRouterServiceConfig.getLastKnownGatewayRefreshInterval());
+        }
+        return deviceConnectionInfo;
     }
 
     @Produces
+    @Singleton
     BasicCache<String, String> cache(
             final Vertx vertx,
             @ConfigMapping(prefix = "hono.commandRouter.cache.common")
             final CommonCacheOptions commonCacheOptions,
             @ConfigMapping(prefix = "hono.commandRouter.cache.remote")
-            final InfinispanRemoteConfigurationOptions remoteCacheConfigurationOptions) {
+            final InfinispanRemoteConfigurationOptions remoteCacheConfigurationOptions,
+            @ConfigMapping(prefix = "hono.commandRouter.cache.embedded")
+            final EmbeddedCacheOptions embeddedCacheOptions) {
 
         final var commonCacheConfig = new CommonCacheConfig(commonCacheOptions);
         final var infinispanCacheConfig = new InfinispanRemoteConfigurationProperties(remoteCacheConfigurationOptions);
@@ -85,7 +131,7 @@ public class DeviceConnectionInfoProducer {
             LOG.info("configuring embedded cache");
             return new EmbeddedCache<>(
                     vertx,
-                    embeddedCacheManager(commonCacheConfig),
+                    embeddedCacheManager(commonCacheConfig, new EmbeddedCacheConfig(embeddedCacheOptions)),
                     commonCacheConfig.getCacheName());
         } else {
             LOG.info("configuring remote cache");
@@ -96,26 +142,36 @@ public class DeviceConnectionInfoProducer {
         }
     }
 
-    private EmbeddedCacheManager embeddedCacheManager(final CommonCacheConfig cacheConfig) {
-        return new DefaultCacheManager(configuration(cacheConfig), false);
+    private EmbeddedCacheManager embeddedCacheManager(
+            final CommonCacheConfig cacheConfig,
+            final EmbeddedCacheConfig embeddedCacheConfig) {
+        return new DefaultCacheManager(configuration(cacheConfig, embeddedCacheConfig), false);
     }
 
-    private ConfigurationBuilderHolder configuration(final CommonCacheConfig cacheConfig) {
+    private ConfigurationBuilderHolder configuration(
+            final CommonCacheConfig cacheConfig,
+            final EmbeddedCacheConfig embeddedCacheConfig) {
 
-        final var configuration = Path.of(configFile);
+        final var configuration = Path.of(embeddedCacheConfig.getConfigurationFile());
         if (configuration != null && Files.exists(configuration)) {
             try {
                 final ConfigurationBuilderHolder holder = new ParserRegistry().parseFile(configuration.toFile());
                 LOG.info("successfully configured embedded cache from file [{}]", configuration);
+                if (embeddedCacheConfig.isOffHeapStorageEnabled() || embeddedCacheConfig.getPersistenceLocation() != null) {
+                    LOG.info("ignoring off-heap storage and persistence options, using configuration file instead");
+                }
                 return holder;
             } catch (final IOException e) {
                 LOG.error("failed to read configuration file [{}]", configuration, e);
                 throw new IllegalStateException("failed to configure embedded cache", e);
             }
         } else {
-            final var builderHolder = new ConfigurationBuilderHolder();
-            final var builder = builderHolder.newConfigurationBuilder(cacheConfig.getCacheName());
-            LOG.info("using default embedded cache configuration:{}{}", System.lineSeparator(), builder.toString());
+            final var builderHolder = embeddedCacheConfig.createDefaultConfiguration(cacheConfig.getCacheName());
+            LOG.info("using default embedded cache configuration [off-heap storage: {}, persistence location: {}]:{}{}",
+                    embeddedCacheConfig.isOffHeapStorageEnabled(),
+                    embeddedCacheConfig.getPersistenceLocation(),
+                    System.lineSeparator(),
+                    builderHolder.getNamedConfigurationBuilders().get(cacheConfig.getCacheName()));
             return builderHolder;
         }
     }
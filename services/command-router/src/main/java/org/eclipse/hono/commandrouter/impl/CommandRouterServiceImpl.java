@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2020, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -15,15 +15,16 @@ package org.eclipse.hono.commandrouter.impl;
 
 import java.net.HttpURLConnection;
 import java.time.Duration;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.hono.client.ServerErrorException;
@@ -35,6 +36,7 @@ import org.eclipse.hono.client.util.MessagingClientProvider;
 import org.eclipse.hono.client.util.ServiceClient;
 import org.eclipse.hono.commandrouter.AdapterInstanceStatusService;
 import org.eclipse.hono.commandrouter.CommandConsumerFactory;
+import org.eclipse.hono.commandrouter.CommandRouterMetrics;
 import org.eclipse.hono.commandrouter.CommandRouterResult;
 import org.eclipse.hono.commandrouter.CommandRouterService;
 import org.eclipse.hono.config.ServiceConfigProperties;
@@ -53,6 +55,9 @@ import org.eclipse.hono.util.TenantObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
 import io.opentracing.References;
 import io.opentracing.Span;
 import io.opentracing.SpanContext;
@@ -71,6 +76,10 @@ import io.vertx.ext.healthchecks.Status;
 public class CommandRouterServiceImpl implements CommandRouterService, HealthCheckProvider, Lifecycle {
 
     private static final Logger LOG = LoggerFactory.getLogger(CommandRouterServiceImpl.class);
+    /**
+     * The amount of time after which a tenant is no longer considered to have recent command activity.
+     */
+    private static final Duration TENANT_ACTIVITY_TIMEOUT = Duration.ofMinutes(10);
 
     private final ServiceConfigProperties config;
     private final DeviceRegistrationClient registrationClient;
@@ -80,10 +89,30 @@ public class CommandRouterServiceImpl implements CommandRouterService, HealthChe
     private final MessagingClientProvider<EventSender> eventSenderProvider;
     private final AdapterInstanceStatusService adapterInstanceStatusService;
     private final Tracer tracer;
-    private final Deque<Pair<String, Integer>> tenantsToEnable = new ArrayDeque<>();
+    /**
+     * The tenants waiting for command routing to be re-enabled, mapped to the number of the next attempt.
+     */
+    private final Map<String, Integer> tenantsToEnable = new HashMap<>();
+    /**
+     * The waiting tenants that have devices which have recently registered for commands, in processing order.
+     */
+    private final Set<String> prioritizedTenantsToEnable = new LinkedHashSet<>();
+    /**
+     * The other waiting tenants, in processing order.
+     */
+    private final Set<String> otherTenantsToEnable = new LinkedHashSet<>();
+    private final Set<String> tenantsAwaitingRetry = new HashSet<>();
     private final Set<String> reenabledTenants = new HashSet<>();
     private final Set<String> tenantsInProcess = new HashSet<>();
     private final AtomicBoolean running = new AtomicBoolean();
+    private final Cache<String, Boolean> tenantsWithRecentActivity = Caffeine.newBuilder()
+            .expireAfterWrite(TENANT_ACTIVITY_TIMEOUT)
+            .maximumSize(100_000)
+            .build();
+
+    private CommandRouterMetrics metrics = CommandRouterMetrics.NOOP;
+    private int maxConcurrentTenantActivations = 1;
+    private long commandRoutingReenablingStartTime;
 
     /**
      * Vert.x context that this service has been started in.
@@ -134,6 +163,31 @@ public class CommandRouterServiceImpl implements CommandRouterService, HealthChe
         this.context = Objects.requireNonNull(context);
     }
 
+    /**
+     * Sets the component to use for reporting metrics.
+     *
+     * @param metrics The metrics.
+     * @throws NullPointerException if metrics is {@code null}.
+     */
+    public void setMetrics(final CommandRouterMetrics metrics) {
+        this.metrics = Objects.requireNonNull(metrics);
+    }
+
+    /**
+     * Sets the maximum number of tenants for which command routing is re-enabled concurrently.
+     * <p>
+     * The default value is 1.
+     *
+     * @param maxConcurrentTenantActivations The maximum number of tenants.
+     * @throws IllegalArgumentException if the number is smaller than 1.
+     */
+    public void setMaxConcurrentTenantActivations(final int maxConcurrentTenantActivations) {
+        if (maxConcurrentTenantActivations < 1) {
+            throw new IllegalArgumentException("max concurrent tenant activations must be > 0");
+        }
+        this.maxConcurrentTenantActivations = maxConcurrentTenantActivations;
+    }
+
     @Override
     public Future<Void> start() {
         if (context == null) {
@@ -180,6 +234,9 @@ public class CommandRouterServiceImpl implements CommandRouterService, HealthChe
             results.add(commandConsumerFactoryProvider.stop());
             results.add(adapterInstanceStatusService.stop());
             tenantsToEnable.clear();
+            prioritizedTenantsToEnable.clear();
+            otherTenantsToEnable.clear();
+            tenantsAwaitingRetry.clear();
             return CompositeFuture.join(results)
                     .onFailure(t -> {
                         LOG.info("error while stopping command router", t);
@@ -212,34 +269,10 @@ public class CommandRouterServiceImpl implements CommandRouterService, HealthChe
     public Future<CommandRouterResult> registerCommandConsumer(final String tenantId, final String deviceId,
             final boolean sendEvent, final String adapterInstanceId, final Duration lifespan, final Span span) {
 
+        recordTenantActivity(tenantId);
         final Future<TenantObject> tenantObjectFuture = tenantClient.get(tenantId, span.context());
         return tenantObjectFuture
-                .compose(tenantObject -> {
-                    final CommandConsumerFactory primaryFactory = commandConsumerFactoryProvider
-                            .getClient(tenantObject);
-                    final Future<Void> primaryConsumerFuture = primaryFactory.createCommandConsumer(tenantId,
-                            span.context());
-
-                    if (primaryFactory.getMessagingType() == MessagingType.kafka
-                            && commandConsumerFactoryProvider.getClient(MessagingType.amqp) != null) {
-                        // tenant is configured to use Kafka but AMQP is also configured
-                        span.log("also creating secondary, AMQP-based consumer");
-                        final Future<Void> amqpConsumerFuture = commandConsumerFactoryProvider
-                                .getClient(MessagingType.amqp)
-                                .createCommandConsumer(tenantId, span.context());
-                        return CompositeFuture.join(primaryConsumerFuture, amqpConsumerFuture)
-                                .map(v -> (Void) null)
-                                .recover(thr -> {
-                                    if (amqpConsumerFuture.failed()) {
-                                        span.log("ignoring failure to create secondary, AMQP-based command consumer");
-                                    }
-                                    return primaryConsumerFuture;
-                                });
-                    }
-                    // the reverse case of an AMQP-configured tenant while Kafka is available is handled implicitly
-                    // because of the Kafka wildcard topic subscription (no auto-creation triggered in that case)
-                    return primaryConsumerFuture;
-                })
+                .compose(tenantObject -> createCommandConsumer(tenantId, tenantObject, span))
                 .compose(v -> deviceConnectionInfo
                         .setCommandHandlingAdapterInstance(tenantId, deviceId, adapterInstanceId,
                                 getSanitizedLifespan(lifespan), span)
@@ -262,6 +295,65 @@ public class CommandRouterServiceImpl implements CommandRouterService, HealthChe
                 .otherwise(t -> CommandRouterResult.from(ServiceInvocationException.extractStatusCode(t)));
     }
 
+    @Override
+    public Future<CommandRouterResult> registerCommandConsumers(final String tenantId, final Set<String> deviceIds,
+            final boolean sendEvent, final String adapterInstanceId, final Duration lifespan, final Span span) {
+
+        recordTenantActivity(tenantId);
+        final Future<TenantObject> tenantObjectFuture = tenantClient.get(tenantId, span.context());
+        return tenantObjectFuture
+                .compose(tenantObject -> createCommandConsumer(tenantId, tenantObject, span))
+                .compose(v -> deviceConnectionInfo
+                        .setCommandHandlingAdapterInstances(tenantId, deviceIds, adapterInstanceId,
+                                getSanitizedLifespan(lifespan), span)
+                        .onFailure(thr -> {
+                            LOG.info("error setting command handling adapter instance for {} devices [tenant: {}]",
+                                    deviceIds.size(), tenantId, thr);
+                        }))
+                .compose(v2 -> {
+                    if (!sendEvent) {
+                        return Future.succeededFuture();
+                    }
+                    @SuppressWarnings("rawtypes")
+                    final List<Future> eventSendResults = new ArrayList<>(deviceIds.size());
+                    deviceIds.forEach(deviceId -> eventSendResults.add(sendConnectedTtdEvent(
+                            tenantObjectFuture.result(), deviceId, adapterInstanceId, span.context())
+                                .onFailure(thr -> {
+                                    LOG.info("error sending connected Ttd event [tenant: {}, device: {}]",
+                                            tenantId, deviceId, thr);
+                                })));
+                    return CompositeFuture.all(eventSendResults).mapEmpty();
+                })
+                .map(v3 -> CommandRouterResult.from(HttpURLConnection.HTTP_NO_CONTENT))
+                .otherwise(t -> CommandRouterResult.from(ServiceInvocationException.extractStatusCode(t)));
+    }
+
+    private Future<Void> createCommandConsumer(final String tenantId, final TenantObject tenantObject, final Span span) {
+
+        final CommandConsumerFactory primaryFactory = commandConsumerFactoryProvider.getClient(tenantObject);
+        final Future<Void> primaryConsumerFuture = primaryFactory.createCommandConsumer(tenantId, span.context());
+
+        if (primaryFactory.getMessagingType() == MessagingType.kafka
+                && commandConsumerFactoryProvider.getClient(MessagingType.amqp) != null) {
+            // tenant is configured to use Kafka but AMQP is also configured
+            span.log("also creating secondary, AMQP-based consumer");
+            final Future<Void> amqpConsumerFuture = commandConsumerFactoryProvider
+                    .getClient(MessagingType.amqp)
+                    .createCommandConsumer(tenantId, span.context());
+            return CompositeFuture.join(primaryConsumerFuture, amqpConsumerFuture)
+                    .map(v -> (Void) null)
+                    .recover(thr -> {
+                        if (amqpConsumerFuture.failed()) {
+                            span.log("ignoring failure to create secondary, AMQP-based command consumer");
+                        }
+                        return primaryConsumerFuture;
+                    });
+        }
+        // the reverse case of an AMQP-configured tenant while Kafka is available is handled implicitly
+        // because of the Kafka wildcard topic subscription (no auto-creation triggered in that case)
+        return primaryConsumerFuture;
+    }
+
     private Duration getSanitizedLifespan(final Duration lifespan) {
         // lifespan greater than what can be expressed in nanoseconds (i.e. 292 years) is considered unlimited, preventing ArithmeticExceptions down the road
         return lifespan == null || lifespan.isNegative()
@@ -292,6 +384,31 @@ public class CommandRouterServiceImpl implements CommandRouterService, HealthChe
                 .otherwise(t -> CommandRouterResult.from(ServiceInvocationException.extractStatusCode(t)));
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation removes the entries of the devices one by one by means of conditional
+     * remove operations, because the underlying cache does not support removing multiple entries
+     * conditionally in a single operation. The removal of the entries is done concurrently though.
+     */
+    @Override
+    public Future<CommandRouterResult> unregisterCommandConsumers(final String tenantId, final Set<String> deviceIds,
+            final boolean sendEvent, final String adapterInstanceId, final Span span) {
+
+        @SuppressWarnings("rawtypes")
+        final List<Future> results = new ArrayList<>(deviceIds.size());
+        deviceIds.forEach(deviceId -> results.add(
+                unregisterCommandConsumer(tenantId, deviceId, sendEvent, adapterInstanceId, span)));
+        // the futures returned by unregisterCommandConsumer are always succeeded
+        return CompositeFuture.all(results)
+                .map(compositeResult -> compositeResult.<CommandRouterResult>list().stream()
+                        // entries that are not mapped to the adapter instance (anymore) are skipped
+                        .filter(result -> result.getStatus() != HttpURLConnection.HTTP_NO_CONTENT
+                                && result.getStatus() != HttpURLConnection.HTTP_PRECON_FAILED)
+                        .findFirst()
+                        .orElseGet(() -> CommandRouterResult.from(HttpURLConnection.HTTP_NO_CONTENT)));
+    }
+
     private Future<Void> sendDisconnectEventIfNeeded(final String tenantId, final String deviceId,
             final boolean sendEvent, final String adapterInstanceId, final Span span) {
         if (sendEvent) {
@@ -315,39 +432,72 @@ public class CommandRouterServiceImpl implements CommandRouterService, HealthChe
         }
 
         Objects.requireNonNull(tenantIds);
-        final boolean isProcessingRequired = tenantsToEnable.isEmpty();
         tenantIds.stream()
             .filter(s -> !reenabledTenants.contains(s))
             .filter(s -> !tenantsInProcess.contains(s))
-            .filter(s -> !tenantsToEnable.stream()
-                .anyMatch(entry -> entry.one().equals(s)))
-            .forEach(s -> tenantsToEnable.addLast(Pair.of(s, 1)));
+            .filter(s -> !tenantsAwaitingRetry.contains(s))
+            .filter(s -> !tenantsToEnable.containsKey(s))
+            .forEach(s -> {
+                if (commandRoutingReenablingStartTime == 0) {
+                    LOG.debug("triggering re-enabling of command routing");
+                    commandRoutingReenablingStartTime = System.nanoTime();
+                }
+                addTenantToEnable(s, 1);
+            });
 
-        if (isProcessingRequired) {
-            LOG.debug("triggering re-enabling of command routing");
-            processTenantQueue(span.context());
-        }
+        processTenantQueue(span.context());
         return Future.succeededFuture(CommandRouterResult.from(HttpURLConnection.HTTP_NO_CONTENT));
     }
 
-    private void processTenantQueue(final SpanContext tracingContext) {
+    /**
+     * Records that a device of a tenant has registered for commands.
+     * <p>
+     * If the tenant is waiting for command routing to be re-enabled, it is moved to the front of the queue.
+     */
+    private void recordTenantActivity(final String tenantId) {
+        tenantsWithRecentActivity.put(tenantId, Boolean.TRUE);
+        if (otherTenantsToEnable.remove(tenantId)) {
+            prioritizedTenantsToEnable.add(tenantId);
+        }
+    }
 
-        final var attempt = tenantsToEnable.pollFirst();
-        if (attempt == null) {
-            // at this point there might still be pending (re-try) tasks on the event loop,
-            // thus we need to wait for those to have finished before declaring victory
-            if (tenantsInProcess.isEmpty()) {
-                reenabledTenants.clear();
-                LOG.debug("finished re-enabling of command routing");
-            }
+    private void addTenantToEnable(final String tenantId, final int attemptNo) {
+        tenantsToEnable.put(tenantId, attemptNo);
+        // tenants having devices that have recently registered for commands are processed first
+        if (tenantsWithRecentActivity.getIfPresent(tenantId) != null) {
+            prioritizedTenantsToEnable.add(tenantId);
         } else {
+            otherTenantsToEnable.add(tenantId);
+        }
+    }
+
+    private Pair<String, Integer> pollTenantToEnable() {
+        final Iterator<String> tenantIds = prioritizedTenantsToEnable.isEmpty()
+                ? otherTenantsToEnable.iterator()
+                : prioritizedTenantsToEnable.iterator();
+        final String tenantId = tenantIds.next();
+        tenantIds.remove();
+        return Pair.of(tenantId, tenantsToEnable.remove(tenantId));
+    }
+
+    private void processTenantQueue(final SpanContext tracingContext) {
+
+        while (tenantsInProcess.size() < maxConcurrentTenantActivations && !tenantsToEnable.isEmpty()) {
+            final var attempt = pollTenantToEnable();
             tenantsInProcess.add(attempt.one());
-            final long delay = calculateDelayMillis(attempt.two());
-            if (delay <= 0) {
-                context.runOnContext(go -> activateCommandRouting(attempt, tracingContext));
-            } else {
-                context.owner().setTimer(delay, tid -> activateCommandRouting(attempt, tracingContext));
-            }
+            context.runOnContext(go -> activateCommandRouting(attempt, tracingContext));
+        }
+        metrics.reportPendingTenantActivations(
+                tenantsToEnable.size() + tenantsInProcess.size() + tenantsAwaitingRetry.size());
+        // at this point there might still be pending re-tries,
+        // thus we need to wait for those to have finished before declaring victory
+        if (tenantsToEnable.isEmpty() && tenantsInProcess.isEmpty() && tenantsAwaitingRetry.isEmpty()
+                && commandRoutingReenablingStartTime != 0) {
+            final long duration = System.nanoTime() - commandRoutingReenablingStartTime;
+            commandRoutingReenablingStartTime = 0;
+            metrics.reportCommandRoutingReenablingCompleted(duration, TimeUnit.NANOSECONDS);
+            LOG.debug("finished re-enabling of command routing for {} tenants", reenabledTenants.size());
+            reenabledTenants.clear();
         }
     }
 
@@ -382,21 +532,22 @@ public class CommandRouterServiceImpl implements CommandRouterService, HealthChe
         logEntries.put("attempt#", attempt.two());
         tenantClient.get(attempt.one(), span.context())
             .map(tenantObject -> commandConsumerFactoryProvider.getClient(tenantObject))
-            .map(factory -> factory.createCommandConsumer(attempt.one(), span.context()))
+            .compose(factory -> factory.createCommandConsumer(attempt.one(), span.context()))
             .onSuccess(ok -> {
                 logEntries.put(Fields.MESSAGE, "successfully created command consumer");
                 span.log(logEntries);
                 reenabledTenants.add(attempt.one());
+                metrics.reportTenantActivation(true);
             })
             .onFailure(t -> {
                 logEntries.put(Fields.MESSAGE, "failed to create command consumer");
                 logEntries.put(Fields.ERROR_OBJECT, t);
                 TracingHelper.logError(span, logEntries);
+                metrics.reportTenantActivation(false);
                 if (t instanceof ServerErrorException) {
-                    // add to end of queue in order to retry at a later time
                     LOG.info("failed to create command consumer [attempt#: {}]", attempt.two(), t);
                     span.log("marking tenant for later re-try to create command consumer");
-                    tenantsToEnable.addLast(Pair.of(attempt.one(), attempt.two() + 1));
+                    scheduleRetry(attempt.one(), attempt.two() + 1, tracingContext);
                 }
             })
             .onComplete(r -> {
@@ -406,6 +557,22 @@ public class CommandRouterServiceImpl implements CommandRouterService, HealthChe
             });
     }
 
+    /**
+     * Adds a tenant to the queue again after a delay corresponding to the number of attempts made.
+     * <p>
+     * The tenant does not occupy one of the slots for concurrent activations while waiting for the delay
+     * to expire.
+     */
+    private void scheduleRetry(final String tenantId, final int attemptNo, final SpanContext tracingContext) {
+        tenantsAwaitingRetry.add(tenantId);
+        context.owner().setTimer(calculateDelayMillis(attemptNo), tid -> {
+            if (tenantsAwaitingRetry.remove(tenantId) && running.get()) {
+                addTenantToEnable(tenantId, attemptNo);
+                processTenantQueue(tracingContext);
+            }
+        });
+    }
+
     @Override
     public void registerReadinessChecks(final HealthCheckHandler handler) {
         if (registrationClient instanceof ServiceClient client) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2020, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -15,10 +15,12 @@ package org.eclipse.hono.commandrouter.impl;
 import java.net.HttpURLConnection;
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.apache.qpid.proton.message.Message;
@@ -204,18 +206,31 @@ public class DelegatingCommandRouterAmqpEndpoint<S extends CommandRouterService>
         final Boolean sendEvent = getSendEvent(request);
 
         final Future<Message> resultFuture;
-        if (tenantId == null || deviceId == null || adapterInstanceId == null) {
+        if (tenantId == null || adapterInstanceId == null
+                || (deviceId == null && AmqpUtils.getPayloadSize(request) == 0)) {
             TracingHelper.logError(span, "missing tenant, device and/or adapter instance id");
             resultFuture = Future.failedFuture(new ClientErrorException(HttpURLConnection.HTTP_BAD_REQUEST));
         } else {
             final Duration lifespan = lifespanSecondsOrNull != null ? Duration.ofSeconds(lifespanSecondsOrNull) : Duration.ofSeconds(-1);
-            TracingHelper.setDeviceTags(span, tenantId, deviceId);
             TracingHelper.TAG_ADAPTER_INSTANCE_ID.set(span, adapterInstanceId);
             span.setTag(MessageHelper.APP_PROPERTY_LIFESPAN, lifespan.getSeconds());
-            logger.debug("register command consumer [tenant-id: {}, device-id: {}, adapter-instance-id {}, lifespan: {}s]",
-                    tenantId, deviceId, adapterInstanceId, lifespan.getSeconds());
-
-            resultFuture = getService().registerCommandConsumer(tenantId, deviceId, sendEvent, adapterInstanceId, lifespan, span)
+            final Future<CommandRouterResult> serviceResult;
+            if (deviceId != null) {
+                TracingHelper.setDeviceTags(span, tenantId, deviceId);
+                logger.debug("register command consumer [tenant-id: {}, device-id: {}, adapter-instance-id {}, lifespan: {}s]",
+                        tenantId, deviceId, adapterInstanceId, lifespan.getSeconds());
+                serviceResult = getService().registerCommandConsumer(tenantId, deviceId, sendEvent, adapterInstanceId, lifespan, span);
+            } else {
+                TracingHelper.TAG_TENANT_ID.set(span, tenantId);
+                serviceResult = parseDeviceIdentifiers(AmqpUtils.getPayload(request))
+                        .compose(deviceIds -> {
+                            logger.debug("register command consumers [tenant-id: {}, no. of devices: {}, adapter-instance-id {}, lifespan: {}s]",
+                                    tenantId, deviceIds.size(), adapterInstanceId, lifespan.getSeconds());
+                            span.log(Map.of("no_of_devices", deviceIds.size()));
+                            return getService().registerCommandConsumers(tenantId, deviceIds, sendEvent, adapterInstanceId, lifespan, span);
+                        });
+            }
+            resultFuture = serviceResult
                     .map(res -> AbstractRequestResponseEndpoint.getAmqpReply(
                             CommandRouterConstants.COMMAND_ROUTER_ENDPOINT,
                             tenantId,
@@ -253,16 +268,29 @@ public class DelegatingCommandRouterAmqpEndpoint<S extends CommandRouterService>
         final Boolean sendEvent =  getSendEvent(request);
 
         final Future<Message> resultFuture;
-        if (tenantId == null || deviceId == null || adapterInstanceId == null) {
+        if (tenantId == null || adapterInstanceId == null
+                || (deviceId == null && AmqpUtils.getPayloadSize(request) == 0)) {
             TracingHelper.logError(span, "missing tenant, device and/or adapter instance id");
             resultFuture = Future.failedFuture(new ClientErrorException(HttpURLConnection.HTTP_BAD_REQUEST));
         } else {
-            TracingHelper.setDeviceTags(span, tenantId, deviceId);
             TracingHelper.TAG_ADAPTER_INSTANCE_ID.set(span, adapterInstanceId);
-            logger.debug("unregister command consumer [tenant-id: {}, device-id: {}, adapter-instance-id {}]",
-                    tenantId, deviceId, adapterInstanceId);
-
-            resultFuture = getService().unregisterCommandConsumer(tenantId, deviceId, sendEvent, adapterInstanceId, span)
+            final Future<CommandRouterResult> serviceResult;
+            if (deviceId != null) {
+                TracingHelper.setDeviceTags(span, tenantId, deviceId);
+                logger.debug("unregister command consumer [tenant-id: {}, device-id: {}, adapter-instance-id {}]",
+                        tenantId, deviceId, adapterInstanceId);
+                serviceResult = getService().unregisterCommandConsumer(tenantId, deviceId, sendEvent, adapterInstanceId, span);
+            } else {
+                TracingHelper.TAG_TENANT_ID.set(span, tenantId);
+                serviceResult = parseDeviceIdentifiers(AmqpUtils.getPayload(request))
+                        .compose(deviceIds -> {
+                            logger.debug("unregister command consumers [tenant-id: {}, no. of devices: {}, adapter-instance-id {}]",
+                                    tenantId, deviceIds.size(), adapterInstanceId);
+                            span.log(Map.of("no_of_devices", deviceIds.size()));
+                            return getService().unregisterCommandConsumers(tenantId, deviceIds, sendEvent, adapterInstanceId, span);
+                        });
+            }
+            resultFuture = serviceResult
                     .map(res -> AbstractRequestResponseEndpoint.getAmqpReply(
                             CommandRouterConstants.COMMAND_ROUTER_ENDPOINT,
                             tenantId,
@@ -273,6 +301,23 @@ public class DelegatingCommandRouterAmqpEndpoint<S extends CommandRouterService>
         return finishSpanOnFutureCompletion(span, resultFuture);
     }
 
+    private Future<Set<String>> parseDeviceIdentifiers(final Buffer payload) {
+        final Promise<Set<String>> result = Promise.promise();
+        try {
+            final Set<String> deviceIds = new HashSet<>();
+            payload.toJsonArray().forEach(entry -> {
+                if (entry instanceof String deviceId) {
+                    deviceIds.add(deviceId);
+                }
+            });
+            result.complete(deviceIds);
+        } catch (final DecodeException e) {
+            result.fail(new ClientErrorException(HttpURLConnection.HTTP_BAD_REQUEST,
+                    "payload must contain a JSON array of device identifiers if device_id application property is not set"));
+        }
+        return result.future();
+    }
+
     /**
      * Processes an <em>enable command request</em> request message.
      *
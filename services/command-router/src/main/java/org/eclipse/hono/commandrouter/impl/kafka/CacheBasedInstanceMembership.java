@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.hono.commandrouter.impl.kafka;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.eclipse.hono.deviceconnection.infinispan.client.Cache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+
+/**
+ * A service that keeps track of the live Command Router instances by means of heartbeat entries in the
+ * device connection cache.
+ * <p>
+ * Each instance periodically puts an entry for its own identifier into the cache, using a lifespan of
+ * {@value #LIFESPAN_FACTOR} times the heartbeat interval. The entries of all configured instances are then
+ * read from the cache and the identifiers of the instances that have an entry are set as the live instances
+ * on the {@link ConsistentHashingPartitionFilter}. The entry of an instance that has crashed or has been
+ * scaled down expires after the lifespan, so that its partitions are taken over by the remaining instances
+ * with the next update of the partition assignment.
+ * <p>
+ * If the cache cannot be accessed, the previously determined set of live instances is kept.
+ * <p>
+ * The live instances are determined once before this verticle's start completes, so that a Kafka consumer
+ * which is started afterwards uses the instances that have a heartbeat entry at that time for its initial
+ * partition assignment.
+ * <p>
+ * Each instance applies a change of the live instances with its own next refresh, i.e. the instances do not
+ * switch to the new partition owners at the same time. For up to one refresh interval after an instance
+ * has joined or left, a partition may therefore be consumed by two instances, resulting in commands being
+ * delivered twice and in competing offset commits for the same consumer group, or by no instance at all,
+ * delaying the delivery of commands until the next refresh.
+ */
+public final class CacheBasedInstanceMembership extends AbstractVerticle {
+
+    /**
+     * The prefix of the keys of the heartbeat entries.
+     */
+    public static final String KEY_PREFIX = "cr@@";
+
+    private static final Logger LOG = LoggerFactory.getLogger(CacheBasedInstanceMembership.class);
+    private static final int LIFESPAN_FACTOR = 3;
+
+    private final Cache<String, String> cache;
+    private final ConsistentHashingPartitionFilter partitionFilter;
+    private final long heartbeatIntervalMillis;
+    private final String ownKey;
+    private final Set<String> instanceKeys;
+
+    private long timerId = -1;
+
+    /**
+     * Creates a new service.
+     *
+     * @param cache The cache to store the heartbeat entries in.
+     * @param partitionFilter The filter to update the live instances of.
+     * @param heartbeatInterval The interval at which the heartbeat entry is updated and the live instances
+     *                          are determined.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     * @throws IllegalArgumentException if the heartbeat interval is not positive.
+     */
+    public CacheBasedInstanceMembership(
+            final Cache<String, String> cache,
+            final ConsistentHashingPartitionFilter partitionFilter,
+            final Duration heartbeatInterval) {
+        this.cache = Objects.requireNonNull(cache);
+        this.partitionFilter = Objects.requireNonNull(partitionFilter);
+        Objects.requireNonNull(heartbeatInterval);
+        if (heartbeatInterval.isNegative() || heartbeatInterval.isZero()) {
+            throw new IllegalArgumentException("heartbeat interval must be positive");
+        }
+        this.heartbeatIntervalMillis = heartbeatInterval.toMillis();
+        this.ownKey = getKey(partitionFilter.getInstanceId());
+        this.instanceKeys = partitionFilter.getInstanceIds().stream()
+                .map(CacheBasedInstanceMembership::getKey)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * Gets the key of the heartbeat entry of an instance.
+     *
+     * @param instanceId The instance identifier.
+     * @return The key.
+     */
+    static String getKey(final String instanceId) {
+        return KEY_PREFIX + instanceId;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Updates the heartbeat entry and determines the live instances before completing the given promise.
+     * Then starts updating both periodically.
+     * <p>
+     * The promise is also completed if the cache cannot be accessed, in which case all configured
+     * instances are considered to be live until the next successful update.
+     */
+    @Override
+    public void start(final Promise<Void> startPromise) {
+        updateMembership().onComplete(ar -> {
+            timerId = vertx.setPeriodic(heartbeatIntervalMillis, tid -> updateMembership());
+            startPromise.complete();
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Stops updating the heartbeat entry and tries to remove it from the cache so that the
+     * other instances take over this instance's partitions without waiting for the entry to expire.
+     */
+    @Override
+    public void stop(final Promise<Void> stopPromise) {
+        vertx.cancelTimer(timerId);
+        cache.get(ownKey)
+            .compose(value -> value == null ? Future.succeededFuture(Boolean.FALSE) : cache.remove(ownKey, value))
+            .onFailure(thr -> LOG.debug("failed to remove heartbeat entry of instance [{}]",
+                    partitionFilter.getInstanceId(), thr))
+            .<Void>mapEmpty()
+            .otherwiseEmpty()
+            .onComplete(stopPromise);
+    }
+
+    /**
+     * Updates the heartbeat entry of this instance and determines the live instances.
+     *
+     * @return A future indicating the outcome. The future will be succeeded if the live instances
+     *         have been determined.
+     */
+    Future<Void> updateMembership() {
+        return cache.put(
+                    ownKey,
+                    Instant.now().toString(),
+                    LIFESPAN_FACTOR * heartbeatIntervalMillis,
+                    TimeUnit.MILLISECONDS)
+            .compose(ok -> cache.getAll(instanceKeys))
+            .onSuccess(this::setLiveInstances)
+            .onFailure(thr -> LOG.info("failed to update Command Router instance membership, keeping live instances {}",
+                    partitionFilter.getLiveInstanceIds(), thr))
+            .mapEmpty();
+    }
+
+    private void setLiveInstances(final Map<String, String> entries) {
+        final Set<String> liveIds = entries.keySet().stream()
+                .filter(key -> entries.get(key) != null)
+                .map(key -> key.substring(KEY_PREFIX.length()))
+                .collect(Collectors.toSet());
+        if (partitionFilter.setLiveInstanceIds(liveIds)) {
+            LOG.info("distributing command topic partitions among live Command Router instances {} [own instance: {}]",
+                    partitionFilter.getLiveInstanceIds(), partitionFilter.getInstanceId());
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.hono.commandrouter.impl.kafka;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+import io.vertx.kafka.client.common.TopicPartition;
+
+/**
+ * A filter for the command topic partitions that a Command Router instance consumes command messages from.
+ * <p>
+ * The partitions are distributed among the Command Router instances by means of <em>rendezvous hashing</em>
+ * (highest random weight hashing): each partition is owned by the instance for which the hash of the instance
+ * identifier and the partition is the highest. All instances that are configured with the same set of instance
+ * identifiers therefore agree on the owner of each partition without any coordination. Adding or removing an
+ * instance only moves the partitions that the new instance now owns or that the removed instance has owned.
+ * <p>
+ * The partitions are distributed among the <em>live</em> subset of the configured instances only, which is
+ * updated by means of {@link #setLiveInstanceIds(Collection)}. In this way the partitions owned by an instance
+ * that has crashed or has been scaled down are taken over by the remaining instances.
+ * <p>
+ * Note that the instances do not update their set of live instances at the same time. Until all instances have
+ * applied a change, a partition may be owned by two instances, which then both consume its command messages and
+ * commit offsets for it, or by no instance, in which case its command messages are not consumed until the next
+ * update. Initially, all configured instances are considered to be live, so the partitions owned by configured
+ * instances that have not been started yet are not consumed until the live instances have been set.
+ */
+public final class ConsistentHashingPartitionFilter implements Predicate<TopicPartition> {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final String instanceId;
+    private final List<String> instanceIds;
+
+    private volatile List<String> liveInstanceIds;
+
+    /**
+     * Creates a new filter.
+     *
+     * @param instanceId The identifier of the Command Router instance that the filter is used by.
+     * @param instanceIds The identifiers of all Command Router instances that share the command topics.
+     *                    Initially, all of these instances are considered to be live, i.e. this instance
+     *                    does not take over any partitions of other instances before the live instances
+     *                    have been set.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     * @throws IllegalArgumentException if the instance identifiers do not contain the identifier of the
+     *                                  instance that the filter is used by.
+     */
+    public ConsistentHashingPartitionFilter(final String instanceId, final Collection<String> instanceIds) {
+        Objects.requireNonNull(instanceId);
+        Objects.requireNonNull(instanceIds);
+        if (!instanceIds.contains(instanceId)) {
+            throw new IllegalArgumentException(String.format(
+                    "instance identifiers %s do not contain own instance identifier [%s]", instanceIds, instanceId));
+        }
+        this.instanceId = instanceId;
+        this.instanceIds = List.copyOf(new TreeSet<>(instanceIds));
+        this.liveInstanceIds = this.instanceIds;
+    }
+
+    /**
+     * Gets the identifier of the instance that the filter is used by.
+     *
+     * @return The identifier.
+     */
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    /**
+     * Gets the identifiers of all configured instances.
+     *
+     * @return The identifiers in natural order.
+     */
+    public List<String> getInstanceIds() {
+        return instanceIds;
+    }
+
+    /**
+     * Gets the identifiers of the instances that the partitions are currently distributed among.
+     *
+     * @return The identifiers in natural order.
+     */
+    public List<String> getLiveInstanceIds() {
+        return liveInstanceIds;
+    }
+
+    /**
+     * Sets the identifiers of the instances that are currently alive.
+     * <p>
+     * Identifiers that are not part of the configured instance identifiers are ignored. The identifier
+     * of the instance that the filter is used by is always considered to be live.
+     * <p>
+     * The new set of instances is used by subsequent invocations of {@link #test(TopicPartition)}, i.e.
+     * it takes effect with the next update of the partition assignment.
+     *
+     * @param ids The identifiers of the live instances.
+     * @return {@code true} if the set of live instances has changed.
+     * @throws NullPointerException if ids is {@code null}.
+     */
+    public boolean setLiveInstanceIds(final Collection<String> ids) {
+        Objects.requireNonNull(ids);
+        final Set<String> liveIds = new TreeSet<>();
+        for (final String id : ids) {
+            if (instanceIds.contains(id)) {
+                liveIds.add(id);
+            }
+        }
+        liveIds.add(instanceId);
+        final List<String> newLiveInstanceIds = List.copyOf(liveIds);
+        if (newLiveInstanceIds.equals(liveInstanceIds)) {
+            return false;
+        }
+        liveInstanceIds = newLiveInstanceIds;
+        return true;
+    }
+
+    /**
+     * Gets the identifier of the live instance that owns a topic partition.
+     *
+     * @param topic The topic name.
+     * @param partition The partition number.
+     * @return The instance identifier.
+     * @throws NullPointerException if topic is {@code null}.
+     */
+    public String getOwner(final String topic, final int partition) {
+        Objects.requireNonNull(topic);
+        String owner = null;
+        long highestWeight = Long.MIN_VALUE;
+        for (final String id : liveInstanceIds) {
+            final long weight = weight(id, topic, partition);
+            if (owner == null || weight > highestWeight) {
+                owner = id;
+                highestWeight = weight;
+            }
+        }
+        return owner;
+    }
+
+    /**
+     * Checks if a topic partition is owned by the instance that the filter is used by.
+     *
+     * @param partition The partition to check.
+     * @return {@code true} if the partition is owned by this filter's instance.
+     * @throws NullPointerException if partition is {@code null}.
+     */
+    @Override
+    public boolean test(final TopicPartition partition) {
+        Objects.requireNonNull(partition);
+        return instanceId.equals(getOwner(partition.getTopic(), partition.getPartition()));
+    }
+
+    /**
+     * Computes the weight of an instance for a partition.
+     * <p>
+     * Uses the FNV-1a hash followed by the finalization step of MurmurHash3 so that similar identifiers,
+     * e.g. of pods belonging to the same stateful set, result in well distributed weights.
+     */
+    private static long weight(final String instanceId, final String topic, final int partition) {
+        long hash = FNV_OFFSET_BASIS;
+        hash = hash(hash, instanceId);
+        hash = (hash ^ '/') * FNV_PRIME;
+        hash = hash(hash, topic);
+        for (int shift = 0; shift < Integer.SIZE; shift += Byte.SIZE) {
+            hash = (hash ^ ((partition >>> shift) & 0xff)) * FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static long hash(final long initialHash, final String value) {
+        long hash = initialHash;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+}
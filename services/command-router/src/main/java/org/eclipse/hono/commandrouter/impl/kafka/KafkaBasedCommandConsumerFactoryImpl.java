@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2021, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2021, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -17,6 +17,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
@@ -58,13 +59,15 @@ import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.ext.healthchecks.HealthCheckHandler;
 import io.vertx.ext.healthchecks.Status;
+import io.vertx.kafka.client.common.TopicPartition;
 import io.vertx.kafka.client.common.impl.Helper;
 
 /**
  * A factory for creating clients for the <em>Kafka messaging infrastructure</em> to receive commands.
  * <p>
  * This factory uses a wild-card based topic pattern to subscribe for commands, which receives the command
- * messages irrespective of the tenants.
+ * messages irrespective of the tenants. Alternatively, the partitions of the command topics can be assigned
+ * explicitly, see {@link #setExplicitPartitionAssignment(Predicate, Duration)}.
  * <p>
  * Command messages are first received by the Kafka consumer on the tenant-specific topic. It is then determined
  * which protocol adapter instance can handle the command. The command is then forwarded to the Kafka cluster on
@@ -89,6 +92,8 @@ public class KafkaBasedCommandConsumerFactoryImpl implements CommandConsumerFact
     private final LifecycleStatus lifecycleStatus = new LifecycleStatus();
     private KafkaBasedMappingAndDelegatingCommandHandler commandHandler;
     private AsyncHandlingAutoCommitKafkaConsumer<Buffer> kafkaConsumer;
+    private Predicate<TopicPartition> explicitPartitionAssignmentFilter;
+    private Duration explicitPartitionAssignmentRefreshInterval;
 
     /**
      * Creates a new factory to process commands via the Kafka cluster.
@@ -141,6 +146,33 @@ public class KafkaBasedCommandConsumerFactoryImpl implements CommandConsumerFact
                 tracer);
     }
 
+    /**
+     * Sets a filter for assigning the partitions of the command topics explicitly instead of subscribing
+     * to the command topics by means of a topic pattern.
+     * <p>
+     * With a topic pattern subscription, each newly created tenant topic and each Command Router instance that
+     * joins or leaves the consumer group triggers a rebalance of the whole group. With an explicit assignment,
+     * the partitions of a new topic are added to the consumer that the filter matches without affecting the other
+     * consumers. All Command Router instances consuming from the command topics need to use the same kind of
+     * assignment and filters that match each partition exactly once in total.
+     *
+     * @param filter The filter that the partitions to consume command messages from need to match.
+     * @param refreshInterval The interval at which the command topics are retrieved.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     * @throws IllegalStateException if this factory has already been started.
+     */
+    public final void setExplicitPartitionAssignment(
+            final Predicate<TopicPartition> filter,
+            final Duration refreshInterval) {
+        Objects.requireNonNull(filter);
+        Objects.requireNonNull(refreshInterval);
+        if (lifecycleStatus.isStarting() || lifecycleStatus.isStarted()) {
+            throw new IllegalStateException("factory is already started");
+        }
+        this.explicitPartitionAssignmentFilter = filter;
+        this.explicitPartitionAssignmentRefreshInterval = refreshInterval;
+    }
+
     /**
      * Adds a handler to be invoked with a succeeded future once this factory is ready to be used.
      *
@@ -233,8 +265,20 @@ public class KafkaBasedCommandConsumerFactoryImpl implements CommandConsumerFact
         kafkaConsumer.setMetricsSupport(kafkaClientMetricsSupport);
         kafkaConsumer.setOnRebalanceDoneHandler(
                 partitions -> commandQueue.setCurrentlyHandledPartitions(Helper.to(partitions)));
-        kafkaConsumer.setOnPartitionsLostHandler(
-                partitions -> commandQueue.setRevokedPartitions(Helper.to(partitions)));
+        kafkaConsumer.setOnPartitionsLostHandler(partitions -> {
+            commandQueue.setRevokedPartitions(Helper.to(partitions));
+            metrics.reportCommandPartitionAssignmentChange(0, partitions.size());
+        });
+        kafkaConsumer.setOnPartitionsAssignedHandler(
+                partitions -> metrics.reportCommandPartitionAssignmentChange(partitions.size(), 0));
+        kafkaConsumer.setOnPartitionsRevokedHandler(
+                partitions -> metrics.reportCommandPartitionAssignmentChange(0, partitions.size()));
+        if (explicitPartitionAssignmentFilter != null) {
+            LOG.info("using explicit assignment of command topic partitions");
+            kafkaConsumer.setExplicitPartitionAssignment(
+                    explicitPartitionAssignmentFilter,
+                    explicitPartitionAssignmentRefreshInterval);
+        }
 
         CompositeFuture.all(
                 internalCommandSenderTracker.future(),
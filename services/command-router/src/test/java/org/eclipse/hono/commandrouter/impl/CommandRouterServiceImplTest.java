@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2021, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2021, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -21,17 +21,20 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import static com.google.common.truth.Truth.assertThat;
 
 import java.net.HttpURLConnection;
+import java.time.Duration;
 import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 import org.eclipse.hono.client.ClientErrorException;
 import org.eclipse.hono.client.ServerErrorException;
@@ -239,6 +242,64 @@ public class CommandRouterServiceImplTest {
                 }));
     }
 
+    /**
+     * Verifies that registering command consumers for multiple devices creates the tenant's command consumer
+     * once and sets the devices' adapter instance entries by means of a single operation.
+     *
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testRegisterCommandConsumersSetsAllEntriesAtOnce(final VertxTestContext ctx) {
+        when(deviceConnectionInfo.setCommandHandlingAdapterInstances(anyString(), any(), anyString(), any(), any()))
+                .thenReturn(Future.succeededFuture());
+        final Set<String> deviceIds = Set.of("device1", "device2", "device3");
+
+        // WHEN registering command consumers for multiple devices
+        service.registerCommandConsumers("tenant", deviceIds, false, "adapterInstanceId", null, NoopSpan.INSTANCE)
+                .onComplete(ctx.succeeding(res -> {
+                    ctx.verify(() -> {
+                        // THEN the operation succeeds
+                        assertThat(res.getStatus()).isEqualTo(HttpURLConnection.HTTP_NO_CONTENT);
+                        // and the command consumer has been created once only
+                        verify(amqpCommandConsumerFactory).createCommandConsumer(eq("tenant"), any());
+                        // and all entries have been set at once
+                        verify(deviceConnectionInfo).setCommandHandlingAdapterInstances(
+                                eq("tenant"), eq(deviceIds), eq("adapterInstanceId"), any(), any());
+                        verify(deviceConnectionInfo, never()).setCommandHandlingAdapterInstance(
+                                anyString(), anyString(), anyString(), any(), any());
+                        assertNoEventHasBeenSentDownstream();
+                    });
+                    ctx.completeNow();
+                }));
+    }
+
+    /**
+     * Verifies that unregistering command consumers for multiple devices succeeds even if some of the
+     * devices are not mapped to the adapter instance anymore.
+     *
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    public void testUnregisterCommandConsumersSkipsEntriesOfOtherAdapterInstances(final VertxTestContext ctx) {
+        when(deviceConnectionInfo.removeCommandHandlingAdapterInstance(anyString(), eq("device1"), anyString(), any()))
+                .thenReturn(Future.succeededFuture());
+        when(deviceConnectionInfo.removeCommandHandlingAdapterInstance(anyString(), eq("device2"), anyString(), any()))
+                .thenReturn(Future.failedFuture(new ClientErrorException(HttpURLConnection.HTTP_PRECON_FAILED)));
+
+        // WHEN unregistering command consumers for multiple devices
+        service.unregisterCommandConsumers("tenant", Set.of("device1", "device2"), true, "adapterInstanceId",
+                NoopSpan.INSTANCE)
+                .onComplete(ctx.succeeding(res -> {
+                    ctx.verify(() -> {
+                        // THEN the operation succeeds
+                        assertThat(res.getStatus()).isEqualTo(HttpURLConnection.HTTP_NO_CONTENT);
+                        // and a disconnected notification has only been sent for the removed entry
+                        assertEmptyNotificationHasBeenSentDownstream("tenant", "device1", 0);
+                    });
+                    ctx.completeNow();
+                }));
+    }
+
     /**
      * Verifies that command routing is enabled for a given set of tenant IDs.
      */
@@ -293,6 +354,45 @@ public class CommandRouterServiceImplTest {
         assertThat(eventLoop).isEmpty();
     }
 
+    /**
+     * Verifies that command routing is re-enabled for multiple tenants concurrently and that
+     * tenants having devices that have recently registered for commands are processed first.
+     */
+    @Test
+    public void testEnableCommandRoutingProcessesTenantsConcurrently() {
+
+        final Deque<Handler<Void>> eventLoop = new LinkedList<>();
+        doAnswer(invocation -> {
+            eventLoop.addLast(invocation.getArgument(0));
+            return null;
+        }).when(context).runOnContext(VertxMockSupport.anyHandler());
+        service.setMaxConcurrentTenantActivations(2);
+
+        // GIVEN a device of tenant3 that has registered for commands
+        service.registerCommandConsumer("tenant3", "device", false, "adapter", Duration.ofMinutes(1), NoopSpan.INSTANCE);
+        verify(amqpCommandConsumerFactory).createCommandConsumer(eq("tenant3"), any());
+
+        // WHEN submitting a list of tenants to enable
+        service.enableCommandRouting(List.of("tenant1", "tenant2", "tenant3"), NoopSpan.INSTANCE);
+        // THEN tasks for processing two tenants have been scheduled
+        assertThat(eventLoop).hasSize(2);
+
+        // WHEN running the next task on the event loop
+        eventLoop.pollFirst().handle(null);
+        // THEN a command consumer is being created for the tenant with recent activity
+        verify(amqpCommandConsumerFactory, times(2)).createCommandConsumer(eq("tenant3"), any());
+        // AND a task for the remaining tenant has been added to the event loop
+        assertThat(eventLoop).hasSize(2);
+
+        // WHEN running the remaining tasks on the event loop
+        eventLoop.pollFirst().handle(null);
+        verify(amqpCommandConsumerFactory).createCommandConsumer(eq("tenant1"), any());
+        eventLoop.pollFirst().handle(null);
+        verify(amqpCommandConsumerFactory).createCommandConsumer(eq("tenant2"), any());
+        // THEN no new task has been added to the event loop
+        assertThat(eventLoop).isEmpty();
+    }
+
     /**
      * Verifies that exponential back-off is used for rescheduling attempts
      * to enable command routing if an attempt fails.
@@ -333,25 +433,25 @@ public class CommandRouterServiceImplTest {
         eventLoop.pollFirst().handle(null);
         // THEN no command consumer has been created yet
         verify(amqpCommandConsumerFactory, never()).createCommandConsumer(anyString(), any());
-        // AND a new task for retrying the attempt has been scheduled with a
+        // AND a timer for retrying the attempt has been started with a
         // delay corresponding to the number of unsuccessful attempts that have been made
         verify(vertx).setTimer(eq(400L), VertxMockSupport.anyHandler());
         assertThat(eventLoop).hasSize(1);
 
-        // WHEN running the next task on the event loop
-        eventLoop.pollFirst().handle(null);
+        // WHEN the timer fires and the retry fails
+        runRetry(eventLoop);
         // THEN no command consumer has been created yet
         verify(amqpCommandConsumerFactory, never()).createCommandConsumer(anyString(), any());
-        // AND a new task for retrying the attempt has been scheduled with the
+        // AND a timer for retrying the attempt has been started with the
         // delay corresponding to the number of unsuccessful attempts that have been made
         verify(vertx).setTimer(eq(800L), VertxMockSupport.anyHandler());
         assertThat(eventLoop).hasSize(1);
 
-        // WHEN running the next task on the event loop
-        eventLoop.pollFirst().handle(null);
+        // WHEN the timer fires and the retry fails
+        runRetry(eventLoop);
         // THEN no command consumer has been created yet
         verify(amqpCommandConsumerFactory, never()).createCommandConsumer(anyString(), any());
-        // AND a new task for retrying the attempt has been scheduled with a
+        // AND a timer for retrying the attempt has been started with a
         // delay corresponding to the number of unsuccessful attempts that have been made
         verify(vertx).setTimer(eq(1600L), VertxMockSupport.anyHandler());
         assertThat(eventLoop).hasSize(1);
@@ -361,40 +461,128 @@ public class CommandRouterServiceImplTest {
         // THEN no additional task has been scheduled
         assertThat(eventLoop).hasSize(1);
 
-        // WHEN running the next task on the event loop
-        eventLoop.pollFirst().handle(null);
+        // WHEN the timer fires and the retry fails
+        runRetry(eventLoop);
         // THEN no command consumer has been created yet
         verify(amqpCommandConsumerFactory, never()).createCommandConsumer(anyString(), any());
-        // AND a new task for retrying the attempt has been scheduled with a
+        // AND a timer for retrying the attempt has been started with a
         // delay corresponding to the number of unsuccessful attempts that have been made
         verify(vertx).setTimer(eq(3200L), VertxMockSupport.anyHandler());
         assertThat(eventLoop).hasSize(1);
 
-        // WHEN running the next task on the event loop
-        eventLoop.pollFirst().handle(null);
+        // WHEN the timer fires and the retry fails
+        runRetry(eventLoop);
         // THEN no command consumer has been created yet
         verify(amqpCommandConsumerFactory, never()).createCommandConsumer(anyString(), any());
-        // AND a new task for retrying the attempt has been scheduled with a
+        // AND a timer for retrying the attempt has been started with a
         // delay corresponding to the number of unsuccessful attempts that have been made
         verify(vertx).setTimer(eq(6400L), VertxMockSupport.anyHandler());
         assertThat(eventLoop).hasSize(1);
 
-        // WHEN running the next task on the event loop
-        eventLoop.pollFirst().handle(null);
+        // WHEN the timer fires and the retry fails
+        runRetry(eventLoop);
         // THEN no command consumer has been created yet
         verify(amqpCommandConsumerFactory, never()).createCommandConsumer(anyString(), any());
-        // AND a new task for retrying the attempt has been scheduled with maximum delay
+        // AND a timer for retrying the attempt has been started with maximum delay
         verify(vertx).setTimer(eq(10000L), VertxMockSupport.anyHandler());
         assertThat(eventLoop).hasSize(1);
 
-        // WHEN running the next task on the event loop
-        eventLoop.pollFirst().handle(null);
+        // WHEN the timer fires and the retry succeeds
+        runRetry(eventLoop);
         // THEN a command consumer has been created for the tenant
         verify(amqpCommandConsumerFactory).createCommandConsumer(eq("tenant1"), any());
         // AND no new task for retrying the attempt has been added to the event loop
         assertThat(eventLoop).hasSize(0);
     }
 
+    /**
+     * Runs the timer task for retrying to enable command routing for a tenant
+     * and the task that makes the attempt.
+     *
+     * @param eventLoop The tasks scheduled on the event loop.
+     */
+    private static void runRetry(final Deque<Handler<?>> eventLoop) {
+        // the timer task adds the tenant to the queue again
+        eventLoop.pollFirst().handle(null);
+        assertThat(eventLoop).hasSize(1);
+        // which makes the next attempt on the event loop
+        eventLoop.pollFirst().handle(null);
+    }
+
+    /**
+     * Verifies that a tenant waiting for a re-try to enable command routing does not prevent
+     * command routing from being enabled for other tenants in the meantime.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testEnableCommandRoutingDoesNotBlockOtherTenantsDuringBackoff() {
+
+        final Deque<Handler<?>> eventLoop = new LinkedList<>();
+        doAnswer(invocation -> {
+            eventLoop.addLast(invocation.getArgument(0));
+            return null;
+        }).when(context).runOnContext(VertxMockSupport.anyHandler());
+        final Deque<Handler<?>> timers = new LinkedList<>();
+        when(vertx.setTimer(anyLong(), VertxMockSupport.anyHandler())).thenAnswer(invocation -> {
+            timers.addLast(invocation.getArgument(1));
+            return 1L;
+        });
+        when(tenantClient.get(eq("tenant1"), any())).thenReturn(
+                Future.failedFuture(new ServerErrorException(HttpURLConnection.HTTP_UNAVAILABLE)),
+                Future.succeededFuture(TenantObject.from("tenant1")));
+
+        // GIVEN command routing being enabled for two tenants, one at a time
+        service.enableCommandRouting(List.of("tenant1", "tenant2"), NoopSpan.INSTANCE);
+        assertThat(eventLoop).hasSize(1);
+
+        // WHEN the attempt for the first tenant fails
+        eventLoop.pollFirst().handle(null);
+        assertThat(timers).hasSize(1);
+        // THEN the second tenant is processed while the first one is waiting for its re-try
+        assertThat(eventLoop).hasSize(1);
+        eventLoop.pollFirst().handle(null);
+        verify(amqpCommandConsumerFactory).createCommandConsumer(eq("tenant2"), any());
+        assertThat(eventLoop).isEmpty();
+
+        // AND WHEN the timer for the re-try fires
+        timers.pollFirst().handle(null);
+        eventLoop.pollFirst().handle(null);
+        // THEN the command consumer for the first tenant is created
+        verify(amqpCommandConsumerFactory).createCommandConsumer(eq("tenant1"), any());
+        assertThat(eventLoop).isEmpty();
+    }
+
+    /**
+     * Verifies that a tenant that is waiting for command routing to be re-enabled is moved to the front
+     * of the queue once one of its devices registers for commands.
+     */
+    @Test
+    public void testRegisterCommandConsumerPrioritizesWaitingTenant() {
+
+        final Deque<Handler<Void>> eventLoop = new LinkedList<>();
+        doAnswer(invocation -> {
+            eventLoop.addLast(invocation.getArgument(0));
+            return null;
+        }).when(context).runOnContext(VertxMockSupport.anyHandler());
+
+        // GIVEN a list of tenants waiting for command routing to be re-enabled
+        service.enableCommandRouting(List.of("tenant1", "tenant2", "tenant3"), NoopSpan.INSTANCE);
+        assertThat(eventLoop).hasSize(1);
+
+        // WHEN a device of the last tenant registers for commands
+        service.registerCommandConsumer("tenant3", "device", false, "adapter", Duration.ofMinutes(1), NoopSpan.INSTANCE);
+
+        // THEN the tenant is processed right after the tenant that is already being processed
+        eventLoop.pollFirst().handle(null);
+        verify(amqpCommandConsumerFactory).createCommandConsumer(eq("tenant1"), any());
+        eventLoop.pollFirst().handle(null);
+        verify(amqpCommandConsumerFactory, times(2)).createCommandConsumer(eq("tenant3"), any());
+        verify(amqpCommandConsumerFactory, never()).createCommandConsumer(eq("tenant2"), any());
+        eventLoop.pollFirst().handle(null);
+        verify(amqpCommandConsumerFactory).createCommandConsumer(eq("tenant2"), any());
+        assertThat(eventLoop).isEmpty();
+    }
+
     /**
      * Verifies that the stop method effectively prevents command routing being re-enabled for
      * remaining tenant IDs.
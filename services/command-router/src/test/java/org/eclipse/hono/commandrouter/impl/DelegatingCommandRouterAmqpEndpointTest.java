@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2021, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2021, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -14,7 +14,10 @@
 package org.eclipse.hono.commandrouter.impl;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -22,7 +25,9 @@ import static org.mockito.Mockito.when;
 import static com.google.common.truth.Truth.assertThat;
 
 import java.net.HttpURLConnection;
+import java.time.Duration;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.qpid.proton.amqp.Binary;
 import org.apache.qpid.proton.amqp.messaging.Data;
@@ -30,7 +35,9 @@ import org.apache.qpid.proton.message.Message;
 import org.eclipse.hono.client.amqp.connection.AmqpUtils;
 import org.eclipse.hono.commandrouter.CommandRouterResult;
 import org.eclipse.hono.commandrouter.CommandRouterService;
+import org.eclipse.hono.util.CommandConstants;
 import org.eclipse.hono.util.CommandRouterConstants;
+import org.eclipse.hono.util.MessageHelper;
 import org.eclipse.hono.util.ResourceIdentifier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -82,6 +89,38 @@ class DelegatingCommandRouterAmqpEndpointTest {
             }));
     }
 
+    @Test
+    void testProcessRegisterCommandConsumerAcceptsJsonArrayOfDeviceIds(final VertxTestContext ctx) {
+        when(service.registerCommandConsumers(anyString(), any(), anyBoolean(), anyString(), any(), any()))
+            .thenReturn(Future.succeededFuture(CommandRouterResult.from(HttpURLConnection.HTTP_NO_CONTENT)));
+        final Message request = ProtonHelper.message();
+        request.setSubject(CommandRouterConstants.CommandRouterAction.REGISTER_COMMAND_CONSUMER.getSubject());
+        request.setMessageId("abc");
+        request.setReplyTo("reply/to/me");
+        AmqpUtils.addProperty(request, CommandConstants.MSG_PROPERTY_ADAPTER_INSTANCE_ID, "adapterInstanceId");
+        AmqpUtils.addProperty(request, MessageHelper.APP_PROPERTY_LIFESPAN, 20);
+        final JsonArray deviceIds = new JsonArray(List.of("device1", "device2"));
+        request.setBody(new Data(new Binary(deviceIds.toBuffer().getBytes())));
+
+        endpoint.processRegisterCommandConsumer(
+                request,
+                ResourceIdentifier.from(CommandRouterConstants.COMMAND_ROUTER_ENDPOINT, "tenant", null),
+                NoopSpan.INSTANCE.context())
+            .onComplete(ctx.succeeding(response -> {
+                ctx.verify(() -> {
+                    verify(service).registerCommandConsumers(
+                            eq("tenant"),
+                            eq(Set.of("device1", "device2")),
+                            eq(false),
+                            eq("adapterInstanceId"),
+                            eq(Duration.ofSeconds(20)),
+                            any());
+                    assertThat(AmqpUtils.getStatus(response)).isEqualTo(HttpURLConnection.HTTP_NO_CONTENT);
+                });
+                ctx.completeNow();
+            }));
+    }
+
     @Test
     void testEnableCommandRoutingRequestPassesFormalVerification() {
         final var request = getEnableCommandRoutingRequestMessage();
@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.hono.commandrouter.impl.kafka;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.net.HttpURLConnection;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.hono.client.ServerErrorException;
+import org.eclipse.hono.deviceconnection.infinispan.client.Cache;
+import org.eclipse.hono.test.VertxMockSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+
+/**
+ * Verifies behavior of {@link CacheBasedInstanceMembership}.
+ */
+public class CacheBasedInstanceMembershipTest {
+
+    private static final List<String> INSTANCE_IDS = List.of(
+            "hono-command-router-0",
+            "hono-command-router-1",
+            "hono-command-router-2");
+
+    private Cache<String, String> cache;
+    private ConsistentHashingPartitionFilter filter;
+    private CacheBasedInstanceMembership membership;
+
+    /**
+     * Sets up the fixture.
+     */
+    @SuppressWarnings("unchecked")
+    @BeforeEach
+    public void setUp() {
+        cache = mock(Cache.class);
+        when(cache.put(anyString(), anyString(), anyLong(), eq(TimeUnit.MILLISECONDS)))
+            .thenReturn(Future.succeededFuture());
+        filter = new ConsistentHashingPartitionFilter("hono-command-router-0", INSTANCE_IDS);
+        membership = new CacheBasedInstanceMembership(cache, filter, Duration.ofSeconds(10));
+    }
+
+    /**
+     * Verifies that the heartbeat entry is written with a lifespan of a multiple of the heartbeat interval
+     * and that instances without a heartbeat entry are no longer considered live.
+     */
+    @Test
+    public void testUpdateMembershipRemovesInstancesWithoutHeartbeat() {
+
+        when(cache.getAll(anySet())).thenReturn(Future.succeededFuture(Map.of(
+                "cr@@hono-command-router-0", "2023-01-01T00:00:00Z",
+                "cr@@hono-command-router-2", "2023-01-01T00:00:00Z")));
+
+        assertThat(membership.updateMembership().succeeded()).isTrue();
+        verify(cache).put(eq("cr@@hono-command-router-0"), anyString(), eq(30_000L), eq(TimeUnit.MILLISECONDS));
+        assertThat(filter.getLiveInstanceIds()).containsExactly("hono-command-router-0", "hono-command-router-2");
+    }
+
+    /**
+     * Verifies that the live instances are kept if the cache cannot be accessed.
+     */
+    @Test
+    public void testUpdateMembershipKeepsLiveInstancesOnFailure() {
+
+        filter.setLiveInstanceIds(List.of("hono-command-router-1"));
+        when(cache.getAll(anySet())).thenReturn(Future.failedFuture(
+                new ServerErrorException(HttpURLConnection.HTTP_UNAVAILABLE, "no connection to data grid")));
+
+        assertThat(membership.updateMembership().failed()).isTrue();
+        assertThat(filter.getLiveInstanceIds()).containsExactly("hono-command-router-0", "hono-command-router-1");
+    }
+
+    /**
+     * Verifies that the live instances are determined before the service's start completes.
+     */
+    @Test
+    public void testStartDeterminesLiveInstances() {
+
+        when(cache.getAll(anySet())).thenReturn(Future.succeededFuture(Map.of(
+                "cr@@hono-command-router-0", "2023-01-01T00:00:00Z")));
+        final Vertx vertx = mock(Vertx.class);
+        membership.init(vertx, mock(Context.class));
+
+        final Promise<Void> startPromise = Promise.promise();
+        membership.start(startPromise);
+
+        assertThat(startPromise.future().succeeded()).isTrue();
+        assertThat(filter.getLiveInstanceIds()).containsExactly("hono-command-router-0");
+        verify(vertx).setPeriodic(eq(10_000L), VertxMockSupport.anyHandler());
+    }
+
+    /**
+     * Verifies that the service's start completes if the cache cannot be accessed and that
+     * all configured instances are considered to be live in this case.
+     */
+    @Test
+    public void testStartSucceedsIfCacheCannotBeAccessed() {
+
+        when(cache.getAll(anySet())).thenReturn(Future.failedFuture(
+                new ServerErrorException(HttpURLConnection.HTTP_UNAVAILABLE, "no connection to data grid")));
+        final Vertx vertx = mock(Vertx.class);
+        membership.init(vertx, mock(Context.class));
+
+        final Promise<Void> startPromise = Promise.promise();
+        membership.start(startPromise);
+
+        assertThat(startPromise.future().succeeded()).isTrue();
+        assertThat(filter.getLiveInstanceIds()).containsExactlyElementsIn(INSTANCE_IDS);
+        verify(vertx).setPeriodic(eq(10_000L), VertxMockSupport.anyHandler());
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2023 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.hono.commandrouter.impl.kafka;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.hono.client.kafka.HonoTopic;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.Range;
+
+import io.vertx.kafka.client.common.TopicPartition;
+
+/**
+ * Tests verifying behavior of {@link ConsistentHashingPartitionFilter}.
+ *
+ */
+public class ConsistentHashingPartitionFilterTest {
+
+    private static final List<String> INSTANCE_IDS = List.of(
+            "hono-command-router-0",
+            "hono-command-router-1",
+            "hono-command-router-2");
+
+    private static List<TopicPartition> partitions(final int numberOfTenants) {
+        final List<TopicPartition> result = new ArrayList<>();
+        for (int i = 0; i < numberOfTenants; i++) {
+            final String topic = new HonoTopic(HonoTopic.Type.COMMAND, "tenant-" + i).toString();
+            for (int partition = 0; partition < 3; partition++) {
+                result.add(new TopicPartition(topic, partition));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Verifies that a single instance owns all partitions.
+     */
+    @Test
+    public void testSingleInstanceOwnsAllPartitions() {
+
+        final var filter = new ConsistentHashingPartitionFilter("router", List.of("router"));
+        assertThat(filter.getInstanceIds()).containsExactly("router");
+        assertThat(partitions(10).stream().allMatch(filter)).isTrue();
+    }
+
+    /**
+     * Verifies that the filter cannot be created with instance identifiers that do not contain
+     * the own instance identifier.
+     */
+    @Test
+    public void testConstructorFailsForMissingOwnInstanceId() {
+
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashingPartitionFilter("router", List.of()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ConsistentHashingPartitionFilter("hono-command-router-3", INSTANCE_IDS));
+    }
+
+    /**
+     * Verifies that the partitions of an instance that is no longer alive are taken over by the
+     * remaining instances while all other partitions keep their owner.
+     */
+    @Test
+    public void testPartitionsOfDeadInstanceAreReassigned() {
+
+        final var filter = new ConsistentHashingPartitionFilter("hono-command-router-0", INSTANCE_IDS);
+        final Map<TopicPartition, String> owners = new HashMap<>();
+        partitions(100).forEach(p -> owners.put(p, filter.getOwner(p.getTopic(), p.getPartition())));
+
+        assertThat(filter.setLiveInstanceIds(List.of("hono-command-router-1", "unknown-instance"))).isTrue();
+        assertThat(filter.getLiveInstanceIds()).containsExactly("hono-command-router-0", "hono-command-router-1");
+        assertThat(filter.setLiveInstanceIds(List.of("hono-command-router-1"))).isFalse();
+
+        owners.forEach((partition, owner) -> {
+            final String newOwner = filter.getOwner(partition.getTopic(), partition.getPartition());
+            if (owner.equals("hono-command-router-2")) {
+                assertThat(newOwner).isNotEqualTo("hono-command-router-2");
+            } else {
+                assertThat(newOwner).isEqualTo(owner);
+            }
+        });
+    }
+
+    /**
+     * Verifies that each partition is owned by exactly one instance and that the partitions
+     * are distributed evenly among the instances.
+     */
+    @Test
+    public void testPartitionsAreOwnedByExactlyOneInstance() {
+
+        final List<ConsistentHashingPartitionFilter> filters = INSTANCE_IDS.stream()
+                .map(id -> new ConsistentHashingPartitionFilter(id, INSTANCE_IDS))
+                .toList();
+        final Map<String, Integer> ownedPartitions = new HashMap<>();
+        for (final TopicPartition partition : partitions(1000)) {
+            final List<String> owners = filters.stream()
+                    .filter(filter -> filter.test(partition))
+                    .map(ConsistentHashingPartitionFilter::getInstanceId)
+                    .toList();
+            assertThat(owners).hasSize(1);
+            ownedPartitions.merge(owners.get(0), 1, Integer::sum);
+        }
+        // each instance is expected to own about 1000 partitions
+        assertThat(ownedPartitions.keySet()).containsExactlyElementsIn(INSTANCE_IDS);
+        ownedPartitions.values().forEach(count -> assertThat(count).isIn(Range.closed(850, 1150)));
+    }
+
+    /**
+     * Verifies that adding an instance only moves partitions to the new instance.
+     */
+    @Test
+    public void testAddingInstanceOnlyMovesPartitionsToNewInstance() {
+
+        final var filter = new ConsistentHashingPartitionFilter("hono-command-router-0", INSTANCE_IDS);
+        final List<String> extendedIds = new ArrayList<>(INSTANCE_IDS);
+        extendedIds.add("hono-command-router-3");
+        final var extendedFilter = new ConsistentHashingPartitionFilter("hono-command-router-0", extendedIds);
+
+        int movedPartitions = 0;
+        for (final TopicPartition partition : partitions(1000)) {
+            final String owner = filter.getOwner(partition.getTopic(), partition.getPartition());
+            final String newOwner = extendedFilter.getOwner(partition.getTopic(), partition.getPartition());
+            if (!owner.equals(newOwner)) {
+                assertThat(newOwner).isEqualTo("hono-command-router-3");
+                movedPartitions++;
+            }
+        }
+        // about a quarter of the partitions is expected to move to the new instance
+        assertThat(movedPartitions).isIn(Range.closed(600, 900));
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2020, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -250,6 +250,53 @@ public abstract class AbstractDeviceManagementService implements DeviceManagemen
                 "this implementation does not support the search devices operation"));
     }
 
+    /**
+     * Finds devices for search criteria, continuing a previous search.
+     * <p>
+     * This method is invoked by {@link #searchDevices(String, int, int, Optional, List, List, Span)} after all
+     * parameter checks have succeeded.
+     * <p>
+     * This default implementation invokes {@link #processSearchDevices(String, int, int, List, List, Span)} if
+     * no page token is given. Otherwise, it returns a future failed with a
+     * {@link org.eclipse.hono.client.ServerErrorException} having a {@link HttpURLConnection#HTTP_NOT_IMPLEMENTED}
+     * status code.
+     *
+     * @param tenantId The tenant that the devices belong to.
+     * @param pageSize The maximum number of results to include in a response.
+     * @param pageOffset The offset into the result set from which to include objects in the response.
+     *                   The offset is 0 if a page token is given.
+     * @param pageToken The token returned as part of the previous page of the result set.
+     * @param filters A list of filters. The filters are predicates that objects in the result set must match.
+     * @param sortOptions A list of sort options. The list is empty if a page token is given.
+     * @param span The active OpenTracing span to use for tracking this operation.
+     *             <p>
+     *             Implementations <em>must not</em> invoke the {@link Span#finish()} nor the {@link Span#finish(long)}
+     *             methods. However,implementations may log (error) events on this span, set tags and use this span
+     *             as the parent for additional spans created as part of this method's execution.
+     * @return A future indicating the outcome of the operation.
+     *         <p>
+     *         The future will be succeeded with a result containing the matching devices. Otherwise, the future will
+     *         be failed with a {@link org.eclipse.hono.client.ServiceInvocationException} containing an error code
+     *         as specified in the Device Registry Management API.
+     */
+    protected Future<OperationResult<SearchResult<DeviceWithId>>> processSearchDevices(
+            final String tenantId,
+            final int pageSize,
+            final int pageOffset,
+            final Optional<String> pageToken,
+            final List<Filter> filters,
+            final List<Sort> sortOptions,
+            final Span span) {
+
+        if (pageToken.isEmpty()) {
+            return processSearchDevices(tenantId, pageSize, pageOffset, filters, sortOptions, span);
+        }
+        return Future.failedFuture(new ServerErrorException(
+                tenantId,
+                HttpURLConnection.HTTP_NOT_IMPLEMENTED,
+                "this implementation does not support searching devices using a page token"));
+    }
+
     /**
      * Generates a unique device identifier for a given tenant. A default implementation generates a random UUID value.
      *
@@ -410,7 +457,21 @@ public abstract class AbstractDeviceManagementService implements DeviceManagemen
             final List<Sort> sortOptions,
             final Span span) {
 
+        return searchDevices(tenantId, pageSize, pageOffset, Optional.empty(), filters, sortOptions, span);
+    }
+
+    @Override
+    public final Future<OperationResult<SearchResult<DeviceWithId>>> searchDevices(
+            final String tenantId,
+            final int pageSize,
+            final int pageOffset,
+            final Optional<String> pageToken,
+            final List<Filter> filters,
+            final List<Sort> sortOptions,
+            final Span span) {
+
         Objects.requireNonNull(tenantId);
+        Objects.requireNonNull(pageToken);
         Objects.requireNonNull(filters);
         Objects.requireNonNull(sortOptions);
         Objects.requireNonNull(span);
@@ -421,6 +482,9 @@ public abstract class AbstractDeviceManagementService implements DeviceManagemen
         if (pageOffset < 0) {
             throw new IllegalArgumentException("page offset must not be negative");
         }
+        if (pageToken.isPresent() && (pageOffset > 0 || !sortOptions.isEmpty())) {
+            throw new IllegalArgumentException("page token cannot be used with page offset or sort options");
+        }
 
         return this.tenantInformationService
                 .tenantExists(tenantId, span)
@@ -429,7 +493,7 @@ public abstract class AbstractDeviceManagementService implements DeviceManagemen
                                 tenantId,
                                 result.getStatus(),
                                 "tenant does not exist"))
-                        : processSearchDevices(tenantId, pageSize, pageOffset, filters, sortOptions, span))
+                        : processSearchDevices(tenantId, pageSize, pageOffset, pageToken, filters, sortOptions, span))
                 .recover(t -> DeviceRegistryUtils.mapError(t, tenantId));
     }
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2020, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -14,7 +14,11 @@
 package org.eclipse.hono.deviceregistry.service.device;
 
 import java.net.HttpURLConnection;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -25,6 +29,7 @@ import org.eclipse.hono.deviceregistry.service.tenant.NoopTenantInformationServi
 import org.eclipse.hono.deviceregistry.service.tenant.TenantInformationService;
 import org.eclipse.hono.service.management.device.Device;
 import org.eclipse.hono.service.management.device.DeviceStatus;
+import org.eclipse.hono.service.management.tenant.Tenant;
 import org.eclipse.hono.service.registration.RegistrationService;
 import org.eclipse.hono.tracing.TracingHelper;
 import org.eclipse.hono.util.CacheDirective;
@@ -267,88 +272,157 @@ public abstract class AbstractRegistrationService implements RegistrationService
 
                     return CompositeFuture
                             .all(deviceInfoTracker, gatewayInfoTracker)
-                            .compose(ok -> {
-
-                                final RegistrationResult deviceResult = deviceInfoTracker.result();
-                                final RegistrationResult gatewayResult = gatewayInfoTracker.result();
-
-                                if (deviceResult.isNotFound() && !gatewayResult.isNotFound()
-                                        && isDeviceEnabled(gatewayResult)
-                                        && hasAuthorityForAutoRegistration(gatewayResult)
-                                        && supportsEdgeDeviceAutoProvisioning()) {
-
-                                    final Device device = new Device()
-                                            .setEnabled(true)
-                                            .setVia(Collections.singletonList(gatewayId))
-                                            .setStatus(new DeviceStatus().setAutoProvisioned(true));
-
-                                    final JsonArray memberOf = gatewayResult.getPayload()
-                                            .getJsonObject(RegistrationConstants.FIELD_DATA)
-                                            .getJsonArray(RegistryManagementConstants.FIELD_MEMBER_OF);
-                                    Optional.ofNullable(memberOf).ifPresent(array -> device.setViaGroups(array.stream()
-                                        .filter(String.class::isInstance)
-                                        .map(String.class::cast)
-                                        .collect(Collectors.toList())));
-
-                                    LOG.debug("auto-provisioning device {} for gateway {}", deviceId, gatewayId);
-                                    return edgeDeviceAutoProvisioner.performAutoProvisioning(tenantId, tenant, deviceId, 
-                                            gatewayId, device, span.context())
-                                            .compose(newDevice -> {
-                                                final JsonObject deviceData = JsonObject.mapFrom(newDevice);
-                                                return createSuccessfulRegistrationResult(tenantId, deviceId,
-                                                        deviceData, span);
-                                            })
-                                            .recover(this::convertToRegistrationResult);
-                                } else if (!isDeviceEnabled(deviceResult)) {
-                                    if (deviceResult.isNotFound()) {
-                                        LOG.debug("no such device");
-                                        TracingHelper.logError(span, "no such device");
-                                    } else {
-                                        LOG.debug("device not enabled");
-                                        TracingHelper.logError(span, "device not enabled");
-                                    }
-                                    return Future.succeededFuture(RegistrationResult.from(HttpURLConnection.HTTP_NOT_FOUND));
-                                } else if (!isDeviceEnabled(gatewayResult)) {
-                                    if (gatewayResult.isNotFound()) {
-                                        LOG.debug("no such gateway");
-                                        TracingHelper.logError(span, "no such gateway");
-                                    } else {
-                                        LOG.debug("gateway not enabled");
-                                        TracingHelper.logError(span, "gateway not enabled");
-                                    }
-                                    return Future.succeededFuture(RegistrationResult.from(HttpURLConnection.HTTP_FORBIDDEN));
-                                } else {
+                            .compose(ok -> assertGatewayRegistration(
+                                    tenantId,
+                                    tenant,
+                                    deviceId,
+                                    deviceInfoTracker.result(),
+                                    gatewayId,
+                                    gatewayInfoTracker.result(),
+                                    span));
+                })
+                .recover(this::convertToRegistrationResult);
+    }
 
-                                    final JsonObject deviceData = deviceResult.getPayload()
-                                            .getJsonObject(RegistrationConstants.FIELD_DATA, new JsonObject());
-                                    final JsonObject gatewayData = gatewayResult.getPayload()
-                                            .getJsonObject(RegistrationConstants.FIELD_DATA, new JsonObject());
+    private Future<RegistrationResult> assertGatewayRegistration(
+            final String tenantId,
+            final Tenant tenant,
+            final String deviceId,
+            final RegistrationResult deviceResult,
+            final String gatewayId,
+            final RegistrationResult gatewayResult,
+            final Span span) {
 
-                                    if (LOG.isDebugEnabled()) {
-                                        LOG.debug("Device data: {}", deviceData.encodePrettily());
-                                        LOG.debug("Gateway data: {}", gatewayData.encodePrettily());
-                                    }
+        if (deviceResult.isNotFound() && !gatewayResult.isNotFound()
+                && isDeviceEnabled(gatewayResult)
+                && hasAuthorityForAutoRegistration(gatewayResult)
+                && supportsEdgeDeviceAutoProvisioning()) {
 
-                                    if (isGatewayAuthorized(gatewayId, gatewayData, deviceId, deviceData)) {
-                                        if (supportsEdgeDeviceAutoProvisioning()) {
-                                            final Device device = deviceData.mapTo(Device.class);
-                                            return edgeDeviceAutoProvisioner
-                                                    .sendDelayedAutoProvisioningNotificationIfNeeded(tenantId, tenant,
-                                                            deviceId, gatewayId, device, span)
-                                                    .compose(v -> createSuccessfulRegistrationResult(tenantId, deviceId,
-                                                            deviceData, span));
-                                        } else {
-                                            return createSuccessfulRegistrationResult(tenantId, deviceId, deviceData, span);
-                                        }
-                                    } else {
-                                        LOG.debug("gateway not authorized");
-                                        TracingHelper.logError(span, "gateway not authorized");
-                                        return Future.succeededFuture(RegistrationResult.from(HttpURLConnection.HTTP_FORBIDDEN));
-                                    }
-                                }
-                            });
+            final Device device = new Device()
+                    .setEnabled(true)
+                    .setVia(Collections.singletonList(gatewayId))
+                    .setStatus(new DeviceStatus().setAutoProvisioned(true));
+
+            final JsonArray memberOf = gatewayResult.getPayload()
+                    .getJsonObject(RegistrationConstants.FIELD_DATA)
+                    .getJsonArray(RegistryManagementConstants.FIELD_MEMBER_OF);
+            Optional.ofNullable(memberOf).ifPresent(array -> device.setViaGroups(array.stream()
+                .filter(String.class::isInstance)
+                .map(String.class::cast)
+                .collect(Collectors.toList())));
+
+            LOG.debug("auto-provisioning device {} for gateway {}", deviceId, gatewayId);
+            return edgeDeviceAutoProvisioner.performAutoProvisioning(tenantId, tenant, deviceId, 
+                    gatewayId, device, span.context())
+                    .compose(newDevice -> {
+                        final JsonObject deviceData = JsonObject.mapFrom(newDevice);
+                        return createSuccessfulRegistrationResult(tenantId, deviceId,
+                                deviceData, span);
+                    })
+                    .recover(this::convertToRegistrationResult);
+        } else if (!isDeviceEnabled(deviceResult)) {
+            if (deviceResult.isNotFound()) {
+                LOG.debug("no such device");
+                TracingHelper.logError(span, "no such device");
+            } else {
+                LOG.debug("device not enabled");
+                TracingHelper.logError(span, "device not enabled");
+            }
+            return Future.succeededFuture(RegistrationResult.from(HttpURLConnection.HTTP_NOT_FOUND));
+        } else if (!isDeviceEnabled(gatewayResult)) {
+            if (gatewayResult.isNotFound()) {
+                LOG.debug("no such gateway");
+                TracingHelper.logError(span, "no such gateway");
+            } else {
+                LOG.debug("gateway not enabled");
+                TracingHelper.logError(span, "gateway not enabled");
+            }
+            return Future.succeededFuture(RegistrationResult.from(HttpURLConnection.HTTP_FORBIDDEN));
+        } else {
+
+            final JsonObject deviceData = deviceResult.getPayload()
+                    .getJsonObject(RegistrationConstants.FIELD_DATA, new JsonObject());
+            final JsonObject gatewayData = gatewayResult.getPayload()
+                    .getJsonObject(RegistrationConstants.FIELD_DATA, new JsonObject());
+
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Device data: {}", deviceData.encodePrettily());
+                LOG.debug("Gateway data: {}", gatewayData.encodePrettily());
+            }
+
+            if (isGatewayAuthorized(gatewayId, gatewayData, deviceId, deviceData)) {
+                if (supportsEdgeDeviceAutoProvisioning()) {
+                    final Device device = deviceData.mapTo(Device.class);
+                    return edgeDeviceAutoProvisioner
+                            .sendDelayedAutoProvisioningNotificationIfNeeded(tenantId, tenant,
+                                    deviceId, gatewayId, device, span)
+                            .compose(v -> createSuccessfulRegistrationResult(tenantId, deviceId,
+                                    deviceData, span));
+                } else {
+                    return createSuccessfulRegistrationResult(tenantId, deviceId, deviceData, span);
+                }
+            } else {
+                LOG.debug("gateway not authorized");
+                TracingHelper.logError(span, "gateway not authorized");
+                return Future.succeededFuture(RegistrationResult.from(HttpURLConnection.HTTP_FORBIDDEN));
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation looks up the tenant and, if a gateway ID is given, the gateway's registration
+     * information only once for all devices.
+     */
+    @Override
+    public Future<Map<String, RegistrationResult>> assertRegistrations(
+            final String tenantId,
+            final List<String> deviceIds,
+            final String gatewayId,
+            final Span span) {
+
+        Objects.requireNonNull(tenantId);
+        Objects.requireNonNull(deviceIds);
+        Objects.requireNonNull(span);
+
+        if (gatewayId == null) {
+            return RegistrationService.super.assertRegistrations(tenantId, deviceIds, null, span);
+        }
+
+        final Map<String, RegistrationResult> assertions = new LinkedHashMap<>(deviceIds.size());
+        return this.tenantInformationService.getTenant(tenantId, span)
+                .compose(tenant -> getRegistrationInformation(DeviceKey.from(tenantId, gatewayId), span)
+                        .compose(gatewayResult -> {
+                            @SuppressWarnings("rawtypes")
+                            final List<Future> results = new ArrayList<>(deviceIds.size());
+                            for (final String deviceId : deviceIds) {
+                                results.add(getRegistrationInformation(DeviceKey.from(tenantId, deviceId), span)
+                                        .compose(deviceResult -> assertGatewayRegistration(
+                                                tenantId,
+                                                tenant,
+                                                deviceId,
+                                                deviceResult,
+                                                gatewayId,
+                                                gatewayResult,
+                                                span))
+                                        .recover(this::convertToRegistrationResult)
+                                        .onSuccess(result -> assertions.put(deviceId, result)));
+                            }
+                            return CompositeFuture.all(results);
+                        }))
+                .map(ok -> {
+                    // restore the order of the given device IDs
+                    final Map<String, RegistrationResult> orderedAssertions = new LinkedHashMap<>(deviceIds.size());
+                    deviceIds.forEach(deviceId -> orderedAssertions.put(deviceId, assertions.get(deviceId)));
+                    return orderedAssertions;
                 })
-                .recover(this::convertToRegistrationResult);
+                .recover(t -> convertToRegistrationResult(t)
+                        .map(errorResult -> {
+                            final Map<String, RegistrationResult> errorResults = new LinkedHashMap<>(deviceIds.size());
+                            deviceIds.forEach(deviceId -> errorResults.put(deviceId, errorResult));
+                            return errorResults;
+                        }));
     }
 
     private boolean supportsEdgeDeviceAutoProvisioning() {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2020, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -175,6 +175,50 @@ public abstract class AbstractTenantManagementService implements TenantManagemen
                 "this implementation does not support the search tenants operation"));
     }
 
+    /**
+     * Finds tenants with optional filters, paging and sorting options, continuing a previous search.
+     * <p>
+     * This method is invoked by {@link #searchTenants(int, int, Optional, List, List, Span)} after all parameter
+     * checks have succeeded.
+     * <p>
+     * This default implementation invokes {@link #processSearchTenants(int, int, List, List, Span)} if
+     * no page token is given. Otherwise, it returns a future failed with a
+     * {@link org.eclipse.hono.client.ServerErrorException} having a {@link HttpURLConnection#HTTP_NOT_IMPLEMENTED}
+     * status code.
+     *
+     * @param pageSize The maximum number of results to include in a response.
+     * @param pageOffset The offset into the result set from which to include objects in the response.
+     *                   The offset is 0 if a page token is given.
+     * @param pageToken The token returned as part of the previous page of the result set.
+     * @param filters A list of filters. The filters are predicates that objects in the result set must match.
+     * @param sortOptions A list of sort options. The list is empty if a page token is given.
+     * @param span The active OpenTracing span to use for tracking this operation.
+     *             <p>
+     *             Implementations <em>must not</em> invoke the {@link Span#finish()} nor the {@link Span#finish(long)}
+     *             methods. However,implementations may log (error) events on this span, set tags and use this span
+     *             as the parent for additional spans created as part of this method's execution.
+     * @return A future indicating the outcome of the operation.
+     *         <p>
+     *         The future will be succeeded with a result containing the matching tenants. Otherwise, the future will
+     *         be failed with a {@link org.eclipse.hono.client.ServiceInvocationException} containing an error code
+     *         as specified in the Device Registry Management API.
+     */
+    protected Future<OperationResult<SearchResult<TenantWithId>>> processSearchTenants(
+            final int pageSize,
+            final int pageOffset,
+            final Optional<String> pageToken,
+            final List<Filter> filters,
+            final List<Sort> sortOptions,
+            final Span span) {
+
+        if (pageToken.isEmpty()) {
+            return processSearchTenants(pageSize, pageOffset, filters, sortOptions, span);
+        }
+        return Future.failedFuture(new ServerErrorException(
+                HttpURLConnection.HTTP_NOT_IMPLEMENTED,
+                "this implementation does not support searching tenants using a page token"));
+    }
+
     /**
      * Deletes a tenant.
      * <p>
@@ -299,6 +343,19 @@ public abstract class AbstractTenantManagementService implements TenantManagemen
             final List<Sort> sortOptions,
             final Span span) {
 
+        return searchTenants(pageSize, pageOffset, Optional.empty(), filters, sortOptions, span);
+    }
+
+    @Override
+    public final Future<OperationResult<SearchResult<TenantWithId>>> searchTenants(
+            final int pageSize,
+            final int pageOffset,
+            final Optional<String> pageToken,
+            final List<Filter> filters,
+            final List<Sort> sortOptions,
+            final Span span) {
+
+        Objects.requireNonNull(pageToken);
         Objects.requireNonNull(filters);
         Objects.requireNonNull(sortOptions);
         Objects.requireNonNull(span);
@@ -309,8 +366,11 @@ public abstract class AbstractTenantManagementService implements TenantManagemen
         if (pageOffset < 0) {
             throw new IllegalArgumentException("page offset must not be negative");
         }
+        if (pageToken.isPresent() && (pageOffset > 0 || !sortOptions.isEmpty())) {
+            throw new IllegalArgumentException("page token cannot be used with page offset or sort options");
+        }
 
-        return processSearchTenants(pageSize, pageOffset, filters, sortOptions, span)
+        return processSearchTenants(pageSize, pageOffset, pageToken, filters, sortOptions, span)
                 .recover(t -> DeviceRegistryUtils.mapError(t, null));
     }
 
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -14,6 +14,8 @@
 
 package org.eclipse.hono.service.management;
 
+import java.net.HttpURLConnection;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.BiConsumer;
@@ -21,12 +23,14 @@ import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.eclipse.hono.client.ClientErrorException;
 import org.eclipse.hono.config.ServiceConfigProperties;
 import org.eclipse.hono.service.http.AbstractDelegatingHttpEndpoint;
 import org.eclipse.hono.service.http.HttpUtils;
 
 import io.opentracing.Span;
 import io.opentracing.tag.Tags;
+import io.vertx.core.Future;
 import io.vertx.core.MultiMap;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
@@ -138,6 +142,32 @@ public abstract class AbstractDelegatingRegistryHttpEndpoint<S, T extends Servic
         response.end();
     }
 
+    /**
+     * Checks if a page token is used in combination with other paging parameters.
+     * <p>
+     * A page token encodes the position after the last entry of the previous page in the
+     * default ordering of the result set. It therefore cannot be combined with a page offset
+     * or custom sort options.
+     *
+     * @param pageToken The (optional) page token.
+     * @param pageOffset The page offset.
+     * @param sortOptions The sort options.
+     * @return A succeeded future if the parameters can be used together.
+     *         Otherwise, a future failed with a {@link ClientErrorException} having status 400.
+     */
+    protected static Future<Void> checkPageTokenUsage(
+            final Optional<String> pageToken,
+            final int pageOffset,
+            final List<?> sortOptions) {
+
+        if (pageToken.isPresent() && (pageOffset > 0 || !sortOptions.isEmpty())) {
+            return Future.failedFuture(new ClientErrorException(
+                    HttpURLConnection.HTTP_BAD_REQUEST,
+                    "page token cannot be used in combination with page offset or sort options"));
+        }
+        return Future.succeededFuture();
+    }
+
     private Buffer asJson(final Object obj) {
         try {
             return Json.encodeToBuffer(obj);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2020, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -12,12 +12,15 @@
  *******************************************************************************/
 package org.eclipse.hono.service.management;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
 import org.eclipse.hono.util.RegistryManagementConstants;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -37,6 +40,7 @@ import io.quarkus.runtime.annotations.RegisterForReflection;
 public final class SearchResult<T> {
     private final int total;
     private final List<T> result;
+    private final String nextPageToken;
 
     /**
      * Creates an instance of {@link SearchResult}.
@@ -45,13 +49,62 @@ public final class SearchResult<T> {
      * @param result The list of devices with their identifiers.
      * @throws NullPointerException if any of the parameters is {@code null}.
      */
+    public SearchResult(final int total, final List<T> result) {
+        this(total, result, null);
+    }
+
+    /**
+     * Creates an instance of {@link SearchResult}.
+     *
+     * @param total The total number of objects in the result set, regardless of the pageSize set in query.
+     * @param result The list of devices with their identifiers.
+     * @param nextPageToken The token to use for retrieving the next page of the result set or {@code null}
+     *                      if no more pages are available.
+     * @throws NullPointerException if result is {@code null}.
+     */
+    @JsonCreator
     public SearchResult(
             @JsonProperty(value = RegistryManagementConstants.FIELD_RESULT_SET_SIZE) final int total,
-            @JsonProperty(value = RegistryManagementConstants.FIELD_RESULT_SET_PAGE) final List<T> result) {
+            @JsonProperty(value = RegistryManagementConstants.FIELD_RESULT_SET_PAGE) final List<T> result,
+            @JsonProperty(value = RegistryManagementConstants.FIELD_RESULT_SET_NEXT_PAGE_TOKEN) final String nextPageToken) {
         Objects.requireNonNull(result);
 
         this.total = total;
         this.result = Collections.unmodifiableList(result);
+        this.nextPageToken = nextPageToken;
+    }
+
+    /**
+     * Creates an opaque token for retrieving the page of a result set that follows a given object.
+     * <p>
+     * The token can be used for <em>keyset</em> pagination, i.e. for retrieving the objects that follow
+     * the given object in the order of their identifiers. In contrast to skipping a number of objects,
+     * the cost of retrieving a page this way does not depend on the page's position in the result set.
+     *
+     * @param lastId The identifier of the last object of the current page.
+     * @return The token.
+     * @throws NullPointerException if the identifier is {@code null}.
+     */
+    public static String createPageToken(final String lastId) {
+        Objects.requireNonNull(lastId);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(lastId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Gets the identifier of the object that a page token has been created for.
+     *
+     * @param pageToken The token as created by {@link #createPageToken(String)}.
+     * @return The identifier of the last object of the previous page.
+     * @throws NullPointerException if the token is {@code null}.
+     * @throws IllegalArgumentException if the token is malformed.
+     */
+    public static String getLastIdFromPageToken(final String pageToken) {
+        Objects.requireNonNull(pageToken);
+        final String lastId = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8);
+        if (lastId.isEmpty()) {
+            throw new IllegalArgumentException("malformed page token");
+        }
+        return lastId;
     }
 
     /**
@@ -71,4 +124,14 @@ public final class SearchResult<T> {
     public List<T> getResult() {
         return result;
     }
+
+    /**
+     * Gets the token to use for retrieving the next page of the result set.
+     *
+     * @return The token or {@code null} if no more pages are available.
+     */
+    @JsonProperty(value = RegistryManagementConstants.FIELD_RESULT_SET_NEXT_PAGE_TOKEN)
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2020, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -182,17 +182,25 @@ public class DelegatingDeviceManagementHttpEndpoint<S extends DeviceManagementSe
                 DEFAULT_PAGE_OFFSET,
                 CONVERTER_INT,
                 value -> value >= MIN_PAGE_OFFSET);
+        final Future<Optional<String>> pageToken = getRequestParameter(
+                ctx,
+                RegistryManagementConstants.PARAM_PAGE_TOKEN,
+                Optional.empty(),
+                Optional::of,
+                value -> true);
         final Future<List<Filter>> filters = decodeJsonFromRequestParameter(ctx,
                 RegistryManagementConstants.PARAM_FILTER_JSON, Filter.class);
         final Future<List<Sort>> sortOptions = decodeJsonFromRequestParameter(ctx,
                 RegistryManagementConstants.PARAM_SORT_JSON, Sort.class);
 
-        CompositeFuture.all(pageSize, pageOffset, filters, sortOptions)
+        CompositeFuture.all(pageSize, pageOffset, pageToken, filters, sortOptions)
                 .onSuccess(ok -> TracingHelper.TAG_TENANT_ID.set(span, tenantId))
+                .compose(ok -> checkPageTokenUsage(pageToken.result(), pageOffset.result(), sortOptions.result()))
                 .compose(ok -> getService().searchDevices(
                         tenantId,
                         pageSize.result(),
                         pageOffset.result(),
+                        pageToken.result(),
                         filters.result(),
                         sortOptions.result(),
                         span))
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2019, 2021 Contributors to the Eclipse Foundation
+ * Copyright (c) 2019, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -15,6 +15,7 @@ package org.eclipse.hono.service.management.tenant;
 
 import java.net.HttpURLConnection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 import org.eclipse.hono.client.ServerErrorException;
@@ -121,6 +122,57 @@ public interface TenantManagementService {
                 "this implementation does not support the search tenants operation"));
     }
 
+    /**
+     * Finds tenants for search criteria, continuing a previous search.
+     * <p>
+     * If a page token is given, the result contains the tenants that follow (in the order of their
+     * identifiers) the last tenant of the page that the token has been returned with. The cost of retrieving
+     * a page this way does not depend on the page's position in the result set.
+     * <p>
+     * This default implementation invokes {@link #searchTenants(int, int, List, List, Span)} if
+     * no page token is given. Otherwise, it returns a future failed with a
+     * {@link org.eclipse.hono.client.ServerErrorException} having a {@link HttpURLConnection#HTTP_NOT_IMPLEMENTED}
+     * status code.
+     *
+     * @param pageSize The maximum number of results to include in a response.
+     * @param pageOffset The offset into the result set from which to include objects in the response.
+     *                   Must be 0 if a page token is given.
+     * @param pageToken The token returned as part of the previous page of the result set.
+     * @param filters A list of filters. The filters are predicates that objects in the result set must match.
+     * @param sortOptions A list of sort options. Must be empty if a page token is given.
+     * @param span The active OpenTracing span to use for tracking this operation.
+     *             <p>
+     *             Implementations <em>must not</em> invoke the {@link Span#finish()} nor the {@link Span#finish(long)}
+     *             methods. However,implementations may log (error) events on this span, set tags and use this span
+     *             as the parent for additional spans created as part of this method's execution.
+     * @return A future indicating the outcome of the operation.
+     *         <p>
+     *         The future will be succeeded with a result containing the matching tenants. Otherwise, the future will
+     *         be failed with a {@link org.eclipse.hono.client.ServiceInvocationException} containing an error code
+     *         as specified in the Device Registry Management API.
+     * @throws NullPointerException if any of page token, filters, sort options or tracing span are {@code null}.
+     * @throws IllegalArgumentException if page size is &lt;= 0 or page offset is &lt; 0.
+     * @see <a href="https://www.eclipse.org/hono/docs/api/management/#/tenants/searchTenants"> Device Registry
+     *      Management API - Search Tenants</a>
+     */
+    default Future<OperationResult<SearchResult<TenantWithId>>> searchTenants(
+            final int pageSize,
+            final int pageOffset,
+            final Optional<String> pageToken,
+            final List<Filter> filters,
+            final List<Sort> sortOptions,
+            final Span span) {
+
+        Objects.requireNonNull(pageToken);
+
+        if (pageToken.isEmpty()) {
+            return searchTenants(pageSize, pageOffset, filters, sortOptions, span);
+        }
+        return Future.failedFuture(new ServerErrorException(
+                HttpURLConnection.HTTP_NOT_IMPLEMENTED,
+                "this implementation does not support searching tenants using a page token"));
+    }
+
     /**
      * Updates configuration information of a tenant.
      *
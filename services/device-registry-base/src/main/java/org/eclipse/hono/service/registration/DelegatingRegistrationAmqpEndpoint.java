@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2020, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -13,8 +13,12 @@
 package org.eclipse.hono.service.registration;
 
 import java.net.HttpURLConnection;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
+import org.apache.qpid.proton.amqp.Symbol;
 import org.apache.qpid.proton.message.Message;
 import org.eclipse.hono.client.ClientErrorException;
 import org.eclipse.hono.client.amqp.connection.AmqpUtils;
@@ -31,6 +35,9 @@ import io.opentracing.Span;
 import io.opentracing.SpanContext;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
 
 /**
  * An {@code AmqpEndpoint} for managing device registration information.
@@ -44,6 +51,7 @@ import io.vertx.core.Vertx;
 public class DelegatingRegistrationAmqpEndpoint<S extends RegistrationService> extends AbstractDelegatingRequestResponseEndpoint<S, ServiceConfigProperties> {
 
     private static final String SPAN_NAME_ASSERT_DEVICE_REGISTRATION = "assert Device Registration";
+    private static final String SPAN_NAME_ASSERT_DEVICE_REGISTRATIONS = "assert Device Registrations";
 
     /**
      * Creates a new registration endpoint for a service instance.
@@ -61,6 +69,17 @@ public class DelegatingRegistrationAmqpEndpoint<S extends RegistrationService> e
         return RegistrationConstants.REGISTRATION_ENDPOINT;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Offers the {@link AmqpUtils#CAP_ASSERT_BATCH} capability, indicating support for the
+     * <em>assert device registrations</em> operation.
+     */
+    @Override
+    protected Symbol[] getOfferedCapabilities() {
+        return new Symbol[] { AmqpUtils.CAP_ASSERT_BATCH };
+    }
+
     @Override
     protected Future<Message> handleRequestMessage(final Message requestMessage, final ResourceIdentifier targetAddress,
             final SpanContext spanContext) {
@@ -76,6 +95,8 @@ public class DelegatingRegistrationAmqpEndpoint<S extends RegistrationService> e
         switch (operation) {
             case RegistrationConstants.ACTION_ASSERT:
                 return processAssertRequest(requestMessage, targetAddress, spanContext);
+            case RegistrationConstants.ACTION_ASSERT_BATCH:
+                return processAssertBatchRequest(requestMessage, targetAddress, spanContext);
             default:
                 return processCustomRegistrationMessage(requestMessage, spanContext);
         }
@@ -122,6 +143,82 @@ public class DelegatingRegistrationAmqpEndpoint<S extends RegistrationService> e
         return finishSpanOnFutureCompletion(span, resultFuture);
     }
 
+    private Future<Message> processAssertBatchRequest(final Message request, final ResourceIdentifier targetAddress,
+            final SpanContext spanContext) {
+
+        final String tenantId = targetAddress.getTenantId();
+        final String gatewayId = AmqpUtils.getGatewayId(request);
+
+        final Span span = TracingHelper.buildServerChildSpan(tracer,
+                spanContext,
+                SPAN_NAME_ASSERT_DEVICE_REGISTRATIONS,
+                getClass().getSimpleName()
+        ).start();
+
+        TracingHelper.TAG_TENANT_ID.set(span, tenantId);
+        TracingHelper.TAG_GATEWAY_ID.set(span, gatewayId);
+
+        final Future<Message> resultFuture;
+        final List<String> deviceIds = getDeviceIds(request);
+        if (tenantId == null || deviceIds == null) {
+            TracingHelper.logError(span, "missing tenant and/or malformed device IDs");
+            resultFuture = Future.failedFuture(new ClientErrorException(HttpURLConnection.HTTP_BAD_REQUEST));
+        } else if (deviceIds.size() > RegistrationConstants.MAX_BATCH_SIZE) {
+            TracingHelper.logError(span, "too many device IDs");
+            resultFuture = Future.failedFuture(new ClientErrorException(
+                    HttpURLConnection.HTTP_BAD_REQUEST,
+                    "request must not contain more than %d device IDs".formatted(RegistrationConstants.MAX_BATCH_SIZE)));
+        } else {
+            span.log(Map.of("devices", deviceIds.size()));
+            logger.debug("asserting registration of {} devices [tenant: {}, gateway: {}]",
+                    deviceIds.size(), tenantId, gatewayId);
+            resultFuture = getService().assertRegistrations(tenantId, deviceIds, gatewayId, span)
+                    .map(results -> AbstractRequestResponseEndpoint.getAmqpReply(
+                            RegistrationConstants.REGISTRATION_ENDPOINT,
+                            tenantId,
+                            request,
+                            RegistrationResult.from(HttpURLConnection.HTTP_OK, toJson(results))));
+        }
+        return finishSpanOnFutureCompletion(span, resultFuture);
+    }
+
+    private static List<String> getDeviceIds(final Message request) {
+        try {
+            final JsonObject payload = AmqpUtils.getJsonPayload(request);
+            if (payload == null) {
+                return null;
+            }
+            final JsonArray deviceIds = payload.getJsonArray(RegistrationConstants.FIELD_DEVICE_IDS);
+            if (deviceIds == null || deviceIds.isEmpty()
+                    || !deviceIds.stream().allMatch(String.class::isInstance)) {
+                return null;
+            }
+            return deviceIds.stream()
+                    .map(String.class::cast)
+                    .distinct()
+                    .collect(Collectors.toList());
+        } catch (final DecodeException | ClassCastException e) {
+            return null;
+        }
+    }
+
+    private static JsonObject toJson(final Map<String, RegistrationResult> results) {
+        final JsonArray resultArray = new JsonArray();
+        results.forEach((deviceId, result) -> {
+            final JsonObject entry = new JsonObject()
+                    .put(RegistrationConstants.FIELD_PAYLOAD_DEVICE_ID, deviceId)
+                    .put(RegistrationConstants.FIELD_RESULT_STATUS, result.getStatus());
+            if (result.isOk() && result.getPayload() != null) {
+                entry.put(RegistrationConstants.FIELD_RESULT_PAYLOAD, result.getPayload());
+            }
+            if (result.getCacheDirective() != null) {
+                entry.put(RegistrationConstants.FIELD_RESULT_CACHE_DIRECTIVE, result.getCacheDirective().toString());
+            }
+            resultArray.add(entry);
+        });
+        return new JsonObject().put(RegistrationConstants.FIELD_RESULTS, resultArray);
+    }
+
     /**
      * Processes a request for a non-standard operation.
      * <p>
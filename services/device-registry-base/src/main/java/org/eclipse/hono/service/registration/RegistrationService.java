@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2020 Contributors to the Eclipse Foundation
+ * Copyright (c) 2016, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -13,9 +13,17 @@
 
 package org.eclipse.hono.service.registration;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.eclipse.hono.client.ServiceInvocationException;
 import org.eclipse.hono.util.RegistrationResult;
 
 import io.opentracing.Span;
+import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 
 /**
@@ -154,4 +162,57 @@ public interface RegistrationService {
         return assertRegistration(tenantId, deviceId, gatewayId);
     }
 
+    /**
+     * Asserts that multiple devices are registered with a given tenant and are enabled.
+     * <p>
+     * This operation is used by protocol adapters in order to reduce the number of requests
+     * sent to the Device Registration service, e.g. when a gateway with many connected devices reconnects.
+     * <p>
+     * This default implementation invokes {@link #assertRegistration(String, String, Span)} or
+     * {@link #assertRegistration(String, String, String, Span)} for each device.
+     * Implementations may override this method in order to implement a more efficient approach,
+     * e.g. looking up the tenant and the gateway only once.
+     *
+     * @param tenantId The tenant the devices belong to.
+     * @param deviceIds The IDs of the devices to get the assertions for.
+     * @param gatewayId The gateway that wants to act on behalf of the devices or {@code null}
+     *                  if the devices are not connected via a gateway.
+     * @param span The active OpenTracing span for this operation. It is not to be closed in this method!
+     *            An implementation should log (error) events on this span and it may set tags and use this span as the
+     *            parent for any spans created in this method.
+     * @return A future indicating the outcome of the operation.
+     *         The future will be succeeded with a map containing the outcome of the assertion for each of the
+     *         given device IDs, using the status codes defined for
+     *         {@link #assertRegistration(String, String, String, Span)}.
+     * @throws NullPointerException if any of the parameters other than gateway ID is {@code null}.
+     * @see <a href="https://www.eclipse.org/hono/docs/api/device-registration/#assert-device-registrations">
+     *      Device Registration API - Assert Device Registrations</a>
+     */
+    default Future<Map<String, RegistrationResult>> assertRegistrations(
+            final String tenantId,
+            final List<String> deviceIds,
+            final String gatewayId,
+            final Span span) {
+
+        Objects.requireNonNull(tenantId);
+        Objects.requireNonNull(deviceIds);
+        Objects.requireNonNull(span);
+
+        final List<Future<RegistrationResult>> results = new ArrayList<>(deviceIds.size());
+        for (final String deviceId : deviceIds) {
+            final Future<RegistrationResult> result = gatewayId == null
+                    ? assertRegistration(tenantId, deviceId, span)
+                    : assertRegistration(tenantId, deviceId, gatewayId, span);
+            results.add(result.recover(t -> Future.succeededFuture(
+                    RegistrationResult.from(ServiceInvocationException.extractStatusCode(t)))));
+        }
+        return CompositeFuture.all(new ArrayList<>(results))
+                .map(ok -> {
+                    final Map<String, RegistrationResult> assertions = new LinkedHashMap<>(deviceIds.size());
+                    for (int i = 0; i < deviceIds.size(); i++) {
+                        assertions.put(deviceIds.get(i), results.get(i).result());
+                    }
+                    return assertions;
+                });
+    }
 }
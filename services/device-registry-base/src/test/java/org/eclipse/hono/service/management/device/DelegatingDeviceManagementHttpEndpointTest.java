@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2020, 2021 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -89,6 +89,7 @@ public class DelegatingDeviceManagementHttpEndpointTest {
                 anyString(),
                 anyInt(),
                 anyInt(),
+                any(Optional.class),
                 any(List.class),
                 any(List.class),
                 any(Span.class)))
@@ -298,6 +299,7 @@ public class DelegatingDeviceManagementHttpEndpointTest {
                 eq("mytenant"),
                 eq(DelegatingDeviceManagementHttpEndpoint.DEFAULT_PAGE_SIZE),
                 eq(DelegatingDeviceManagementHttpEndpoint.DEFAULT_PAGE_OFFSET),
+                eq(Optional.empty()),
                 argThat(List::isEmpty),
                 argThat(List::isEmpty),
                 any(Span.class));
@@ -332,6 +334,7 @@ public class DelegatingDeviceManagementHttpEndpointTest {
                 eq("mytenant"),
                 eq(10),
                 eq(50),
+                eq(Optional.empty()),
                 argThat(filters -> {
                     if (filters.isEmpty()) {
                         return false;
@@ -398,6 +401,49 @@ public class DelegatingDeviceManagementHttpEndpointTest {
         testSearchDevicesFailsForMalformedSearchCriteria(requestParams);
     }
 
+    /**
+     * Verifies that the endpoint passes a page token provided in a request's query parameters
+     * to the service.
+     */
+    @Test
+    public void testSearchDevicesSucceedsWithPageToken() {
+
+        final HttpServerResponse response = newResponse();
+
+        requestParams.add(RegistryManagementConstants.PARAM_PAGE_TOKEN, "ZGV2aWNlLTE");
+
+        final HttpServerRequest request = newRequest(
+                HttpMethod.GET,
+                "/v1/devices/mytenant",
+                requestHeaders,
+                requestParams,
+                response);
+
+        router.handle(request);
+
+        verify(response).setStatusCode(HttpURLConnection.HTTP_OK);
+        verify(service).searchDevices(
+                eq("mytenant"),
+                eq(DelegatingDeviceManagementHttpEndpoint.DEFAULT_PAGE_SIZE),
+                eq(0),
+                eq(Optional.of("ZGV2aWNlLTE")),
+                argThat(List::isEmpty),
+                argThat(List::isEmpty),
+                any(Span.class));
+    }
+
+    /**
+     * Verifies that the endpoint returns a 400 status code if the request contains
+     * a page token in combination with a page offset.
+     */
+    @Test
+    public void testSearchDevicesFailsForPageTokenWithPageOffset() {
+
+        requestParams.add(RegistryManagementConstants.PARAM_PAGE_TOKEN, "ZGV2aWNlLTE");
+        requestParams.add(RegistryManagementConstants.PARAM_PAGE_OFFSET, "2");
+        testSearchDevicesFailsForMalformedSearchCriteria(requestParams);
+    }
+
     @SuppressWarnings("unchecked")
     private void testSearchDevicesFailsForMalformedSearchCriteria(final MultiMap params) {
 
@@ -417,6 +463,7 @@ public class DelegatingDeviceManagementHttpEndpointTest {
                 anyString(),
                 anyInt(),
                 anyInt(),
+                any(Optional.class),
                 any(List.class),
                 any(List.class),
                 any(Span.class));
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2020, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -154,14 +154,16 @@ public class DeviceManagementServiceImpl extends AbstractDeviceManagementService
         final String tenantId,
         final int pageSize,
         final int pageOffset,
+        final Optional<String> pageToken,
         final List<Filter> filters,
         final List<Sort> sortOptions,
         final Span span) {
 
         Objects.requireNonNull(tenantId);
+        Objects.requireNonNull(pageToken);
         Objects.requireNonNull(span);
 
-        return store.findDevices(tenantId, pageSize, pageOffset, span.context())
+        return store.findDevices(tenantId, pageSize, pageOffset, pageToken, span.context())
             .map(result -> OperationResult.ok(
                     HttpURLConnection.HTTP_OK,
                     result,
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2020, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2020, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -135,15 +135,17 @@ public class TenantManagementServiceImpl extends AbstractTenantManagementService
     protected Future<OperationResult<SearchResult<TenantWithId>>> processSearchTenants(
         final int pageSize,
         final int pageOffset,
+        final Optional<String> pageToken,
         final List<Filter> filters,
         final List<Sort> sortOptions,
         final Span span) {
 
         Objects.requireNonNull(filters);
         Objects.requireNonNull(sortOptions);
+        Objects.requireNonNull(pageToken);
         Objects.requireNonNull(span);
 
-        return store.find(pageSize, pageOffset, span.context())
+        return store.find(pageSize, pageOffset, pageToken, span.context())
             .map(result -> OperationResult.ok(
                     HttpURLConnection.HTTP_OK,
                     result,
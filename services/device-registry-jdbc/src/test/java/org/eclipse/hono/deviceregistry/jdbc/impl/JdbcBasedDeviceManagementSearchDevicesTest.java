@@ -16,6 +16,8 @@ package org.eclipse.hono.deviceregistry.jdbc.impl;
 import static com.google.common.truth.Truth.assertThat;
 
 import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -139,4 +141,87 @@ class JdbcBasedDeviceManagementSearchDevicesTest extends AbstractJdbcRegistryTes
                 ctx.completeNow();
             }));
     }
+
+    /**
+     * Verifies that a large result set can be retrieved page by page using the page tokens
+     * contained in the search results.
+     *
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    void testSearchDevicesWithPageTokenReturnsAllDevices(final VertxTestContext ctx) {
+        final String tenantId = DeviceRegistryUtils.getUniqueIdentifier();
+        final int numberOfDevices = 125;
+        final int pageSize = 10;
+        final Map<String, Device> devices = new HashMap<>();
+        final List<String> expectedIds = new ArrayList<>();
+        for (int i = 0; i < numberOfDevices; i++) {
+            final String deviceId = String.format("device-%04d", i);
+            devices.put(deviceId, new Device().setEnabled(true));
+            expectedIds.add(deviceId);
+        }
+        final List<String> retrievedIds = new ArrayList<>();
+
+        createDevices(tenantId, devices)
+            .compose(ok -> searchAllPages(tenantId, pageSize, null, retrievedIds))
+            .onComplete(ctx.succeeding(numberOfPages -> {
+                ctx.verify(() -> {
+                    assertThat(numberOfPages).isEqualTo(13);
+                    assertThat(retrievedIds).containsExactlyElementsIn(expectedIds).inOrder();
+                });
+                ctx.completeNow();
+            }));
+    }
+
+    private Future<Integer> searchAllPages(
+            final String tenantId,
+            final int pageSize,
+            final String pageToken,
+            final List<String> retrievedIds) {
+
+        return getDeviceManagementService()
+                .searchDevices(
+                        tenantId,
+                        pageSize,
+                        0,
+                        Optional.ofNullable(pageToken),
+                        List.of(),
+                        List.of(),
+                        NoopSpan.INSTANCE)
+                .compose(result -> {
+                    final SearchResult<DeviceWithId> page = result.getPayload();
+                    assertThat(page.getTotal()).isEqualTo(125);
+                    page.getResult().forEach(device -> retrievedIds.add(device.getId()));
+                    if (page.getNextPageToken() == null) {
+                        return Future.succeededFuture(1);
+                    }
+                    return searchAllPages(tenantId, pageSize, page.getNextPageToken(), retrievedIds)
+                            .map(pages -> pages + 1);
+                });
+    }
+
+    /**
+     * Verifies that a request to search devices using a malformed page token fails with a
+     * {@value HttpURLConnection#HTTP_BAD_REQUEST}.
+     *
+     * @param ctx The vert.x test context.
+     */
+    @Test
+    void testSearchDevicesWithMalformedPageTokenFails(final VertxTestContext ctx) {
+        final String tenantId = DeviceRegistryUtils.getUniqueIdentifier();
+
+        createDevices(tenantId, Map.of("testDevice1", new Device()))
+            .compose(ok -> getDeviceManagementService().searchDevices(
+                    tenantId,
+                    10,
+                    0,
+                    Optional.of("not a valid token"),
+                    List.of(),
+                    List.of(),
+                    NoopSpan.INSTANCE))
+            .onComplete(ctx.failing(t -> {
+                ctx.verify(() -> Assertions.assertServiceInvocationException(t, HttpURLConnection.HTTP_BAD_REQUEST));
+                ctx.completeNow();
+            }));
+    }
 }
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2021 Contributors to the Eclipse Foundation
+ * Copyright (c) 2021, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -99,10 +99,44 @@ public interface DeviceDao {
      * @throws NullPointerException if any of the parameters other than tracing context are {@code null}.
      * @throws IllegalArgumentException if page size is &lt;= 0 or page offset is negative.
      */
+    default Future<SearchResult<DeviceWithId>> find(
+            final String tenantId,
+            final int pageSize,
+            final int pageOffset,
+            final List<Filter> filters,
+            final List<Sort> sortOptions,
+            final SpanContext tracingContext) {
+        return find(tenantId, pageSize, pageOffset, Optional.empty(), filters, sortOptions, tracingContext);
+    }
+
+    /**
+     * Finds devices by search criteria, optionally continuing a previous search.
+     *
+     * @param tenantId The tenant that the devices belong to.
+     * @param pageSize The maximum number of results to include in a response.
+     * @param pageOffset The offset into the result set from which to include objects in the response. This allows to
+     *                   retrieve the whole result set page by page. Must be 0 if a page token is given.
+     * @param pageToken The token returned as part of the previous page of the result set. If given, the devices
+     *                  following the last device of the previous page in the order of their identifiers are returned.
+     * @param filters A list of filters. The filters are predicates that objects in the result set must match.
+     * @param sortOptions A list of sort options. The sortOptions specify properties to sort the result set by.
+     *                    Must be empty if a page token is given.
+     * @param tracingContext The context to track the processing of the request in
+     *                       or {@code null} if no such context exists.
+     * @return A future indicating the outcome of the operation.
+     *         <p>
+     *         The future will be succeeded with a set of matching devices or failed with a
+     *         {@link org.eclipse.hono.client.ServiceInvocationException}, if the query could not be
+     *         executed.
+     * @throws NullPointerException if any of the parameters other than tracing context are {@code null}.
+     * @throws IllegalArgumentException if page size is &lt;= 0 or page offset is negative or if a page token
+     *                                  is given together with a page offset &gt; 0 or sort options.
+     */
     Future<SearchResult<DeviceWithId>> find(
             String tenantId,
             int pageSize,
             int pageOffset,
+            Optional<String> pageToken,
             List<Filter> filters,
             List<Sort> sortOptions,
             SpanContext tracingContext);
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2021, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2021, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -39,6 +39,7 @@ import io.opentracing.Tracer;
 import io.opentracing.noop.NoopTracerFactory;
 import io.quarkus.runtime.annotations.RegisterForReflection;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Promise;
@@ -46,6 +47,7 @@ import io.vertx.core.Vertx;
 import io.vertx.core.impl.VertxInternal;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.ext.mongo.FindOptions;
 import io.vertx.ext.mongo.IndexOptions;
 import io.vertx.ext.mongo.MongoClient;
 
@@ -303,6 +305,126 @@ public abstract class MongoDbBasedDao {
                 .recover(this::mapError);
     }
 
+    /**
+     * Finds resources such as tenant or device from the given MongoDB collection with the provided
+     * paging, filtering and sorting options.
+     * <p>
+     * If a page token is given, the resources following the resource that the token has been created for
+     * are retrieved by means of a range query on the identifier field (keyset pagination). The cost of such a
+     * query does not depend on the position of the page within the result set.
+     * Otherwise, this method delegates to {@link #processSearchResource(int, int, JsonObject, JsonObject, Function)},
+     * sorting the resources by their identifier if the sort document is empty.
+     * <p>
+     * In both cases the result contains a token for retrieving the next page if the page is full and
+     * the resources are sorted by their identifier.
+     *
+     * @param pageSize The maximum number of results to include in a response.
+     * @param pageOffset The offset into the result set from which to include objects in the response.
+     *                   Must be 0 if a page token is given.
+     * @param pageToken The token returned as part of the previous page of the result set.
+     * @param idField The name of the field containing the resources' identifiers.
+     * @param filterDocument The document used for filtering the resources.
+     * @param sortDocument The document used for sorting the resources. Must be empty if a page token is given.
+     * @param resultMapper The mapper used for mapping the result for the search operation.
+     * @param idExtractor The function to use for getting a resource's identifier.
+     * @param <T> The type of the result namely {@link org.eclipse.hono.service.management.device.DeviceWithId} or
+     *           {@link org.eclipse.hono.service.management.tenant.TenantWithId}
+     * @return A future indicating the outcome of the operation. The future will succeed if the search operation
+     *         is successful and some resources are found. If no resources are found then the future will fail
+     *         with a {@link ClientErrorException} with status {@link HttpURLConnection#HTTP_NOT_FOUND}.
+     *         The future will be failed with a {@link ClientErrorException} with status
+     *         {@link HttpURLConnection#HTTP_BAD_REQUEST} if the page token is malformed.
+     *         The future will be failed with a {@link ServiceInvocationException} if the query could not be executed.
+     * @throws NullPointerException if any of the parameters is {@code null}.
+     * @throws IllegalArgumentException if page size is &lt;= 0 or page offset is &lt; 0 or if a page token
+     *                                  is given together with a page offset &gt; 0 or a non-empty sort document.
+     */
+    protected <T> Future<SearchResult<T>> processSearchResource(
+            final int pageSize,
+            final int pageOffset,
+            final Optional<String> pageToken,
+            final String idField,
+            final JsonObject filterDocument,
+            final JsonObject sortDocument,
+            final Function<JsonObject, List<T>> resultMapper,
+            final Function<T, String> idExtractor) {
+
+        Objects.requireNonNull(pageToken);
+        Objects.requireNonNull(idField);
+        Objects.requireNonNull(filterDocument);
+        Objects.requireNonNull(sortDocument);
+        Objects.requireNonNull(resultMapper);
+        Objects.requireNonNull(idExtractor);
+
+        if (pageToken.isEmpty()) {
+            final JsonObject effectiveSortDocument = sortDocument.isEmpty()
+                    ? new JsonObject().put(idField, 1)
+                    : sortDocument;
+            return processSearchResource(pageSize, pageOffset, filterDocument, effectiveSortDocument, resultMapper)
+                    .map(result -> sortDocument.isEmpty()
+                            ? withNextPageToken(result, pageSize, idExtractor)
+                            : result);
+        }
+
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("page size must be a positive integer");
+        }
+        if (pageOffset > 0 || !sortDocument.isEmpty()) {
+            throw new IllegalArgumentException("page token cannot be used with page offset or sort options");
+        }
+
+        final String lastId;
+        try {
+            lastId = SearchResult.getLastIdFromPageToken(pageToken.get());
+        } catch (final IllegalArgumentException e) {
+            return Future.failedFuture(new ClientErrorException(
+                    HttpURLConnection.HTTP_BAD_REQUEST,
+                    "malformed page token"));
+        }
+
+        final JsonObject rangeDocument = new JsonObject().put(idField, new JsonObject().put("$gt", lastId));
+        final JsonObject pageQuery = filterDocument.isEmpty()
+                ? rangeDocument
+                : new JsonObject().put("$and", new JsonArray().add(filterDocument).add(rangeDocument));
+        final FindOptions findOptions = new FindOptions()
+                .setSort(new JsonObject().put(idField, 1))
+                .setLimit(pageSize);
+
+        if (LOG.isTraceEnabled()) {
+            LOG.trace("searching resources using query:{}{}", System.lineSeparator(), pageQuery.encodePrettily());
+        }
+
+        final Future<Long> totalCount = mongoClient.count(collectionName, filterDocument);
+        final Future<List<JsonObject>> page = mongoClient.findWithOptions(collectionName, pageQuery, findOptions);
+
+        return CompositeFuture.all(totalCount, page)
+                .map(ok -> {
+                    if (page.result().isEmpty()) {
+                        throw new ClientErrorException(HttpURLConnection.HTTP_NOT_FOUND);
+                    }
+                    final List<T> resources = resultMapper.apply(new JsonObject()
+                            .put(RegistryManagementConstants.FIELD_RESULT_SET_PAGE, new JsonArray(page.result())));
+                    return withNextPageToken(
+                            new SearchResult<>(totalCount.result().intValue(), resources),
+                            pageSize,
+                            idExtractor);
+                })
+                .recover(this::mapError);
+    }
+
+    private static <T> SearchResult<T> withNextPageToken(
+            final SearchResult<T> result,
+            final int pageSize,
+            final Function<T, String> idExtractor) {
+
+        final List<T> resources = result.getResult();
+        if (resources.size() < pageSize) {
+            return result;
+        }
+        final String lastId = idExtractor.apply(resources.get(resources.size() - 1));
+        return new SearchResult<>(result.getTotal(), resources, SearchResult.createPageToken(lastId));
+    }
+
     /**
      * Gets the MongoDB aggregation pipeline query consisting of various stages for finding resources from 
      * a MongoDB collection based on the provided paging, filtering and sorting options.
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2021 Contributors to the Eclipse Foundation
+ * Copyright (c) 2021, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -281,11 +281,13 @@ public final class MongoDbBasedDeviceDao extends MongoDbBasedDao implements Devi
             final String tenantId,
             final int pageSize,
             final int pageOffset,
+            final Optional<String> pageToken,
             final List<Filter> filters,
             final List<Sort> sortOptions,
             final SpanContext tracingContext) {
 
         Objects.requireNonNull(tenantId);
+        Objects.requireNonNull(pageToken);
         Objects.requireNonNull(filters);
         Objects.requireNonNull(sortOptions);
 
@@ -311,9 +313,12 @@ public final class MongoDbBasedDeviceDao extends MongoDbBasedDao implements Devi
         return processSearchResource(
                 pageSize,
                 pageOffset,
+                pageToken,
+                DeviceDto.FIELD_DEVICE_ID,
                 filterDocument,
                 sortDocument,
-                MongoDbBasedDeviceDao::getDevicesWithId)
+                MongoDbBasedDeviceDao::getDevicesWithId,
+                DeviceWithId::getId)
             .onFailure(t -> TracingHelper.logError(span, "error finding devices", t))
             .onComplete(r -> span.finish());
     }
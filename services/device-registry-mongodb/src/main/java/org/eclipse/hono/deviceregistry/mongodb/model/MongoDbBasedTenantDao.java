@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2021, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2021, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -449,10 +449,12 @@ public final class MongoDbBasedTenantDao extends MongoDbBasedDao implements Tena
     public Future<SearchResult<TenantWithId>> find(
             final int pageSize,
             final int pageOffset,
+            final Optional<String> pageToken,
             final List<Filter> filters,
             final List<Sort> sortOptions,
             final SpanContext tracingContext) {
 
+        Objects.requireNonNull(pageToken);
         Objects.requireNonNull(filters);
         Objects.requireNonNull(sortOptions);
 
@@ -477,9 +479,12 @@ public final class MongoDbBasedTenantDao extends MongoDbBasedDao implements Tena
         return processSearchResource(
                 pageSize,
                 pageOffset,
+                pageToken,
+                TenantDto.FIELD_TENANT_ID,
                 filterDocument,
                 sortDocument,
-                MongoDbBasedTenantDao::getTenantsWithId)
+                MongoDbBasedTenantDao::getTenantsWithId,
+                TenantWithId::getId)
             .onFailure(t -> TracingHelper.logError(span, "error finding tenants", t))
             .onComplete(r -> span.finish());
     }
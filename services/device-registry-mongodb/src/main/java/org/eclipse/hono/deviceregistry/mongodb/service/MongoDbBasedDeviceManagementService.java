@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2021, 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2021, 2023 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -137,17 +137,19 @@ public final class MongoDbBasedDeviceManagementService extends AbstractDeviceMan
             final String tenantId,
             final int pageSize,
             final int pageOffset,
+            final Optional<String> pageToken,
             final List<Filter> filters,
             final List<Sort> sortOptions,
             final Span span) {
 
         Objects.requireNonNull(tenantId);
+        Objects.requireNonNull(pageToken);
         Objects.requireNonNull(filters);
         Objects.requireNonNull(sortOptions);
         Objects.requireNonNull(span);
 
         return tenantInformationService.getTenant(tenantId, span)
-                .compose(ok -> deviceDao.find(tenantId, pageSize, pageOffset, filters, sortOptions, span.context()))
+                .compose(ok -> deviceDao.find(tenantId, pageSize, pageOffset, pageToken, filters, sortOptions, span.context()))
                 .map(result -> OperationResult.ok(
                         HttpURLConnection.HTTP_OK,
                         result,